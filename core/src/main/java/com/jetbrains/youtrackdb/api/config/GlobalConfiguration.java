@@ -23,6 +23,7 @@ import com.jetbrains.youtrackdb.internal.common.io.FileUtils;
 import com.jetbrains.youtrackdb.internal.common.log.LogManager;
 import com.jetbrains.youtrackdb.internal.core.YouTrackDBConstants;
 import com.jetbrains.youtrackdb.internal.core.config.ConfigurationChangeCallback;
+import com.jetbrains.youtrackdb.internal.core.tx.Durability;
 import java.io.PrintStream;
 import java.util.Locale;
 import java.util.Map;
@@ -206,6 +207,25 @@ public enum GlobalConfiguration {
       false,
       true),
 
+  STORAGE_PAGE_COMPRESSION_METHOD(
+      "youtrackdb.storage.pageCompression.method",
+      "Compression method which is applied by the disk cache to the pages of data files before"
+          + " they are written to the disk. Possible values: 'nothing' (default) – pages are"
+          + " written as is; 'lz4' – pages are compressed by LZ4. Each page stores whether it is"
+          + " compressed, so compression can be switched on and off between openings of the"
+          + " database. Pages are kept uncompressed in memory, compression reduces amount of"
+          + " data written to and read from the disk.",
+      String.class,
+      "nothing",
+      false),
+
+  STORAGE_PAGE_COMPRESSION_OPTIONS(
+      "youtrackdb.storage.pageCompression.options",
+      "Options of the page compression method. LZ4 supports 'fast' (default) and 'high' modes.",
+      String.class,
+      null,
+      false),
+
   STORAGE_MAKE_FULL_CHECKPOINT_AFTER_CREATE(
       "youtrackdb.storage.makeFullCheckpointAfterCreate",
       "Indicates whether a full checkpoint should be performed, if storage was created",
@@ -295,6 +315,15 @@ public enum GlobalConfiguration {
       Integer.class,
       10_000),
 
+  STORAGE_SNAPSHOT_INDEX_MEMORY_BUDGET(
+      "youtrackdb.storage.snapshotIndex.memoryBudget",
+      "Approximate amount of heap memory in bytes used by the record versions kept in the shared"
+          + " snapshot index for active transactions. The oldest versions above this budget are"
+          + " moved to temporary non-durable files which are removed on restart. Applies to disk"
+          + " storages only, 0 disables spilling",
+      Long.class,
+      256L * 1024 * 1024),
+
   STORAGE_TX_MONITOR_ENABLED(
       "youtrackdb.storage.tx.monitor.enabled",
       "Enable periodic monitoring of long-running transactions that prevent snapshot GC",
@@ -417,6 +446,30 @@ public enum GlobalConfiguration {
       Integer.class,
       1000),
 
+  WAL_GROUP_COMMIT_MAX_DELAY(
+      "youtrackdb.storage.wal.groupCommitMaxDelay",
+      "Maximum time for which the WAL fsync of a commit with GROUP durability is delayed to collect"
+          + " concurrent commits which are synced together (in microseconds)",
+      Integer.class,
+      1000),
+
+  TX_DURABILITY(
+      "youtrackdb.tx.durability",
+      "Durability of transaction commits which do not specify it explicitly. ASYNC - commit does"
+          + " not wait for the WAL fsync, GROUP - commit waits for the WAL fsync which is shared"
+          + " with concurrent commits, SYNC - commit waits for the WAL fsync which is started at"
+          + " once",
+      Durability.class,
+      Durability.ASYNC),
+
+  TX_BLOB_SPILL_THRESHOLD(
+      "youtrackdb.tx.blobSpillThreshold",
+      "Amount of blob content (in bytes) which a transaction keeps in the Java heap. Content of"
+          + " blobs created or updated once the threshold is exceeded is written to a temporary"
+          + " file and read back on access and at commit. 0 disables spilling",
+      Long.class,
+      64L * 1024 * 1024),
+
   WAL_SHUTDOWN_TIMEOUT(
       "youtrackdb.storage.wal.shutdownTimeout",
       "Maximum wait interval between events, when the background flush thread"
@@ -443,6 +496,15 @@ public enum GlobalConfiguration {
       Integer.class,
       1000),
 
+  WAL_RESTORE_THREADS(
+      "youtrackdb.storage.wal.restore.threads",
+      "Amount of threads which apply page changes during a restore procedure. Changes of each"
+          + " page are applied by the same thread in the order they were logged, while changes of"
+          + " different pages are applied in parallel. 1 applies all changes in the thread which"
+          + " reads the log",
+      Integer.class,
+      1),
+
   WAL_LOCATION(
       "youtrackdb.storage.wal.path",
       "Path to the WAL file on the disk. By default, it is placed in the DB directory, but"
@@ -456,6 +518,14 @@ public enum GlobalConfiguration {
       Integer.class,
       8),
 
+  DISK_CACHE_READ_AHEAD_WINDOW(
+      "youtrackdb.storage.diskCache.readAheadWindow",
+      "Amount of pages which are read ahead asynchronously once the disk cache detects that"
+          + " pages of a file are loaded sequentially, for example by a full scan of a collection"
+          + " or of an index. 0 disables read-ahead",
+      Integer.class,
+      16),
+
   DISK_CACHE_FREE_SPACE_LIMIT(
       "youtrackdb.storage.diskCache.diskFreeSpaceLimit",
       "Minimum amount of space on disk, which, when exceeded, "
@@ -541,6 +611,14 @@ public enum GlobalConfiguration {
       "youtrackdb.index.stream.prefetchSize", "Default prefetch size of index stream",
       Integer.class, 10),
 
+  INDEX_BUILD_SORT_BUFFER_SIZE(
+      "youtrackdb.index.build.sortBufferSize",
+      "Amount of index entries which are sorted in memory when an index is built or rebuilt."
+          + " Entries above this amount are sorted in runs which are spilled to the query spill"
+          + " directory of the storage and merged, so the index is filled in key order",
+      Integer.class,
+      500_000),
+
   // SBTREE
   BTREE_MAX_DEPTH(
       "youtrackdb.btree.maxDepth",
@@ -953,6 +1031,15 @@ public enum GlobalConfiguration {
       Long.class,
       500_000),
 
+  QUERY_SPILL_TO_DISK_ENABLED(
+      "youtrackdb.query.spillToDisk.enabled",
+      "When true, ORDER BY, DISTINCT and GROUP BY that exceed "
+          + "youtrackdb.query.maxHeapElementsAllowedPerOp keep their excess rows in temporary files"
+          + " under the storage directory instead of failing the query with a"
+          + " CommandExecutionException",
+      Boolean.class,
+      false),
+
   QUERY_LIVE_SUPPORT(
       "youtrackdb.query.live.support",
       "Enable/Disable the support of live query. (Use false to disable)",
@@ -1022,6 +1109,22 @@ public enum GlobalConfiguration {
       3,
       true),
 
+  QUERY_SHARED_RESULT_CACHE_ENABLED(
+      "youtrackdb.query.sharedResultCache.enabled",
+      "Enable the database-level query result cache shared by all transactions. Results of"
+          + " deterministic SELECT/MATCH queries run by transactions without uncommitted changes"
+          + " are reused by later transactions whose snapshot is at least as new, until a commit"
+          + " touches one of the collections the query read. Off by default.",
+      Boolean.class,
+      false),
+
+  QUERY_SHARED_RESULT_CACHE_MAX_SIZE(
+      "youtrackdb.query.sharedResultCache.maxSize",
+      "Maximum estimated heap size in bytes of the results held by the shared query result cache"
+          + " of a database (LRU eviction). A single result may take at most 1/16 of it.",
+      Long.class,
+      64L * 1024 * 1024),
+
   QUERY_GREMLIN_TO_MATCH_TRANSLATOR_ENABLED(
       "youtrackdb.query.gremlin.toMatchTranslator.enabled",
       "Enables the Gremlin-to-MATCH translator strategy. When true, a Gremlin traversal"
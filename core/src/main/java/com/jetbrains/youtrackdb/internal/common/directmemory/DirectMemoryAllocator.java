@@ -434,6 +434,7 @@ public class DirectMemoryAllocator implements DirectMemoryAllocatorMXBean {
     ADD_NEW_PAGE_IN_DISK_CACHE,
     CHECK_FILE_STORAGE,
     LOAD_PAGE_FROM_DISK,
+    READ_AHEAD_PAGE_FROM_DISK,
     COPY_PAGE_DURING_FLUSH,
     COPY_PAGE_DURING_EXCLUSIVE_PAGE_FLUSH,
     FILE_FLUSH,
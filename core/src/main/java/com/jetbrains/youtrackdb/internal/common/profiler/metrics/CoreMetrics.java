@@ -202,6 +202,17 @@ public class CoreMetrics {
               TimeInterval.of(1, TimeUnit.SECONDS),
               TimeUnit.SECONDS));
 
+  public static final MetricDefinition<MetricScope.Database, Ratio> READ_AHEAD_HIT_RATIO =
+      new MetricDefinition<>(
+          "ReadAheadHitRatio",
+          "Read-Ahead Hit Ratio",
+          "The ratio of pages prefetched by the disk cache read-ahead which were requested before"
+              + " being discarded (in percents) for the last 60 seconds",
+          MetricType.ratio(
+              TimeInterval.of(60, TimeUnit.SECONDS),
+              TimeInterval.of(1, TimeUnit.SECONDS),
+              100.0));
+
   public static final MetricDefinition<MetricScope.Database, TimeRate> DISK_WRITE_RATE =
       new MetricDefinition<>(
           "DiskWriteRate",
@@ -317,6 +328,7 @@ public class CoreMetrics {
 
   public static final Set<MetricDefinition<MetricScope.Database, ?>> DATABASE_METRICS = Set.of(
       DISK_READ_RATE,
+      READ_AHEAD_HIT_RATIO,
       DISK_WRITE_RATE,
       DATABASE_FREEZE_DURATION,
       DATABASE_RELEASE_DURATION,
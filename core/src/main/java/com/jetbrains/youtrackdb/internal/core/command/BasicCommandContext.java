@@ -517,6 +517,15 @@ public class BasicCommandContext implements CommandContext {
     return session;
   }
 
+  @Nullable @Override
+  public DatabaseSessionEmbedded getDatabaseSessionIfBound() {
+    if (session != null) {
+      return session;
+    }
+
+    return parent == null ? null : parent.getDatabaseSessionIfBound();
+  }
+
   @Override
   public void setDatabaseSession(DatabaseSessionEmbedded session) {
     this.session = session;
@@ -116,6 +116,14 @@ public interface CommandContext {
 
   @Nullable DatabaseSessionEmbedded getDatabaseSession();
 
+  /**
+   * Returns the database session of this context, or {@code null} if the context is not bound to
+   * any session. Unlike {@link #getDatabaseSession()} never throws if the session is missing.
+   */
+  @Nullable default DatabaseSessionEmbedded getDatabaseSessionIfBound() {
+    return getDatabaseSession();
+  }
+
   void setDatabaseSession(DatabaseSessionEmbedded session);
 
   void declareScriptVariable(String varName);
@@ -19,17 +19,23 @@
 
 package com.jetbrains.youtrackdb.internal.core.compression;
 
+import java.nio.ByteBuffer;
+
 /**
- * /** Storage compression interface. Additional compression implementations can be plugged via
+ * Storage compression interface. Additional compression implementations can be plugged via
  * <code>register()</code> method. There are 2 versions:<br>
  *
  * <ul>
- *   <li><code>OCompressionFactory.INSTANCE.register(<class>)</code> for stateful implementations, a
- *       new instance will be created for each storage/li>
- *   <li><code>OCompressionFactory.INSTANCE.register(<instance>)</code> for stateless
- *       implementations, the same instance will be shared across all the storages./li>
+ *   <li><code>CompressionFactory.INSTANCE.register(&lt;class&gt;)</code> for stateful
+ *       implementations, a new instance will be created for each storage</li>
+ *   <li><code>CompressionFactory.INSTANCE.register(&lt;instance&gt;)</code> for stateless
+ *       implementations, the same instance will be shared across all the storages.</li>
  * </ul>
  *
+ * <p>The {@link ByteBuffer} based methods are used by the disk cache to compress pages without
+ * copying them to the heap. Their default implementations fall back to the array based methods,
+ * so codecs which do not care about page compression do not need to override them.
+ *
  * @since 05.06.13
  */
 public interface Compression {
@@ -45,4 +51,60 @@ public interface Compression {
   String name();
 
   Compression configure(String iOptions);
+
+  /**
+   * Compresses {@code sourceLength} bytes of {@code source} starting at {@code sourceOffset} into
+   * {@code destination} starting at {@code destinationOffset}. Positions and limits of both
+   * buffers are not changed.
+   *
+   * @return length of the compressed data, or {@code -1} if compressed data do not fit into
+   *     {@code maxDestinationLength} bytes.
+   */
+  default int compress(
+      final ByteBuffer source,
+      final int sourceOffset,
+      final int sourceLength,
+      final ByteBuffer destination,
+      final int destinationOffset,
+      final int maxDestinationLength) {
+    final var content = new byte[sourceLength];
+    source.get(sourceOffset, content);
+
+    final var compressed = compress(content);
+    if (compressed.length > maxDestinationLength) {
+      return -1;
+    }
+
+    destination.put(destinationOffset, compressed);
+    return compressed.length;
+  }
+
+  /**
+   * Uncompresses {@code sourceLength} bytes of {@code source} starting at {@code sourceOffset}
+   * into {@code destination} starting at {@code destinationOffset}. Content has to be compressed
+   * by {@link #compress(ByteBuffer, int, int, ByteBuffer, int, int)} and its original length has
+   * to be exactly {@code destinationLength} bytes. Positions and limits of both buffers are not
+   * changed.
+   */
+  default void uncompress(
+      final ByteBuffer source,
+      final int sourceOffset,
+      final int sourceLength,
+      final ByteBuffer destination,
+      final int destinationOffset,
+      final int destinationLength) {
+    final var content = new byte[sourceLength];
+    source.get(sourceOffset, content);
+
+    final var uncompressed = uncompress(content);
+    if (uncompressed.length != destinationLength) {
+      throw new IllegalArgumentException(
+          "Length of uncompressed content "
+              + uncompressed.length
+              + " does not match expected length "
+              + destinationLength);
+    }
+
+    destination.put(destinationOffset, uncompressed);
+  }
 }
@@ -0,0 +1,110 @@
+package com.jetbrains.youtrackdb.internal.core.compression;
+
+import com.jetbrains.youtrackdb.internal.core.exception.ConfigurationException;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nullable;
+
+/**
+ * Registry of the {@link Compression} implementations available to the storages.
+ *
+ * <p>Name {@value #NOTHING} is reserved and means that compression is switched off, so
+ * {@link #getCompression(String, String)} returns {@code null} for it.
+ */
+public final class CompressionFactory {
+
+  public static final String NOTHING = "nothing";
+
+  public static final CompressionFactory INSTANCE = new CompressionFactory();
+
+  private final Map<String, Compression> compressions = new ConcurrentHashMap<>();
+  private final Map<String, Class<? extends Compression>> compressionClasses =
+      new ConcurrentHashMap<>();
+
+  private CompressionFactory() {
+    register(LZ4Compression.FAST);
+  }
+
+  /**
+   * Returns compression instance configured by passed in options.
+   *
+   * @param name    Name of the compression, or {@value #NOTHING} if compression is not used.
+   * @param options Options passed to {@link Compression#configure(String)}, may be {@code null}.
+   * @return Compression instance or {@code null} if name is {@code null} or {@value #NOTHING}.
+   */
+  @Nullable public Compression getCompression(@Nullable final String name,
+      @Nullable final String options) {
+    if (name == null || name.isEmpty() || NOTHING.equalsIgnoreCase(name)) {
+      return null;
+    }
+
+    final var compression = compressions.get(name);
+    if (compression != null) {
+      return compression.configure(options);
+    }
+
+    final var compressionClass = compressionClasses.get(name);
+    if (compressionClass != null) {
+      try {
+        return compressionClass.getDeclaredConstructor().newInstance().configure(options);
+      } catch (InstantiationException
+          | IllegalAccessException
+          | InvocationTargetException
+          | NoSuchMethodException e) {
+        throw new ConfigurationException(
+            "Cannot create instance of compression '" + name + "' : " + e.getMessage());
+      }
+    }
+
+    throw new ConfigurationException(
+        "Compression with name '" + name + "' is absent, registered compressions: "
+            + getCompressions());
+  }
+
+  /**
+   * Registers stateless compression, the same instance will be shared across all the storages.
+   */
+  public void register(final Compression compression) {
+    final var name = compression.name();
+    if (compressions.containsKey(name) || compressionClasses.containsKey(name)) {
+      throw new IllegalArgumentException(
+          "Compression with name '" + name + "' was already registered");
+    }
+
+    compressions.put(name, compression);
+  }
+
+  /**
+   * Registers stateful compression, a new instance will be created for each storage.
+   */
+  public void register(final Class<? extends Compression> compressionClass) {
+    final String name;
+    try {
+      name = compressionClass.getDeclaredConstructor().newInstance().name();
+    } catch (InstantiationException
+        | IllegalAccessException
+        | InvocationTargetException
+        | NoSuchMethodException e) {
+      throw new IllegalArgumentException(
+          "Cannot register compression class " + compressionClass.getName(), e);
+    }
+
+    if (compressions.containsKey(name) || compressionClasses.containsKey(name)) {
+      throw new IllegalArgumentException(
+          "Compression with name '" + name + "' was already registered");
+    }
+
+    compressionClasses.put(name, compressionClass);
+  }
+
+  public Set<String> getCompressions() {
+    final var names = new TreeSet<String>();
+    names.add(NOTHING);
+    names.addAll(compressions.keySet());
+    names.addAll(compressionClasses.keySet());
+    return names;
+  }
+}
@@ -0,0 +1,168 @@
+package com.jetbrains.youtrackdb.internal.core.compression;
+
+import com.jetbrains.youtrackdb.internal.common.serialization.types.IntegerSerializer;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+
+/**
+ * LZ4 based compression. Stateless, so single instance is shared between all storages.
+ *
+ * <p>Array based methods prefix compressed content with the length of original content because
+ * LZ4 block format does not store it. {@link ByteBuffer} based methods do not add any prefix, the
+ * caller is responsible for storing of the original length.
+ *
+ * <p>Two modes may be passed to {@link #configure(String)}: {@code fast} (default) and
+ * {@code high}. The last one trades compression speed for better compression ratio, the speed of
+ * decompression is the same for both modes.
+ */
+public final class LZ4Compression implements Compression {
+
+  public static final String NAME = "lz4";
+
+  public static final LZ4Compression FAST = new LZ4Compression(false);
+  public static final LZ4Compression HIGH = new LZ4Compression(true);
+
+  private static final String HIGH_MODE = "high";
+  private static final String FAST_MODE = "fast";
+
+  private final boolean highCompression;
+  private final LZ4Compressor compressor;
+  private final LZ4SafeDecompressor decompressor;
+
+  private LZ4Compression(final boolean highCompression) {
+    final var factory = LZ4Factory.fastestInstance();
+
+    this.highCompression = highCompression;
+    this.compressor = highCompression ? factory.highCompressor() : factory.fastCompressor();
+    // safe decompressor never reads or writes outside of the passed in boundaries, so broken
+    // content stored on disk can not corrupt the memory of the process
+    this.decompressor = factory.safeDecompressor();
+  }
+
+  @Override
+  public byte[] compress(final byte[] content) {
+    return compress(content, 0, content.length);
+  }
+
+  @Override
+  public byte[] compress(final byte[] content, final int offset, final int length) {
+    final var result =
+        new byte[IntegerSerializer.INT_SIZE + compressor.maxCompressedLength(length)];
+    IntegerSerializer.serializeLiteral(length, result, 0);
+
+    final var compressedLength =
+        compressor.compress(
+            content, offset, length, result, IntegerSerializer.INT_SIZE,
+            result.length - IntegerSerializer.INT_SIZE);
+    return Arrays.copyOf(result, IntegerSerializer.INT_SIZE + compressedLength);
+  }
+
+  @Override
+  public byte[] uncompress(final byte[] content) {
+    return uncompress(content, 0, content.length);
+  }
+
+  @Override
+  public byte[] uncompress(final byte[] content, final int offset, final int length) {
+    final var uncompressedLength = IntegerSerializer.deserializeLiteral(content, offset);
+    final var result = new byte[uncompressedLength];
+
+    final var decompressed =
+        decompressor.decompress(
+            content, offset + IntegerSerializer.INT_SIZE, length - IntegerSerializer.INT_SIZE,
+            result, 0);
+    if (decompressed != uncompressedLength) {
+      throw new IllegalArgumentException(
+          "Compressed content is broken, "
+              + decompressed
+              + " bytes were restored instead of "
+              + uncompressedLength);
+    }
+    return result;
+  }
+
+  @Override
+  public int compress(
+      final ByteBuffer source,
+      final int sourceOffset,
+      final int sourceLength,
+      final ByteBuffer destination,
+      final int destinationOffset,
+      final int maxDestinationLength) {
+    try {
+      return compressor.compress(
+          source, sourceOffset, sourceLength, destination, destinationOffset,
+          maxDestinationLength);
+    } catch (final LZ4Exception e) {
+      // destination is too small, content is not compressible enough
+      return -1;
+    }
+  }
+
+  @Override
+  public void uncompress(
+      final ByteBuffer source,
+      final int sourceOffset,
+      final int sourceLength,
+      final ByteBuffer destination,
+      final int destinationOffset,
+      final int destinationLength) {
+    final int decompressed;
+    try {
+      decompressed =
+          decompressor.decompress(
+              source, sourceOffset, sourceLength, destination, destinationOffset,
+              destinationLength);
+    } catch (final LZ4Exception e) {
+      throw new IllegalArgumentException("Compressed content is broken", e);
+    }
+
+    if (decompressed != destinationLength) {
+      throw new IllegalArgumentException(
+          "Compressed content is broken, "
+              + decompressed
+              + " bytes were restored instead of "
+              + destinationLength);
+    }
+  }
+
+  /**
+   * Maximum length of the compressed content for the content of the given length.
+   */
+  public int maxCompressedLength(final int length) {
+    return compressor.maxCompressedLength(length);
+  }
+
+  @Override
+  public String name() {
+    return NAME;
+  }
+
+  @Override
+  public Compression configure(final String iOptions) {
+    if (iOptions == null || iOptions.isEmpty() || FAST_MODE.equalsIgnoreCase(iOptions)) {
+      return FAST;
+    }
+
+    if (HIGH_MODE.equalsIgnoreCase(iOptions)) {
+      return HIGH;
+    }
+
+    throw new IllegalArgumentException(
+        "Unknown mode of LZ4 compression '"
+            + iOptions
+            + "', supported modes are '"
+            + FAST_MODE
+            + "' and '"
+            + HIGH_MODE
+            + "'");
+  }
+
+  public boolean isHighCompression() {
+    return highCompression;
+  }
+}
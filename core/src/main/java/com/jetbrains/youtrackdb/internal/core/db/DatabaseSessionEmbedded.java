@@ -143,6 +143,7 @@ import com.jetbrains.youtrackdb.internal.core.sql.executor.cache.DeltaBuilder;
 import com.jetbrains.youtrackdb.internal.core.sql.executor.cache.NonDeterministicQueryDetector;
 import com.jetbrains.youtrackdb.internal.core.sql.executor.cache.QueryResultCache;
 import com.jetbrains.youtrackdb.internal.core.sql.executor.cache.ShapeClassifier;
+import com.jetbrains.youtrackdb.internal.core.sql.executor.cache.SharedQueryResultCache;
 import com.jetbrains.youtrackdb.internal.core.sql.executor.cache.TxDeltaCursor;
 import com.jetbrains.youtrackdb.internal.core.sql.executor.resultset.IdempotentExecutionStream;
 import com.jetbrains.youtrackdb.internal.core.sql.executor.resultset.ResultMapper;
@@ -175,7 +176,9 @@ import com.jetbrains.youtrackdb.internal.core.storage.StorageReadResult;
 import com.jetbrains.youtrackdb.internal.core.storage.cache.OptimisticReadFailedException;
 import com.jetbrains.youtrackdb.internal.core.storage.impl.local.AbstractStorage;
 import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.atomicoperations.AtomicOperation;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.atomicoperations.AtomicOperationsTable.AtomicOperationsSnapshot;
 import com.jetbrains.youtrackdb.internal.core.storage.ridbag.LinkCollectionsBTreeManager;
+import com.jetbrains.youtrackdb.internal.core.tx.Durability;
 import com.jetbrains.youtrackdb.internal.core.tx.FrontendTransaction;
 import com.jetbrains.youtrackdb.internal.core.tx.FrontendTransaction.TXSTATUS;
 import com.jetbrains.youtrackdb.internal.core.tx.FrontendTransactionImpl;
@@ -261,6 +264,7 @@ public class DatabaseSessionEmbedded extends ListenerManger<SessionListener>
   private final TransactionMeters transactionMeters;
 
   private boolean ensureLinkConsistency = true;
+  private final HashSet<String> deferredIndexes = new HashSet<>();
 
   private final HashMap<String, Object> properties = new HashMap<>();
   private final HashSet<Identifiable> inHook = new HashSet<>();
@@ -466,11 +470,18 @@ public class DatabaseSessionEmbedded extends ListenerManger<SessionListener>
             "Impossible to open database from version before 2.x use export import instead");
       }
 
-      if (storage.getRecordSerializerVersion()
-          > serializer.getMinSupportedVersion()) {
+      var recordSerializerVersion = storage.getRecordSerializerVersion();
+      if (recordSerializerVersion > serializer.getCurrentVersion()
+          || recordSerializerVersion < serializer.getMinSupportedVersion()) {
         throw new DatabaseException(getDatabaseName(),
             "Persistent record serializer version is not support by the current implementation");
       }
+      // databases created with an older record format keep writing it, so that they stay
+      // readable by the versions which created them; records of any known format are read
+      if (recordSerializerVersion < serializer.getCurrentVersion()
+          && serializer == RecordSerializerBinary.INSTANCE) {
+        setSerializer(RecordSerializerBinary.forVersion(recordSerializerVersion));
+      }
 
       localCache.startup(this);
 
@@ -760,6 +771,7 @@ public class DatabaseSessionEmbedded extends ListenerManger<SessionListener>
     if (indexManager.autoRecreateIndexesAfterCrash(this)) {
       indexManager.recreateIndexes(this);
     }
+    indexManager.rebuildStaleRebuildPendingIndexes(this);
   }
 
   private void installHooksEmbedded() {
@@ -874,6 +886,17 @@ public class DatabaseSessionEmbedded extends ListenerManger<SessionListener>
     if (!(currentTx instanceof FrontendTransactionImpl tx)) {
       return executeUncached(statement, args);
     }
+    // The database-level cache serves transactions without uncommitted changes; once the
+    // transaction has changes it falls through to the per-transaction cache below.
+    var sharedResultCache = sharedContext.getSharedQueryResultCache();
+    if (sharedResultCache != null
+        && tx.getCacheCodeDepth() == 0
+        && (statement instanceof SQLSelectStatement || statement instanceof SQLMatchStatement)) {
+      var served = serveThroughSharedCache(sharedResultCache, statement, args, tx);
+      if (served != null) {
+        return served;
+      }
+    }
     var cache = tx.getQueryResultCache();
     // Feature off (null cache) or re-entrant call: run the plain uncached path. The tx-level
     // re-entrancy depth brackets the whole lookup-and-view scope below (and, via the view, the lazy
@@ -1017,6 +1040,64 @@ public class DatabaseSessionEmbedded extends ListenerManger<SessionListener>
     }
   }
 
+  /**
+   * Serves the statement through the database-level {@link SharedQueryResultCache}, or returns
+   * {@code null} if it is not eligible for it. Only a transaction which has no uncommitted changes
+   * and took its own snapshot may use the cache, and only with immutable parameters. On a miss the
+   * statement is stored if it is deterministic and its read set is known: a SELECT must read only
+   * its target class closure and is tagged with the collections of the closure, while an eligible
+   * MATCH is tagged as reading every collection. User-defined functions may read anything, so a
+   * statement calling one is not cached.
+   */
+  @Nullable private ResultSet serveThroughSharedCache(
+      @Nonnull SharedQueryResultCache sharedResultCache, @Nonnull SQLStatement statement,
+      @Nullable Object args, @Nonnull FrontendTransactionImpl tx) {
+    var txEpoch = tx.getSharedCacheEpoch();
+    if (txEpoch < 0
+        || tx.getMutationVersion() != 0
+        || tx.getEntryCount() != 0
+        || getTxSchemaState() != null
+        || !SharedQueryResultCache.areCacheableParameters(args)) {
+      return null;
+    }
+
+    var user = getCurrentUser();
+    var key =
+        new SharedQueryResultCache.Key(
+            lazyCacheKey(statement, args).get(), user != null ? user.getName(this) : "");
+    var hit = sharedResultCache.lookup(key, txEpoch, this);
+    if (hit != null) {
+      return hit;
+    }
+
+    if (NonDeterministicQueryDetector.containsNonDeterministicReference(statement)) {
+      return null;
+    }
+    var functionLibrary = getMetadata().getFunctionLibrary();
+    if (ShapeClassifier.callsFunction(
+        statement, name -> functionLibrary.getFunction(this, name) != null)) {
+      return null;
+    }
+
+    int[] collectionIds;
+    if (statement instanceof SQLSelectStatement select) {
+      if (select.getTimeout() != null || !ShapeClassifier.readsOnlyTargetClass(select)) {
+        return null;
+      }
+      var targetClass = select.getTarget().getItem().getSchemaClass(this);
+      if (targetClass == null) {
+        return null;
+      }
+      collectionIds = targetClass.getPolymorphicCollectionIds();
+    } else {
+      if (ShapeClassifier.classify(statement) == CacheableShape.K0_NONE) {
+        return null;
+      }
+      collectionIds = null;
+    }
+    return sharedResultCache.record(executeUncached(statement, args), key, collectionIds, txEpoch);
+  }
+
   /** Runs the ordinary uncached execution path, dispatching on the parameter shape. */
   private ResultSet executeUncached(@Nonnull SQLStatement statement, @Nullable Object args) {
     if (args instanceof Map) {
@@ -2520,6 +2601,25 @@ public class DatabaseSessionEmbedded extends ListenerManger<SessionListener>
     begin(newReadOnlyTxInstance(FrontendTransactionImpl.generateTxId()));
   }
 
+  /**
+   * Begins a read-only transaction which observes the given snapshot instead of taking a new one.
+   * It is used to execute parts of a query started by another session in parallel, so that all
+   * of them see exactly the same state of the database.
+   */
+  public void beginReadOnly(@Nonnull AtomicOperationsSnapshot snapshot) {
+    assert assertIfNotActive();
+
+    checkOpenness();
+
+    if (currentTx.isActive()) {
+      throw new TransactionException(this,
+          "Cannot begin a transaction on a shared snapshot, because another transaction is active");
+    }
+
+    begin(new FrontendTransactionImpl(this, FrontendTransactionImpl.generateTxId(), true,
+        snapshot));
+  }
+
   private void init() {
     assert assertIfNotActive();
     currentTx = new FrontendTransactionNoTx(this);
@@ -4773,6 +4873,16 @@ public class DatabaseSessionEmbedded extends ListenerManger<SessionListener>
     return commitImpl(null, null, null);
   }
 
+  /// Commit the current transaction and return only when its changes have the requested
+  /// durability. For a nested transaction the durability is applied to the commit of the
+  /// outermost transaction.
+  public Map<RID, RID> commit(@Nonnull Durability durability) {
+    if (currentTx instanceof FrontendTransactionImpl tx && tx.isActive()) {
+      tx.requestDurability(durability);
+    }
+    return commitImpl(null, null, null);
+  }
+
   /// Commit the current transaction with transaction metrics collection enabled.
   /// The listener, mode, and tracking ID are passed through to the frontend
   /// transaction so that timing data is captured around the storage commit.
@@ -6124,6 +6234,51 @@ public class DatabaseSessionEmbedded extends ListenerManger<SessionListener>
     return this.ensureLinkConsistency;
   }
 
+  /**
+   * Stops maintenance of the given indexes by the changes of this session: keys of records created,
+   * updated or deleted by the session are not added to or removed from those indexes until
+   * {@link #resumeIndexMaintenance} is called. The caller is responsible for rebuilding the
+   * indexes afterward, which is how bulk loads fill indexes in a single pass instead of once per
+   * record.
+   *
+   * <p>The indexes are marked as not up to date in the storage configuration before maintenance
+   * stops, so query planners ignore them, and an open which finds the mark left by a process that
+   * died before the rebuild rebuilds them. The caller removes the mark once an index is rebuilt,
+   * see {@link IndexManagerEmbedded#clearRebuildPending}.
+   */
+  public void deferIndexMaintenance(@Nonnull Collection<String> indexNames) {
+    sharedContext.getIndexManager().markRebuildPending(this, indexNames);
+    deferredIndexes.addAll(indexNames);
+  }
+
+  /** Restores maintenance of the given indexes deferred by {@link #deferIndexMaintenance}. */
+  public void resumeIndexMaintenance(@Nonnull Collection<String> indexNames) {
+    deferredIndexes.removeAll(indexNames);
+  }
+
+  /** Whether changes of this session currently skip maintenance of the index. */
+  public boolean isIndexMaintenanceDeferred(@Nonnull String indexName) {
+    return !deferredIndexes.isEmpty() && deferredIndexes.contains(indexName);
+  }
+
+  /**
+   * Whether the index misses changes because its maintenance was deferred, by this or any other
+   * session, and it was not rebuilt since. Query planners do not use such indexes.
+   */
+  public boolean isIndexRebuildPending(@Nonnull String indexName) {
+    return sharedContext.getIndexManager().isRebuildPending(indexName);
+  }
+
+  /** See {@link IndexManagerEmbedded#isUsableByQueries}. */
+  public boolean isIndexUsableByQueries(@Nonnull Index index) {
+    return sharedContext.getIndexManager().isUsableByQueries(index);
+  }
+
+  /** See {@link IndexManagerEmbedded#usableByQueries}. */
+  public <I extends Index> Collection<I> indexesUsableByQueries(@Nonnull Collection<I> indexes) {
+    return sharedContext.getIndexManager().usableByQueries(indexes);
+  }
+
   // --- Default methods migrated from DatabaseSessionEmbedded ---
 
   @SuppressWarnings("unused")
@@ -23,6 +23,7 @@ import com.jetbrains.youtrackdb.internal.core.metadata.sequence.SequenceLibraryI
 import com.jetbrains.youtrackdb.internal.core.query.live.LiveQueryHook;
 import com.jetbrains.youtrackdb.internal.core.query.live.LiveQueryHookV2.LiveQueryOps;
 import com.jetbrains.youtrackdb.internal.core.schedule.SchedulerImpl;
+import com.jetbrains.youtrackdb.internal.core.sql.executor.cache.SharedQueryResultCache;
 import com.jetbrains.youtrackdb.internal.core.sql.parser.YqlExecutionPlanCache;
 import com.jetbrains.youtrackdb.internal.core.sql.parser.YqlStatementCache;
 import com.jetbrains.youtrackdb.internal.core.storage.impl.local.AbstractStorage;
@@ -32,6 +33,7 @@ import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Pattern;
+import javax.annotation.Nullable;
 
 public class SharedContext extends ListenerManger<MetadataUpdateListener> {
 
@@ -73,6 +75,7 @@ public class SharedContext extends ListenerManger<MetadataUpdateListener> {
   protected YqlExecutionPlanCache yqlExecutionPlanCache;
   protected GqlExecutionPlanCache gqlExecutionPlanCache;
   protected GremlinPlanCache gremlinPlanCache;
+  @Nullable protected SharedQueryResultCache sharedQueryResultCache;
   protected GremlinTranslationMetrics gremlinTranslationMetrics;
   protected volatile boolean loaded = false;
   protected Map<String, Object> resources;
@@ -153,6 +156,19 @@ public class SharedContext extends ListenerManger<MetadataUpdateListener> {
     this.registerListener(gremlinPlanCache);
     gremlinTranslationMetrics = new GremlinTranslationMetrics();
 
+    if (storage
+        .getContextConfiguration()
+        .getValueAsBoolean(GlobalConfiguration.QUERY_SHARED_RESULT_CACHE_ENABLED)) {
+      sharedQueryResultCache =
+          new SharedQueryResultCache(
+              storage
+                  .getContextConfiguration()
+                  .getValueAsLong(GlobalConfiguration.QUERY_SHARED_RESULT_CACHE_MAX_SIZE));
+      this.registerListener(sharedQueryResultCache);
+    } else {
+      sharedQueryResultCache = null;
+    }
+
     storage
         .setStorageConfigurationUpdateListener(
             update -> {
@@ -220,6 +236,9 @@ public class SharedContext extends ListenerManger<MetadataUpdateListener> {
       gqlStatementCache.clear();
       yqlExecutionPlanCache.invalidate();
       gqlExecutionPlanCache.invalidate();
+      if (sharedQueryResultCache != null) {
+        sharedQueryResultCache.clear();
+      }
       liveQueryOps.close();
       liveQueryOpsV2.close();
       loaded = false;
@@ -390,6 +409,14 @@ public class SharedContext extends ListenerManger<MetadataUpdateListener> {
     return gremlinPlanCache;
   }
 
+  /**
+   * The query result cache shared by all transactions of the database, {@code null} if it is
+   * disabled.
+   */
+  @Nullable public SharedQueryResultCache getSharedQueryResultCache() {
+    return sharedQueryResultCache;
+  }
+
   public GremlinTranslationMetrics getGremlinTranslationMetrics() {
     return gremlinTranslationMetrics;
   }
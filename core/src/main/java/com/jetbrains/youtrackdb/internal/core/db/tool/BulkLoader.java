@@ -0,0 +1,166 @@
+package com.jetbrains.youtrackdb.internal.core.db.tool;
+
+import com.jetbrains.youtrackdb.internal.core.command.CommandOutputListener;
+import com.jetbrains.youtrackdb.internal.core.db.DatabaseSessionEmbedded;
+import com.jetbrains.youtrackdb.internal.core.exception.DatabaseException;
+import com.jetbrains.youtrackdb.internal.core.tx.Durability;
+import com.jetbrains.youtrackdb.internal.core.tx.Transaction;
+import com.jetbrains.youtrackdb.internal.core.tx.TxBiConsumer;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Loads a large amount of records into a database which is not used by other clients at the same
+ * time, for example during the initial load of a graph or an import.
+ *
+ * <p>Records are created in large transactions whose commits do not wait for WAL fsync, instead of
+ * one synchronously committed transaction per record. Indexes of the classes passed to
+ * {@link #deferIndexesOf} are not maintained while records are loaded; every such index is rebuilt
+ * by a single pass over its records once all records are loaded. A single checkpoint which makes
+ * the whole load durable is made on {@link #close()}.
+ *
+ * <p>Uniqueness of the deferred unique indexes is checked only by the rebuild, so a load which
+ * violates it fails on {@link #close()} instead of on the commit of the offending record.
+ *
+ * <p>Deferred indexes are marked as not up to date in the storage configuration till they are
+ * rebuilt: queries do not use them meanwhile, and if the loader is not closed, for example because
+ * the process died, they are rebuilt on the next open of the database.
+ */
+public class BulkLoader implements AutoCloseable {
+
+  private static final int DEFAULT_BATCH_SIZE = 10_000;
+
+  private final DatabaseSessionEmbedded session;
+  @Nullable private final CommandOutputListener output;
+  private final LinkedHashSet<String> deferredIndexes = new LinkedHashSet<>();
+
+  private int batchSize = DEFAULT_BATCH_SIZE;
+  private long loadedRecords;
+  private boolean closed;
+
+  public BulkLoader(@Nonnull DatabaseSessionEmbedded session,
+      @Nullable CommandOutputListener output) {
+    this.session = session;
+    this.output = output;
+  }
+
+  /** Amount of items loaded by a single transaction. */
+  public BulkLoader setBatchSize(int batchSize) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("Batch size has to be positive: " + batchSize);
+    }
+    this.batchSize = batchSize;
+    return this;
+  }
+
+  /**
+   * Stops maintenance of the indexes of the given classes, including the indexes inherited from
+   * their superclasses, till the loader is closed.
+   */
+  public BulkLoader deferIndexesOf(@Nonnull String... classNames) {
+    checkOpen();
+
+    final var schema = session.getMetadata().getImmutableSchemaSnapshot();
+    for (final var className : classNames) {
+      final var cls = schema.getClassInternal(className);
+      if (cls == null) {
+        throw new DatabaseException(session, "Class " + className + " does not exist");
+      }
+      deferredIndexes.addAll(cls.getIndexes());
+    }
+
+    session.deferIndexMaintenance(deferredIndexes);
+    return this;
+  }
+
+  /**
+   * Passes every item to the consumer inside a transaction. Transactions are committed once per
+   * {@link #setBatchSize batch} of items.
+   *
+   * @return amount of items loaded by this call.
+   */
+  public <T, X extends Exception> long load(
+      @Nonnull Iterator<T> items, @Nonnull TxBiConsumer<Transaction, T, X> consumer) throws X {
+    checkOpen();
+    if (session.isTxActive()) {
+      throw new DatabaseException(session, "Bulk load can not be run inside of a transaction");
+    }
+
+    var loaded = 0L;
+    var ok = false;
+    var tx = session.begin();
+    try {
+      while (items.hasNext()) {
+        consumer.accept(tx, items.next());
+        loaded++;
+
+        if (loaded % batchSize == 0) {
+          session.commit(Durability.ASYNC);
+          tx = session.begin();
+        }
+      }
+
+      ok = true;
+    } finally {
+      if (session.isTxActive()) {
+        if (ok) {
+          session.commit(Durability.ASYNC);
+        } else {
+          session.rollback();
+        }
+      }
+    }
+
+    loadedRecords += loaded;
+    return loaded;
+  }
+
+  /** Amount of items loaded by all {@link #load} calls. */
+  public long getLoadedRecords() {
+    return loadedRecords;
+  }
+
+  /**
+   * Restores maintenance of the deferred indexes, rebuilds them, and makes the loaded data durable.
+   */
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+
+    session.resumeIndexMaintenance(deferredIndexes);
+
+    final var indexManager = session.getSharedContext().getIndexManager();
+    for (final var indexName : deferredIndexes) {
+      final var index = indexManager.getIndex(session, indexName);
+      if (index != null) {
+        message("\nRebuild of index " + indexName + "...");
+        final var entries = index.rebuild(session);
+        message("\nIndex " + indexName + " is rebuilt, " + entries + " entries were indexed.");
+      }
+
+      indexManager.clearRebuildPending(session, List.of(indexName));
+    }
+
+    message("\nFlushing loaded data...");
+    session.getStorage().synch();
+    message("\n" + loadedRecords + " records were loaded.");
+  }
+
+  private void checkOpen() {
+    if (closed) {
+      throw new IllegalStateException("Bulk loader is closed");
+    }
+  }
+
+  private void message(String text) {
+    if (output != null) {
+      output.onMessage(text);
+    }
+  }
+}
@@ -1998,7 +1998,9 @@ public class DatabaseImport extends DatabaseImpExpAbstract<DatabaseSessionEmbedd
     }
 
     if ("UNIQUE_HASH_INDEX".equals(indexType)) {
-      indexType = "UNIQUE";
+      indexType = SchemaClass.INDEX_TYPE.UNIQUE_HASH.name();
+    } else if ("NOTUNIQUE_HASH_INDEX".equals(indexType)) {
+      indexType = SchemaClass.INDEX_TYPE.NOTUNIQUE_HASH.name();
     }
 
     // drop automatically created indexes
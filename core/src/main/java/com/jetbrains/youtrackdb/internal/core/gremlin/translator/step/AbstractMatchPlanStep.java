@@ -177,6 +177,10 @@ public abstract class AbstractMatchPlanStep<S, E extends Element> extends Abstra
   // dry, not the underlying stream.
   private Iterator<Object> shapedPayloads;
 
+  // Bulk of the payload shapedPayloads handed out last: the row's bulk column when the shaping
+  // names one (a translated repeat()), otherwise 1.
+  private long payloadBulk = 1L;
+
   // The graph resolved for the current arming; used to wrap projected vertices.
   private YTDBGraphInternal armingGraph;
 
@@ -342,8 +346,8 @@ public abstract class AbstractMatchPlanStep<S, E extends Element> extends Abstra
         releaseStream();
         throw FastNoSuchElementException.instance();
       }
-      return getTraversal().getTraverserGenerator().generate(shapedPayloads.next(), (Step) this,
-          1L);
+      var payload = shapedPayloads.next();
+      return getTraversal().getTraverserGenerator().generate(payload, (Step) this, payloadBulk);
     } catch (FastNoSuchElementException e) {
       throw e;
     } catch (RuntimeException | Error e) {
@@ -408,6 +412,7 @@ public abstract class AbstractMatchPlanStep<S, E extends Element> extends Abstra
     var stream = openStream;
     return new Iterator<>() {
       private Object bufferedPayload;
+      private long bufferedBulk = 1L;
       private boolean hasBuffered;
 
       @Override
@@ -416,9 +421,11 @@ public abstract class AbstractMatchPlanStep<S, E extends Element> extends Abstra
           return true;
         }
         while (stream.hasNext(ctx)) {
-          var payload = projectOrSkip(stream.next(ctx));
+          var row = stream.next(ctx);
+          var payload = projectOrSkip(row);
           if (payload != SKIP) {
             bufferedPayload = payload;
+            bufferedBulk = rowBulk(row);
             hasBuffered = true;
             return true;
           }
@@ -432,6 +439,7 @@ public abstract class AbstractMatchPlanStep<S, E extends Element> extends Abstra
           throw new NoSuchElementException();
         }
         var payload = bufferedPayload;
+        payloadBulk = bufferedBulk;
         bufferedPayload = null;
         hasBuffered = false;
         return payload;
@@ -439,6 +447,19 @@ public abstract class AbstractMatchPlanStep<S, E extends Element> extends Abstra
     };
   }
 
+  /**
+   * The number of traversers {@code row} stands for: its {@link ResultShaping#bulkColumn()} value,
+   * or 1 when the shaping names no bulk column. The walker allows a bulk column only on the per-row
+   * path with no list-shaping op, so every bulk read here reaches a traverser unchanged.
+   */
+  private long rowBulk(Result row) {
+    var column = shaping.bulkColumn();
+    if (column == null) {
+      return 1L;
+    }
+    return row.getProperty(column) instanceof Number bulk ? bulk.longValue() : 1L;
+  }
+
   /**
    * The group-barrier source: drains every GROUP BY row into one {@link LinkedHashMap} and yields it
    * as a single payload — native {@code group} / {@code groupCount} are barrier steps, so the whole
@@ -864,12 +885,13 @@ public abstract class AbstractMatchPlanStep<S, E extends Element> extends Abstra
   }
 
   /**
-   * First non-boundary RETURN column value — used for {@code SINGLE_VALUE} / {@code SCALAR} when the
-   * assembler did not pin presence keys (or as a fallback).
+   * First RETURN column value other than the boundary and the bulk column — used for
+   * {@code SINGLE_VALUE} / {@code SCALAR} when the assembler did not pin presence keys (or as a
+   * fallback).
    */
   private Object primaryProjectedValue(Result row) {
     for (String name : row.getPropertyNames()) {
-      if (!name.equals(boundaryAlias)) {
+      if (!name.equals(boundaryAlias) && !name.equals(shaping.bulkColumn())) {
         return convertValue(row.getProperty(name));
       }
     }
@@ -0,0 +1,45 @@
+package com.jetbrains.youtrackdb.internal.core.gremlin.translator.step;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The {@code count()} drain over a translated {@code repeat()}: each upstream payload is the bulk of
+ * one frontier row — the number of traversers that reached the same record at the same depth — and
+ * the stage emits their sum as one {@code Long}. A dry upstream emits {@code 0L}, native {@code
+ * count()}'s answer over an empty stream. {@code RETURN count(*)} cannot be used here because it
+ * counts the merged rows, not the traversers each stands for.
+ *
+ * <p>Like {@link FoldListShapingOp}, the running total lives inside the returned iterator so the
+ * instance carries no state across armings or clones, and the class is deliberately neither a
+ * {@code record} nor a singleton so two instances compare unequal.
+ */
+public final class BulkSumListShapingOp implements ListShapingOp {
+
+  @Override
+  public Iterator<Object> apply(Iterator<Object> upstream) {
+    return new Iterator<>() {
+      /** Whether the one summed payload has been handed out; the stage emits exactly one. */
+      private boolean emitted;
+
+      @Override
+      public boolean hasNext() {
+        return !emitted;
+      }
+
+      @Override
+      public Object next() {
+        if (emitted) {
+          throw new NoSuchElementException("a bulk count emits a single payload");
+        }
+        // Drained on the pull that takes the result, for the reason FoldListShapingOp gives.
+        var total = 0L;
+        while (upstream.hasNext()) {
+          total += upstream.next() instanceof Number bulk ? bulk.longValue() : 1L;
+        }
+        emitted = true;
+        return total;
+      }
+    };
+  }
+}
@@ -2,10 +2,12 @@ package com.jetbrains.youtrackdb.internal.core.gremlin.translator.step;
 
 import java.util.List;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 /**
  * Immutable bundle of the seven boundary row-projection shaping flags plus the ordered list-shaping
- * post-process a Gremlin terminator pins on the walk. Each terminator ({@code count}, {@code
+ * post-process a Gremlin terminator pins on the walk, and the bulk column a frontier traversal
+ * carries. Each terminator ({@code count}, {@code
  * values}, {@code valueMap}, {@code select}, {@code group}, …) builds one instance from {@link
  * #NONE} plus the overrides its shape needs, and {@link AbstractMatchPlanStep} reads it when
  * projecting each MATCH row onto a traverser.
@@ -33,6 +35,10 @@ import javax.annotation.Nonnull;
  *     reverse} / {@code tail}) applied to the projected payload stream in declared order; empty when
  *     the traversal has no list-shaping terminator, in which case the boundary base bypasses the
  *     stage entirely (see {@link ListShapingOp} and {@link AbstractMatchPlanStep})
+ * @param bulkColumn RETURN column holding the number of traversers each row stands for, or {@code
+ *     null} when every row is one traverser. Set by the walker for a {@code repeat()} translated
+ *     into a frontier edge, whose rows merge the paths reaching one vertex at one depth; the
+ *     boundary emits each row as one traverser with that bulk, as native's barriers do
  */
 public record ResultShaping(
     boolean dropNullRows,
@@ -42,14 +48,16 @@ public record ResultShaping(
     boolean accumulateMap,
     boolean unwrapSingletonMap,
     boolean elementMapTokens,
-    @Nonnull List<ListShapingOp> listShapingOps) {
+    @Nonnull List<ListShapingOp> listShapingOps,
+    @Nullable String bulkColumn) {
 
   /**
-   * The element-path default: every flag false, no presence keys, and no list-shaping op.
+   * The element-path default: every flag false, no presence keys, no list-shaping op, and no bulk
+   * column.
    * Terminators layer their overrides on this through the {@code withX} methods.
    */
   public static final ResultShaping NONE =
-      new ResultShaping(false, false, List.of(), false, false, false, false, List.of());
+      new ResultShaping(false, false, List.of(), false, false, false, false, List.of(), null);
 
   /** Copies the list components defensively so the record stays immutable. */
   public ResultShaping {
@@ -60,43 +68,43 @@ public record ResultShaping(
   /** This shaping with {@code dropNullRows} set to {@code value}. */
   public ResultShaping withDropNullRows(boolean value) {
     return new ResultShaping(value, dropOnAbsent, presencePropertyKeys, wrapMapValuesInLists,
-        accumulateMap, unwrapSingletonMap, elementMapTokens, listShapingOps);
+        accumulateMap, unwrapSingletonMap, elementMapTokens, listShapingOps, bulkColumn);
   }
 
   /** This shaping with {@code dropOnAbsent} set to {@code value}. */
   public ResultShaping withDropOnAbsent(boolean value) {
     return new ResultShaping(dropNullRows, value, presencePropertyKeys, wrapMapValuesInLists,
-        accumulateMap, unwrapSingletonMap, elementMapTokens, listShapingOps);
+        accumulateMap, unwrapSingletonMap, elementMapTokens, listShapingOps, bulkColumn);
   }
 
   /** This shaping with {@code presencePropertyKeys} replaced by {@code keys}. */
   public ResultShaping withPresencePropertyKeys(@Nonnull List<String> keys) {
     return new ResultShaping(dropNullRows, dropOnAbsent, keys, wrapMapValuesInLists,
-        accumulateMap, unwrapSingletonMap, elementMapTokens, listShapingOps);
+        accumulateMap, unwrapSingletonMap, elementMapTokens, listShapingOps, bulkColumn);
   }
 
   /** This shaping with {@code wrapMapValuesInLists} set to {@code value}. */
   public ResultShaping withWrapMapValuesInLists(boolean value) {
     return new ResultShaping(dropNullRows, dropOnAbsent, presencePropertyKeys, value,
-        accumulateMap, unwrapSingletonMap, elementMapTokens, listShapingOps);
+        accumulateMap, unwrapSingletonMap, elementMapTokens, listShapingOps, bulkColumn);
   }
 
   /** This shaping with {@code accumulateMap} set to {@code value}. */
   public ResultShaping withAccumulateMap(boolean value) {
     return new ResultShaping(dropNullRows, dropOnAbsent, presencePropertyKeys, wrapMapValuesInLists,
-        value, unwrapSingletonMap, elementMapTokens, listShapingOps);
+        value, unwrapSingletonMap, elementMapTokens, listShapingOps, bulkColumn);
   }
 
   /** This shaping with {@code unwrapSingletonMap} set to {@code value}. */
   public ResultShaping withUnwrapSingletonMap(boolean value) {
     return new ResultShaping(dropNullRows, dropOnAbsent, presencePropertyKeys, wrapMapValuesInLists,
-        accumulateMap, value, elementMapTokens, listShapingOps);
+        accumulateMap, value, elementMapTokens, listShapingOps, bulkColumn);
   }
 
   /** This shaping with {@code elementMapTokens} set to {@code value}. */
   public ResultShaping withElementMapTokens(boolean value) {
     return new ResultShaping(dropNullRows, dropOnAbsent, presencePropertyKeys, wrapMapValuesInLists,
-        accumulateMap, unwrapSingletonMap, value, listShapingOps);
+        accumulateMap, unwrapSingletonMap, value, listShapingOps, bulkColumn);
   }
 
   /**
@@ -105,6 +113,12 @@ public record ResultShaping(
    */
   public ResultShaping withListShapingOps(@Nonnull List<ListShapingOp> ops) {
     return new ResultShaping(dropNullRows, dropOnAbsent, presencePropertyKeys, wrapMapValuesInLists,
-        accumulateMap, unwrapSingletonMap, elementMapTokens, ops);
+        accumulateMap, unwrapSingletonMap, elementMapTokens, ops, bulkColumn);
+  }
+
+  /** This shaping with {@code bulkColumn} set to {@code column}. */
+  public ResultShaping withBulkColumn(@Nullable String column) {
+    return new ResultShaping(dropNullRows, dropOnAbsent, presencePropertyKeys, wrapMapValuesInLists,
+        accumulateMap, unwrapSingletonMap, elementMapTokens, listShapingOps, column);
   }
 }
@@ -1,11 +1,13 @@
 package com.jetbrains.youtrackdb.internal.core.gremlin.translator.strategy;
 
 import com.jetbrains.youtrackdb.internal.core.gremlin.translator.step.BoundaryOutputType;
+import com.jetbrains.youtrackdb.internal.core.gremlin.translator.step.BulkSumListShapingOp;
 import com.jetbrains.youtrackdb.internal.core.gremlin.translator.step.PostConcatOp;
 import com.jetbrains.youtrackdb.internal.core.gremlin.translator.step.ResultShaping;
 import com.jetbrains.youtrackdb.internal.core.sql.executor.match.builder.ByModulatorTranslator;
 import com.jetbrains.youtrackdb.internal.core.sql.executor.match.builder.MatchProjectionBuilder;
 import com.jetbrains.youtrackdb.internal.core.sql.parser.SQLExpression;
+import java.util.List;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.lambda.IdentityTraversal;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
@@ -107,6 +109,10 @@ final class GremlinAggregateAssembler {
       ByModulatorPresence.requireProjectedProperty(
           ctx, projection.alias(), projection.propertyKey());
     }
+    var bulkAlias = ctx.bulkAlias();
+    if (bulkAlias != null) {
+      return configureBulkCount(ctx, boundary, bulkAlias);
+    }
     ctx.clearReturnProjection();
     ctx.appendReturnColumn(MatchProjectionBuilder.countStar(), null);
     ctx.setGroupBy(null);
@@ -116,6 +122,27 @@ final class GremlinAggregateAssembler {
     return Outcome.ACCEPTED;
   }
 
+  /**
+   * {@code count()} behind a frontier edge: each row stands for as many traversers as its bulk
+   * column says, so {@code count(*)} would count the merged rows. Return the bulk column instead and
+   * let a {@link BulkSumListShapingOp} add it up at the boundary. Consuming the column here keeps
+   * {@link GremlinStepWalker}'s {@code buildResult} from also applying it as the traverser bulk.
+   */
+  private static Outcome configureBulkCount(
+      RecognitionContext ctx, String boundary, String bulkAlias) {
+    if (!ctx.supportsListShaping()) {
+      return Outcome.DECLINE;
+    }
+    ctx.clearReturnProjection();
+    ctx.appendReturnColumn(MatchProjectionBuilder.aliasColumn(bulkAlias), bulkAlias);
+    ctx.setGroupBy(null);
+    ctx.setLastPropertyProjection(null);
+    ctx.setResultShaping(ResultShaping.NONE.withListShapingOps(List.of(new BulkSumListShapingOp())));
+    ctx.setBulkAlias(null);
+    ctx.pinBoundary(boundary, BoundaryOutputType.SCALAR, Vertex.class);
+    return Outcome.ACCEPTED;
+  }
+
   /**
    * {@code union(…).count()}: stash a {@link
    * com.jetbrains.youtrackdb.internal.core.gremlin.translator.step.PostConcatOp.Count} and pin
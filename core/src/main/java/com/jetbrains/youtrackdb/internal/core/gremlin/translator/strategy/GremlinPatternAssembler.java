@@ -2,7 +2,9 @@ package com.jetbrains.youtrackdb.internal.core.gremlin.translator.strategy;
 
 import com.jetbrains.youtrackdb.internal.core.gremlin.translator.step.BoundaryOutputType;
 import com.jetbrains.youtrackdb.internal.core.sql.executor.match.builder.MatchPatternBuilder;
+import com.jetbrains.youtrackdb.internal.core.sql.parser.MatchFrontier;
 import com.jetbrains.youtrackdb.internal.core.sql.parser.SQLWhereClause;
+import javax.annotation.Nullable;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStepContract;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
@@ -78,6 +80,52 @@ final class GremlinPatternAssembler {
     return Outcome.ACCEPTED;
   }
 
+  /**
+   * Appends a frontier edge — {@code hop} repeated level by level with the records reached at one
+   * depth merged, see {@link MatchPatternBuilder#addRepeatEdge} — from the boundary to a fresh target
+   * registered under the generic {@code V} class, binds the merged-path count to {@link
+   * WalkerContext#BULK_ALIAS}, and re-pins the boundary / RETURN to the target. Shared by the hop-run
+   * fold of {@link VertexHopRecogniser} and by {@link RepeatStepRecogniser}.
+   *
+   * <p>Declines a second frontier in one walk (the bulk column is single), a labelled hop (the
+   * target binds once per record and depth, not once per path), and a {@code simplePath} frontier
+   * that does not start at the traversal's start: native {@code simplePath()} tests the whole path,
+   * and the frontier only knows the part it walked itself.
+   */
+  static Outcome claimFrontierHop(
+      VertexStepContract<?> hop,
+      RecognitionContext ctx,
+      @Nullable SQLWhereClause whileCondition,
+      @Nullable Integer maxDepth,
+      @Nullable Integer emitFromDepth,
+      int whileFromDepth,
+      boolean simplePath) {
+    var fromAlias = ctx.boundaryAlias();
+    if (fromAlias == null || ctx.bulkAlias() != null || !hop.getLabels().isEmpty()) {
+      return Outcome.DECLINE;
+    }
+    if (simplePath && !ctx.boundaryIsTraversalStart()) {
+      return Outcome.DECLINE;
+    }
+    var arity = resolveEdgeLabel(hop, ctx);
+    if (!arity.translatable()) {
+      return Outcome.DECLINE;
+    }
+    var targetAlias = ctx.nextAnonVertexAlias();
+    ctx.addRepeatEdge(
+        fromAlias,
+        targetAlias,
+        toBuilderDirection(hop.getDirection()),
+        arity.label(),
+        whileCondition,
+        maxDepth,
+        new MatchFrontier(emitFromDepth, whileFromDepth, simplePath, WalkerContext.BULK_ALIAS));
+    ctx.addNode(targetAlias, WalkerContext.VERTEX_ROOT_CLASS);
+    ctx.setBulkAlias(WalkerContext.BULK_ALIAS);
+    rePinBoundaryToTarget(ctx, targetAlias);
+    return Outcome.ACCEPTED;
+  }
+
   /**
    * Appends the edge-as-node form {@code fromAlias --<edgeDir>E(edgeLabel){as: edgeAlias, where:
    * edgeFilter}--> edgeAlias --<closingVertexDir>V(){as: targetAlias}--> targetAlias}, registers the
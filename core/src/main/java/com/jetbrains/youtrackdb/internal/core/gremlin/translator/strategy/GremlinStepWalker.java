@@ -5,6 +5,7 @@ import com.jetbrains.youtrackdb.internal.core.gremlin.translator.step.ListShapin
 import com.jetbrains.youtrackdb.internal.core.gremlin.traversal.strategy.YTDBStrategyUtil;
 import com.jetbrains.youtrackdb.internal.core.metadata.schema.schema.Schema;
 import com.jetbrains.youtrackdb.internal.core.sql.executor.match.MatchPlanInputs;
+import com.jetbrains.youtrackdb.internal.core.sql.executor.match.builder.MatchProjectionBuilder;
 import com.jetbrains.youtrackdb.internal.core.sql.executor.match.builder.MatchWhereBuilder;
 import com.jetbrains.youtrackdb.internal.core.sql.parser.Pattern;
 import com.jetbrains.youtrackdb.internal.core.sql.parser.SQLWhereClause;
@@ -16,6 +17,7 @@ import java.util.Set;
 import javax.annotation.Nullable;
 import org.apache.tinkerpop.gremlin.process.traversal.Step;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.branch.RepeatStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.branch.UnionStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.filter.AndStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.filter.DedupGlobalStep;
@@ -269,6 +271,7 @@ final class GremlinStepWalker {
         Map.entry(GroupStep.class, GroupStepRecogniser.INSTANCE),
         Map.entry(GroupCountStep.class, GroupCountStepRecogniser.INSTANCE),
         Map.entry(UnionStep.class, UnionStepRecogniser.INSTANCE),
+        Map.entry(RepeatStep.class, RepeatStepRecogniser.INSTANCE),
         Map.entry(FoldStep.class, FoldStepRecogniser.INSTANCE),
         Map.entry(UnfoldStep.class, UnfoldStepRecogniser.INSTANCE),
         Map.entry(ReverseStep.class, ReverseStepRecogniser.INSTANCE));
@@ -342,6 +345,27 @@ final class GremlinStepWalker {
           ReverseStepRecogniser.INSTANCE,
           TailGlobalStepRecogniser.INSTANCE);
 
+  /**
+   * The only recognisers allowed to claim a step once a frontier edge has bound {@link
+   * RecognitionContext#bulkAlias()}. Each row after the frontier stands for as many traversers as
+   * its bulk column says, so a contribution is sound here only when it treats every row on its own:
+   * a filter keeps or drops all of a row's traversers, a hop multiplies them into the rows it
+   * produces, {@code values(key)} maps them one to one, and {@code count()} sums the column. A
+   * slice, a dedup, an ordering, a grouping or a map projection would count, compare or render rows
+   * rather than traversers, so they decline and the traversal runs natively. Fail-closed like the
+   * two allow-lists above.
+   */
+  private static final Set<StepRecogniser> POST_FRONTIER_RECOGNISERS =
+      Set.of(
+          VertexStepRecogniser.INSTANCE,
+          HasStepRecogniser.INSTANCE,
+          TraversalFilterStepRecogniser.INSTANCE,
+          AndStepRecogniser.INSTANCE,
+          OrStepRecogniser.INSTANCE,
+          NotStepRecogniser.INSTANCE,
+          PropertiesStepRecogniser.INSTANCE,
+          CountGlobalStepRecogniser.INSTANCE);
+
   /**
    * Pre-built production walker. The walker is stateless — only the immutable {@code recognisers}
    * field — so a single shared instance avoids one allocation per Gremlin traversal that reaches the
@@ -455,6 +479,11 @@ final class GremlinStepWalker {
     Schema schema = session != null ? session.getSchema() : null;
 
     var ctx = new WalkerContext(polymorphic, edgeLabelVerification, schema, recognisers);
+    // RepeatDeclineStrategy marked this traversal as one whose repeat(...) the frontier edge may
+    // translate; see RepeatStepRecogniser and VertexHopRecogniser's hop-run fold.
+    if (RepeatDeclineStrategy.isFrontierMarked(traversal)) {
+      ctx.enableRepeatFrontier();
+    }
     // Resolve ProductiveByStrategy's productive-key set once, for the same reason the two flags
     // above are resolved once: every by(...) modulator would otherwise re-scan the strategy list.
     ctx.setProductiveByKeys(
@@ -547,6 +576,11 @@ final class GremlinStepWalker {
               || !postUnionPositionalGateSatisfied(cursor, recognisers, recogniser, head, 0))) {
         return false;
       }
+      // Frontier gate (see POST_FRONTIER_RECOGNISERS): behind a frontier edge a row carries a bulk,
+      // and only the recognisers that treat each row on its own may claim a step.
+      if (ctx.bulkAlias() != null && !POST_FRONTIER_RECOGNISERS.contains(recogniser)) {
+        return false;
+      }
       // Single-plan cardinality gate (see capturedCardinalityClause and the allow-list below).
       // Once a SKIP / LIMIT / DISTINCT is captured, only the pure projections may claim a further
       // step; anything else would run before the clause in the compiled statement and so return a
@@ -1081,6 +1115,24 @@ final class GremlinStepWalker {
    * inline note; declining leaves the traversal on the native pipeline unchanged.
    */
   @Nullable private static GremlinToMatchTranslator.TranslationResult buildResult(WalkerContext ctx) {
+    var bulkAlias = ctx.bulkAlias();
+    if (bulkAlias != null) {
+      // The frontier's bulk column is still unconsumed, so every row becomes that many traversers.
+      // The boundary applies the bulk per row, which no statement-level clause or stream stage
+      // would see; the frontier gate in dispatchAll keeps them out, and this repeats that check.
+      if (ctx.hasUnionCarrier()
+          || ctx.returnDistinct
+          || ctx.groupBy != null
+          || ctx.orderBy != null
+          || ctx.limit != null
+          || ctx.skip != null
+          || !ctx.listShapingOps().isEmpty()
+          || ctx.shaping().accumulateMap()) {
+        return null;
+      }
+      ctx.appendReturnColumn(MatchProjectionBuilder.aliasColumn(bulkAlias), bulkAlias);
+      ctx.setResultShaping(ctx.shaping().withBulkColumn(bulkAlias));
+    }
     if (ctx.hasUnionCarrier()) {
       assert ctx.boundaryAlias != null && ctx.outputType != null && ctx.returnClass != null;
       return GremlinToMatchTranslator.TranslationResult.multiPlan(
@@ -77,11 +77,12 @@ import org.slf4j.LoggerFactory;
  *       would decline every recognized shape. The check is also ordering-robust, since a
  *       {@code YTDBGraphStep} <em>is</em> a {@code GraphStep}.</li>
  *   <li><b>Per-traversal veto.</b> {@link RepeatDeclineStrategy#isVetoed} answers true, because
- *       {@link RepeatDeclineStrategy} marked the traversal at decoration time — it marks every
- *       traversal whose subtree was written with {@code repeat(...)}. The marker is how a decision
- *       taken before {@code RepeatUnrollStrategy} flattened the repeat survives into this pass; see
- *       that class for why the decline cannot be made here, and for why the marker is carried on
- *       the traversal's strategies <em>reference</em> without altering the list it points at.</li>
+ *       {@link RepeatDeclineStrategy} marked the traversal at decoration time — it vetoes every
+ *       traversal written with a {@code repeat(...)} the frontier edge cannot translate. The
+ *       marker is how a decision taken before {@code RepeatUnrollStrategy} flattened the repeat
+ *       survives into this pass; see that class for why the decline cannot be made here, and for
+ *       why the marker is carried on the traversal's strategies <em>reference</em> without
+ *       altering the list it points at.</li>
  *   <li><b>Idempotency.</b> The traversal already contains a boundary step ({@link
  *       AbstractMatchPlanStep}, either the single-plan {@link YTDBMatchPlanStep} or any other
  *       concrete boundary form) anywhere in its step list. A traversal's strategy chain can be
@@ -299,8 +300,8 @@ public final class GremlinToMatchStrategy
     // traversal's own strategy list never carries a provider strategy during the strategy pass, so
     // an absence test would decline every sub-traversal rather than the vetoed ones. See
     // RepeatDeclineStrategy for why the decision has to be taken that early, and for why the marker
-    // lives on the strategies reference's type rather than in the list itself. Variable-depth
-    // repeat is out of scope — count as a decline like any other unsupported shape.
+    // lives on the strategies reference's type rather than in the list itself. A repeat outside the
+    // frontier shapes counts as a decline like any other unsupported shape.
     if (RepeatDeclineStrategy.isVetoed(traversal)) {
       GremlinTranslationMetrics.of(session).recordDecline(stepShape(traversal));
       return;
@@ -310,7 +311,14 @@ public final class GremlinToMatchStrategy
     }
     var extraction = GremlinStepWalker.extractShape(traversal, session);
     var metrics = GremlinTranslationMetrics.of(session);
-    if (populateTranslationCache && extraction.complete()) {
+    // A times(n) repeat reaches this pass already unrolled into n hops, which the shape key cannot
+    // tell apart from the same hops written out by hand — the one folds into a frontier edge, the
+    // other into a path-enumerating chain. A frontier-marked traversal therefore neither reads nor
+    // writes the translation cache.
+    var useTranslationCache = populateTranslationCache
+        && extraction.complete()
+        && !RepeatDeclineStrategy.isFrontierMarked(traversal);
+    if (useTranslationCache) {
       var cached = GremlinPlanCache.getTranslation(extraction.key(), session);
       if (cached instanceof GremlinTranslationTemplate.Decline) {
         metrics.recordDecline(stepShape(traversal));
@@ -329,14 +337,15 @@ public final class GremlinToMatchStrategy
     var planningStart = System.nanoTime();
     var translation = translator.translate(traversal);
     if (translation == null) {
-      if (populateTranslationCache && extraction.complete()) {
+      if (useTranslationCache) {
         GremlinPlanCache.putTranslation(
             extraction.key(), GremlinTranslationTemplate.DECLINE, session);
       }
       metrics.recordDecline(stepShape(traversal));
       return;
     }
-    applyTranslation(traversal, session, translation, planningStart, extraction);
+    applyTranslation(
+        traversal, session, translation, planningStart, useTranslationCache ? extraction : null);
     metrics.recordSuccess();
   }
 
@@ -478,13 +487,16 @@ public final class GremlinToMatchStrategy
    * <p>The plan is built with caching disabled (see class Javadoc): the inherited {@code
    * statement} field on the planner stays {@code null}, which the planner accepts only when
    * {@code useCache=false}.
+   *
+   * <p>{@code extraction} is the shape key the translation is stored under, or {@code null} when it
+   * must not be stored.
    */
   private void applyTranslation(
       Traversal.Admin<?, ?> traversal,
       DatabaseSessionEmbedded session,
       GremlinToMatchTranslator.TranslationResult translation,
       long planningStart,
-      GremlinShapeExtractor.Extraction extraction) {
+      @Nullable GremlinShapeExtractor.Extraction extraction) {
     if (translation.isMultiPlan()) {
       var plans = buildChildPlans(session, translation, planningStart);
       replaceAllStepsWithBoundary(traversal, plans, translation);
@@ -493,7 +505,7 @@ public final class GremlinToMatchStrategy
     InternalExecutionPlan plan = planBuilder.buildPlan(session, translation, planningStart);
     var copyOnOpen = isSharedPlanTemplate(session, translation, plan);
     replaceAllStepsWithBoundary(traversal, plan, translation, copyOnOpen);
-    if (populateTranslationCache && copyOnOpen && extraction.complete()) {
+    if (extraction != null && copyOnOpen) {
       GremlinPlanCache.putTranslation(
           extraction.key(),
           new GremlinTranslationTemplate.Translate(
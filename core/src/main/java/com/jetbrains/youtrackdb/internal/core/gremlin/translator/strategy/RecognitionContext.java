@@ -5,6 +5,7 @@ import com.jetbrains.youtrackdb.internal.core.gremlin.translator.step.ListShapin
 import com.jetbrains.youtrackdb.internal.core.gremlin.translator.step.PostConcatOp;
 import com.jetbrains.youtrackdb.internal.core.gremlin.translator.step.ResultShaping;
 import com.jetbrains.youtrackdb.internal.core.sql.executor.match.builder.MatchPatternBuilder;
+import com.jetbrains.youtrackdb.internal.core.sql.parser.MatchFrontier;
 import com.jetbrains.youtrackdb.internal.core.sql.parser.SQLExpression;
 import com.jetbrains.youtrackdb.internal.core.sql.parser.SQLGroupBy;
 import com.jetbrains.youtrackdb.internal.core.sql.parser.SQLLimit;
@@ -496,6 +497,57 @@ interface RecognitionContext extends ParamSink {
     return false;
   }
 
+  // --- Repeat frontier ---------------------------------------------------------------------------
+
+  /**
+   * Whether {@link RepeatDeclineStrategy} marked the walked traversal for the frontier edge, which
+   * enables {@link RepeatStepRecogniser} and the hop-run fold of {@link VertexHopRecogniser}. Only a
+   * top-level walk of a marked traversal answers {@code true}; a sub-walk never places a frontier,
+   * because its pattern fragments are merged into the parent's as filters.
+   */
+  default boolean repeatFrontierEnabled() {
+    return false;
+  }
+
+  /**
+   * Whether the current boundary is still the node the traversal started from — no hop has been
+   * added to the pattern yet. Native {@code simplePath()} tests the traverser's whole path, so a
+   * frontier edge can only keep that test exact when its own path starts where the traversal's
+   * does.
+   */
+  default boolean boundaryIsTraversalStart() {
+    return false;
+  }
+
+  /**
+   * Registers a frontier edge {@code fromAlias --dir(edgeLabel)--> toAlias}; see {@link
+   * MatchPatternBuilder#addRepeatEdge}. Top-level walks only; sub-walks throw.
+   */
+  default void addRepeatEdge(
+      String fromAlias,
+      String toAlias,
+      MatchPatternBuilder.Direction dir,
+      @Nullable String edgeLabel,
+      @Nullable SQLWhereClause whileCondition,
+      @Nullable Integer maxDepth,
+      @Nonnull MatchFrontier frontier) {
+    throw new UnsupportedOperationException("repeat edges are top-level only");
+  }
+
+  /**
+   * The row column a frontier edge binds its merged-path count to, or {@code null} when the walk has
+   * no frontier edge or a {@code count()} has already consumed the column. {@link
+   * GremlinStepWalker}'s {@code buildResult} returns a column still set here as the traversers' bulk.
+   */
+  default @Nullable String bulkAlias() {
+    return null;
+  }
+
+  /** Sets {@link #bulkAlias()}. Top-level walks only; sub-walks throw. */
+  default void setBulkAlias(@Nullable String alias) {
+    throw new UnsupportedOperationException("repeat edges are top-level only");
+  }
+
   /**
    * A resolved single-key {@code values(key)} / {@code properties(key)} projection. Carries the
    * alias and the property key alongside the field-access expression because the terminators that
@@ -7,7 +7,16 @@ import java.util.Optional;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal.Admin;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.lambda.LoopTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.lambda.TrueTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
 import org.apache.tinkerpop.gremlin.process.traversal.step.branch.RepeatStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.AndStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.NotStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.OrStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.PathFilterStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.RepeatUnrollStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
@@ -16,9 +25,25 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Keeps {@link GremlinToMatchStrategy} away from any traversal that was written with {@code
- * repeat(...)}. Variable-depth repetition is out of scope for the current translator, and this is
- * the strategy that makes the decline hold even after another strategy has erased the evidence.
+ * Decides, before any optimization has run, whether a traversal written with {@code repeat(...)}
+ * may reach {@link GremlinToMatchStrategy} at all. A repeat the translator can map onto the
+ * bulk-merging frontier edge — {@code MatchPatternBuilder#addRepeatEdge}, executed level by level
+ * with per-depth RID merging — is <em>marked for the frontier</em>; every other repeat-bearing
+ * traversal is <em>vetoed</em>, and this is the strategy that makes the decline hold even after
+ * another strategy has erased the evidence.
+ *
+ * <h2>Which repeats reach the frontier</h2>
+ *
+ * <p>A traversal is marked for the frontier when every {@link RepeatStep} in its subtree is a
+ * direct step of the traversal itself, carries no step label or loop name, and has a body of one
+ * vertex-returning {@code VertexStep} optionally followed by a plain {@code simplePath()}. Its
+ * {@code until} must be absent, a {@code times(n)} with {@code n >= 1}, or a pure filter on the reached
+ * record ({@code has} steps and connectives over them); its {@code emit} must be absent or unconditional; and
+ * it must not combine {@code until()} before the body with {@code emit()} after it, the one ordering
+ * in which native {@code RepeatStep} emits a leaving traverser twice. Anything else — a repeat in a
+ * child traversal, a multi-hop body, a conditional emit — is vetoed as before. The mark does not
+ * promise a translation: {@code RepeatStepRecogniser} and the hop-run fold may still decline, and
+ * then the traversal runs natively.
  *
  * <h2>Why a separate strategy is needed</h2>
  *
@@ -40,9 +65,11 @@ import org.slf4j.LoggerFactory;
  * <h2>How the veto is recorded</h2>
  *
  * <p>The veto swaps the traversal's {@code TraversalStrategies} reference for a {@link
- * VetoedStrategies} view of the same list. That view forwards every operation to the list it wraps
- * and adds one bit of its own — its type. {@link #isVetoed} reads that bit; {@link
- * GremlinToMatchStrategy} calls it and declines. Nothing is added to, removed from, or reordered
+ * VetoedStrategies} view of the same list, and the frontier mark for a {@link FrontierStrategies}
+ * view. Each view forwards every operation to the list it wraps and adds one bit of its own — its
+ * type. {@link #isVetoed} and {@link #isFrontierMarked} read that bit; {@link
+ * GremlinToMatchStrategy} calls the first and declines, and the walker calls the second to enable
+ * the frontier recognisers. Nothing is added to, removed from, or reordered
  * within the strategy list itself, so a vetoed traversal compiles through exactly the strategies, in
  * exactly the order, an unvetoed one does.
  *
@@ -164,13 +191,16 @@ public final class RepeatDeclineStrategy
         return;
       }
       var strategies = traversal.getStrategies();
-      // Idempotent: a traversal that already carries the marker — a re-applied strategy chain, or a
-      // list a vetoed parent pushed down when it locked — needs no second wrapper. Double-wrapping
-      // would still read as vetoed, but each layer adds a hop to every forwarded call.
-      if (strategies instanceof VetoedStrategies) {
+      // Idempotent: a traversal that already carries a marker — a re-applied strategy chain, or a
+      // list a marked parent pushed down when it locked — needs no second wrapper. Double-wrapping
+      // would still read the same, but each layer adds a hop to every forwarded call.
+      if (strategies instanceof MarkedStrategies) {
         return;
       }
-      traversal.setStrategies(new VetoedStrategies(strategies));
+      traversal.setStrategies(
+          translatesToFrontier(traversal)
+              ? new FrontierStrategies(strategies)
+              : new VetoedStrategies(strategies));
     } catch (RuntimeException e) {
       // Skipping the veto yields no wrong answer — the translator's own gates then decide, as they
       // did before this strategy existed — so record it at DEBUG and leave the traversal alone.
@@ -184,6 +214,102 @@ public final class RepeatDeclineStrategy
     }
   }
 
+  /**
+   * Whether every {@link RepeatStep} under {@code traversal} is one of its own steps and has a shape
+   * the frontier recognisers can map. A repeat nested in a child traversal — a {@code union} arm, a
+   * repeat body, an {@code until} predicate — vetoes the whole traversal: the frontier is a single
+   * MATCH edge and only the walker of the traversal that owns the repeat can place it.
+   */
+  private static boolean translatesToFrontier(Admin<?, ?> traversal) {
+    for (var repeat : TraversalHelper.getStepsOfAssignableClassRecursively(RepeatStep.class,
+        traversal)) {
+      if (repeat.getTraversal() != traversal || !isFrontierShape(repeat)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isFrontierShape(RepeatStep<?> repeat) {
+    if (!repeat.getLabels().isEmpty() || repeat.getLoopName() != null) {
+      return false;
+    }
+    var until = repeat.getUntilTraversal();
+    var emit = repeat.getEmitTraversal();
+    if (until == null && emit == null) {
+      // Nothing ever leaves the loop and nothing is emitted, so there is no row to produce.
+      return false;
+    }
+    if (until instanceof LoopTraversal<?> loops && loops.getMaxLoops() < 1) {
+      // times(0) keeps or drops the start depending on where the until sits; not worth mapping.
+      return false;
+    }
+    if (emit != null && !(emit instanceof TrueTraversal<?, ?>)) {
+      return false;
+    }
+    if (until != null && !(until instanceof LoopTraversal<?>) && !isRecordFilter(until)) {
+      return false;
+    }
+    if (emit != null && until != null && repeat.untilFirst && !repeat.emitFirst) {
+      // until().repeat().emit(): a traverser leaving at depth n >= 1 is emitted by the body's end
+      // step and then released again by the until check of the next iteration.
+      return false;
+    }
+    var body = repeat.getRepeatTraversal().getSteps();
+    if (body.isEmpty() || !(body.getFirst() instanceof VertexStep<?> hop) || !hop.returnsVertex()
+        || !hop.getLabels().isEmpty()) {
+      return false;
+    }
+    var next = 1;
+    if (next < body.size() && body.get(next) instanceof PathFilterStep<?> pathFilter) {
+      if (!isPlainSimplePath(pathFilter)) {
+        return false;
+      }
+      next++;
+    }
+    return next == body.size() - 1 && body.get(next) instanceof RepeatStep.RepeatEndStep<?>;
+  }
+
+  /**
+   * Whether {@code traversal} holds only unlabelled {@code has} steps and {@code and} / {@code or} /
+   * {@code not} over them, so that it reads the record it is tested against and nothing else.
+   */
+  static boolean isRecordFilter(Admin<?, ?> traversal) {
+    if (traversal.getSteps().isEmpty()) {
+      return false;
+    }
+    for (var step : traversal.getSteps()) {
+      if (!step.getLabels().isEmpty()) {
+        return false;
+      }
+      if (step instanceof HasStep<?>) {
+        continue;
+      }
+      if (!(step instanceof NotStep<?> || step instanceof AndStep<?> || step instanceof OrStep<?>)) {
+        return false;
+      }
+      for (var child : ((TraversalParent) step).getLocalChildren()) {
+        if (!isRecordFilter(child)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Whether {@code step} is a bare {@code simplePath()}: simple, unlabelled, with no {@code from} /
+   * {@code to} window and no {@code by} modulator. The unrolled form of {@code times(n)} keeps these
+   * steps as they are, so the hop-run fold applies the same test.
+   */
+  static boolean isPlainSimplePath(PathFilterStep<?> step) {
+    return step.isSimple()
+        && step.getLabels().isEmpty()
+        && step.getFromLabel() == null
+        && step.getToLabel() == null
+        && step.getLocalChildren().isEmpty();
+  }
+
   /**
    * Reads the veto off {@code traversal}. The single reader in production is {@link
    * GremlinToMatchStrategy}; the marker means "this traversal was written with {@code repeat(...)},
@@ -202,24 +328,34 @@ public final class RepeatDeclineStrategy
   }
 
   /**
-   * The veto carrier: a {@link TraversalStrategies} view that forwards every operation to the list
-   * it wraps and carries the veto in its own type. It contributes no strategy, so {@code iterator()}
-   * yields the wrapped list unchanged and {@code TraversalStrategies.sortStrategies} never runs.
+   * Reads the frontier mark off {@code traversal}: it was written with {@code repeat(...)} in a
+   * shape the frontier recognisers may translate, so the walker enables them for this traversal
+   * and for no other. Subject to the same {@code lock()} caveat as {@link #isVetoed}.
+   */
+  static boolean isFrontierMarked(Admin<?, ?> traversal) {
+    return traversal.getStrategies() instanceof FrontierStrategies;
+  }
+
+  /**
+   * The marker carrier: a {@link TraversalStrategies} view that forwards every operation to the
+   * list it wraps and carries the mark in its subclass's type. It contributes no strategy, so {@code
+   * iterator()} yields the wrapped list unchanged and {@code TraversalStrategies.sortStrategies}
+   * never runs.
    *
    * <p>The wrapped list may be the process-wide {@code GlobalCache} singleton, so this class must
    * never mutate it on its own account. It does not: the two mutators below forward verbatim, which
    * leaves a caller holding a wrapped list in exactly the position it would be in holding the
-   * unwrapped one. Every method here is transparent except {@link #clone()}, which keeps the veto on
-   * the copy — a clone of a vetoed traversal describes the same repeat-bearing query, and keeping
-   * the decline is the safe direction to err in.
+   * unwrapped one. Every method here is transparent except {@link #clone()}, which keeps the mark on
+   * the copy — a clone of a marked traversal describes the same repeat-bearing query.
    */
-  static final class VetoedStrategies implements TraversalStrategies {
+  abstract static sealed class MarkedStrategies implements TraversalStrategies
+      permits VetoedStrategies, FrontierStrategies {
 
     private static final long serialVersionUID = 1L;
 
-    private final TraversalStrategies delegate;
+    final TraversalStrategies delegate;
 
-    VetoedStrategies(TraversalStrategies delegate) {
+    MarkedStrategies(TraversalStrategies delegate) {
       this.delegate = delegate;
     }
 
@@ -252,14 +388,42 @@ public final class RepeatDeclineStrategy
       return this;
     }
 
+    @Override
+    public abstract TraversalStrategies clone();
+
+    @Override
+    public String toString() {
+      return delegate.toString();
+    }
+  }
+
+  /** The veto. Keeping it on a clone is the safe direction to err in. */
+  static final class VetoedStrategies extends MarkedStrategies {
+
+    private static final long serialVersionUID = 1L;
+
+    VetoedStrategies(TraversalStrategies delegate) {
+      super(delegate);
+    }
+
     @Override
     public TraversalStrategies clone() {
       return new VetoedStrategies(delegate.clone());
     }
+  }
+
+  /** The frontier mark: every repeat of the traversal has a shape the frontier may translate. */
+  static final class FrontierStrategies extends MarkedStrategies {
+
+    private static final long serialVersionUID = 1L;
+
+    FrontierStrategies(TraversalStrategies delegate) {
+      super(delegate);
+    }
 
     @Override
-    public String toString() {
-      return delegate.toString();
+    public TraversalStrategies clone() {
+      return new FrontierStrategies(delegate.clone());
     }
   }
 }
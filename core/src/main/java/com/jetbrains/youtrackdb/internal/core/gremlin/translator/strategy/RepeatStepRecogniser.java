@@ -0,0 +1,122 @@
+package com.jetbrains.youtrackdb.internal.core.gremlin.translator.strategy;
+
+import com.jetbrains.youtrackdb.internal.core.sql.executor.match.builder.MatchWhereBuilder;
+import com.jetbrains.youtrackdb.internal.core.sql.parser.SQLBooleanExpression;
+import com.jetbrains.youtrackdb.internal.core.sql.parser.SQLWhereClause;
+import javax.annotation.Nullable;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.lambda.LoopTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.lambda.TrueTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.branch.RepeatStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.PathFilterStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+
+/**
+ * Recogniser for a {@link RepeatStep} that {@code RepeatUnrollStrategy} left in place — one with an
+ * {@code until(predicate)} or an {@code emit()} — mapped onto one frontier edge (see {@link
+ * GremlinPatternAssembler#claimFrontierHop}). Only reached on a walk {@link
+ * RepeatDeclineStrategy} marked for the frontier, which has already checked the body is one
+ * vertex-returning hop with an optional {@code simplePath()} and that the {@code until} / {@code
+ * emit} combination is one the frontier reproduces; this recogniser re-checks the body and maps:
+ *
+ * <ul>
+ *   <li>{@code times(n)} → {@code maxDepth: n};
+ *   <li>{@code until(p)} → {@code while: (NOT p)}, tested from depth 0 when the {@code until}
+ *       precedes the {@code repeat} and from depth 1 otherwise;
+ *   <li>{@code emit()} → rows from depth 0 when it precedes the {@code repeat}, from depth 1
+ *       otherwise. An {@code emit()} with no {@code until} expands while {@code true}, which like
+ *       native Gremlin terminates only on a graph with no reachable cycle.
+ * </ul>
+ *
+ * <p>The {@code until} predicate must be a pure filter on the record the loop reached: only {@code
+ * has} steps and {@code and} / {@code or} / {@code not} over them, without step labels, so that the
+ * captured WHERE reads the record alone. A predicate that walks an edge ({@code until(out())}) or
+ * names a label declines and the traversal runs natively.
+ */
+final class RepeatStepRecogniser implements StepRecogniser {
+
+  /** Singleton — the recogniser is stateless and cheap to share across walker instances. */
+  static final RepeatStepRecogniser INSTANCE = new RepeatStepRecogniser();
+
+  /** Stateless builder for the negated {@code until} predicate and clause wrapping. */
+  private static final MatchWhereBuilder WHERE = new MatchWhereBuilder();
+
+  private RepeatStepRecogniser() {
+    // Singleton — instantiate via INSTANCE.
+  }
+
+  @Override
+  public Outcome recognize(StepCursor cursor, RecognitionContext ctx) {
+    var step = cursor.take();
+    if (!(step instanceof RepeatStep<?> repeat)
+        || !ctx.repeatFrontierEnabled()
+        || !repeat.getLabels().isEmpty()) {
+      return Outcome.DECLINE;
+    }
+    var boundary = ctx.boundaryAlias();
+    if (boundary == null) {
+      return Outcome.DECLINE;
+    }
+    // [hop, RepeatEndStep] or [hop, simplePath(), RepeatEndStep]
+    var body = repeat.getRepeatTraversal().getSteps();
+    if (body.size() < 2
+        || body.size() > 3
+        || !(body.getFirst() instanceof VertexStep<?> hop)
+        || hop.returnsEdge()
+        || !(body.getLast() instanceof RepeatStep.RepeatEndStep<?>)) {
+      return Outcome.DECLINE;
+    }
+    var simplePath = body.size() == 3;
+    if (simplePath
+        && !(body.get(1) instanceof PathFilterStep<?> pathFilter
+            && RepeatDeclineStrategy.isPlainSimplePath(pathFilter))) {
+      return Outcome.DECLINE;
+    }
+
+    var emit = repeat.getEmitTraversal();
+    if (emit != null && !(emit instanceof TrueTraversal<?, ?>)) {
+      return Outcome.DECLINE;
+    }
+    Integer emitFromDepth = emit == null ? null : repeat.emitFirst ? 0 : 1;
+
+    var until = repeat.getUntilTraversal();
+    Integer maxDepth = null;
+    SQLWhereClause whileCondition = null;
+    if (until instanceof LoopTraversal<?> loops) {
+      if (loops.getMaxLoops() < 1 || loops.getMaxLoops() > Integer.MAX_VALUE) {
+        return Outcome.DECLINE;
+      }
+      maxDepth = (int) loops.getMaxLoops();
+    } else if (until != null) {
+      var predicate = untilPredicate(until, boundary, ctx);
+      if (predicate == null) {
+        return Outcome.DECLINE;
+      }
+      whileCondition = WHERE.wrap(WHERE.not(predicate));
+    } else if (emit != null) {
+      whileCondition = WHERE.wrap(SQLBooleanExpression.TRUE);
+    } else {
+      return Outcome.DECLINE;
+    }
+    return GremlinPatternAssembler.claimFrontierHop(
+        hop, ctx, whileCondition, maxDepth, emitFromDepth, repeat.untilFirst ? 0 : 1, simplePath);
+  }
+
+  /**
+   * The WHERE expression the {@code until} child tests, or {@code null} when it is not a pure filter
+   * on the reached record.
+   */
+  private static @Nullable SQLBooleanExpression untilPredicate(
+      Traversal.Admin<?, ?> until, String boundary, RecognitionContext ctx) {
+    if (!RepeatDeclineStrategy.isRecordFilter(until)) {
+      return null;
+    }
+    var adapter = ctx.walkChild(until);
+    if (adapter.outcome() != Outcome.ACCEPTED
+        || adapter.hasEdges()
+        || !adapter.capturedNotExpressions().isEmpty()) {
+      return null;
+    }
+    return ConnectiveStepSupport.singleCapturedFilter(adapter, boundary);
+  }
+}
@@ -1,5 +1,10 @@
 package com.jetbrains.youtrackdb.internal.core.gremlin.translator.strategy;
 
+import java.util.Arrays;
+import javax.annotation.Nullable;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.PathFilterStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.CountGlobalStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
 
 /**
@@ -40,6 +45,19 @@ import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
  * all-edges {@code out('E')} form ({@code E} traversed polymorphically). A multi-label hop ({@code
  * out("a", "b")}) declines: {@code MatchPatternBuilder.addEdge} carries a single edge label with no
  * multi-label slot, so a multi-label hop falls back to the native pipeline.
+ *
+ * <h2>Unrolled {@code repeat(...).times(n)} folds into one frontier edge</h2>
+ *
+ * {@code RepeatUnrollStrategy} runs before this walker and rewrites {@code repeat(out(L)).times(n)}
+ * into {@code n} copies of the body. Walked hop by hop, that chain enumerates every path, which grows
+ * with the n-th power of the fan-out where native Gremlin merges the traversers at each barrier.
+ * When the walk is {@link RecognitionContext#repeatFrontierEnabled()} and has no frontier edge yet,
+ * a run of at least two identical unlabelled hops, or a run of one or more {@code (hop,
+ * simplePath())} pairs, is claimed as one frontier edge of that depth (see {@link GremlinPatternAssembler#claimFrontierHop}). A run
+ * directly followed by the same hop in its edge-returning form and a final {@code count()} absorbs
+ * that hop as one more depth: {@code AdjacentToIncidentStrategy} may rewrite the last unrolled hop
+ * before a {@code count()} into {@code outE(L)}, and counting the edges leaving a record counts the
+ * hops that would follow them.
  */
 final class VertexHopRecogniser implements StepRecogniser {
 
@@ -52,10 +70,74 @@ final class VertexHopRecogniser implements StepRecogniser {
 
   @Override
   public Outcome recognize(StepCursor cursor, RecognitionContext ctx) {
+    if (ctx.repeatFrontierEnabled()
+        && ctx.bulkAlias() == null
+        && cursor.peek() instanceof VertexStep<?> head
+        && !head.returnsEdge()) {
+      var run = HopRun.scan(cursor, head);
+      if (run != null) {
+        run.consume(cursor);
+        return GremlinPatternAssembler.claimFrontierHop(
+            head, ctx, null, run.depth(), null, 1, run.simplePath());
+      }
+    }
     var step = cursor.take();
     if (!(step instanceof VertexStep<?> hop) || hop.returnsEdge()) {
       return Outcome.DECLINE;
     }
     return GremlinPatternAssembler.claimFoldedHop(hop, ctx);
   }
+
+  /**
+   * A foldable run at the cursor head: {@code depth} hops, each followed by a {@code simplePath()}
+   * when {@code simplePath} holds. An absorbed edge-returning hop counts as the last of them.
+   */
+  private record HopRun(int depth, boolean simplePath) {
+
+    /** The run starting at the head, or {@code null} when the head starts no foldable run. */
+    @Nullable
+    static HopRun scan(StepCursor cursor, VertexStep<?> head) {
+      var simplePath = isPlainSimplePath(cursor.peek(1));
+      var stride = simplePath ? 2 : 1;
+      var depth = 0;
+      while (cursor.peek(depth * stride) instanceof VertexStep<?> hop
+          && !hop.returnsEdge()
+          && sameHop(hop, head)
+          && (!simplePath || isPlainSimplePath(cursor.peek(depth * stride + 1)))) {
+        depth++;
+      }
+      var next = depth * stride;
+      var trailingEdgeHop = !simplePath
+          && cursor.peek(next) instanceof VertexStep<?> edgeHop
+          && edgeHop.returnsEdge()
+          && sameHop(edgeHop, head)
+          && cursor.peek(next + 1) instanceof CountGlobalStep<?>
+          && cursor.peek(next + 2) == null;
+      if (trailingEdgeHop) {
+        depth++;
+      }
+      if (depth < (simplePath ? 1 : 2)) {
+        return null;
+      }
+      return new HopRun(depth, simplePath);
+    }
+
+    void consume(StepCursor cursor) {
+      var steps = simplePath ? depth * 2 : depth;
+      for (var i = 0; i < steps; i++) {
+        cursor.take();
+      }
+    }
+
+    private static boolean isPlainSimplePath(@Nullable Step<?, ?> step) {
+      return step instanceof PathFilterStep<?> pathFilter
+          && RepeatDeclineStrategy.isPlainSimplePath(pathFilter);
+    }
+
+    private static boolean sameHop(VertexStep<?> hop, VertexStep<?> head) {
+      return hop.getDirection() == head.getDirection()
+          && Arrays.equals(hop.getEdgeLabels(), head.getEdgeLabels())
+          && hop.getLabels().isEmpty();
+    }
+  }
 }
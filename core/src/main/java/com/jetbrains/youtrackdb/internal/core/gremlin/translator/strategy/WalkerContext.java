@@ -10,6 +10,7 @@ import com.jetbrains.youtrackdb.internal.core.sql.executor.match.MatchPlanInputs
 import com.jetbrains.youtrackdb.internal.core.sql.executor.match.builder.MatchPatternBuilder;
 import com.jetbrains.youtrackdb.internal.core.sql.executor.match.builder.MatchProjectionBuilder;
 import com.jetbrains.youtrackdb.internal.core.sql.executor.match.builder.MatchWhereBuilder;
+import com.jetbrains.youtrackdb.internal.core.sql.parser.MatchFrontier;
 import com.jetbrains.youtrackdb.internal.core.sql.parser.SQLExpression;
 import com.jetbrains.youtrackdb.internal.core.sql.parser.SQLGroupBy;
 import com.jetbrains.youtrackdb.internal.core.sql.parser.SQLIdentifier;
@@ -207,6 +208,13 @@ final class WalkerContext implements RecognitionContext {
    */
   @Nullable private List<Boolean> unionChildCacheEligible;
 
+  /** Whether the walked traversal is marked for the frontier edge; see {@link
+   *  RecognitionContext#repeatFrontierEnabled()}. Set once by {@link GremlinStepWalker#walk}. */
+  private boolean repeatFrontier;
+
+  /** The frontier edge's bulk column, or {@code null}; see {@link RecognitionContext#bulkAlias()}. */
+  @Nullable private String bulkAlias;
+
   /** Ordered post-concat reductions ({@code count}/{@code limit}/{@code dedup}) after a union. */
   private final List<PostConcatOp> postConcatOps = new ArrayList<>();
 
@@ -227,6 +235,11 @@ final class WalkerContext implements RecognitionContext {
    *  #ANON_VERTEX_ALIAS_PREFIX}. */
   static final String EDGE_ALIAS_PREFIX = "$g2m_edge_";
 
+  /** Reserved row column a frontier edge binds its merged-path count to; a walk places at most one
+   *  frontier edge, so one name suffices. Same reserved {@code $g2m_} namespace as {@link
+   *  #ANON_VERTEX_ALIAS_PREFIX}. */
+  static final String BULK_ALIAS = "$g2m_bulk";
+
   /**
    * Generic vertex root class {@code "V"} -- the polymorphic base every vertex-rooted traversal
    * roots at when no explicit user class is given. Shared by {@link StartStepRecogniser} (the {@code
@@ -482,6 +495,19 @@ final class WalkerContext implements RecognitionContext {
     patternBuilder.addEdge(fromAlias, toAlias, dir, edgeLabel, null, null, null);
   }
 
+  @Override
+  public void addRepeatEdge(
+      String fromAlias,
+      String toAlias,
+      MatchPatternBuilder.Direction dir,
+      @Nullable String edgeLabel,
+      @Nullable SQLWhereClause whileCondition,
+      @Nullable Integer maxDepth,
+      @Nonnull MatchFrontier frontier) {
+    patternBuilder.addRepeatEdge(
+        fromAlias, toAlias, dir, edgeLabel, null, whileCondition, maxDepth, frontier);
+  }
+
   @Override
   public void addEdgeAsNode(
       String fromAlias,
@@ -709,6 +735,31 @@ final class WalkerContext implements RecognitionContext {
     return GremlinStepWalker.subWalk(child, this, recognisers);
   }
 
+  /** Enables the frontier recognisers; called once by {@link GremlinStepWalker#walk}. */
+  void enableRepeatFrontier() {
+    this.repeatFrontier = true;
+  }
+
+  @Override
+  public boolean repeatFrontierEnabled() {
+    return repeatFrontier;
+  }
+
+  @Override
+  public boolean boundaryIsTraversalStart() {
+    return patternBuilder.edgeCount() == 0;
+  }
+
+  @Nullable @Override
+  public String bulkAlias() {
+    return bulkAlias;
+  }
+
+  @Override
+  public void setBulkAlias(@Nullable String alias) {
+    this.bulkAlias = alias;
+  }
+
   /** Installs the union fork seam; called once by {@link GremlinStepWalker#walk}. */
   void setUnionForkHost(@Nonnull UnionForkHost host) {
     this.unionForkHost = host;
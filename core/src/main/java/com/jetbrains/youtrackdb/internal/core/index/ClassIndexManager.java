@@ -32,6 +32,7 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Handles indexing when records change.
@@ -48,6 +49,25 @@ public class ClassIndexManager {
     addIndexEntry(transaction, entity, entity.getIdentity(), index);
   }
 
+  /**
+   * Passes to the action every key under which {@link #reIndex} puts the entity into the index:
+   * every item of a collection key, and no keys at all for a null key ignored by the index.
+   */
+  public static void forEachIndexKey(FrontendTransaction transaction, EntityImpl entity,
+      Index index, Consumer<Object> action) {
+    final var indexDefinition = index.getDefinition();
+    final var key = indexDefinition.getDocumentValueToIndex(transaction, entity);
+    if (key instanceof Collection<?> keyItems) {
+      for (final var keyItem : keyItems) {
+        if (!indexDefinition.isNullValuesIgnored() || keyItem != null) {
+          action.accept(keyItem);
+        }
+      }
+    } else if (!indexDefinition.isNullValuesIgnored() || key != null) {
+      action.accept(key);
+    }
+  }
+
   private static void processIndexOnCreate(FrontendTransaction transaction,
       EntityImpl entity) {
     SchemaImmutableClass cls = null;
@@ -395,17 +415,7 @@ public class ClassIndexManager {
 
   private static void addIndexEntry(
       FrontendTransaction transaction, EntityImpl entity, Identifiable rid, Index index) {
-    final var indexDefinition = index.getDefinition();
-    final var key = indexDefinition.getDocumentValueToIndex(transaction, entity);
-    if (key instanceof Collection) {
-      for (final var keyItem : (Collection<?>) key) {
-        if (!indexDefinition.isNullValuesIgnored() || keyItem != null) {
-          addPut(transaction, index, keyItem, rid);
-        }
-      }
-    } else if (!indexDefinition.isNullValuesIgnored() || key != null) {
-      addPut(transaction, index, key, rid);
-    }
+    forEachIndexKey(transaction, entity, index, key -> addPut(transaction, index, key, rid));
   }
 
   public static void processIndexOnDelete(FrontendTransaction transaction,
@@ -454,11 +464,17 @@ public class ClassIndexManager {
 
   private static void addPut(FrontendTransaction transaction, Index index, Object key,
       Identifiable value) {
+    if (transaction.getDatabaseSession().isIndexMaintenanceDeferred(index.getName())) {
+      return;
+    }
     index.put(transaction, key, value);
   }
 
   private static void addRemove(FrontendTransaction transaction, Index index, Object key,
       Identifiable value) {
+    if (transaction.getDatabaseSession().isIndexMaintenanceDeferred(index.getName())) {
+      return;
+    }
     index.remove(transaction, key, value);
   }
 }
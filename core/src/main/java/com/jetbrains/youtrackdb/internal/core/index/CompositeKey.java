@@ -75,6 +75,19 @@ public class CompositeKey
     this.keys = new ArrayList<>(size);
   }
 
+  /**
+   * Used by {@link IndexSnapshotKey}, which keeps its elements in an encoded form and does not
+   * need a list of its own.
+   */
+  CompositeKey(final Representation representation) {
+    assert representation == Representation.ENCODED;
+    this.keys = Collections.emptyList();
+  }
+
+  enum Representation {
+    ENCODED
+  }
+
   /**
    * Returns the key as a CompositeKey without copying. If the key is already a
    * CompositeKey, returns it directly; otherwise wraps it in a new single-element
@@ -119,7 +132,7 @@ public class CompositeKey
    */
   public void addKey(final Object key) {
     if (key instanceof CompositeKey compositeKey) {
-      for (final var inKey : compositeKey.keys) {
+      for (final var inKey : compositeKey.getKeys()) {
         addKey(inKey);
       }
     } else {
@@ -165,10 +178,11 @@ public class CompositeKey
    */
   @Override
   public int compareTo(final CompositeKey otherKey) {
-    final int len = Math.min(keys.size(), otherKey.keys.size());
+    final var otherKeys = otherKey.getKeys();
+    final int len = Math.min(keys.size(), otherKeys.size());
     for (int i = 0; i < len; i++) {
       final var inKey = keys.get(i);
-      final var outKey = otherKey.keys.get(i);
+      final var outKey = otherKeys.get(i);
 
       if (outKey instanceof AlwaysGreaterKey) {
         return -1;
@@ -206,7 +220,7 @@ public class CompositeKey
       return false;
     }
 
-    return keys.equals(that.keys);
+    return keys.equals(that.getKeys());
   }
 
   /**
@@ -228,6 +242,7 @@ public class CompositeKey
   @Override
   public EntityImpl toEntity(DatabaseSessionEmbedded db) {
     final var entity = db.newEmbeddedEntity();
+    final var keys = getKeys();
     for (var i = 0; i < keys.size(); i++) {
       entity.setProperty("key" + i, keys.get(i));
     }
@@ -23,9 +23,12 @@ import com.jetbrains.youtrackdb.internal.core.index.engine.v1.BTreeIndexEngine;
 import com.jetbrains.youtrackdb.internal.core.index.engine.v1.BTreeMultiValueIndexEngine;
 import com.jetbrains.youtrackdb.internal.core.index.engine.v1.BTreeSingleValueIndexEngine;
 import com.jetbrains.youtrackdb.internal.core.metadata.schema.schema.SchemaClass;
+import com.jetbrains.youtrackdb.internal.core.serialization.serializer.binary.impl.index.IndexMultiValuKeySerializer;
 import com.jetbrains.youtrackdb.internal.core.storage.Storage;
 import com.jetbrains.youtrackdb.internal.core.storage.impl.local.AbstractStorage;
 import com.jetbrains.youtrackdb.internal.core.storage.index.engine.RemoteIndexEngine;
+import com.jetbrains.youtrackdb.internal.core.storage.index.hashindex.HashTable;
+import com.jetbrains.youtrackdb.internal.core.storage.index.nkbtree.NormalizedKeySerializer;
 import com.jetbrains.youtrackdb.internal.core.tx.FrontendTransactionImpl;
 import java.util.Collections;
 import java.util.HashSet;
@@ -39,14 +42,26 @@ import javax.annotation.Nullable;
  * <ul>
  *   <li>UNIQUE
  *   <li>NOTUNIQUE
- *   <li>FULLTEXT
- *   <li>DICTIONARY
+ *   <li>UNIQUE_HASH
+ *   <li>NOTUNIQUE_HASH
  * </ul>
  */
 public class DefaultIndexFactory implements IndexFactory {
 
   static final String BTREE_ALGORITHM = "BTREE";
 
+  /**
+   * B-tree which stores normalized keys in front of the keys, so that binary search of its buckets
+   * compares keys as unsigned bytes.
+   */
+  static final String NKBTREE_ALGORITHM = "NKBTREE";
+
+  /**
+   * Paged linear hash table, the default engine of the hash index types. It serves only lookups by
+   * all key fields, so indexes on it do not support ordered iterations.
+   */
+  static final String HASH_ALGORITHM = "HASH";
+
   private static final Set<String> TYPES;
   private static final Set<String> ALGORITHMS;
 
@@ -54,12 +69,16 @@ public class DefaultIndexFactory implements IndexFactory {
     final Set<String> types = new HashSet<>();
     types.add(SchemaClass.INDEX_TYPE.UNIQUE.toString());
     types.add(SchemaClass.INDEX_TYPE.NOTUNIQUE.toString());
+    types.add(SchemaClass.INDEX_TYPE.UNIQUE_HASH.toString());
+    types.add(SchemaClass.INDEX_TYPE.NOTUNIQUE_HASH.toString());
     TYPES = Collections.unmodifiableSet(types);
   }
 
   static {
     final Set<String> algorithms = new HashSet<>();
     algorithms.add(BTREE_ALGORITHM);
+    algorithms.add(NKBTREE_ALGORITHM);
+    algorithms.add(HASH_ALGORITHM);
 
     ALGORITHMS = Collections.unmodifiableSet(algorithms);
   }
@@ -81,6 +100,10 @@ public class DefaultIndexFactory implements IndexFactory {
       return new IndexUnique(storage);
     } else if (SchemaClass.INDEX_TYPE.NOTUNIQUE.toString().equals(indexType)) {
       return new IndexNotUnique(storage);
+    } else if (SchemaClass.INDEX_TYPE.UNIQUE_HASH.toString().equals(indexType)) {
+      return new IndexUniqueHash(storage);
+    } else if (SchemaClass.INDEX_TYPE.NOTUNIQUE_HASH.toString().equals(indexType)) {
+      return new IndexNotUniqueHash(storage);
     }
 
     throw new ConfigurationException(storage.getName(), "Unsupported type: " + indexType);
@@ -95,6 +118,10 @@ public class DefaultIndexFactory implements IndexFactory {
       return new IndexUnique(identity, transaction, storage);
     } else if (SchemaClass.INDEX_TYPE.NOTUNIQUE.toString().equals(indexType)) {
       return new IndexNotUnique(identity, transaction, storage);
+    } else if (SchemaClass.INDEX_TYPE.UNIQUE_HASH.toString().equals(indexType)) {
+      return new IndexUniqueHash(identity, transaction, storage);
+    } else if (SchemaClass.INDEX_TYPE.NOTUNIQUE_HASH.toString().equals(indexType)) {
+      return new IndexNotUniqueHash(identity, transaction, storage);
     }
 
     throw new ConfigurationException(storage.getName(), "Unsupported type: " + indexType);
@@ -102,7 +129,8 @@ public class DefaultIndexFactory implements IndexFactory {
 
   @Override
   public int getLastVersion(final String algorithm) {
-    if (algorithm.equals(BTREE_ALGORITHM)) {
+    if (algorithm.equals(BTREE_ALGORITHM) || algorithm.equals(NKBTREE_ALGORITHM)
+        || algorithm.equals(HASH_ALGORITHM)) {
       return BTreeIndexEngine.VERSION;
     }
 
@@ -142,6 +170,36 @@ public class DefaultIndexFactory implements IndexFactory {
                     data.getIndexId(), data.getFileBaseId(), data.getName(), realStorage,
                     version);
           }
+        } else if (data.getAlgorithm().equals(NKBTREE_ALGORITHM)) {
+          if (data.isMultivalue()) {
+            indexEngine =
+                new BTreeMultiValueIndexEngine(
+                    data.getIndexId(), data.getFileBaseId(), data.getName(), realStorage,
+                    version, new NormalizedKeySerializer());
+          } else {
+            indexEngine =
+                new BTreeSingleValueIndexEngine(
+                    data.getIndexId(), data.getFileBaseId(), data.getName(), realStorage,
+                    version, new NormalizedKeySerializer());
+          }
+        } else if (data.getAlgorithm().equals(HASH_ALGORITHM)) {
+          final var stem = AbstractStorage.indexEngineFileStem(data.getFileBaseId());
+          // the version and, for multi-value engines, the RID trail the hashed user key
+          if (data.isMultivalue()) {
+            indexEngine =
+                new BTreeMultiValueIndexEngine(
+                    data.getIndexId(), data.getFileBaseId(), data.getName(), realStorage,
+                    new IndexMultiValuKeySerializer(),
+                    new HashTable(stem, HashTable.DATA_FILE_EXTENSION,
+                        HashTable.OVERFLOW_FILE_EXTENSION, realStorage, 2));
+          } else {
+            indexEngine =
+                new BTreeSingleValueIndexEngine(
+                    data.getIndexId(), data.getFileBaseId(), data.getName(), realStorage,
+                    new IndexMultiValuKeySerializer(),
+                    new HashTable(stem, HashTable.DATA_FILE_EXTENSION,
+                        HashTable.OVERFLOW_FILE_EXTENSION, realStorage, 1));
+          }
         } else {
           throw new IllegalStateException("Invalid name of algorithm :'" + "'");
         }
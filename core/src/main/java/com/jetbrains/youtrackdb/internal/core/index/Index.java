@@ -223,6 +223,15 @@ public interface Index extends Comparable<Index> {
    */
   boolean canBeUsedInEqualityOperators();
 
+  /**
+   * Indicates whether given index keeps its keys ordered, so that it can serve range conditions,
+   * partial matches of composite keys and ordered iterations. Indexes which return {@code false}
+   * serve only equality and {@code IN} conditions on all of their properties.
+   *
+   * @return {@code true} if given index supports range queries and ordered iterations.
+   */
+  boolean supportsOrderedIterations();
+
   IndexMetadata loadMetadata(FrontendTransaction transaction, Map<String, Object> config);
 
   void close();
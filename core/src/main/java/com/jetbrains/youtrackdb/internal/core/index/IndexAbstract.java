@@ -25,7 +25,6 @@ import com.jetbrains.youtrackdb.internal.common.concur.lock.OneEntryPerKeyLockMa
 import com.jetbrains.youtrackdb.internal.common.concur.lock.PartitionedLockManager;
 import com.jetbrains.youtrackdb.internal.common.listener.ProgressListener;
 import com.jetbrains.youtrackdb.internal.common.log.LogManager;
-import com.jetbrains.youtrackdb.internal.common.util.RawPair;
 import com.jetbrains.youtrackdb.internal.core.db.DatabaseSessionEmbedded;
 import com.jetbrains.youtrackdb.internal.core.db.record.record.Entity;
 import com.jetbrains.youtrackdb.internal.core.db.record.record.Identifiable;
@@ -833,13 +832,42 @@ public abstract class IndexAbstract implements Index {
       }
 
       if (entitiesTotal > 0) {
-        // INDEX ALL COLLECTIONS
-        for (final var collectionName : collectionsToIndex) {
-          final var metrics =
-              indexCollection(session, collectionName, iProgressListener, entityNum,
-                  entitiesIndexed, entitiesTotal);
-          entityNum = metrics[0];
-          entitiesIndexed = metrics[1];
+        if (im.getIndexDefinition() == null) {
+          throw new ConfigurationException(
+              session, "Index '"
+                  + im.getName()
+                  + "' cannot be rebuilt because has no a valid definition ("
+                  + im.getIndexDefinition()
+                  + ")");
+        }
+
+        FrontendTransaction currentTransaction = null;
+        if (session.isTxActive()) {
+          currentTransaction = session.getTransactionInternal();
+        }
+        final var sortBufferSize = session.getConfiguration()
+            .getValueAsInteger(GlobalConfiguration.INDEX_BUILD_SORT_BUFFER_SIZE);
+
+        // Entries are collected from all collections first and put into the index in key order.
+        // The sorter belongs to the fill session, which stays active while entries are added,
+        // spilled and read back.
+        try (var fillSession = session.copy();
+            var sorter = new IndexEntrySorter(fillSession, sortBufferSize)) {
+          // INDEX ALL COLLECTIONS
+          for (final var collectionName : collectionsToIndex) {
+            final var metrics =
+                indexCollection(fillSession, collectionName, sorter, iProgressListener, entityNum,
+                    entitiesIndexed, entitiesTotal);
+            entityNum = metrics[0];
+            entitiesIndexed = metrics[1];
+          }
+
+          putSortedEntries(fillSession, sorter);
+        } catch (final RuntimeException e) {
+          if (currentTransaction != null) {
+            currentTransaction.rollback();
+          }
+          throw e;
         }
       }
 
@@ -928,15 +956,8 @@ public abstract class IndexAbstract implements Index {
   protected void doDelete(FrontendTransaction transaction) {
     while (true) {
       try {
-        try {
-          clearAllEntries(transaction.getDatabaseSession());
-        } catch (IndexEngineException e) {
-          throw e;
-        } catch (RuntimeException e) {
-          LogManager.instance().error(this, "Error Dropping Index %s", e, getName());
-          // Just log errors of removing keys while dropping and keep dropping
-        }
-
+        // Entries are not removed one by one, the storage detaches the engine and deletes its
+        // files once no active transaction can read them.
         storage.deleteIndexEngine(indexId);
         break;
       } catch (InvalidIndexEngineIdException ignore) {
@@ -948,68 +969,6 @@ public abstract class IndexAbstract implements Index {
     entity.delete();
   }
 
-  private void clearAllEntries(DatabaseSessionEmbedded session) {
-    FrontendTransaction transaction = null;
-    if (session.isTxActive()) {
-      transaction = session.getTransactionInternal();
-    }
-
-    try (var containsStream = stream(session)) {
-      if (containsStream.findAny().isEmpty()) {
-        return;
-      }
-    }
-
-    try (var deletionSession = session.copy()) {
-      var batchSize =
-          deletionSession.getConfiguration().getValueAsInteger(GlobalConfiguration.TX_BATCH_SIZE);
-
-      var lastIndexEntry = deletionSession.computeInTxInternal(deletionTx -> {
-        RawPair<Object, RID> indexEntry = null;
-        try (var indexStream = stream(deletionSession)) {
-          var indexIterator = indexStream.iterator();
-
-          for (var i = 0; i < batchSize && indexIterator.hasNext(); i++) {
-            indexEntry = indexIterator.next();
-            remove(deletionTx, indexEntry.first(), indexEntry.second());
-          }
-
-          if (indexIterator.hasNext()) {
-            return indexEntry;
-          } else {
-            return null;
-          }
-        }
-      });
-
-      while (lastIndexEntry != null) {
-        var lEntry = lastIndexEntry;
-        lastIndexEntry = deletionSession.computeInTxInternal(deletionTx -> {
-          try (var indexStream = streamEntriesMajor(deletionSession, lEntry.first(), true, true)) {
-            var indexIterator = indexStream.iterator();
-
-            RawPair<Object, RID> indexEntry = null;
-            for (var i = 0; i < batchSize && indexIterator.hasNext(); i++) {
-              indexEntry = indexIterator.next();
-              remove(deletionTx, indexEntry.first(), indexEntry.second());
-            }
-
-            if (indexIterator.hasNext()) {
-              return indexEntry;
-            } else {
-              return null;
-            }
-          }
-        });
-      }
-    } catch (Exception e) {
-      if (transaction != null) {
-        transaction.rollback();
-        throw e;
-      }
-    }
-  }
-
   @Override
   public String getName() {
     return im.getName();
@@ -1205,6 +1164,11 @@ public abstract class IndexAbstract implements Index {
     return false;
   }
 
+  @Override
+  public boolean supportsOrderedIterations() {
+    return !DefaultIndexFactory.HASH_ALGORITHM.equals(getAlgorithm());
+  }
+
   @Override
   public boolean isAutomatic() {
     acquireSharedLock();
@@ -1365,63 +1329,72 @@ public abstract class IndexAbstract implements Index {
   }
 
   private long[] indexCollection(
-      DatabaseSessionEmbedded session, final String collectionName,
+      DatabaseSessionEmbedded fillSession, final String collectionName,
+      final IndexEntrySorter sorter,
       final ProgressListener iProgressListener,
       long documentNum,
       long documentIndexed,
       long documentTotal) {
-    if (im.getIndexDefinition() == null) {
-      throw new ConfigurationException(
-          session, "Index '"
-              + im.getName()
-              + "' cannot be rebuilt because has no a valid definition ("
-              + im.getIndexDefinition()
-              + ")");
-    }
-
     var stat = new long[] {documentNum, documentIndexed};
 
-    FrontendTransaction currentTransaction = null;
-    if (session.isTxActive()) {
-      currentTransaction = session.getTransactionInternal();
-    }
-
-    var collectionId = session.getCollectionIdByName(collectionName);
+    var collectionId = fillSession.getCollectionIdByName(collectionName);
     // O(1) approximate guard — avoids starting a transaction just to check emptiness.
     // False-zero (approximate says 0 when records exist) is theoretically possible after
     // crash recovery but harmless: index rebuild is idempotent and can be retried.
     if (storage.getApproximateRecordsCount(collectionId) > 0) {
-      try (var fillSession = session.copy()) {
-        var collectionIterator = fillSession.browseCollection(collectionName);
-        fillSession.executeInTxBatchesInternal(collectionIterator, (fillTransaction, record) -> {
-          if (Thread.interrupted()) {
-            throw new CommandExecutionException(session,
-                "The index rebuild has been interrupted");
-          }
+      var collectionIterator = fillSession.browseCollection(collectionName);
+      fillSession.executeInTxBatchesInternal(collectionIterator, (fillTransaction, record) -> {
+        if (Thread.interrupted()) {
+          throw new CommandExecutionException(fillSession,
+              "The index rebuild has been interrupted");
+        }
 
-          if (record instanceof EntityImpl entity) {
-            ClassIndexManager.reIndex(fillTransaction, entity, this);
-            ++stat[1];
-          }
+        if (record instanceof EntityImpl entity) {
+          final var rid = entity.getIdentity();
+          ClassIndexManager.forEachIndexKey(fillTransaction, entity, this,
+              key -> sorter.add(getCollatingValue(key), rid));
+          ++stat[1];
+        }
 
-          stat[0]++;
+        stat[0]++;
 
-          if (iProgressListener != null) {
-            iProgressListener.onProgress(
-                this, documentNum, (float) (documentNum * 100.0 / documentTotal));
-          }
-        });
-      } catch (Exception e) {
-        if (currentTransaction != null) {
-          currentTransaction.rollback();
+        if (iProgressListener != null) {
+          iProgressListener.onProgress(
+              this, documentNum, (float) (documentNum * 100.0 / documentTotal));
         }
-        throw e;
-      }
+      });
     }
 
     return stat;
   }
 
+  /**
+   * Puts the entries collected from the collections into the index in key order, so consecutive
+   * puts modify the same B-tree pages.
+   *
+   * <p>The entries skip {@link Index#put} and go to the transaction directly, as the steps of the
+   * put path were already taken when they were collected: keys and the null filter of the index
+   * definition come from {@link ClassIndexManager#forEachIndexKey}, which the put path of entity
+   * changes uses too, and keys were collated before they were sorted, so putting them again would
+   * collate them twice. The RID check of {@code put} can not fail either, as every RID is the one
+   * of a record read from a collection.
+   */
+  private void putSortedEntries(DatabaseSessionEmbedded fillSession, IndexEntrySorter sorter) {
+    if (sorter.size() == 0) {
+      return;
+    }
+
+    fillSession.executeInTxBatchesInternal(sorter.sorted(), (fillTransaction, entry) -> {
+      if (Thread.interrupted()) {
+        throw new CommandExecutionException(fillSession,
+            "The index rebuild has been interrupted");
+      }
+
+      fillTransaction.addIndexEntry(this, getName(), OPERATION.PUT, entry.first(),
+          entry.second());
+    });
+  }
+
   protected void releaseExclusiveLock() {
     rwLock.writeLock().unlock();
   }
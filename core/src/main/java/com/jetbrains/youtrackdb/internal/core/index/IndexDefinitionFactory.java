@@ -24,9 +24,15 @@ import com.jetbrains.youtrackdb.internal.core.metadata.schema.PropertyTypeIntern
 import com.jetbrains.youtrackdb.internal.core.metadata.schema.SchemaClassImpl;
 import com.jetbrains.youtrackdb.internal.core.metadata.schema.schema.Collate;
 import com.jetbrains.youtrackdb.internal.core.metadata.schema.schema.SchemaClass;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.regex.Pattern;
+import javax.annotation.Nullable;
 
 /**
  * Contains helper methods for {@link IndexDefinition} creation.
@@ -37,6 +43,13 @@ public class IndexDefinitionFactory {
 
   private static final Pattern FILED_NAME_PATTERN = Pattern.compile("\\s+");
 
+  /**
+   * Index metadata entry which lists properties stored by a NOTUNIQUE index after its key
+   * properties, so that queries projecting only key and included properties can be answered from
+   * the index without loading records.
+   */
+  public static final String INCLUDE_METADATA = "include";
+
   /**
    * Creates an instance of {@link IndexDefinition} for automatic index.
    *
@@ -83,6 +96,54 @@ public class IndexDefinitionFactory {
     }
   }
 
+  /**
+   * Appends the properties listed by the {@link #INCLUDE_METADATA} entry of the index metadata to
+   * the indexed fields. Included properties become trailing components of the index key, so only
+   * NOTUNIQUE indexes accept them: they would change the uniqueness of a UNIQUE index and make a
+   * hash index unusable for lookups by the key properties alone. Properties which are already
+   * indexed are skipped, so definitions re-created from an exported index stay unchanged.
+   *
+   * @param dbName    name of the database, used in error messages
+   * @param indexType type of the created index
+   * @param fields    indexed fields in '<property> [by key|value]' format
+   * @param metadata  index metadata, may be {@code null}
+   * @return indexed fields followed by the included properties
+   */
+  public static String[] appendIncludedFields(
+      String dbName, String indexType, String[] fields, @Nullable Map<String, Object> metadata) {
+    var include = metadata == null ? null : metadata.get(INCLUDE_METADATA);
+    if (include == null) {
+      return fields;
+    }
+    if (!(include instanceof Collection<?> included)) {
+      throw new IndexException(dbName,
+          "Index metadata entry '" + INCLUDE_METADATA + "' should be a list of property names");
+    }
+    if (included.isEmpty()) {
+      return fields;
+    }
+    if (!SchemaClass.INDEX_TYPE.NOTUNIQUE.name().equalsIgnoreCase(indexType)) {
+      throw new IndexException(dbName,
+          "Included properties are supported only by NOTUNIQUE indexes, not by " + indexType);
+    }
+
+    var result = new ArrayList<>(Arrays.asList(fields));
+    var indexed = new HashSet<String>();
+    for (var field : fields) {
+      indexed.add(extractFieldName(field));
+    }
+    for (var property : included) {
+      if (!(property instanceof String name)) {
+        throw new IndexException(dbName,
+            "Index metadata entry '" + INCLUDE_METADATA + "' should be a list of property names");
+      }
+      if (indexed.add(name)) {
+        result.add(name);
+      }
+    }
+    return result.toArray(new String[0]);
+  }
+
   /**
    * Extract field name from '<property> [by key|value]' field format.
    *
@@ -0,0 +1,126 @@
+package com.jetbrains.youtrackdb.internal.core.index;
+
+import com.jetbrains.youtrackdb.internal.common.comparator.DefaultComparator;
+import com.jetbrains.youtrackdb.internal.common.util.RawPair;
+import com.jetbrains.youtrackdb.internal.core.db.DatabaseSessionEmbedded;
+import com.jetbrains.youtrackdb.internal.core.db.record.record.RID;
+import com.jetbrains.youtrackdb.internal.core.serialization.serializer.record.binary.BytesContainer;
+import com.jetbrains.youtrackdb.internal.core.serialization.serializer.record.binary.HelperClasses;
+import com.jetbrains.youtrackdb.internal.core.serialization.serializer.record.binary.VarIntSerializer;
+import com.jetbrains.youtrackdb.internal.core.sql.executor.spill.ExternalSorter;
+import com.jetbrains.youtrackdb.internal.core.sql.executor.spill.ResultSpillSerializer;
+import com.jetbrains.youtrackdb.internal.core.sql.executor.spill.SpillSerializer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Sorts the entries of an index which is being filled from the records of its collections, so the
+ * index is filled in key order: every B-tree page is then modified by a run of consecutive puts,
+ * and pages split while keys are appended at the end of the tree stay full.
+ *
+ * <p>Entries are sorted by the {@link ExternalSorter} of the query engine: they are sorted in
+ * memory while their amount does not exceed the buffer size, otherwise sorted runs are spilled to
+ * the query spill directory of the storage and merged once all entries are added. Every entry is a
+ * pair of the key and the RID of the record; in a spilled run it takes a marker byte, the key
+ * value or the items of a composite key, and the RID.
+ */
+final class IndexEntrySorter implements AutoCloseable {
+
+  private static final byte SINGLE_KEY = 0;
+  private static final byte COMPOSITE_KEY = 1;
+
+  private static final Comparator<RawPair<Object, RID>> ENTRY_COMPARATOR =
+      (first, second) -> {
+        final var result = DefaultComparator.INSTANCE.compare(first.first(), second.first());
+        if (result != 0) {
+          return result;
+        }
+        return first.second().compareTo(second.second());
+      };
+
+  private final ExternalSorter<RawPair<Object, RID>> sorter;
+  private long size;
+
+  /**
+   * @param session    session which is active while entries are added and read
+   * @param bufferSize maximum number of entries kept in the heap
+   */
+  IndexEntrySorter(@Nonnull DatabaseSessionEmbedded session, int bufferSize) {
+    if (bufferSize < 1) {
+      throw new IllegalArgumentException("Size of sort buffer has to be positive: " + bufferSize);
+    }
+
+    this.sorter =
+        new ExternalSorter<>(session, new EntrySerializer(session), ENTRY_COMPARATOR, bufferSize);
+  }
+
+  /** Adds the entry, the key has to be already transformed by the collate of the index. */
+  void add(@Nullable Object key, RID rid) {
+    sorter.add(new RawPair<>(key, rid));
+    size++;
+  }
+
+  /** Amount of added entries. */
+  long size() {
+    return size;
+  }
+
+  /**
+   * Returns all added entries ordered by key and then by RID. Entries can not be added after this
+   * call.
+   */
+  Iterator<RawPair<Object, RID>> sorted() {
+    return sorter.sorted();
+  }
+
+  /** Deletes the spilled runs. */
+  @Override
+  public void close() {
+    sorter.close();
+  }
+
+  private static final class EntrySerializer implements SpillSerializer<RawPair<Object, RID>> {
+
+    private final DatabaseSessionEmbedded session;
+
+    private EntrySerializer(DatabaseSessionEmbedded session) {
+      this.session = session;
+    }
+
+    @Override
+    public void serialize(@Nonnull RawPair<Object, RID> entry, @Nonnull BytesContainer bytes) {
+      if (entry.first() instanceof CompositeKey compositeKey) {
+        final var keys = compositeKey.getKeys();
+        bytes.bytes[bytes.alloc(1)] = COMPOSITE_KEY;
+        VarIntSerializer.write(bytes, keys.size());
+        for (final var item : keys) {
+          ResultSpillSerializer.writeValue(session, bytes, item);
+        }
+      } else {
+        bytes.bytes[bytes.alloc(1)] = SINGLE_KEY;
+        ResultSpillSerializer.writeValue(session, bytes, entry.first());
+      }
+      HelperClasses.writeOptimizedLink(session, bytes, entry.second());
+    }
+
+    @Nonnull
+    @Override
+    public RawPair<Object, RID> deserialize(@Nonnull BytesContainer bytes) {
+      final Object key;
+      if (bytes.bytes[bytes.offset++] == COMPOSITE_KEY) {
+        final var size = VarIntSerializer.readAsInteger(bytes);
+        final var keys = new ArrayList<>(size);
+        for (var i = 0; i < size; i++) {
+          keys.add(ResultSpillSerializer.readValue(session, bytes));
+        }
+        key = new CompositeKey(keys);
+      } else {
+        key = ResultSpillSerializer.readValue(session, bytes);
+      }
+      return new RawPair<>(key, HelperClasses.readOptimizedLink(bytes, false));
+    }
+  }
+}
@@ -19,6 +19,7 @@
  */
 package com.jetbrains.youtrackdb.internal.core.index;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jetbrains.youtrackdb.api.config.GlobalConfiguration;
 import com.jetbrains.youtrackdb.internal.common.listener.ProgressListener;
 import com.jetbrains.youtrackdb.internal.common.log.LogManager;
@@ -50,6 +51,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.BiConsumer;
@@ -84,6 +86,26 @@ public class IndexManagerEmbedded extends IndexManagerAbstract {
 
   volatile boolean rebuildCompleted = false;
 
+  /**
+   * Storage property which lists, as a JSON array of names, the indexes whose maintenance was
+   * deferred and which were not rebuilt since. It is written before maintenance is skipped, so a process
+   * which dies in the middle of a bulk load leaves the list behind and the next open rebuilds those
+   * indexes instead of serving queries from their incomplete content.
+   */
+  public static final String REBUILD_PENDING_INDEXES_PROPERTY = "rebuildPendingIndexes";
+
+  /** Reads and writes the value of {@link #REBUILD_PENDING_INDEXES_PROPERTY}. */
+  private static final ObjectMapper REBUILD_PENDING_INDEXES_MAPPER = new ObjectMapper();
+
+  /** Indexes listed by {@link #REBUILD_PENDING_INDEXES_PROPERTY}, guarded by its own monitor. */
+  private final Set<String> rebuildPendingIndexes = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Indexes which were already listed by {@link #REBUILD_PENDING_INDEXES_PROPERTY} when the storage
+   * was opened: no session of this process defers them, so they are rebuilt on open.
+   */
+  private final Set<String> staleRebuildPendingIndexes = ConcurrentHashMap.newKeySet();
+
   protected final AtomicInteger writeLockNesting = new AtomicInteger();
 
   private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
@@ -168,6 +190,8 @@ public class IndexManagerEmbedded extends IndexManagerAbstract {
         }
       });
     }
+
+    loadRebuildPendingIndexes();
   }
 
   @Override
@@ -1762,6 +1786,157 @@ public class IndexManagerEmbedded extends IndexManagerAbstract {
     return false;
   }
 
+  /**
+   * Marks the given indexes as not up to date, before maintenance of them is skipped. The mark is
+   * persisted in the storage configuration and stays there until {@link #clearRebuildPending} is
+   * called after the index is rebuilt. Query planners do not use marked indexes, see
+   * {@link #isUsableByQueries}.
+   */
+  public void markRebuildPending(DatabaseSessionEmbedded session, Collection<String> indexNames) {
+    synchronized (rebuildPendingIndexes) {
+      if (rebuildPendingIndexes.addAll(indexNames)) {
+        persistRebuildPendingIndexes(session);
+      }
+    }
+  }
+
+  /** Removes the mark set by {@link #markRebuildPending} from the given rebuilt indexes. */
+  public void clearRebuildPending(DatabaseSessionEmbedded session,
+      Collection<String> indexNames) {
+    synchronized (rebuildPendingIndexes) {
+      staleRebuildPendingIndexes.removeAll(indexNames);
+      if (rebuildPendingIndexes.removeAll(indexNames)) {
+        persistRebuildPendingIndexes(session);
+      }
+    }
+  }
+
+  /**
+   * Whether the content of the index may miss changes because its maintenance was deferred and the
+   * index was not rebuilt since. Such an index must not be used to answer queries.
+   */
+  public boolean isRebuildPending(String indexName) {
+    return !rebuildPendingIndexes.isEmpty() && rebuildPendingIndexes.contains(indexName);
+  }
+
+  /**
+   * Whether a query may read the index. It may not while {@link #isRebuildPending its rebuild is
+   * pending}. Every planner, estimator and function that picks an index for a query goes through
+   * this check or {@link #usableByQueries}.
+   */
+  public boolean isUsableByQueries(Index index) {
+    return !isRebuildPending(index.getName());
+  }
+
+  /**
+   * The indexes of {@code indexes} which {@link #isUsableByQueries may be read by queries}, in
+   * their order. The collection itself is returned when no index waits for a rebuild.
+   */
+  public <I extends Index> Collection<I> usableByQueries(Collection<I> indexes) {
+    if (rebuildPendingIndexes.isEmpty()) {
+      return indexes;
+    }
+    final var usable = new ArrayList<I>(indexes.size());
+    for (final var index : indexes) {
+      if (isUsableByQueries(index)) {
+        usable.add(index);
+      }
+    }
+    return usable;
+  }
+
+  /**
+   * Rebuilds the indexes whose maintenance was deferred by a previous run of the database which
+   * did not finish the rebuild. Like {@link RecreateIndexesTask}, the rebuild runs in an internal
+   * session, as the session being opened is not authenticated yet. An index which fails to rebuild
+   * stays marked, so it is still ignored by the query planners, and the rebuild is retried on the
+   * next open.
+   */
+  public void rebuildStaleRebuildPendingIndexes(DatabaseSessionEmbedded session) {
+    if (staleRebuildPendingIndexes.isEmpty()) {
+      return;
+    }
+
+    synchronized (staleRebuildPendingIndexes) {
+      if (staleRebuildPendingIndexes.isEmpty()) {
+        return;
+      }
+
+      final var sharedContext = session.getSharedContext();
+      try (var rebuildSession = new DatabaseSessionEmbedded(sharedContext.getStorage(), false)) {
+        rebuildSession.activateOnCurrentThread();
+        rebuildSession.init(null, sharedContext);
+        rebuildSession.internalOpen("admin", "nopass", false);
+
+        for (final var indexName : new ArrayList<>(staleRebuildPendingIndexes)) {
+          staleRebuildPendingIndexes.remove(indexName);
+
+          final var index = getIndex(rebuildSession, indexName);
+          if (index != null) {
+            LogManager.instance()
+                .info(this, "Index '%s' was not rebuilt after deferred maintenance, rebuilding it",
+                    indexName);
+            try {
+              index.rebuild(rebuildSession);
+            } catch (RuntimeException e) {
+              LogManager.instance()
+                  .error(this, "Rebuild of index '%s' failed, the index is not used by queries", e,
+                      indexName);
+              continue;
+            }
+          }
+
+          clearRebuildPending(rebuildSession, List.of(indexName));
+        }
+      } finally {
+        session.activateOnCurrentThread();
+      }
+    }
+  }
+
+  private void loadRebuildPendingIndexes() {
+    final var property = storage.getProperty(REBUILD_PENDING_INDEXES_PROPERTY);
+    if (property == null || property.isEmpty()) {
+      return;
+    }
+
+    final String[] indexNames;
+    try {
+      indexNames = REBUILD_PENDING_INDEXES_MAPPER.readValue(property, String[].class);
+    } catch (IOException e) {
+      throw BaseException.wrapException(
+          new IndexException(storage.getName(),
+              "Invalid value of storage property " + REBUILD_PENDING_INDEXES_PROPERTY),
+          e, storage.getName());
+    }
+
+    synchronized (rebuildPendingIndexes) {
+      for (final var indexName : indexNames) {
+        if (rebuildPendingIndexes.add(indexName)) {
+          staleRebuildPendingIndexes.add(indexName);
+        }
+      }
+    }
+  }
+
+  private void persistRebuildPendingIndexes(DatabaseSessionEmbedded session) {
+    if (rebuildPendingIndexes.isEmpty()) {
+      storage.removeProperty(REBUILD_PENDING_INDEXES_PROPERTY);
+    } else {
+      try {
+        storage.setProperty(REBUILD_PENDING_INDEXES_PROPERTY,
+            REBUILD_PENDING_INDEXES_MAPPER.writeValueAsString(rebuildPendingIndexes));
+      } catch (IOException e) {
+        throw BaseException.wrapException(
+            new IndexException(session,
+                "Cannot write storage property " + REBUILD_PENDING_INDEXES_PROPERTY),
+            e, session);
+      }
+    }
+    // cached query plans may read the indexes whose mark has changed
+    session.getSharedContext().getYqlExecutionPlanCache().invalidate();
+  }
+
   /**
    * The non-transactional (top-level) arm of the class-rename re-association: applied eagerly
    * under the index-manager write lock, mirroring how every other top-level DDL self-applies (the
@@ -116,7 +116,8 @@ public class IndexMetadata {
 
   public boolean isMultivalue() {
     var t = type.toUpperCase(Locale.ROOT);
-    return SchemaClass.INDEX_TYPE.NOTUNIQUE.toString().equals(t);
+    return SchemaClass.INDEX_TYPE.NOTUNIQUE.toString().equals(t)
+        || SchemaClass.INDEX_TYPE.NOTUNIQUE_HASH.toString().equals(t);
   }
 
   public int getVersion() {
@@ -0,0 +1,447 @@
+package com.jetbrains.youtrackdb.internal.core.index;
+
+import com.jetbrains.youtrackdb.internal.core.id.RecordId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Byte-encoded key of the shared index snapshot maps, layout
+ * {@code [indexId, userKey..., version]}.
+ *
+ * <p>Every index write under MVCC adds two entries and a visibility entry to the snapshot maps.
+ * A plain {@link CompositeKey} holds such a key as a list of boxed elements and compares it
+ * element by element through {@link com.jetbrains.youtrackdb.internal.common.comparator.DefaultComparator}.
+ * This key keeps the elements in a single byte array instead and compares it with a single
+ * unsigned array comparison. The elements are decoded back only when {@link #getKeys()} is
+ * called, which the snapshot lookups avoid.
+ *
+ * <p>Each element is written as a type tag followed by an order-preserving encoding of the value
+ * in the same way as the key normalizers of the normalized key B-tree: fixed size numbers are
+ * written big-endian with the sign bit flipped, strings are written as UTF-16 code units in the
+ * prefix-free form of {@code BinaryKeyNormalizer}. Unlike the normalizers, the encoding is
+ * lossless (strings are not collated) and orders {@code null} before all values, so that the
+ * byte order of two keys matches the order of {@link CompositeKey#compareTo}. That order is
+ * defined only for keys whose elements at the same position have the same type or are
+ * {@code null}, {@code DefaultComparator} throws on an {@code Integer} compared to a {@code Long}.
+ * Snapshot keys meet it because an index converts its keys to the types of its definition; the
+ * type tags are not an order across types, and comparing such keys fails an assertion.
+ *
+ * <p>Keys with elements of other types are kept as plain {@link CompositeKey}s. Both kinds can be
+ * stored in the same map and are compared and tested for equality through the decoded elements,
+ * which happens only for the keys of an index whose key types can not all be encoded.
+ */
+public final class IndexSnapshotKey extends CompositeKey {
+
+  private static final byte NULL_TAG = 0;
+  private static final byte BOOLEAN_TAG = 1;
+  private static final byte BYTE_TAG = 2;
+  private static final byte SHORT_TAG = 3;
+  private static final byte INTEGER_TAG = 4;
+  private static final byte LONG_TAG = 5;
+  private static final byte DATE_TAG = 6;
+  private static final byte STRING_TAG = 7;
+  private static final byte LINK_TAG = 8;
+
+  private static final int LONG_ELEMENT_SIZE = 1 + Long.BYTES;
+
+  private final byte[] encoded;
+
+  // Hash code of the decoded elements, computed on first use like String#hashCode.
+  private int hash;
+
+  private IndexSnapshotKey(byte[] encoded) {
+    super(Representation.ENCODED);
+    this.encoded = encoded;
+  }
+
+  /**
+   * Creates the key {@code [indexId]} used as a bound of the entries of a single index.
+   */
+  public static CompositeKey indexBound(long indexId) {
+    final var encoded = new byte[LONG_ELEMENT_SIZE];
+    writeLong(encoded, 0, indexId);
+    return new IndexSnapshotKey(encoded);
+  }
+
+  /**
+   * Creates the key {@code [indexId, userKeys[0..userKeysCount), version]}. Returns a plain
+   * {@link CompositeKey} if one of the user key elements can not be encoded.
+   */
+  public static CompositeKey create(long indexId, List<?> userKeys, int userKeysCount,
+      long version) {
+    var size = 2 * LONG_ELEMENT_SIZE;
+    for (var i = 0; i < userKeysCount; i++) {
+      final var elementSize = encodedSize(userKeys.get(i));
+      if (elementSize < 0) {
+        final var key = new CompositeKey(userKeysCount + 2);
+        key.addKeyDirect(indexId);
+        for (var j = 0; j < userKeysCount; j++) {
+          key.addKeyDirect(userKeys.get(j));
+        }
+        key.addKeyDirect(version);
+        return key;
+      }
+      size += elementSize;
+    }
+
+    final var encoded = new byte[size];
+    var offset = writeLong(encoded, 0, indexId);
+    for (var i = 0; i < userKeysCount; i++) {
+      offset = write(encoded, offset, userKeys.get(i));
+    }
+    writeLong(encoded, offset, version);
+    return new IndexSnapshotKey(encoded);
+  }
+
+  /** Version of the key, stored as the last element. */
+  public long version() {
+    return readLong(encoded, encoded.length - Long.BYTES);
+  }
+
+  /**
+   * Returns whether both keys have the same index id and user key, and may differ only in the
+   * version.
+   */
+  public boolean sameUserKey(IndexSnapshotKey other) {
+    final var length = encoded.length;
+    return other.encoded.length == length
+        && Arrays.equals(encoded, 0, length - Long.BYTES,
+        other.encoded, 0, length - Long.BYTES);
+  }
+
+  /**
+   * Compares two keys in the order of
+   * {@link com.jetbrains.youtrackdb.internal.core.storage.impl.local.AbstractStorage#INDEX_SNAPSHOT_VERSION_COMPARATOR}:
+   * by version first and by all elements second, a key which is a prefix of another key is
+   * ordered first. The visibility maps need this total order to keep keys which differ only in
+   * length apart, while {@link #compareTo} keeps the partial order of {@link CompositeKey} the
+   * snapshot maps rely on to select the entries of an index by {@link #indexBound}.
+   */
+  public static int compareByVersion(IndexSnapshotKey a, IndexSnapshotKey b) {
+    final var cmp = Long.compare(a.version(), b.version());
+    if (cmp != 0) {
+      return cmp;
+    }
+    final var mismatch = Arrays.mismatch(a.encoded, b.encoded);
+    if (mismatch < 0) {
+      return 0;
+    }
+    if (mismatch >= Math.min(a.encoded.length, b.encoded.length)) {
+      return Integer.compare(a.encoded.length, b.encoded.length);
+    }
+    assert a.sameElementTypes(b, mismatch) : "Elements of different types: " + a + ", " + b;
+    return Byte.compareUnsigned(a.encoded[mismatch], b.encoded[mismatch]);
+  }
+
+  @Override
+  public List<Object> getKeys() {
+    final var keys = new ArrayList<>();
+    var offset = 0;
+    while (offset < encoded.length) {
+      final var tag = encoded[offset++];
+      switch (tag) {
+        case NULL_TAG -> keys.add(null);
+        case BOOLEAN_TAG -> keys.add(encoded[offset++] != 0);
+        case BYTE_TAG -> keys.add((byte) (encoded[offset++] ^ 0x80));
+        case SHORT_TAG -> {
+          keys.add((short) ((((encoded[offset] & 0xFF) << 8) | (encoded[offset + 1] & 0xFF))
+              ^ 0x8000));
+          offset += Short.BYTES;
+        }
+        case INTEGER_TAG -> {
+          keys.add(readInt(encoded, offset));
+          offset += Integer.BYTES;
+        }
+        case LONG_TAG -> {
+          keys.add(readLong(encoded, offset));
+          offset += Long.BYTES;
+        }
+        case DATE_TAG -> {
+          keys.add(new Date(readLong(encoded, offset)));
+          offset += Long.BYTES;
+        }
+        case STRING_TAG -> offset = readString(encoded, offset, keys);
+        case LINK_TAG -> {
+          final var collectionId = readInt(encoded, offset);
+          final var collectionPosition = readLong(encoded, offset + Integer.BYTES);
+          keys.add(new RecordId(collectionId, collectionPosition));
+          offset += Integer.BYTES + Long.BYTES;
+        }
+        default -> throw new IllegalStateException("Unknown type tag " + tag);
+      }
+    }
+    return Collections.unmodifiableList(keys);
+  }
+
+  @Override
+  public void addKey(Object key) {
+    throw new UnsupportedOperationException("Index snapshot keys are immutable");
+  }
+
+  @Override
+  void addKeyDirect(Object key) {
+    throw new UnsupportedOperationException("Index snapshot keys are immutable");
+  }
+
+  @Override
+  public void reset() {
+    throw new UnsupportedOperationException("Index snapshot keys are immutable");
+  }
+
+  /**
+   * Partial comparison with the same semantics as {@link CompositeKey#compareTo}: only the common
+   * elements of both keys are compared.
+   */
+  @Override
+  public int compareTo(CompositeKey otherKey) {
+    if (otherKey instanceof IndexSnapshotKey other) {
+      final var mismatch = Arrays.mismatch(encoded, other.encoded);
+      if (mismatch < 0 || mismatch >= Math.min(encoded.length, other.encoded.length)) {
+        return 0;
+      }
+      assert sameElementTypes(other, mismatch) : "Elements of different types: " + this + ", "
+          + other;
+      return Byte.compareUnsigned(encoded[mismatch], other.encoded[mismatch]);
+    }
+    return -Integer.signum(otherKey.compareTo(this));
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o instanceof IndexSnapshotKey other) {
+      return Arrays.equals(encoded, other.encoded);
+    }
+    return o instanceof CompositeKey other && getKeys().equals(other.getKeys());
+  }
+
+  @Override
+  public int hashCode() {
+    var result = hash;
+    if (result == 0) {
+      result = getKeys().hashCode();
+      hash = result;
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return "CompositeKey{" + "keys=" + getKeys() + '}';
+  }
+
+  @Override
+  public boolean canChangeIdentity() {
+    return false;
+  }
+
+  /**
+   * Returns whether the elements of both keys at the first differing byte have the same type or
+   * one of them is {@code null}. The keys are equal before {@code mismatch}, so their elements start
+   * at the same offsets up to the element which contains it.
+   */
+  private boolean sameElementTypes(IndexSnapshotKey other, int mismatch) {
+    var offset = 0;
+    var next = skipElement(encoded, offset);
+    while (next <= mismatch) {
+      offset = next;
+      next = skipElement(encoded, offset);
+    }
+    if (offset < mismatch) {
+      return true;
+    }
+    final var tag = encoded[offset];
+    final var otherTag = other.encoded[offset];
+    return tag == otherTag || tag == NULL_TAG || otherTag == NULL_TAG;
+  }
+
+  /** Returns the offset of the element which follows the element starting at {@code offset}. */
+  private static int skipElement(byte[] encoded, int offset) {
+    final var tag = encoded[offset++];
+    return switch (tag) {
+      case NULL_TAG -> offset;
+      case BOOLEAN_TAG, BYTE_TAG -> offset + 1;
+      case SHORT_TAG -> offset + Short.BYTES;
+      case INTEGER_TAG -> offset + Integer.BYTES;
+      case LONG_TAG, DATE_TAG -> offset + Long.BYTES;
+      case LINK_TAG -> offset + Integer.BYTES + Long.BYTES;
+      case STRING_TAG -> {
+        while (true) {
+          if (encoded[offset++] == 0 && encoded[offset++] == 0) {
+            yield offset;
+          }
+        }
+      }
+      default -> throw new IllegalStateException("Unknown type tag " + tag);
+    };
+  }
+
+  private static int encodedSize(Object key) {
+    if (key == null) {
+      return 1;
+    }
+
+    final var keyClass = key.getClass();
+    if (keyClass == Boolean.class || keyClass == Byte.class) {
+      return 2;
+    } else if (keyClass == Short.class) {
+      return 1 + Short.BYTES;
+    } else if (keyClass == Integer.class) {
+      return 1 + Integer.BYTES;
+    } else if (keyClass == Long.class || keyClass == Date.class) {
+      return LONG_ELEMENT_SIZE;
+    } else if (keyClass == RecordId.class) {
+      return 1 + Integer.BYTES + Long.BYTES;
+    } else if (keyClass == String.class) {
+      final var string = (String) key;
+      var size = 1 + 2;
+      for (var i = 0; i < string.length(); i++) {
+        final var c = string.charAt(i);
+        size += 2;
+        if ((c & 0xFF00) == 0) {
+          size++;
+        }
+        if ((c & 0x00FF) == 0) {
+          size++;
+        }
+      }
+      return size;
+    }
+
+    return -1;
+  }
+
+  private static int write(byte[] encoded, int offset, Object key) {
+    if (key == null) {
+      encoded[offset] = NULL_TAG;
+      return offset + 1;
+    }
+
+    switch (key) {
+      case Boolean value -> {
+        encoded[offset] = BOOLEAN_TAG;
+        encoded[offset + 1] = (byte) (value ? 1 : 0);
+        return offset + 2;
+      }
+      case Byte value -> {
+        encoded[offset] = BYTE_TAG;
+        encoded[offset + 1] = (byte) (value ^ 0x80);
+        return offset + 2;
+      }
+      case Short value -> {
+        encoded[offset] = SHORT_TAG;
+        final var flipped = value ^ 0x8000;
+        encoded[offset + 1] = (byte) (flipped >>> 8);
+        encoded[offset + 2] = (byte) flipped;
+        return offset + 1 + Short.BYTES;
+      }
+      case Integer value -> {
+        encoded[offset] = INTEGER_TAG;
+        writeInt(encoded, offset + 1, value);
+        return offset + 1 + Integer.BYTES;
+      }
+      case Long value -> {
+        return writeLong(encoded, offset, value);
+      }
+      case Date value -> {
+        writeLong(encoded, offset, value.getTime());
+        encoded[offset] = DATE_TAG;
+        return offset + LONG_ELEMENT_SIZE;
+      }
+      case RecordId value -> {
+        encoded[offset] = LINK_TAG;
+        writeInt(encoded, offset + 1, value.getCollectionId());
+        writeRawLong(encoded, offset + 1 + Integer.BYTES, value.getCollectionPosition());
+        return offset + 1 + Integer.BYTES + Long.BYTES;
+      }
+      case String value -> {
+        encoded[offset++] = STRING_TAG;
+        for (var i = 0; i < value.length(); i++) {
+          final var c = value.charAt(i);
+          offset = writeEscaped(encoded, offset, (byte) (c >>> 8));
+          offset = writeEscaped(encoded, offset, (byte) c);
+        }
+        encoded[offset] = 0;
+        encoded[offset + 1] = 0;
+        return offset + 2;
+      }
+      default -> throw new IllegalArgumentException(
+          "Unsupported index snapshot key element " + key.getClass());
+    }
+  }
+
+  // Same escaping as BinaryKeyNormalizer: 0x00 is written as 0x00 0xFF, so that the 0x00 0x00
+  // terminator is ordered before any continuation of the string.
+  private static int writeEscaped(byte[] encoded, int offset, byte value) {
+    encoded[offset++] = value;
+    if (value == 0) {
+      encoded[offset++] = (byte) 0xFF;
+    }
+    return offset;
+  }
+
+  private static int writeLong(byte[] encoded, int offset, long value) {
+    encoded[offset] = LONG_TAG;
+    writeRawLong(encoded, offset + 1, value);
+    return offset + LONG_ELEMENT_SIZE;
+  }
+
+  private static void writeRawLong(byte[] encoded, int offset, long value) {
+    final var flipped = value ^ Long.MIN_VALUE;
+    for (var i = Long.BYTES - 1; i >= 0; i--) {
+      encoded[offset + i] = (byte) (flipped >>> ((Long.BYTES - 1 - i) * 8));
+    }
+  }
+
+  private static void writeInt(byte[] encoded, int offset, int value) {
+    final var flipped = value ^ Integer.MIN_VALUE;
+    encoded[offset] = (byte) (flipped >>> 24);
+    encoded[offset + 1] = (byte) (flipped >>> 16);
+    encoded[offset + 2] = (byte) (flipped >>> 8);
+    encoded[offset + 3] = (byte) flipped;
+  }
+
+  private static int readString(byte[] encoded, int offset, List<Object> keys) {
+    final var builder = new StringBuilder();
+    var high = -1;
+    while (true) {
+      var value = encoded[offset++] & 0xFF;
+      if (value == 0) {
+        if (encoded[offset++] == 0) {
+          break;
+        }
+        // 0x00 0xFF is an escaped 0x00 byte.
+      }
+
+      if (high < 0) {
+        high = value;
+      } else {
+        builder.append((char) ((high << 8) | value));
+        high = -1;
+      }
+    }
+    keys.add(builder.toString());
+    return offset;
+  }
+
+  private static long readLong(byte[] encoded, int offset) {
+    var value = 0L;
+    for (var i = 0; i < Long.BYTES; i++) {
+      value = (value << 8) | (encoded[offset + i] & 0xFF);
+    }
+    return value ^ Long.MIN_VALUE;
+  }
+
+  private static int readInt(byte[] encoded, int offset) {
+    final var value = ((encoded[offset] & 0xFF) << 24)
+        | ((encoded[offset + 1] & 0xFF) << 16)
+        | ((encoded[offset + 2] & 0xFF) << 8)
+        | (encoded[offset + 3] & 0xFF);
+    return value ^ Integer.MIN_VALUE;
+  }
+}
@@ -0,0 +1,48 @@
+/*
+ *
+ *
+ *  *
+ *  *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  *  you may not use this file except in compliance with the License.
+ *  *  You may obtain a copy of the License at
+ *  *
+ *  *       http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *  Unless required by applicable law or agreed to in writing, software
+ *  *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *  See the License for the specific language governing permissions and
+ *  *  limitations under the License.
+ *  *
+ *
+ *
+ */
+package com.jetbrains.youtrackdb.internal.core.index;
+
+import com.jetbrains.youtrackdb.internal.core.db.record.record.RID;
+import com.jetbrains.youtrackdb.internal.core.storage.Storage;
+import com.jetbrains.youtrackdb.internal.core.tx.FrontendTransactionImpl;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Unique index which serves only point lookups: equality and {@code IN} conditions on all of its
+ * properties. The planner never uses it for range conditions, partial matches of composite keys or
+ * ordered iterations, so every probe is a single direct key lookup in the index engine.
+ */
+public class IndexUniqueHash extends IndexUnique {
+
+  public IndexUniqueHash(@Nullable RID identity, @Nonnull FrontendTransactionImpl transaction,
+      @Nonnull Storage storage) {
+    super(identity, transaction, storage);
+  }
+
+  public IndexUniqueHash(@Nonnull Storage storage) {
+    super(storage);
+  }
+
+  @Override
+  public boolean supportsOrderedIterations() {
+    return false;
+  }
+}
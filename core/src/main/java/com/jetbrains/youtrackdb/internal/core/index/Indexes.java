@@ -177,6 +177,9 @@ public final class Indexes {
     if (SchemaClass.INDEX_TYPE.NOTUNIQUE.name().equalsIgnoreCase(type)
         || SchemaClass.INDEX_TYPE.UNIQUE.name().equalsIgnoreCase(type)) {
       algorithm = DefaultIndexFactory.BTREE_ALGORITHM;
+    } else if (SchemaClass.INDEX_TYPE.NOTUNIQUE_HASH.name().equalsIgnoreCase(type)
+        || SchemaClass.INDEX_TYPE.UNIQUE_HASH.name().equalsIgnoreCase(type)) {
+      algorithm = DefaultIndexFactory.HASH_ALGORITHM;
     }
 
     return algorithm;
@@ -39,7 +39,9 @@ import javax.annotation.Nullable;
  * <h3>Key layout</h3>
  * <p>Snapshot keys have the layout {@code [indexId, userKey..., version]}, where
  * {@code indexId} is prepended by {@link #enhanceIndexId} to namespace entries
- * across indexes in the shared global map.
+ * across indexes in the shared global map. Keys are stored as byte-encoded
+ * {@link IndexSnapshotKey}s whenever all user key elements can be encoded, and as
+ * plain {@link CompositeKey}s otherwise.
  *
  * <h3>Visibility rules</h3>
  * <p>{@link #checkVisibility} implements the visibility decision: entries from
@@ -72,7 +74,8 @@ public class IndexesSnapshot {
       NavigableMap<CompositeKey, CompositeKey> visibilityIndex,
       @Nonnull AtomicLong snapshotSizeCounter, long indexId) {
     this.indexesSnapshot = indexesSnapshot.subMap(
-        new CompositeKey(indexId), true, new CompositeKey(indexId + 1), false);
+        IndexSnapshotKey.indexBound(indexId), true,
+        IndexSnapshotKey.indexBound(indexId + 1), false);
     this.visibilityIndex = visibilityIndex;
     this.snapshotSizeCounter = snapshotSizeCounter;
     this.indexId = indexId;
@@ -238,29 +241,27 @@ public class IndexesSnapshot {
   // Package-private for direct unit testing in IndexesSnapshotVisibilityFilterTest.
   @Nullable RID lookupSnapshotRid(CompositeKey key, long snapshotTs) {
     var keys = key.getKeys();
-    // Build the search key in one allocation: CompositeKey(indexId, userKey..., snapshotTs+1)
-    // instead of three intermediate CompositeKeys.
+    // Build the search key (indexId, userKey..., snapshotTs+1) in one allocation.
     // We want entries with version <= snapshotTs (inclusive). Since lowerEntry()
     // returns entries strictly less than the search key, add 1 to make the
     // bound inclusive. Guard against Long.MAX_VALUE overflow — in that case
     // lowerEntry(MAX_VALUE) still finds all entries with version < MAX_VALUE,
     // which is sufficient since MAX_VALUE is a sentinel, not a real version.
-    var searchKey = new CompositeKey(keys.size() + 1);
-    searchKey.addKeyDirect(indexId);
-    for (int i = 0, end = keys.size() - 1; i < end; i++) {
-      searchKey.addKeyDirect(keys.get(i));
-    }
     long searchVersion = snapshotTs < Long.MAX_VALUE ? snapshotTs + 1 : Long.MAX_VALUE;
-    searchKey.addKeyDirect(searchVersion);
+    var searchKey = IndexSnapshotKey.create(indexId, keys, keys.size() - 1, searchVersion);
 
     var latestSnapshotEntry = indexesSnapshot.lowerEntry(searchKey);
     if (latestSnapshotEntry != null && latestSnapshotEntry.getValue() instanceof TombstoneRID) {
-      var snapshotKeys = latestSnapshotEntry.getKey().getKeys();
-
       // lowerEntry may return a foreign key's TombstoneRID during the narrow
       // window when addSnapshotPair has written the TombstoneRID but not yet
       // the RecordId guard (see write-order comment in addSnapshotPair).
-      if (!snapshotUserKeyMatches(keys, snapshotKeys)) {
+      var snapshotKey = latestSnapshotEntry.getKey();
+      if (searchKey instanceof IndexSnapshotKey encodedSearchKey
+          && snapshotKey instanceof IndexSnapshotKey encodedSnapshotKey) {
+        if (!encodedSearchKey.sameUserKey(encodedSnapshotKey)) {
+          return null;
+        }
+      } else if (!snapshotUserKeyMatches(keys, snapshotKey.getKeys())) {
         return null;
       }
 
@@ -306,6 +307,11 @@ public class IndexesSnapshot {
   // addKey(CompositeKey) path that also checks ChangeableIdentity per element.
   private CompositeKey enhanceIndexId(CompositeKey key) {
     var keys = key.getKeys();
+    var userKeysCount = keys.size() - 1;
+    if (userKeysCount >= 0 && keys.get(userKeysCount) instanceof Long version) {
+      return IndexSnapshotKey.create(indexId, keys, userKeysCount, version);
+    }
+
     var result = new CompositeKey(keys.size() + 1);
     result.addKeyDirect(indexId);
     for (var o : keys) {
@@ -26,6 +26,14 @@ public interface BTreeIndexEngine extends V1IndexEngine {
   /** Sets (or clears) the histogram manager for this engine. */
   void setHistogramManager(@Nullable IndexHistogramManager histogramManager);
 
+  /**
+   * Whether the storage should create a histogram manager for this engine. Histograms are built
+   * from the sorted key stream, engines backed by an unordered tree keep none.
+   */
+  default boolean supportsHistogram() {
+    return true;
+  }
+
   @Nullable @Override
   default IndexStatistics getStatistics() {
     var mgr = getHistogramManager();
@@ -1,6 +1,7 @@
 package com.jetbrains.youtrackdb.internal.core.index.engine.v1;
 
 import com.jetbrains.youtrackdb.internal.common.log.LogManager;
+import com.jetbrains.youtrackdb.internal.common.serialization.types.BinarySerializer;
 import com.jetbrains.youtrackdb.internal.common.util.RawPair;
 import com.jetbrains.youtrackdb.internal.core.config.IndexEngineData;
 import com.jetbrains.youtrackdb.internal.core.db.DatabaseSessionEmbedded;
@@ -22,6 +23,7 @@ import com.jetbrains.youtrackdb.internal.core.storage.cache.ReadCache;
 import com.jetbrains.youtrackdb.internal.core.storage.cache.WriteCache;
 import com.jetbrains.youtrackdb.internal.core.storage.impl.local.AbstractStorage;
 import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.atomicoperations.AtomicOperation;
+import com.jetbrains.youtrackdb.internal.core.storage.index.hashindex.HashTable;
 import com.jetbrains.youtrackdb.internal.core.storage.index.sbtree.singlevalue.CellBTreeSingleValue;
 import com.jetbrains.youtrackdb.internal.core.storage.index.sbtree.singlevalue.v3.BTree;
 import java.io.IOException;
@@ -47,6 +49,8 @@ public final class BTreeMultiValueIndexEngine
   @Nonnull
   private final CellBTreeSingleValue<CompositeKey> nullTree;
   @Nonnull
+  private final BinarySerializer<CompositeKey> keySerializer;
+  @Nonnull
   private final IndexesSnapshot indexesSnapshot;
   @Nonnull
   private final IndexesSnapshot nullIndexesSnapshot;
@@ -89,37 +93,72 @@ public final class BTreeMultiValueIndexEngine
 
   public BTreeMultiValueIndexEngine(
       int id, int fileBaseId, @Nonnull String name, AbstractStorage storage, final int version) {
+    this(id, fileBaseId, name, storage, version, new IndexMultiValuKeySerializer());
+  }
+
+  /**
+   * @param keySerializer serializer of the keys stored in the tree of non-null keys, it defines the
+   *                      on-page format of the keys and how the binary search of a bucket compares
+   *                      them.
+   */
+  public BTreeMultiValueIndexEngine(
+      int id, int fileBaseId, @Nonnull String name, AbstractStorage storage, final int version,
+      @Nonnull BinarySerializer<CompositeKey> keySerializer) {
+    this(id, fileBaseId, name, storage, keySerializer, newTree(fileBaseId, storage, version));
+  }
+
+  /**
+   * @param svTree component which keeps the versioned non-null keys of the index, created with the
+   *               file stem of {@code fileBaseId}: a {@link BTree} or, for the hash index types, a
+   *               {@link HashTable} with two trailing (RID and version) key elements. Null keys
+   *               are always kept in a B-tree.
+   */
+  public BTreeMultiValueIndexEngine(
+      int id, int fileBaseId, @Nonnull String name, AbstractStorage storage,
+      @Nonnull BinarySerializer<CompositeKey> keySerializer,
+      @Nonnull CellBTreeSingleValue<CompositeKey> svTree) {
     this.id = id;
     this.fileBaseId = fileBaseId;
     this.name = name;
     this.storage = storage;
+    this.keySerializer = keySerializer;
     // Both components (and therefore their files) are keyed by the stable file base id, not the
     // index name — the single name domain for engine storage components.
-    final var stem = AbstractStorage.indexEngineFileStem(fileBaseId);
-    nullTreeName = stem + AbstractStorage.NULL_TREE_SUFFIX;
-
+    nullTreeName =
+        AbstractStorage.indexEngineFileStem(fileBaseId) + AbstractStorage.NULL_TREE_SUFFIX;
+
+    this.svTree = svTree;
+    svTree.setEngineId(id);
+    // User-facing diagnostics report the index's logical name, never the ie_<n> file stems.
+    svTree.setDisplayName(name);
+    nullTree =
+        new BTree<>(
+            nullTreeName, DATA_FILE_EXTENSION, NULL_BUCKET_FILE_EXTENSION, storage);
+    nullTree.setEngineId(id);
+    nullTree.setDisplayName(name + AbstractStorage.NULL_TREE_SUFFIX);
+    // Explicit null-tree identity for the tombstone-GC snapshot lookup — the component name
+    // is a file key, not an identity carrier.
+    nullTree.setNullTree(true);
+    indexesSnapshot = storage.subIndexSnapshot(id);
+    nullIndexesSnapshot = storage.subNullIndexSnapshot(id);
+  }
+
+  private static CellBTreeSingleValue<CompositeKey> newTree(
+      int fileBaseId, AbstractStorage storage, int version) {
     if (version == 1 || version == 2 || version == 3) {
       throw new IllegalArgumentException("Unsupported version of index : " + version);
     } else if (version == 4) {
-      svTree =
-          new BTree<>(
-              stem, DATA_FILE_EXTENSION, NULL_BUCKET_FILE_EXTENSION, storage);
-      svTree.setEngineId(id);
-      // User-facing diagnostics report the index's logical name, never the ie_<n> file stems.
-      svTree.setDisplayName(name);
-      nullTree =
-          new BTree<>(
-              nullTreeName, DATA_FILE_EXTENSION, NULL_BUCKET_FILE_EXTENSION, storage);
-      nullTree.setEngineId(id);
-      nullTree.setDisplayName(name + AbstractStorage.NULL_TREE_SUFFIX);
-      // Explicit null-tree identity for the tombstone-GC snapshot lookup — the component name
-      // is a file key, not an identity carrier.
-      nullTree.setNullTree(true);
-      indexesSnapshot = storage.subIndexSnapshot(id);
-      nullIndexesSnapshot = storage.subNullIndexSnapshot(id);
-    } else {
-      throw new IllegalStateException("Invalid tree version " + version);
+      return new BTree<>(
+          AbstractStorage.indexEngineFileStem(fileBaseId),
+          DATA_FILE_EXTENSION, NULL_BUCKET_FILE_EXTENSION, storage);
     }
+    throw new IllegalStateException("Invalid tree version " + version);
+  }
+
+  /** Hash tables keep no order, so the engine builds no histogram over their keys. */
+  @Override
+  public boolean supportsHistogram() {
+    return svTree.supportsOrderedIterations();
   }
 
   @Override
@@ -151,7 +190,7 @@ public final class BTreeMultiValueIndexEngine
       final var sbTypes = calculateTypes(data.getKeyTypes());
       svTree.create(
           atomicOperation,
-          new IndexMultiValuKeySerializer(),
+          keySerializer,
           sbTypes,
           data.getKeySize() + 1);
       nullTree.create(
@@ -249,7 +288,7 @@ public final class BTreeMultiValueIndexEngine
     // Load under the file-base-id stems the components were constructed with — never the index
     // name, which keys no file.
     svTree.load(AbstractStorage.indexEngineFileStem(fileBaseId), keySize + 1, sbTypes,
-        new IndexMultiValuKeySerializer(), atomicOperation);
+        keySerializer, atomicOperation);
     nullTree.load(
         nullTreeName, 2,
         new PropertyTypeInternal[] {PropertyTypeInternal.LINK, PropertyTypeInternal.LONG},
@@ -476,13 +515,8 @@ public final class BTreeMultiValueIndexEngine
   @Override
   public Stream<RawPair<Object, RID>> stream(IndexEngineValuesTransformer valuesTransformer,
       @Nonnull AtomicOperation atomicOperation) {
-    final var firstKey = svTree.firstKey(atomicOperation);
-    if (firstKey == null) {
-      return Stream.empty();
-    }
-
     return indexesSnapshot.visibilityFilterMapped(atomicOperation,
-        svTree.iterateEntriesMajor(firstKey, true, true, atomicOperation),
+        svTree.allEntries(atomicOperation),
         BTreeMultiValueIndexEngine::extractKey);
   }
 
@@ -657,11 +691,7 @@ public final class BTreeMultiValueIndexEngine
    */
   public Stream<Object> rawKeyStreamForHistogram(
       @Nonnull AtomicOperation atomicOperation) {
-    final var firstKey = svTree.firstKey(atomicOperation);
-    if (firstKey == null) {
-      return Stream.empty();
-    }
-    return svTree.iterateEntriesMajor(firstKey, true, true, atomicOperation)
+    return svTree.allEntries(atomicOperation)
         .filter(pair -> !(pair.second() instanceof TombstoneRID))
         .map(pair -> extractKey(pair.first()))
         .filter(Objects::nonNull);
@@ -1,6 +1,7 @@
 package com.jetbrains.youtrackdb.internal.core.index.engine.v1;
 
 import com.jetbrains.youtrackdb.internal.common.log.LogManager;
+import com.jetbrains.youtrackdb.internal.common.serialization.types.BinarySerializer;
 import com.jetbrains.youtrackdb.internal.common.util.RawPair;
 import com.jetbrains.youtrackdb.internal.core.config.IndexEngineData;
 import com.jetbrains.youtrackdb.internal.core.db.DatabaseSessionEmbedded;
@@ -23,6 +24,7 @@ import com.jetbrains.youtrackdb.internal.core.storage.cache.ReadCache;
 import com.jetbrains.youtrackdb.internal.core.storage.cache.WriteCache;
 import com.jetbrains.youtrackdb.internal.core.storage.impl.local.AbstractStorage;
 import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.atomicoperations.AtomicOperation;
+import com.jetbrains.youtrackdb.internal.core.storage.index.hashindex.HashTable;
 import com.jetbrains.youtrackdb.internal.core.storage.index.sbtree.singlevalue.CellBTreeSingleValue;
 import com.jetbrains.youtrackdb.internal.core.storage.index.sbtree.singlevalue.v3.BTree;
 import java.io.IOException;
@@ -41,6 +43,7 @@ public final class BTreeSingleValueIndexEngine
   private static final String NULL_BUCKET_FILE_EXTENSION = ".nbt";
 
   private final CellBTreeSingleValue<CompositeKey> sbTree;
+  private final BinarySerializer<CompositeKey> keySerializer;
   private final IndexesSnapshot indexesSnapshot;
   private final String name;
   private final int id;
@@ -78,25 +81,55 @@ public final class BTreeSingleValueIndexEngine
 
   public BTreeSingleValueIndexEngine(
       int id, int fileBaseId, String name, AbstractStorage storage, int version) {
+    this(id, fileBaseId, name, storage, version, new IndexMultiValuKeySerializer());
+  }
+
+  /**
+   * @param keySerializer serializer of the keys stored in the tree, it defines the on-page format
+   *                      of the keys and how the binary search of a bucket compares them.
+   */
+  public BTreeSingleValueIndexEngine(
+      int id, int fileBaseId, String name, AbstractStorage storage, int version,
+      BinarySerializer<CompositeKey> keySerializer) {
+    this(id, fileBaseId, name, storage, keySerializer, newTree(fileBaseId, storage, version));
+  }
+
+  /**
+   * @param tree component which keeps the versioned keys of the index, created with the file
+   *             stem of {@code fileBaseId}: a {@link BTree} or, for the hash index types, a
+   *             {@link HashTable} with one trailing (version) key element.
+   */
+  public BTreeSingleValueIndexEngine(
+      int id, int fileBaseId, String name, AbstractStorage storage,
+      BinarySerializer<CompositeKey> keySerializer, CellBTreeSingleValue<CompositeKey> tree) {
     this.name = name;
     this.id = id;
     this.fileBaseId = fileBaseId;
     this.storage = storage;
+    this.keySerializer = keySerializer;
+    this.sbTree = tree;
+    this.sbTree.setEngineId(id);
+    // User-facing diagnostics report the index's logical name, never the ie_<n> file stem.
+    this.sbTree.setDisplayName(name);
+    indexesSnapshot = storage.subIndexSnapshot(id);
+  }
 
+  private static CellBTreeSingleValue<CompositeKey> newTree(
+      int fileBaseId, AbstractStorage storage, int version) {
     if (version == 3 || version == 4) {
       // The component (and therefore its files) is keyed by the stable file base id, not the
       // index name — the single name domain for engine storage components.
-      this.sbTree =
-          new BTree<>(
-              AbstractStorage.indexEngineFileStem(fileBaseId),
-              DATA_FILE_EXTENSION, NULL_BUCKET_FILE_EXTENSION, storage);
-      this.sbTree.setEngineId(id);
-      // User-facing diagnostics report the index's logical name, never the ie_<n> file stem.
-      this.sbTree.setDisplayName(name);
-      indexesSnapshot = storage.subIndexSnapshot(id);
-    } else {
-      throw new IllegalStateException("Invalid tree version " + version);
+      return new BTree<>(
+          AbstractStorage.indexEngineFileStem(fileBaseId),
+          DATA_FILE_EXTENSION, NULL_BUCKET_FILE_EXTENSION, storage);
     }
+    throw new IllegalStateException("Invalid tree version " + version);
+  }
+
+  /** Hash tables keep no order, so the engine builds no histogram over their keys. */
+  @Override
+  public boolean supportsHistogram() {
+    return sbTree.supportsOrderedIterations();
   }
 
   @Override
@@ -128,7 +161,7 @@ public final class BTreeSingleValueIndexEngine
       final var sbTypes = calculateTypes(data.getKeyTypes());
       sbTree.create(
           atomicOperation,
-          new IndexMultiValuKeySerializer(),
+          keySerializer,
           sbTypes,
           data.getKeySize() + 1);
       approximateIndexEntriesCount.set(0);
@@ -211,7 +244,7 @@ public final class BTreeSingleValueIndexEngine
     // Load under the file-base-id stem the component was constructed with — never the index
     // name, which keys no file.
     sbTree.load(AbstractStorage.indexEngineFileStem(fileBaseId), keySize + 1, sbTypes,
-        new IndexMultiValuKeySerializer(), atomicOperation);
+        keySerializer, atomicOperation);
 
     // Read persisted visible count from the BTree entry point page — O(1)
     // instead of the previous O(n) visibility-filtered scan.
@@ -412,13 +445,8 @@ public final class BTreeSingleValueIndexEngine
   @Override
   public Stream<RawPair<Object, RID>> stream(IndexEngineValuesTransformer valuesTransformer,
       @Nonnull AtomicOperation atomicOperation) {
-    final var firstKey = sbTree.firstKey(atomicOperation);
-    if (firstKey == null) {
-      return Stream.empty();
-    }
-
     return indexesSnapshot.visibilityFilterMapped(atomicOperation,
-        sbTree.iterateEntriesMajor(firstKey, true, true, atomicOperation),
+        sbTree.allEntries(atomicOperation),
         BTreeSingleValueIndexEngine::extractKey)
         .filter(p -> p.first() != null);
   }
@@ -665,11 +693,7 @@ public final class BTreeSingleValueIndexEngine
    */
   public Stream<Object> rawKeyStreamForHistogram(
       @Nonnull AtomicOperation atomicOperation) {
-    final var firstKey = sbTree.firstKey(atomicOperation);
-    if (firstKey == null) {
-      return Stream.empty();
-    }
-    return sbTree.iterateEntriesMajor(firstKey, true, true, atomicOperation)
+    return sbTree.allEntries(atomicOperation)
         .filter(pair -> !(pair.second() instanceof TombstoneRID))
         .map(pair -> extractKey(pair.first()))
         .filter(Objects::nonNull);
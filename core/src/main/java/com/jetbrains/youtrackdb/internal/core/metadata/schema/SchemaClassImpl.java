@@ -1012,7 +1012,7 @@ public abstract class SchemaClassImpl {
       final ProgressListener progressListener,
       Map<String, Object> metadata,
       String algorithm,
-      final String... fields) {
+      String... fields) {
     if (type == null) {
       throw new IllegalArgumentException("Index type is null");
     }
@@ -1023,6 +1023,8 @@ public abstract class SchemaClassImpl {
       throw new IndexException(session.getDatabaseName(),
           "List of fields to index cannot be empty.");
     }
+    fields = IndexDefinitionFactory.appendIncludedFields(session.getDatabaseName(), type, fields,
+        metadata);
 
     final var localName = this.name;
 
@@ -31,6 +31,7 @@ import com.jetbrains.youtrackdb.internal.core.metadata.security.SecurityPolicy;
 import com.jetbrains.youtrackdb.internal.core.metadata.security.SecurityUserImpl;
 import com.jetbrains.youtrackdb.internal.core.metadata.sequence.DBSequence;
 import com.jetbrains.youtrackdb.internal.core.record.impl.EntityImpl;
+import com.jetbrains.youtrackdb.internal.core.record.impl.EntityPropertyLayout;
 import com.jetbrains.youtrackdb.internal.core.schedule.ScheduledEvent;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -66,6 +67,7 @@ public class SchemaImmutableClass implements SchemaClassInternal {
   private final Map<String, SchemaPropertyInternal> properties;
   private Map<String, SchemaProperty> allPropertiesMap;
   private Collection<SchemaProperty> allProperties;
+  private EntityPropertyLayout propertyLayout;
   private final CollectionSelectionStrategy collectionSelection;
   private final int[] collectionIds;
   private final int[] polymorphicCollectionIds;
@@ -153,6 +155,7 @@ public class SchemaImmutableClass implements SchemaClassInternal {
 
       this.allProperties = Collections.unmodifiableCollection(allProperties);
       this.allPropertiesMap = Collections.unmodifiableMap(allPropsMap);
+      this.propertyLayout = new EntityPropertyLayout(allPropsMap.keySet());
       this.isVertexType = isSubClassOf(SchemaClass.VERTEX_CLASS_NAME);
       this.isEdgeType = isSubClassOf(SchemaClass.EDGE_CLASS_NAME);
       this.function = isSubClassOf(FunctionLibraryImpl.CLASSNAME);
@@ -252,6 +255,14 @@ public class SchemaImmutableClass implements SchemaClassInternal {
     return allPropertiesMap;
   }
 
+  /**
+   * Ordinals of all properties of the class, by which entities of the class store their
+   * properties.
+   */
+  public EntityPropertyLayout getPropertyLayout() {
+    return propertyLayout;
+  }
+
   @Override
   public SchemaProperty getProperty(String propertyName) {
     return getPropertyInternal(propertyName);
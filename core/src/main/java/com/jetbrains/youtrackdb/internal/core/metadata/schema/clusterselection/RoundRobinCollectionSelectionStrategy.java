@@ -19,13 +19,28 @@ import com.jetbrains.youtrackdb.internal.core.metadata.schema.CollectionSelectio
 import com.jetbrains.youtrackdb.internal.core.metadata.schema.schema.SchemaClass;
 import com.jetbrains.youtrackdb.internal.core.record.impl.EntityImpl;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Returns the collection selecting by round robin algorithm.
+ *
+ * <p>Inside a transaction the round-robin counter advances once per transaction and class: the
+ * first record of a class created by a transaction takes the next collection of the class, and
+ * every further record of that class created by the same transaction goes to the same
+ * collection. A commit holds an exclusive lock on every collection (and its link-bag B-tree) it
+ * writes to until the atomic operation completes; advancing per record would make a transaction
+ * which creates several records of a class lock all of its collections and serialize with every
+ * other transaction writing to that class. Outside of a transaction the collection is picked at
+ * random for every record.
  */
 public class RoundRobinCollectionSelectionStrategy implements CollectionSelectionStrategy {
   public static final String NAME = "round-robin";
 
+  /** Prefix of the transaction custom data which holds the counter taken for a class. */
+  private static final String TX_COUNTER_KEY_PREFIX = "collectionSelection.roundRobin.";
+
+  private final AtomicInteger counter = new AtomicInteger();
+
   @Override
   public int getCollection(DatabaseSessionEmbedded session, final SchemaClass iClass,
       final EntityImpl entity) {
@@ -41,6 +56,17 @@ public class RoundRobinCollectionSelectionStrategy implements CollectionSelectio
       return collections[0];
     }
 
+    var transaction = session == null ? null : session.getActiveTransactionOrNull();
+    if (transaction != null && clazz != null) {
+      final var key = TX_COUNTER_KEY_PREFIX + clazz.getName();
+      var position = (Integer) transaction.getCustomData(key);
+      if (position == null) {
+        position = counter.getAndIncrement();
+        transaction.setCustomData(key, position);
+      }
+      return collections[Math.floorMod(position, collections.length)];
+    }
+
     return collections[ThreadLocalRandom.current().nextInt(0, collections.length)];
   }
 
@@ -46,7 +46,9 @@ public interface SchemaClass {
     UNIQUE,
     NOTUNIQUE,
     FULLTEXT,
-    SPATIAL
+    SPATIAL,
+    UNIQUE_HASH,
+    NOTUNIQUE_HASH
   }
 
   boolean isAbstract();
@@ -31,6 +31,7 @@ public class ImmutableUser implements SecurityUser {
   // iterated multiple times per record load in security checks.
   private final List<ImmutableRole> roles;
   private final Set<ImmutableRole> rolesSet;
+  private final String rolesKey;
 
   private final STATUSES status;
   private final RID rid;
@@ -51,6 +52,7 @@ public class ImmutableUser implements SecurityUser {
     }
     this.roles = List.copyOf(roleList);
     this.rolesSet = Set.copyOf(roleList);
+    this.rolesKey = rolesKey(session, roleList);
   }
 
   public ImmutableUser(DatabaseSessionEmbedded session, String name, String userType) {
@@ -78,6 +80,18 @@ public class ImmutableUser implements SecurityUser {
       this.roles = List.of();
       this.rolesSet = Set.of();
     }
+    this.rolesKey = rolesKey(session, roles);
+  }
+
+  private static String rolesKey(DatabaseSessionEmbedded session, List<ImmutableRole> roles) {
+    var names = new ArrayList<String>(roles.size());
+    for (var role : roles) {
+      if (role != null) {
+        names.add(role.getName(session));
+      }
+    }
+    names.sort(null);
+    return String.join(",", names);
   }
 
   @Override
@@ -233,6 +247,14 @@ public class ImmutableUser implements SecurityUser {
     return rolesSet;
   }
 
+  /**
+   * Sorted, comma separated names of the roles of this snapshot, so that query plans which depend
+   * on the roles of the user can be cached per role set without listing the roles on every query.
+   */
+  public String getRolesKey() {
+    return rolesKey;
+  }
+
   @Override
   public SecurityUserImpl addRole(DatabaseSessionEmbedded session, final String iRole) {
     throw new UnsupportedOperationException();
@@ -8,9 +8,11 @@ import com.jetbrains.youtrackdb.internal.core.metadata.function.Function;
 import com.jetbrains.youtrackdb.internal.core.metadata.security.auth.AuthenticationInfo;
 import com.jetbrains.youtrackdb.internal.core.record.impl.EntityImpl;
 import com.jetbrains.youtrackdb.internal.core.security.SecurityUser;
+import com.jetbrains.youtrackdb.internal.core.sql.parser.SQLBooleanExpression;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import javax.annotation.Nullable;
 
 public interface SecurityInternal {
 
@@ -178,6 +180,20 @@ public interface SecurityInternal {
    */
   boolean isReadRestrictedBySecurityPolicy(DatabaseSessionEmbedded session, String resource);
 
+  /**
+   * Returns the READ predicate which {@link #canRead} applies to every record of the class and of
+   * its subclasses for the current session, so a query planner can add it to the filter of a
+   * query on the class. Records returned by such a query are still checked by {@link #canRead}.
+   *
+   * @param session   The session to calculate the predicate for
+   * @param className the class the query fetches records from, polymorphically
+   * @return the predicate, or null if records of the class are not restricted or are restricted by
+   * different predicates in the class hierarchy
+   */
+  @Nullable
+  SQLBooleanExpression getReadPredicateForClass(DatabaseSessionEmbedded session,
+      String className);
+
   /**
    * Returns the list of all the filtered properties (for any role defined in the db)
    */
@@ -1216,6 +1216,8 @@ public class SecurityShared implements SecurityInternal {
   public void incrementVersion(final DatabaseSessionEmbedded session) {
     version.incrementAndGet();
     securityPredicateCache.clear();
+    // cached query plans may contain the READ predicates of the previous policies
+    session.getSharedContext().getYqlExecutionPlanCache().invalidate();
     updateAllFilteredProperties(session);
     initPredicateSecurityOptimizations(session);
   }
@@ -1744,6 +1746,57 @@ public class SecurityShared implements SecurityInternal {
     return predicate != null && !SQLBooleanExpression.TRUE.equals(predicate);
   }
 
+  @Nullable
+  @Override
+  public SQLBooleanExpression getReadPredicateForClass(DatabaseSessionEmbedded session,
+      String className) {
+    if (session.getCurrentUser() == null) {
+      // executeNoAuth
+      return null;
+    }
+
+    var clazz = session.getMetadata().getImmutableSchemaSnapshot().getClass(className);
+    if (clazz == null || ((SchemaImmutableClass) clazz).isSecurityPolicy()) {
+      return null;
+    }
+
+    var classes = new ArrayList<SchemaClass>();
+    classes.add(clazz);
+    classes.addAll(clazz.getAllSubclasses());
+
+    SQLBooleanExpression result = null;
+    String resultText = null;
+    for (var hierarchyClass : classes) {
+      // the same shortcut as in canRead(): records of the class are not filtered at all
+      if (roleHasPredicateSecurityForClass != null) {
+        for (var role : session.getCurrentUser().getRoles()) {
+          var roleMap = roleHasPredicateSecurityForClass.get(role.getName(session));
+          if (roleMap == null || !Boolean.TRUE.equals(roleMap.get(hierarchyClass.getName()))) {
+            return null;
+          }
+        }
+      }
+
+      var predicate =
+          SecurityEngine.getPredicateForSecurityResource(
+              session, this, "database.class.`" + hierarchyClass.getName() + "`",
+              SecurityPolicy.Scope.READ);
+      if (predicate == null || SQLBooleanExpression.TRUE.equals(predicate)) {
+        return null;
+      }
+
+      var predicateText = predicate.toString();
+      if (result == null) {
+        result = predicate;
+        resultText = predicateText;
+      } else if (!resultText.equals(predicateText)) {
+        return null;
+      }
+    }
+
+    return result == null ? null : result.copy();
+  }
+
   @Override
   public synchronized Set<SecurityResourceProperty> getAllFilteredProperties(
       DatabaseSessionEmbedded database) {
@@ -247,12 +247,20 @@ public abstract class DBSequence {
     setSequenceType(entity);
   }
 
+  /**
+   * Changes parameters of the sequence in the active transaction of the given session. The update
+   * lock is held while the parameters are changed, so state which {@link #callRetry} derived from
+   * the previous parameters is not published concurrently with the change.
+   */
   public boolean updateParams(DatabaseSessionEmbedded db, CreateParams params)
       throws DatabaseException {
     var entity = db.<EntityImpl>load(entityRid);
-    var result = updateParams(entity, params, false);
-
-    return result;
+    updateLock.lock();
+    try {
+      return updateParams(entity, params, false);
+    } finally {
+      updateLock.unlock();
+    }
   }
 
   boolean updateParams(EntityImpl entity, CreateParams params, boolean executeViaDistributed)
@@ -448,11 +456,13 @@ public abstract class DBSequence {
       for (var retry = 0; retry < maxRetry; ++retry) {
         updateLock.lock();
         try {
-          return dbCopy.computeInTx(
+          final var result = dbCopy.computeInTx(
               transaction -> {
                 var entity = transaction.<EntityImpl>load(entityRid);
                 return callable.call(dbCopy, entity);
               });
+          onUpdateCommitted();
+          return result;
         } catch (ConcurrentModificationException ignore) {
           try {
             //noinspection BusyWait
@@ -501,11 +511,13 @@ public abstract class DBSequence {
       }
       updateLock.lock();
       try {
-        return dbCopy.computeInTx(
+        final var result = dbCopy.computeInTx(
             transaction -> {
               var entity = (EntityImpl) transaction.loadEntity(entityRid);
               return callable.call(dbCopy, entity);
             });
+        onUpdateCommitted();
+        return result;
       } catch (Exception e) {
         // Same reason as the StorageException catch above: no active transaction
         // here, so identify the sequence by entityRid rather than loading the
@@ -524,6 +536,13 @@ public abstract class DBSequence {
     }
   }
 
+  /**
+   * Called by {@link #callRetry} under the update lock once the transaction which changed the
+   * sequence is committed, so state derived from the change can be published safely.
+   */
+  protected void onUpdateCommitted() {
+  }
+
   @FunctionalInterface
   public interface SequenceCallable {
 
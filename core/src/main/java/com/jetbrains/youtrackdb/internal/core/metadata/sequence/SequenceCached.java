@@ -26,11 +26,19 @@ import com.jetbrains.youtrackdb.internal.core.exception.SequenceLimitReachedExce
 import com.jetbrains.youtrackdb.internal.core.metadata.security.Role;
 import com.jetbrains.youtrackdb.internal.core.metadata.security.Rule;
 import com.jetbrains.youtrackdb.internal.core.record.impl.EntityImpl;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 /**
  * A sequence implementation that pre-allocates values in batches for improved performance.
  *
+ * <p>Only the allocation of a batch is persisted in a transaction. Values of an allocated batch
+ * are handed out by an atomic increment of a {@link CachedRange} shared by all sessions, so
+ * concurrent callers of {@link #next} neither start transactions nor conflict with each other
+ * until the batch is exhausted. Values of a batch which are not handed out before the database is
+ * closed are skipped, so the sequence may have gaps but never repeats a value.
+ *
  * @since 3/3/2015
  */
 public class SequenceCached extends DBSequence {
@@ -40,6 +48,13 @@ public class SequenceCached extends DBSequence {
   private long cacheEnd;
   private volatile boolean firstCache;
 
+  // Values of the current batch which are handed out without a transaction, null if the next
+  // value has to be calculated in a transaction. Published by onUpdateCommitted() once the batch
+  // is persisted and retired under the update lock before the cache state or the parameters of
+  // the sequence are changed.
+  @Nullable private volatile CachedRange cachedRange;
+  @Nullable private CachedRange pendingRange;
+
   public SequenceCached(final EntityImpl entity) {
     super(entity);
 
@@ -75,6 +90,8 @@ public class SequenceCached extends DBSequence {
   boolean updateParams(
       EntityImpl entity, DBSequence.CreateParams params, boolean executeViaDistributed)
       throws DatabaseException {
+    retireCachedRange();
+
     var any = super.updateParams(entity, params, executeViaDistributed);
     if (params.cacheSize != null && this.getCacheSize(entity) != params.cacheSize) {
       this.setCacheSize(entity, params.cacheSize);
@@ -130,8 +147,19 @@ public class SequenceCached extends DBSequence {
 
   @Override
   public long nextWork(DatabaseSessionEmbedded session) throws SequenceLimitReachedException {
+    final var range = cachedRange;
+    if (range != null) {
+      final var index = range.take();
+      if (index >= 0) {
+        return range.valueAt(index);
+      }
+    }
+
     return callRetry(session,
         (db, entity) -> {
+          retireCachedRange();
+          pendingRange = null;
+
           var orderType = getOrderType(entity);
           var limitValue = getLimitValue(entity);
           var increment = getIncrement(entity);
@@ -192,12 +220,39 @@ public class SequenceCached extends DBSequence {
           }
 
           firstCache = false;
+          if (limitValue == null) {
+            pendingRange = CachedRange.create(cacheStart, cacheEnd, increment, orderType);
+          }
           return cacheStart;
         }, "next");
   }
 
+  @Override
+  protected void onUpdateCommitted() {
+    if (pendingRange != null) {
+      cachedRange = pendingRange;
+      pendingRange = null;
+    }
+  }
+
+  /**
+   * Stops handing out values of the current batch without a transaction and moves the cache
+   * position to the last value which was handed out.
+   */
+  private void retireCachedRange() {
+    final var range = cachedRange;
+    if (range != null) {
+      cachedRange = null;
+      cacheStart = range.close();
+    }
+  }
+
   @Override
   protected long currentWork(DatabaseSessionEmbedded session) {
+    final var range = cachedRange;
+    if (range != null) {
+      return range.current();
+    }
     return this.cacheStart;
   }
 
@@ -205,6 +260,9 @@ public class SequenceCached extends DBSequence {
   public long resetWork(DatabaseSessionEmbedded session) {
     return callRetry(session,
         (db, entity) -> {
+          retireCachedRange();
+          pendingRange = null;
+
           var newValue = getStart(entity);
           setValue(entity, newValue);
           firstCache = true;
@@ -250,4 +308,73 @@ public class SequenceCached extends DBSequence {
     }
     firstCache = false;
   }
+
+  /**
+   * Values {@code last + step}, {@code last + 2 * step}, ... of an allocated batch which are not
+   * handed out yet. A value is taken by a single atomic increment of the number of taken values.
+   */
+  private static final class CachedRange {
+
+    private final long last;
+    private final long step;
+    private final long size;
+    private final AtomicLong taken = new AtomicLong();
+
+    private boolean closed;
+    private long closedAt;
+
+    private CachedRange(long last, long step, long size) {
+      this.last = last;
+      this.step = step;
+      this.size = size;
+    }
+
+    @Nullable
+    static CachedRange create(
+        long cacheStart, long cacheEnd, int increment, SequenceOrderType orderType) {
+      if (increment <= 0) {
+        return null;
+      }
+
+      final long size;
+      final long step;
+      if (orderType == SequenceOrderType.ORDER_POSITIVE) {
+        size = cacheEnd > cacheStart ? (cacheEnd - cacheStart) / increment : 0;
+        step = increment;
+      } else {
+        size = cacheStart > cacheEnd ? (cacheStart - cacheEnd) / increment : 0;
+        step = -increment;
+      }
+
+      return size > 0 ? new CachedRange(cacheStart, step, size) : null;
+    }
+
+    /** Returns the index of the taken value or {@code -1} if the range is exhausted. */
+    long take() {
+      final var index = taken.getAndIncrement();
+      return index < size ? index : -1;
+    }
+
+    long valueAt(long index) {
+      return last + (index + 1) * step;
+    }
+
+    /** Returns the last value which was handed out. */
+    long current() {
+      return last + Math.min(taken.get(), size) * step;
+    }
+
+    /**
+     * Prevents further values from being taken.
+     *
+     * @return the last value which was handed out
+     */
+    synchronized long close() {
+      if (!closed) {
+        closed = true;
+        closedAt = last + Math.min(taken.getAndSet(size), size) * step;
+      }
+      return closedAt;
+    }
+  }
 }
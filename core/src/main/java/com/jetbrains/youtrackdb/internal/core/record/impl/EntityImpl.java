@@ -1870,10 +1870,26 @@ public class EntityImpl extends RecordAbstract implements Entity {
     }
   }
 
+  /**
+   * Creates the map of properties. Entities of a class with declared properties keep the entries of
+   * these properties in an array indexed by the property ordinal of the class.
+   */
+  private Map<String, EntityEntry> newPropertiesMap() {
+    final var clazz = immutableClazz;
+    if (clazz != null) {
+      final var layout = clazz.getPropertyLayout();
+      if (layout != null && layout.size() > 0) {
+        return new EntityPropertiesMap(layout);
+      }
+    }
+
+    return new HashMap<>();
+  }
+
   public void setDeserializedPropertyInternal(String name, Object value,
       PropertyTypeInternal propertyType) {
     if (this.properties == null) {
-      this.properties = new HashMap<>();
+      this.properties = newPropertiesMap();
     }
 
     // If this property was already deserialized (e.g. via partial deserialization)
@@ -4397,7 +4413,7 @@ public class EntityImpl extends RecordAbstract implements Entity {
     checkForBinding();
     if (status == RecordElement.STATUS.LOADED || status == RecordElement.STATUS.UNMARSHALLING) {
       if (this.properties == null) {
-        this.properties = new HashMap<>();
+        this.properties = newPropertiesMap();
       }
 
       if (source != null || pageFrame != null) {
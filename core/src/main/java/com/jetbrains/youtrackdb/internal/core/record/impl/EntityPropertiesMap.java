@@ -0,0 +1,248 @@
+package com.jetbrains.youtrackdb.internal.core.record.impl;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Properties of an entity of a class with declared properties. Entries of the declared properties
+ * are kept in an array indexed by the ordinal of {@link EntityPropertyLayout}, so no hash map node
+ * is allocated per property. Properties which are not declared by the class are kept in a hash map
+ * which is created on the first such property.
+ *
+ * <p>The map does not accept {@code null} values.
+ */
+final class EntityPropertiesMap extends AbstractMap<String, EntityEntry> {
+
+  private final EntityPropertyLayout layout;
+  private final EntityEntry[] slots;
+  private int slotsCount;
+
+  @Nullable private HashMap<String, EntityEntry> adHocProperties;
+  @Nullable private EntrySet entrySet;
+
+  EntityPropertiesMap(@Nonnull EntityPropertyLayout layout) {
+    this.layout = layout;
+    this.slots = new EntityEntry[layout.size()];
+  }
+
+  @Override
+  public int size() {
+    return slotsCount + (adHocProperties == null ? 0 : adHocProperties.size());
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return get(key) != null;
+  }
+
+  @Override
+  public EntityEntry get(Object key) {
+    if (!(key instanceof String name)) {
+      return null;
+    }
+
+    final var ordinal = layout.ordinal(name);
+    if (ordinal >= 0) {
+      return slots[ordinal];
+    }
+
+    return adHocProperties == null ? null : adHocProperties.get(name);
+  }
+
+  @Override
+  public EntityEntry put(String key, EntityEntry value) {
+    assert value != null : "Null entries are not supported";
+
+    final var ordinal = layout.ordinal(key);
+    if (ordinal >= 0) {
+      final var previous = slots[ordinal];
+      slots[ordinal] = value;
+      if (previous == null) {
+        slotsCount++;
+      }
+      return previous;
+    }
+
+    if (adHocProperties == null) {
+      adHocProperties = new HashMap<>();
+    }
+    return adHocProperties.put(key, value);
+  }
+
+  @Override
+  public EntityEntry remove(Object key) {
+    if (!(key instanceof String name)) {
+      return null;
+    }
+
+    final var ordinal = layout.ordinal(name);
+    if (ordinal >= 0) {
+      final var previous = slots[ordinal];
+      if (previous != null) {
+        slots[ordinal] = null;
+        slotsCount--;
+      }
+      return previous;
+    }
+
+    return adHocProperties == null ? null : adHocProperties.remove(name);
+  }
+
+  @Override
+  public void clear() {
+    Arrays.fill(slots, null);
+    slotsCount = 0;
+    adHocProperties = null;
+  }
+
+  @Nonnull
+  @Override
+  public Set<Entry<String, EntityEntry>> entrySet() {
+    if (entrySet == null) {
+      entrySet = new EntrySet();
+    }
+    return entrySet;
+  }
+
+  private final class EntrySet extends AbstractSet<Entry<String, EntityEntry>> {
+
+    @Override
+    public int size() {
+      return EntityPropertiesMap.this.size();
+    }
+
+    @Override
+    public void clear() {
+      EntityPropertiesMap.this.clear();
+    }
+
+    @Nonnull
+    @Override
+    public Iterator<Entry<String, EntityEntry>> iterator() {
+      return new EntryIterator();
+    }
+  }
+
+  private final class EntryIterator implements Iterator<Entry<String, EntityEntry>> {
+
+    private int nextSlot = -1;
+    private int lastSlot = -1;
+    @Nullable private Iterator<Entry<String, EntityEntry>> adHocIterator;
+
+    private EntryIterator() {
+      advanceSlot();
+    }
+
+    private void advanceSlot() {
+      nextSlot++;
+      while (nextSlot < slots.length && slots[nextSlot] == null) {
+        nextSlot++;
+      }
+
+      if (nextSlot == slots.length && adHocProperties != null) {
+        adHocIterator = adHocProperties.entrySet().iterator();
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (nextSlot < slots.length) {
+        return true;
+      }
+      return adHocIterator != null && adHocIterator.hasNext();
+    }
+
+    @Override
+    public Entry<String, EntityEntry> next() {
+      if (nextSlot < slots.length) {
+        lastSlot = nextSlot;
+        advanceSlot();
+        return new SlotEntry(lastSlot);
+      }
+
+      lastSlot = -1;
+      if (adHocIterator == null) {
+        throw new NoSuchElementException();
+      }
+      return adHocIterator.next();
+    }
+
+    @Override
+    public void remove() {
+      if (lastSlot >= 0) {
+        if (slots[lastSlot] == null) {
+          throw new IllegalStateException();
+        }
+
+        slots[lastSlot] = null;
+        slotsCount--;
+        lastSlot = -1;
+        return;
+      }
+
+      if (adHocIterator == null) {
+        throw new IllegalStateException();
+      }
+      adHocIterator.remove();
+    }
+  }
+
+  private final class SlotEntry implements Map.Entry<String, EntityEntry> {
+
+    private final int ordinal;
+
+    private SlotEntry(int ordinal) {
+      this.ordinal = ordinal;
+    }
+
+    @Override
+    public String getKey() {
+      return layout.name(ordinal);
+    }
+
+    @Override
+    public EntityEntry getValue() {
+      return slots[ordinal];
+    }
+
+    @Override
+    public EntityEntry setValue(EntityEntry value) {
+      assert value != null : "Null entries are not supported";
+
+      final var previous = slots[ordinal];
+      slots[ordinal] = value;
+      return previous;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Map.Entry<?, ?> entry
+          && getKey().equals(entry.getKey())
+          && Objects.equals(getValue(), entry.getValue());
+    }
+
+    @Override
+    public int hashCode() {
+      return getKey().hashCode() ^ Objects.hashCode(getValue());
+    }
+
+    @Override
+    public String toString() {
+      return getKey() + "=" + getValue();
+    }
+  }
+}
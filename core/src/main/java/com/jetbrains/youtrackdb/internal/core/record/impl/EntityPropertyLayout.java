@@ -0,0 +1,41 @@
+package com.jetbrains.youtrackdb.internal.core.record.impl;
+
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import java.util.Collection;
+import javax.annotation.Nonnull;
+
+/**
+ * Assigns an ordinal to every property of a schema class, including inherited ones. Entities of
+ * the class keep the entries of these properties in an array indexed by the ordinal, see
+ * {@link EntityPropertiesMap}. Instances are immutable and shared by all entities of the class.
+ */
+public final class EntityPropertyLayout {
+
+  private final String[] names;
+  private final Object2IntOpenHashMap<String> ordinals;
+
+  public EntityPropertyLayout(@Nonnull Collection<String> propertyNames) {
+    names = propertyNames.toArray(new String[0]);
+    ordinals = new Object2IntOpenHashMap<>(names.length);
+    ordinals.defaultReturnValue(-1);
+
+    for (var i = 0; i < names.length; i++) {
+      ordinals.put(names[i], i);
+    }
+  }
+
+  /**
+   * @return ordinal of the property, or {@code -1} if the class does not declare it.
+   */
+  public int ordinal(String propertyName) {
+    return ordinals.getInt(propertyName);
+  }
+
+  public String name(int ordinal) {
+    return names[ordinal];
+  }
+
+  public int size() {
+    return names.length;
+  }
+}
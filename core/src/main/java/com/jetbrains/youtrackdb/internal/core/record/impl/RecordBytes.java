@@ -25,10 +25,12 @@ import com.jetbrains.youtrackdb.internal.core.db.record.record.Blob;
 import com.jetbrains.youtrackdb.internal.core.db.record.record.Edge;
 import com.jetbrains.youtrackdb.internal.core.db.record.record.Entity;
 import com.jetbrains.youtrackdb.internal.core.db.record.record.Vertex;
+import com.jetbrains.youtrackdb.internal.core.exception.BaseException;
 import com.jetbrains.youtrackdb.internal.core.exception.DatabaseException;
 import com.jetbrains.youtrackdb.internal.core.id.RecordIdInternal;
 import com.jetbrains.youtrackdb.internal.core.record.RecordAbstract;
 import com.jetbrains.youtrackdb.internal.core.serialization.MemoryStream;
+import com.jetbrains.youtrackdb.internal.core.tx.TransactionBlobSpill;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -44,6 +46,15 @@ import javax.annotation.Nullable;
  */
 public class RecordBytes extends RecordAbstract implements Blob {
 
+  /**
+   * Spill of the transaction which holds the content of this blob instead of {@link #source}, or
+   * {@code null} if the content is kept in memory.
+   */
+  @Nullable
+  private TransactionBlobSpill spill;
+  private long spillOffset;
+  private int spillLength;
+
   public RecordBytes(RecordIdInternal recordId, final DatabaseSessionEmbedded iDatabase,
       final byte[] iSource) {
     super(recordId, iDatabase, iSource);
@@ -64,6 +75,7 @@ public class RecordBytes extends RecordAbstract implements Blob {
     }
 
     source = iRecordBuffer;
+    spill = null;
     status = RecordElement.STATUS.LOADED;
 
     return this;
@@ -72,9 +84,57 @@ public class RecordBytes extends RecordAbstract implements Blob {
   @Override
   public @Nonnull byte[] toStream() {
     checkForBinding();
+    if (spill != null) {
+      return readSpilledContent();
+    }
     return source;
   }
 
+  /**
+   * Moves the content of the blob to the spill of the transaction in which it is changed. The
+   * content is read back from the spill every time it is requested until the blob is unloaded at the
+   * end of the transaction or its content is replaced.
+   */
+  public void spillContent(@Nonnull TransactionBlobSpill spill) {
+    if (this.spill != null || source == null) {
+      return;
+    }
+
+    try {
+      spillOffset = spill.write(source);
+      spillLength = source.length;
+    } catch (IOException e) {
+      throw BaseException.wrapException(
+          new DatabaseException(session.getDatabaseName(),
+              "Error during spilling of content of blob " + recordId),
+          e, session.getDatabaseName());
+    }
+    this.spill = spill;
+    source = null;
+  }
+
+  public boolean isContentSpilled() {
+    return spill != null;
+  }
+
+  private byte[] readSpilledContent() {
+    assert spill != null;
+    try {
+      return spill.read(spillOffset, spillLength);
+    } catch (IOException e) {
+      throw BaseException.wrapException(
+          new DatabaseException(session.getDatabaseName(),
+              "Error during reading of spilled content of blob " + recordId),
+          e, session.getDatabaseName());
+    }
+  }
+
+  @Override
+  public void unload() {
+    spill = null;
+    super.unload();
+  }
+
   @Override
   public byte getRecordType() {
     return RECORD_TYPE;
@@ -103,6 +163,7 @@ public class RecordBytes extends RecordAbstract implements Blob {
       out.flush();
       source = out.toByteArray();
     }
+    spill = null;
     size = source.length;
     return size;
   }
@@ -111,8 +172,9 @@ public class RecordBytes extends RecordAbstract implements Blob {
   public void toOutputStream(final @Nonnull OutputStream out) throws IOException {
     checkForBinding();
 
-    if (source.length > 0) {
-      out.write(source);
+    final var content = toStream();
+    if (content.length > 0) {
+      out.write(content);
     }
   }
 
@@ -37,6 +37,7 @@ import com.jetbrains.youtrackdb.internal.core.metadata.security.auth.Authenticat
 import com.jetbrains.youtrackdb.internal.core.record.impl.EntityImpl;
 import com.jetbrains.youtrackdb.internal.core.security.SecurityManager;
 import com.jetbrains.youtrackdb.internal.core.security.SecurityUser;
+import com.jetbrains.youtrackdb.internal.core.sql.parser.SQLBooleanExpression;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -334,6 +335,13 @@ public class SymmetricKeySecurity implements SecurityInternal {
     return delegate.isReadRestrictedBySecurityPolicy(session, resource);
   }
 
+  @Nullable
+  @Override
+  public SQLBooleanExpression getReadPredicateForClass(DatabaseSessionEmbedded session,
+      String className) {
+    return delegate.getReadPredicateForClass(session, className);
+  }
+
   @Override
   public Set<SecurityResourceProperty> getAllFilteredProperties(
       DatabaseSessionEmbedded database) {
@@ -32,14 +32,21 @@ import javax.annotation.Nonnull;
 public class RecordSerializerBinary implements RecordSerializer {
   public static final String NAME = "RecordSerializerBinary";
   public static final RecordSerializerBinary INSTANCE = new RecordSerializerBinary();
-  private static final byte CURRENT_RECORD_VERSION = 0;
+  private static final byte CURRENT_RECORD_VERSION = 1;
+
+  /**
+   * First record format version which prefixes the record with a property offset table, see
+   * {@link RecordSerializerBinaryV2}.
+   */
+  public static final byte PROPERTY_OFFSET_TABLE_VERSION = 1;
 
   private EntitySerializer[] serializerByVersion;
   private final byte currentSerializerVersion;
 
   private void init() {
-    serializerByVersion = new EntitySerializer[1];
+    serializerByVersion = new EntitySerializer[2];
     serializerByVersion[0] = new RecordSerializerBinaryV1();
+    serializerByVersion[1] = new RecordSerializerBinaryV2();
   }
 
   public RecordSerializerBinary(byte serializerVersion) {
@@ -52,6 +59,17 @@ public class RecordSerializerBinary implements RecordSerializer {
     init();
   }
 
+  /**
+   * Returns a serializer writing records in the given format version; reads always dispatch on
+   * the version byte of the record.
+   */
+  public static RecordSerializerBinary forVersion(int version) {
+    if (version == CURRENT_RECORD_VERSION) {
+      return INSTANCE;
+    }
+    return new RecordSerializerBinary((byte) version);
+  }
+
   public int getNumberOfSupportedVersions() {
     return serializerByVersion.length;
   }
@@ -63,7 +81,7 @@ public class RecordSerializerBinary implements RecordSerializer {
 
   @Override
   public int getMinSupportedVersion() {
-    return currentSerializerVersion;
+    return 0;
   }
 
   public EntitySerializer getSerializer(final int iVersion) {
@@ -151,18 +169,33 @@ public class RecordSerializerBinary implements RecordSerializer {
       var entityToSerialize = (EntityImpl) record;
 
       final var container = new BytesContainer();
+      final var version = recordVersion(session, entityToSerialize);
 
       // WRITE SERIALIZER VERSION
       var pos = container.alloc(1);
-      container.bytes[pos] = currentSerializerVersion;
+      container.bytes[pos] = version;
       // SERIALIZE RECORD
-      serializerByVersion[currentSerializerVersion].serialize(session, entityToSerialize,
-          container);
+      serializerByVersion[version].serialize(session, entityToSerialize, container);
 
       return container.fitBytes();
     }
   }
 
+  /**
+   * The property offset table only indexes properties declared in the schema, so entities whose
+   * class declares no property keep the version 0 layout.
+   */
+  private byte recordVersion(DatabaseSessionEmbedded session, EntityImpl entity) {
+    if (currentSerializerVersion < PROPERTY_OFFSET_TABLE_VERSION) {
+      return currentSerializerVersion;
+    }
+    var clazz = entity.getImmutableSchemaClass(session);
+    if (clazz == null || clazz.getProperties().isEmpty()) {
+      return 0;
+    }
+    return currentSerializerVersion;
+  }
+
   @Override
   public String[] getFieldNames(@Nonnull DatabaseSessionEmbedded session, EntityImpl reference,
       final @Nonnull byte[] iSource) {
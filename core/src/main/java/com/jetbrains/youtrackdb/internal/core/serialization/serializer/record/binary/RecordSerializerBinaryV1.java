@@ -65,6 +65,7 @@ import com.jetbrains.youtrackdb.internal.core.storage.ridbag.BTreeBasedLinkBag;
 import com.jetbrains.youtrackdb.internal.core.storage.ridbag.EmbeddedLinkBag;
 import com.jetbrains.youtrackdb.internal.core.storage.ridbag.LinkBagPointer;
 import com.jetbrains.youtrackdb.internal.core.util.DateHelper;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.ArrayList;
@@ -443,14 +444,23 @@ public class RecordSerializerBinaryV1 implements EntitySerializer {
     return result.toArray(new String[0]);
   }
 
-  private void serializeValues(
+  /**
+   * Writes the property header and the property values of the entity into separate buffers.
+   *
+   * @param propertyOffsets if not null, receives one {@code (globalPropertyId << 32) |
+   *                        valueOffset} entry per property stored by its schema id; the offset is
+   *                        relative to the start of {@code valuesBuffer} and is {@code -1} for
+   *                        null values
+   */
+  protected void serializeValues(
       DatabaseSessionEmbedded session, final BytesContainer headerBuffer,
       final BytesContainer valuesBuffer,
       final EntityImpl entity,
       Set<Entry<String, EntityEntry>> fields,
       final Map<String, SchemaProperty> props,
       ImmutableSchema schema,
-      PropertyEncryption encryption) {
+      PropertyEncryption encryption,
+      @Nullable LongArrayList propertyOffsets) {
     SchemaImmutableClass result = null;
     if (entity != null) {
       result = entity.getImmutableSchemaClass(session);
@@ -496,10 +506,16 @@ public class RecordSerializerBinaryV1 implements EntitySerializer {
             schema, encryption);
         var valueLength = valuesBuffer.offset - startOffset;
         VarIntSerializer.write(headerBuffer, valueLength);
+        if (propertyOffsets != null && docEntry.property != null) {
+          propertyOffsets.add(((long) docEntry.property.getId() << 32) | startOffset);
+        }
       } else {
         // handle null fields
         VarIntSerializer.write(headerBuffer, 0);
         type = null;
+        if (propertyOffsets != null && docEntry.property != null) {
+          propertyOffsets.add(((long) docEntry.property.getId() << 32) | 0xFFFFFFFFL);
+        }
       }
 
       // write type. Type should be written both for regular and null fields
@@ -514,7 +530,7 @@ public class RecordSerializerBinaryV1 implements EntitySerializer {
     }
   }
 
-  private static void merge(
+  protected static void merge(
       BytesContainer destinationBuffer,
       BytesContainer sourceBuffer1,
       BytesContainer sourceBuffer2) {
@@ -535,7 +551,7 @@ public class RecordSerializerBinaryV1 implements EntitySerializer {
     destinationBuffer.offset += sourceBuffer1.offset + sourceBuffer2.offset;
   }
 
-  private void serializeEntity(
+  protected void serializeEntity(
       DatabaseSessionEmbedded session, final EntityImpl entity,
       final BytesContainer bytes,
       final SchemaClass clazz,
@@ -550,7 +566,7 @@ public class RecordSerializerBinaryV1 implements EntitySerializer {
     var headerBuffer = new BytesContainer();
 
     serializeValues(session, headerBuffer, valuesBuffer, entity, fields, props, schema,
-        encryption);
+        encryption, null);
     var headerLength = headerBuffer.offset;
     // write header length as soon as possible
     VarIntSerializer.write(bytes, headerLength);
@@ -1530,7 +1546,7 @@ public class RecordSerializerBinaryV1 implements EntitySerializer {
   }
 
   /** Resolves ImmutableSchema from a RecordElement by walking up to the owning EntityImpl. */
-  @Nullable private static ImmutableSchema resolveSchema(RecordElement element) {
+  @Nullable protected static ImmutableSchema resolveSchema(RecordElement element) {
     var entity = element;
     while (!(entity instanceof EntityImpl) && entity != null) {
       entity = entity.getOwner();
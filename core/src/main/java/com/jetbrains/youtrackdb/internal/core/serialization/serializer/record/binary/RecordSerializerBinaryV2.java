@@ -0,0 +1,346 @@
+package com.jetbrains.youtrackdb.internal.core.serialization.serializer.record.binary;
+
+import com.jetbrains.youtrackdb.internal.common.serialization.types.IntegerSerializer;
+import com.jetbrains.youtrackdb.internal.core.db.DatabaseSessionEmbedded;
+import com.jetbrains.youtrackdb.internal.core.exception.CorruptedRecordException;
+import com.jetbrains.youtrackdb.internal.core.metadata.schema.ImmutableSchema;
+import com.jetbrains.youtrackdb.internal.core.metadata.schema.PropertyTypeInternal;
+import com.jetbrains.youtrackdb.internal.core.metadata.schema.schema.SchemaClass;
+import com.jetbrains.youtrackdb.internal.core.metadata.security.PropertyEncryption;
+import com.jetbrains.youtrackdb.internal.core.record.impl.EntityImpl;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * Record format version 1: the {@link RecordSerializerBinaryV1} layout prefixed by a property
+ * offset table.
+ *
+ * <pre>
+ * [tableSize varint][tableSize x (int32 globalPropertyId, int32 valueOffset)][V1 body]
+ * </pre>
+ *
+ * <p>The table holds one entry per property stored by its schema id, sorted by id. The value
+ * offset is relative to the start of the values area of the V1 body, {@code -1} marks a null
+ * value. Lookups of schema properties binary-search the table instead of walking the header;
+ * properties stored by name, and properties missing from the table, fall back to the V1 header
+ * scan. Embedded entities of a version 1 record use the same layout.
+ */
+public class RecordSerializerBinaryV2 extends RecordSerializerBinaryV1 {
+
+  private static final int ENTRY_SIZE = 2 * IntegerSerializer.INT_SIZE;
+  private static final int NULL_VALUE = -1;
+  private static final int NOT_FOUND = -2;
+
+  @Override
+  protected void serializeEntity(
+      DatabaseSessionEmbedded session, final EntityImpl entity,
+      final BytesContainer bytes,
+      final SchemaClass clazz,
+      ImmutableSchema schema,
+      PropertyEncryption encryption) {
+    final var props = clazz != null ? clazz.getPropertiesMap() : null;
+    final var fields = entity.getRawEntries();
+
+    var valuesBuffer = new BytesContainer();
+    var headerBuffer = new BytesContainer();
+    var propertyOffsets = new LongArrayList();
+
+    serializeValues(session, headerBuffer, valuesBuffer, entity, fields, props, schema,
+        encryption, propertyOffsets);
+
+    var table = propertyOffsets.toLongArray();
+    Arrays.sort(table);
+    VarIntSerializer.write(bytes, table.length);
+    var tableStart = bytes.alloc(table.length * ENTRY_SIZE);
+    for (var i = 0; i < table.length; i++) {
+      var entryStart = tableStart + i * ENTRY_SIZE;
+      IntegerSerializer.serializeLiteral((int) (table[i] >>> 32), bytes.bytes, entryStart);
+      IntegerSerializer.serializeLiteral((int) table[i], bytes.bytes,
+          entryStart + IntegerSerializer.INT_SIZE);
+    }
+
+    VarIntSerializer.write(bytes, headerBuffer.offset);
+    merge(bytes, headerBuffer, valuesBuffer);
+  }
+
+  @Override
+  public void deserialize(DatabaseSessionEmbedded session, final EntityImpl entity,
+      final BytesContainer bytes) {
+    skipOffsetTable(bytes);
+    super.deserialize(session, entity, bytes);
+  }
+
+  @Override
+  public void deserialize(DatabaseSessionEmbedded session, final EntityImpl entity,
+      final ReadBytesContainer bytes) {
+    skipOffsetTable(bytes);
+    super.deserialize(session, entity, bytes);
+  }
+
+  @Override
+  public void deserializePartial(DatabaseSessionEmbedded db, EntityImpl entity,
+      BytesContainer bytes, String[] iFields) {
+    var tableSize = VarIntSerializer.readAsInteger(bytes);
+    var tableStart = bytes.offset;
+    bytes.skip(tableSize * ENTRY_SIZE);
+
+    var bodyStart = bytes.offset;
+    var headerLength = VarIntSerializer.readAsInteger(bytes);
+    var valuesStart = bytes.offset + headerLength;
+
+    var clazz = entity.getImmutableSchemaClass(db);
+    List<String> unresolved = null;
+    for (var fieldName : iFields) {
+      var prop = clazz != null ? clazz.getProperty(fieldName) : null;
+      var valueOffset = prop != null
+          ? findValueOffset(bytes.bytes, tableStart, tableSize, prop.getId())
+          : NOT_FOUND;
+      if (valueOffset == NOT_FOUND) {
+        if (unresolved == null) {
+          unresolved = new ArrayList<>();
+        }
+        unresolved.add(fieldName);
+      } else if (valueOffset == NULL_VALUE) {
+        entity.setDeserializedPropertyInternal(fieldName, null, null);
+      } else {
+        var type = PropertyTypeInternal.convertFromPublicType(prop.getType());
+        bytes.offset = valuesStart + valueOffset;
+        var value = deserializeValue(db, bytes, type, entity);
+        entity.setDeserializedPropertyInternal(fieldName, value, type);
+      }
+    }
+
+    if (unresolved != null) {
+      bytes.offset = bodyStart;
+      super.deserializePartial(db, entity, bytes, unresolved.toArray(new String[0]));
+    }
+  }
+
+  @Override
+  public void deserializePartial(DatabaseSessionEmbedded db, EntityImpl entity,
+      ReadBytesContainer bytes, String[] iFields) {
+    var tableSize = readOffsetTableSize(bytes);
+    var tableStart = bytes.offset();
+    bytes.skip(tableSize * ENTRY_SIZE);
+
+    var bodyStart = bytes.offset();
+    var valuesStart = readValuesStart(bytes);
+
+    var clazz = entity.getImmutableSchemaClass(db);
+    var schema = resolveSchema(entity);
+    List<String> unresolved = null;
+    for (var fieldName : iFields) {
+      var prop = clazz != null ? clazz.getProperty(fieldName) : null;
+      var valueOffset = prop != null
+          ? findValueOffset(bytes, tableStart, tableSize, prop.getId())
+          : NOT_FOUND;
+      if (valueOffset == NOT_FOUND) {
+        if (unresolved == null) {
+          unresolved = new ArrayList<>();
+        }
+        unresolved.add(fieldName);
+      } else if (valueOffset == NULL_VALUE) {
+        entity.setDeserializedPropertyInternal(fieldName, null, null);
+      } else {
+        var type = PropertyTypeInternal.convertFromPublicType(prop.getType());
+        bytes.setOffset(valuesStart + valueOffset);
+        var value = deserializeValue(db, bytes, type, entity, false, schema);
+        entity.setDeserializedPropertyInternal(fieldName, value, type);
+      }
+    }
+
+    if (unresolved != null) {
+      bytes.setOffset(bodyStart);
+      super.deserializePartial(db, entity, bytes, unresolved.toArray(new String[0]));
+    }
+  }
+
+  @Override
+  @Nullable public BinaryField deserializeField(
+      DatabaseSessionEmbedded session, final BytesContainer bytes,
+      final SchemaClass iClass,
+      final String iFieldName,
+      boolean embedded,
+      ImmutableSchema schema,
+      PropertyEncryption encryption) {
+    if (embedded) {
+      skipClassName(bytes);
+    }
+
+    var tableSize = VarIntSerializer.readAsInteger(bytes);
+    var tableStart = bytes.offset;
+    bytes.skip(tableSize * ENTRY_SIZE);
+
+    var prop = iClass != null ? iClass.getProperty(iFieldName) : null;
+    if (prop != null) {
+      var valueOffset = findValueOffset(bytes.bytes, tableStart, tableSize, prop.getId());
+      if (valueOffset != NOT_FOUND) {
+        var type = PropertyTypeInternal.convertFromPublicType(prop.getType());
+        if (valueOffset == NULL_VALUE || !getComparator().isBinaryComparable(type)) {
+          return null;
+        }
+        var headerLength = VarIntSerializer.readAsInteger(bytes);
+        bytes.offset += headerLength + valueOffset;
+        return new BinaryField(iFieldName, type, bytes, prop.getCollate());
+      }
+    }
+
+    return super.deserializeField(session, bytes, iClass, iFieldName, false, schema, encryption);
+  }
+
+  @Override
+  @Nullable public ReadBinaryField deserializeField(
+      DatabaseSessionEmbedded session, final ReadBytesContainer bytes,
+      final SchemaClass iClass,
+      final String iFieldName,
+      final byte[] fieldNameBytes,
+      boolean embedded,
+      ImmutableSchema schema,
+      PropertyEncryption encryption) {
+    if (embedded) {
+      var classNameLen = VarIntSerializer.readAsInteger(bytes);
+      bytes.skip(classNameLen);
+    }
+
+    var tableSize = readOffsetTableSize(bytes);
+    var tableStart = bytes.offset();
+    bytes.skip(tableSize * ENTRY_SIZE);
+
+    var prop = iClass != null ? iClass.getProperty(iFieldName) : null;
+    if (prop != null) {
+      var valueOffset = findValueOffset(bytes, tableStart, tableSize, prop.getId());
+      if (valueOffset != NOT_FOUND) {
+        var type = PropertyTypeInternal.convertFromPublicType(prop.getType());
+        if (valueOffset == NULL_VALUE || !getComparator().isBinaryComparable(type)) {
+          return null;
+        }
+        bytes.setOffset(readValuesStart(bytes) + valueOffset);
+        return new ReadBinaryField(iFieldName, type, bytes, prop.getCollate());
+      }
+    }
+
+    return super.deserializeField(session, bytes, iClass, iFieldName, fieldNameBytes, false,
+        schema, encryption);
+  }
+
+  @Override
+  public String[] getFieldNames(DatabaseSessionEmbedded session, EntityImpl reference,
+      final BytesContainer bytes,
+      boolean embedded) {
+    if (embedded) {
+      skipClassName(bytes);
+    }
+    skipOffsetTable(bytes);
+    return super.getFieldNames(session, reference, bytes, false);
+  }
+
+  @Nullable @Override
+  @SuppressWarnings("TypeParameterUnusedInFormals")
+  protected <RET> RET deserializeFieldTypedLoopAndReturn(
+      DatabaseSessionEmbedded session, BytesContainer bytes,
+      String iFieldName,
+      final ImmutableSchema schema,
+      PropertyEncryption encryption) {
+    skipOffsetTable(bytes);
+    return super.deserializeFieldTypedLoopAndReturn(session, bytes, iFieldName, schema,
+        encryption);
+  }
+
+  @Nullable @Override
+  @SuppressWarnings("TypeParameterUnusedInFormals")
+  protected <RET> RET deserializeFieldTypedLoopAndReturn(
+      DatabaseSessionEmbedded session,
+      ReadBytesContainer bytes,
+      String iFieldName,
+      final ImmutableSchema schema,
+      PropertyEncryption encryption) {
+    skipOffsetTable(bytes);
+    return super.deserializeFieldTypedLoopAndReturn(session, bytes, iFieldName, schema,
+        encryption);
+  }
+
+  private static void skipOffsetTable(BytesContainer bytes) {
+    var tableSize = VarIntSerializer.readAsInteger(bytes);
+    bytes.skip(tableSize * ENTRY_SIZE);
+  }
+
+  private static void skipOffsetTable(ReadBytesContainer bytes) {
+    var tableSize = readOffsetTableSize(bytes);
+    bytes.skip(tableSize * ENTRY_SIZE);
+  }
+
+  private static int readOffsetTableSize(ReadBytesContainer bytes) {
+    var tableSize = VarIntSerializer.readAsInteger(bytes);
+    if (tableSize < 0 || tableSize > bytes.remaining() / ENTRY_SIZE) {
+      throw new CorruptedRecordException(
+          "Property offset table exceeds remaining buffer: "
+              + tableSize + " entries, " + bytes.remaining() + " bytes");
+    }
+    return tableSize;
+  }
+
+  /**
+   * Reads the header length of the V1 body at the current position and returns the absolute
+   * position of its values area.
+   */
+  private static int readValuesStart(ReadBytesContainer bytes) {
+    var headerLength = VarIntSerializer.readAsInteger(bytes);
+    if (headerLength < 0 || headerLength > bytes.remaining()) {
+      throw new CorruptedRecordException(
+          "Header length exceeds remaining buffer: "
+              + headerLength + " > " + bytes.remaining());
+    }
+    return bytes.offset() + headerLength;
+  }
+
+  private static int findValueOffset(byte[] bytes, int tableStart, int tableSize,
+      int propertyId) {
+    var low = 0;
+    var high = tableSize - 1;
+    while (low <= high) {
+      var mid = (low + high) >>> 1;
+      var entryStart = tableStart + mid * ENTRY_SIZE;
+      var id = IntegerSerializer.deserializeLiteral(bytes, entryStart);
+      if (id < propertyId) {
+        low = mid + 1;
+      } else if (id > propertyId) {
+        high = mid - 1;
+      } else {
+        return IntegerSerializer.deserializeLiteral(bytes,
+            entryStart + IntegerSerializer.INT_SIZE);
+      }
+    }
+    return NOT_FOUND;
+  }
+
+  /**
+   * Binary-searches the table of a {@link ReadBytesContainer} record; the read position is
+   * restored before returning.
+   */
+  private static int findValueOffset(ReadBytesContainer bytes, int tableStart, int tableSize,
+      int propertyId) {
+    var position = bytes.offset();
+    try {
+      var low = 0;
+      var high = tableSize - 1;
+      while (low <= high) {
+        var mid = (low + high) >>> 1;
+        bytes.setOffset(tableStart + mid * ENTRY_SIZE);
+        var id = bytes.getInt();
+        if (id < propertyId) {
+          low = mid + 1;
+        } else if (id > propertyId) {
+          high = mid - 1;
+        } else {
+          return bytes.getInt();
+        }
+      }
+      return NOT_FOUND;
+    } finally {
+      bytes.setOffset(position);
+    }
+  }
+}
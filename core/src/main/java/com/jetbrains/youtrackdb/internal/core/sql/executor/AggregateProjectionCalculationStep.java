@@ -1,17 +1,26 @@
 package com.jetbrains.youtrackdb.internal.core.sql.executor;
 
+import com.jetbrains.youtrackdb.api.config.GlobalConfiguration;
 import com.jetbrains.youtrackdb.internal.common.concur.TimeoutException;
 import com.jetbrains.youtrackdb.internal.core.command.CommandContext;
+import com.jetbrains.youtrackdb.internal.core.db.DatabaseSessionEmbedded;
 import com.jetbrains.youtrackdb.internal.core.exception.CommandExecutionException;
 import com.jetbrains.youtrackdb.internal.core.query.ExecutionStep;
 import com.jetbrains.youtrackdb.internal.core.query.Result;
 import com.jetbrains.youtrackdb.internal.core.sql.executor.resultset.ExecutionStream;
+import com.jetbrains.youtrackdb.internal.core.sql.executor.resultset.ExecutionStreamProducer;
+import com.jetbrains.youtrackdb.internal.core.sql.executor.resultset.MultipleExecutionStream;
+import com.jetbrains.youtrackdb.internal.core.sql.executor.spill.SpillFile;
+import com.jetbrains.youtrackdb.internal.core.sql.executor.spill.SpillPartitions;
 import com.jetbrains.youtrackdb.internal.core.sql.parser.SQLGroupBy;
 import com.jetbrains.youtrackdb.internal.core.sql.parser.SQLProjection;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import javax.annotation.Nullable;
 
 /**
  * Intermediate step that performs aggregation (GROUP BY + aggregate functions).
@@ -54,6 +63,11 @@ import java.util.Map;
  * <p>The {@code limit} parameter allows early termination when no ORDER BY is
  * present: once enough groups have been accumulated, the step can stop.
  *
+ * <p>When {@code QUERY_SPILL_TO_DISK_ENABLED} is set, at most
+ * {@code QUERY_MAX_HEAP_ELEMENTS_ALLOWED_PER_OP} groups are accumulated in the heap. Input rows
+ * of further groups are written to spill files partitioned by the hash of their group key and
+ * are aggregated partition by partition once the groups in the heap have been emitted.
+ *
  * @see SelectExecutionPlanner#handleProjections
  * @see AggregationContext
  */
@@ -105,6 +119,17 @@ public class AggregateProjectionCalculationStep extends ProjectionCalculationSte
 
   @Override
   public ExecutionStream internalStart(CommandContext ctx) throws TimeoutException {
+    var session = ctx.getDatabaseSessionIfBound();
+    if (session != null && SpillFile.isEnabled(session)) {
+      var maxElementsAllowed =
+          session.getConfiguration()
+              .getValueAsLong(GlobalConfiguration.QUERY_MAX_HEAP_ELEMENTS_ALLOWED_PER_OP);
+      if (maxElementsAllowed > 0) {
+        return new MultipleExecutionStream(
+            new SpillingAggregation(session, maxElementsAllowed));
+      }
+    }
+
     var finalResults = executeAggregation(ctx);
     return ExecutionStream.resultIterator(finalResults.iterator());
   }
@@ -129,12 +154,26 @@ public class AggregateProjectionCalculationStep extends ProjectionCalculationSte
 
     var prevStep = prev;
     var lastRs = prevStep.start(ctx);
+    return aggregateAll(lastRs, ctx, timeoutBegin, null);
+  }
+
+  /**
+   * Groups and aggregates all rows of the given stream and closes it. When {@code spill} is not
+   * null, rows of groups which do not fit into its heap limit are spilled instead of aggregated.
+   */
+  private List<Result> aggregateAll(
+      ExecutionStream lastRs, CommandContext ctx, long timeoutBegin,
+      @Nullable SpillingAggregation spill) {
     Map<Object, ResultInternal> aggregateResults = new LinkedHashMap<>();
     while (lastRs.hasNext(ctx)) {
       if (timeoutMillis > 0 && timeoutBegin + timeoutMillis < System.currentTimeMillis()) {
         sendTimeout();
       }
-      aggregate(lastRs.next(ctx), ctx, aggregateResults);
+      var next = lastRs.next(ctx);
+      var key = groupKey(next, ctx);
+      if (spill == null || !spill.spillIfOverflows(next, key, aggregateResults)) {
+        aggregate(next, key, ctx, aggregateResults);
+      }
     }
     lastRs.close(ctx);
     List<Result> finalResults = new ArrayList<>(aggregateResults.values());
@@ -164,9 +203,9 @@ public class AggregateProjectionCalculationStep extends ProjectionCalculationSte
    * and feeds the record into each aggregate function's accumulation context.
    */
   private void aggregate(
-      Result next, CommandContext ctx, Map<Object, ResultInternal> aggregateResults) {
+      Result next, Object key, CommandContext ctx,
+      Map<Object, ResultInternal> aggregateResults) {
     var db = ctx.getDatabaseSession();
-    var key = groupKey(next, ctx);
     var preAggr = aggregateResults.get(key);
     if (preAggr == null) {
       // Early termination: when a limit is set (SKIP+LIMIT with no ORDER BY),
@@ -220,6 +259,106 @@ public class AggregateProjectionCalculationStep extends ProjectionCalculationSte
     return key;
   }
 
+  /**
+   * Aggregation which keeps at most {@code maxElementsAllowed} groups in the heap. The first stream
+   * it produces contains the groups aggregated from the upstream, every further stream the groups
+   * of one spilled partition.
+   *
+   * <p>Rows are spilled only for keys which are not in the heap once it is full. The heap does not
+   * get new keys afterward, so all rows of a group are either aggregated in the heap or spilled to
+   * the same partition. Partitions are aggregated the same way and may overflow to the next
+   * partitioning level.
+   */
+  private final class SpillingAggregation implements ExecutionStreamProducer {
+
+    private final DatabaseSessionEmbedded session;
+    private final long maxElementsAllowed;
+    private final ArrayDeque<SpillPartitions> pending = new ArrayDeque<>();
+    @Nullable private SpillPartitions overflow;
+    private int level;
+    private boolean upstreamAggregated;
+    private long timeoutBegin;
+
+    private SpillingAggregation(DatabaseSessionEmbedded session, long maxElementsAllowed) {
+      this.session = session;
+      this.maxElementsAllowed = maxElementsAllowed;
+    }
+
+    @Override
+    public boolean hasNext(CommandContext ctx) {
+      if (!upstreamAggregated) {
+        return true;
+      }
+
+      while (!pending.isEmpty()) {
+        if (pending.peekFirst().hasNext()) {
+          return true;
+        }
+        pending.pollFirst().close();
+      }
+      return false;
+    }
+
+    @Override
+    public ExecutionStream next(CommandContext ctx) {
+      List<Result> groups;
+      if (!upstreamAggregated) {
+        upstreamAggregated = true;
+        timeoutBegin = System.currentTimeMillis();
+        if (prev == null) {
+          throw new CommandExecutionException(session.getDatabaseName(),
+              "Cannot execute an aggregation or a GROUP BY without a previous result");
+        }
+
+        level = 0;
+        groups = aggregateAll(prev.start(ctx), ctx, timeoutBegin, this);
+      } else {
+        if (!hasNext(ctx)) {
+          throw new IllegalStateException();
+        }
+
+        var partitions = pending.peekFirst();
+        level = partitions.level() + 1;
+        groups = aggregateAll(SpillFile.stream(partitions.poll()), ctx, timeoutBegin, this);
+      }
+
+      if (overflow != null) {
+        pending.addLast(overflow);
+        overflow = null;
+      }
+      return ExecutionStream.resultIterator(groups.iterator());
+    }
+
+    /**
+     * Spills the row if its group is not in the heap and the heap is full.
+     *
+     * @return true if the row was spilled and must not be aggregated
+     */
+    private boolean spillIfOverflows(
+        Result next, Object key, Map<Object, ResultInternal> aggregateResults) {
+      if (aggregateResults.size() < maxElementsAllowed || aggregateResults.containsKey(key)) {
+        return false;
+      }
+
+      if (overflow == null) {
+        overflow = new SpillPartitions(session, level);
+      }
+      overflow.write(Objects.hashCode(key), next);
+      return true;
+    }
+
+    @Override
+    public void close(CommandContext ctx) {
+      if (overflow != null) {
+        overflow.close();
+        overflow = null;
+      }
+      while (!pending.isEmpty()) {
+        pending.pollFirst().close();
+      }
+    }
+  }
+
   @Override
   public String prettyPrint(int depth, int indent) {
     var spaces = ExecutionStepInternal.getIndent(depth, indent);
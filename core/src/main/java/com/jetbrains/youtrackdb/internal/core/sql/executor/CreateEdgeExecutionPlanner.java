@@ -89,6 +89,7 @@ public class CreateEdgeExecutionPlanner {
       uniqueIndexName =
           clazz.getIndexesInternal().stream()
               .filter(Index::isUnique)
+              .filter(session::isIndexUsableByQueries)
               .filter(
                   x -> x.getDefinition().getProperties().size() == 2
                       && x.getDefinition().getProperties().contains("out")
@@ -9,6 +9,12 @@ import com.jetbrains.youtrackdb.internal.core.exception.CommandExecutionExceptio
 import com.jetbrains.youtrackdb.internal.core.query.ExecutionStep;
 import com.jetbrains.youtrackdb.internal.core.query.Result;
 import com.jetbrains.youtrackdb.internal.core.sql.executor.resultset.ExecutionStream;
+import com.jetbrains.youtrackdb.internal.core.sql.executor.resultset.ExecutionStreamProducer;
+import com.jetbrains.youtrackdb.internal.core.sql.executor.resultset.MultipleExecutionStream;
+import com.jetbrains.youtrackdb.internal.core.sql.executor.spill.SpillFile;
+import com.jetbrains.youtrackdb.internal.core.sql.executor.spill.SpillPartitions;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Set;
 import javax.annotation.Nullable;
@@ -39,6 +45,11 @@ import javax.annotation.Nullable;
  * tracked by RID via {@link RidSet} are not subject to this limit because RidSet
  * uses a compact bitmap representation.
  *
+ * <p>When {@code QUERY_SPILL_TO_DISK_ENABLED} is set, projected records which do not fit into
+ * the limit are not rejected but written to hash partitioned spill files instead. They are
+ * deduplicated partition by partition after the upstream is exhausted, so such records are
+ * returned after all the records which fitted into the heap.
+ *
  * @see SelectExecutionPlanner#handleDistinct
  */
 public class DistinctExecutionStep extends AbstractExecutionStep {
@@ -46,6 +57,9 @@ public class DistinctExecutionStep extends AbstractExecutionStep {
   /** Maximum number of distinct items allowed in the in-memory set. */
   private final long maxElementsAllowed;
 
+  /** Whether items beyond {@link #maxElementsAllowed} are spilled to disk instead of failing. */
+  private final boolean spillEnabled;
+
   /**
    * @param ctx              the query context (used to read the max-heap-elements config)
    * @param profilingEnabled true to enable the profiling of the execution (for SQL PROFILE)
@@ -59,12 +73,18 @@ public class DistinctExecutionStep extends AbstractExecutionStep {
             ? GlobalConfiguration.QUERY_MAX_HEAP_ELEMENTS_ALLOWED_PER_OP.getValueAsLong()
             : session.getConfiguration()
                 .getValueAsLong(GlobalConfiguration.QUERY_MAX_HEAP_ELEMENTS_ALLOWED_PER_OP);
+    spillEnabled = SpillFile.isEnabled(session);
   }
 
   @Override
   public ExecutionStream internalStart(CommandContext ctx) throws TimeoutException {
     assert prev != null;
     var resultSet = prev.start(ctx);
+    if (spillEnabled && maxElementsAllowed > 0) {
+      return new MultipleExecutionStream(
+          new SpillingDistinct(resultSet, ctx.getDatabaseSession()));
+    }
+
     Set<Result> pastItems = new HashSet<>();
     var pastRids = new RidSet();
 
@@ -123,6 +143,130 @@ public class DistinctExecutionStep extends AbstractExecutionStep {
     return pastItems.contains(nextValue);
   }
 
+  /**
+   * Deduplication which spills projected records beyond {@link #maxElementsAllowed} to hash
+   * partitioned files. The first stream it produces is the filtered upstream, every further stream
+   * returns the distinct records of one spilled partition.
+   *
+   * <p>A record goes to a partition only if it is not in the in-heap set and the set is full. The
+   * set does not change afterward, so every record equal to a spilled one is spilled too and lands
+   * in the same partition. Partitions are processed the same way with an empty set, records which
+   * overflow a partition are partitioned again on the next level.
+   */
+  private final class SpillingDistinct implements ExecutionStreamProducer {
+
+    private final ExecutionStream upstream;
+    private final DatabaseSessionEmbedded session;
+    private final RidSet pastRids = new RidSet();
+    private Set<Result> pastItems = new HashSet<>();
+
+    private final ArrayDeque<SpillPartitions> pending = new ArrayDeque<>();
+    @Nullable private SpillPartitions overflow;
+    private boolean upstreamReturned;
+
+    private SpillingDistinct(ExecutionStream upstream, DatabaseSessionEmbedded session) {
+      this.upstream = upstream;
+      this.session = session;
+    }
+
+    @Override
+    public boolean hasNext(CommandContext ctx) {
+      if (!upstreamReturned) {
+        return true;
+      }
+
+      finishOverflow();
+      while (!pending.isEmpty()) {
+        if (pending.peekFirst().hasNext()) {
+          return true;
+        }
+        pending.pollFirst().close();
+      }
+      return false;
+    }
+
+    @Override
+    public ExecutionStream next(CommandContext ctx) {
+      if (!upstreamReturned) {
+        upstreamReturned = true;
+        return upstream.filter((result, context) -> filterUpstream(result));
+      }
+      if (!hasNext(ctx)) {
+        throw new IllegalStateException();
+      }
+
+      var partitions = pending.peekFirst();
+      pastItems = new HashSet<>();
+      var distinct = new ArrayList<Result>();
+      try (var partition = partitions.poll()) {
+        var reader = partition.openReader();
+        while (reader.hasNext()) {
+          var item = reader.next();
+          if (add(item, partitions.level() + 1)) {
+            distinct.add(item);
+          }
+        }
+      }
+      pastItems = new HashSet<>();
+      return ExecutionStream.resultIterator(distinct.iterator());
+    }
+
+    @Nullable
+    private Result filterUpstream(Result result) {
+      if (result.isEntity()) {
+        var identity = result.asEntityOrNull().getIdentity();
+        if (identity.getCollectionId() >= 0 && identity.getCollectionPosition() >= 0) {
+          return pastRids.add(identity) ? result : null;
+        }
+      }
+      return add(result, 0) ? result : null;
+    }
+
+    /**
+     * Adds a projected record to the in-heap set, or to the spill partitions of the given level
+     * once the set is full.
+     *
+     * @return true if the record is seen for the first time and is kept in the heap
+     */
+    private boolean add(Result result, int level) {
+      if (pastItems.contains(result)) {
+        return false;
+      }
+      if (pastItems.size() < maxElementsAllowed) {
+        pastItems.add(result);
+        return true;
+      }
+
+      if (overflow == null) {
+        overflow = new SpillPartitions(session, level);
+      }
+      overflow.write(result.hashCode(), result);
+      return false;
+    }
+
+    private void finishOverflow() {
+      if (overflow != null) {
+        pending.addLast(overflow);
+        overflow = null;
+      }
+    }
+
+    @Override
+    public void close(CommandContext ctx) {
+      if (!upstreamReturned) {
+        upstream.close(ctx);
+      }
+      pastItems.clear();
+      if (overflow != null) {
+        overflow.close();
+        overflow = null;
+      }
+      while (!pending.isEmpty()) {
+        pending.pollFirst().close();
+      }
+    }
+  }
+
   /**
    * No-op: DISTINCT does not propagate timeout signals. The terminal
    * {@link AccumulatingTimeoutStep} handles timeout enforcement, and propagating
@@ -226,6 +226,11 @@ public class FetchFromClassExecutionStep extends AbstractExecutionStep {
     return true;
   }
 
+  /** Returns the IDs of the collections which are scanned by this step. */
+  int[] getCollectionIds() {
+    return collectionIds;
+  }
+
   @Override
   public ExecutionStep copy(CommandContext ctx) {
     var result = new FetchFromClassExecutionStep(ctx, profilingEnabled);
@@ -90,6 +90,11 @@ public class FetchFromCollectionExecutionStep extends AbstractExecutionStep {
     return result;
   }
 
+  /** Returns the ID of the collection which is scanned by this step. */
+  int getCollectionId() {
+    return collectionId;
+  }
+
   public void setOrder(Object order) {
     this.order = order;
   }
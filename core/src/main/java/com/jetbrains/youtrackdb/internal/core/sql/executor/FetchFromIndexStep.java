@@ -49,6 +49,7 @@ import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -465,7 +466,7 @@ public class FetchFromIndexStep extends AbstractExecutionStep {
                       addStreamIfNew(stream, streams, acquiredStreams);
                     } else {
                       stream =
-                          index.streamEntriesBetween(session,
+                          streamEntriesBetween(session, index,
                               from, fromKeyIncluded, to, toKeyIncluded, isOrderAsc);
                       addStreamIfNew(stream, streams, acquiredStreams);
                     }
@@ -481,11 +482,7 @@ public class FetchFromIndexStep extends AbstractExecutionStep {
       //  Decision tree:
       //    supportsOrderedIterations?
       //      YES -> streamEntriesBetween(from, to)      [range scan]
-      //      NO  -> allEqualities?
-      //               YES -> streamEntries(key)          [point lookup]
-      //               NO  -> isFullTextIndex?
-      //                        YES -> streamEntries(key)  [full-text lookup]
-      //                        NO  -> UnsupportedOperationException
+      //      NO  -> streamEntries(key)                  [point lookup, from == to]
       Stream<RawPair<Object, RID>> stream;
       var from = toBetweenIndexKey(transaction, indexDef, secondValue);
       var to = toBetweenIndexKey(transaction, indexDef, thirdValue);
@@ -511,13 +508,13 @@ public class FetchFromIndexStep extends AbstractExecutionStep {
             var fromVal = fromIter.next();
             var toVal = toIter.next();
 
-            stream = index.streamEntriesBetween(session, fromVal, fromKeyIncluded, toVal,
+            stream = streamEntriesBetween(session, index, fromVal, fromKeyIncluded, toVal,
                 toKeyIncluded,
                 isOrderAsc);
             addStreamIfNew(stream, streams, acquiredStreams);
           }
         } else {
-          stream = index.streamEntriesBetween(session, from, fromKeyIncluded, to, toKeyIncluded,
+          stream = streamEntriesBetween(session, index, from, fromKeyIncluded, to, toKeyIncluded,
               isOrderAsc);
           addStreamIfNew(stream, streams, acquiredStreams);
         }
@@ -525,6 +522,21 @@ public class FetchFromIndexStep extends AbstractExecutionStep {
     }
   }
 
+  /**
+   * Streams the entries between {@code from} and {@code to}. Indexes without ordered iterations
+   * are only planned for complete equality keys, so for them the bounds are the same key and it is
+   * looked up directly instead of through a range scan.
+   */
+  private static Stream<RawPair<Object, RID>> streamEntriesBetween(
+      DatabaseSessionEmbedded session, Index index, Object from, boolean fromInclusive, Object to,
+      boolean toInclusive, boolean ascOrder) {
+    if (!index.supportsOrderedIterations() && fromInclusive && toInclusive
+        && Objects.equals(from, to)) {
+      return index.streamEntries(session, Collections.singletonList(from), ascOrder);
+    }
+    return index.streamEntriesBetween(session, from, fromInclusive, to, toInclusive, ascOrder);
+  }
+
   /**
    * Returns a stream of key-RID pairs for entries stored under a {@code null} index key.
    * The returned pairs have {@code null} as the key component and the stored RID as the value.
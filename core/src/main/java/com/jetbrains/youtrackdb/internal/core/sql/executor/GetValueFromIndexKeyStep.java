@@ -0,0 +1,138 @@
+package com.jetbrains.youtrackdb.internal.core.sql.executor;
+
+import com.jetbrains.youtrackdb.internal.common.concur.TimeoutException;
+import com.jetbrains.youtrackdb.internal.core.command.CommandContext;
+import com.jetbrains.youtrackdb.internal.core.db.record.record.Identifiable;
+import com.jetbrains.youtrackdb.internal.core.query.ExecutionStep;
+import com.jetbrains.youtrackdb.internal.core.query.Result;
+import com.jetbrains.youtrackdb.internal.core.sql.executor.resultset.ExecutionStream;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+
+/**
+ * Intermediate step of an index-only scan: builds each row from the key of the index entry instead
+ * of loading the record, used when the index covers every property the query reads.
+ *
+ * <pre>
+ *  Pipeline (covering index):
+ *    FetchFromIndexStep -&gt; GetValueFromIndexKeyStep -&gt; [OrderByStep] -&gt; [Projection]
+ *                          ^^^ this step ^^^
+ *
+ *  Index on [project, created] including [name, status]
+ *  Input:  { key: [7, 2024-05-01, "Crash", "open"], rid: #10:5 }  (index entry)
+ *  Output: { project: 7, created: 2024-05-01, name: "Crash", status: "open" }
+ * </pre>
+ *
+ * <p>Entries are filtered by collection ID exactly like {@link GetValueFromIndexEntryStep}, so
+ * records of classes outside the query target are skipped without being loaded.
+ *
+ * @see SelectExecutionPlanner#isIndexOnlyScanPossible
+ */
+public class GetValueFromIndexKeyStep extends AbstractExecutionStep {
+
+  /** Names of the index properties, in the order of the index key components. */
+  private final List<String> properties;
+
+  /**
+   * Collection IDs to filter by (only entries of records from these collections pass through).
+   * Null means no filtering (all collections accepted).
+   */
+  @Nullable private final IntArrayList filterCollectionIds;
+
+  /**
+   * @param properties          names of the index properties, in index key order
+   * @param ctx                 the execution context
+   * @param filterCollectionIds only extract values from these collections. Pass null if no
+   *                            filtering is needed
+   * @param profilingEnabled    enable profiling
+   */
+  public GetValueFromIndexKeyStep(
+      List<String> properties, CommandContext ctx, @Nullable IntArrayList filterCollectionIds,
+      boolean profilingEnabled) {
+    super(ctx, profilingEnabled);
+    this.properties = properties;
+    this.filterCollectionIds = filterCollectionIds;
+  }
+
+  @Override
+  public ExecutionStream internalStart(CommandContext ctx) throws TimeoutException {
+    if (prev == null) {
+      throw new IllegalStateException("GetValueFromIndexKeyStep requires a previous step");
+    }
+    var resultSet = prev.start(ctx);
+    return resultSet.filter(this::filterMap);
+  }
+
+  @Nullable
+  private Result filterMap(Result result, CommandContext ctx) {
+    if (!(result.getProperty("rid") instanceof Identifiable id)) {
+      return null;
+    }
+    if (filterCollectionIds != null) {
+      var rid = id.getIdentity();
+      var found = false;
+      for (int filterCollectionId : filterCollectionIds) {
+        // Negative collection ID means new (not-yet-committed) record; allow through.
+        if (rid.getCollectionId() < 0 || filterCollectionId == rid.getCollectionId()) {
+          found = true;
+          break;
+        }
+      }
+      if (!found) {
+        return null;
+      }
+    }
+
+    var row = new ResultInternal(ctx.getDatabaseSession());
+    var key = result.getProperty("key");
+    if (properties.size() == 1) {
+      row.setProperty(properties.getFirst(), key);
+    } else {
+      // composite keys are converted to lists by FetchFromIndexStep
+      var keys = (List<?>) key;
+      for (var i = 0; i < properties.size(); i++) {
+        row.setProperty(properties.get(i), i < keys.size() ? keys.get(i) : null);
+      }
+    }
+    return row;
+  }
+
+  @Override
+  public String prettyPrint(int depth, int indent) {
+    var spaces = ExecutionStepInternal.getIndent(depth, indent);
+    var result = spaces + "+ EXTRACT VALUES FROM INDEX KEY " + properties;
+    if (profilingEnabled) {
+      result += " (" + getCostFormatted() + ")";
+    }
+    if (filterCollectionIds != null) {
+      result += "\n";
+      result += spaces;
+      result += "  filtering collections [";
+      result +=
+          filterCollectionIds
+              .intStream()
+              .boxed()
+              .map(String::valueOf)
+              .collect(Collectors.joining(","));
+      result += "]";
+    }
+    return result;
+  }
+
+  /**
+   * Not cacheable: the planner chooses an index-only scan only when no property level security
+   * applies to the index properties for the planning session, which other sessions may not share.
+   */
+  @Override
+  public boolean canBeCached() {
+    return false;
+  }
+
+  @Override
+  public ExecutionStep copy(CommandContext ctx) {
+    return new GetValueFromIndexKeyStep(
+        this.properties, ctx, this.filterCollectionIds, this.profilingEnabled);
+  }
+}
@@ -235,6 +235,9 @@ public final class HardwiredCountOptimizations {
     }
 
     for (var classIndex : targetClass.getClassIndexesInternal()) {
+      if (!ctx.getDatabaseSession().isIndexUsableByQueries(classIndex)) {
+        continue;
+      }
       var fields = classIndex.getDefinition().getProperties();
       if (fields.size() == 1
           && fields.getFirst()
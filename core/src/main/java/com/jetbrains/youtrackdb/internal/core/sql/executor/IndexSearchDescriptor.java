@@ -504,6 +504,9 @@ public class IndexSearchDescriptor {
    *     defensive copy if they need the original list afterward.
    */
   public boolean fullySorted(List<String> orderItems) {
+    if (!index.supportsOrderedIterations()) {
+      return false;
+    }
     var conditions = getSubBlocks();
     List<String> conditionItems = new ArrayList<>();
 
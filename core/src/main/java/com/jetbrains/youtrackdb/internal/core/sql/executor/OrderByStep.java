@@ -3,14 +3,16 @@ package com.jetbrains.youtrackdb.internal.core.sql.executor;
 import com.jetbrains.youtrackdb.api.config.GlobalConfiguration;
 import com.jetbrains.youtrackdb.internal.common.concur.TimeoutException;
 import com.jetbrains.youtrackdb.internal.core.command.CommandContext;
+import com.jetbrains.youtrackdb.internal.core.db.DatabaseSessionEmbedded;
 import com.jetbrains.youtrackdb.internal.core.exception.CommandExecutionException;
 import com.jetbrains.youtrackdb.internal.core.query.ExecutionStep;
 import com.jetbrains.youtrackdb.internal.core.query.Result;
 import com.jetbrains.youtrackdb.internal.core.sql.executor.resultset.ExecutionStream;
+import com.jetbrains.youtrackdb.internal.core.sql.executor.spill.ExternalSorter;
+import com.jetbrains.youtrackdb.internal.core.sql.executor.spill.SpillFile;
 import com.jetbrains.youtrackdb.internal.core.sql.parser.SQLOrderBy;
 import com.jetbrains.youtrackdb.internal.core.sql.parser.SQLOrderByItem;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.PriorityQueue;
@@ -39,6 +41,12 @@ import javax.annotation.Nullable;
  * {@code QUERY_MAX_HEAP_ELEMENTS_ALLOWED_PER_OP} and throws a
  * {@link CommandExecutionException} if the result set exceeds the configured limit.
  *
+ * <h2>External path (spill to disk)</h2>
+ * When {@code QUERY_SPILL_TO_DISK_ENABLED} is set, exceeding the limit does not fail the query:
+ * the rows are sorted by an {@link ExternalSorter}, which writes sorted runs of at most
+ * {@code QUERY_MAX_HEAP_ELEMENTS_ALLOWED_PER_OP} rows to disk and merges them on output. A LIMIT
+ * larger than the heap limit is handled the same way, the merged output is truncated.
+ *
  * @see SelectExecutionPlanner#handleOrderBy
  * @see SelectExecutionPlanner#handleProjectionsBlock
  */
@@ -147,8 +155,7 @@ public class OrderByStep extends AbstractExecutionStep {
       return upstream;
     }
 
-    var results = init(upstream, ctx);
-    return ExecutionStream.resultIterator(results.iterator());
+    return init(upstream, ctx);
   }
 
   /**
@@ -163,23 +170,38 @@ public class OrderByStep extends AbstractExecutionStep {
    *
    * <p>When {@code maxResults} is not set, all rows are collected and sorted once.
    *
+   * <p>When spilling to disk is enabled and the rows (or {@code maxResults}) exceed
+   * {@code QUERY_MAX_HEAP_ELEMENTS_ALLOWED_PER_OP}, the rows are sorted externally.
+   *
    * @param upstream the already-started upstream stream to pull from
    * @param ctx      the command context
-   * @return the sorted (and possibly truncated) list of results
+   * @return the sorted (and possibly truncated) results
    * @throws CommandExecutionException if the number of elements exceeds
-   *         {@code QUERY_MAX_HEAP_ELEMENTS_ALLOWED_PER_OP}
+   *         {@code QUERY_MAX_HEAP_ELEMENTS_ALLOWED_PER_OP} and spilling is disabled
    */
-  private List<Result> init(ExecutionStream upstream, CommandContext ctx) {
+  private ExecutionStream init(ExecutionStream upstream, CommandContext ctx) {
     var timeoutBegin = System.currentTimeMillis();
+    var maxElementsAllowed =
+        GlobalConfiguration.QUERY_MAX_HEAP_ELEMENTS_ALLOWED_PER_OP.getValueAsLong();
+    var session = ctx.getDatabaseSessionIfBound();
+    var spill = maxElementsAllowed >= 0 && session != null && SpillFile.isEnabled(session);
 
     if (maxResults != null) {
       if (maxResults == 0) {
         upstream.close(ctx);
-        return Collections.emptyList();
+        return ExecutionStream.empty();
+      }
+      if (spill && maxResults > maxElementsAllowed) {
+        return initExternal(upstream, ctx, session, maxElementsAllowed, timeoutBegin)
+            .limit(maxResults);
       }
-      return initBoundedHeap(upstream, ctx, timeoutBegin);
+      return ExecutionStream.resultIterator(
+          initBoundedHeap(upstream, ctx, timeoutBegin).iterator());
     }
-    return initUnbounded(upstream, ctx, timeoutBegin);
+    if (spill) {
+      return initExternal(upstream, ctx, session, maxElementsAllowed, timeoutBegin);
+    }
+    return ExecutionStream.resultIterator(initUnbounded(upstream, ctx, timeoutBegin).iterator());
   }
 
   /**
@@ -284,6 +306,34 @@ public class OrderByStep extends AbstractExecutionStep {
     }
   }
 
+  /**
+   * External path: rows are passed to an {@link ExternalSorter} which keeps at most
+   * {@code maxElementsAllowed} of them in the heap. The returned stream deletes the spill files
+   * when it is closed.
+   */
+  private ExecutionStream initExternal(
+      ExecutionStream upstream, CommandContext ctx, DatabaseSessionEmbedded session,
+      long maxElementsAllowed, long timeoutBegin) {
+    var sorter =
+        ExternalSorter.ofResults(
+            session, (a, b) -> orderBy.compare(a, b, ctx),
+            (int) Math.min(maxElementsAllowed, Integer.MAX_VALUE));
+    try {
+      while (upstream.hasNext(ctx)) {
+        if (timeoutMillis > 0 && timeoutBegin + timeoutMillis < System.currentTimeMillis()) {
+          sendTimeout();
+        }
+        sorter.add(upstream.next(ctx));
+      }
+      return ExecutionStream.resultIterator(sorter.sorted()).onClose(c -> sorter.close());
+    } catch (RuntimeException | Error e) {
+      sorter.close();
+      throw e;
+    } finally {
+      upstream.close(ctx);
+    }
+  }
+
   @Override
   public String prettyPrint(int depth, int indent) {
     var result = ExecutionStepInternal.getIndent(depth, indent) + "+ " + orderBy;
@@ -1,23 +1,48 @@
 package com.jetbrains.youtrackdb.internal.core.sql.executor;
 
+import com.jetbrains.youtrackdb.api.config.GlobalConfiguration;
 import com.jetbrains.youtrackdb.internal.common.concur.TimeoutException;
+import com.jetbrains.youtrackdb.internal.common.log.LogManager;
+import com.jetbrains.youtrackdb.internal.core.command.BasicCommandContext;
 import com.jetbrains.youtrackdb.internal.core.command.CommandContext;
+import com.jetbrains.youtrackdb.internal.core.db.DatabaseSessionEmbedded;
+import com.jetbrains.youtrackdb.internal.core.db.YouTrackDBInternalEmbedded;
+import com.jetbrains.youtrackdb.internal.core.db.record.record.RID;
+import com.jetbrains.youtrackdb.internal.core.exception.BaseException;
+import com.jetbrains.youtrackdb.internal.core.exception.CommandExecutionException;
+import com.jetbrains.youtrackdb.internal.core.exception.CommandInterruptedException;
 import com.jetbrains.youtrackdb.internal.core.query.ExecutionPlan;
 import com.jetbrains.youtrackdb.internal.core.query.ExecutionStep;
+import com.jetbrains.youtrackdb.internal.core.query.Result;
 import com.jetbrains.youtrackdb.internal.core.sql.executor.resultset.ExecutionStream;
 import com.jetbrains.youtrackdb.internal.core.sql.executor.resultset.ExecutionStreamProducer;
 import com.jetbrains.youtrackdb.internal.core.sql.executor.resultset.MultipleExecutionStream;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.atomicoperations.AtomicOperationsTable.AtomicOperationsSnapshot;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 
 /**
  * Source step that executes multiple sub-plans and concatenates their result streams.
  *
- * <p>Despite the name "Parallel", execution is currently <b>sequential</b> -- sub-plans
- * are iterated one at a time via a {@link MultipleExecutionStream}. The name reflects
- * the logical parallelism: each sub-plan represents an independent OR branch or
- * subclass of a query that could, in principle, be executed concurrently.
+ * <p>By default sub-plans are executed <b>sequentially</b> -- they are iterated one at a
+ * time via a {@link MultipleExecutionStream} and results are returned in the order of
+ * sub-plans. If {@link GlobalConfiguration#QUERY_PARALLEL_AUTO} is enabled and the
+ * estimated number of records fetched by all sub-plans is at least
+ * {@link GlobalConfiguration#QUERY_PARALLEL_MINIMUM_RECORDS}, sub-plans are executed
+ * <b>concurrently</b>: each of them runs on a worker of the shared executor in its own
+ * session, inside a read-only transaction which observes the same snapshot as the
+ * transaction of the query. Results are passed to the consumer through a bounded queue
+ * of {@link GlobalConfiguration#QUERY_PARALLEL_RESULT_QUEUE_SIZE} items, so their order
+ * is not defined. See {@link #snapshotForConcurrentExecution} for the full list of
+ * conditions.
  *
  * <p>Common uses:
  * <ul>
@@ -58,6 +83,11 @@ public class ParallelExecStep extends AbstractExecutionStep {
       prev.start(ctx).close(ctx);
     }
 
+    var snapshot = snapshotForConcurrentExecution(ctx);
+    if (snapshot != null) {
+      return new ConcurrentExecutionStream(ctx, snapshot);
+    }
+
     var stepsIter = subExecutionPlans;
 
     // Adapts the sub-plan list into a producer for MultipleExecutionStream (lazy sequential concatenation).
@@ -84,6 +114,103 @@ public class ParallelExecStep extends AbstractExecutionStep {
     return new MultipleExecutionStream(res);
   }
 
+  /**
+   * Decides whether sub-plans may be executed concurrently and returns the snapshot which workers
+   * should observe, or {@code null} if sub-plans have to be executed sequentially.
+   *
+   * <p>Sub-plans are executed by other sessions, so concurrent execution is possible only if:
+   * <ul>
+   *   <li>there are at least two sub-plans and profiling is disabled (step statistics are
+   *       collected in the context of the query);</li>
+   *   <li>the query runs in a transaction which does not contain any changes, otherwise workers
+   *       would not see them;</li>
+   *   <li>the context has neither parent context nor variables, which can not be shared with
+   *       other sessions;</li>
+   *   <li>the query itself is not executed by a worker, nested steps are executed
+   *       sequentially;</li>
+   *   <li>all sub-plans consist only of fetch, filter and distinct steps, which produce records
+   *       and can be copied to other session;</li>
+   *   <li>the estimated number of records fetched by sub-plans is not less than
+   *       {@link GlobalConfiguration#QUERY_PARALLEL_MINIMUM_RECORDS}.</li>
+   * </ul>
+   */
+  @Nullable private AtomicOperationsSnapshot snapshotForConcurrentExecution(CommandContext ctx) {
+    if (subExecutionPlans.size() < 2 || profilingEnabled) {
+      return null;
+    }
+
+    var session = ctx.getDatabaseSessionIfBound();
+    if (session == null) {
+      return null;
+    }
+
+    var configuration = session.getConfiguration();
+    if (configuration == null
+        || !configuration.getValueAsBoolean(GlobalConfiguration.QUERY_PARALLEL_AUTO)) {
+      return null;
+    }
+
+    if (ctx.getParent() != null || !ctx.getVariables().isEmpty()) {
+      return null;
+    }
+
+    var transaction = session.getActiveTransactionOrNull();
+    if (transaction == null
+        || transaction.isOnSharedSnapshot()
+        || transaction.getEntryCount() > 0
+        || transaction.getAtomicOperation() == null) {
+      return null;
+    }
+
+    var estimatedRecords = 0L;
+    for (var plan : subExecutionPlans) {
+      var planRecords = estimateFetchedRecords(plan, ctx);
+      if (planRecords < 0) {
+        return null;
+      }
+      estimatedRecords += planRecords;
+    }
+
+    if (estimatedRecords
+        < configuration.getValueAsLong(GlobalConfiguration.QUERY_PARALLEL_MINIMUM_RECORDS)) {
+      return null;
+    }
+
+    return transaction.getAtomicOperation().getAtomicOperationsSnapshot();
+  }
+
+  /**
+   * Estimates the number of records fetched by the sub-plan, or returns {@code -1} if the
+   * sub-plan contains steps which can not be executed by a worker. Index lookups without
+   * statistics are counted as empty, so they never enable concurrent execution on their own.
+   */
+  private static long estimateFetchedRecords(InternalExecutionPlan plan, CommandContext ctx) {
+    if (!(plan instanceof SelectExecutionPlan selectPlan)) {
+      return -1;
+    }
+
+    var session = ctx.getDatabaseSession();
+    var records = 0L;
+    for (var step : selectPlan.getSteps()) {
+      var stepClass = step.getClass();
+      if (stepClass == FetchFromIndexStep.class) {
+        records += Math.max(0, ((FetchFromIndexStep) step).getDesc().estimateHits(ctx));
+      } else if (stepClass == FetchFromClassExecutionStep.class) {
+        records += session.countCollectionElements(
+            ((FetchFromClassExecutionStep) step).getCollectionIds());
+      } else if (stepClass == FetchFromCollectionExecutionStep.class) {
+        records += session.countCollectionElements(
+            ((FetchFromCollectionExecutionStep) step).getCollectionId());
+      } else if (stepClass != GetValueFromIndexEntryStep.class
+          && stepClass != FilterStep.class
+          && stepClass != DistinctExecutionStep.class) {
+        return -1;
+      }
+    }
+
+    return records;
+  }
+
   @Override
   public String prettyPrint(int depth, int indent) {
     var result = new StringBuilder();
@@ -210,4 +337,206 @@ public class ParallelExecStep extends AbstractExecutionStep {
         ctx,
         profilingEnabled);
   }
+
+  /** Marks that a worker has fetched all results of its sub-plan. */
+  private static final Object SUB_PLAN_END = new Object();
+
+  /** Passes the failure of a worker to the consumer. */
+  private record WorkerFailure(Throwable error) {
+
+  }
+
+  /**
+   * Stream which executes every sub-plan on a worker of the shared executor and returns their
+   * results as soon as they are produced.
+   *
+   * <p>Each worker opens its own session for the user of the query, begins a read-only
+   * transaction on the snapshot of the query's transaction, executes a copy of its sub-plan and
+   * puts results into the bounded queue, blocking while the queue is full. Records are passed as
+   * RIDs and are loaded lazily by the consumer's session, which sees the same snapshot; other
+   * results are detached from the worker's session. On close the consumer stops the workers and
+   * waits up to {@link #CLOSE_TIMEOUT_MS} for them to finish, so that sub-plans do not keep
+   * running after the query or its transaction is over. Workers check for close before they
+   * start and after every produced result.
+   */
+  private final class ConcurrentExecutionStream implements ExecutionStream {
+
+    private static final long OFFER_TIMEOUT_MS = 100;
+    private static final long CLOSE_TIMEOUT_MS = 10_000;
+
+    private final DatabaseSessionEmbedded session;
+    private final String databaseName;
+    private final BlockingQueue<Object> queue;
+    private final CountDownLatch finishedWorkers;
+
+    private int runningWorkers;
+    private Result nextResult;
+    private volatile boolean closed;
+
+    private ConcurrentExecutionStream(CommandContext ctx, AtomicOperationsSnapshot snapshot) {
+      this.session = ctx.getDatabaseSession();
+      this.databaseName = session.getDatabaseName();
+
+      var queueSize = session.getConfiguration()
+          .getValueAsInteger(GlobalConfiguration.QUERY_PARALLEL_RESULT_QUEUE_SIZE);
+      this.queue = new ArrayBlockingQueue<>(Math.max(queueSize, 1));
+
+      var youTrack = session.getSharedContext().getYouTrackDB();
+      var userName = session.getCurrentUserName();
+      var inputParameters = ctx.getInputParameters();
+
+      this.finishedWorkers = new CountDownLatch(subExecutionPlans.size());
+      for (var plan : subExecutionPlans) {
+        runningWorkers++;
+        youTrack.execute(() -> runWorker(youTrack, userName, plan, snapshot, inputParameters));
+      }
+    }
+
+    private void runWorker(YouTrackDBInternalEmbedded youTrack, @Nullable String userName,
+        InternalExecutionPlan plan, AtomicOperationsSnapshot snapshot,
+        Map<Object, Object> inputParameters) {
+      try {
+        if (closed) {
+          return;
+        }
+
+        Object lastItem = SUB_PLAN_END;
+        try (var workerSession = userName != null
+            ? youTrack.openNoAuthenticate(databaseName, userName)
+            : youTrack.openNoAuthorization(databaseName)) {
+          executeSubPlan(workerSession, plan, snapshot, inputParameters);
+        } catch (Throwable t) {
+          lastItem = new WorkerFailure(t);
+        }
+
+        try {
+          offer(lastItem);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      } finally {
+        finishedWorkers.countDown();
+      }
+    }
+
+    private void executeSubPlan(DatabaseSessionEmbedded workerSession,
+        InternalExecutionPlan plan, AtomicOperationsSnapshot snapshot,
+        Map<Object, Object> inputParameters) throws InterruptedException {
+      workerSession.beginReadOnly(snapshot);
+      try {
+        var workerCtx = new BasicCommandContext(workerSession);
+        workerCtx.setInputParameters(inputParameters);
+
+        var workerPlan = plan.copy(workerCtx);
+        try {
+          var stream = workerPlan.start();
+          try {
+            while (!closed && stream.hasNext(workerCtx)) {
+              var result = stream.next(workerCtx);
+              offer(result.isIdentifiable() ? result.getIdentity() : result.detach());
+            }
+          } finally {
+            stream.close(workerCtx);
+          }
+        } finally {
+          workerPlan.close();
+        }
+      } finally {
+        workerSession.rollback();
+      }
+    }
+
+    /**
+     * Puts the item into the queue, waiting while the queue is full. The item is dropped if the
+     * consumer closes the stream in the meantime.
+     */
+    private void offer(Object item) throws InterruptedException {
+      while (!closed) {
+        if (queue.offer(item, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+          return;
+        }
+      }
+    }
+
+    @Override
+    public boolean hasNext(CommandContext ctx) {
+      if (nextResult != null) {
+        return true;
+      }
+
+      while (runningWorkers > 0) {
+        final Object item;
+        try {
+          item = queue.take();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          close(ctx);
+          throw new CommandInterruptedException(session, "The command has been interrupted");
+        }
+
+        if (item == SUB_PLAN_END) {
+          runningWorkers--;
+        } else if (item instanceof WorkerFailure failure) {
+          close(ctx);
+          throw rethrow(failure.error());
+        } else if (item instanceof RID rid) {
+          nextResult = new ResultInternal(session, rid);
+          return true;
+        } else {
+          var result = (ResultInternal) item;
+          result.setSession(session);
+          nextResult = result;
+          return true;
+        }
+      }
+
+      return false;
+    }
+
+    private RuntimeException rethrow(Throwable error) {
+      if (error instanceof RuntimeException runtimeException) {
+        return runtimeException;
+      }
+      if (error instanceof Error e) {
+        throw e;
+      }
+
+      return BaseException.wrapException(
+          new CommandExecutionException(session,
+              "Error during parallel execution of the query"), error, session);
+    }
+
+    @Override
+    public Result next(CommandContext ctx) {
+      if (!hasNext(ctx)) {
+        throw new NoSuchElementException();
+      }
+
+      var result = nextResult;
+      nextResult = null;
+      return result;
+    }
+
+    @Override
+    public void close(CommandContext ctx) {
+      if (closed) {
+        return;
+      }
+
+      closed = true;
+      runningWorkers = 0;
+      nextResult = null;
+      queue.clear();
+
+      try {
+        if (!finishedWorkers.await(CLOSE_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+          LogManager.instance().warn(this,
+              "%d workers of parallel query execution did not stop in %d ms after close",
+              finishedWorkers.getCount(), CLOSE_TIMEOUT_MS);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
 }
@@ -3,18 +3,24 @@ package com.jetbrains.youtrackdb.internal.core.sql.executor;
 import com.jetbrains.youtrackdb.api.config.GlobalConfiguration;
 import com.jetbrains.youtrackdb.internal.common.collection.MultiValue;
 import com.jetbrains.youtrackdb.internal.common.util.PairIntegerObject;
+import com.jetbrains.youtrackdb.internal.core.collate.DefaultCollate;
 import com.jetbrains.youtrackdb.internal.core.command.BasicCommandContext;
 import com.jetbrains.youtrackdb.internal.core.command.CommandContext;
 import com.jetbrains.youtrackdb.internal.core.db.DatabaseSessionEmbedded;
 import com.jetbrains.youtrackdb.internal.core.db.record.record.Identifiable;
 import com.jetbrains.youtrackdb.internal.core.exception.CommandExecutionException;
 import com.jetbrains.youtrackdb.internal.core.id.RecordIdInternal;
+import com.jetbrains.youtrackdb.internal.core.index.CompositeIndexDefinition;
 import com.jetbrains.youtrackdb.internal.core.index.Index;
+import com.jetbrains.youtrackdb.internal.core.index.IndexDefinitionFactory;
+import com.jetbrains.youtrackdb.internal.core.index.IndexDefinitionMultiValue;
 import com.jetbrains.youtrackdb.internal.core.metadata.schema.PropertyTypeInternal;
+import com.jetbrains.youtrackdb.internal.core.metadata.schema.SchemaClassInternal;
 import com.jetbrains.youtrackdb.internal.core.metadata.schema.SchemaInternal;
 import com.jetbrains.youtrackdb.internal.core.metadata.schema.schema.Collate;
 import com.jetbrains.youtrackdb.internal.core.metadata.schema.schema.PropertyType;
 import com.jetbrains.youtrackdb.internal.core.metadata.schema.schema.SchemaClass;
+import com.jetbrains.youtrackdb.internal.core.metadata.security.ImmutableUser;
 import com.jetbrains.youtrackdb.internal.core.query.Result;
 import com.jetbrains.youtrackdb.internal.core.sql.operator.QueryOperatorEquals;
 import com.jetbrains.youtrackdb.internal.core.sql.parser.AggregateProjectionSplit;
@@ -189,6 +195,7 @@ public class SelectExecutionPlanner {
     info.whereClause =
         this.statement.getWhereClause() == null ? null : this.statement.getWhereClause().copy();
     info.whereClause = translateLucene(info.whereClause);
+    info.whereClause = addSecurityReadPredicate(info.whereClause, ctx);
     info.perRecordLetClause =
         this.statement.getLetClause() == null ? null : this.statement.getLetClause().copy();
     info.groupBy = this.statement.getGroupBy() == null ? null : this.statement.getGroupBy().copy();
@@ -210,6 +217,71 @@ public class SelectExecutionPlanner {
     }
   }
 
+  /**
+   * ANDs the READ predicate of the security policies of the current user into the WHERE clause of
+   * a query on a class, so that the records hidden by the policy are filtered out by the fetch
+   * step (or by an index on the predicate properties) instead of being loaded and rejected one by
+   * one. Only predicates that are plain comparisons of record properties with constants are
+   * added; every loaded record is still checked by the security, so a predicate that is not
+   * pushed down only costs performance.
+   */
+  @Nullable
+  private SQLWhereClause addSecurityReadPredicate(
+      @Nullable SQLWhereClause whereClause, CommandContext ctx) {
+    var target = info.target == null ? null : info.target.getItem();
+    if (target == null || target.getIdentifier() == null) {
+      return whereClause;
+    }
+    var className = target.getIdentifier().getStringValue();
+    var session = ctx.getDatabaseSession();
+    var schemaClass = session.getMetadata().getImmutableSchemaSnapshot()
+        .getClassInternal(className);
+    if (schemaClass == null) {
+      return whereClause;
+    }
+    var predicate = session.getSharedContext().getSecurity()
+        .getReadPredicateForClass(session, className);
+    if (predicate == null || !isPushableSecurityPredicate(predicate, ctx, schemaClass)) {
+      return whereClause;
+    }
+
+    var result = new SQLWhereClause(-1);
+    if (whereClause == null || whereClause.getBaseExpression() == null) {
+      result.setBaseExpression(predicate);
+    } else {
+      var andBlock = new SQLAndBlock(-1);
+      andBlock.getSubBlocks().add(whereClause.getBaseExpression());
+      andBlock.getSubBlocks().add(predicate);
+      result.setBaseExpression(andBlock);
+    }
+    return result;
+  }
+
+  /**
+   * Checks that a security predicate depends on nothing but the properties of the record: after
+   * flattening, every condition has to compare a record property with a literal. Context
+   * variables (such as {@code $currentUser}), input parameters and function calls (such as
+   * {@code sysdate()}) are rejected on both sides, their values may differ between the executions
+   * of a cached plan.
+   */
+  private static boolean isPushableSecurityPredicate(
+      SQLBooleanExpression predicate, CommandContext ctx, SchemaClassInternal schemaClass) {
+    var flattened = predicate.flatten(ctx, schemaClass);
+    if (flattened == null || flattened.isEmpty()) {
+      return false;
+    }
+    for (var andBlock : flattened) {
+      for (var condition : andBlock.getSubBlocks()) {
+        if (!(condition instanceof SQLBinaryCondition binaryCondition)
+            || !binaryCondition.getLeft().isRecordProperty()
+            || !binaryCondition.getRight().isLiteralConstant()) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
   /**
    * Main entry point: builds and returns a fully assembled execution plan for the
    * SELECT statement that was passed to the constructor.
@@ -239,6 +311,11 @@ public class SelectExecutionPlanner {
     if (ctx.isSkipExpandPushDown()) {
       cacheKey += "\0skipExpandPushDown";
     }
+    // Plans may contain the READ predicates of the security policies of the current user's
+    // roles, so they are cached per role set.
+    if (session.getCurrentUser() instanceof ImmutableUser user) {
+      cacheKey += "\0roles:" + user.getRolesKey();
+    }
     if (useCache && !enableProfiling && statement.executinPlanCanBeCached(session)) {
       var plan = YqlExecutionPlanCache.get(cacheKey, ctx, session);
       if (plan != null) {
@@ -2802,7 +2879,8 @@ public class SelectExecutionPlanner {
     }
 
     for (var idx : clazz.getIndexesInternal().stream()
-        .filter(i -> i.getDefinition() != null)
+        .filter(i -> i.getDefinition() != null && i.supportsOrderedIterations())
+        .filter(ctx.getDatabaseSession()::isIndexUsableByQueries)
         .toList()) {
       var indexFields = idx.getDefinition().getProperties();
       if (indexFields.size() < info.orderBy.getItems().size()) {
@@ -3077,6 +3155,93 @@ public class SelectExecutionPlanner {
         isHierarchyRoot);
   }
 
+  /**
+   * Checks whether the rows of an index search can be built from the index keys alone, without
+   * loading the records (an index-only scan, see {@link GetValueFromIndexKeyStep}). This requires
+   * that:
+   *
+   * <ul>
+   *   <li>the index keys hold the property values unchanged: plain (not multi-value) properties
+   *       with the default collate, and null values are indexed too;
+   *   <li>the query reads only index properties: the projection consists of plain index
+   *       properties, ORDER BY uses index properties or projection aliases, and no condition is left
+   *       for post-filtering;
+   *   <li>there is no grouping, aggregation, expansion, unwinding or LET clause;
+   *   <li>no property level security applies to the index properties.
+   * </ul>
+   *
+   * <p>Indexes created with included properties (see
+   * {@link IndexDefinitionFactory#INCLUDE_METADATA}) are the typical candidates.
+   */
+  private static boolean isIndexOnlyScanPossible(
+      IndexSearchDescriptor desc, QueryPlanningInfo info, CommandContext ctx) {
+    if (info.projection == null
+        || info.expand
+        || info.distinct
+        || info.unwind != null
+        || info.groupBy != null
+        || info.aggregateProjection != null
+        || info.preAggregateProjection != null
+        || info.globalLetClause != null
+        || info.perRecordLetClause != null
+        || (desc.getRemainingCondition() != null && !desc.getRemainingCondition().isEmpty())) {
+      return false;
+    }
+
+    var definition = desc.getIndex().getDefinition();
+    if (definition == null
+        || definition.getClassName() == null
+        || definition.isNullValuesIgnored()
+        || definition instanceof IndexDefinitionMultiValue) {
+      return false;
+    }
+    var leafDefinitions =
+        definition instanceof CompositeIndexDefinition composite
+            ? composite.getIndexDefinitions()
+            : List.of(definition);
+    for (var leaf : leafDefinitions) {
+      if (leaf instanceof IndexDefinitionMultiValue
+          || !(leaf.getCollate() == null || leaf.getCollate() instanceof DefaultCollate)) {
+        return false;
+      }
+    }
+
+    var properties = definition.getProperties();
+    Set<String> aliases = new HashSet<>();
+    for (var item : info.projection.getItems()) {
+      if (item.isAll()
+          || item.isExclude()
+          || item.getNestedProjection() != null
+          || item.getExpression() == null
+          || !item.getExpression().isBaseIdentifier()
+          || !properties.contains(item.getExpression().getDefaultAlias().getStringValue())) {
+        return false;
+      }
+      aliases.add(item.getProjectionAliasAsString());
+    }
+    if (info.orderBy != null) {
+      for (var item : info.orderBy.getItems()) {
+        if (item.getAlias() == null
+            || item.getRecordAttr() != null
+            || item.getRid() != null
+            || item.getModifier() != null
+            || item.getCollate() != null
+            || !(properties.contains(item.getAlias()) || aliases.contains(item.getAlias()))) {
+          return false;
+        }
+      }
+    }
+
+    var session = ctx.getDatabaseSession();
+    var security = session.getSharedContext().getSecurity();
+    for (var property : properties) {
+      if (Index.isLabelSecurityDefined(session, security, definition.getClassName(), property)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   /**
    * Converts a list of {@link IndexSearchDescriptor}s into concrete execution steps.
    *
@@ -3111,7 +3276,12 @@ public class SelectExecutionPlanner {
       } else {
         filterCollectionIds = IntArrayList.of(clazz.getPolymorphicCollectionIds());
       }
-      result.add(new GetValueFromIndexEntryStep(ctx, filterCollectionIds, profilingEnabled));
+      if (isIndexOnlyScanPossible(desc, info, ctx)) {
+        result.add(new GetValueFromIndexKeyStep(desc.getIndex().getDefinition().getProperties(),
+            ctx, filterCollectionIds, profilingEnabled));
+      } else {
+        result.add(new GetValueFromIndexEntryStep(ctx, filterCollectionIds, profilingEnabled));
+      }
       if (desc.requiresDistinctStep()) {
         result.add(new DistinctExecutionStep(ctx, profilingEnabled));
       }
@@ -3246,6 +3416,16 @@ public class SelectExecutionPlanner {
     return index.getIndexId() >= 0;
   }
 
+  /**
+   * Whether an index may answer a query: it has to be {@link #isIndexBuilt built}, and it must not
+   * wait for a rebuild after its maintenance was deferred by a bulk load, as its content then misses
+   * the loaded records.
+   */
+  static boolean isIndexUsable(CommandContext ctx, Index index) {
+    return isIndexBuilt(index)
+        && ctx.getDatabaseSession().isIndexUsableByQueries(index);
+  }
+
   /**
    * Selects the best index from the given candidates to satisfy as many conditions
    * as possible within the AND block. The selection algorithm works in four stages:
@@ -3268,8 +3448,9 @@ public class SelectExecutionPlanner {
    * </pre>
    *
    * <p>An index whose engine is not built yet (a transaction-created index queried inside the same
-   * transaction) is excluded up front through {@link #isIndexBuilt}, so a query inside the creating
-   * transaction falls through to a full class scan rather than reading an engine-less index.
+   * transaction) is excluded up front through {@link #isIndexUsable}, so a query inside the creating
+   * transaction falls through to a full class scan rather than reading an engine-less index. The
+   * same check excludes an index which waits for a rebuild after deferred maintenance.
    *
    * @param indexes all indexes defined on the target class
    * @param block   a single AND block from the flattened WHERE clause
@@ -3281,7 +3462,7 @@ public class SelectExecutionPlanner {
     // get all valid index descriptors
     var descriptors =
         indexes.stream()
-            .filter(SelectExecutionPlanner::isIndexBuilt)
+            .filter(index -> isIndexUsable(ctx, index))
             .filter(Index::canBeUsedInEqualityOperators)
             .map(index -> buildIndexSearchDescriptor(ctx, index, block, clazz))
             .filter(Objects::nonNull)
@@ -3291,7 +3472,7 @@ public class SelectExecutionPlanner {
 
     var fullTextIndexDescriptors =
         indexes.stream()
-            .filter(SelectExecutionPlanner::isIndexBuilt)
+            .filter(idx -> isIndexUsable(ctx, idx))
             .filter(idx -> idx.getType().equalsIgnoreCase("FULLTEXT"))
             .filter(idx -> !idx.getAlgorithm().equalsIgnoreCase("LUCENE"))
             .map(idx -> buildIndexSearchDescriptorForFulltext(idx, block))
@@ -3323,13 +3504,14 @@ public class SelectExecutionPlanner {
               .collect(Collectors.toList());
     }
 
-    // sort remaining by the number of indexed fields
+    // sort remaining by the number of indexed fields, point lookup (hash) indexes last
     descriptors =
         descriptors.stream()
-            .sorted(Comparator.comparingInt(IndexSearchDescriptor::blockCount))
+            .sorted(Comparator.comparingInt(IndexSearchDescriptor::blockCount)
+                .thenComparing(x -> !x.getIndex().supportsOrderedIterations()))
             .collect(Collectors.toList());
 
-    // get the one that has more indexed fields
+    // get the one that has more indexed fields, preferring point lookup indexes on a tie
     return descriptors.isEmpty() ? null : descriptors.getLast();
   }
 
@@ -3545,7 +3727,7 @@ public class SelectExecutionPlanner {
       var info =
           new IndexSearchInfo(
               indexProperty,
-              true,
+              index.supportsOrderedIterations(),
               isMap(clazz, indexProperty),
               isIndexByKey(index, indexProperty),
               isIndexByValue(index, indexProperty),
@@ -3582,6 +3764,13 @@ public class SelectExecutionPlanner {
       }
     }
 
+    //indexes without ordered iterations can serve only point lookups of complete keys
+    if (!index.supportsOrderedIterations()
+        && (additionalRangeCondition != null
+        || indexKeyValue.getSubBlocks().size() < indexProperties.size())) {
+      return null;
+    }
+
     return new IndexSearchDescriptor(index, indexKeyValue, additionalRangeCondition, blockCopy);
   }
 
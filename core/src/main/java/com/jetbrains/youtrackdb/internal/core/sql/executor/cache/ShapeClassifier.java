@@ -19,6 +19,8 @@ import com.jetbrains.youtrackdb.internal.core.sql.parser.SQLStatement;
 import com.jetbrains.youtrackdb.internal.core.sql.parser.SQLWhereClause;
 import com.jetbrains.youtrackdb.internal.core.sql.parser.SimpleNode;
 import java.util.Locale;
+import java.util.Set;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -155,6 +157,75 @@ public final class ShapeClassifier {
     return CacheableShape.K0_NONE;
   }
 
+  /**
+   * Builtin functions that read records outside the FROM target class: graph traversals follow edges
+   * into other classes, {@code expand} loads the records a link points to, and the path functions
+   * walk arbitrary parts of the graph.
+   */
+  private static final Set<String> FOREIGN_READ_FUNCTIONS =
+      Set.of("out", "in", "both", "oute", "ine", "bothe", "outv", "inv", "bothv", "expand",
+          "traversedelement", "traversedvertex", "traversededge", "shortestpath", "dijkstra",
+          "astar");
+
+  /**
+   * Whether the result of {@code select} depends only on the records of its FROM target class and
+   * its subclasses, so it can be tagged with the collections of that class closure by the shared
+   * result cache: the target is a plain class name, and there is no LET, no subquery below the
+   * statement root, no dotted path (a link dereference or a method call on a property, which may
+   * load another record) and no builtin function which reads records of other classes. User-defined
+   * functions are not recognised here; the caller rejects them with {@link #callsFunction}.
+   */
+  public static boolean readsOnlyTargetClass(@Nonnull SQLSelectStatement select) {
+    var target = select.getTarget();
+    if (target == null) {
+      return false;
+    }
+    var item = target.getItem();
+    if (item == null
+        || item.getIdentifier() == null
+        || item.getModifier() != null
+        || item.getFunctionCall() != null
+        || item.getStatement() != null
+        || item.getRids() != null && !item.getRids().isEmpty()
+        || item.getMetadata() != null
+        || item.getInputParam() != null
+        || item.getInputParams() != null && !item.getInputParams().isEmpty()) {
+      return false;
+    }
+    if (select.getLetClause() != null) {
+      return false;
+    }
+    // The walk starts at the children: the statement root is itself an SQLStatement.
+    var childCount = select.jjtGetNumChildren();
+    for (var i = 0; i < childCount; i++) {
+      var child = select.jjtGetChild(i);
+      if (child instanceof SimpleNode
+          && (subtreeHasSubquery(child) || subtreeHasLinkPathDeref(child, null))) {
+        return false;
+      }
+    }
+    return !callsFunction(select,
+        name -> FOREIGN_READ_FUNCTIONS.contains(name.toLowerCase(Locale.ROOT)));
+  }
+
+  /** Whether any function call in the statement has a name accepted by {@code matches}. */
+  public static boolean callsFunction(@Nonnull Node node, @Nonnull Predicate<String> matches) {
+    if (node instanceof SQLFunctionCall call) {
+      var name = call.getName();
+      if (name != null && name.getStringValue() != null && matches.test(name.getStringValue())) {
+        return true;
+      }
+    }
+    var childCount = node.jjtGetNumChildren();
+    for (var i = 0; i < childCount; i++) {
+      var child = node.jjtGetChild(i);
+      if (child instanceof SimpleNode && callsFunction(child, matches)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   /**
    * A class or edge label is statically resolvable from the AST alone when it renders as a plain
    * identifier ({@code class:OUser}) or a quoted string literal ({@code out('member')}). A
@@ -0,0 +1,121 @@
+package com.jetbrains.youtrackdb.internal.core.sql.executor.cache;
+
+import com.jetbrains.youtrackdb.internal.core.db.DatabaseSessionEmbedded;
+import com.jetbrains.youtrackdb.internal.core.query.ExecutionPlan;
+import com.jetbrains.youtrackdb.internal.core.query.Result;
+import com.jetbrains.youtrackdb.internal.core.query.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Result set of an uncached execution which copies every returned row to its session-independent
+ * form and stores the rows in the {@link SharedQueryResultCache} once the delegate is exhausted.
+ * Recording stops, and nothing is stored, as soon as a row can not be cached or the estimated size
+ * exceeds the per-entry limit; the consumer still receives every row of the delegate. A result set
+ * closed before its end stores nothing.
+ */
+final class SharedCacheRecordingResultSet implements ResultSet {
+
+  private final SharedQueryResultCache cache;
+  private final ResultSet delegate;
+  private final SharedQueryResultCache.Key key;
+  @Nullable private final int[] collectionIds;
+  private final long txEpoch;
+
+  @Nullable private List<Object> rows = new ArrayList<>();
+  private long rowsSize;
+
+  SharedCacheRecordingResultSet(@Nonnull SharedQueryResultCache cache,
+      @Nonnull ResultSet delegate, @Nonnull SharedQueryResultCache.Key key,
+      @Nullable int[] collectionIds, long txEpoch) {
+    this.cache = cache;
+    this.delegate = delegate;
+    this.key = key;
+    this.collectionIds = collectionIds;
+    this.txEpoch = txEpoch;
+  }
+
+  @Override
+  public boolean hasNext() {
+    var hasNext = delegate.hasNext();
+    if (!hasNext && rows != null) {
+      cache.put(key, rows, collectionIds, rowsSize, txEpoch);
+      rows = null;
+    }
+    return hasNext;
+  }
+
+  @Override
+  public Result next() {
+    var result = delegate.next();
+    if (rows != null) {
+      var row = SharedQueryResultCache.toRow(result);
+      if (row == null) {
+        rows = null;
+      } else {
+        rowsSize += SharedQueryResultCache.estimateSize(row);
+        if (rowsSize > cache.getMaxEntrySize()) {
+          rows = null;
+        } else {
+          rows.add(row);
+        }
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public void close() {
+    rows = null;
+    delegate.close();
+  }
+
+  @Override
+  public boolean isClosed() {
+    return delegate.isClosed();
+  }
+
+  @Nullable @Override
+  public DatabaseSessionEmbedded getBoundToSession() {
+    return delegate.getBoundToSession();
+  }
+
+  @Nullable @Override
+  public ExecutionPlan getExecutionPlan() {
+    return delegate.getExecutionPlan();
+  }
+
+  @Override
+  public void forEachRemaining(@Nonnull Consumer<? super Result> action) {
+    while (hasNext()) {
+      action.accept(next());
+    }
+  }
+
+  @Override
+  public boolean tryAdvance(Consumer<? super Result> action) {
+    if (hasNext()) {
+      action.accept(next());
+      return true;
+    }
+    return false;
+  }
+
+  @Nullable @Override
+  public ResultSet trySplit() {
+    return null;
+  }
+
+  @Override
+  public long estimateSize() {
+    return delegate.estimateSize();
+  }
+
+  @Override
+  public int characteristics() {
+    return delegate.characteristics();
+  }
+}
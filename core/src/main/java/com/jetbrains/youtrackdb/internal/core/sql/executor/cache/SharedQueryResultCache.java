@@ -0,0 +1,498 @@
+package com.jetbrains.youtrackdb.internal.core.sql.executor.cache;
+
+import com.jetbrains.youtrackdb.internal.core.config.StorageConfiguration;
+import com.jetbrains.youtrackdb.internal.core.db.DatabaseSessionEmbedded;
+import com.jetbrains.youtrackdb.internal.core.db.MetadataUpdateListener;
+import com.jetbrains.youtrackdb.internal.core.db.record.record.RID;
+import com.jetbrains.youtrackdb.internal.core.index.IndexManagerAbstract;
+import com.jetbrains.youtrackdb.internal.core.metadata.schema.SchemaShared;
+import com.jetbrains.youtrackdb.internal.core.query.Result;
+import com.jetbrains.youtrackdb.internal.core.query.ResultSet;
+import com.jetbrains.youtrackdb.internal.core.sql.executor.InternalResultSet;
+import com.jetbrains.youtrackdb.internal.core.sql.executor.ResultInternal;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2LongOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * The database-level store of query results shared by all transactions of a database. One instance
+ * lives on the {@code SharedContext} when {@code youtrackdb.query.sharedResultCache.enabled} is set.
+ * Unlike the per-transaction {@link QueryResultCache} it never reconciles uncommitted changes: it is
+ * consulted only by transactions which have none, and an entry is the result of a query over the
+ * committed state of the collections it read.
+ *
+ * <p><b>Commit epochs.</b> Every commit brackets the application of its changes with {@link
+ * #startCommit} and {@link #endCommit}, passing the ids of the collections it writes ({@code null}
+ * for a commit which changes the schema, which is treated as a write to every collection). {@link
+ * #endCommit} advances the cache epoch and stamps the written collections with it. A transaction
+ * reads {@link #currentEpoch()} right before it takes its storage snapshot, so every commit stamped
+ * with an epoch not greater than the transaction's one is visible to it.
+ *
+ * <p><b>Validity.</b> A result is stored only if none of its collections is being written and none
+ * was stamped after the populating transaction's epoch, i.e. the result reflects the latest committed
+ * state of its collections. It is stored with the greatest stamp of its collections and is served to
+ * a transaction whose epoch is at least that stamp. Both {@link #startCommit} and {@link #endCommit}
+ * drop the entries of the written collections, so an entry in the map always holds the latest
+ * committed state of its collections. An entry with no collections ({@code null}, used for MATCH,
+ * whose read set is not bounded by classes) depends on every collection.
+ *
+ * <p><b>Rows.</b> Results are kept independently of the session which produced them: a record row as
+ * its persistent {@link RID}, which the serving session loads lazily, and a projection row as a map of
+ * immutable values. A result with any other row is not cached.
+ *
+ * <p><b>Size bound.</b> Entries are held in access order and the least recently used ones are evicted
+ * once the estimated heap size of all entries exceeds {@code maxSize}. A result whose estimated size
+ * exceeds {@code maxSize / 16} is not cached.
+ *
+ * <p>All state is guarded by a single lock; the lock is held only for map updates, never while a
+ * query runs.
+ */
+public final class SharedQueryResultCache implements MetadataUpdateListener {
+
+  private static final long ENTRY_OVERHEAD = 128;
+  private static final long RID_ROW_SIZE = 48;
+  private static final long PROJECTION_ROW_OVERHEAD = 64;
+  private static final long PROPERTY_OVERHEAD = 48;
+
+  /**
+   * Identity of a shared entry: the query and the name of the user which ran it, since record level
+   * security makes the result of the same query user-dependent.
+   */
+  public record Key(@Nonnull CacheKey query, @Nonnull String user) {
+
+  }
+
+  private record Entry(
+      @Nonnull List<Object> rows, @Nullable int[] collectionIds, long size, long validFrom) {
+
+  }
+
+  private final long maxSize;
+  private final long maxEntrySize;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private final Int2ObjectOpenHashMap<Set<Key>> keysByCollection = new Int2ObjectOpenHashMap<>();
+  private final Set<Key> unboundKeys = new HashSet<>();
+
+  private final Int2LongOpenHashMap lastCommitEpochs = new Int2LongOpenHashMap();
+  private final Int2IntOpenHashMap pendingCommits = new Int2IntOpenHashMap();
+  private long lastGlobalCommitEpoch;
+  private long lastCommitEpoch;
+  private int pendingGlobalCommits;
+  private int pendingAllCommits;
+  private long size;
+
+  private volatile long epoch;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  public SharedQueryResultCache(long maxSize) {
+    this.maxSize = maxSize;
+    this.maxEntrySize = maxSize / 16;
+  }
+
+  /** The epoch a transaction records right before it takes its storage snapshot. */
+  public long currentEpoch() {
+    return epoch;
+  }
+
+  /**
+   * Returns the cached result for {@code key} as a fresh result set bound to {@code session}, or
+   * {@code null} if there is no entry which is valid for a transaction started at {@code txEpoch}.
+   */
+  @Nullable public ResultSet lookup(
+      @Nonnull Key key, long txEpoch, @Nonnull DatabaseSessionEmbedded session) {
+    Entry entry;
+    lock.lock();
+    try {
+      entry = entries.get(key);
+    } finally {
+      lock.unlock();
+    }
+
+    if (entry == null || entry.validFrom() > txEpoch) {
+      misses.increment();
+      return null;
+    }
+    hits.increment();
+
+    var rows = entry.rows();
+    var results = new ArrayList<Result>(rows.size());
+    for (var row : rows) {
+      results.add(toResult(session, row));
+    }
+    return new InternalResultSet(session, results);
+  }
+
+  /**
+   * Wraps the result set of an uncached execution so that its rows are stored under {@code key} once
+   * it is fully read. A result set closed before its end is not stored.
+   *
+   * @param collectionIds the collections the query reads, {@code null} if it may read any
+   * @param txEpoch       the epoch of the transaction which runs the query
+   */
+  public ResultSet record(@Nonnull ResultSet resultSet, @Nonnull Key key,
+      @Nullable int[] collectionIds, long txEpoch) {
+    return new SharedCacheRecordingResultSet(this, resultSet, key, collectionIds, txEpoch);
+  }
+
+  /** Maximum estimated size of a single entry. */
+  long getMaxEntrySize() {
+    return maxEntrySize;
+  }
+
+  void put(@Nonnull Key key, @Nonnull List<Object> rows, @Nullable int[] collectionIds,
+      long rowsSize, long txEpoch) {
+    var entrySize = rowsSize + ENTRY_OVERHEAD;
+    if (entrySize > maxEntrySize) {
+      return;
+    }
+
+    lock.lock();
+    try {
+      long validFrom;
+      if (collectionIds == null) {
+        if (pendingAllCommits > 0 || lastCommitEpoch > txEpoch) {
+          return;
+        }
+        validFrom = lastCommitEpoch;
+      } else {
+        if (pendingGlobalCommits > 0 || lastGlobalCommitEpoch > txEpoch) {
+          return;
+        }
+        validFrom = lastGlobalCommitEpoch;
+        for (var collectionId : collectionIds) {
+          var collectionEpoch = lastCommitEpochs.get(collectionId);
+          if (pendingCommits.get(collectionId) > 0 || collectionEpoch > txEpoch) {
+            return;
+          }
+          validFrom = Math.max(validFrom, collectionEpoch);
+        }
+      }
+
+      removeEntry(key);
+      entries.put(key, new Entry(rows, collectionIds, entrySize, validFrom));
+      if (collectionIds == null) {
+        unboundKeys.add(key);
+      } else {
+        for (var collectionId : collectionIds) {
+          keysByCollection.computeIfAbsent(collectionId, id -> new HashSet<>()).add(key);
+        }
+      }
+      size += entrySize;
+
+      var iterator = entries.entrySet().iterator();
+      while (size > maxSize && iterator.hasNext()) {
+        var eldest = iterator.next();
+        iterator.remove();
+        unindex(eldest.getKey(), eldest.getValue());
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Called by a commit before its changes become visible.
+   *
+   * @param collectionIds the collections the commit writes, {@code null} if it may change any
+   */
+  public void startCommit(@Nullable IntSet collectionIds) {
+    lock.lock();
+    try {
+      pendingAllCommits++;
+      if (collectionIds == null) {
+        pendingGlobalCommits++;
+        clearEntries();
+      } else {
+        for (var collectionId : collectionIds) {
+          pendingCommits.addTo(collectionId, 1);
+        }
+        invalidate(collectionIds);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Called by a commit after its changes became visible or after it failed, with the same
+   * collections which were passed to {@link #startCommit}.
+   */
+  public void endCommit(@Nullable IntSet collectionIds) {
+    lock.lock();
+    try {
+      var commitEpoch = epoch + 1;
+      pendingAllCommits--;
+      lastCommitEpoch = commitEpoch;
+      if (collectionIds == null) {
+        pendingGlobalCommits--;
+        lastGlobalCommitEpoch = commitEpoch;
+        clearEntries();
+      } else {
+        for (var collectionId : collectionIds) {
+          if (pendingCommits.addTo(collectionId, -1) == 1) {
+            pendingCommits.remove(collectionId);
+          }
+          lastCommitEpochs.put(collectionId, commitEpoch);
+        }
+        invalidate(collectionIds);
+      }
+      epoch = commitEpoch;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Drops all entries and makes results computed by running transactions unstorable. */
+  public void invalidateAll() {
+    lock.lock();
+    try {
+      var commitEpoch = epoch + 1;
+      lastCommitEpoch = commitEpoch;
+      lastGlobalCommitEpoch = commitEpoch;
+      clearEntries();
+      epoch = commitEpoch;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Drops all entries. Called when the database is closed. */
+  public void clear() {
+    lock.lock();
+    try {
+      clearEntries();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Lifetime count of lookups that returned a cached result. */
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /** Lifetime count of lookups that found no valid entry. */
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /** Current number of cached results. */
+  public int size() {
+    lock.lock();
+    try {
+      return entries.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Current estimated heap size of the cached results in bytes. */
+  public long getSize() {
+    lock.lock();
+    try {
+      return size;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void invalidate(@Nonnull IntSet collectionIds) {
+    for (var key : unboundKeys.toArray(new Key[0])) {
+      removeEntry(key);
+    }
+    for (var collectionId : collectionIds) {
+      var keys = keysByCollection.get(collectionId);
+      if (keys != null) {
+        for (var key : keys.toArray(new Key[0])) {
+          removeEntry(key);
+        }
+      }
+    }
+  }
+
+  private void removeEntry(@Nonnull Key key) {
+    var entry = entries.remove(key);
+    if (entry != null) {
+      unindex(key, entry);
+    }
+  }
+
+  private void unindex(@Nonnull Key key, @Nonnull Entry entry) {
+    size -= entry.size();
+    var collectionIds = entry.collectionIds();
+    if (collectionIds == null) {
+      unboundKeys.remove(key);
+      return;
+    }
+    for (var collectionId : collectionIds) {
+      var keys = keysByCollection.get(collectionId);
+      if (keys != null && keys.remove(key) && keys.isEmpty()) {
+        keysByCollection.remove(collectionId);
+      }
+    }
+  }
+
+  private void clearEntries() {
+    entries.clear();
+    keysByCollection.clear();
+    unboundKeys.clear();
+    size = 0;
+  }
+
+  /**
+   * Whether all query parameters are immutable values, so the key can not be changed by the caller
+   * after the result is stored.
+   */
+  public static boolean areCacheableParameters(@Nullable Object args) {
+    if (args instanceof Map<?, ?> map) {
+      for (var value : map.values()) {
+        if (!isImmutableValue(value)) {
+          return false;
+        }
+      }
+    } else if (args instanceof Object[] array) {
+      for (var value : array) {
+        if (!isImmutableValue(value)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private static boolean isImmutableValue(@Nullable Object value) {
+    return value == null
+        || value instanceof String
+        || value instanceof Boolean
+        || value instanceof Character
+        || value instanceof Integer
+        || value instanceof Long
+        || value instanceof Short
+        || value instanceof Byte
+        || value instanceof Float
+        || value instanceof Double
+        || value instanceof BigDecimal
+        || value instanceof BigInteger
+        || value instanceof RID rid && rid.isPersistent();
+  }
+
+  /**
+   * Converts a result row to its session-independent form, or returns {@code null} if the row can
+   * not be cached.
+   */
+  @Nullable static Object toRow(@Nonnull Result result) {
+    if (!(result instanceof ResultInternal resultInternal)
+        || !resultInternal.getMetadataKeys().isEmpty()) {
+      return null;
+    }
+
+    if (result.isIdentifiable()) {
+      if (result.isProjection() || !result.isEntity()) {
+        return null;
+      }
+      var rid = result.getIdentity();
+      return rid != null && rid.isPersistent() ? rid : null;
+    }
+
+    if (!result.isProjection()) {
+      return null;
+    }
+    var names = result.getPropertyNames();
+    var properties = new LinkedHashMap<String, Object>(names.size());
+    for (var name : names) {
+      Object value = result.getProperty(name);
+      if (value instanceof Date date) {
+        value = new Date(date.getTime());
+      } else if (value instanceof byte[] bytes) {
+        value = bytes.clone();
+      } else if (!isImmutableValue(value)) {
+        return null;
+      }
+      properties.put(name, value);
+    }
+    return properties;
+  }
+
+  /** Estimated heap size of a row returned by {@link #toRow}. */
+  static long estimateSize(@Nonnull Object row) {
+    if (row instanceof RID) {
+      return RID_ROW_SIZE;
+    }
+
+    var rowSize = PROJECTION_ROW_OVERHEAD;
+    for (var property : ((Map<?, ?>) row).entrySet()) {
+      rowSize += PROPERTY_OVERHEAD + 2L * ((String) property.getKey()).length();
+      var value = property.getValue();
+      if (value instanceof String string) {
+        rowSize += 2L * string.length();
+      } else if (value instanceof byte[] bytes) {
+        rowSize += bytes.length;
+      }
+    }
+    return rowSize;
+  }
+
+  private static Result toResult(@Nonnull DatabaseSessionEmbedded session, @Nonnull Object row) {
+    if (row instanceof RID rid) {
+      return new ResultInternal(session, rid);
+    }
+
+    var properties = (Map<?, ?>) row;
+    var result = new ResultInternal(session, properties.size());
+    for (var property : properties.entrySet()) {
+      var value = property.getValue();
+      if (value instanceof Date date) {
+        value = new Date(date.getTime());
+      } else if (value instanceof byte[] bytes) {
+        value = bytes.clone();
+      }
+      result.setProperty((String) property.getKey(), value);
+    }
+    return result;
+  }
+
+  @Override
+  public void onSchemaUpdate(DatabaseSessionEmbedded session, String databaseName,
+      SchemaShared schema) {
+    invalidateAll();
+  }
+
+  @Override
+  public void onSequenceLibraryUpdate(DatabaseSessionEmbedded session, String databaseName) {
+    invalidateAll();
+  }
+
+  @Override
+  public void onStorageConfigurationUpdate(String databaseName, StorageConfiguration update) {
+    invalidateAll();
+  }
+
+  @Override
+  public void onIndexManagerUpdate(DatabaseSessionEmbedded session, String databaseName,
+      IndexManagerAbstract indexManager) {
+    invalidateAll();
+  }
+
+  @Override
+  public void onFunctionLibraryUpdate(DatabaseSessionEmbedded session, String databaseName) {
+    invalidateAll();
+  }
+}
@@ -0,0 +1,113 @@
+package com.jetbrains.youtrackdb.internal.core.sql.executor.match;
+
+import com.jetbrains.youtrackdb.internal.core.index.engine.EquiDepthHistogram;
+import com.jetbrains.youtrackdb.internal.core.index.engine.IndexStatistics;
+import javax.annotation.Nullable;
+
+/**
+ * Degree distribution of the vertices on one side of an edge class, i.e. of the sizes of the link
+ * bags which hold the edges of this class in one direction.
+ *
+ * <p>The distribution is derived from the statistics of a single-property index on the
+ * {@code out} or {@code in} property of the edge class: every index key is a vertex and the
+ * number of entries of the key is its degree. {@code IndexHistogramManager} keeps these
+ * statistics up to date on every commit and persists them, so no separate degree bookkeeping is
+ * needed.
+ *
+ * <ul>
+ *   <li>{@link IndexStatistics} gives the number of edges and of distinct vertices.</li>
+ *   <li>Per-bucket frequencies and distinct counts of the {@link EquiDepthHistogram} give a
+ *       coarse degree histogram: the vertices of a bucket are assumed to share the bucket's
+ *       average degree.</li>
+ *   <li>The most common value of the histogram is the heaviest vertex, its frequency is the
+ *       maximal degree.</li>
+ * </ul>
+ *
+ * <p>On power-law graphs the average degree badly underestimates the cost of expanding a vertex
+ * which was reached by traversing an edge: such a vertex is picked with a probability
+ * proportional to its degree, so its expected degree is the size-biased degree
+ * {@code sum(d^2) / sum(d)} reported by {@link #sizeBiasedDegree()}.
+ *
+ * @param edgeCount         number of edges, i.e. sum of degrees
+ * @param vertexCount       number of vertices with at least one edge
+ * @param maxDegree         degree of the heaviest vertex
+ * @param sumSquaredDegrees estimated sum of squared degrees
+ */
+public record EdgeDegreeStatistics(
+    long edgeCount,
+    long vertexCount,
+    long maxDegree,
+    double sumSquaredDegrees) {
+
+  /**
+   * Builds the degree statistics from the statistics of an index on the {@code out} or
+   * {@code in} property of an edge class.
+   *
+   * @return the degree statistics, or {@code null} if the index is empty
+   */
+  @Nullable
+  public static EdgeDegreeStatistics fromIndex(
+      IndexStatistics statistics, @Nullable EquiDepthHistogram histogram) {
+    final var edgeCount = statistics.totalCount() - statistics.nullCount();
+    final var vertexCount = Math.min(statistics.distinctCount(), edgeCount);
+    if (edgeCount <= 0 || vertexCount <= 0) {
+      return null;
+    }
+
+    // Without a histogram all vertices are assumed to have the average degree.
+    var sumSquared = (double) edgeCount * edgeCount / vertexCount;
+    var maxDegree = (edgeCount + vertexCount - 1) / vertexCount;
+
+    if (histogram != null) {
+      var bucketSumSquared = 0.0;
+      for (var i = 0; i < histogram.bucketCount(); i++) {
+        final var frequency = histogram.frequencies()[i];
+        final var distinct = histogram.distinctCounts()[i];
+        if (frequency > 0 && distinct > 0) {
+          bucketSumSquared += (double) frequency * frequency / distinct;
+          maxDegree = Math.max(maxDegree, (frequency + distinct - 1) / distinct);
+        }
+      }
+      sumSquared = Math.max(sumSquared, bucketSumSquared);
+
+      // The heaviest vertex is averaged out inside of its bucket, so the sum of squares is at
+      // least the one of the heaviest vertex plus the rest of the edges spread evenly.
+      final var mcvFrequency = Math.min(histogram.mcvFrequency(), edgeCount);
+      if (mcvFrequency > 0) {
+        maxDegree = Math.max(maxDegree, mcvFrequency);
+        final var restEdges = edgeCount - mcvFrequency;
+        final var restVertices = vertexCount - 1;
+        var mcvSumSquared = (double) mcvFrequency * mcvFrequency;
+        if (restVertices > 0) {
+          mcvSumSquared += (double) restEdges * restEdges / restVertices;
+        }
+        sumSquared = Math.max(sumSquared, mcvSumSquared);
+      }
+    }
+
+    return new EdgeDegreeStatistics(edgeCount, vertexCount, Math.min(maxDegree, edgeCount),
+        sumSquared);
+  }
+
+  /** Average degree of the vertices which have at least one edge. */
+  public double averageDegree() {
+    return (double) edgeCount / vertexCount;
+  }
+
+  /**
+   * Expected degree of a vertex which is reached by following a random edge, never less than
+   * {@link #averageDegree()} and never more than {@link #maxDegree()}.
+   */
+  public double sizeBiasedDegree() {
+    final var sizeBiased = sumSquaredDegrees / edgeCount;
+    return Math.min(maxDegree, Math.max(averageDegree(), sizeBiased));
+  }
+
+  /**
+   * Ratio of the size-biased degree to the average degree. {@code 1} for graphs where all
+   * vertices have the same degree, large for graphs dominated by a few heavy vertices.
+   */
+  public double skew() {
+    return sizeBiasedDegree() / averageDegree();
+  }
+}
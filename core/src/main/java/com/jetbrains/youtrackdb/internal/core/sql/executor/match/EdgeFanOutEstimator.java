@@ -8,6 +8,8 @@ import com.jetbrains.youtrackdb.internal.core.metadata.schema.SchemaClassInterna
 import com.jetbrains.youtrackdb.internal.core.metadata.schema.schema.SchemaClass;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import javax.annotation.Nullable;
 
 /**
  * Estimates the average number of adjacent vertices reachable from one vertex of a
@@ -31,6 +33,14 @@ import java.util.Map;
  *       because Person is not the IN vertex of Works).</li>
  * </ul>
  *
+ * <p>The average is an unbiased estimate for vertices picked independently of their edges, e.g.
+ * the result of a class scan. A vertex reached by traversing an edge is picked with a probability
+ * proportional to its degree on the side of the edge it was reached from, which the average
+ * ignores. When such a vertex is expanded back over the same edge class
+ * ({@link #isReverseTraversal}) and the edge class has an index on its {@code out} or {@code in}
+ * property, {@link #estimateBindingFanOut} uses the {@link EdgeDegreeStatistics} of that index to
+ * account for it.
+ *
  * @see MatchExecutionPlanner
  */
 public final class EdgeFanOutEstimator {
@@ -189,6 +199,156 @@ public final class EdgeFanOutEstimator {
     return outFanOut + inFanOut;
   }
 
+  /**
+   * Returns {@code true} if a traversal of {@code edgeClassName} in {@code direction} expands a
+   * vertex from the same side of the edge class it was reached from by the previous traversal of
+   * {@code previousEdgeClassName} in {@code previousDirection}, e.g. {@code in('Knows')} after
+   * {@code out('Knows')}. Only then the vertex is picked with a probability proportional to the
+   * degree which is expanded, and {@link #estimateBindingFanOut} applies. BOTH overlaps with
+   * either direction.
+   */
+  public static boolean isReverseTraversal(
+      @Nullable String previousEdgeClassName,
+      Direction previousDirection,
+      @Nullable String edgeClassName,
+      Direction direction) {
+    if (edgeClassName == null || !edgeClassName.equalsIgnoreCase(previousEdgeClassName)) {
+      return false;
+    }
+    return previousDirection == Direction.BOTH || direction == Direction.BOTH
+        || previousDirection != direction;
+  }
+
+  /**
+   * Estimates the fan-out of a vertex which was itself reached by an edge traversal (a binding of
+   * an upstream pattern step), given the average fan-out computed by {@link #estimateFanOut}.
+   * Callers apply it only to a {@link #isReverseTraversal reverse traversal}.
+   *
+   * <p>Returns the size-biased degree of the {@link EdgeDegreeStatistics} of the traversed side
+   * of the edge class when it is larger than the average fan-out, and the average fan-out when
+   * no degree statistics are available. For BOTH the degrees of both sides are summed up.
+   *
+   * @param averageFanOut fan-out estimated from class counts
+   */
+  public static double estimateBindingFanOut(
+      DatabaseSessionEmbedded session,
+      @Nullable String edgeClassName,
+      Direction direction,
+      double averageFanOut) {
+    return estimateBindingFanOut(
+        session, edgeClassName, direction, averageFanOut, new HashMap<>());
+  }
+
+  /**
+   * Cache-aware variant of
+   * {@link #estimateBindingFanOut(DatabaseSessionEmbedded, String, Direction, double)} that
+   * memoizes {@link #degreeStatistics} lookups in {@code degreeStatisticsCache}, so every edge
+   * index of a plan is inspected once.
+   *
+   * @param degreeStatisticsCache per-plan memo of degree statistics by direction and edge class
+   *                              name; never {@code null}
+   */
+  public static double estimateBindingFanOut(
+      DatabaseSessionEmbedded session,
+      @Nullable String edgeClassName,
+      Direction direction,
+      double averageFanOut,
+      Map<String, Optional<EdgeDegreeStatistics>> degreeStatisticsCache) {
+    assert MatchAssertions.checkNotNull(session, "session");
+    assert MatchAssertions.checkNotNull(direction, "direction");
+
+    if (edgeClassName == null) {
+      return averageFanOut;
+    }
+
+    if (direction == Direction.BOTH) {
+      var outStatistics =
+          degreeStatisticsFor(session, edgeClassName, Direction.OUT, degreeStatisticsCache);
+      var inStatistics =
+          degreeStatisticsFor(session, edgeClassName, Direction.IN, degreeStatisticsCache);
+      if (outStatistics == null && inStatistics == null) {
+        return averageFanOut;
+      }
+
+      var bindingFanOut = 0.0;
+      if (outStatistics != null) {
+        bindingFanOut += outStatistics.sizeBiasedDegree();
+      }
+      if (inStatistics != null) {
+        bindingFanOut += inStatistics.sizeBiasedDegree();
+      }
+      return Math.max(averageFanOut, bindingFanOut);
+    }
+
+    var statistics = degreeStatisticsFor(session, edgeClassName, direction, degreeStatisticsCache);
+    if (statistics == null) {
+      return averageFanOut;
+    }
+    return Math.max(averageFanOut, statistics.sizeBiasedDegree());
+  }
+
+  /**
+   * Returns the degree distribution of the vertices on the {@code direction} side of the edge
+   * class: for OUT the number of outgoing edges per vertex, for IN the number of incoming ones.
+   *
+   * @return the degree statistics, or {@code null} if the edge class has no single-property index
+   *     on the {@code out} (for OUT) or {@code in} (for IN) property, the index has no statistics
+   *     yet, or the direction is BOTH
+   */
+  @Nullable
+  public static EdgeDegreeStatistics degreeStatistics(
+      DatabaseSessionEmbedded session, String edgeClassName, Direction direction) {
+    if (direction == Direction.BOTH) {
+      return null;
+    }
+
+    var schema = session.getMetadata().getImmutableSchemaSnapshot();
+    if (schema == null) {
+      return null;
+    }
+    var edgeClass = schema.getClassInternal(edgeClassName);
+    if (edgeClass == null) {
+      return null;
+    }
+
+    var property = direction == Direction.OUT ? "out" : "in";
+    for (var index : edgeClass.getClassIndexesInternal()) {
+      var definition = index.getDefinition();
+      if (definition == null || definition.getProperties().size() != 1
+          || !property.equalsIgnoreCase(definition.getProperties().getFirst())
+          || !session.isIndexUsableByQueries(index)) {
+        continue;
+      }
+
+      var statistics = index.getStatistics(session);
+      if (statistics == null) {
+        continue;
+      }
+      var degreeStatistics =
+          EdgeDegreeStatistics.fromIndex(statistics, index.getHistogram(session));
+      if (degreeStatistics != null) {
+        return degreeStatistics;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Memoizes {@link #degreeStatistics} by direction and edge class name. Index statistics do not
+   * change during planning, so the cached value is equal to a fresh call.
+   */
+  @Nullable
+  private static EdgeDegreeStatistics degreeStatisticsFor(
+      DatabaseSessionEmbedded session,
+      String edgeClassName,
+      Direction direction,
+      Map<String, Optional<EdgeDegreeStatistics>> degreeStatisticsCache) {
+    return degreeStatisticsCache.computeIfAbsent(
+            direction.name() + ':' + edgeClassName,
+            k -> Optional.ofNullable(degreeStatistics(session, edgeClassName, direction)))
+        .orElse(null);
+  }
+
   /**
    * Memoizes {@link SchemaClassInternal#approximateCount} by class name. Class
    * names are unique within a schema snapshot and {@code approximateCount} is
@@ -0,0 +1,263 @@
+package com.jetbrains.youtrackdb.internal.core.sql.executor.match;
+
+import com.jetbrains.youtrackdb.internal.core.command.CommandContext;
+import com.jetbrains.youtrackdb.internal.core.db.DatabaseSessionEmbedded;
+import com.jetbrains.youtrackdb.internal.core.db.record.record.RID;
+import com.jetbrains.youtrackdb.internal.core.query.Result;
+import com.jetbrains.youtrackdb.internal.core.sql.executor.ResultInternal;
+import com.jetbrains.youtrackdb.internal.core.sql.executor.resultset.ExecutionStream;
+import com.jetbrains.youtrackdb.internal.core.sql.parser.MatchFrontier;
+import com.jetbrains.youtrackdb.internal.core.sql.parser.SQLRid;
+import com.jetbrains.youtrackdb.internal.core.sql.parser.SQLWhereClause;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+
+/**
+ * Lazy, level-synchronous (breadth-first) {@link ExecutionStream} used by
+ * {@link MatchEdgeTraverser#executeTraversal} instead of
+ * {@link LazyRecursiveTraversalStream} when the edge carries a {@link MatchFrontier}.
+ *
+ * <p>The traversal keeps the records of one depth (the frontier) and, while returning them,
+ * builds the frontier of the next depth. Records reached at the same depth through several paths
+ * are merged by RID into one entry whose bulk is the sum of the bulks of the records they were
+ * reached from, so the work per depth is bounded by the number of distinct records rather than
+ * the number of paths:
+ *
+ * <pre>
+ *   depth 0:  {A: 1}
+ *   depth 1:  {B: 1, C: 1}          A -&gt; B, A -&gt; C
+ *   depth 2:  {D: 2}                B -&gt; D, C -&gt; D  (two paths merged)
+ * </pre>
+ *
+ * <p>For every record of the current depth:
+ * <ul>
+ *   <li>it <b>leaves</b> the loop when the depth equals {@code maxDepth} or the {@code while}
+ *       condition does not hold on it — leaving records are returned and not expanded;
+ *   <li>otherwise it is expanded into the next frontier and additionally returned when its depth
+ *       is at least {@link MatchFrontier#emitFromDepth()}.
+ * </ul>
+ * Returned records must also pass the target filters (WHERE, class, RID), and carry {@code $depth}
+ * and {@code $bulk} metadata.
+ *
+ * <p>With {@link MatchFrontier#simplePath()} every entry keeps the entry it was expanded from, so
+ * a record is never expanded into a record already on its own path, and records are merged only
+ * when they were reached from the same entry (parallel edges). This is Gremlin's {@code
+ * simplePath()}: paths are kept apart, and only identical paths share a bulk.
+ */
+final class FrontierTraversalStream implements ExecutionStream {
+
+  /** A record of a frontier with the number of paths it was reached through. */
+  private static final class Entry {
+
+    private final Result record;
+    @Nullable private final RID rid;
+
+    /** The entry this one was expanded from; kept only for simple paths. */
+    @Nullable private final Entry parent;
+    private long bulk;
+
+    private Entry(Result record, @Nullable RID rid, @Nullable Entry parent, long bulk) {
+      this.record = record;
+      this.rid = rid;
+      this.parent = parent;
+      this.bulk = bulk;
+    }
+
+    private boolean pathContains(RID other) {
+      for (var entry = this; entry != null; entry = entry.parent) {
+        if (other.equals(entry.rid)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  private final MatchEdgeTraverser traverser;
+  private final CommandContext ctx;
+  private final DatabaseSessionEmbedded session;
+
+  @Nullable private final SQLWhereClause filter;
+  @Nullable private final SQLWhereClause whileCondition;
+  @Nullable private final Integer maxDepth;
+  @Nullable private final String className;
+  @Nullable private final SQLRid targetRid;
+  @Nullable private final Integer emitFromDepth;
+  private final int whileFromDepth;
+  private final boolean simplePath;
+
+  private List<Entry> frontier = new ArrayList<>();
+  private int frontierPos;
+  private int depth;
+
+  private List<Entry> nextFrontier = new ArrayList<>();
+  private Map<RID, Entry> nextByRid = new HashMap<>();
+
+  @Nullable private Result buffered;
+  private boolean done;
+
+  FrontierTraversalStream(
+      MatchEdgeTraverser traverser,
+      CommandContext ctx,
+      Result startingPoint,
+      int depth,
+      @Nullable SQLWhereClause filter,
+      @Nullable SQLWhereClause whileCondition,
+      @Nullable Integer maxDepth,
+      @Nullable String className,
+      @Nullable SQLRid targetRid,
+      MatchFrontier options) {
+    this.traverser = traverser;
+    this.ctx = ctx;
+    this.session = ctx.getDatabaseSession();
+    this.filter = filter;
+    this.whileCondition = whileCondition;
+    this.maxDepth = maxDepth;
+    this.className = className;
+    this.targetRid = targetRid;
+    this.emitFromDepth = options.emitFromDepth();
+    this.whileFromDepth = options.whileFromDepth();
+    this.simplePath = options.simplePath();
+
+    this.depth = depth;
+    if (startingPoint != null) {
+      frontier.add(new Entry(startingPoint, startingPoint.getIdentity(), null, 1));
+    }
+  }
+
+  @Override
+  public boolean hasNext(CommandContext ctx) {
+    if (buffered != null) {
+      return true;
+    }
+    if (done) {
+      return false;
+    }
+    buffered = advance();
+    return buffered != null;
+  }
+
+  @Override
+  public Result next(CommandContext ctx) {
+    if (!hasNext(ctx)) {
+      throw new IllegalStateException("No more results");
+    }
+    var result = buffered;
+    buffered = null;
+    return result;
+  }
+
+  @Override
+  public void close(CommandContext ctx) {
+    frontier = List.of();
+    nextFrontier = List.of();
+    nextByRid = Map.of();
+    done = true;
+  }
+
+  /**
+   * Processes frontier entries until one of them is to be returned, moving to the next depth when
+   * the current frontier is exhausted.
+   */
+  @Nullable private Result advance() {
+    while (true) {
+      if (frontierPos == frontier.size()) {
+        if (nextFrontier.isEmpty()) {
+          done = true;
+          return null;
+        }
+        frontier = nextFrontier;
+        frontierPos = 0;
+        depth++;
+        nextFrontier = new ArrayList<>();
+        nextByRid = new HashMap<>();
+      }
+
+      var entry = frontier.get(frontierPos);
+      // Drop the reference as soon as the entry is processed so that the records of a depth can be
+      // collected while the next depth is still being built.
+      frontier.set(frontierPos++, null);
+
+      var previousMatch = ctx.getSystemVariable(CommandContext.VAR_CURRENT_MATCH);
+      ctx.setSystemVariable(CommandContext.VAR_DEPTH, depth);
+      ctx.setSystemVariable(CommandContext.VAR_CURRENT_MATCH, entry.record);
+      try {
+        var leaves =
+            (maxDepth != null && depth >= maxDepth)
+                || (whileCondition != null
+                    && depth >= whileFromDepth
+                    && !whileCondition.matchesFilters(entry.record, ctx));
+        if (!leaves) {
+          expand(entry);
+        }
+        if ((leaves || (emitFromDepth != null && depth >= emitFromDepth)) && matches(entry)) {
+          var result = toResult(entry);
+          if (result != null) {
+            return result;
+          }
+        }
+      } finally {
+        ctx.setSystemVariable(CommandContext.VAR_CURRENT_MATCH, previousMatch);
+      }
+    }
+  }
+
+  /**
+   * Adds the neighbors of the entry to the next frontier, merging those already present: across the
+   * whole depth by RID, or, on simple paths, only among the neighbors of this entry.
+   */
+  private void expand(Entry entry) {
+    var neighbors = traverser.traversePatternEdge(entry.record, ctx);
+    var mergeBy = simplePath ? new HashMap<RID, Entry>() : nextByRid;
+    try {
+      while (neighbors.hasNext(ctx)) {
+        var neighbor = ResultInternal.toResult(neighbors.next(ctx), session);
+        if (neighbor == null) {
+          continue;
+        }
+        var rid = neighbor.getIdentity();
+        if (rid == null) {
+          // Not a record: nothing to merge by, and nothing to expand further.
+          nextFrontier.add(new Entry(neighbor, null, null, entry.bulk));
+          continue;
+        }
+        var merged = mergeBy.get(rid);
+        if (merged != null) {
+          merged.bulk += entry.bulk;
+          continue;
+        }
+        if (simplePath && entry.pathContains(rid)) {
+          continue;
+        }
+        var added = new Entry(neighbor, rid, simplePath ? entry : null, entry.bulk);
+        nextFrontier.add(added);
+        mergeBy.put(rid, added);
+      }
+    } finally {
+      neighbors.close(ctx);
+    }
+  }
+
+  private boolean matches(Entry entry) {
+    return MatchEdgeTraverser.matchesFilters(ctx, filter, entry.record)
+        && traverser.matchesClassCached(ctx, className, entry.record)
+        && MatchEdgeTraverser.matchesRid(ctx, targetRid, entry.record);
+  }
+
+  @Nullable private ResultInternal toResult(Entry entry) {
+    ResultInternal result;
+    if (entry.record instanceof ResultInternal resultInternal) {
+      result = resultInternal;
+    } else {
+      result = ResultInternal.toResultInternal(entry.record, session, null);
+    }
+    if (result != null) {
+      result.setMetadata("$depth", depth);
+      result.setMetadata("$bulk", entry.bulk);
+    }
+    return result;
+  }
+}
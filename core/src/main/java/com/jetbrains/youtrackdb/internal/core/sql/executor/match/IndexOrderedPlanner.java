@@ -299,7 +299,8 @@ final class IndexOrderedPlanner {
 
     Index matchedIndex = null;
     for (var idx : clazz.getIndexesInternal()) {
-      if (idx.getDefinition() == null) {
+      if (idx.getDefinition() == null || !idx.supportsOrderedIterations()
+          || !session.isIndexUsableByQueries(idx)) {
         continue;
       }
       var props = idx.getDefinition().getProperties();
@@ -726,7 +727,7 @@ final class IndexOrderedPlanner {
 
     // Check if any single-field UNIQUE index is fully covered by equality fields.
     for (var idx : clazz.getIndexesInternal()) {
-      if (!idx.isUnique()) {
+      if (!idx.isUnique() || !session.isIndexUsableByQueries(idx)) {
         continue;
       }
       var def = idx.getDefinition();
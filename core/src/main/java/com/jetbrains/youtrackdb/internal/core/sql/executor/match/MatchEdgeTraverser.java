@@ -15,6 +15,7 @@ import com.jetbrains.youtrackdb.internal.core.sql.executor.RidFilterDescriptor;
 import com.jetbrains.youtrackdb.internal.core.sql.executor.RidSet;
 import com.jetbrains.youtrackdb.internal.core.sql.executor.TraversalPreFilterHelper;
 import com.jetbrains.youtrackdb.internal.core.sql.executor.resultset.ExecutionStream;
+import com.jetbrains.youtrackdb.internal.core.sql.parser.MatchFrontier;
 import com.jetbrains.youtrackdb.internal.core.sql.parser.SQLMatchPathItem;
 import com.jetbrains.youtrackdb.internal.core.sql.parser.SQLRid;
 import com.jetbrains.youtrackdb.internal.core.sql.parser.SQLWhereClause;
@@ -273,6 +274,10 @@ public class MatchEdgeTraverser implements ExecutionStream {
           edge.edge.item.getFilter().getPathAlias(),
           ((ResultInternal) nextR).getMetadata("$matchPath"));
     }
+    var frontier = edge.edge.item.getFilter().getFrontier();
+    if (frontier != null && frontier.bulkAlias() != null) {
+      result.setProperty(frontier.bulkAlias(), ((ResultInternal) nextR).getMetadata("$bulk"));
+    }
     return result;
   }
 
@@ -338,6 +343,12 @@ public class MatchEdgeTraverser implements ExecutionStream {
    *   condition evaluates to `true` on the current record.
    * - Each result carries `$depth` and `$matchPath` metadata, which can be exposed via
    *   `depthAlias` and `pathAlias` in the MATCH filter.
+   * <p>
+   * ### Frontier mode
+   * When the filter carries a {@link MatchFrontier} (set by front-ends such as the Gremlin
+   * translator), the same WHILE / maxDepth edge is expanded breadth-first by
+   * {@link FrontierTraversalStream}: records reached at one depth through several paths are
+   * merged into a single result carrying the number of paths as `$bulk`.
    *
    * <pre>
    * ┌─────────────────────────────────────────────────────────────────┐
@@ -382,6 +393,7 @@ public class MatchEdgeTraverser implements ExecutionStream {
     SQLWhereClause filter = null;
     SQLWhereClause whileCondition = null;
     Integer maxDepth = null;
+    MatchFrontier frontier = null;
     String className = null;
     SQLRid targetRid = null;
 
@@ -389,11 +401,19 @@ public class MatchEdgeTraverser implements ExecutionStream {
       filter = getTargetFilter(item);
       whileCondition = item.getFilter().getWhileCondition();
       maxDepth = item.getFilter().getMaxDepth();
+      frontier = item.getFilter().getFrontier();
       className = targetClassName(item, iCommandContext);
       targetRid = targetRid(item, iCommandContext);
     }
 
-    if (whileCondition == null && maxDepth == null) {
+    if (frontier != null) {
+      // ---- Frontier (level-synchronous) mode ----
+      // Records reached at the same depth are merged into one row carrying the
+      // number of paths as $bulk; no $matchPath is produced.
+      return new FrontierTraversalStream(
+          this, iCommandContext, startingPoint, depth, filter, whileCondition, maxDepth,
+          className, targetRid, frontier);
+    } else if (whileCondition == null && maxDepth == null) {
       // ---- Simple (single-hop) mode ----
       // The starting point is NOT included; only immediate neighbors that pass the
       // filter are returned.
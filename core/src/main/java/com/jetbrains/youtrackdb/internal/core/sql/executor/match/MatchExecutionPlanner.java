@@ -79,6 +79,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
@@ -632,6 +633,14 @@ public class MatchExecutionPlanner {
         estimatedRootEntries.put(alias, Long.MAX_VALUE);
       }
     }
+    // A frontier target binds once per record and depth, so it is only reachable by expanding the
+    // frontier from its origin; rooting the plan at it would scan it and then re-run the whole
+    // frontier per scanned record to check the binding.
+    for (var alias : collectFrontierTargetAliases(this.matchExpressions)) {
+      if (estimatedRootEntries.containsKey(alias)) {
+        estimatedRootEntries.put(alias, Long.MAX_VALUE);
+      }
+    }
 
     // Aliases with fewer records than THRESHOLD and no dependency on $matched are prefetched
     var aliasesToPrefetch =
@@ -1422,6 +1431,8 @@ public class MatchExecutionPlanner {
     // If two branches share an edge, the same edge would be skipped once in the
     // main loop but included in two build plans, leading to duplicated traversal.
     var claimedEdges = new HashSet<EdgeTraversal>();
+    // Per-plan memo of edge degree statistics shared by the estimates of all branches.
+    Map<String, Optional<EdgeDegreeStatistics>> degreeStatisticsCache = new HashMap<>();
 
     for (int i = 0; i < scheduledEdges.size(); i++) {
       var target = targetAlias(scheduledEdges.get(i));
@@ -1432,7 +1443,7 @@ public class MatchExecutionPlanner {
         // This is a consistency-check edge — target was already visited.
         var branch = traceBackwardBranch(
             scheduledEdges, i, visitedBefore, downstreamAliases,
-            aliasClasses, aliasFilters, aliasPinnedRids, context);
+            aliasClasses, aliasFilters, aliasPinnedRids, degreeStatisticsCache, context);
         if (branch != null) {
           // Discard branch if any of its edges overlap with an already-claimed branch
           boolean overlaps = false;
@@ -1484,6 +1495,7 @@ public class MatchExecutionPlanner {
       Map<String, String> aliasClasses,
       Map<String, SQLWhereClause> aliasFilters,
       Map<String, List<SQLRid>> aliasPinnedRids,
+      Map<String, Optional<EdgeDegreeStatistics>> degreeStatisticsCache,
       CommandContext context) {
     var checkEdge = scheduledEdges.get(checkIdx);
     var checkTarget = targetAlias(checkEdge);
@@ -1517,7 +1529,7 @@ public class MatchExecutionPlanner {
     // Phase 3: Cardinality estimation and cost-based guards
     long cardinality = estimateBranchCardinality(
         trace.branchRoot, trace.branchEdges, aliasClasses, aliasFilters,
-        aliasPinnedRids, context);
+        aliasPinnedRids, degreeStatisticsCache, context);
     long threshold = getHashJoinThreshold();
     if (cardinality > threshold) {
       return null;
@@ -1547,7 +1559,7 @@ public class MatchExecutionPlanner {
       //   nestedLoopCost = upstream × branchFanOut × numHops
       double branchFanOut = estimateBranchFanOut(
           trace.branchEdges, trace.branchRoot, aliasClasses, aliasFilters,
-          context);
+          degreeStatisticsCache, context);
       int numBranchHops = Math.max(1, trace.branchEdges.size() - 1);
       double nestedLoopCost = upstreamCardinality * branchFanOut * numBranchHops;
       double hashJoinCost = (double) cardinality + upstreamCardinality;
@@ -1711,6 +1723,8 @@ public class MatchExecutionPlanner {
    * Estimates the cardinality of a hash join branch. Starts from the branch root's
    * estimated record count and multiplies by schema-based fan-out per edge
    * (via {@link EdgeFanOutEstimator}), applying 0.5 selectivity for WHERE filters.
+   * Fan-outs are adjusted by {@link #estimateTraversalBindingFanOut} exactly as in
+   * {@link #estimateBranchFanOut}, so both sides of the cost comparison see the same edges.
    */
   private static long estimateBranchCardinality(
       String branchRoot,
@@ -1718,6 +1732,7 @@ public class MatchExecutionPlanner {
       Map<String, String> aliasClasses,
       Map<String, SQLWhereClause> aliasFilters,
       Map<String, List<SQLRid>> aliasPinnedRids,
+      Map<String, Optional<EdgeDegreeStatistics>> degreeStatisticsCache,
       CommandContext context) {
     var session = context.getDatabaseSession();
     // Start with branch root cardinality
@@ -1733,8 +1748,10 @@ public class MatchExecutionPlanner {
     for (int i = 0; i < edgeCount; i++) {
       var edgeT = branchEdges.get(i);
       var method = edgeT.edge.item != null ? edgeT.edge.item.getMethod() : null;
-      double fanOut = estimateMethodFanOut(method, currentClass, session,
-          classCountCache);
+      double fanOut = estimateTraversalBindingFanOut(
+          edgeT, i > 0 ? branchEdges.get(i - 1) : null,
+          estimateMethodFanOut(method, currentClass, session, classCountCache),
+          session, degreeStatisticsCache);
       long fanOutLong = Math.max(1, Math.round(fanOut));
       if (rows > Long.MAX_VALUE / fanOutLong) {
         return Long.MAX_VALUE; // overflow guard
@@ -1827,6 +1844,11 @@ public class MatchExecutionPlanner {
    * fanOut × selectivity for each branch edge, excluding the last consistency-check edge
    * (which is a free RID equality check, cost 0).
    *
+   * <p>A branch edge which goes back over the edge class of the previous branch edge expands
+   * a vertex picked by its degree, so its fan-out is taken from
+   * {@link #estimateTraversalBindingFanOut}: on skewed graphs the nested-loop re-expands heavy
+   * vertices for every upstream row, which makes the hash join preferable.
+   *
    * @return the estimated per-row fan-out (≥ 1.0)
    */
   private static double estimateBranchFanOut(
@@ -1834,6 +1856,7 @@ public class MatchExecutionPlanner {
       String branchRoot,
       Map<String, String> aliasClasses,
       Map<String, SQLWhereClause> aliasFilters,
+      Map<String, Optional<EdgeDegreeStatistics>> degreeStatisticsCache,
       CommandContext context) {
     var session = context.getDatabaseSession();
     // Exclude the last edge (consistency-check) — it's a free RID match
@@ -1845,8 +1868,10 @@ public class MatchExecutionPlanner {
     for (int i = 0; i < edgeCount; i++) {
       var edgeT = branchEdges.get(i);
       var method = edgeT.edge.item != null ? edgeT.edge.item.getMethod() : null;
-      fanOut *= estimateMethodFanOut(method, currentClass, session,
-          classCountCache);
+      fanOut *= estimateTraversalBindingFanOut(
+          edgeT, i > 0 ? branchEdges.get(i - 1) : null,
+          estimateMethodFanOut(method, currentClass, session, classCountCache),
+          session, degreeStatisticsCache);
       var target = targetAlias(edgeT);
       var targetFilter = aliasFilters.get(target);
       if (targetFilter != null) {
@@ -2828,6 +2853,58 @@ public class MatchExecutionPlanner {
         outVertexClass, inVertexClass, classCountCache);
   }
 
+  /**
+   * Adjusts the average fan-out of an edge traversal for its source vertex, via
+   * {@link EdgeFanOutEstimator#estimateBindingFanOut}, when the source vertex was reached by
+   * {@code previous} over the same edge class from the side which is now expanded
+   * ({@link EdgeFanOutEstimator#isReverseTraversal}). Otherwise the source vertex is not biased
+   * towards a high degree of the expanded side and the average fan-out is kept.
+   *
+   * @param edgeT                 the edge traversal being estimated
+   * @param previous              the traversal which bound the source of {@code edgeT}, or null
+   * @param averageFanOut         fan-out from {@link #estimateMethodFanOut}
+   * @param session               database session for schema and index access
+   * @param degreeStatisticsCache per-plan memo of edge degree statistics
+   * @return estimated fan-out of the bound source vertex (≥ {@code averageFanOut})
+   */
+  static double estimateTraversalBindingFanOut(
+      EdgeTraversal edgeT,
+      @Nullable EdgeTraversal previous,
+      double averageFanOut,
+      DatabaseSessionEmbedded session,
+      Map<String, Optional<EdgeDegreeStatistics>> degreeStatisticsCache) {
+    if (previous == null || !targetAlias(previous).equals(sourceAlias(edgeT))) {
+      return averageFanOut;
+    }
+    var method = edgeT.edge.item != null ? edgeT.edge.item.getMethod() : null;
+    var previousMethod = previous.edge.item != null ? previous.edge.item.getMethod() : null;
+    if (method == null || previousMethod == null) {
+      return averageFanOut;
+    }
+    Direction direction = parseDirection(method.getMethodNameString());
+    Direction previousDirection = parseDirection(previousMethod.getMethodNameString());
+    if (direction == null || previousDirection == null) {
+      return averageFanOut;
+    }
+
+    var edgeClassName = extractEdgeClassName(method);
+    if (!EdgeFanOutEstimator.isReverseTraversal(
+        extractEdgeClassName(previousMethod), traversalDirection(previous, previousDirection),
+        edgeClassName, traversalDirection(edgeT, direction))) {
+      return averageFanOut;
+    }
+    return EdgeFanOutEstimator.estimateBindingFanOut(
+        session, edgeClassName, direction, averageFanOut, degreeStatisticsCache);
+  }
+
+  /**
+   * Returns the direction in which {@code edgeT} actually walks its edges: the direction of the
+   * method, or the opposite one when the edge is traversed in reverse.
+   */
+  private static Direction traversalDirection(EdgeTraversal edgeT, Direction methodDirection) {
+    return edgeT.out ? methodDirection : methodDirection.opposite();
+  }
+
   /**
    * Estimates the selectivity of a WHERE clause for cardinality estimation.
    * Uses the existing {@link TraversalPreFilterHelper#findIndexForFilter} +
@@ -4065,7 +4142,7 @@ public class MatchExecutionPlanner {
     // Pick the most selective index (lowest selectivity estimate) to avoid
     // random plan jumps when multiple indexes cover the same property.
     double bestSel = -1.0;
-    for (var index : indexes) {
+    for (var index : session.indexesUsableByQueries(indexes)) {
       var stats = index.getStatistics(session);
       if (stats == null || stats.totalCount() <= 0) {
         continue;
@@ -4107,7 +4184,7 @@ public class MatchExecutionPlanner {
       }
       double bestSel = -1.0;
       long bestDistinct = -1;
-      for (var index : indexes) {
+      for (var index : session.indexesUsableByQueries(indexes)) {
         var stats = index.getStatistics(session);
         if (stats == null || stats.distinctCount() <= 0) {
           continue;
@@ -5333,6 +5410,11 @@ public class MatchExecutionPlanner {
       return false;
     }
 
+    // Frontier edges return one row per depth with a bulk, not a reachability set
+    if (filter.getFrontier() != null) {
+      return false;
+    }
+
     // Must have a WHILE condition
     var whileCondition = filter.getWhileCondition();
     if (whileCondition == null) {
@@ -6148,8 +6230,11 @@ public class MatchExecutionPlanner {
     var result = new HashSet<String>();
     for (var expr : expressions) {
       for (var item : expr.getItems()) {
+        // A frontier edge returns its starting record at depth 0 (emit or until before repeat), so
+        // an inferred target class would filter out a start record of another class.
         if (item.getFilter() != null
-            && item.getFilter().getWhileCondition() != null) {
+            && (item.getFilter().getWhileCondition() != null
+                || item.getFilter().getFrontier() != null)) {
           // Only the origin alias and the while-item's own alias are in the
           // recursive zone.  Downstream items (after the while in the pattern
           // chain) are not recursive and can safely have class inference —
@@ -6166,6 +6251,21 @@ public class MatchExecutionPlanner {
     return result;
   }
 
+  /** Collects the target aliases of the frontier (level-synchronous) edges of the pattern. */
+  private static Set<String> collectFrontierTargetAliases(List<SQLMatchExpression> expressions) {
+    var result = new HashSet<String>();
+    for (var expr : expressions) {
+      for (var item : expr.getItems()) {
+        if (item.getFilter() != null
+            && item.getFilter().getFrontier() != null
+            && item.getFilter().getAlias() != null) {
+          result.add(item.getFilter().getAlias());
+        }
+      }
+    }
+    return result;
+  }
+
   /**
    * Extracts alias metadata (filters, class, collection, RID) from a single match
    * expression and merges them into the accumulation maps.
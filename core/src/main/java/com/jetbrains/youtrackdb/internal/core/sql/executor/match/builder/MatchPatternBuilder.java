@@ -3,6 +3,7 @@ package com.jetbrains.youtrackdb.internal.core.sql.executor.match.builder;
 import com.jetbrains.youtrackdb.internal.core.sql.executor.match.PatternEdge;
 import com.jetbrains.youtrackdb.internal.core.sql.executor.match.PatternNode;
 import com.jetbrains.youtrackdb.internal.core.sql.parser.MatchEdgePathItems;
+import com.jetbrains.youtrackdb.internal.core.sql.parser.MatchFrontier;
 import com.jetbrains.youtrackdb.internal.core.sql.parser.Pattern;
 import com.jetbrains.youtrackdb.internal.core.sql.parser.SQLIdentifier;
 import com.jetbrains.youtrackdb.internal.core.sql.parser.SQLMatchExpression;
@@ -124,10 +125,9 @@ public final class MatchPatternBuilder {
    * {@link #addNode}). Callers that want the filter to participate in plan-level selectivity
    * inference should also call {@link #addNode} for the target alias.
    *
-   * <p>{@code whileCondition} and {@code maxDepth} are not yet supported because their parser
-   * setters are package-private; an {@link UnsupportedOperationException} is thrown so the gap is
-   * loud rather than silent. The Gremlin translator does not exercise variable-depth traversals in
-   * Phase 1.
+   * <p>{@code whileCondition} and {@code maxDepth} are not supported here; an {@link
+   * UnsupportedOperationException} is thrown so the gap is loud rather than silent. Variable-depth
+   * edges are registered through {@link #addRepeatEdge}.
    */
   public MatchPatternBuilder addEdge(
       @Nonnull String fromAlias,
@@ -140,16 +140,67 @@ public final class MatchPatternBuilder {
     checkNotBuilt();
     if (whileCondition != null || maxDepth != null) {
       throw new UnsupportedOperationException(
-          "whileCondition / maxDepth are not yet supported by MatchPatternBuilder; "
-              + "wire them through when the translator's variable-depth handler arrives");
+          "whileCondition / maxDepth are not supported by addEdge; use addRepeatEdge");
     }
 
-    var fromFilter = SQLMatchFilter.fromAliasAndClass(fromAlias, null);
     var toFilter = SQLMatchFilter.fromAliasAndClass(toAlias, null);
     if (edgeFilter != null) {
       toFilter.setFilter(edgeFilter);
     }
+    addPathItem(fromAlias, dir, edgeLabel, toFilter);
+    return this;
+  }
 
+  /**
+   * Registers a variable-depth edge {@code fromAlias} → {@code toAlias} that is expanded with the
+   * level-synchronous frontier traversal — the MATCH form of Gremlin's {@code
+   * repeat(out(edgeLabel))} with {@code times} ({@code maxDepth}), {@code until} (the negated
+   * {@code whileCondition}) and {@code emit} ({@link MatchFrontier#emitFromDepth()}).
+   *
+   * <p>{@code toAlias} binds once per distinct record and depth; the number of paths merged into
+   * the row is bound to {@link MatchFrontier#bulkAlias()} when one is given. {@code edgeFilter}
+   * filters the returned records only, it does not stop the expansion — exactly like a {@code
+   * where} on a {@code while} edge of a parsed MATCH.
+   *
+   * @param whileCondition condition a record must satisfy to be expanded further, or null
+   * @param maxDepth       the largest depth expanded to, or null
+   * @param frontier       emit / simple-path / bulk options of the traversal
+   * @throws IllegalArgumentException if both {@code whileCondition} and {@code maxDepth} are null
+   * @throws IllegalStateException    if {@link #build()} has already been called on this builder
+   */
+  public MatchPatternBuilder addRepeatEdge(
+      @Nonnull String fromAlias,
+      @Nonnull String toAlias,
+      @Nonnull Direction dir,
+      String edgeLabel,
+      SQLWhereClause edgeFilter,
+      SQLWhereClause whileCondition,
+      Integer maxDepth,
+      @Nonnull MatchFrontier frontier) {
+    checkNotBuilt();
+    if (whileCondition == null && maxDepth == null) {
+      throw new IllegalArgumentException(
+          "a repeat edge needs a whileCondition or a maxDepth to terminate");
+    }
+
+    var toFilter = SQLMatchFilter.fromAliasAndClass(toAlias, null);
+    if (edgeFilter != null) {
+      toFilter.setFilter(edgeFilter);
+    }
+    if (whileCondition != null) {
+      toFilter.setWhileCondition(whileCondition);
+    }
+    if (maxDepth != null) {
+      toFilter.setMaxDepth(maxDepth);
+    }
+    toFilter.setFrontier(frontier);
+    addPathItem(fromAlias, dir, edgeLabel, toFilter);
+    return this;
+  }
+
+  /** Adds the single-hop expression {@code fromAlias.<dir>(edgeLabel){toFilter}}. */
+  private void addPathItem(
+      String fromAlias, Direction dir, String edgeLabel, SQLMatchFilter toFilter) {
     var pathItem = new SQLMatchPathItem(-1);
     var edgeIdent =
         edgeLabel != null && !edgeLabel.isBlank() ? new SQLIdentifier(edgeLabel) : null;
@@ -161,11 +212,10 @@ public final class MatchPatternBuilder {
     pathItem.setFilter(toFilter);
 
     var expr = new SQLMatchExpression(-1);
-    expr.setOrigin(fromFilter);
+    expr.setOrigin(SQLMatchFilter.fromAliasAndClass(fromAlias, null));
     expr.addItem(pathItem);
 
     pattern.addExpression(expr);
-    return this;
   }
 
   /**
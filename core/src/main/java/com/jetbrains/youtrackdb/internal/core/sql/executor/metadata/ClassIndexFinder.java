@@ -1,6 +1,7 @@
 package com.jetbrains.youtrackdb.internal.core.sql.executor.metadata;
 
 import com.jetbrains.youtrackdb.internal.core.command.CommandContext;
+import com.jetbrains.youtrackdb.internal.core.index.Index;
 import com.jetbrains.youtrackdb.internal.core.metadata.schema.PropertyTypeInternal;
 import com.jetbrains.youtrackdb.internal.core.metadata.schema.SchemaClassInternal;
 import com.jetbrains.youtrackdb.internal.core.metadata.schema.SchemaPropertyInternal;
@@ -41,7 +42,7 @@ public class ClassIndexFinder implements IndexFinder {
       var prop = (SchemaPropertyInternal) cand.cl.getProperty(ele);
       if (prop != null) {
         var linkedClass = (SchemaClassInternal) prop.getLinkedClass();
-        var indexes = prop.getAllIndexesInternal();
+        var indexes = ctx.getDatabaseSession().indexesUsableByQueries(prop.getAllIndexesInternal());
         if (PropertyTypeInternal.convertFromPublicType(prop.getType()).isLink()
             && linkedClass != null) {
           var found = false;
@@ -89,18 +90,28 @@ public class ClassIndexFinder implements IndexFinder {
 
     var prop = (SchemaPropertyInternal) cl.getProperty(last);
     if (prop != null) {
-      var indexes = prop.getAllIndexesInternal();
+      var indexes = ctx.getDatabaseSession().indexesUsableByQueries(prop.getAllIndexesInternal());
+      Index found = null;
       for (var index : indexes) {
         if (index.canBeUsedInEqualityOperators()) {
-          if (cand != null) {
-            ((IndexCandidateChain) cand).add(index.getName());
-            ((IndexCandidateChain) cand).setOperation(Operation.Eq);
-            return cand;
-          } else {
-            return new IndexCandidateImpl(index.getName(), Operation.Eq, prop);
+          // point lookup indexes serve equality best, take the first ordered one otherwise
+          if (!index.supportsOrderedIterations()) {
+            found = index;
+            break;
+          } else if (found == null) {
+            found = index;
           }
         }
       }
+      if (found != null) {
+        if (cand != null) {
+          ((IndexCandidateChain) cand).add(found.getName());
+          ((IndexCandidateChain) cand).setOperation(Operation.Eq);
+          return cand;
+        } else {
+          return new IndexCandidateImpl(found.getName(), Operation.Eq, prop);
+        }
+      }
     }
 
     return null;
@@ -122,7 +133,7 @@ public class ClassIndexFinder implements IndexFinder {
     var prop = (SchemaPropertyInternal) cl.getProperty(last);
     if (prop != null) {
       if (prop.getType() == PropertyType.EMBEDDEDMAP) {
-        var indexes = prop.getAllIndexesInternal();
+        var indexes = ctx.getDatabaseSession().indexesUsableByQueries(prop.getAllIndexesInternal());
         for (var index : indexes) {
           if (index.canBeUsedInEqualityOperators()) {
             var def = index.getDefinition();
@@ -159,9 +170,9 @@ public class ClassIndexFinder implements IndexFinder {
 
     var prop = (SchemaPropertyInternal) cl.getProperty(last);
     if (prop != null) {
-      var indexes = prop.getAllIndexesInternal();
+      var indexes = ctx.getDatabaseSession().indexesUsableByQueries(prop.getAllIndexesInternal());
       for (var index : indexes) {
-        if (index.canBeUsedInEqualityOperators()) {
+        if (index.canBeUsedInEqualityOperators() && index.supportsOrderedIterations()) {
           if (cand != null) {
             ((IndexCandidateChain) cand).add(index.getName());
             ((IndexCandidateChain) cand).setOperation(op);
@@ -191,7 +202,7 @@ public class ClassIndexFinder implements IndexFinder {
     var prop = (SchemaPropertyInternal) cl.getProperty(last);
     if (prop != null) {
       if (prop.getType() == PropertyType.EMBEDDEDMAP) {
-        var indexes = prop.getAllIndexesInternal();
+        var indexes = ctx.getDatabaseSession().indexesUsableByQueries(prop.getAllIndexesInternal());
         for (var index : indexes) {
           var def = index.getDefinition();
           if (index.canBeUsedInEqualityOperators()) {
@@ -0,0 +1,225 @@
+package com.jetbrains.youtrackdb.internal.core.sql.executor.spill;
+
+import com.jetbrains.youtrackdb.internal.core.db.DatabaseSessionEmbedded;
+import com.jetbrains.youtrackdb.internal.core.query.Result;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * External merge sort of query results, or of other values which a {@link SpillSerializer} writes
+ * to the sorted runs.
+ *
+ * <pre>
+ *  add() --&gt; [in-heap buffer, at most runSize values]
+ *                 |  buffer is full
+ *                 v
+ *            sort buffer, write it as a sorted run (SpillFile)
+ *
+ *  sorted() --&gt; no runs: the buffer is sorted in heap and returned as is
+ *           --&gt; runs:    runs are merged by a k-way merge over a priority queue of run heads;
+ *                        more than MAX_MERGE_FAN_IN runs are first merged into bigger runs
+ * </pre>
+ *
+ * <p>The sort is stable: values which compare as equal are returned in the order they were added.
+ * Spilled results are returned as {@code ResultInternal} instances bound to the session, records
+ * are loaded lazily by their identity.
+ */
+public final class ExternalSorter<T> implements AutoCloseable {
+
+  /** Maximum number of runs which are read at the same time by a single merge. */
+  static final int MAX_MERGE_FAN_IN = 64;
+
+  private final DatabaseSessionEmbedded session;
+  private final SpillSerializer<T> serializer;
+  private final Comparator<? super T> comparator;
+  private final int runSize;
+
+  private List<T> buffer = new ArrayList<>();
+  private final ArrayDeque<SpillFile<T>> runs = new ArrayDeque<>();
+  /** Merge of the last runs, which is iterated by the caller of {@link #sorted()}. */
+  @Nullable private RunMerger finalMerge;
+
+  /**
+   * Creates a sorter of query results.
+   *
+   * @param runSize maximum number of results kept in the heap, every full buffer is written to
+   *                disk as a sorted run
+   */
+  public static ExternalSorter<Result> ofResults(
+      @Nonnull DatabaseSessionEmbedded session, @Nonnull Comparator<Result> comparator,
+      int runSize) {
+    return new ExternalSorter<>(
+        session, ResultSpillSerializer.forSession(session), comparator, runSize);
+  }
+
+  /**
+   * @param serializer writes the values to the sorted runs and reads them back
+   * @param runSize    maximum number of values kept in the heap, every full buffer is written to
+   *                   disk as a sorted run
+   */
+  public ExternalSorter(
+      @Nonnull DatabaseSessionEmbedded session, @Nonnull SpillSerializer<T> serializer,
+      @Nonnull Comparator<? super T> comparator, int runSize) {
+    this.session = session;
+    this.serializer = serializer;
+    this.comparator = comparator;
+    this.runSize = Math.max(runSize, 1);
+  }
+
+  public void add(@Nonnull T value) {
+    buffer.add(value);
+    if (buffer.size() >= runSize) {
+      spillBuffer();
+    }
+  }
+
+  /**
+   * Returns all added values in sorted order. Values can not be added afterward, and the sorter
+   * has to be closed once the iteration is finished or abandoned to delete its spill files.
+   */
+  public Iterator<T> sorted() {
+    if (runs.isEmpty()) {
+      buffer.sort(comparator);
+      var sorted = buffer;
+      buffer = new ArrayList<>();
+      return sorted.iterator();
+    }
+
+    if (!buffer.isEmpty()) {
+      spillBuffer();
+    }
+    while (runs.size() > MAX_MERGE_FAN_IN) {
+      mergePass();
+    }
+
+    finalMerge = new RunMerger(pollRuns(runs.size()));
+    return finalMerge;
+  }
+
+  /**
+   * Merges every {@link #MAX_MERGE_FAN_IN} consecutive runs into a single run. The order of the
+   * runs is preserved, so the merge stays stable.
+   */
+  private void mergePass() {
+    var mergedRuns = new ArrayDeque<SpillFile<T>>();
+    try {
+      while (!runs.isEmpty()) {
+        var group = pollRuns(Math.min(MAX_MERGE_FAN_IN, runs.size()));
+        if (group.size() == 1) {
+          mergedRuns.addLast(group.getFirst());
+          continue;
+        }
+
+        var merged = SpillFile.create(session, serializer);
+        mergedRuns.addLast(merged);
+
+        var merger = new RunMerger(group);
+        try {
+          while (merger.hasNext()) {
+            merged.write(merger.next());
+          }
+        } finally {
+          merger.close();
+        }
+      }
+    } finally {
+      runs.addAll(mergedRuns);
+    }
+  }
+
+  private List<SpillFile<T>> pollRuns(int count) {
+    var polled = new ArrayList<SpillFile<T>>(count);
+    for (var i = 0; i < count; i++) {
+      polled.add(runs.pollFirst());
+    }
+    return polled;
+  }
+
+  private void spillBuffer() {
+    buffer.sort(comparator);
+
+    var run = SpillFile.create(session, serializer);
+    runs.addLast(run);
+    for (var value : buffer) {
+      run.write(value);
+    }
+    buffer.clear();
+  }
+
+  @Override
+  public void close() {
+    buffer.clear();
+    if (finalMerge != null) {
+      finalMerge.close();
+      finalMerge = null;
+    }
+    while (!runs.isEmpty()) {
+      runs.pollFirst().close();
+    }
+  }
+
+  /** Current head of a run during a merge. */
+  private record RunHead<T>(SpillFile<T>.Reader reader, T value, int runIndex) {
+
+  }
+
+  /**
+   * K-way merge of sorted runs. Heads of equal values are ordered by the index of their run, so
+   * values of earlier runs are returned first and the merge keeps the sort stable.
+   */
+  private final class RunMerger implements Iterator<T> {
+
+    private final List<SpillFile<T>> mergedRuns;
+    private final PriorityQueue<RunHead<T>> heads;
+
+    private RunMerger(List<SpillFile<T>> mergedRuns) {
+      this.mergedRuns = mergedRuns;
+      this.heads =
+          new PriorityQueue<>(
+              mergedRuns.size(),
+              (a, b) -> {
+                var result = comparator.compare(a.value(), b.value());
+                return result != 0 ? result : Integer.compare(a.runIndex(), b.runIndex());
+              });
+
+      for (var i = 0; i < mergedRuns.size(); i++) {
+        var reader = mergedRuns.get(i).openReader();
+        if (reader.hasNext()) {
+          heads.add(new RunHead<>(reader, reader.next(), i));
+        }
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return !heads.isEmpty();
+    }
+
+    @Override
+    public T next() {
+      var head = heads.poll();
+      if (head == null) {
+        throw new NoSuchElementException();
+      }
+      var reader = head.reader();
+      if (reader.hasNext()) {
+        heads.add(new RunHead<>(reader, reader.next(), head.runIndex()));
+      }
+      return head.value();
+    }
+
+    void close() {
+      heads.clear();
+      for (var run : mergedRuns) {
+        run.close();
+      }
+    }
+  }
+}
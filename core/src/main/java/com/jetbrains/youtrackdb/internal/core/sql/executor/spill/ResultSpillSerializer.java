@@ -0,0 +1,280 @@
+package com.jetbrains.youtrackdb.internal.core.sql.executor.spill;
+
+import com.jetbrains.youtrackdb.internal.core.db.DatabaseSessionEmbedded;
+import com.jetbrains.youtrackdb.internal.core.db.record.record.Entity;
+import com.jetbrains.youtrackdb.internal.core.db.record.record.Identifiable;
+import com.jetbrains.youtrackdb.internal.core.exception.CommandExecutionException;
+import com.jetbrains.youtrackdb.internal.core.metadata.schema.PropertyTypeInternal;
+import com.jetbrains.youtrackdb.internal.core.query.Result;
+import com.jetbrains.youtrackdb.internal.core.serialization.serializer.record.binary.BytesContainer;
+import com.jetbrains.youtrackdb.internal.core.serialization.serializer.record.binary.EntitySerializer;
+import com.jetbrains.youtrackdb.internal.core.serialization.serializer.record.binary.HelperClasses;
+import com.jetbrains.youtrackdb.internal.core.serialization.serializer.record.binary.RecordSerializerBinary;
+import com.jetbrains.youtrackdb.internal.core.serialization.serializer.record.binary.VarIntSerializer;
+import com.jetbrains.youtrackdb.internal.core.sql.executor.ResultInternal;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Converts query results to bytes and back so that they can be kept in {@link SpillFile}s.
+ *
+ * <p>A result is written as its identity (when it is backed by a record) followed by its
+ * projected, temporary and metadata properties. Records are written as links and loaded lazily
+ * when they are read back, scalar values are written by the binary record serializer, and
+ * collections, maps and nested results are written element by element. Values which can not be
+ * represented (for example aggregation state) make the spill fail with a
+ * {@link CommandExecutionException}.
+ */
+public final class ResultSpillSerializer {
+
+  private static final byte HAS_IDENTITY = 1;
+  private static final byte HAS_CONTENT = 1 << 1;
+  private static final byte HAS_TEMPORARY_CONTENT = 1 << 2;
+  private static final byte HAS_METADATA = 1 << 3;
+
+  private static final byte NULL_VALUE = 0;
+  private static final byte SCALAR_VALUE = 1;
+  private static final byte LINK_VALUE = 2;
+  private static final byte RESULT_VALUE = 3;
+  private static final byte LIST_VALUE = 4;
+  private static final byte SET_VALUE = 5;
+  private static final byte MAP_VALUE = 6;
+
+  /**
+   * Classes which are written by the binary record serializer and are read back as instances of
+   * the same class, so that equality and ordering of spilled values are preserved.
+   */
+  private static final Set<Class<?>> SCALAR_CLASSES =
+      Set.of(
+          Boolean.class,
+          Byte.class,
+          Short.class,
+          Integer.class,
+          Long.class,
+          Float.class,
+          Double.class,
+          BigDecimal.class,
+          String.class,
+          Date.class,
+          byte[].class);
+
+  private ResultSpillSerializer() {
+  }
+
+  /** Serializer of the results spilled by query operations of the session. */
+  public static SpillSerializer<Result> forSession(@Nonnull DatabaseSessionEmbedded session) {
+    return new SpillSerializer<>() {
+      @Override
+      public void serialize(@Nonnull Result value, @Nonnull BytesContainer bytes) {
+        ResultSpillSerializer.serialize(session, value, bytes);
+      }
+
+      @Nonnull
+      @Override
+      public Result deserialize(@Nonnull BytesContainer bytes) {
+        return ResultSpillSerializer.deserialize(session, bytes);
+      }
+    };
+  }
+
+  public static void serialize(
+      @Nonnull DatabaseSessionEmbedded session, @Nonnull Result result,
+      @Nonnull BytesContainer bytes) {
+    var internal = result instanceof ResultInternal resultInternal ? resultInternal : null;
+    var identifiable = result.isIdentifiable();
+    var temporaryProperties =
+        internal == null ? Set.<String>of() : internal.getTemporaryProperties();
+    var metadataKeys = internal == null ? Set.<String>of() : internal.getMetadataKeys();
+
+    byte flags = 0;
+    if (identifiable) {
+      flags |= HAS_IDENTITY;
+    } else {
+      flags |= HAS_CONTENT;
+    }
+    if (!temporaryProperties.isEmpty()) {
+      flags |= HAS_TEMPORARY_CONTENT;
+    }
+    if (!metadataKeys.isEmpty()) {
+      flags |= HAS_METADATA;
+    }
+    writeByte(bytes, flags);
+
+    if (identifiable) {
+      HelperClasses.writeOptimizedLink(session, bytes, result.getIdentity());
+    } else {
+      var names = result.getPropertyNames();
+      VarIntSerializer.write(bytes, names.size());
+      for (var name : names) {
+        HelperClasses.writeString(bytes, name);
+        writeValue(session, bytes, result.getProperty(name));
+      }
+    }
+
+    if (!temporaryProperties.isEmpty()) {
+      VarIntSerializer.write(bytes, temporaryProperties.size());
+      for (var name : temporaryProperties) {
+        HelperClasses.writeString(bytes, name);
+        writeValue(session, bytes, internal.getTemporaryProperty(name));
+      }
+    }
+
+    if (!metadataKeys.isEmpty()) {
+      VarIntSerializer.write(bytes, metadataKeys.size());
+      for (var key : metadataKeys) {
+        HelperClasses.writeString(bytes, key);
+        writeValue(session, bytes, internal.getMetadata(key));
+      }
+    }
+  }
+
+  public static ResultInternal deserialize(
+      @Nonnull DatabaseSessionEmbedded session, @Nonnull BytesContainer bytes) {
+    var flags = bytes.bytes[bytes.offset++];
+
+    ResultInternal result;
+    if ((flags & HAS_IDENTITY) != 0) {
+      result = new ResultInternal(session, HelperClasses.readOptimizedLink(bytes, false));
+    } else {
+      var size = VarIntSerializer.readAsInteger(bytes);
+      result = new ResultInternal(session, size);
+      for (var i = 0; i < size; i++) {
+        var name = HelperClasses.readString(bytes);
+        result.setProperty(name, readValue(session, bytes));
+      }
+    }
+
+    if ((flags & HAS_TEMPORARY_CONTENT) != 0) {
+      var size = VarIntSerializer.readAsInteger(bytes);
+      for (var i = 0; i < size; i++) {
+        var name = HelperClasses.readString(bytes);
+        result.setTemporaryProperty(name, readValue(session, bytes));
+      }
+    }
+
+    if ((flags & HAS_METADATA) != 0) {
+      var size = VarIntSerializer.readAsInteger(bytes);
+      var metadata = new HashMap<String, Object>(size);
+      for (var i = 0; i < size; i++) {
+        var key = HelperClasses.readString(bytes);
+        metadata.put(key, readValue(session, bytes));
+      }
+      result.addMetadata(metadata);
+    }
+
+    return result;
+  }
+
+  /**
+   * Writes a single property value: a scalar, a link, a nested result or a collection or map of
+   * such values.
+   */
+  public static void writeValue(
+      DatabaseSessionEmbedded session, BytesContainer bytes, @Nullable Object value) {
+    switch (value) {
+      case null -> writeByte(bytes, NULL_VALUE);
+      case Entity entity when entity.isEmbedded() -> {
+        writeByte(bytes, RESULT_VALUE);
+        serialize(session, new ResultInternal(session, entity), bytes);
+      }
+      case Identifiable identifiable -> {
+        writeByte(bytes, LINK_VALUE);
+        HelperClasses.writeOptimizedLink(session, bytes, identifiable);
+      }
+      case Result result -> {
+        writeByte(bytes, RESULT_VALUE);
+        serialize(session, result, bytes);
+      }
+      case Set<?> set -> writeCollection(session, bytes, SET_VALUE, set);
+      case Collection<?> collection -> writeCollection(session, bytes, LIST_VALUE, collection);
+      case Map<?, ?> map -> {
+        writeByte(bytes, MAP_VALUE);
+        VarIntSerializer.write(bytes, map.size());
+        for (var entry : map.entrySet()) {
+          writeValue(session, bytes, entry.getKey());
+          writeValue(session, bytes, entry.getValue());
+        }
+      }
+      default -> {
+        if (!SCALAR_CLASSES.contains(value.getClass())) {
+          throw new CommandExecutionException(session,
+              "Value of type " + value.getClass().getName()
+                  + " can not be spilled to disk during query execution");
+        }
+
+        var type = PropertyTypeInternal.getTypeByValue(value);
+        writeByte(bytes, SCALAR_VALUE);
+        writeByte(bytes, (byte) type.getId());
+        serializer().serializeValue(session, bytes, value, type, null, null, null);
+      }
+    }
+  }
+
+  private static void writeCollection(
+      DatabaseSessionEmbedded session, BytesContainer bytes, byte marker,
+      Collection<?> collection) {
+    writeByte(bytes, marker);
+    VarIntSerializer.write(bytes, collection.size());
+    for (var item : collection) {
+      writeValue(session, bytes, item);
+    }
+  }
+
+  /** Reads a value written by {@link #writeValue}. */
+  @Nullable
+  public static Object readValue(DatabaseSessionEmbedded session, BytesContainer bytes) {
+    var marker = bytes.bytes[bytes.offset++];
+    return switch (marker) {
+      case NULL_VALUE -> null;
+      case SCALAR_VALUE -> {
+        var type = PropertyTypeInternal.getById(bytes.bytes[bytes.offset++]);
+        yield serializer().deserializeValue(session, bytes, type, null);
+      }
+      case LINK_VALUE -> HelperClasses.readOptimizedLink(bytes, false);
+      case RESULT_VALUE -> deserialize(session, bytes);
+      case LIST_VALUE -> {
+        var size = VarIntSerializer.readAsInteger(bytes);
+        var list = new ArrayList<>(size);
+        for (var i = 0; i < size; i++) {
+          list.add(readValue(session, bytes));
+        }
+        yield list;
+      }
+      case SET_VALUE -> {
+        var size = VarIntSerializer.readAsInteger(bytes);
+        var set = new LinkedHashSet<>(size);
+        for (var i = 0; i < size; i++) {
+          set.add(readValue(session, bytes));
+        }
+        yield set;
+      }
+      case MAP_VALUE -> {
+        var size = VarIntSerializer.readAsInteger(bytes);
+        var map = new LinkedHashMap<>(size);
+        for (var i = 0; i < size; i++) {
+          var key = readValue(session, bytes);
+          map.put(key, readValue(session, bytes));
+        }
+        yield map;
+      }
+      default -> throw new IllegalStateException("Unknown spilled value marker " + marker);
+    };
+  }
+
+  private static void writeByte(BytesContainer bytes, byte value) {
+    bytes.bytes[bytes.alloc(1)] = value;
+  }
+
+  private static EntitySerializer serializer() {
+    return RecordSerializerBinary.INSTANCE.getCurrentSerializer();
+  }
+}
@@ -0,0 +1,226 @@
+package com.jetbrains.youtrackdb.internal.core.sql.executor.spill;
+
+import com.jetbrains.youtrackdb.api.config.GlobalConfiguration;
+import com.jetbrains.youtrackdb.internal.core.command.CommandContext;
+import com.jetbrains.youtrackdb.internal.core.db.DatabaseSessionEmbedded;
+import com.jetbrains.youtrackdb.internal.core.exception.BaseException;
+import com.jetbrains.youtrackdb.internal.core.exception.CommandExecutionException;
+import com.jetbrains.youtrackdb.internal.core.query.Result;
+import com.jetbrains.youtrackdb.internal.core.serialization.serializer.record.binary.BytesContainer;
+import com.jetbrains.youtrackdb.internal.core.sql.executor.resultset.ExecutionStream;
+import com.jetbrains.youtrackdb.internal.core.storage.disk.DiskStorage;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Temporary file which holds query results that do not fit into the heap limit of a query
+ * operation ({@code QUERY_MAX_HEAP_ELEMENTS_ALLOWED_PER_OP}), or other values which are converted
+ * to bytes by a {@link SpillSerializer}.
+ *
+ * <p>Values are appended with {@link #write} and, once writing is finished, are read back in the
+ * same order by a {@link Reader}. Files of disk databases are placed in
+ * {@link DiskStorage#getQuerySpillPath()}, files of in-memory databases in the temporary directory
+ * of the JVM. The file is deleted by {@link #close()}.
+ */
+public final class SpillFile<T> implements AutoCloseable {
+
+  private static final String IN_MEMORY_SPILL_DIRECTORY = "youtrackdb-query-spill";
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final DatabaseSessionEmbedded session;
+  private final SpillSerializer<T> serializer;
+  private final Path path;
+  private final BytesContainer buffer = new BytesContainer();
+
+  @Nullable private DataOutputStream output;
+  @Nullable private Reader reader;
+  private long size;
+
+  private SpillFile(DatabaseSessionEmbedded session, SpillSerializer<T> serializer, Path path,
+      DataOutputStream output) {
+    this.session = session;
+    this.serializer = serializer;
+    this.path = path;
+    this.output = output;
+  }
+
+  /** Creates a file of query results. */
+  public static SpillFile<Result> create(@Nonnull DatabaseSessionEmbedded session) {
+    return create(session, ResultSpillSerializer.forSession(session));
+  }
+
+  /** Creates a file of values which are written and read by the given serializer. */
+  public static <T> SpillFile<T> create(
+      @Nonnull DatabaseSessionEmbedded session, @Nonnull SpillSerializer<T> serializer) {
+    try {
+      var directory = spillDirectory(session);
+      Files.createDirectories(directory);
+
+      var path = Files.createTempFile(directory, "spill-", ".tmp");
+      var output =
+          new DataOutputStream(
+              new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE));
+      return new SpillFile<>(session, serializer, path, output);
+    } catch (IOException e) {
+      throw wrapException(session, e);
+    }
+  }
+
+  /**
+   * Whether query operations which exceed {@code QUERY_MAX_HEAP_ELEMENTS_ALLOWED_PER_OP} spill
+   * their state to disk instead of failing.
+   */
+  public static boolean isEnabled(@Nullable DatabaseSessionEmbedded session) {
+    return session == null
+        ? GlobalConfiguration.QUERY_SPILL_TO_DISK_ENABLED.getValueAsBoolean()
+        : session.getConfiguration()
+            .getValueAsBoolean(GlobalConfiguration.QUERY_SPILL_TO_DISK_ENABLED);
+  }
+
+  /**
+   * Directory where temporary files of the given session are created. For disk storages it is the
+   * storage's own spill directory which is cleaned up when the storage is opened or closed.
+   */
+  public static Path spillDirectory(DatabaseSessionEmbedded session) {
+    if (session.getStorage() instanceof DiskStorage diskStorage) {
+      return diskStorage.getQuerySpillPath();
+    }
+    return Path.of(System.getProperty("java.io.tmpdir"), IN_MEMORY_SPILL_DIRECTORY);
+  }
+
+  public void write(@Nonnull T value) {
+    if (output == null) {
+      throw new IllegalStateException("Spill file " + path + " is not opened for writing");
+    }
+
+    buffer.offset = 0;
+    serializer.serialize(value, buffer);
+    try {
+      output.writeInt(buffer.offset);
+      output.write(buffer.bytes, 0, buffer.offset);
+    } catch (IOException e) {
+      throw wrapException(session, e);
+    }
+    size++;
+  }
+
+  /** Number of values written to the file. */
+  public long size() {
+    return size;
+  }
+
+  /**
+   * Finishes writing and opens a reader which returns the written values in the order they were
+   * written. Only one reader may be opened for a file.
+   */
+  public Reader openReader() {
+    if (reader != null) {
+      throw new IllegalStateException("Spill file " + path + " is already being read");
+    }
+
+    try {
+      closeOutput();
+      reader =
+          new Reader(
+              new DataInputStream(
+                  new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE)));
+      return reader;
+    } catch (IOException e) {
+      throw wrapException(session, e);
+    }
+  }
+
+  /**
+   * Finishes writing and returns the results written to the file as a stream. The file is deleted
+   * when the stream is closed.
+   */
+  public static ExecutionStream stream(@Nonnull SpillFile<? extends Result> file) {
+    var fileReader = file.openReader();
+    return new ExecutionStream() {
+      @Override
+      public boolean hasNext(CommandContext ctx) {
+        return fileReader.hasNext();
+      }
+
+      @Override
+      public Result next(CommandContext ctx) {
+        return fileReader.next();
+      }
+
+      @Override
+      public void close(CommandContext ctx) {
+        file.close();
+      }
+    };
+  }
+
+  @Override
+  public void close() {
+    try {
+      closeOutput();
+      if (reader != null) {
+        reader.input.close();
+      }
+      Files.deleteIfExists(path);
+    } catch (IOException e) {
+      throw wrapException(session, e);
+    }
+  }
+
+  private void closeOutput() throws IOException {
+    if (output != null) {
+      output.close();
+      output = null;
+    }
+  }
+
+  private static BaseException wrapException(DatabaseSessionEmbedded session, IOException e) {
+    return BaseException.wrapException(
+        new CommandExecutionException(session, "Error on spilling query results to disk"), e,
+        session);
+  }
+
+  /** Sequential reader of the values of a spill file. */
+  public final class Reader {
+
+    private final DataInputStream input;
+    private final BytesContainer readBuffer = new BytesContainer();
+    private long read;
+
+    private Reader(DataInputStream input) {
+      this.input = input;
+    }
+
+    public boolean hasNext() {
+      return read < size;
+    }
+
+    public T next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+
+      try {
+        var length = input.readInt();
+        if (readBuffer.bytes.length < length) {
+          readBuffer.bytes = new byte[Math.max(length, readBuffer.bytes.length << 1)];
+        }
+        input.readFully(readBuffer.bytes, 0, length);
+      } catch (IOException e) {
+        throw wrapException(session, e);
+      }
+
+      readBuffer.offset = 0;
+      read++;
+      return serializer.deserialize(readBuffer);
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package com.jetbrains.youtrackdb.internal.core.sql.executor.spill;
+
+import com.jetbrains.youtrackdb.internal.core.db.DatabaseSessionEmbedded;
+import com.jetbrains.youtrackdb.internal.core.query.Result;
+import it.unimi.dsi.fastutil.HashCommon;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Hash partitioned {@link SpillFile}s used by DISTINCT and GROUP BY once their in-heap state
+ * reaches the heap limit of a query operation.
+ *
+ * <p>Results are distributed by the hash code of their deduplication (or grouping) key, so all
+ * results with equal keys end up in the same partition and every partition can be processed on
+ * its own. A partition which still does not fit into the heap limit is partitioned again on the
+ * next {@link #level() level}, which uses a different group of bits of the hash code.
+ */
+public final class SpillPartitions implements AutoCloseable {
+
+  private static final int PARTITION_BITS = 4;
+  private static final int PARTITIONS = 1 << PARTITION_BITS;
+
+  private final DatabaseSessionEmbedded session;
+  private final int level;
+  @SuppressWarnings("unchecked")
+  private final SpillFile<Result>[] files = new SpillFile[PARTITIONS];
+  private int nextPartition;
+
+  public SpillPartitions(@Nonnull DatabaseSessionEmbedded session, int level) {
+    this.session = session;
+    this.level = level;
+  }
+
+  /** Depth of the partitioning, results read from these partitions are spilled on the next one. */
+  public int level() {
+    return level;
+  }
+
+  public void write(int hashCode, @Nonnull Result result) {
+    var shift = (level * PARTITION_BITS) % Integer.SIZE;
+    var partition = (HashCommon.murmurHash3(hashCode) >>> shift) & (PARTITIONS - 1);
+
+    var file = files[partition];
+    if (file == null) {
+      file = SpillFile.create(session);
+      files[partition] = file;
+    }
+    file.write(result);
+  }
+
+  /** Whether there are partitions which were not returned by {@link #poll()} yet. */
+  public boolean hasNext() {
+    while (nextPartition < PARTITIONS && files[nextPartition] == null) {
+      nextPartition++;
+    }
+    return nextPartition < PARTITIONS;
+  }
+
+  /**
+   * Returns the next non-empty partition. The caller becomes the owner of the returned file and is
+   * responsible for closing it.
+   */
+  @Nullable
+  public SpillFile<Result> poll() {
+    if (!hasNext()) {
+      return null;
+    }
+
+    var file = files[nextPartition];
+    files[nextPartition] = null;
+    return file;
+  }
+
+  @Override
+  public void close() {
+    for (var i = 0; i < PARTITIONS; i++) {
+      if (files[i] != null) {
+        files[i].close();
+        files[i] = null;
+      }
+    }
+  }
+}
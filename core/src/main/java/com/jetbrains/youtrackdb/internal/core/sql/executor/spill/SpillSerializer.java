@@ -0,0 +1,19 @@
+package com.jetbrains.youtrackdb.internal.core.sql.executor.spill;
+
+import com.jetbrains.youtrackdb.internal.core.serialization.serializer.record.binary.BytesContainer;
+import javax.annotation.Nonnull;
+
+/**
+ * Converts the values kept in a {@link SpillFile} to bytes and back. Query operations spill
+ * results through {@link ResultSpillSerializer#forSession}; other users of the {@link
+ * ExternalSorter} supply a serializer of their own, more compact, entries.
+ */
+public interface SpillSerializer<T> {
+
+  /** Appends the value to {@code bytes}, starting at its current offset. */
+  void serialize(@Nonnull T value, @Nonnull BytesContainer bytes);
+
+  /** Reads a value written by {@link #serialize}, starting at the current offset of bytes. */
+  @Nonnull
+  T deserialize(@Nonnull BytesContainer bytes);
+}
@@ -0,0 +1,153 @@
+package com.jetbrains.youtrackdb.internal.core.sql.functions.graph;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Binary min-heap of dense non-negative {@code int} nodes keyed by a {@code double} priority, with
+ * O(log n) decrease-key. The position of every node in the heap array is tracked, so a node whose
+ * priority changes is sifted in place instead of being searched for and re-inserted.
+ *
+ * <p>Used by the path finders, whose nodes are the dense ids handed out by {@link RidIndex}. Keys
+ * and positions live in primitive arrays indexed by node, so no boxing happens per relaxation.
+ */
+final class IndexedMinHeap {
+
+  private static final int NOT_IN_HEAP = -1;
+
+  /** Heap array of nodes; {@code heap[0]} has the smallest key. */
+  private int[] heap;
+  private int size;
+
+  /** Position of each node in {@link #heap}, or {@link #NOT_IN_HEAP}. Indexed by node. */
+  private int[] positions;
+
+  /** Key of each node currently in the heap. Indexed by node. */
+  private double[] keys;
+
+  IndexedMinHeap() {
+    this(16);
+  }
+
+  IndexedMinHeap(int initialCapacity) {
+    var capacity = Math.max(initialCapacity, 1);
+    heap = new int[capacity];
+    positions = new int[capacity];
+    Arrays.fill(positions, NOT_IN_HEAP);
+    keys = new double[capacity];
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  int size() {
+    return size;
+  }
+
+  boolean contains(int node) {
+    return node < positions.length && positions[node] != NOT_IN_HEAP;
+  }
+
+  /** Returns the key of a node in the heap. */
+  double key(int node) {
+    if (!contains(node)) {
+      throw new NoSuchElementException("Node " + node + " is not in the heap");
+    }
+    return keys[node];
+  }
+
+  /**
+   * Inserts the node with the given key, or moves it to its new position when it is already in the
+   * heap and its key changed.
+   */
+  void insertOrUpdate(int node, double key) {
+    if (contains(node)) {
+      var previous = keys[node];
+      keys[node] = key;
+      if (key < previous) {
+        siftUp(positions[node]);
+      } else if (key > previous) {
+        siftDown(positions[node]);
+      }
+      return;
+    }
+
+    ensureNodeCapacity(node + 1);
+    if (size == heap.length) {
+      heap = Arrays.copyOf(heap, heap.length << 1);
+    }
+    keys[node] = key;
+    heap[size] = node;
+    positions[node] = size;
+    siftUp(size++);
+  }
+
+  /** Removes and returns the node with the smallest key. */
+  int poll() {
+    if (size == 0) {
+      throw new NoSuchElementException("Heap is empty");
+    }
+    var min = heap[0];
+    positions[min] = NOT_IN_HEAP;
+    size--;
+    if (size > 0) {
+      var last = heap[size];
+      heap[0] = last;
+      positions[last] = 0;
+      siftDown(0);
+    }
+    return min;
+  }
+
+  private void siftUp(int pos) {
+    var node = heap[pos];
+    var key = keys[node];
+    while (pos > 0) {
+      var parentPos = (pos - 1) >>> 1;
+      var parent = heap[parentPos];
+      if (keys[parent] <= key) {
+        break;
+      }
+      heap[pos] = parent;
+      positions[parent] = pos;
+      pos = parentPos;
+    }
+    heap[pos] = node;
+    positions[node] = pos;
+  }
+
+  private void siftDown(int pos) {
+    var node = heap[pos];
+    var key = keys[node];
+    var half = size >>> 1;
+    while (pos < half) {
+      var childPos = (pos << 1) + 1;
+      var child = heap[childPos];
+      var rightPos = childPos + 1;
+      if (rightPos < size && keys[heap[rightPos]] < keys[child]) {
+        childPos = rightPos;
+        child = heap[childPos];
+      }
+      if (key <= keys[child]) {
+        break;
+      }
+      heap[pos] = child;
+      positions[child] = pos;
+      pos = childPos;
+    }
+    heap[pos] = node;
+    positions[node] = pos;
+  }
+
+  private void ensureNodeCapacity(int required) {
+    var current = positions.length;
+    if (required <= current) {
+      return;
+    }
+    var newCapacity = Math.max(current << 1, required);
+    positions = Arrays.copyOf(positions, newCapacity);
+    Arrays.fill(positions, current, newCapacity, NOT_IN_HEAP);
+    keys = Arrays.copyOf(keys, newCapacity);
+  }
+}
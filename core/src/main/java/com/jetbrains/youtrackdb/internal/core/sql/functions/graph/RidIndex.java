@@ -0,0 +1,61 @@
+package com.jetbrains.youtrackdb.internal.core.sql.functions.graph;
+
+import com.jetbrains.youtrackdb.internal.core.db.record.record.RID;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import java.util.Arrays;
+
+/**
+ * Assigns dense {@code int} ids to the RIDs a path finder reaches, so per-vertex state (distances,
+ * predecessors, heap positions) can be kept in primitive arrays indexed by id.
+ *
+ * <p>RIDs are looked up by collection id and then by collection position in fastutil primitive
+ * maps; no {@link RID} is hashed or boxed per lookup.
+ */
+final class RidIndex {
+
+  private static final int ABSENT = -1;
+
+  private final Int2ObjectOpenHashMap<Long2IntOpenHashMap> idsByCollection =
+      new Int2ObjectOpenHashMap<>();
+  private RID[] rids = new RID[16];
+  private int size;
+
+  /** Returns the id of the RID, or -1 when it has not been added. */
+  int get(RID rid) {
+    var ids = idsByCollection.get(rid.getCollectionId());
+    return ids == null ? ABSENT : ids.get(rid.getCollectionPosition());
+  }
+
+  /** Returns the id of the RID, assigning the next free id when it has not been added yet. */
+  int getOrAdd(RID rid) {
+    var ids = idsByCollection.get(rid.getCollectionId());
+    if (ids == null) {
+      ids = new Long2IntOpenHashMap();
+      ids.defaultReturnValue(ABSENT);
+      idsByCollection.put(rid.getCollectionId(), ids);
+    }
+    var id = ids.get(rid.getCollectionPosition());
+    if (id != ABSENT) {
+      return id;
+    }
+
+    id = size++;
+    if (id == rids.length) {
+      rids = Arrays.copyOf(rids, rids.length << 1);
+    }
+    rids[id] = rid;
+    ids.put(rid.getCollectionPosition(), id);
+    return id;
+  }
+
+  /** Returns the RID an id was assigned to. */
+  RID rid(int id) {
+    return rids[id];
+  }
+
+  /** Number of RIDs added; ids are {@code 0 .. size() - 1}. */
+  int size() {
+    return size;
+  }
+}
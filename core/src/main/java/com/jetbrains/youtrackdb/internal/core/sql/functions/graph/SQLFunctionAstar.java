@@ -27,18 +27,18 @@ import com.jetbrains.youtrackdb.internal.core.db.record.record.Direction;
 import com.jetbrains.youtrackdb.internal.core.db.record.record.Edge;
 import com.jetbrains.youtrackdb.internal.core.db.record.record.Entity;
 import com.jetbrains.youtrackdb.internal.core.db.record.record.Identifiable;
+import com.jetbrains.youtrackdb.internal.core.db.record.record.RID;
 import com.jetbrains.youtrackdb.internal.core.db.record.record.Vertex;
 import com.jetbrains.youtrackdb.internal.core.query.Result;
 import com.jetbrains.youtrackdb.internal.core.record.impl.EntityImpl;
 import com.jetbrains.youtrackdb.internal.core.sql.SQLHelper;
-import java.util.Comparator;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.PriorityQueue;
-import java.util.Set;
 import javax.annotation.Nullable;
 
 /**
@@ -57,21 +57,16 @@ public class SQLFunctionAstar extends SQLFunctionHeuristicPathFinderAbstract {
 
   private String paramWeightFieldName = "weight";
   private long currentDepth = 0;
-  protected Set<Vertex> closedSet = new HashSet<Vertex>();
-  protected Map<Vertex, Vertex> cameFrom = new HashMap<Vertex, Vertex>();
-
-  protected Map<Vertex, Double> gScore = new HashMap<Vertex, Double>();
-  protected Map<Vertex, Double> fScore = new HashMap<Vertex, Double>();
-  protected PriorityQueue<Vertex> open =
-      new PriorityQueue<Vertex>(
-          1,
-          new Comparator<Vertex>() {
-
-            @Override
-            public int compare(Vertex nodeA, Vertex nodeB) {
-              return Double.compare(fScore.get(nodeA), fScore.get(nodeB));
-            }
-          });
+
+  /**
+   * Dense ids of the reached vertices. The per-vertex state below is kept in primitive arrays
+   * indexed by these ids.
+   */
+  private final RidIndex nodes = new RidIndex();
+  private final BitSet closedSet = new BitSet();
+  private double[] gScore = new double[16];
+  private int[] cameFrom = new int[16];
+  private final IndexedMinHeap open = new IndexedMinHeap();
 
   public SQLFunctionAstar() {
     super(NAME, 3, 4);
@@ -147,58 +142,74 @@ public class SQLFunctionAstar extends SQLFunctionHeuristicPathFinderAbstract {
     return internalExecute(iContext, iContext.getDatabaseSession());
   }
 
+  /**
+   * A* over an indexed binary heap of vertex ids keyed by f-score. A vertex whose g-score improves
+   * is repositioned in the heap in place. Only expanded vertices are loaded: neighbours are
+   * identified by the RIDs stored in the edges, and are loaded only when the heuristic reads their
+   * axis properties.
+   */
   private LinkedList<Vertex> internalExecute(
       final CommandContext iContext, DatabaseSessionEmbedded graph) {
 
     var start = paramSourceVertex;
     var goal = paramDestinationVertex;
+    var heuristicReadsNeighbors = paramVertexAxisNames.length > 0;
 
-    open.add(start);
-
+    var startId = nodes.getOrAdd(start.getIdentity());
+    var goalId = nodes.getOrAdd(goal.getIdentity());
+    ensureNodeCapacity(nodes.size());
     // The cost of going from start to start is zero.
-    gScore.put(start, 0.0);
+    gScore[startId] = 0.0;
+    cameFrom[startId] = -1;
     // For the first node, that value is completely heuristic.
-    fScore.put(start, getHeuristicCost(start, null, goal, iContext));
+    open.insertOrUpdate(startId, getHeuristicCost(start, null, goal, iContext));
 
     while (!open.isEmpty()) {
-      var current = open.poll();
+      var currentId = open.poll();
 
       if (paramEmptyIfMaxDepth && currentDepth >= paramMaxDepth) {
         route.clear(); // to ensure our result is empty
         return getPath();
       }
-      // if start and goal vertex is equal so return current path from  cameFrom hash map
-      if (current.getIdentity().equals(goal.getIdentity()) || currentDepth >= paramMaxDepth) {
-
-        while (current != null) {
-          route.add(0, current);
-          current = cameFrom.get(current);
+      // if start and goal vertex is equal so return current path from cameFrom
+      if (currentId == goalId || currentDepth >= paramMaxDepth) {
+        var step = currentId;
+        while (step != -1) {
+          route.add(0, step == startId
+              ? start
+              : step == goalId ? goal : toVertex(nodes.rid(step), graph));
+          step = cameFrom[step];
         }
         return getPath();
       }
 
-      closedSet.add(current);
+      closedSet.set(currentId);
+      var currentRid = nodes.rid(currentId);
+      var current = currentId == startId ? start : toVertex(currentRid, graph);
       for (var neighborEdge : getNeighborEdges(current)) {
-
-        var neighbor = getNeighbor(graph, current, neighborEdge, graph);
+        if (neighborEdge == null) {
+          continue;
+        }
+        var neighborRid = getNeighbor(currentRid, neighborEdge);
+        if (neighborRid == null) {
+          continue;
+        }
+        var neighborId = nodes.getOrAdd(neighborRid);
+        ensureNodeCapacity(neighborId + 1);
         // Ignore the neighbor which is already evaluated.
-        if (closedSet.contains(neighbor)) {
+        if (closedSet.get(neighborId)) {
           continue;
         }
         // The distance from start to a neighbor
-        var tentativeGScore = gScore.get(current) + getDistance(neighborEdge);
-        var contains = open.contains(neighbor);
-
-        if (!contains || tentativeGScore < gScore.get(neighbor)) {
-          gScore.put(neighbor, tentativeGScore);
-          fScore.put(
-              neighbor, tentativeGScore + getHeuristicCost(neighbor, current, goal, iContext));
-
-          if (contains) {
-            open.remove(neighbor);
-          }
-          open.offer(neighbor);
-          cameFrom.put(neighbor, current);
+        var tentativeGScore = gScore[currentId] + getDistance(neighborEdge);
+
+        if (!open.contains(neighborId) || tentativeGScore < gScore[neighborId]) {
+          gScore[neighborId] = tentativeGScore;
+          var neighbor = heuristicReadsNeighbors ? toVertex(neighborRid, graph) : null;
+          open.insertOrUpdate(
+              neighborId,
+              tentativeGScore + getHeuristicCost(neighbor, current, goal, iContext));
+          cameFrom[neighborId] = currentId;
         }
       }
 
@@ -209,12 +220,22 @@ public class SQLFunctionAstar extends SQLFunctionHeuristicPathFinderAbstract {
     return getPath();
   }
 
-  private static Vertex getNeighbor(DatabaseSessionEmbedded db, Vertex current, Edge neighborEdge,
-      DatabaseSessionEmbedded unusedGraph) {
-    if (neighborEdge.getFrom().equals(current)) {
-      return toVertex(neighborEdge.getTo(), db);
+  private void ensureNodeCapacity(int required) {
+    if (required > gScore.length) {
+      var newCapacity = Math.max(gScore.length << 1, required);
+      gScore = Arrays.copyOf(gScore, newCapacity);
+      cameFrom = Arrays.copyOf(cameFrom, newCapacity);
+    }
+  }
+
+  /** Returns the RID of the end of the edge opposite to {@code current}. */
+  @Nullable private static RID getNeighbor(RID current, Edge neighborEdge) {
+    var from = neighborEdge.getFromLink();
+    if (from != null && from.getIdentity().equals(current)) {
+      var to = neighborEdge.getToLink();
+      return to == null ? null : to.getIdentity();
     }
-    return toVertex(neighborEdge.getFrom(), db);
+    return from == null ? null : from.getIdentity();
   }
 
   @Nullable private static Vertex toVertex(Identifiable outVertex, DatabaseSessionEmbedded db) {
@@ -228,19 +249,13 @@ public class SQLFunctionAstar extends SQLFunctionHeuristicPathFinderAbstract {
     return ((Entity) outVertex).asVertexOrNull();
   }
 
-  protected Set<Edge> getNeighborEdges(final Vertex node) {
+  protected Iterable<Edge> getNeighborEdges(final Vertex node) {
     context.incrementVariable("getNeighbors");
 
-    final Set<Edge> neighbors = new HashSet<Edge>();
-    if (node != null) {
-      for (var v : node.getEdges(paramDirection, paramEdgeTypeNames)) {
-        final var ov = v;
-        if (ov != null) {
-          neighbors.add(ov);
-        }
-      }
+    if (node == null) {
+      return List.of();
     }
-    return neighbors;
+    return node.getEdges(paramDirection, paramEdgeTypeNames);
   }
 
   private void bindAdditionalParams(Object additionalParams, SQLFunctionAstar ctx) {
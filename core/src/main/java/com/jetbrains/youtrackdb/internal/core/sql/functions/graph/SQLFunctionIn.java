@@ -83,6 +83,9 @@ public class SQLFunctionIn extends SQLFunctionMoveFiltered implements SQLGraphNa
       return null;
     }
     var index = indexes.iterator().next();
+    if (!session.isIndexUsableByQueries(index)) {
+      return null;
+    }
 
     var result = new MultiCollectionIterator<Vertex>();
     for (var identifiable : to) {
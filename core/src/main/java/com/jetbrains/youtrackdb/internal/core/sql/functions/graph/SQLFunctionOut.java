@@ -85,6 +85,9 @@ public class SQLFunctionOut extends SQLFunctionMoveFiltered implements SQLGraphN
       return null;
     }
     var index = indexes.iterator().next();
+    if (!session.isIndexUsableByQueries(index)) {
+      return null;
+    }
 
     var result = new MultiCollectionIterator<Vertex>();
     for (var to : iTo) {
@@ -16,12 +16,12 @@ import com.jetbrains.youtrackdb.internal.core.query.Result;
 import com.jetbrains.youtrackdb.internal.core.record.impl.BidirectionalLinksIterable;
 import com.jetbrains.youtrackdb.internal.core.record.impl.EntityImpl;
 import com.jetbrains.youtrackdb.internal.core.sql.SQLHelper;
+import com.jetbrains.youtrackdb.internal.core.sql.executor.RidSet;
 import com.jetbrains.youtrackdb.internal.core.sql.functions.math.SQLFunctionMathAbstract;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -57,8 +57,8 @@ public class SQLFunctionShortestPath extends SQLFunctionMathAbstract {
     private ArrayDeque<Vertex> queueLeft = new ArrayDeque<>();
     private ArrayDeque<Vertex> queueRight = new ArrayDeque<>();
 
-    private final Set<RID> leftVisited = new HashSet<RID>();
-    private final Set<RID> rightVisited = new HashSet<RID>();
+    private final Set<RID> leftVisited = new RidSet();
+    private final Set<RID> rightVisited = new RidSet();
 
     private final Map<RID, RID> previouses = new HashMap<RID, RID>();
     private final Map<RID, RID> nexts = new HashMap<RID, RID>();
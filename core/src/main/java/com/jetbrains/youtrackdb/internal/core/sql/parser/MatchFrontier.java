@@ -0,0 +1,61 @@
+package com.jetbrains.youtrackdb.internal.core.sql.parser;
+
+import java.util.Map;
+import javax.annotation.Nullable;
+
+/**
+ * Switches a variable-depth MATCH edge (one with a {@code while} condition and/or a
+ * {@code maxDepth}) from the depth-first path enumeration to the level-synchronous frontier
+ * traversal of {@code FrontierTraversalStream}, which is the shape of Gremlin's
+ * {@code repeat()/until()/emit()/times()}.
+ *
+ * <p>The frontier traversal expands one depth at a time and merges the records reached through
+ * different paths at the same depth into a single row whose <em>bulk</em> is the number of those
+ * paths, so {@code repeat(out()).times(8)} costs one row per distinct vertex and depth instead of
+ * one row per path.
+ *
+ * <p>A record reached at a depth leaves the loop when the depth equals {@code maxDepth} or, from
+ * {@code whileFromDepth} on, the {@code while} condition no longer holds on it; leaving records are
+ * always returned (Gremlin's loop exit). {@code whileFromDepth} is {@code 0} for {@code
+ * until().repeat()}, which tests the starting record too, and {@code 1} for {@code
+ * repeat().until()}, which tests records only once they went through the loop body. Records that
+ * stay in the loop are additionally returned when their depth is at least {@code emitFromDepth}
+ * (Gremlin's {@code emit()}: {@code 1} for {@code repeat().emit()}, {@code 0} for {@code
+ * emit().repeat()}); a null {@code emitFromDepth} returns leaving records only.
+ *
+ * <p>Without {@code simplePath} a record is expanded again every time it is reached, exactly as
+ * Gremlin expands a traverser every time it goes around the loop: a loop bounded neither by {@code
+ * maxDepth} nor by a {@code while} condition that eventually fails does not terminate on a cyclic
+ * graph, natively or here.
+ *
+ * <p>The frontier has no syntax of its own: front-ends which build the MATCH AST directly attach
+ * it through {@link SQLMatchFilter#setFrontier}.
+ *
+ * @param emitFromDepth smallest depth at which records staying in the loop are returned, or null
+ *                      to return only records leaving it
+ * @param whileFromDepth smallest depth at which the {@code while} condition is tested
+ * @param simplePath    when true a record is not expanded into a record already on the path it was
+ *                      reached through (Gremlin's {@code simplePath()}); records are then merged only
+ *                      when they were reached through the same path
+ * @param bulkAlias     alias the bulk of each row is bound to, or null when it is not needed
+ */
+public record MatchFrontier(
+    @Nullable Integer emitFromDepth,
+    int whileFromDepth,
+    boolean simplePath,
+    @Nullable String bulkAlias) {
+
+  public void toString(Map<Object, Object> params, StringBuilder builder) {
+    builder.append("frontier: {emitFromDepth: ").append(emitFromDepth);
+    builder.append(", whileFromDepth: ").append(whileFromDepth);
+    builder.append(", simplePath: ").append(simplePath);
+    if (bulkAlias != null) {
+      builder.append(", bulkAlias: ").append(bulkAlias);
+    }
+    builder.append("}");
+  }
+
+  public void toGenericStatement(StringBuilder builder) {
+    toString(null, builder);
+  }
+}
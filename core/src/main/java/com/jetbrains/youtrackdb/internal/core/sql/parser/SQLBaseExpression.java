@@ -392,6 +392,11 @@ public final class SQLBaseExpression extends SQLMathExpression {
     return (record instanceof Result result) ? lastModifier.suffix.getCollate(result, ctx) : null;
   }
 
+  @Override
+  public boolean isLiteralConstant() {
+    return (number != null || string != null) && identifier == null && modifier == null;
+  }
+
   @Override
   public boolean isEarlyCalculated(CommandContext ctx) {
     if (number != null || inputParam != null || string != null) {
@@ -70,6 +70,11 @@ public class SQLCaseExpression extends SQLMathExpression {
     return false;
   }
 
+  @Override
+  public boolean isLiteralConstant() {
+    return false;
+  }
+
   @Override
   public boolean needsAliases(Set<String> aliases) {
     for (var cond : whenConditions) {
@@ -176,6 +176,22 @@ public class SQLCreateIndexStatement extends DDLStatement {
           engine, fields);
       idx = session.getIndex(indexName);
     } else {
+      var indexedFields = fields.length;
+      fields = IndexDefinitionFactory.appendIncludedFields(session.getDatabaseName(),
+          type.getStringValue(), fields, metadata);
+      if (fields.length > indexedFields) {
+        if (keyTypes != null && !keyTypes.isEmpty()) {
+          throw new IndexException(session,
+              "Included properties take their types from the schema, key types can not be"
+                  + " specified for index '" + name.getValue() + "'");
+        }
+        if (collatesList != null) {
+          collatesList = new ArrayList<>(collatesList);
+          while (collatesList.size() < fields.length) {
+            collatesList.add(null);
+          }
+        }
+      }
       final List<PropertyTypeInternal> fieldTypeList;
       if (keyTypes == null || keyTypes.isEmpty() && fields.length > 0) {
         for (final var fieldName : fields) {
@@ -213,6 +213,38 @@ public class SQLExpression extends SimpleNode {
     return null;
   }
 
+  /**
+   * Returns true when this expression is a literal, or arithmetic on literals only. Unlike
+   * {@link #isEarlyCalculated}, context variables, input parameters and function calls (such as
+   * {@code sysdate()}) are not accepted, so the value is the same for every execution of a query.
+   */
+  public boolean isLiteralConstant() {
+    if (mathExpression != null) {
+      return mathExpression.isLiteralConstant();
+    }
+    if (arrayConcatExpression != null || json != null || booleanExpression != null) {
+      return false;
+    }
+    return isNull
+        || booleanValue != null
+        || literalValue != null
+        || rid != null
+        || value instanceof Number
+        || value instanceof String;
+  }
+
+  /**
+   * Returns true when this expression is a plain property of the current record: a base
+   * identifier that is not a context variable such as {@code $currentUser}.
+   */
+  public boolean isRecordProperty() {
+    if (!isBaseIdentifier()) {
+      return false;
+    }
+    var propertyName = getDefaultAlias().getStringValue();
+    return propertyName != null && !propertyName.startsWith("$");
+  }
+
   public boolean isEarlyCalculated(CommandContext ctx) {
     if (this.mathExpression != null) {
       return this.mathExpression.isEarlyCalculated(ctx);
@@ -142,6 +142,70 @@ public class SQLMatchFilter extends SimpleNode {
     return null;
   }
 
+  /**
+   * Sets the {@code while} condition of a variable-depth edge, mirroring {@link #setFilter}. For
+   * front-ends that construct MATCH AST directly.
+   */
+  public void setWhileCondition(SQLWhereClause whileCondition) {
+    for (var item : items) {
+      if (item.whileCondition != null) {
+        item.whileCondition = whileCondition;
+        return;
+      }
+    }
+    var newItem = new SQLMatchFilterItem(-1);
+    newItem.whileCondition = whileCondition;
+    items.add(newItem);
+  }
+
+  /**
+   * Sets the {@code maxDepth} of a variable-depth edge, mirroring {@link #setFilter}. For
+   * front-ends that construct MATCH AST directly.
+   */
+  public void setMaxDepth(int maxDepth) {
+    var value = new SQLInteger(-1);
+    value.setValue(maxDepth);
+    for (var item : items) {
+      if (item.maxDepth != null) {
+        item.maxDepth = value;
+        return;
+      }
+    }
+    var newItem = new SQLMatchFilterItem(-1);
+    newItem.maxDepth = value;
+    items.add(newItem);
+  }
+
+  /**
+   * Returns the frontier options of a variable-depth edge, or null when the edge enumerates paths
+   * depth-first.
+   */
+  @Nullable
+  public MatchFrontier getFrontier() {
+    for (var item : items) {
+      if (item.frontier != null) {
+        return item.frontier;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Makes a variable-depth edge use the level-synchronous frontier traversal. There is no MATCH
+   * syntax for it; see {@link MatchFrontier}.
+   */
+  public void setFrontier(MatchFrontier frontier) {
+    for (var item : items) {
+      if (item.frontier != null) {
+        item.frontier = frontier;
+        return;
+      }
+    }
+    var newItem = new SQLMatchFilterItem(-1);
+    newItem.frontier = frontier;
+    items.add(newItem);
+  }
+
   @Nullable
   public String getClassName(CommandContext context) {
     for (var item : items) {
@@ -21,6 +21,7 @@ public class SQLMatchFilterItem extends SimpleNode {
   protected Boolean optional;
   protected SQLIdentifier depthAlias;
   protected SQLIdentifier pathAlias;
+  protected MatchFrontier frontier;
 
   public SQLMatchFilterItem(int id) {
     super(id);
@@ -99,6 +100,11 @@ public class SQLMatchFilterItem extends SimpleNode {
     if (pathAlias != null) {
       builder.append("pathAlias: ");
       pathAlias.toString(params, builder);
+      return;
+    }
+
+    if (frontier != null) {
+      frontier.toString(params, builder);
     }
   }
 
@@ -171,6 +177,11 @@ public class SQLMatchFilterItem extends SimpleNode {
     if (pathAlias != null) {
       builder.append("pathAlias: ");
       pathAlias.toGenericStatement(builder);
+      return;
+    }
+
+    if (frontier != null) {
+      frontier.toGenericStatement(builder);
     }
   }
 
@@ -206,6 +217,7 @@ public class SQLMatchFilterItem extends SimpleNode {
     result.optional = optional;
     result.depthAlias = depthAlias == null ? null : depthAlias.copy();
     result.pathAlias = pathAlias == null ? null : pathAlias.copy();
+    result.frontier = frontier;
     return result;
   }
 
@@ -256,7 +268,10 @@ public class SQLMatchFilterItem extends SimpleNode {
     if (!Objects.equals(depthAlias, that.depthAlias)) {
       return false;
     }
-    return Objects.equals(pathAlias, that.pathAlias);
+    if (!Objects.equals(pathAlias, that.pathAlias)) {
+      return false;
+    }
+    return Objects.equals(frontier, that.frontier);
   }
 
   @Override
@@ -274,6 +289,7 @@ public class SQLMatchFilterItem extends SimpleNode {
     result = 31 * result + (optional != null ? optional.hashCode() : 0);
     result = 31 * result + (depthAlias != null ? depthAlias.hashCode() : 0);
     result = 31 * result + (pathAlias != null ? pathAlias.hashCode() : 0);
+    result = 31 * result + (frontier != null ? frontier.hashCode() : 0);
     return result;
   }
 }
@@ -982,6 +982,21 @@ public class SQLMathExpression extends SimpleNode {
     return null;
   }
 
+  /**
+   * Returns true when all operands are literals, see {@link SQLExpression#isLiteralConstant()}.
+   */
+  public boolean isLiteralConstant() {
+    if (childExpressions == null || childExpressions.isEmpty()) {
+      return false;
+    }
+    for (var exp : childExpressions) {
+      if (!exp.isLiteralConstant()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   public boolean isEarlyCalculated(CommandContext ctx) {
     if (this.childExpressions != null) {
       for (var exp : childExpressions) {
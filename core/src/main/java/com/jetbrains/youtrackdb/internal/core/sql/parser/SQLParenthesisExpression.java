@@ -112,6 +112,11 @@ public class SQLParenthesisExpression extends SQLMathExpression {
     return true;
   }
 
+  @Override
+  public boolean isLiteralConstant() {
+    return statement == null && expression != null && expression.isLiteralConstant();
+  }
+
   @Override
   public boolean isEarlyCalculated(CommandContext ctx) {
     // TODO implement query execution and early calculation;
@@ -376,10 +376,18 @@ public class SQLProjectionItem extends SimpleNode {
     }
   }
 
+  public SQLNestedProjection getNestedProjection() {
+    return nestedProjection;
+  }
+
   public void setNestedProjection(SQLNestedProjection nestedProjection) {
     this.nestedProjection = nestedProjection;
   }
 
+  public boolean isExclude() {
+    return exclude;
+  }
+
   public boolean isCacheable(DatabaseSessionEmbedded session) {
     if (expression != null) {
       return expression.isCacheable(session);
@@ -98,7 +98,7 @@ public class SQLWhereClause extends SimpleNode {
 
     var indexesCount = 0L;
     var flattenedConditions = flatten(ctx, schemaClass);
-    var indexes = schemaClass.getIndexesInternal();
+    var indexes = session.indexesUsableByQueries(schemaClass.getIndexesInternal());
     for (var condition : flattenedConditions) {
 
       var indexedFunctConditions =
@@ -34,6 +34,8 @@ import com.jetbrains.youtrackdb.internal.common.directmemory.PageFramePool;
 import com.jetbrains.youtrackdb.internal.common.directmemory.Pointer;
 import com.jetbrains.youtrackdb.internal.common.io.IOUtils;
 import com.jetbrains.youtrackdb.internal.common.log.LogManager;
+import com.jetbrains.youtrackdb.internal.common.profiler.metrics.CoreMetrics;
+import com.jetbrains.youtrackdb.internal.common.profiler.metrics.Ratio;
 import com.jetbrains.youtrackdb.internal.common.serialization.types.IntegerSerializer;
 import com.jetbrains.youtrackdb.internal.common.serialization.types.LongSerializer;
 import com.jetbrains.youtrackdb.internal.common.serialization.types.StringSerializer;
@@ -42,6 +44,8 @@ import com.jetbrains.youtrackdb.internal.common.util.RawPair;
 import com.jetbrains.youtrackdb.internal.common.util.RawPairLongObject;
 import com.jetbrains.youtrackdb.internal.core.YouTrackDBEnginesManager;
 import com.jetbrains.youtrackdb.internal.core.command.CommandOutputListener;
+import com.jetbrains.youtrackdb.internal.core.compression.Compression;
+import com.jetbrains.youtrackdb.internal.core.compression.LZ4Compression;
 import com.jetbrains.youtrackdb.internal.core.exception.BaseException;
 import com.jetbrains.youtrackdb.internal.core.exception.DatabaseException;
 import com.jetbrains.youtrackdb.internal.core.exception.InvalidStorageEncryptionKeyException;
@@ -70,6 +74,7 @@ import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
 import java.io.EOFException;
 import java.io.IOException;
@@ -78,6 +83,7 @@ import java.io.StringWriter;
 import java.lang.ref.WeakReference;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.channels.CompletionHandler;
 import java.nio.channels.FileChannel;
 import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.FileStore;
@@ -111,6 +117,7 @@ import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.LongAdder;
 import java.util.zip.CRC32;
@@ -271,6 +278,26 @@ public final class WOWCache extends AbstractWriteCache
    */
   private static final long MAGIC_NUMBER_WITHOUT_CHECKSUM_ENCRYPTED = 0x2L;
 
+  /**
+   * Marks compressed pages which have a checksum stored.
+   */
+  public static final long MAGIC_NUMBER_WITH_CHECKSUM_COMPRESSED = 0xFACB03FCL;
+
+  /**
+   * Marks compressed pages which have a checksum stored and data encrypted
+   */
+  private static final long MAGIC_NUMBER_WITH_CHECKSUM_ENCRYPTED_COMPRESSED = 0x3L;
+
+  /**
+   * Marks compressed pages which have no checksum stored.
+   */
+  private static final long MAGIC_NUMBER_WITHOUT_CHECKSUM_COMPRESSED = 0xEF30BCAEL;
+
+  /**
+   * Marks compressed pages which have no checksum stored but have data encrypted
+   */
+  private static final long MAGIC_NUMBER_WITHOUT_CHECKSUM_ENCRYPTED_COMPRESSED = 0x4L;
+
   private static final int MAGIC_NUMBER_OFFSET = 0;
 
   public static final int CHECKSUM_OFFSET = MAGIC_NUMBER_OFFSET + LongSerializer.LONG_SIZE;
@@ -278,8 +305,36 @@ public final class WOWCache extends AbstractWriteCache
   private static final int PAGE_OFFSET_TO_CHECKSUM_FROM =
       LongSerializer.LONG_SIZE + IntegerSerializer.INT_SIZE;
 
+  /**
+   * Compressed page layout: magic number, checksum, length of compressed data and compressed data
+   * itself. Everything which follows the compressed data inside the page slot in the file is not
+   * written and contains stale bytes.
+   */
+  private static final int COMPRESSED_LENGTH_OFFSET = PAGE_OFFSET_TO_CHECKSUM_FROM;
+
+  private static final int COMPRESSED_DATA_OFFSET =
+      COMPRESSED_LENGTH_OFFSET + IntegerSerializer.INT_SIZE;
+
+  /**
+   * Compressed pages are written in blocks of this size, which matches the block size of the most
+   * of the file systems. Page is stored compressed only if compression saves at least one block.
+   */
+  private static final int COMPRESSED_PAGE_ALIGNMENT = 4 * 1024;
+
   private static final int CHUNK_SIZE = 64 * 1024 * 1024;
 
+  /**
+   * Amount of loads of adjacent pages of a file, after which loading of the file is considered to
+   * be sequential and the following pages are read ahead.
+   */
+  private static final int READ_AHEAD_SEQUENTIAL_LOADS = 4;
+
+  /**
+   * Maximum amount of pages which are read ahead and not loaded yet, across all files, expressed in
+   * read-ahead windows.
+   */
+  private static final int READ_AHEAD_MAX_WINDOWS = 64;
+
   /**
    * Executor which runs in single thread all tasks are related to flush of write cache data.
    */
@@ -533,6 +588,32 @@ public final class WOWCache extends AbstractWriteCache
 
   private final int exclusiveWriteCacheMaxSize;
 
+  /**
+   * Compression which is applied to the pages before they are written to the disk, or
+   * {@code null} if pages are written as is. Pages which are already stored compressed are
+   * uncompressed on load independently of this setting.
+   */
+  @Nullable private final Compression pageCompression;
+
+  /**
+   * Compression which is used to uncompress pages on load. Compressed pages do not store which
+   * compression was used, so if compression is switched off, pages are uncompressed by LZ4 which
+   * is the default page compression.
+   */
+  private final Compression pageDecompression;
+
+  /**
+   * Maximum length of the compressed page data which allows to save at least one
+   * {@link #COMPRESSED_PAGE_ALIGNMENT} block on write.
+   */
+  private final int maxCompressedPageDataLength;
+
+  /**
+   * Scratch buffer used to compress and uncompress pages, compressed data can not be written in
+   * place because source and destination regions overlap.
+   */
+  private final ThreadLocal<ByteBuffer> pageCompressionBuffer;
+
   private final boolean callFsync;
 
   private final int chunkSize;
@@ -583,6 +664,26 @@ public final class WOWCache extends AbstractWriteCache
    */
   private boolean suppressNonDurableRegistryPersist;
 
+  /**
+   * Amount of pages which are read ahead once sequential loading of a file is detected, {@code 0}
+   * if read-ahead is disabled.
+   */
+  private final int readAheadWindow;
+
+  /**
+   * Read-ahead state of the files which were loaded from the disk, keyed by internal file id. The
+   * state of a file is dropped together with its cached pages, so pages which are read ahead for a
+   * state which is not registered anymore are discarded.
+   */
+  private final ConcurrentHashMap<Integer, ReadAheadState> readAheadStates =
+      new ConcurrentHashMap<>();
+
+  /** Amount of pages which are read ahead (in flight or not loaded yet) across all files. */
+  private final AtomicInteger readAheadPages = new AtomicInteger();
+
+  /** Ratio of read-ahead pages which were loaded before being discarded. */
+  private final Ratio readAheadHitRatio;
+
   private boolean closed;
   private final ExecutorService executor;
 
@@ -606,8 +707,104 @@ public final class WOWCache extends AbstractWriteCache
       final byte[] aesKey,
       final boolean callFsync,
       ExecutorService executor) {
+    this(
+        pageSize,
+        logFileDeletion,
+        bufferPool,
+        writeAheadLog,
+        doubleWriteLog,
+        pagesFlushInterval,
+        shutdownTimeout,
+        exclusiveWriteCacheMaxSize,
+        storagePath,
+        storageName,
+        files,
+        id,
+        doubleWriteLogFileName,
+        checksumMode,
+        iv,
+        aesKey,
+        callFsync,
+        executor,
+        null);
+  }
+
+  public WOWCache(
+      final int pageSize,
+      final boolean logFileDeletion,
+      final ByteBufferPool bufferPool,
+      final WriteAheadLog writeAheadLog,
+      final DoubleWriteLog doubleWriteLog,
+      final long pagesFlushInterval,
+      final int shutdownTimeout,
+      final long exclusiveWriteCacheMaxSize,
+      final Path storagePath,
+      final String storageName,
+      final ClosableLinkedContainer<Long, File> files,
+      final int id, String doubleWriteLogFileName,
+      final ChecksumMode checksumMode,
+      final byte[] iv,
+      final byte[] aesKey,
+      final boolean callFsync,
+      ExecutorService executor,
+      @Nullable final Compression pageCompression) {
+    this(
+        pageSize,
+        logFileDeletion,
+        bufferPool,
+        writeAheadLog,
+        doubleWriteLog,
+        pagesFlushInterval,
+        shutdownTimeout,
+        exclusiveWriteCacheMaxSize,
+        storagePath,
+        storageName,
+        files,
+        id,
+        doubleWriteLogFileName,
+        checksumMode,
+        iv,
+        aesKey,
+        callFsync,
+        executor,
+        pageCompression,
+        0);
+  }
+
+  /**
+   * @param readAheadWindow amount of pages which are read ahead asynchronously once the cache
+   *                        detects that pages of a file are loaded sequentially, {@code 0}
+   *                        disables read-ahead
+   */
+  public WOWCache(
+      final int pageSize,
+      final boolean logFileDeletion,
+      final ByteBufferPool bufferPool,
+      final WriteAheadLog writeAheadLog,
+      final DoubleWriteLog doubleWriteLog,
+      final long pagesFlushInterval,
+      final int shutdownTimeout,
+      final long exclusiveWriteCacheMaxSize,
+      final Path storagePath,
+      final String storageName,
+      final ClosableLinkedContainer<Long, File> files,
+      final int id, String doubleWriteLogFileName,
+      final ChecksumMode checksumMode,
+      final byte[] iv,
+      final byte[] aesKey,
+      final boolean callFsync,
+      ExecutorService executor,
+      @Nullable final Compression pageCompression,
+      final int readAheadWindow) {
 
     this.logFileDeletion = logFileDeletion;
+    this.readAheadWindow = Math.max(readAheadWindow, 0);
+
+    final var metricsRegistry = YouTrackDBEnginesManager.instance().getMetricsRegistry();
+    this.readAheadHitRatio =
+        this.readAheadWindow > 0 && metricsRegistry != null
+            ? metricsRegistry.databaseMetric(CoreMetrics.READ_AHEAD_HIT_RATIO, storageName)
+            : Ratio.NOOP;
     this.doubleWriteLogFileName = doubleWriteLogFileName;
     if (aesKey != null && aesKey.length != 16 && aesKey.length != 24 && aesKey.length != 32) {
       throw new InvalidStorageEncryptionKeyException(storageName,
@@ -624,6 +821,26 @@ public final class WOWCache extends AbstractWriteCache
     this.aesKey = aesKey;
     this.callFsync = callFsync;
 
+    // largest multiple of the alignment which is still smaller than the page, if pages are too
+    // small to save anything on write they are never compressed
+    final var maxCompressedPageLength =
+        ((pageSize - 1) / COMPRESSED_PAGE_ALIGNMENT) * COMPRESSED_PAGE_ALIGNMENT;
+    if (pageCompression != null && maxCompressedPageLength > COMPRESSED_DATA_OFFSET) {
+      this.pageCompression = pageCompression;
+      this.maxCompressedPageDataLength = maxCompressedPageLength - COMPRESSED_DATA_OFFSET;
+    } else {
+      this.pageCompression = null;
+      this.maxCompressedPageDataLength = -1;
+    }
+    this.pageDecompression = pageCompression != null ? pageCompression : LZ4Compression.FAST;
+
+    // LZ4 worst case bound, enough for the codecs which do not expand data much more than LZ4,
+    // buffer is allocated only by the threads which actually compress or uncompress pages
+    final var pageDataLength = pageSize - PAGE_OFFSET_TO_CHECKSUM_FROM;
+    final var compressionBufferSize = pageDataLength + pageDataLength / 255 + 16;
+    this.pageCompressionBuffer =
+        ThreadLocal.withInitial(() -> ByteBuffer.allocate(compressionBufferSize));
+
     filesLock.acquireWriteLock();
     try {
       this.closed = true;
@@ -1320,6 +1537,9 @@ public final class WOWCache extends AbstractWriteCache
         final var pagePointer = writeCachePages.get(pageKey);
 
         if (pagePointer == null) {
+          if (readAheadWindow > 0) {
+            discardReadAheadPage(intId, pageIndex);
+          }
           doPutInCache(dataPointer, pageKey);
         } else {
           assert pagePointer.equals(dataPointer);
@@ -2423,6 +2643,10 @@ public final class WOWCache extends AbstractWriteCache
 
       closed = true;
 
+      for (final var intId : readAheadStates.keySet()) {
+        discardReadAheadPages(intId);
+      }
+
       final var fileIds = nameIdMap.values();
 
       final var closedIds = new LongArrayList(1_000);
@@ -2628,8 +2852,13 @@ public final class WOWCache extends AbstractWriteCache
           bufferPool.release(pointer);
         }
 
-        final var magicNumber =
+        final var storedMagicNumber =
             LongSerializer.deserializeNative(data, MAGIC_NUMBER_OFFSET);
+        final var compressed =
+            storedMagicNumber == MAGIC_NUMBER_WITH_CHECKSUM_COMPRESSED
+                || storedMagicNumber == MAGIC_NUMBER_WITHOUT_CHECKSUM_COMPRESSED;
+        final var magicNumber =
+            compressed ? uncompressedMagicNumber(storedMagicNumber) : storedMagicNumber;
 
         if (magicNumber != MAGIC_NUMBER_WITH_CHECKSUM
             && magicNumber != MAGIC_NUMBER_WITHOUT_CHECKSUM
@@ -2651,9 +2880,20 @@ public final class WOWCache extends AbstractWriteCache
           final var storedCRC32 =
               IntegerSerializer.deserializeNative(data, CHECKSUM_OFFSET);
 
+          // compressed pages are checked only till the end of compressed data, the rest of the
+          // page slot is not written and contains stale bytes
+          var checkedLength = data.length - PAGE_OFFSET_TO_CHECKSUM_FROM;
+          if (compressed) {
+            final var compressedLength =
+                IntegerSerializer.deserializeNative(data, COMPRESSED_LENGTH_OFFSET);
+            if (compressedLength >= 0 && compressedLength <= pageSize - COMPRESSED_DATA_OFFSET) {
+              checkedLength = COMPRESSED_DATA_OFFSET + compressedLength
+                  - PAGE_OFFSET_TO_CHECKSUM_FROM;
+            }
+          }
+
           final var crc32 = new CRC32();
-          crc32.update(
-              data, PAGE_OFFSET_TO_CHECKSUM_FROM, data.length - PAGE_OFFSET_TO_CHECKSUM_FROM);
+          crc32.update(data, PAGE_OFFSET_TO_CHECKSUM_FROM, checkedLength);
           final var calculatedCRC32 = (int) crc32.getValue();
 
           if (storedCRC32 != calculatedCRC32) {
@@ -3618,19 +3858,31 @@ public final class WOWCache extends AbstractWriteCache
         final var pageEndPosition = pagePosition + pageSize;
 
         // if page is not stored in the file may be page is stored in double write log
-        if (fileClassic.getFileSize() >= pageEndPosition) {
-          var pageFrame = pageFramePool.acquire(true, Intention.LOAD_PAGE_FROM_DISK);
+        final var fileSize = fileClassic.getFileSize();
+        if (fileSize >= pageEndPosition) {
+          // a page which was read ahead holds the same bytes as a page read below, so it passes
+          // the same verification and uncompression
+          var pageFrame = readAheadWindow > 0 ? takeReadAheadPage(internalFileId, pageIndex) : null;
+          if (pageFrame == null) {
+            pageFrame = pageFramePool.acquire(true, Intention.LOAD_PAGE_FROM_DISK);
+            readPageContent(fileClassic, pagePosition, pageFrame.getBuffer());
+          }
+
+          if (readAheadWindow > 0) {
+            readAheadIfSequential(fileClassic, internalFileId, pageIndex, fileSize / pageSize);
+          }
+
           var buffer = pageFrame.getBuffer();
 
           assert buffer.position() == 0;
           assert buffer.order() == ByteOrder.nativeOrder();
 
-          fileClassic.read(pagePosition, buffer, false);
-
-          if (verifyChecksums
-              && (checksumMode == ChecksumMode.StoreAndVerify
-                  || checksumMode == ChecksumMode.StoreAndThrow
-                  || checksumMode == ChecksumMode.StoreAndSwitchReadOnlyMode)) {
+          final var verified =
+              verifyChecksums
+                  && (checksumMode == ChecksumMode.StoreAndVerify
+                      || checksumMode == ChecksumMode.StoreAndThrow
+                      || checksumMode == ChecksumMode.StoreAndSwitchReadOnlyMode);
+          if (verified) {
             // if page is broken inside of data file we check double write log
             if (!verifyMagicChecksumAndDecryptPage(buffer, internalFileId, pageIndex)) {
               final var doubleWritePointer =
@@ -3652,6 +3904,10 @@ public final class WOWCache extends AbstractWriteCache
             }
           }
 
+          if (!uncompressPageIfNeeded(buffer, internalFileId, pageIndex, !verified)) {
+            assertPageIsBroken(pageIndex, fileId, pageFrame);
+          }
+
           buffer.position(0);
           return new CachePointer(pageFrame, pageFramePool, fileId, (int) pageIndex);
         } else {
@@ -3682,6 +3938,240 @@ public final class WOWCache extends AbstractWriteCache
     }
   }
 
+  /**
+   * Removes the page from the read-ahead pages of the file and returns its frame, or returns
+   * {@code null} if the page was not read ahead. Has to be called under the shared lock of the
+   * page.
+   */
+  @Nullable private PageFrame takeReadAheadPage(final int internalFileId, final long pageIndex) {
+    final var state = readAheadStates.get(internalFileId);
+    if (state == null) {
+      return null;
+    }
+
+    final PageFrame pageFrame;
+    synchronized (state) {
+      pageFrame = state.pages.remove(pageIndex);
+      if (pageFrame == null) {
+        // the page is loaded right now, so the page which is still read ahead is not needed
+        if (state.inFlight.remove(pageIndex)) {
+          readAheadHitRatio.record(false);
+        }
+        return null;
+      }
+    }
+
+    readAheadPages.decrementAndGet();
+    readAheadHitRatio.record(true);
+    return pageFrame;
+  }
+
+  /**
+   * Tracks loading of the pages of the file and, once {@link #READ_AHEAD_SEQUENTIAL_LOADS} pages
+   * are loaded in ascending order, asynchronously reads ahead the pages which follow the loaded one
+   * till {@link #readAheadWindow} pages ahead of it are requested. Pages which are modified in the
+   * write cache are skipped, their content on the disk is stale.
+   *
+   * <p>Loads are counted as sequential if each of them is ahead of the previous one by no more than
+   * a window, because pages which are still in the read cache are not loaded from the disk and
+   * leave gaps in an otherwise sequential scan. Once loading stops being sequential, pages read
+   * ahead for the previous run are discarded.
+   */
+  private void readAheadIfSequential(
+      final File file, final int internalFileId, final long pageIndex, final long filePages) {
+    final var state = readAheadStates.computeIfAbsent(internalFileId, k -> new ReadAheadState());
+
+    final var pagesToRead = new LongArrayList();
+    List<PageFrame> staleFrames = null;
+    synchronized (state) {
+      final var distance = pageIndex - state.lastLoadedPage;
+      if (distance > 0 && distance <= readAheadWindow) {
+        state.sequentialLoads++;
+      } else {
+        state.sequentialLoads = 1;
+        state.readAheadEnd = pageIndex + 1;
+        if (!state.pages.isEmpty()) {
+          staleFrames = new ArrayList<>(state.pages.values());
+          state.pages.clear();
+        }
+      }
+      state.lastLoadedPage = pageIndex;
+
+      // read ahead by whole half-windows, so pages are requested in batches and not one by one
+      if (state.sequentialLoads >= READ_AHEAD_SEQUENTIAL_LOADS
+          && state.readAheadEnd - pageIndex <= readAheadWindow / 2) {
+        final var start = Math.max(state.readAheadEnd, pageIndex + 1);
+        final var end = Math.min(pageIndex + 1 + readAheadWindow, filePages);
+        if (start < end
+            && readAheadPages.get() + (end - start)
+            <= (long) readAheadWindow * READ_AHEAD_MAX_WINDOWS) {
+          state.readAheadEnd = end;
+          for (var index = start; index < end; index++) {
+            if (!state.pages.containsKey(index) && state.inFlight.add(index)) {
+              pagesToRead.add(index);
+            }
+          }
+        }
+      }
+    }
+
+    if (staleFrames != null) {
+      for (final var pageFrame : staleFrames) {
+        discardReadAheadFrame(pageFrame, true);
+      }
+    }
+
+    // pages are marked as in flight before the write cache is checked, so a page stored after the
+    // check is removed from the in-flight set by store() and its stale content is discarded
+    for (var i = 0; i < pagesToRead.size(); i++) {
+      final var index = pagesToRead.getLong(i);
+      if (writeCachePages.containsKey(new PageKey(internalFileId, index))) {
+        synchronized (state) {
+          state.inFlight.remove(index);
+        }
+        continue;
+      }
+
+      readPageAhead(file, internalFileId, index, state);
+    }
+  }
+
+  private void readPageAhead(
+      final File file, final int internalFileId, final long pageIndex,
+      final ReadAheadState state) {
+    final var pageFrame = pageFramePool.acquire(true, Intention.READ_AHEAD_PAGE_FROM_DISK);
+    readAheadPages.incrementAndGet();
+
+    try {
+      file.readAsync(
+          pageIndex * pageSize,
+          pageFrame.getBuffer(),
+          new CompletionHandler<>() {
+            @Override
+            public void completed(final Integer bytesRead, final Void attachment) {
+              pageFrame.getBuffer().position(0);
+
+              synchronized (state) {
+                if (bytesRead == pageSize
+                    && state.inFlight.remove(pageIndex)
+                    && readAheadStates.get(internalFileId) == state) {
+                  state.pages.put(pageIndex, pageFrame);
+                  return;
+                }
+              }
+
+              discardReadAheadFrame(pageFrame, false);
+            }
+
+            @Override
+            public void failed(final Throwable exc, final Void attachment) {
+              synchronized (state) {
+                state.inFlight.remove(pageIndex);
+              }
+              discardReadAheadFrame(pageFrame, false);
+            }
+          });
+    } catch (final RuntimeException e) {
+      // the file was closed or truncated in the meantime, read-ahead is only a hint
+      synchronized (state) {
+        state.inFlight.remove(pageIndex);
+      }
+      discardReadAheadFrame(pageFrame, false);
+    }
+  }
+
+  /**
+   * Discards the page of the file if it was read ahead or is being read ahead. Called when the
+   * page is put into the write cache, its content on the disk becomes stale.
+   */
+  private void discardReadAheadPage(final int internalFileId, final long pageIndex) {
+    final var state = readAheadStates.get(internalFileId);
+    if (state == null) {
+      return;
+    }
+
+    final PageFrame pageFrame;
+    synchronized (state) {
+      state.inFlight.remove(pageIndex);
+      pageFrame = state.pages.remove(pageIndex);
+    }
+
+    if (pageFrame != null) {
+      discardReadAheadFrame(pageFrame, true);
+    }
+  }
+
+  /**
+   * Discards all pages of the file which were read ahead, pages which are still in flight are
+   * discarded once they are read. Called when cached pages of the file are removed.
+   */
+  private void discardReadAheadPages(final int internalFileId) {
+    final var state = readAheadStates.remove(internalFileId);
+    if (state == null) {
+      return;
+    }
+
+    final List<PageFrame> pageFrames;
+    synchronized (state) {
+      pageFrames = new ArrayList<>(state.pages.values());
+      state.pages.clear();
+    }
+
+    for (final var pageFrame : pageFrames) {
+      discardReadAheadFrame(pageFrame, true);
+    }
+  }
+
+  private void discardReadAheadFrame(final PageFrame pageFrame, final boolean wasRead) {
+    readAheadPages.decrementAndGet();
+    if (wasRead) {
+      readAheadHitRatio.record(false);
+    }
+    pageFramePool.release(pageFrame);
+  }
+
+  /**
+   * Amount of pages which are read ahead and not loaded yet, including pages which are still being
+   * read. Visible for tests.
+   */
+  int readAheadPageCount() {
+    return readAheadPages.get();
+  }
+
+  /**
+   * Reads content of the page from the file. If pages are compressed, only the first
+   * {@link #COMPRESSED_PAGE_ALIGNMENT} block of the page is read at first, and the rest of the
+   * page is read only if it contains data, so stale bytes which follow compressed data are
+   * neither read nor cached by the operating system. Lengths of compressed data of encrypted pages
+   * are not known till decryption, so such pages are always read as a whole.
+   */
+  private void readPageContent(final File file, final long pagePosition, final ByteBuffer buffer)
+      throws IOException {
+    if (pageCompression == null || aesKey != null) {
+      file.read(pagePosition, buffer, false);
+      return;
+    }
+
+    buffer.limit(COMPRESSED_PAGE_ALIGNMENT);
+    file.read(pagePosition, buffer, false);
+    buffer.limit(buffer.capacity());
+
+    var storedLength = pageSize;
+    if (isCompressedMagicNumber(buffer.getLong(MAGIC_NUMBER_OFFSET))) {
+      final var compressedLength = compressedDataLength(buffer);
+      if (compressedLength >= 0) {
+        storedLength = alignCompressedPageLength(COMPRESSED_DATA_OFFSET + compressedLength);
+      }
+    }
+
+    if (storedLength > COMPRESSED_PAGE_ALIGNMENT) {
+      file.read(
+          pagePosition + COMPRESSED_PAGE_ALIGNMENT,
+          buffer.slice(COMPRESSED_PAGE_ALIGNMENT, storedLength - COMPRESSED_PAGE_ALIGNMENT),
+          false);
+    }
+  }
+
   private void assertPageIsBroken(long pageIndex, long fileId, Pointer pointer) {
     final var message = formatPageBrokenMessage(pageIndex, fileId);
 
@@ -3723,13 +4213,29 @@ public final class WOWCache extends AbstractWriteCache
 
   private void addMagicChecksumAndEncryption(
       final int intId, final int pageIndex, final ByteBuffer buffer) {
+    addMagicChecksumAndEncryption(intId, pageIndex, buffer, false);
+  }
+
+  /**
+   * @param compressed {@code true} if page was compressed by {@link #compressPage(ByteBuffer)}, in
+   *                   such case checksum covers only compressed data because the rest of the page
+   *                   slot is not written to the file.
+   */
+  private void addMagicChecksumAndEncryption(
+      final int intId, final int pageIndex, final ByteBuffer buffer, final boolean compressed) {
     assert buffer.order() == ByteOrder.nativeOrder();
 
     if (checksumMode != ChecksumMode.Off) {
       buffer.position(PAGE_OFFSET_TO_CHECKSUM_FROM);
+      final var limit = buffer.limit();
+      if (compressed) {
+        buffer.limit(COMPRESSED_DATA_OFFSET + buffer.getInt(COMPRESSED_LENGTH_OFFSET));
+      }
+
       final var crc32 = new CRC32();
       crc32.update(buffer);
       final var computedChecksum = (int) crc32.getValue();
+      buffer.limit(limit);
 
       buffer.position(CHECKSUM_OFFSET);
       buffer.putInt(computedChecksum);
@@ -3741,23 +4247,168 @@ public final class WOWCache extends AbstractWriteCache
       var updateCounter = magicNumber >>> 8;
       updateCounter++;
 
+      final long magicNumberType;
       if (checksumMode == ChecksumMode.Off) {
-        magicNumber = (updateCounter << 8) | MAGIC_NUMBER_WITHOUT_CHECKSUM_ENCRYPTED;
+        magicNumberType =
+            compressed
+                ? MAGIC_NUMBER_WITHOUT_CHECKSUM_ENCRYPTED_COMPRESSED
+                : MAGIC_NUMBER_WITHOUT_CHECKSUM_ENCRYPTED;
       } else {
-        magicNumber = (updateCounter << 8) | MAGIC_NUMBER_WITH_CHECKSUM_ENCRYPTED;
+        magicNumberType =
+            compressed
+                ? MAGIC_NUMBER_WITH_CHECKSUM_ENCRYPTED_COMPRESSED
+                : MAGIC_NUMBER_WITH_CHECKSUM_ENCRYPTED;
       }
+      magicNumber = (updateCounter << 8) | magicNumberType;
 
       buffer.putLong(MAGIC_NUMBER_OFFSET, magicNumber);
       doEncryptionDecryption(intId, pageIndex, Cipher.ENCRYPT_MODE, buffer, updateCounter);
+    } else if (checksumMode == ChecksumMode.Off) {
+      buffer.putLong(
+          MAGIC_NUMBER_OFFSET,
+          compressed ? MAGIC_NUMBER_WITHOUT_CHECKSUM_COMPRESSED : MAGIC_NUMBER_WITHOUT_CHECKSUM);
     } else {
       buffer.putLong(
           MAGIC_NUMBER_OFFSET,
-          checksumMode == ChecksumMode.Off
-              ? MAGIC_NUMBER_WITHOUT_CHECKSUM
-              : MAGIC_NUMBER_WITH_CHECKSUM);
+          compressed ? MAGIC_NUMBER_WITH_CHECKSUM_COMPRESSED : MAGIC_NUMBER_WITH_CHECKSUM);
     }
   }
 
+  /**
+   * Compresses content of the page which follows the checksum, if compression is switched on and
+   * compressed page occupies less {@link #COMPRESSED_PAGE_ALIGNMENT} blocks than uncompressed one.
+   * Compressed data are written in place and the rest of the page is zeroed, so the page image
+   * passed to the double write log is deterministic.
+   *
+   * @return amount of bytes of the page which have to be written to the file, {@link #pageSize}
+   *     if the page was not compressed.
+   */
+  private int compressPage(final ByteBuffer buffer) {
+    if (pageCompression == null) {
+      return pageSize;
+    }
+
+    final var compressionBuffer = pageCompressionBuffer.get();
+    final var compressedLength =
+        pageCompression.compress(
+            buffer,
+            PAGE_OFFSET_TO_CHECKSUM_FROM,
+            pageSize - PAGE_OFFSET_TO_CHECKSUM_FROM,
+            compressionBuffer,
+            0,
+            compressionBuffer.capacity());
+    if (compressedLength < 0 || compressedLength > maxCompressedPageDataLength) {
+      return pageSize;
+    }
+
+    buffer.putInt(COMPRESSED_LENGTH_OFFSET, compressedLength);
+    buffer.put(COMPRESSED_DATA_OFFSET, compressionBuffer, 0, compressedLength);
+
+    final var compressedEnd = COMPRESSED_DATA_OFFSET + compressedLength;
+    for (var i = compressedEnd; i < pageSize; i++) {
+      buffer.put(i, (byte) 0);
+    }
+
+    return alignCompressedPageLength(compressedEnd);
+  }
+
+  private static int alignCompressedPageLength(final int length) {
+    return (length + COMPRESSED_PAGE_ALIGNMENT - 1) / COMPRESSED_PAGE_ALIGNMENT
+        * COMPRESSED_PAGE_ALIGNMENT;
+  }
+
+  private boolean isCompressedMagicNumber(final long magicNumber) {
+    if (magicNumber == MAGIC_NUMBER_WITH_CHECKSUM_COMPRESSED
+        || magicNumber == MAGIC_NUMBER_WITHOUT_CHECKSUM_COMPRESSED) {
+      return true;
+    }
+
+    return aesKey != null
+        && ((magicNumber & 0xFF) == MAGIC_NUMBER_WITH_CHECKSUM_ENCRYPTED_COMPRESSED
+            || (magicNumber & 0xFF) == MAGIC_NUMBER_WITHOUT_CHECKSUM_ENCRYPTED_COMPRESSED);
+  }
+
+  /**
+   * Converts magic number of the compressed page into the magic number of the same page stored
+   * uncompressed, so checksum and encryption checks do not depend on the compression.
+   */
+  private static long uncompressedMagicNumber(final long magicNumber) {
+    if (magicNumber == MAGIC_NUMBER_WITH_CHECKSUM_COMPRESSED) {
+      return MAGIC_NUMBER_WITH_CHECKSUM;
+    }
+    if (magicNumber == MAGIC_NUMBER_WITHOUT_CHECKSUM_COMPRESSED) {
+      return MAGIC_NUMBER_WITHOUT_CHECKSUM;
+    }
+    if ((magicNumber & 0xFF) == MAGIC_NUMBER_WITH_CHECKSUM_ENCRYPTED_COMPRESSED) {
+      return (magicNumber & ~0xFFL) | MAGIC_NUMBER_WITH_CHECKSUM_ENCRYPTED;
+    }
+    if ((magicNumber & 0xFF) == MAGIC_NUMBER_WITHOUT_CHECKSUM_ENCRYPTED_COMPRESSED) {
+      return (magicNumber & ~0xFFL) | MAGIC_NUMBER_WITHOUT_CHECKSUM_ENCRYPTED;
+    }
+
+    return magicNumber;
+  }
+
+  /**
+   * Length of the compressed data stored in the page, or {@code -1} if stored length is broken.
+   * Page has to be decrypted before the call.
+   */
+  private int compressedDataLength(final ByteBuffer buffer) {
+    final var compressedLength = buffer.getInt(COMPRESSED_LENGTH_OFFSET);
+    if (compressedLength < 0 || compressedLength > pageSize - COMPRESSED_DATA_OFFSET) {
+      return -1;
+    }
+
+    return compressedLength;
+  }
+
+  /**
+   * Restores original content of the page loaded from the file if the page is stored compressed.
+   *
+   * @param decrypt {@code true} if the page was not passed through
+   *                {@link #verifyMagicChecksumAndDecryptPage(ByteBuffer, int, long)} and has to be
+   *                decrypted first.
+   * @return {@code false} if the compressed content of the page is broken.
+   */
+  private boolean uncompressPageIfNeeded(
+      final ByteBuffer buffer, final int intId, final long pageIndex, final boolean decrypt) {
+    final var magicNumber = buffer.getLong(MAGIC_NUMBER_OFFSET);
+    if (!isCompressedMagicNumber(magicNumber)) {
+      return true;
+    }
+
+    if (decrypt && aesKey != null && magicNumber != MAGIC_NUMBER_WITH_CHECKSUM_COMPRESSED
+        && magicNumber != MAGIC_NUMBER_WITHOUT_CHECKSUM_COMPRESSED) {
+      doEncryptionDecryption(
+          intId, (int) pageIndex, Cipher.DECRYPT_MODE, buffer, magicNumber >>> 8);
+    }
+
+    final var compressedLength = compressedDataLength(buffer);
+    if (compressedLength < 0) {
+      return false;
+    }
+
+    final var compressionBuffer = pageCompressionBuffer.get();
+    compressionBuffer.put(0, buffer, COMPRESSED_DATA_OFFSET, compressedLength);
+    try {
+      pageDecompression.uncompress(
+          compressionBuffer,
+          0,
+          compressedLength,
+          buffer,
+          PAGE_OFFSET_TO_CHECKSUM_FROM,
+          pageSize - PAGE_OFFSET_TO_CHECKSUM_FROM);
+    } catch (final RuntimeException e) {
+      LogManager.instance()
+          .error(this, "Can not uncompress page %d of file %d", e, pageIndex, intId);
+      return false;
+    }
+
+    // page is kept in memory uncompressed, so it is stored uncompressed if compression is off
+    buffer.putLong(MAGIC_NUMBER_OFFSET, uncompressedMagicNumber(magicNumber));
+    return true;
+  }
+
   private void doEncryptionDecryption(
       final int intId,
       final int pageIndex,
@@ -3815,7 +4466,10 @@ public final class WOWCache extends AbstractWriteCache
     assert buffer.order() == ByteOrder.nativeOrder();
 
     buffer.position(MAGIC_NUMBER_OFFSET);
-    final var magicNumber = buffer.getLong();
+    final var storedMagicNumber = buffer.getLong();
+    final var compressed = isCompressedMagicNumber(storedMagicNumber);
+    final var magicNumber =
+        compressed ? uncompressedMagicNumber(storedMagicNumber) : storedMagicNumber;
 
     if ((aesKey == null && magicNumber != MAGIC_NUMBER_WITH_CHECKSUM)
         || (magicNumber != MAGIC_NUMBER_WITH_CHECKSUM
@@ -3842,10 +4496,20 @@ public final class WOWCache extends AbstractWriteCache
     buffer.position(CHECKSUM_OFFSET);
     final var storedChecksum = buffer.getInt();
 
+    final var limit = buffer.limit();
+    if (compressed) {
+      final var compressedLength = compressedDataLength(buffer);
+      if (compressedLength < 0) {
+        return false;
+      }
+      buffer.limit(COMPRESSED_DATA_OFFSET + compressedLength);
+    }
+
     buffer.position(PAGE_OFFSET_TO_CHECKSUM_FROM);
     final var crc32 = new CRC32();
     crc32.update(buffer);
     final var computedChecksum = (int) crc32.getValue();
+    buffer.limit(limit);
 
     return computedChecksum == storedChecksum;
   }
@@ -3988,6 +4652,8 @@ public final class WOWCache extends AbstractWriteCache
    * exist only in {@link #exclusiveWritePages}.
    */
   void doRemoveCachePages(int internalFileId, int minPageIndex) {
+    discardReadAheadPages(internalFileId);
+
     final var entryIterator =
         writeCachePages.entrySet().iterator();
     while (entryIterator.hasNext()) {
@@ -4811,26 +5477,40 @@ public final class WOWCache extends AbstractWriteCache
       containerBuffers.add(containerBuffer);
       assert containerBuffer.position() == 0;
 
+      final var firstPage = chunk.getFirst();
+      final var firstCachePointer = firstPage.originalPagePointer;
+
+      final var fileId = firstCachePointer.getFileId();
+      final var pageIndex = firstCachePointer.getPageIndex();
+
+      var fileBuffers = buffersByFileId.computeIfAbsent(fileId, (id) -> new ArrayList<>());
+
       for (var chunkPage : chunk) {
         final var buffer = chunkPage.copyOfPage;
 
         final var pointer = chunkPage.originalPagePointer;
 
+        final var storedLength = compressPage(buffer);
         addMagicChecksumAndEncryption(
-            extractFileId(pointer.getFileId()), pointer.getPageIndex(), buffer);
+            extractFileId(pointer.getFileId()), pointer.getPageIndex(), buffer,
+            storedLength < pageSize);
+
+        if (pageCompression != null) {
+          // compressed pages are written one by one to skip the unused tail of each page slot,
+          // the whole chunk is still passed to the double write log
+          final var pageBuffer = containerBuffer.slice(containerBuffer.position(), pageSize);
+          pageBuffer.limit(storedLength);
+          fileBuffers.add(
+              new RawPairLongObject<>(((long) pointer.getPageIndex()) * pageSize, pageBuffer));
+        }
 
         buffer.position(0);
         containerBuffer.put(buffer);
       }
 
-      final var firstPage = chunk.getFirst();
-      final var firstCachePointer = firstPage.originalPagePointer;
-
-      final var fileId = firstCachePointer.getFileId();
-      final var pageIndex = firstCachePointer.getPageIndex();
-
-      var fileBuffers = buffersByFileId.computeIfAbsent(fileId, (id) -> new ArrayList<>());
-      fileBuffers.add(new RawPairLongObject<>(((long) pageIndex) * pageSize, containerBuffer));
+      if (pageCompression == null) {
+        fileBuffers.add(new RawPairLongObject<>(((long) pageIndex) * pageSize, containerBuffer));
+      }
 
       chunkPageIndexes.add(pageIndex);
       chunkFileIds.add(internalFileId(fileId));
@@ -4864,6 +5544,9 @@ public final class WOWCache extends AbstractWriteCache
         final var file = fileEntry.get();
 
         var bufferList = entry.getValue();
+        if (pageCompression != null) {
+          writeWholePagesAtTheEndOfFile(file, bufferList);
+        }
 
         ioResults.add(file.write(bufferList));
         acquiredFiles.add(fileEntry);
@@ -4906,6 +5589,23 @@ public final class WOWCache extends AbstractWriteCache
     }
   }
 
+  /**
+   * Compressed pages skip the tail of the page slot, but pages which are not physically present in
+   * the file yet have to be written as a whole, otherwise the file would end in the middle of the
+   * page and the page would be reported as absent on load.
+   */
+  private void writeWholePagesAtTheEndOfFile(
+      final File file, final ArrayList<RawPairLongObject<ByteBuffer>> bufferList)
+      throws IOException {
+    final var fileSize = file.getUnderlyingFileSize();
+    for (final var pair : bufferList) {
+      final var pageBuffer = pair.second;
+      if (pair.first + pageBuffer.capacity() > fileSize) {
+        pageBuffer.limit(pageBuffer.capacity());
+      }
+    }
+  }
+
   private void flushExclusiveWriteCache(final CountDownLatch latch, long pagesToFlushLimit)
       throws java.lang.InterruptedException, IOException {
     // method flushes at least chunkSize pages that exist in write cache but do not exist
@@ -5527,4 +6227,28 @@ public final class WOWCache extends AbstractWriteCache
       CachePointer originalPagePointer) {
 
   }
+
+  /**
+   * Sequential-load detection and read-ahead pages of a single file, guarded by its own monitor.
+   */
+  private static final class ReadAheadState {
+
+    /** Index of the page which was loaded from the file last. */
+    private long lastLoadedPage = -1;
+
+    /** Amount of adjacent pages which were loaded one after another, up to the last one. */
+    private int sequentialLoads;
+
+    /** Index of the page which follows the last page requested by read-ahead. */
+    private long readAheadEnd;
+
+    /**
+     * Pages which are being read ahead. A page which is removed from this set while it is read is
+     * discarded once the read completes.
+     */
+    private final LongOpenHashSet inFlight = new LongOpenHashSet();
+
+    /** Pages which were read ahead and not loaded yet, with their content as stored on disk. */
+    private final Long2ObjectOpenHashMap<PageFrame> pages = new Long2ObjectOpenHashMap<>();
+  }
 }
@@ -0,0 +1,423 @@
+package com.jetbrains.youtrackdb.internal.core.storage.collection;
+
+import com.jetbrains.youtrackdb.internal.common.log.LogManager;
+import com.jetbrains.youtrackdb.internal.core.storage.StorageCollection;
+import com.jetbrains.youtrackdb.internal.core.storage.collection.CollectionPositionMapBucket.PositionEntry;
+import com.jetbrains.youtrackdb.internal.core.storage.collection.v2.PaginatedCollectionV2;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.AbstractStorage;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Cold tier of the shared snapshot index of a storage.
+ *
+ * <p>A long-running transaction keeps every record version superseded after its start in the
+ * shared snapshot index. To bound the heap used by those entries, the oldest of them (by the
+ * timestamp of the visibility index) are moved into immutable sorted runs stored in non-durable
+ * files: the files skip the WAL and are removed on crash recovery. A run is deleted as a whole
+ * once the global low-water-mark passes the newest visibility timestamp of its entries, the same
+ * condition which evicts in-memory entries.
+ *
+ * <p>Lookups go through the in-memory index first and then through the runs, newest run first.
+ * A run is published before its entries are removed from memory, so a concurrent reader always
+ * finds an entry in at least one of the tiers. Runs are created and deleted only by the thread
+ * which holds the snapshot cleanup lock of the storage.
+ */
+public final class SnapshotIndexSpill {
+
+  /**
+   * Approximate heap footprint of one in-memory record version: the skip-list nodes of the
+   * snapshot and visibility indexes together with their keys and the position entry.
+   */
+  public static final int IN_MEMORY_ENTRY_BYTES = 160;
+
+  /** Upper bound of the entries moved into a single run. */
+  static final int MAX_RUN_ENTRIES = 1 << 20;
+
+  private static final String FILE_PREFIX = "snapshot_spill_";
+  private static final String FILE_EXTENSION = ".ssp";
+
+  private final AbstractStorage storage;
+
+  // Guards the files of the runs: readers hold the read lock while they load pages of a run,
+  // a run is unpublished and its file deleted only under the write lock.
+  private final ReentrantReadWriteLock runsLock = new ReentrantReadWriteLock();
+
+  // Immutable list, newest run last. Replaced as a whole under the write lock.
+  private volatile List<Run> runs = Collections.emptyList();
+
+  private final AtomicLong spilledEntries = new AtomicLong();
+  private int nextRunId;
+
+  public SnapshotIndexSpill(AbstractStorage storage) {
+    this.storage = storage;
+  }
+
+  /**
+   * Sorted run stored in a single non-durable file.
+   *
+   * @param pageFirstKeys       first key of every page, used to find the page of a key
+   * @param maxRecordTs         newest visibility timestamp of the entries of the run
+   * @param entriesPerComponent number of entries per collection id, used to feed the records GC
+   */
+  private record Run(long fileId, int entries, SnapshotKey[] pageFirstKeys,
+                     SnapshotKey lastKey, long maxRecordTs,
+                     Int2IntOpenHashMap entriesPerComponent) {
+
+    boolean mayContain(SnapshotKey key) {
+      return pageFirstKeys[0].compareTo(key) <= 0 && lastKey.compareTo(key) >= 0;
+    }
+
+    boolean overlaps(SnapshotKey fromInclusive, SnapshotKey toInclusive) {
+      return pageFirstKeys[0].compareTo(toInclusive) <= 0
+          && lastKey.compareTo(fromInclusive) >= 0;
+    }
+  }
+
+  public boolean isEmpty() {
+    return runs.isEmpty();
+  }
+
+  /** Number of entries stored in the runs. */
+  public long size() {
+    return spilledEntries.get();
+  }
+
+  /**
+   * Moves up to {@code entriesToSpill} oldest entries of the in-memory indexes into a new run.
+   * Must be called under the snapshot cleanup lock of the storage, outside any atomic operation.
+   *
+   * @return number of entries removed from the in-memory indexes
+   */
+  public long spill(
+      ConcurrentSkipListMap<SnapshotKey, PositionEntry> snapshotIndex,
+      ConcurrentSkipListMap<VisibilityKey, SnapshotKey> visibilityIndex,
+      AtomicLong sizeCounter,
+      long entriesToSpill) throws IOException {
+    final var limit = (int) Math.min(entriesToSpill, MAX_RUN_ENTRIES);
+    if (limit <= 0) {
+      return 0;
+    }
+
+    final var entries = new TreeMap<SnapshotKey, PositionEntry>();
+    final var visibilityKeys = new ArrayList<VisibilityKey>(limit);
+    var maxRecordTs = Long.MIN_VALUE;
+    for (var visibilityEntry : visibilityIndex.entrySet()) {
+      if (visibilityKeys.size() >= limit) {
+        break;
+      }
+
+      final var snapshotKey = visibilityEntry.getValue();
+      final var positionEntry = snapshotIndex.get(snapshotKey);
+      visibilityKeys.add(visibilityEntry.getKey());
+      maxRecordTs = visibilityEntry.getKey().recordTs();
+      if (positionEntry != null) {
+        entries.put(snapshotKey, positionEntry);
+      }
+    }
+
+    if (entries.isEmpty()) {
+      return 0;
+    }
+
+    final var run = writeRun(entries, maxRecordTs);
+
+    runsLock.writeLock().lock();
+    try {
+      final var newRuns = new ArrayList<Run>(runs.size() + 1);
+      newRuns.addAll(runs);
+      newRuns.add(run);
+      runs = Collections.unmodifiableList(newRuns);
+    } finally {
+      runsLock.writeLock().unlock();
+    }
+    spilledEntries.addAndGet(run.entries());
+
+    // The run is visible to readers now, the in-memory copies can go.
+    long removed = 0;
+    for (var entry : entries.entrySet()) {
+      if (snapshotIndex.remove(entry.getKey(), entry.getValue())) {
+        removed++;
+      }
+    }
+    for (var visibilityKey : visibilityKeys) {
+      visibilityIndex.remove(visibilityKey);
+    }
+    sizeCounter.addAndGet(-removed);
+
+    return removed;
+  }
+
+  private Run writeRun(TreeMap<SnapshotKey, PositionEntry> entries, long maxRecordTs)
+      throws IOException {
+    final var writeCache = storage.getWriteCache();
+    var fileName = FILE_PREFIX + nextRunId++ + FILE_EXTENSION;
+    while (writeCache.exists(fileName)) {
+      fileName = FILE_PREFIX + nextRunId++ + FILE_EXTENSION;
+    }
+
+    final var pagesCount =
+        (entries.size() + SnapshotIndexSpillPage.ENTRIES_PER_PAGE - 1)
+            / SnapshotIndexSpillPage.ENTRIES_PER_PAGE;
+    final var pageFirstKeys = new SnapshotKey[pagesCount];
+    final var entriesPerComponent = new Int2IntOpenHashMap();
+    final var runFileName = fileName;
+
+    final long fileId = storage.getAtomicOperationsManager().calculateInsideAtomicOperation(
+        atomicOperation -> {
+          final var id = atomicOperation.addFile(runFileName, true);
+          final var iterator = entries.entrySet().iterator();
+          for (var pageIndex = 0; pageIndex < pagesCount; pageIndex++) {
+            try (var cacheEntry = atomicOperation.allocatePageForWrite(id, pageIndex)) {
+              final var page = new SnapshotIndexSpillPage(cacheEntry);
+              var index = 0;
+              while (index < SnapshotIndexSpillPage.ENTRIES_PER_PAGE && iterator.hasNext()) {
+                final var entry = iterator.next();
+                if (index == 0) {
+                  pageFirstKeys[pageIndex] = entry.getKey();
+                }
+                page.setEntry(index, entry.getKey(), entry.getValue());
+                entriesPerComponent.addTo(entry.getKey().componentId(), 1);
+                index++;
+              }
+              page.setEntriesCount(index);
+            }
+          }
+          return id;
+        });
+
+    return new Run(fileId, entries.size(), pageFirstKeys, entries.lastKey(), maxRecordTs,
+        entriesPerComponent);
+  }
+
+  /** Returns the spilled entry with the given key, or {@code null} if no run contains it. */
+  @Nullable public PositionEntry get(SnapshotKey key) {
+    if (runs.isEmpty()) {
+      return null;
+    }
+
+    runsLock.readLock().lock();
+    try {
+      final var currentRuns = runs;
+      for (var i = currentRuns.size() - 1; i >= 0; i--) {
+        final var run = currentRuns.get(i);
+        if (!run.mayContain(key)) {
+          continue;
+        }
+
+        final var value = find(run, key);
+        if (value != null) {
+          return value;
+        }
+      }
+      return null;
+    } catch (IOException e) {
+      throw new IllegalStateException("Can not read spilled snapshot index entry " + key, e);
+    } finally {
+      runsLock.readLock().unlock();
+    }
+  }
+
+  public boolean containsKey(SnapshotKey key) {
+    return get(key) != null;
+  }
+
+  /**
+   * Returns the spilled entries with keys in the given range in descending key order. The ranges
+   * requested by the collections cover the versions of a single record, so the result is small.
+   */
+  public List<Map.Entry<SnapshotKey, PositionEntry>> subMapDescending(
+      SnapshotKey fromInclusive, SnapshotKey toInclusive) {
+    if (runs.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    runsLock.readLock().lock();
+    try {
+      TreeMap<SnapshotKey, PositionEntry> result = null;
+      for (var run : runs) {
+        if (!run.overlaps(fromInclusive, toInclusive)) {
+          continue;
+        }
+        if (result == null) {
+          result = new TreeMap<>();
+        }
+        collectRange(run, fromInclusive, toInclusive, result);
+      }
+
+      if (result == null) {
+        return Collections.emptyList();
+      }
+      return new ArrayList<>(result.descendingMap().entrySet());
+    } catch (IOException e) {
+      throw new IllegalStateException(
+          "Can not read spilled snapshot index entries from " + fromInclusive + " to "
+              + toInclusive, e);
+    } finally {
+      runsLock.readLock().unlock();
+    }
+  }
+
+  @Nullable private PositionEntry find(Run run, SnapshotKey key) throws IOException {
+    final var pageIndex = pageOf(run, key);
+    if (pageIndex < 0) {
+      return null;
+    }
+
+    final var readCache = storage.getReadCache();
+    try (var cacheEntry = readCache.loadForRead(run.fileId(), pageIndex,
+        storage.getWriteCache(), true)) {
+      final var page = new SnapshotIndexSpillPage(cacheEntry);
+      final var index = page.find(key);
+      return index >= 0 ? page.getValue(index) : null;
+    }
+  }
+
+  private void collectRange(Run run, SnapshotKey fromInclusive, SnapshotKey toInclusive,
+      TreeMap<SnapshotKey, PositionEntry> result) throws IOException {
+    final var readCache = storage.getReadCache();
+    var pageIndex = Math.max(pageOf(run, fromInclusive), 0);
+    while (pageIndex < run.pageFirstKeys().length
+        && run.pageFirstKeys()[pageIndex].compareTo(toInclusive) <= 0) {
+      try (var cacheEntry = readCache.loadForRead(run.fileId(), pageIndex,
+          storage.getWriteCache(), true)) {
+        final var page = new SnapshotIndexSpillPage(cacheEntry);
+        var index = page.find(fromInclusive);
+        if (index < 0) {
+          index = -index - 1;
+        }
+
+        final var entriesCount = page.getEntriesCount();
+        for (; index < entriesCount; index++) {
+          final var key = page.getKey(index);
+          if (key.compareTo(toInclusive) > 0) {
+            return;
+          }
+          result.putIfAbsent(key, page.getValue(index));
+        }
+      }
+      pageIndex++;
+    }
+  }
+
+  /** Index of the page which may contain the key, or -1 if the key precedes the run. */
+  private static int pageOf(Run run, SnapshotKey key) {
+    final var pageFirstKeys = run.pageFirstKeys();
+    var low = 0;
+    var high = pageFirstKeys.length - 1;
+    var result = -1;
+    while (low <= high) {
+      final var mid = (low + high) >>> 1;
+      if (pageFirstKeys[mid].compareTo(key) <= 0) {
+        result = mid;
+        low = mid + 1;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Deletes the runs which no active transaction can read anymore, that is all entries of which
+   * have visibility timestamps strictly below the low-water-mark. Must be called under the
+   * snapshot cleanup lock of the storage, outside any atomic operation.
+   *
+   * @param collections storage collections indexed by collection id, their dead record counters
+   *                    are increased by the number of deleted entries; nullable for callers that
+   *                    do not need dead record counting
+   */
+  public void evict(long lwm, @Nullable List<StorageCollection> collections) {
+    if (runs.isEmpty()) {
+      return;
+    }
+
+    final List<Run> staleRuns = new ArrayList<>();
+    runsLock.writeLock().lock();
+    try {
+      final var liveRuns = new ArrayList<Run>(runs.size());
+      for (var run : runs) {
+        if (run.maxRecordTs() < lwm) {
+          staleRuns.add(run);
+        } else {
+          liveRuns.add(run);
+        }
+      }
+      if (staleRuns.isEmpty()) {
+        return;
+      }
+      runs = Collections.unmodifiableList(liveRuns);
+    } finally {
+      runsLock.writeLock().unlock();
+    }
+
+    for (var run : staleRuns) {
+      deleteRun(run);
+      spilledEntries.addAndGet(-run.entries());
+
+      if (collections != null) {
+        for (var entry : run.entriesPerComponent().int2IntEntrySet()) {
+          final var id = entry.getIntKey();
+          if (id >= 0 && id < collections.size()
+              && collections.get(id) instanceof PaginatedCollectionV2 collection) {
+            for (var i = 0; i < entry.getIntValue(); i++) {
+              collection.incrementDeadRecordCount();
+            }
+          }
+        }
+      }
+    }
+  }
+
+  /** Deletes the files of all runs. Used when the storage is closed. */
+  public void deleteAll() {
+    final List<Run> allRuns;
+    runsLock.writeLock().lock();
+    try {
+      allRuns = runs;
+      runs = Collections.emptyList();
+    } finally {
+      runsLock.writeLock().unlock();
+    }
+
+    for (var run : allRuns) {
+      deleteRun(run);
+    }
+    spilledEntries.set(0);
+  }
+
+  /**
+   * Forgets all runs without deleting their files. Used when the whole storage is deleted
+   * together with the files.
+   */
+  public void clear() {
+    runsLock.writeLock().lock();
+    try {
+      runs = Collections.emptyList();
+    } finally {
+      runsLock.writeLock().unlock();
+    }
+    spilledEntries.set(0);
+  }
+
+  private void deleteRun(@Nonnull Run run) {
+    try {
+      storage.getAtomicOperationsManager().executeInsideAtomicOperation(
+          atomicOperation -> atomicOperation.deleteFile(run.fileId()));
+    } catch (Exception e) {
+      LogManager.instance().error(this,
+          "Error during deletion of spilled snapshot index file %d in storage '%s'", e,
+          run.fileId(), storage.getName());
+    }
+  }
+}
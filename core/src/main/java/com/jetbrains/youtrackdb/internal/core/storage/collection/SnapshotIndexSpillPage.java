@@ -0,0 +1,104 @@
+package com.jetbrains.youtrackdb.internal.core.storage.collection;
+
+import com.jetbrains.youtrackdb.internal.common.serialization.types.IntegerSerializer;
+import com.jetbrains.youtrackdb.internal.common.serialization.types.LongSerializer;
+import com.jetbrains.youtrackdb.internal.core.storage.cache.CacheEntry;
+import com.jetbrains.youtrackdb.internal.core.storage.collection.CollectionPositionMapBucket.PositionEntry;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.base.DurablePage;
+
+/**
+ * A page of a {@link SnapshotIndexSpill} run file, storing a sorted slice of fixed-size snapshot
+ * index entries. Run files are non-durable, so the page registers no WAL page operations.
+ *
+ * <h2>Page Layout</h2>
+ *
+ * <pre>{@code
+ *  Byte offset (relative to NEXT_FREE_POSITION):
+ *  +-------------------------------------------------------------+
+ *  | entriesCount (int)                                          |
+ *  +-------------------------------------------------------------+
+ *  | entry[0] .. entry[entriesCount - 1], ENTRY_SIZE bytes each: |
+ *  |   componentId (int), collectionPosition (long),             |
+ *  |   recordVersion (long), pageIndex (long),                   |
+ *  |   recordPosition (int), entryVersion (long)                 |
+ *  +-------------------------------------------------------------+
+ * }</pre>
+ */
+final class SnapshotIndexSpillPage extends DurablePage {
+
+  private static final int ENTRIES_COUNT_OFFSET = NEXT_FREE_POSITION;
+  private static final int ENTRIES_OFFSET = ENTRIES_COUNT_OFFSET + IntegerSerializer.INT_SIZE;
+
+  static final int ENTRY_SIZE = 2 * IntegerSerializer.INT_SIZE + 4 * LongSerializer.LONG_SIZE;
+
+  /** Number of entries which fit on a single page. */
+  static final int ENTRIES_PER_PAGE = (MAX_PAGE_SIZE_BYTES - ENTRIES_OFFSET) / ENTRY_SIZE;
+
+  SnapshotIndexSpillPage(CacheEntry cacheEntry) {
+    super(cacheEntry);
+  }
+
+  int getEntriesCount() {
+    return getIntValue(ENTRIES_COUNT_OFFSET);
+  }
+
+  void setEntriesCount(int entriesCount) {
+    assert entriesCount >= 0 && entriesCount <= ENTRIES_PER_PAGE;
+    setIntValue(ENTRIES_COUNT_OFFSET, entriesCount);
+  }
+
+  void setEntry(int index, SnapshotKey key, PositionEntry value) {
+    assert index >= 0 && index < ENTRIES_PER_PAGE;
+
+    var offset = ENTRIES_OFFSET + index * ENTRY_SIZE;
+    offset += setIntValue(offset, key.componentId());
+    offset += setLongValue(offset, key.collectionPosition());
+    offset += setLongValue(offset, key.recordVersion());
+    offset += setLongValue(offset, value.getPageIndex());
+    offset += setIntValue(offset, value.getRecordPosition());
+    setLongValue(offset, value.getRecordVersion());
+  }
+
+  SnapshotKey getKey(int index) {
+    assert index >= 0 && index < getEntriesCount();
+
+    final var offset = ENTRIES_OFFSET + index * ENTRY_SIZE;
+    return new SnapshotKey(
+        getIntValue(offset),
+        getLongValue(offset + IntegerSerializer.INT_SIZE),
+        getLongValue(offset + IntegerSerializer.INT_SIZE + LongSerializer.LONG_SIZE));
+  }
+
+  PositionEntry getValue(int index) {
+    assert index >= 0 && index < getEntriesCount();
+
+    final var offset =
+        ENTRIES_OFFSET + index * ENTRY_SIZE + IntegerSerializer.INT_SIZE
+            + 2 * LongSerializer.LONG_SIZE;
+    return new PositionEntry(
+        getLongValue(offset),
+        getIntValue(offset + LongSerializer.LONG_SIZE),
+        getLongValue(offset + LongSerializer.LONG_SIZE + IntegerSerializer.INT_SIZE));
+  }
+
+  /**
+   * Returns the index of the entry with the given key, or {@code -(insertion point) - 1} if the
+   * page does not contain it.
+   */
+  int find(SnapshotKey key) {
+    var low = 0;
+    var high = getEntriesCount() - 1;
+    while (low <= high) {
+      final var mid = (low + high) >>> 1;
+      final var cmp = getKey(mid).compareTo(key);
+      if (cmp < 0) {
+        low = mid + 1;
+      } else if (cmp > 0) {
+        high = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+    return -(low + 1);
+  }
+}
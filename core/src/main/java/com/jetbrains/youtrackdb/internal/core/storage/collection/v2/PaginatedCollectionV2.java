@@ -46,6 +46,7 @@ import com.jetbrains.youtrackdb.internal.core.storage.collection.CollectionPosit
 import com.jetbrains.youtrackdb.internal.core.storage.collection.CollectionPositionMapBucket.PositionEntry;
 import com.jetbrains.youtrackdb.internal.core.storage.collection.PaginatedCollection;
 import com.jetbrains.youtrackdb.internal.core.storage.collection.SnapshotKey;
+import com.jetbrains.youtrackdb.internal.core.storage.collection.SnapshotIndexSpill;
 import com.jetbrains.youtrackdb.internal.core.storage.collection.VisibilityKey;
 import com.jetbrains.youtrackdb.internal.core.storage.impl.local.AbstractStorage;
 import com.jetbrains.youtrackdb.internal.core.storage.impl.local.CollectionBrowseEntry;
@@ -1817,6 +1818,20 @@ public final class PaginatedCollectionV2 extends PaginatedCollection {
    */
   public long collectDeadRecords(
       ConcurrentSkipListMap<SnapshotKey, PositionEntry> snapshotIndex) {
+    return collectDeadRecords(snapshotIndex, null);
+  }
+
+  /**
+   * Same as {@link #collectDeadRecords(ConcurrentSkipListMap)}, but also treats record versions
+   * moved to the spilled part of the snapshot index as still referenced.
+   *
+   * @param snapshotIndex the shared snapshot index from the storage
+   * @param spill         spilled part of the snapshot index, or {@code null} if nothing is spilled
+   * @return the total number of records reclaimed across all dirty pages
+   */
+  public long collectDeadRecords(
+      ConcurrentSkipListMap<SnapshotKey, PositionEntry> snapshotIndex,
+      @Nullable SnapshotIndexSpill spill) {
     var pageIndex = -1;
     var totalReclaimed = 0L;
 
@@ -1836,7 +1851,7 @@ public final class PaginatedCollectionV2 extends PaginatedCollection {
             }
 
             result[1] = processDirtyPage(
-                nextPageIndex, snapshotIndex, operation);
+                nextPageIndex, snapshotIndex, spill, operation);
           });
         });
       } catch (Exception e) {
@@ -1880,12 +1895,14 @@ public final class PaginatedCollectionV2 extends PaginatedCollection {
    *
    * @param pageIndex     the data page index to process
    * @param snapshotIndex the shared snapshot index
+   * @param spill         spilled part of the snapshot index, nullable
    * @param atomicOperation the current atomic operation context
    * @return the number of records reclaimed on this page
    */
   private int processDirtyPage(
       int pageIndex,
       ConcurrentSkipListMap<SnapshotKey, PositionEntry> snapshotIndex,
+      @Nullable SnapshotIndexSpill spill,
       AtomicOperation atomicOperation) throws IOException {
     final var touchedContinuationPages = new LinkedHashSet<CacheEntry>();
     try {
@@ -1931,7 +1948,8 @@ public final class PaginatedCollectionV2 extends PaginatedCollection {
           // need to read this version — skip it for now.
           var snapshotKey =
               new SnapshotKey(id, collectionPos, recordVersion);
-          if (snapshotIndex.containsKey(snapshotKey)) {
+          if (snapshotIndex.containsKey(snapshotKey)
+              || (spill != null && spill.containsKey(snapshotKey))) {
             anyStaleRemaining = true;
             continue;
           }
@@ -33,6 +33,8 @@ import com.jetbrains.youtrackdb.internal.core.storage.impl.local.AbstractStorage
 import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.atomicoperations.AtomicOperation;
 import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.wal.StorageCollectionFactory;
 import com.jetbrains.youtrackdb.internal.core.storage.index.sbtree.singlevalue.v3.BTree;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
@@ -111,6 +113,15 @@ public final class CollectionBasedStorageConfiguration implements StorageConfigu
   private static final String INDEX_ENGINE_FILE_BASE_ID_FLOOR_PROPERTY =
       "indexEngineFileBaseIdFloor";
 
+  /**
+   * File base ids of the dropped index engines whose files are not deleted yet, written inside
+   * the atomic operations which drop the engine and delete its files, so the storage deletes the
+   * files left by a crash between the two on the next open. Like the floor, the key starts with
+   * none of the scan prefixes.
+   */
+  private static final String RETIRED_INDEX_ENGINE_FILE_BASE_IDS_PROPERTY =
+      "retiredIndexEngineFileBaseIds";
+
   private static final String PROPERTIES = "properties";
   private static final String COLLECTIONS = "collections";
   private static final String UUID = "UUID";
@@ -1431,6 +1442,87 @@ public final class CollectionBasedStorageConfiguration implements StorageConfigu
     }
   }
 
+  /**
+   * File base ids of the dropped index engines whose files are not deleted yet. Read directly
+   * from the b-tree, as the floor is, because the ids are written inside caller-owned atomic
+   * operations which can be rolled back.
+   */
+  public IntSet getRetiredIndexEngineFileBaseIds(AtomicOperation atomicOperation) {
+    lock.readLock().lock();
+    try {
+      return readRetiredIndexEngineFileBaseIds(atomicOperation);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Adds the file base id of a dropped index engine to the ids whose files are not deleted yet.
+   * Called inside the atomic operation which removes the engine entry.
+   */
+  public void addRetiredIndexEngineFileBaseId(
+      AtomicOperation atomicOperation, final int fileBaseId) {
+    lock.writeLock().lock();
+    try {
+      final var fileBaseIds = readRetiredIndexEngineFileBaseIds(atomicOperation);
+      if (fileBaseIds.add(fileBaseId)) {
+        storeRetiredIndexEngineFileBaseIds(atomicOperation, fileBaseIds);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Removes the file base id of a dropped index engine once its files are deleted. Called inside
+   * the atomic operation which deletes the files.
+   */
+  public void removeRetiredIndexEngineFileBaseId(
+      AtomicOperation atomicOperation, final int fileBaseId) {
+    lock.writeLock().lock();
+    try {
+      final var fileBaseIds = readRetiredIndexEngineFileBaseIds(atomicOperation);
+      if (fileBaseIds.remove(fileBaseId)) {
+        storeRetiredIndexEngineFileBaseIds(atomicOperation, fileBaseIds);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private IntSet readRetiredIndexEngineFileBaseIds(AtomicOperation atomicOperation) {
+    final var pair = readProperty(RETIRED_INDEX_ENGINE_FILE_BASE_IDS_PROPERTY, atomicOperation);
+    final var fileBaseIds = new IntOpenHashSet();
+    if (pair == null) {
+      return fileBaseIds;
+    }
+
+    final var size = IntegerSerializer.deserializeNative(pair.first, 0);
+    for (var i = 0; i < size; i++) {
+      fileBaseIds.add(
+          IntegerSerializer.deserializeNative(pair.first, (i + 1) * IntegerSerializer.INT_SIZE));
+    }
+    return fileBaseIds;
+  }
+
+  private void storeRetiredIndexEngineFileBaseIds(
+      AtomicOperation atomicOperation, final IntSet fileBaseIds) {
+    if (fileBaseIds.isEmpty()) {
+      dropProperty(atomicOperation, RETIRED_INDEX_ENGINE_FILE_BASE_IDS_PROPERTY);
+      return;
+    }
+
+    final var property = new byte[(fileBaseIds.size() + 1) * IntegerSerializer.INT_SIZE];
+    IntegerSerializer.serializeNative(fileBaseIds.size(), property, 0);
+    var pos = IntegerSerializer.INT_SIZE;
+    for (final var iterator = fileBaseIds.iterator(); iterator.hasNext(); ) {
+      IntegerSerializer.serializeNative(iterator.nextInt(), property, pos);
+      pos += IntegerSerializer.INT_SIZE;
+    }
+
+    storeProperty(atomicOperation, RETIRED_INDEX_ENGINE_FILE_BASE_IDS_PROPERTY, property, 0);
+  }
+
   /**
    * Stores an index-engine entry under an explicit property version tag — FOR TESTS ONLY.
    * Production engine entries are always written at {@link #INDEX_ENGINE_PROPERTY_VERSION}; this
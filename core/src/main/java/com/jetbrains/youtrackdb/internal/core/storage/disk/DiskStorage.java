@@ -32,6 +32,7 @@ import com.jetbrains.youtrackdb.internal.common.serialization.types.LongSerializ
 import com.jetbrains.youtrackdb.internal.common.serialization.types.ShortSerializer;
 import com.jetbrains.youtrackdb.internal.core.YouTrackDBConstants;
 import com.jetbrains.youtrackdb.internal.core.YouTrackDBEnginesManager;
+import com.jetbrains.youtrackdb.internal.core.compression.CompressionFactory;
 import com.jetbrains.youtrackdb.internal.core.config.ContextConfiguration;
 import com.jetbrains.youtrackdb.internal.core.db.DatabaseSessionEmbedded;
 import com.jetbrains.youtrackdb.internal.core.db.YouTrackDBInternalEmbedded;
@@ -65,6 +66,7 @@ import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.base.
 import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.wal.LogSequenceNumber;
 import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.wal.WriteAheadLog;
 import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.wal.cas.CASDiskWriteAheadLog;
+import com.jetbrains.youtrackdb.internal.core.storage.index.hashindex.HashTable;
 import com.jetbrains.youtrackdb.internal.core.storage.ridbag.AbsoluteChange;
 import com.jetbrains.youtrackdb.internal.core.storage.ridbag.LinkCollectionsBTreeManagerShared;
 import it.unimi.dsi.fastutil.objects.ObjectBooleanImmutablePair;
@@ -190,6 +192,7 @@ public class DiskStorage extends AbstractStorage {
   private static final String CONF_ENTRY_NAME = "database.ocf";
   private static final String BACKUP_DATEFORMAT = "yyyy-MM-dd-HH-mm-ss";
   private static final String CONF_UTF_8_ENTRY_NAME = "database_utf8.ocf";
+  private static final String QUERY_SPILL_DIRECTORY = "query-spill";
   private static final int UUID_LENGTH = 36;
 
   private static final String ENCRYPTION_IV = "encryption.iv";
@@ -225,6 +228,8 @@ public class DiskStorage extends AbstractStorage {
       BTreeMultiValueIndexEngine.DATA_FILE_EXTENSION,
       BTreeMultiValueIndexEngine.NULL_BUCKET_FILE_EXTENSION,
       BTreeMultiValueIndexEngine.M_CONTAINER_EXTENSION,
+      HashTable.DATA_FILE_EXTENSION,
+      HashTable.OVERFLOW_FILE_EXTENSION,
       IndexHistogramManager.IXS_EXTENSION,
       DoubleWriteLogGL.EXTENSION,
       FreeSpaceMap.DEF_EXTENSION
@@ -345,6 +350,14 @@ public class DiskStorage extends AbstractStorage {
     return storagePath;
   }
 
+  /**
+   * Directory that holds the temporary files of queries which spill their intermediate results to
+   * disk. The directory is not part of the database and is removed when the storage is closed.
+   */
+  public final Path getQuerySpillPath() {
+    return storagePath.resolve(QUERY_SPILL_DIRECTORY);
+  }
+
   @Override
   public String getType() {
     return EngineLocalPaginated.NAME;
@@ -480,7 +493,8 @@ public class DiskStorage extends AbstractStorage {
         contextConfiguration.getValueAsBoolean(
             GlobalConfiguration.STORAGE_PRINT_WAL_PERFORMANCE_STATISTICS),
         contextConfiguration.getValueAsInteger(
-            GlobalConfiguration.STORAGE_PRINT_WAL_PERFORMANCE_INTERVAL));
+            GlobalConfiguration.STORAGE_PRINT_WAL_PERFORMANCE_INTERVAL),
+        contextConfiguration.getValueAsInteger(GlobalConfiguration.WAL_GROUP_COMMIT_MAX_DELAY));
   }
 
   @Override
@@ -526,6 +540,8 @@ public class DiskStorage extends AbstractStorage {
   @Override
   protected void postCloseSteps(
       final boolean onDelete, final boolean internalError, final long lastTxId) throws IOException {
+    FileUtils.deleteRecursively(getQuerySpillPath().toFile());
+
     if (onDelete) {
       startupMetadata.delete();
     } else {
@@ -750,7 +766,8 @@ public class DiskStorage extends AbstractStorage {
             contextConfiguration.getValueAsBoolean(
                 GlobalConfiguration.STORAGE_PRINT_WAL_PERFORMANCE_STATISTICS),
             contextConfiguration.getValueAsInteger(
-                GlobalConfiguration.STORAGE_PRINT_WAL_PERFORMANCE_INTERVAL));
+                GlobalConfiguration.STORAGE_PRINT_WAL_PERFORMANCE_INTERVAL),
+            contextConfiguration.getValueAsInteger(GlobalConfiguration.WAL_GROUP_COMMIT_MAX_DELAY));
     writeAheadLog.addCheckpointListener(this);
 
     final var pageSize =
@@ -791,7 +808,14 @@ public class DiskStorage extends AbstractStorage {
             iv,
             aesKey,
             callFsync,
-            context.getIoExecutor());
+            context.getIoExecutor(),
+            CompressionFactory.INSTANCE.getCompression(
+                contextConfiguration.getValueAsString(
+                    GlobalConfiguration.STORAGE_PAGE_COMPRESSION_METHOD),
+                contextConfiguration.getValueAsString(
+                    GlobalConfiguration.STORAGE_PAGE_COMPRESSION_OPTIONS)),
+            contextConfiguration.getValueAsInteger(
+                GlobalConfiguration.DISK_CACHE_READ_AHEAD_WINDOW));
 
     wowCache.loadRegisteredFiles();
     wowCache.addBackgroundExceptionListener(this);
@@ -1903,6 +1927,8 @@ public class DiskStorage extends AbstractStorage {
     try (final var restoreLog =
         createWalFromIBUFiles(walTempDir, contextConfiguration, locale, walIv)) {
       if (restoreLog != null) {
+        walRestoreThreads =
+            contextConfiguration.getValueAsInteger(GlobalConfiguration.WAL_RESTORE_THREADS);
         final var beginLsn = restoreLog.begin();
         restoreFrom(restoreLog, beginLsn);
       }
@@ -307,6 +307,22 @@ public final class AsyncFile implements File {
     }
   }
 
+  @Override
+  public void readAsync(
+      long offset, ByteBuffer buffer, CompletionHandler<Integer, Void> handler) {
+    lock.sharedLock();
+    try {
+      checkForClose();
+      checkPosition(offset);
+
+      buffer.position(0);
+      final var position = offset + HEADER_SIZE;
+      fileChannel.read(buffer, position, null, new ReadHandler(buffer, position, handler));
+    } finally {
+      lock.sharedUnlock();
+    }
+  }
+
   @Override
   public long allocateSpace(int size) {
     return this.size.getAndAdd(size);
@@ -531,6 +547,53 @@ public final class AsyncFile implements File {
     }
   }
 
+  /**
+   * Re-issues a read until the buffer is filled or the end of the file is reached, then passes the
+   * total amount of read bytes to the caller's handler.
+   */
+  private final class ReadHandler implements CompletionHandler<Integer, Void> {
+
+    private final ByteBuffer byteBuffer;
+    private final long position;
+    private final CompletionHandler<Integer, Void> handler;
+
+    private ReadHandler(
+        ByteBuffer byteBuffer, long position, CompletionHandler<Integer, Void> handler) {
+      this.byteBuffer = byteBuffer;
+      this.position = position;
+      this.handler = handler;
+    }
+
+    @Override
+    public void completed(Integer bytesRead, Void attachment) {
+      if (bytesRead > 0) {
+        diskReadMeter.record(bytesRead);
+      }
+
+      if (bytesRead >= 0 && byteBuffer.remaining() > 0) {
+        lock.sharedLock();
+        try {
+          checkForClose();
+
+          fileChannel.read(byteBuffer, position + byteBuffer.position(), null, this);
+          return;
+        } catch (final RuntimeException e) {
+          handler.failed(e, null);
+          return;
+        } finally {
+          lock.sharedUnlock();
+        }
+      }
+
+      handler.completed(byteBuffer.position(), null);
+    }
+
+    @Override
+    public void failed(Throwable exc, Void attachment) {
+      handler.failed(exc, null);
+    }
+  }
+
   private static final class AsyncIOResult implements IOResult {
 
     private final CountDownLatch latch;
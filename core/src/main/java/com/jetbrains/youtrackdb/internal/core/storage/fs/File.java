@@ -4,6 +4,7 @@ import com.jetbrains.youtrackdb.internal.common.collection.closabledictionary.Cl
 import com.jetbrains.youtrackdb.internal.common.util.RawPairLongObject;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.CompletionHandler;
 import java.nio.file.Path;
 import java.util.List;
 
@@ -19,6 +20,14 @@ public interface File extends ClosableItem {
 
   void read(long offset, ByteBuffer buffer, boolean throwOnEof) throws IOException;
 
+  /**
+   * Starts reading {@code buffer.limit()} bytes at {@code offset} and returns without waiting for
+   * the read to finish. The handler is completed with the number of bytes read, which is smaller
+   * than the limit only if the end of the file was reached, or failed with the cause of the
+   * failure. The handler is called on an I/O thread, so it must not block.
+   */
+  void readAsync(long offset, ByteBuffer buffer, CompletionHandler<Integer, Void> handler);
+
   void write(long offset, ByteBuffer buffer) throws IOException;
 
   IOResult write(List<RawPairLongObject<ByteBuffer>> buffers) throws IOException;
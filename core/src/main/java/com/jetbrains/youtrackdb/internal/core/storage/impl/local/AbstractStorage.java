@@ -77,6 +77,7 @@ import com.jetbrains.youtrackdb.internal.core.index.IndexException;
 import com.jetbrains.youtrackdb.internal.core.index.IndexManagerEmbedded;
 import com.jetbrains.youtrackdb.internal.core.index.IndexMetadata;
 import com.jetbrains.youtrackdb.internal.core.index.Indexes;
+import com.jetbrains.youtrackdb.internal.core.index.IndexSnapshotKey;
 import com.jetbrains.youtrackdb.internal.core.index.IndexesSnapshot;
 import com.jetbrains.youtrackdb.internal.core.index.engine.BaseIndexEngine;
 import com.jetbrains.youtrackdb.internal.core.index.engine.HistogramSnapshot;
@@ -113,6 +114,7 @@ import com.jetbrains.youtrackdb.internal.core.storage.cache.local.BackgroundExce
 import com.jetbrains.youtrackdb.internal.core.storage.collection.CollectionPositionMapBucket.PositionEntry;
 import com.jetbrains.youtrackdb.internal.core.storage.collection.PaginatedCollection;
 import com.jetbrains.youtrackdb.internal.core.storage.collection.PaginatedCollection.RECORD_STATUS;
+import com.jetbrains.youtrackdb.internal.core.storage.collection.SnapshotIndexSpill;
 import com.jetbrains.youtrackdb.internal.core.storage.collection.SnapshotKey;
 import com.jetbrains.youtrackdb.internal.core.storage.collection.VisibilityKey;
 import com.jetbrains.youtrackdb.internal.core.storage.collection.v2.PaginatedCollectionV2;
@@ -139,12 +141,14 @@ import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.wal.W
 import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.wal.WALRecordsFactory;
 import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.wal.WriteAheadLog;
 import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.wal.common.EmptyWALRecord;
+import com.jetbrains.youtrackdb.internal.core.storage.index.hashindex.HashTable;
 import com.jetbrains.youtrackdb.internal.core.storage.ridbag.BTreeBasedLinkBag;
 import com.jetbrains.youtrackdb.internal.core.storage.ridbag.LinkCollectionsBTreeManager;
 import com.jetbrains.youtrackdb.internal.core.storage.ridbag.LinkCollectionsBTreeManagerShared;
 import com.jetbrains.youtrackdb.internal.core.storage.ridbag.ridbagbtree.EdgeSnapshotKey;
 import com.jetbrains.youtrackdb.internal.core.storage.ridbag.ridbagbtree.EdgeVisibilityKey;
 import com.jetbrains.youtrackdb.internal.core.storage.ridbag.ridbagbtree.LinkBagValue;
+import com.jetbrains.youtrackdb.internal.core.tx.Durability;
 import com.jetbrains.youtrackdb.internal.core.tx.FrontendTransaction;
 import com.jetbrains.youtrackdb.internal.core.tx.FrontendTransactionImpl;
 import com.jetbrains.youtrackdb.internal.core.tx.FrontendTransactionIndexChanges;
@@ -152,6 +156,7 @@ import com.jetbrains.youtrackdb.internal.core.tx.FrontendTransactionIndexChanges
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import java.io.File;
 import java.io.FileNotFoundException;
@@ -182,6 +187,7 @@ import java.util.TreeSet;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
@@ -253,10 +259,15 @@ public abstract class AbstractStorage
    *
    * <p>Hand-written to avoid per-comparison allocations from
    * Comparator.comparingLong (unboxing) and thenComparing(identity)
-   * (iterator allocation in CompositeKey.compareTo).
+   * (iterator allocation in CompositeKey.compareTo). Two byte-encoded
+   * {@link IndexSnapshotKey}s are compared without decoding their elements.
    */
   public static final Comparator<CompositeKey> INDEX_SNAPSHOT_VERSION_COMPARATOR =
       (a, b) -> {
+        if (a instanceof IndexSnapshotKey encodedA && b instanceof IndexSnapshotKey encodedB) {
+          return IndexSnapshotKey.compareByVersion(encodedA, encodedB);
+        }
+
         var aKeys = a.getKeys();
         var bKeys = b.getKeys();
         // Primary: compare last element (version) as long
@@ -320,12 +331,32 @@ public abstract class AbstractStorage
    */
   private IntOpenHashSet deletedNonDurableFileIds = new IntOpenHashSet();
 
+  /**
+   * Amount of threads which apply page changes during WAL replay, taken from
+   * {@link GlobalConfiguration#WAL_RESTORE_THREADS} of the context configuration the storage is
+   * opened or restored with.
+   */
+  protected int walRestoreThreads = 1;
+
   private final int id;
 
   private final Map<String, BaseIndexEngine> indexEngineNameMap = new HashMap<>();
   private final List<BaseIndexEngine> indexEngines = new ArrayList<>();
   private final AtomicOperationIdGen idGen = new AtomicOperationIdGen();
 
+  /**
+   * Index engines dropped by {@link #deleteIndexEngine(int)} whose files are not deleted yet. The
+   * engine is already detached from {@code indexEngines}, {@code indexEngineNameMap} and the storage
+   * configuration, so no transaction reads it through the index anymore, including the ones started
+   * before the drop. Only the deletion of its files is deferred: they are deleted by {@link
+   * #periodicRecordsGc()} once the global low-water-mark reaches the drop timestamp, the way records
+   * GC waits for it before removing record versions. The file base ids of these engines are persisted in the storage configuration too, so the
+   * files which survive a crash are deleted on the next open, see
+   * {@link #deleteRetiredIndexEngineFiles}.
+   */
+  private final ConcurrentLinkedQueue<RetiredIndexEngine> retiredIndexEngines =
+      new ConcurrentLinkedQueue<>();
+
   /**
    * In-process high-water mark of the index-engine file-base-id allocator. Strictly monotonic for
    * the storage instance's lifetime and deliberately NOT reverted by a rolled-back engine create:
@@ -462,7 +493,12 @@ public abstract class AbstractStorage
   // Incremented during flushSnapshotBuffers(), decremented during evictStaleSnapshotEntries().
   protected final AtomicLong snapshotIndexSize = new AtomicLong();
 
+  // Oldest entries of sharedSnapshotIndex moved to non-durable files once the index exceeds
+  // STORAGE_SNAPSHOT_INDEX_MEMORY_BUDGET. Filled and evicted by periodicRecordsGc().
+  protected final SnapshotIndexSpill snapshotIndexSpill = new SnapshotIndexSpill(this);
+
   // Indexes snapshot: maps CompositeKey(indexId, userKey..., version) → RID (TombstoneRID or plain).
+  // Keys are byte-encoded IndexSnapshotKeys unless a user key element can not be encoded.
   private final ConcurrentSkipListMap<CompositeKey, RID> sharedIndexesSnapshot =
       new ConcurrentSkipListMap<>();
   private final ConcurrentSkipListMap<CompositeKey, RID> sharedNullIndexesSnapshot =
@@ -819,6 +855,8 @@ public abstract class AbstractStorage
           readIv();
 
           initWalAndDiskCache(contextConfiguration);
+          walRestoreThreads =
+              contextConfiguration.getValueAsInteger(GlobalConfiguration.WAL_RESTORE_THREADS);
 
           // Register all PageOperation types so recovery can deserialize logical WAL records.
           // Must happen after WAL initialization (above) and before recoverIfNeeded() (below).
@@ -1032,6 +1070,7 @@ public abstract class AbstractStorage
     // seeding here guarantees no later allocation can collide with a persisted or orphaned file
     // base id.
     seedIndexEngineFileBaseIdHwm(atomicOperation);
+    deleteRetiredIndexEngineFiles(atomicOperation);
 
     final var indexNames = configuration.indexEngines(atomicOperation);
     var counter = 0;
@@ -1052,7 +1091,7 @@ public abstract class AbstractStorage
       engine.load(engineData, atomicOperation);
 
       // Wire histogram manager for B-tree engines
-      if (engine instanceof BTreeIndexEngine btreeEngine) {
+      if (engine instanceof BTreeIndexEngine btreeEngine && btreeEngine.supportsHistogram()) {
         wireHistogramManagerOnLoad(btreeEngine, engineData, atomicOperation);
       }
 
@@ -1106,6 +1145,42 @@ public abstract class AbstractStorage
     indexEngineFileBaseIdHwm.updateAndGet(current -> Math.max(current, finalSeed));
   }
 
+  /**
+   * Deletes the files of the index engines which were dropped, but whose files were not deleted
+   * before the storage was closed by a crash. No transaction is active while indexes are opened,
+   * so none of them can read these files anymore. Runs after the high-water mark is seeded from
+   * the file names, so the ids of the deleted files are never allocated again.
+   */
+  private void deleteRetiredIndexEngineFiles(final AtomicOperation atomicOperation) {
+    final var storageConfiguration = (CollectionBasedStorageConfiguration) configuration;
+    final var fileBaseIds = storageConfiguration.getRetiredIndexEngineFileBaseIds(atomicOperation);
+    if (fileBaseIds.isEmpty()) {
+      return;
+    }
+
+    final var wc = writeCache;
+    if (wc != null) {
+      for (final var fileName : new ArrayList<>(wc.files().keySet())) {
+        final var fileBaseId = parseIndexEngineFileBaseId(fileName);
+        if (fileBaseId > 0 && fileBaseIds.contains((int) fileBaseId)) {
+          try {
+            atomicOperation.deleteFile(atomicOperation.loadFile(fileName));
+          } catch (final IOException e) {
+            throw BaseException.wrapException(new StorageException(name,
+                "Error during deletion of file '" + fileName + "' of a dropped index"), e, name);
+          }
+        }
+      }
+    }
+
+    for (final var iterator = fileBaseIds.iterator(); iterator.hasNext(); ) {
+      storageConfiguration.removeRetiredIndexEngineFileBaseId(atomicOperation, iterator.nextInt());
+    }
+    LogManager.instance().info(this,
+        "Files of %d index engines dropped before the crash were deleted in storage '%s'",
+        fileBaseIds.size(), name);
+  }
+
   /**
    * Extracts the file base id from an engine file name of the shape
    * {@code ie_<n>[$null].<engine extension>}, or {@code -1} when the name cannot be an engine
@@ -2602,19 +2677,40 @@ public abstract class AbstractStorage
         final var atomicOperation = frontendTransaction.getAtomicOperation();
         final List<RecordOperation> result = new ArrayList<>(8);
 
-        if (schemaCarry) {
-          commitSchemaCarry(frontendTransaction, session, txSchemaState, indexOperations,
-              atomicOperation, allocated, result);
-        } else {
-          stateLock.readLock().lock();
-          try {
-            applyCommitOperations(frontendTransaction, session, indexOperations, atomicOperation,
-                allocated, null, result);
-          } finally {
-            stateLock.readLock().unlock();
+        // Results of the shared query cache which read the written collections must neither be
+        // served nor stored while the changes become visible.
+        final var sharedResultCache = session.getSharedContext().getSharedQueryResultCache();
+        final var writtenCollections =
+            sharedResultCache != null && !schemaCarry
+                ? writtenCollections(frontendTransaction)
+                : null;
+        final var sharedResultCacheCommit =
+            sharedResultCache != null
+                && (writtenCollections == null || !writtenCollections.isEmpty());
+        if (sharedResultCacheCommit) {
+          sharedResultCache.startCommit(writtenCollections);
+        }
+        try {
+          if (schemaCarry) {
+            commitSchemaCarry(frontendTransaction, session, txSchemaState, indexOperations,
+                atomicOperation, allocated, result);
+          } else {
+            stateLock.readLock().lock();
+            try {
+              applyCommitOperations(frontendTransaction, session, indexOperations, atomicOperation,
+                  allocated, null, result);
+            } finally {
+              stateLock.readLock().unlock();
+            }
+          }
+        } finally {
+          if (sharedResultCacheCommit) {
+            sharedResultCache.endCommit(writtenCollections);
           }
         }
 
+        waitTillDurable(frontendTransaction, session);
+
         if (logger.isDebugEnabled()) {
           LogManager.instance()
               .debug(
@@ -2638,6 +2734,63 @@ public abstract class AbstractStorage
     }
   }
 
+  /**
+   * The collections written by the transaction, or {@code null} if they can not be determined and
+   * every collection has to be considered written. A new record may be placed in any collection of
+   * its class, so all of them are included. A transaction which changes users, roles or security
+   * policies changes what every other query may read, so it is treated as a write to every
+   * collection as well.
+   */
+  @Nullable private static IntSet writtenCollections(
+      final FrontendTransactionImpl frontendTransaction) {
+    final var session = frontendTransaction.getDatabaseSession();
+    final var collections = new IntOpenHashSet();
+    for (final var operation : frontendTransaction.getRecordOperationsInternal()) {
+      if (operation.record instanceof EntityImpl entity) {
+        final var schemaClass = entity.getImmutableSchemaClass(session);
+        if (schemaClass != null
+            && (schemaClass.isUser() || schemaClass.isRole() || schemaClass.isSecurityPolicy())) {
+          return null;
+        }
+        if (schemaClass != null && operation.type == RecordOperation.CREATED) {
+          for (final var collectionId : schemaClass.getCollectionIds()) {
+            collections.add(collectionId);
+          }
+          continue;
+        }
+      }
+
+      final var collectionId = operation.record.getIdentity().getCollectionId();
+      if (collectionId < 0) {
+        return null;
+      }
+      collections.add(collectionId);
+    }
+    return collections;
+  }
+
+  /**
+   * Blocks till the WAL records of the committed transaction are synced to the disk if the
+   * transaction is committed with {@link Durability#GROUP} or {@link Durability#SYNC}. Called once
+   * all storage locks are released, so commits which wait for the fsync do not block other
+   * transactions and are synced together.
+   */
+  private void waitTillDurable(
+      final FrontendTransactionImpl frontendTransaction,
+      final DatabaseSessionEmbedded session) {
+    var durability = frontendTransaction.getDurability();
+    if (durability == null) {
+      durability =
+          session.getConfiguration()
+              .getValueAsEnum(GlobalConfiguration.TX_DURABILITY, Durability.class);
+    }
+    if (durability == null || durability == Durability.ASYNC) {
+      return;
+    }
+
+    writeAheadLog.waitTillDurable(writeAheadLog.end(), durability == Durability.SYNC);
+  }
+
   /**
    * The per-commit record working set computed up front: the record operations to apply, the
    * collections each touched record lives in (so they are locked before any write), the new-record
@@ -3962,7 +4115,8 @@ public abstract class AbstractStorage
             atomicOperation -> {
               final var engine = Indexes.createIndexEngine(this, engineData);
               engine.load(engineData, atomicOperation);
-              if (engine instanceof BTreeIndexEngine btreeEngine) {
+              if (engine instanceof BTreeIndexEngine btreeEngine
+                  && btreeEngine.supportsHistogram()) {
                 wireHistogramManagerOnLoad(btreeEngine, engineData, atomicOperation);
               }
               publishIndexEngine(engineData.getIndexId(), engine);
@@ -4118,7 +4272,8 @@ public abstract class AbstractStorage
 
   /**
    * Whether {@code extension} (with the leading dot) is one an {@code ie_<fileBaseId>}-stemmed
-   * engine file can carry: the B-tree data file, its null bucket, or the histogram stats file.
+   * engine file can carry: the B-tree data file, its null bucket, the hash table data and
+   * overflow files, or the histogram stats file.
    * Both the open-time HWM sweep and the failed-commit file-presence check are restricted to
    * this family so files of other components (or user artifacts) that merely share the stem
    * shape are never mistaken for engine files.
@@ -4126,6 +4281,8 @@ public abstract class AbstractStorage
   private static boolean isIndexEngineFileExtension(final String extension) {
     return BTreeMultiValueIndexEngine.DATA_FILE_EXTENSION.equals(extension)
         || BTreeMultiValueIndexEngine.NULL_BUCKET_FILE_EXTENSION.equals(extension)
+        || HashTable.DATA_FILE_EXTENSION.equals(extension)
+        || HashTable.OVERFLOW_FILE_EXTENSION.equals(extension)
         || IndexHistogramManager.IXS_EXTENSION.equals(extension);
   }
 
@@ -4579,7 +4736,7 @@ public abstract class AbstractStorage
     engine.create(atomicOperation, engineData);
 
     // Create and wire histogram manager for B-tree engines
-    if (engine instanceof BTreeIndexEngine btreeEngine) {
+    if (engine instanceof BTreeIndexEngine btreeEngine && btreeEngine.supportsHistogram()) {
       var mgr = createAndWireHistogramManager(btreeEngine, engineData, atomicOperation);
       mgr.createStatsFile(atomicOperation);
     }
@@ -4839,8 +4996,20 @@ public abstract class AbstractStorage
         final var engine = indexEngines.get(internalIndexId);
         assert internalIndexId == engine.getId();
 
+        // Only the configuration entry is removed here, the engine files are deleted once no
+        // transaction started before the drop is active anymore, see retiredIndexEngines. The
+        // file base id is persisted in the same atomic operation, so the files are deleted on the
+        // next open if the storage crashes before that.
         atomicOperationsManager.executeInsideAtomicOperation(
-            atomicOperation -> doDeleteIndexEngine(atomicOperation, engine));
+            atomicOperation -> {
+              final var storageConfiguration =
+                  (CollectionBasedStorageConfiguration) configuration;
+              storageConfiguration.deleteIndexEngine(atomicOperation, engine.getName());
+              if (engine instanceof BTreeIndexEngine btreeEngine) {
+                storageConfiguration.addRetiredIndexEngineFileBaseId(atomicOperation,
+                    btreeEngine.getFileBaseId());
+              }
+            });
 
         // Update in-memory maps only AFTER the atomic operation commits
         // successfully. If the atomic operation rolls back, the maps remain
@@ -4849,6 +5018,11 @@ public abstract class AbstractStorage
         indexEngines.set(internalIndexId, null);
         indexEngineNameMap.remove(engine.getName());
 
+        // Transactions started before the drop have tsMin below the drop commit timestamp, so
+        // the files are kept until the low-water-mark passes it.
+        retiredIndexEngines.add(new RetiredIndexEngine(engine, idGen.getLastId()));
+        deleteRetiredIndexEngines(computeGlobalLowWaterMark());
+
       } catch (final IOException e) {
         throw BaseException.wrapException(new StorageException(name, "Error on index deletion"), e,
             name);
@@ -4872,8 +5046,8 @@ public abstract class AbstractStorage
    * {@code indexEngineNameMap}). This is the atomic-op half of the delete seam, split from
    * {@link #deleteIndexEngine(int)} so the commit window can run the WAL-reverted delete
    * under the held write lock and defer (or revert) the in-memory map mutation itself. The
-   * public {@code deleteIndexEngine} performs the map mutation after the atomic operation
-   * commits, as it always has.
+   * public {@code deleteIndexEngine} removes only the configuration entry and defers deletion of
+   * the files until no active transaction can read them.
    *
    * @param atomicOperation the in-flight atomic operation that buffers the file deletes.
    * @param engine          the already-resolved engine to delete.
@@ -4885,6 +5059,44 @@ public abstract class AbstractStorage
         .deleteIndexEngine(atomicOperation, engine.getName());
   }
 
+  /**
+   * Index engine dropped by {@link #deleteIndexEngine(int)} whose files are deleted once the global
+   * low-water-mark reaches {@code dropTs}.
+   */
+  private record RetiredIndexEngine(BaseIndexEngine engine, long dropTs) {
+
+  }
+
+  /**
+   * Deletes files of the dropped index engines which were dropped at or before the given
+   * low-water-mark. An engine which fails to be deleted is logged and not retried while the storage
+   * is open, its file base id stays persisted, so its files are deleted on the next open.
+   *
+   * @param lwm the global low-water-mark, {@link Long#MAX_VALUE} deletes all dropped engines.
+   */
+  private void deleteRetiredIndexEngines(final long lwm) {
+    for (final var retired : retiredIndexEngines) {
+      if (retired.dropTs() > lwm || !retiredIndexEngines.remove(retired)) {
+        continue;
+      }
+
+      try {
+        atomicOperationsManager.executeInsideAtomicOperation(
+            atomicOperation -> {
+              retired.engine().delete(atomicOperation);
+              if (retired.engine() instanceof BTreeIndexEngine btreeEngine) {
+                ((CollectionBasedStorageConfiguration) configuration)
+                    .removeRetiredIndexEngineFileBaseId(atomicOperation,
+                        btreeEngine.getFileBaseId());
+              }
+            });
+      } catch (Exception e) {
+        LogManager.instance().error(this, "Error during deletion of files of dropped index '%s'"
+            + " in storage '%s'", e, retired.engine().getName(), name);
+      }
+    }
+  }
+
   private void checkIndexId(final int indexId) throws InvalidIndexEngineIdException {
     if (indexId < 0 || indexId >= indexEngines.size() || indexEngines.get(indexId) == null) {
       throw new InvalidIndexEngineIdException(
@@ -6647,9 +6859,24 @@ public abstract class AbstractStorage
   }
 
   public AtomicOperation startStorageTx() {
+    return startStorageTx(null);
+  }
+
+  /**
+   * Starts storage transaction. If {@code snapshot} is not {@code null}, the transaction observes
+   * the given snapshot instead of taking a new one, which allows to read the same state of the
+   * database from several threads. The snapshot is registered in the {@link TsMinHolder} of the
+   * current thread in the same way as a freshly taken one, so it stays protected from the records
+   * GC while this transaction is active.
+   */
+  public AtomicOperation startStorageTx(
+      @Nullable AtomicOperationsTable.AtomicOperationsSnapshot snapshot) {
     checkOpennessAndMigration();
 
-    var atomicOperation = atomicOperationsManager.startAtomicOperation();
+    var atomicOperation =
+        snapshot == null
+            ? atomicOperationsManager.startAtomicOperation()
+            : atomicOperationsManager.startAtomicOperation(snapshot);
 
     var holder = tsMinThreadLocal.get();
     assert holder.activeTxCount >= 0 : "activeTxCount is negative: " + holder.activeTxCount;
@@ -7223,6 +7450,9 @@ public abstract class AbstractStorage
         // block future rebalances — must happen before flushAllData so
         // that no background thread holds page references.
         cancelHistogramRebalances();
+        // No transaction is active anymore, so files of all dropped indexes can be deleted.
+        deleteRetiredIndexEngines(Long.MAX_VALUE);
+        snapshotIndexSpill.deleteAll();
         flushAllData();
       }
 
@@ -7257,9 +7487,11 @@ public abstract class AbstractStorage
       collectionMap.clear();
       indexEngines.clear();
       indexEngineNameMap.clear();
+      retiredIndexEngines.clear();
       sharedSnapshotIndex.clear();
       visibilityIndex.clear();
       snapshotIndexSize.set(0);
+      snapshotIndexSpill.clear();
       sharedEdgeSnapshotIndex.clear();
       edgeVisibilityIndex.clear();
       edgeSnapshotIndexSize.set(0);
@@ -7331,6 +7563,16 @@ public abstract class AbstractStorage
             engine.delete(null);
           }
         }
+
+        // files of native dropped engines are removed together with the rest of the cache
+        for (final var retired : retiredIndexEngines) {
+          final var engine = retired.engine();
+          if (!(engine instanceof BTreeSingleValueIndexEngine
+              || engine instanceof BTreeMultiValueIndexEngine)) {
+            engine.delete(null);
+          }
+        }
+        retiredIndexEngines.clear();
       } else {
         LogManager.instance()
             .error(
@@ -7359,6 +7601,7 @@ public abstract class AbstractStorage
       sharedSnapshotIndex.clear();
       visibilityIndex.clear();
       snapshotIndexSize.set(0);
+      snapshotIndexSpill.clear();
       sharedEdgeSnapshotIndex.clear();
       edgeVisibilityIndex.clear();
       edgeSnapshotIndexSize.set(0);
@@ -7440,6 +7683,8 @@ public abstract class AbstractStorage
 
     indexEngines.clear();
     indexEngineNameMap.clear();
+    // files of dropped engines which are still kept are deleted when indexes are opened again
+    retiredIndexEngines.clear();
   }
 
   private void commitEntry(
@@ -7618,7 +7863,9 @@ public abstract class AbstractStorage
     long lastReportTime = 0;
     LogSequenceNumber lastUpdatedLSN = null;
 
-    try {
+    final var replayThreads = walRestoreThreads;
+    try (final var replayExecutor =
+        replayThreads > 1 ? new PartitionedReplayExecutor(name, replayThreads) : null) {
       var records = writeAheadLog.read(lsn, 1_000);
 
       while (!records.isEmpty()) {
@@ -7635,7 +7882,11 @@ public abstract class AbstractStorage
               // flushed to the disk
               if (atomicUnit != null) {
                 atomicUnit.add(walRecord);
-                restoreAtomicUnit(atomicUnit, atLeastOnePageUpdate);
+                if (replayExecutor == null) {
+                  restoreAtomicUnit(atomicUnit, atLeastOnePageUpdate);
+                } else {
+                  restoreAtomicUnit(atomicUnit, atLeastOnePageUpdate, replayExecutor);
+                }
                 lastUpdatedLSN = walRecord.getLsn();
               }
             }
@@ -7686,6 +7937,10 @@ public abstract class AbstractStorage
 
         records = writeAheadLog.next(records.getLast().getLsn(), 1_000);
       }
+
+      if (replayExecutor != null) {
+        replayExecutor.drain();
+      }
     } catch (final WALPageBrokenException e) {
       LogManager.instance()
           .error(
@@ -7753,48 +8008,7 @@ public abstract class AbstractStorage
           final var pageIndex = updatePageRecord.getPageIndex();
           fileId = writeCache.externalFileId(writeCache.internalFileId(fileId));
 
-          // loadOrAddForWrite is total on disk (delegates to WriteCache.loadOrAdd which
-          // gap-fills any intermediate pages between currentSize and recordedPageIdx); WAL
-          // replay never reaches the in-memory engine (MemoryWriteAheadLog is a no-op), so
-          // the disk-engine totality is sufficient here.
-          final var cacheEntry =
-              readCache.loadOrAddForWrite(fileId, pageIndex, writeCache, true, null);
-          // Asymmetric assert vs throw: see AtomicOperationBinaryTracking.commitChanges
-          // for the rationale. This WAL-replay site is disk-only because
-          // MemoryWriteAheadLog is a no-op, so -ea is sufficient; the in-memory-reachable
-          // commitChanges site throws unconditionally.
-          assert cacheEntry != null
-              : "readCache.loadOrAddForWrite returned null during WAL replay"
-                  + " UpdatePageRecord branch for fileId=" + fileId
-                  + " pageIndex=" + pageIndex
-                  + "; WriteCache.loadOrAdd totality contract violated";
-
-          try {
-            final var durablePage = new DurablePage(cacheEntry);
-            var pageLsn = durablePage.getLsn();
-            if (durablePage.getLsn().compareTo(walRecord.getLsn()) < 0) {
-              if (!pageLsn.equals(updatePageRecord.getInitialLsn())) {
-                LogManager.instance()
-                    .error(
-                        this,
-                        "Page with index "
-                            + pageIndex
-                            + " and file "
-                            + writeCache.fileNameById(fileId)
-                            + " was changed before page restore was started. Page will be restored"
-                            + " from WAL, but it may contain changes that were not present before"
-                            + " storage crash and data may be lost. Initial LSN is "
-                            + updatePageRecord.getInitialLsn()
-                            + ", but page contains changes with LSN "
-                            + pageLsn,
-                        null);
-              }
-              durablePage.restoreChanges(updatePageRecord.getChanges());
-              durablePage.setLsn(updatePageRecord.getLsn());
-            }
-          } finally {
-            readCache.releaseFromWrite(cacheEntry, writeCache, true);
-          }
+          redoPageUpdate(updatePageRecord, fileId, pageIndex);
 
           atLeastOnePageUpdate.setValue(true);
         }
@@ -7811,45 +8025,7 @@ public abstract class AbstractStorage
           final var pageIndex = pageOp.getPageIndex();
           fileId = writeCache.externalFileId(writeCache.internalFileId(fileId));
 
-          // loadOrAddForWrite is total on disk (delegates to WriteCache.loadOrAdd which
-          // gap-fills any intermediate pages between currentSize and recordedPageIdx); WAL
-          // replay never reaches the in-memory engine (MemoryWriteAheadLog is a no-op), so
-          // the disk-engine totality is sufficient here.
-          final var cacheEntry =
-              readCache.loadOrAddForWrite(fileId, pageIndex, writeCache, true, null);
-          // -ea assert is sufficient on this disk-only WAL-replay site
-          // (MemoryWriteAheadLog is a no-op, so PageOperation never reaches the
-          // in-memory engine); the throw-vs-assert rationale is documented in
-          // AtomicOperationBinaryTracking.commitChanges, which throws because it is
-          // the only site reachable from the in-memory engine.
-          assert cacheEntry != null
-              : "readCache.loadOrAddForWrite returned null during WAL replay"
-                  + " PageOperation branch for fileId=" + fileId
-                  + " pageIndex=" + pageIndex
-                  + "; WriteCache.loadOrAdd totality contract violated";
-
-          try {
-            final var durablePage = new DurablePage(cacheEntry);
-            var pageLsn = durablePage.getLsn();
-
-            if (pageLsn.compareTo(pageOp.getLsn()) < 0) {
-              // For multi-operation pages (common during B-tree splits), a given
-              // operation's initialLsn typically does not match the current
-              // pageLsn — prior operations in the same atomic unit have already
-              // advanced it via redo. That mismatch is not a corruption signal
-              // and must not be logged per-operation: on large restores it
-              // produces millions of SEVERE entries whose stack-trace capture
-              // (SLF4J fillCallerData) turns restore into a CPU bottleneck and
-              // exceeds the CI watchdog. The sibling UpdatePageRecord branch
-              // above retains an analogous log; it has the same latent issue
-              // but is not the hot path after YTDB-626 and is left as
-              // follow-up cleanup.
-              pageOp.redo(durablePage);
-              durablePage.setLsn(pageOp.getLsn());
-            }
-          } finally {
-            readCache.releaseFromWrite(cacheEntry, writeCache, true);
-          }
+          redoPageOperation(pageOp, fileId, pageIndex);
 
           atLeastOnePageUpdate.setValue(true);
         }
@@ -7884,6 +8060,179 @@ public abstract class AbstractStorage
     }
   }
 
+  /**
+   * Applies the changes of the page update record to the page unless the page already contains
+   * them. {@code fileId} is the external id of the file, which exists in the write cache.
+   */
+  private void redoPageUpdate(
+      final UpdatePageRecord updatePageRecord, final long fileId, final long pageIndex)
+      throws IOException {
+    // loadOrAddForWrite is total on disk (delegates to WriteCache.loadOrAdd which
+    // gap-fills any intermediate pages between currentSize and recordedPageIdx); WAL
+    // replay never reaches the in-memory engine (MemoryWriteAheadLog is a no-op), so
+    // the disk-engine totality is sufficient here.
+    final var cacheEntry =
+        readCache.loadOrAddForWrite(fileId, pageIndex, writeCache, true, null);
+    // Asymmetric assert vs throw: see AtomicOperationBinaryTracking.commitChanges
+    // for the rationale. This WAL-replay site is disk-only because
+    // MemoryWriteAheadLog is a no-op, so -ea is sufficient; the in-memory-reachable
+    // commitChanges site throws unconditionally.
+    assert cacheEntry != null
+        : "readCache.loadOrAddForWrite returned null during WAL replay"
+            + " UpdatePageRecord branch for fileId=" + fileId
+            + " pageIndex=" + pageIndex
+            + "; WriteCache.loadOrAdd totality contract violated";
+
+    try {
+      final var durablePage = new DurablePage(cacheEntry);
+      var pageLsn = durablePage.getLsn();
+      if (durablePage.getLsn().compareTo(updatePageRecord.getLsn()) < 0) {
+        if (!pageLsn.equals(updatePageRecord.getInitialLsn())) {
+          LogManager.instance()
+              .error(
+                  this,
+                  "Page with index "
+                      + pageIndex
+                      + " and file "
+                      + writeCache.fileNameById(fileId)
+                      + " was changed before page restore was started. Page will be restored"
+                      + " from WAL, but it may contain changes that were not present before"
+                      + " storage crash and data may be lost. Initial LSN is "
+                      + updatePageRecord.getInitialLsn()
+                      + ", but page contains changes with LSN "
+                      + pageLsn,
+                  null);
+        }
+        durablePage.restoreChanges(updatePageRecord.getChanges());
+        durablePage.setLsn(updatePageRecord.getLsn());
+      }
+    } finally {
+      readCache.releaseFromWrite(cacheEntry, writeCache, true);
+    }
+  }
+
+  /**
+   * Redoes the page operation on the page unless the page already contains it. {@code fileId} is
+   * the external id of the file, which exists in the write cache.
+   */
+  private void redoPageOperation(
+      final PageOperation pageOp, final long fileId, final long pageIndex) throws IOException {
+    // loadOrAddForWrite is total on disk (delegates to WriteCache.loadOrAdd which
+    // gap-fills any intermediate pages between currentSize and recordedPageIdx); WAL
+    // replay never reaches the in-memory engine (MemoryWriteAheadLog is a no-op), so
+    // the disk-engine totality is sufficient here.
+    final var cacheEntry =
+        readCache.loadOrAddForWrite(fileId, pageIndex, writeCache, true, null);
+    // -ea assert is sufficient on this disk-only WAL-replay site
+    // (MemoryWriteAheadLog is a no-op, so PageOperation never reaches the
+    // in-memory engine); the throw-vs-assert rationale is documented in
+    // AtomicOperationBinaryTracking.commitChanges, which throws because it is
+    // the only site reachable from the in-memory engine.
+    assert cacheEntry != null
+        : "readCache.loadOrAddForWrite returned null during WAL replay"
+            + " PageOperation branch for fileId=" + fileId
+            + " pageIndex=" + pageIndex
+            + "; WriteCache.loadOrAdd totality contract violated";
+
+    try {
+      final var durablePage = new DurablePage(cacheEntry);
+      var pageLsn = durablePage.getLsn();
+
+      if (pageLsn.compareTo(pageOp.getLsn()) < 0) {
+        // For multi-operation pages (common during B-tree splits), a given
+        // operation's initialLsn typically does not match the current
+        // pageLsn — prior operations in the same atomic unit have already
+        // advanced it via redo. That mismatch is not a corruption signal
+        // and must not be logged per-operation: on large restores it
+        // produces millions of SEVERE entries whose stack-trace capture
+        // (SLF4J fillCallerData) turns restore into a CPU bottleneck and
+        // exceeds the CI watchdog. The sibling redoPageUpdate above
+        // retains an analogous log; it has the same latent issue
+        // but is not the hot path after YTDB-626 and is left as
+        // follow-up cleanup.
+        pageOp.redo(durablePage);
+        durablePage.setLsn(pageOp.getLsn());
+      }
+    } finally {
+      readCache.releaseFromWrite(cacheEntry, writeCache, true);
+    }
+  }
+
+  /**
+   * Parallel counterpart of {@link #restoreAtomicUnit(List, ModifiableBoolean)}: files are
+   * resolved on the calling thread, which reads WAL, and page changes are handed to the workers of
+   * the replay executor, which apply changes of each file in WAL order.
+   *
+   * <p>Creation and deletion of files change the files the page changes of all workers refer to,
+   * so an atomic unit which creates or deletes a file is restored on the calling thread once all
+   * page changes of the preceding units are applied.
+   */
+  private void restoreAtomicUnit(
+      final List<WALRecord> atomicUnit,
+      final ModifiableBoolean atLeastOnePageUpdate,
+      final PartitionedReplayExecutor replayExecutor)
+      throws IOException {
+    for (final var walRecord : atomicUnit) {
+      if (walRecord instanceof FileCreatedWALRecord || walRecord instanceof FileDeletedWALRecord) {
+        replayExecutor.drain();
+        restoreAtomicUnit(atomicUnit, atLeastOnePageUpdate);
+        return;
+      }
+    }
+
+    for (final var walRecord : atomicUnit) {
+      switch (walRecord) {
+        case UpdatePageRecord updatePageRecord -> {
+          final var fileId = updatePageRecord.getFileId();
+          if (deletedNonDurableFileIds.contains(writeCache.internalFileId(fileId))) {
+            continue;
+          }
+
+          ensureFileForReplay(atomicUnit, fileId);
+
+          final var pageIndex = updatePageRecord.getPageIndex();
+          final var externalFileId = writeCache.externalFileId(writeCache.internalFileId(fileId));
+          replayExecutor.submit(
+              externalFileId, () -> redoPageUpdate(updatePageRecord, externalFileId, pageIndex));
+
+          atLeastOnePageUpdate.setValue(true);
+        }
+        case PageOperation pageOp -> {
+          final var fileId = pageOp.getFileId();
+          if (deletedNonDurableFileIds.contains(writeCache.internalFileId(fileId))) {
+            continue;
+          }
+
+          ensureFileForReplay(atomicUnit, fileId);
+
+          final var pageIndex = pageOp.getPageIndex();
+          final var externalFileId = writeCache.externalFileId(writeCache.internalFileId(fileId));
+          replayExecutor.submit(
+              externalFileId, () -> redoPageOperation(pageOp, externalFileId, pageIndex));
+
+          atLeastOnePageUpdate.setValue(true);
+        }
+        case AtomicUnitStartRecord ignored -> {
+        }
+        case AtomicUnitEndRecord ignored -> {
+        }
+        case HighLevelTransactionChangeRecord ignored -> {
+        }
+        case null, default -> {
+          assert walRecord != null;
+          LogManager.instance()
+              .error(
+                  this,
+                  "Invalid WAL record type was passed %s. Given record will be skipped.",
+                  null,
+                  walRecord.getClass());
+
+          assert false : "Invalid WAL record type was passed " + walRecord.getClass().getName();
+        }
+      }
+    }
+  }
+
   /**
    * Materializes a file a page-redo record references but the cache has not seen yet, so
    * WAL replay can continue across atomic units. The open-time caller has already applied the
@@ -8626,13 +8975,18 @@ public abstract class AbstractStorage
   }
 
   /**
-   * Periodic records GC task entry point. Performs two duties:
+   * Periodic records GC task entry point. Performs four duties:
    * <ol>
    *   <li>Opportunistically cleans the snapshot/visibility indexes (same work as
    *       {@link #cleanupSnapshotIndex()}, using {@code tryLock()} — if another thread is
    *       already cleaning, this step is skipped).</li>
+   *   <li>Keeps the heap used by the snapshot index within
+   *       {@link GlobalConfiguration#STORAGE_SNAPSHOT_INDEX_MEMORY_BUDGET} (see
+   *       {@link #spillSnapshotIndex()}).</li>
    *   <li>Iterates over all collections in the storage and reclaims dead records from those
    *       that exceed the GC trigger threshold.</li>
+   *   <li>Deletes files of dropped index engines which were dropped before the global
+   *       low-water-mark.</li>
    * </ol>
    *
    * <p>Called by the periodic scheduled task ({@code PeriodicRecordsGc}) on the
@@ -8680,7 +9034,15 @@ public abstract class AbstractStorage
             + " in periodic records GC for storage '%s'", e, name);
       }
 
-      // Step 2: Reclaim dead records from collections that exceed the threshold.
+      // Step 2: Keep the snapshot index within its memory budget.
+      try {
+        spillSnapshotIndex();
+      } catch (Exception e) {
+        LogManager.instance().error(this, "Error during snapshot index spilling"
+            + " in periodic records GC for storage '%s'", e, name);
+      }
+
+      // Step 3: Reclaim dead records from collections that exceed the threshold.
       var contextConfig = configuration.getContextConfiguration();
       int minThreshold = contextConfig
           .getValueAsInteger(GlobalConfiguration.STORAGE_COLLECTION_GC_MIN_THRESHOLD);
@@ -8694,18 +9056,65 @@ public abstract class AbstractStorage
         if (collection instanceof PaginatedCollectionV2 pc
             && pc.isGcTriggered(minThreshold, scaleFactor)) {
           try {
-            pc.collectDeadRecords(sharedSnapshotIndex);
+            pc.collectDeadRecords(sharedSnapshotIndex, snapshotIndexSpill);
           } catch (Exception e) {
             LogManager.instance().error(this, "Error during records GC"
                 + " for collection '%s' in storage '%s'", e, pc.getName(), name);
           }
         }
       }
+
+      // Step 4: Delete files of dropped index engines no active transaction can read anymore.
+      if (!retiredIndexEngines.isEmpty()) {
+        deleteRetiredIndexEngines(computeGlobalLowWaterMark());
+      }
     } finally {
       stateLock.readLock().unlock();
     }
   }
 
+  /**
+   * Deletes spilled snapshot index runs no active transaction can read anymore and, if the
+   * in-memory snapshot index still exceeds the configured memory budget, moves its oldest entries
+   * to new spilled runs until it takes about three quarters of the budget. Runs under
+   * {@link #snapshotCleanupLock} and is skipped if another thread holds it.
+   *
+   * <p>Must not be called from inside an atomic operation: spilled runs are written and deleted
+   * in their own atomic operations.
+   */
+  private void spillSnapshotIndex() throws IOException {
+    final var budget = configuration.getContextConfiguration()
+        .getValueAsLong(GlobalConfiguration.STORAGE_SNAPSHOT_INDEX_MEMORY_BUDGET);
+    if (budget <= 0) {
+      return;
+    }
+    final var maxEntries = budget / SnapshotIndexSpill.IN_MEMORY_ENTRY_BYTES;
+    if (snapshotIndexSpill.isEmpty() && snapshotIndexSize.get() <= maxEntries) {
+      return;
+    }
+    if (!snapshotCleanupLock.tryLock()) {
+      return;
+    }
+    try {
+      snapshotIndexSpill.evict(computeGlobalLowWaterMark(), collections);
+      if (snapshotIndexSize.get() <= maxEntries) {
+        return;
+      }
+
+      var excess = snapshotIndexSize.get() - (maxEntries - maxEntries / 4);
+      while (excess > 0 && status == STATUS.OPEN) {
+        final var spilled = snapshotIndexSpill.spill(
+            sharedSnapshotIndex, visibilityIndex, snapshotIndexSize, excess);
+        if (spilled == 0) {
+          break;
+        }
+        excess -= spilled;
+      }
+    } finally {
+      snapshotCleanupLock.unlock();
+    }
+  }
+
   /**
    * Core eviction logic: removes all visibility/snapshot entries with {@code recordTs} strictly
    * below the given low-water-mark. Extracted as a static method for direct unit testing (same
@@ -9044,13 +9453,7 @@ public abstract class AbstractStorage
 
   private static CompositeKey buildSnapshotBoundKey(
       long indexId, List<Object> prefixKeys, long version) {
-    var key = new CompositeKey(prefixKeys.size() + 2);
-    key.addKey(indexId);
-    for (var pk : prefixKeys) {
-      key.addKey(pk);
-    }
-    key.addKey(version);
-    return key;
+    return IndexSnapshotKey.create(indexId, prefixKeys, prefixKeys.size(), version);
   }
 
   /**
@@ -9082,6 +9485,10 @@ public abstract class AbstractStorage
     return snapshotIndexSize;
   }
 
+  public SnapshotIndexSpill getSnapshotIndexSpill() {
+    return snapshotIndexSpill;
+  }
+
   public ConcurrentSkipListMap<EdgeSnapshotKey, LinkBagValue> getSharedEdgeSnapshotIndex() {
     return sharedEdgeSnapshotIndex;
   }
@@ -0,0 +1,141 @@
+package com.jetbrains.youtrackdb.internal.core.storage.impl.local;
+
+import com.jetbrains.youtrackdb.internal.common.thread.ThreadPoolExecutors;
+import com.jetbrains.youtrackdb.internal.core.exception.BaseException;
+import com.jetbrains.youtrackdb.internal.core.exception.StorageException;
+import it.unimi.dsi.fastutil.HashCommon;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Applies page changes read from WAL on several threads during data restore. Every file is mapped
+ * to a single worker thread, and each worker applies its changes in submission order, so changes of
+ * the same file are applied in WAL order while changes of different files are applied in parallel.
+ * Partitioning by page would not be enough: redo of a page past the end of its file extends the
+ * file, and the write cache requires a file to be extended by one thread at a time, in page order.
+ *
+ * <p>The amount of submitted but not yet applied changes is bounded, so the thread which reads WAL
+ * blocks once it gets too far ahead of the workers. After the first failure the following changes
+ * are skipped, and the failure is rethrown by the next {@link #submit} or {@link #drain} call.
+ */
+final class PartitionedReplayExecutor implements AutoCloseable {
+
+  /** Change of a single page which is applied by a worker thread. */
+  @FunctionalInterface
+  interface PageRedo {
+
+    void redo() throws IOException;
+  }
+
+  private static final int MAX_PENDING_CHANGES_PER_WORKER = 4 * 1024;
+
+  private final String storageName;
+  private final ExecutorService[] workers;
+  private final Semaphore pendingChanges;
+  private final int maxPendingChanges;
+  private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+  PartitionedReplayExecutor(final String storageName, final int threads) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("Amount of replay threads has to be positive: " + threads);
+    }
+
+    this.storageName = storageName;
+    this.workers = new ExecutorService[threads];
+    for (var i = 0; i < threads; i++) {
+      workers[i] = ThreadPoolExecutors.newSingleThreadPool(
+          "YouTrackDB WAL replay " + storageName + " #" + i);
+    }
+
+    this.maxPendingChanges = threads * MAX_PENDING_CHANGES_PER_WORKER;
+    this.pendingChanges = new Semaphore(maxPendingChanges);
+  }
+
+  /**
+   * Schedules the change of a page of the file on the worker the file is mapped to. Blocks while
+   * too many changes are pending.
+   */
+  void submit(final long fileId, final PageRedo redo) {
+    checkFailure();
+
+    pendingChanges.acquireUninterruptibly();
+    try {
+      workers[worker(fileId, workers.length)].execute(() -> {
+        try {
+          if (failure.get() == null) {
+            redo.redo();
+          }
+        } catch (final Throwable e) {
+          failure.compareAndSet(null, e);
+        } finally {
+          pendingChanges.release();
+        }
+      });
+    } catch (final RuntimeException e) {
+      pendingChanges.release();
+      throw e;
+    }
+  }
+
+  /**
+   * Waits till all submitted changes are applied, and rethrows the first failure of a worker if
+   * there is one.
+   */
+  void drain() {
+    pendingChanges.acquireUninterruptibly(maxPendingChanges);
+    pendingChanges.release(maxPendingChanges);
+
+    checkFailure();
+  }
+
+  /** Waits till the submitted changes are applied and stops worker threads. */
+  @Override
+  public void close() {
+    for (final var worker : workers) {
+      worker.shutdown();
+    }
+
+    var interrupted = false;
+    for (final var worker : workers) {
+      while (true) {
+        try {
+          if (worker.awaitTermination(1, TimeUnit.MINUTES)) {
+            break;
+          }
+        } catch (final InterruptedException e) {
+          interrupted = true;
+        }
+      }
+    }
+
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /** Index of the worker which applies changes of the file. */
+  static int worker(final long fileId, final int workers) {
+    return Math.floorMod(Long.hashCode(HashCommon.mix(fileId)), workers);
+  }
+
+  private void checkFailure() {
+    final var e = failure.get();
+    if (e == null) {
+      return;
+    }
+
+    if (e instanceof RuntimeException runtimeException) {
+      throw runtimeException;
+    }
+    if (e instanceof Error error) {
+      throw error;
+    }
+
+    throw BaseException.wrapException(
+        new StorageException(storageName, "Page change can not be restored from WAL"), e,
+        storageName);
+  }
+}
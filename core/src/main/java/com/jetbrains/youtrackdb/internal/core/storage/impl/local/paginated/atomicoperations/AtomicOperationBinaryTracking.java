@@ -34,6 +34,7 @@ import com.jetbrains.youtrackdb.internal.core.storage.cache.OptimisticReadScope;
 import com.jetbrains.youtrackdb.internal.core.storage.cache.ReadCache;
 import com.jetbrains.youtrackdb.internal.core.storage.cache.WriteCache;
 import com.jetbrains.youtrackdb.internal.core.storage.collection.CollectionPositionMapBucket.PositionEntry;
+import com.jetbrains.youtrackdb.internal.core.storage.collection.SnapshotIndexSpill;
 import com.jetbrains.youtrackdb.internal.core.storage.collection.SnapshotKey;
 import com.jetbrains.youtrackdb.internal.core.storage.collection.VisibilityKey;
 import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.atomicoperations.AtomicOperationsTable.AtomicOperationsSnapshot;
@@ -128,6 +129,8 @@ final class AtomicOperationBinaryTracking implements AtomicOperation {
   private final ConcurrentSkipListMap<SnapshotKey, PositionEntry> sharedSnapshotIndex;
   private final ConcurrentSkipListMap<VisibilityKey, SnapshotKey> sharedVisibilityIndex;
   private final AtomicLong snapshotIndexSize;
+  // Spilled part of the shared snapshot index, null if the storage does not spill.
+  @Nullable private final SnapshotIndexSpill snapshotIndexSpill;
 
   // Local overlay buffers — lazily allocated to avoid overhead for read-only transactions.
   // Snapshot buffer uses TreeMap to support efficient subMap range queries in
@@ -206,6 +209,25 @@ final class AtomicOperationBinaryTracking implements AtomicOperation {
       @Nonnull ConcurrentSkipListMap<EdgeVisibilityKey, EdgeSnapshotKey> sharedEdgeVisibilityIndex,
       @Nonnull AtomicLong edgeSnapshotIndexSize,
       @Nonnull ApplyPhaseEpoch applyPhaseEpoch) {
+    this(readCache, writeCache, writeAheadLog, storageId, snapshot, sharedSnapshotIndex,
+        sharedVisibilityIndex, snapshotIndexSize, null, sharedEdgeSnapshotIndex,
+        sharedEdgeVisibilityIndex, edgeSnapshotIndexSize, applyPhaseEpoch);
+  }
+
+  AtomicOperationBinaryTracking(
+      final ReadCache readCache,
+      final WriteCache writeCache,
+      @Nullable final WriteAheadLog writeAheadLog,
+      final int storageId,
+      @Nonnull AtomicOperationsSnapshot snapshot,
+      @Nonnull ConcurrentSkipListMap<SnapshotKey, PositionEntry> sharedSnapshotIndex,
+      @Nonnull ConcurrentSkipListMap<VisibilityKey, SnapshotKey> sharedVisibilityIndex,
+      @Nonnull AtomicLong snapshotIndexSize,
+      @Nullable SnapshotIndexSpill snapshotIndexSpill,
+      @Nonnull ConcurrentSkipListMap<EdgeSnapshotKey, LinkBagValue> sharedEdgeSnapshotIndex,
+      @Nonnull ConcurrentSkipListMap<EdgeVisibilityKey, EdgeSnapshotKey> sharedEdgeVisibilityIndex,
+      @Nonnull AtomicLong edgeSnapshotIndexSize,
+      @Nonnull ApplyPhaseEpoch applyPhaseEpoch) {
     this.snapshot = snapshot;
     newFileNamesId.defaultReturnValue(-1);
     deletedFileNameIdMap.defaultReturnValue(-1);
@@ -217,6 +239,7 @@ final class AtomicOperationBinaryTracking implements AtomicOperation {
     this.sharedSnapshotIndex = sharedSnapshotIndex;
     this.sharedVisibilityIndex = sharedVisibilityIndex;
     this.snapshotIndexSize = snapshotIndexSize;
+    this.snapshotIndexSpill = snapshotIndexSpill;
     this.sharedEdgeSnapshotIndex = sharedEdgeSnapshotIndex;
     this.sharedEdgeVisibilityIndex = sharedEdgeVisibilityIndex;
     this.edgeSnapshotIndexSize = edgeSnapshotIndexSize;
@@ -1532,7 +1555,14 @@ final class AtomicOperationBinaryTracking implements AtomicOperation {
         return local;
       }
     }
-    return sharedSnapshotIndex.get(key);
+
+    // The spill publishes a run before it removes the entries of the run from the shared
+    // index, so an entry missing here is either found in the spill or evicted.
+    var shared = sharedSnapshotIndex.get(key);
+    if (shared != null || snapshotIndexSpill == null) {
+      return shared;
+    }
+    return snapshotIndexSpill.get(key);
   }
 
   @Override
@@ -1542,9 +1572,12 @@ final class AtomicOperationBinaryTracking implements AtomicOperation {
     assert fromInclusive.compareTo(toInclusive) <= 0
         : "fromInclusive must be <= toInclusive";
 
-    var sharedDescending = sharedSnapshotIndex
+    Iterable<Map.Entry<SnapshotKey, PositionEntry>> sharedDescending = sharedSnapshotIndex
         .subMap(fromInclusive, true, toInclusive, true)
         .descendingMap().entrySet();
+    if (snapshotIndexSpill != null) {
+      sharedDescending = withSpilledEntries(sharedDescending, fromInclusive, toInclusive);
+    }
 
     if (localSnapshotBuffer == null || localSnapshotBuffer.isEmpty()) {
       return sharedDescending;
@@ -1559,8 +1592,32 @@ final class AtomicOperationBinaryTracking implements AtomicOperation {
       return sharedDescending;
     }
 
+    final var sharedEntries = sharedDescending;
     return () -> new MergingDescendingIterator<>(
-        sharedDescending.iterator(), localDescending.iterator());
+        sharedEntries.iterator(), localDescending.iterator());
+  }
+
+  /**
+   * Adds the entries of the given range kept in the spilled part of the snapshot index to the
+   * in-memory entries. The in-memory entries are copied before the spill is queried: a run is
+   * published before its entries are removed from memory, so every entry is seen in at least one
+   * of the two. The ranges cover the versions of a single record, so the copy is small.
+   */
+  private Iterable<Map.Entry<SnapshotKey, PositionEntry>> withSpilledEntries(
+      Iterable<Map.Entry<SnapshotKey, PositionEntry>> inMemoryDescending,
+      SnapshotKey fromInclusive, SnapshotKey toInclusive) {
+    assert snapshotIndexSpill != null;
+
+    final var inMemory = new ArrayList<Map.Entry<SnapshotKey, PositionEntry>>();
+    for (var entry : inMemoryDescending) {
+      inMemory.add(entry);
+    }
+
+    final var spilled = snapshotIndexSpill.subMapDescending(fromInclusive, toInclusive);
+    if (spilled.isEmpty()) {
+      return inMemory;
+    }
+    return () -> new MergingDescendingIterator<>(spilled.iterator(), inMemory.iterator());
   }
 
   @Override
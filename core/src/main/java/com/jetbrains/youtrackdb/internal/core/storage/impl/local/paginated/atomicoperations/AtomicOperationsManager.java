@@ -117,10 +117,24 @@ public class AtomicOperationsManager {
       segmentLock.sharedUnlock();
     }
     var snapshot = atomicOperationsTable.snapshotAtomicOperationTableState(lastId);
+    return startAtomicOperation(snapshot);
+  }
+
+  /**
+   * Starts an atomic operation which observes an already taken snapshot instead of taking a new
+   * one. Used to run several read-only operations in parallel against the same state of the
+   * database, for example by sub-plans of a single query which are executed concurrently.
+   *
+   * <p>The snapshot is immutable, so it may be shared between operations started on different
+   * threads. The caller is responsible for keeping the snapshot protected from the records GC
+   * until all operations which observe it are finished.
+   */
+  public AtomicOperation startAtomicOperation(
+      @Nonnull AtomicOperationsTable.AtomicOperationsSnapshot snapshot) {
     return new AtomicOperationBinaryTracking(readCache, writeCache, writeAheadLog,
         storage.getId(),
         snapshot, storage.getSharedSnapshotIndex(), storage.getVisibilityIndex(),
-        storage.getSnapshotIndexSize(),
+        storage.getSnapshotIndexSize(), storage.getSnapshotIndexSpill(),
         storage.getSharedEdgeSnapshotIndex(), storage.getEdgeVisibilityIndex(),
         storage.getEdgeSnapshotIndexSize(), applyPhaseEpoch);
   }
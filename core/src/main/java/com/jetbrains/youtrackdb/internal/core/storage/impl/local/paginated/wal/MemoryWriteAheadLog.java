@@ -50,6 +50,10 @@ public class MemoryWriteAheadLog extends AbstractWriteAheadLog {
   public void flush() {
   }
 
+  @Override
+  public void waitTillDurable(LogSequenceNumber lsn, boolean immediate) {
+  }
+
   @Override
   public LogSequenceNumber logAtomicOperationStartRecord(
       boolean isRollbackSupported, long unitId) {
@@ -21,6 +21,16 @@ import com.jetbrains.youtrackdb.internal.core.storage.collection.v2.FreeSpaceMap
 import com.jetbrains.youtrackdb.internal.core.storage.collection.v2.MapEntryPointSetFileSizeOp;
 import com.jetbrains.youtrackdb.internal.core.storage.collection.v2.PaginatedCollectionStateV2SetApproxRecordsCountOp;
 import com.jetbrains.youtrackdb.internal.core.storage.collection.v2.PaginatedCollectionStateV2SetFileSizeOp;
+import com.jetbrains.youtrackdb.internal.core.storage.index.hashindex.HashTableBucketAddEntryOp;
+import com.jetbrains.youtrackdb.internal.core.storage.index.hashindex.HashTableBucketInitOp;
+import com.jetbrains.youtrackdb.internal.core.storage.index.hashindex.HashTableBucketRemoveEntryOp;
+import com.jetbrains.youtrackdb.internal.core.storage.index.hashindex.HashTableBucketSetNextPageOp;
+import com.jetbrains.youtrackdb.internal.core.storage.index.hashindex.HashTableBucketUpdateValueOp;
+import com.jetbrains.youtrackdb.internal.core.storage.index.hashindex.HashTableEntryPointInitOp;
+import com.jetbrains.youtrackdb.internal.core.storage.index.hashindex.HashTableEntryPointSetApproxEntriesCountOp;
+import com.jetbrains.youtrackdb.internal.core.storage.index.hashindex.HashTableEntryPointSetLayoutOp;
+import com.jetbrains.youtrackdb.internal.core.storage.index.hashindex.HashTableEntryPointSetOverflowOp;
+import com.jetbrains.youtrackdb.internal.core.storage.index.hashindex.HashTableEntryPointSetSizeOp;
 import com.jetbrains.youtrackdb.internal.core.storage.index.sbtree.local.v2.SBTreeBucketV2AddAllOp;
 import com.jetbrains.youtrackdb.internal.core.storage.index.sbtree.local.v2.SBTreeBucketV2AddLeafEntryOp;
 import com.jetbrains.youtrackdb.internal.core.storage.index.sbtree.local.v2.SBTreeBucketV2AddNonLeafEntryOp;
@@ -115,7 +125,8 @@ public final class PageOperationRegistry {
    *
    * <p>Currently registers Track 2-3 types (IDs 201-218), Track 5 types (IDs 219-238),
    * Track 6 types (IDs 239-263), Track 7a types (IDs 264-278), and Track 7b types
-   * (IDs 279-295) — 95 types total:
+   * (IDs 279-295), the approximate entries count of CellBTreeSingleValueEntryPointV3 (ID 296)
+   * and HashTable types (IDs 297-306) — 106 types total:
    * <ul>
    *   <li>PaginatedCollectionStateV2 (2 ops)</li>
    *   <li>CollectionPage (5 ops)</li>
@@ -146,6 +157,9 @@ public final class PageOperationRegistry {
    *   <li>Ridbag Bucket entry (4 ops: addLeaf, addNonLeaf, removeLeaf, removeNonLeaf)</li>
    *   <li>Ridbag Bucket bulk (2 ops: addAll, shrink)</li>
    *   <li>Ridbag Bucket updateValue (1 op)</li>
+   *   <li>HashTableEntryPoint (5 ops: init, setSize, setApproxEntriesCount, setLayout,
+   *       setOverflow)</li>
+   *   <li>HashTableBucket (5 ops: init, addEntry, removeEntry, updateValue, setNextPage)</li>
    * </ul>
    */
   public static void registerAll(WALRecordsFactory factory) {
@@ -484,5 +498,39 @@ public final class PageOperationRegistry {
     factory.registerNewRecord(
         WALRecordTypes.RIDBAG_BUCKET_UPDATE_VALUE_OP,
         RidbagBucketUpdateValueOp.class);
+
+    // HashTableEntryPoint operations
+    factory.registerNewRecord(
+        WALRecordTypes.HASH_TABLE_ENTRY_POINT_INIT_OP,
+        HashTableEntryPointInitOp.class);
+    factory.registerNewRecord(
+        WALRecordTypes.HASH_TABLE_ENTRY_POINT_SET_SIZE_OP,
+        HashTableEntryPointSetSizeOp.class);
+    factory.registerNewRecord(
+        WALRecordTypes.HASH_TABLE_ENTRY_POINT_SET_APPROX_ENTRIES_COUNT_OP,
+        HashTableEntryPointSetApproxEntriesCountOp.class);
+    factory.registerNewRecord(
+        WALRecordTypes.HASH_TABLE_ENTRY_POINT_SET_LAYOUT_OP,
+        HashTableEntryPointSetLayoutOp.class);
+    factory.registerNewRecord(
+        WALRecordTypes.HASH_TABLE_ENTRY_POINT_SET_OVERFLOW_OP,
+        HashTableEntryPointSetOverflowOp.class);
+
+    // HashTableBucket operations
+    factory.registerNewRecord(
+        WALRecordTypes.HASH_TABLE_BUCKET_INIT_OP,
+        HashTableBucketInitOp.class);
+    factory.registerNewRecord(
+        WALRecordTypes.HASH_TABLE_BUCKET_ADD_ENTRY_OP,
+        HashTableBucketAddEntryOp.class);
+    factory.registerNewRecord(
+        WALRecordTypes.HASH_TABLE_BUCKET_REMOVE_ENTRY_OP,
+        HashTableBucketRemoveEntryOp.class);
+    factory.registerNewRecord(
+        WALRecordTypes.HASH_TABLE_BUCKET_UPDATE_VALUE_OP,
+        HashTableBucketUpdateValueOp.class);
+    factory.registerNewRecord(
+        WALRecordTypes.HASH_TABLE_BUCKET_SET_NEXT_PAGE_OP,
+        HashTableBucketSetNextPageOp.class);
   }
 }
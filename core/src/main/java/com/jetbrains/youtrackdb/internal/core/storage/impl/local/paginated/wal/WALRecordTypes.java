@@ -378,4 +378,19 @@ public final class WALRecordTypes {
   // CellBTreeSingleValueEntryPointV3 — approximate entries count (Track 5 addition)
   public static final int BTREE_SV_ENTRY_POINT_V3_SET_APPROX_ENTRIES_COUNT_OP =
       PAGE_OPERATION_ID_BASE + 96;
+
+  // HashTableEntryPoint operations
+  public static final int HASH_TABLE_ENTRY_POINT_INIT_OP = PAGE_OPERATION_ID_BASE + 97;
+  public static final int HASH_TABLE_ENTRY_POINT_SET_SIZE_OP = PAGE_OPERATION_ID_BASE + 98;
+  public static final int HASH_TABLE_ENTRY_POINT_SET_APPROX_ENTRIES_COUNT_OP =
+      PAGE_OPERATION_ID_BASE + 99;
+  public static final int HASH_TABLE_ENTRY_POINT_SET_LAYOUT_OP = PAGE_OPERATION_ID_BASE + 100;
+  public static final int HASH_TABLE_ENTRY_POINT_SET_OVERFLOW_OP = PAGE_OPERATION_ID_BASE + 101;
+
+  // HashTableBucket operations
+  public static final int HASH_TABLE_BUCKET_INIT_OP = PAGE_OPERATION_ID_BASE + 102;
+  public static final int HASH_TABLE_BUCKET_ADD_ENTRY_OP = PAGE_OPERATION_ID_BASE + 103;
+  public static final int HASH_TABLE_BUCKET_REMOVE_ENTRY_OP = PAGE_OPERATION_ID_BASE + 104;
+  public static final int HASH_TABLE_BUCKET_UPDATE_VALUE_OP = PAGE_OPERATION_ID_BASE + 105;
+  public static final int HASH_TABLE_BUCKET_SET_NEXT_PAGE_OP = PAGE_OPERATION_ID_BASE + 106;
 }
@@ -195,7 +195,7 @@ public final class WALRecordsFactory {
       RECORD_ID_SIZE + OPERATION_ID_SIZE + ORIGINAL_CONTENT_SIZE;
 
   // Array-based lookup for dynamically registered WAL record types. Sized
-  // to cover all PageOperation IDs (currently 200–295) with generous headroom.
+  // to cover all PageOperation IDs (currently 200–306) with generous headroom.
   // AtomicReferenceArray provides volatile-read/write semantics per element,
   // giving thread safety without boxing overhead — registerNewRecord() may
   // run concurrently with fromStream() during WAL recovery.
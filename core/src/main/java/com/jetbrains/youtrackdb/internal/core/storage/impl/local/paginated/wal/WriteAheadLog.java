@@ -127,6 +127,16 @@ public interface WriteAheadLog extends AutoCloseable {
    */
   void addEventAt(LogSequenceNumber lsn, Runnable event);
 
+  /**
+   * Blocks till all records of this write ahead log up to the given LSN are written and synced to
+   * the disk. Threads which wait at the same time are served by a single fsync.
+   *
+   * @param lsn       the LSN which has to become durable.
+   * @param immediate if {@code true} the fsync is started at once, otherwise it may be delayed for
+   *                  a short time to collect more waiting threads.
+   */
+  void waitTillDurable(LogSequenceNumber lsn, boolean immediate);
+
   /**
    * Adds new segment so all subsequent log entries will be added to this new segment. New segment
    * can not be appended if:
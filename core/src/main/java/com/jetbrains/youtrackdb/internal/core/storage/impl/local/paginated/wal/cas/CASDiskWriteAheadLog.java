@@ -1,5 +1,6 @@
 package com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.wal.cas;
 
+import com.jetbrains.youtrackdb.api.config.GlobalConfiguration;
 import com.jetbrains.youtrackdb.internal.common.concur.lock.ScalableRWLock;
 import com.jetbrains.youtrackdb.internal.common.directmemory.DirectMemoryAllocator;
 import com.jetbrains.youtrackdb.internal.common.directmemory.DirectMemoryAllocator.Intention;
@@ -58,10 +59,12 @@ import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
@@ -89,6 +92,8 @@ public final class CASDiskWriteAheadLog implements WriteAheadLog {
 
   private static final int BATCH_READ_SIZE = 4 * 1024;
 
+  private static final long DURABILITY_RECHECK_INTERVAL = 100;
+
   static final int DEFAULT_MAX_CACHE_SIZE = Integer.MAX_VALUE;
 
   private static ScheduledExecutorService commitExecutor() {
@@ -164,6 +169,22 @@ public final class CASDiskWriteAheadLog implements WriteAheadLog {
 
   private long lastFSyncTs = -1;
   private final int fsyncInterval;
+
+  /**
+   * Threads which wait in {@link #waitTillDurable(LogSequenceNumber, boolean)} are signalled by
+   * every fsync of the WAL.
+   */
+  private final ReentrantLock durabilityLock = new ReentrantLock();
+  private final Condition durabilityCondition = durabilityLock.newCondition();
+
+  /**
+   * Whether a forced write and fsync of the WAL requested by a durable commit is already scheduled,
+   * so commits which arrive before it is executed are covered by the same fsync.
+   */
+  private final AtomicBoolean syncScheduled = new AtomicBoolean();
+
+  private final long groupCommitMaxDelay;
+  private volatile long averageFSyncDuration = -1;
   private volatile long segmentAdditionTs;
 
   private long currentPosition = 0;
@@ -223,6 +244,39 @@ public final class CASDiskWriteAheadLog implements WriteAheadLog {
       boolean printPerformanceStatistic,
       int statisticPrintInterval)
       throws IOException {
+    this(storageName, storagePath, walPath, walBaseName, maxPagesCacheSize, bufferSize, aesKey,
+        iv, segmentsInterval, maxSegmentSize, commitDelay, filterWALFiles, locale,
+        walSizeHardLimit, fsyncInterval, keepSingleWALSegment, callFsync,
+        printPerformanceStatistic, statisticPrintInterval,
+        GlobalConfiguration.WAL_GROUP_COMMIT_MAX_DELAY.getValueAsInteger());
+  }
+
+  /**
+   * @param groupCommitMaxDelay maximum delay of the group commit fsync in microseconds, see
+   *                            {@link GlobalConfiguration#WAL_GROUP_COMMIT_MAX_DELAY}
+   */
+  public CASDiskWriteAheadLog(
+      final String storageName,
+      final Path storagePath,
+      final Path walPath,
+      final String walBaseName,
+      final int maxPagesCacheSize,
+      final int bufferSize,
+      byte[] aesKey,
+      byte[] iv,
+      long segmentsInterval,
+      final long maxSegmentSize,
+      final int commitDelay,
+      final boolean filterWALFiles,
+      final Locale locale,
+      final long walSizeHardLimit,
+      final int fsyncInterval,
+      boolean keepSingleWALSegment,
+      boolean callFsync,
+      boolean printPerformanceStatistic,
+      int statisticPrintInterval,
+      int groupCommitMaxDelay)
+      throws IOException {
 
     if (aesKey != null && aesKey.length != 16 && aesKey.length != 24 && aesKey.length != 32) {
       throw new InvalidStorageEncryptionKeyException(storageName,
@@ -245,6 +299,8 @@ public final class CASDiskWriteAheadLog implements WriteAheadLog {
     this.statisticPrintInterval = statisticPrintInterval;
 
     this.fsyncInterval = fsyncInterval;
+    this.groupCommitMaxDelay =
+        TimeUnit.MICROSECONDS.toNanos(groupCommitMaxDelay);
 
     walSizeLimit = walSizeHardLimit;
 
@@ -838,6 +894,73 @@ public final class CASDiskWriteAheadLog implements WriteAheadLog {
     }
   }
 
+  @Override
+  public void waitTillDurable(final LogSequenceNumber lsn, final boolean immediate) {
+    if (isDurable(lsn)) {
+      return;
+    }
+
+    scheduleSync(immediate ? 0 : groupCommitDelay());
+
+    durabilityLock.lock();
+    try {
+      while (!isDurable(lsn)) {
+        if (cancelRecordsWriting) {
+          throw new StorageException(storageName,
+              "WAL of storage " + storageName + " is closed, LSN " + lsn + " was not synced");
+        }
+
+        if (!durabilityCondition.await(DURABILITY_RECHECK_INTERVAL, TimeUnit.MILLISECONDS)) {
+          // requested fsync could fail or be skipped, request a new one
+          scheduleSync(0);
+        }
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw BaseException.wrapException(
+          new StorageException(storageName,
+              "Waiting for fsync of WAL of storage " + storageName + " was interrupted"),
+          e, storageName);
+    } finally {
+      durabilityLock.unlock();
+    }
+  }
+
+  private boolean isDurable(final LogSequenceNumber lsn) {
+    final var localFlushedLsn = flushedLSN;
+    return localFlushedLsn != null && localFlushedLsn.compareTo(lsn) >= 0;
+  }
+
+  /**
+   * Schedules forced write and fsync of the WAL unless one is already scheduled. Commits which wait
+   * for durability while the fsync is scheduled or executed are covered by the same or by the next
+   * fsync, so a single fsync serves a group of commits.
+   */
+  private void scheduleSync(final long delay) {
+    if (syncScheduled.compareAndSet(false, true)) {
+      commitExecutor().schedule(
+          () -> {
+            syncScheduled.set(false);
+            executeWriteRecords(true, true);
+          },
+          delay, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  /**
+   * Delay of the group commit fsync. Waiting longer than a single fsync takes does not increase the
+   * size of the group, so the delay is half of the average fsync duration limited by
+   * {@link GlobalConfiguration#WAL_GROUP_COMMIT_MAX_DELAY}.
+   */
+  private long groupCommitDelay() {
+    final var fsyncDuration = averageFSyncDuration;
+    if (fsyncDuration < 0) {
+      return groupCommitMaxDelay;
+    }
+
+    return Math.min(fsyncDuration >> 1, groupCommitMaxDelay);
+  }
+
   @Override
   public void delete() throws IOException {
     final var segmentsToDelete = new LongArrayList(this.segments.size());
@@ -1977,13 +2100,26 @@ public final class CASDiskWriteAheadLog implements WriteAheadLog {
       }
 
       if (callFsync && walFile != null) {
+        final var fsyncStartTs = System.nanoTime();
         walFile.force(true);
+
+        final var fsyncDuration = System.nanoTime() - fsyncStartTs;
+        final var average = averageFSyncDuration;
+        averageFSyncDuration =
+            average < 0 ? fsyncDuration : (average * 7 + fsyncDuration) >> 3;
       }
 
       flushedLSN = writtenUpTo.get().lsn();
 
       fireEventsFor(flushedLSN);
 
+      durabilityLock.lock();
+      try {
+        durabilityCondition.signalAll();
+      } finally {
+        durabilityLock.unlock();
+      }
+
       if (printPerformanceStatistic) {
         final var endTs = System.nanoTime();
         //noinspection NonAtomicOperationOnVolatileField
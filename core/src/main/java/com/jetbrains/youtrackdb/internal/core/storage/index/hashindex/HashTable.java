@@ -0,0 +1,1203 @@
+package com.jetbrains.youtrackdb.internal.core.storage.index.hashindex;
+
+import com.jetbrains.youtrackdb.api.config.GlobalConfiguration;
+import com.jetbrains.youtrackdb.internal.common.comparator.DefaultComparator;
+import com.jetbrains.youtrackdb.internal.common.hash.MurmurHash3;
+import com.jetbrains.youtrackdb.internal.common.serialization.types.BinarySerializer;
+import com.jetbrains.youtrackdb.internal.common.serialization.types.LongSerializer;
+import com.jetbrains.youtrackdb.internal.common.serialization.types.ShortSerializer;
+import com.jetbrains.youtrackdb.internal.common.util.RawPair;
+import com.jetbrains.youtrackdb.internal.core.db.record.record.RID;
+import com.jetbrains.youtrackdb.internal.core.exception.BaseException;
+import com.jetbrains.youtrackdb.internal.core.exception.TooBigIndexKeyException;
+import com.jetbrains.youtrackdb.internal.core.id.SnapshotMarkerRID;
+import com.jetbrains.youtrackdb.internal.core.id.TombstoneRID;
+import com.jetbrains.youtrackdb.internal.core.index.CompositeKey;
+import com.jetbrains.youtrackdb.internal.core.index.IndexesSnapshot;
+import com.jetbrains.youtrackdb.internal.core.index.engine.IndexEngineValidator;
+import com.jetbrains.youtrackdb.internal.core.metadata.schema.PropertyTypeInternal;
+import com.jetbrains.youtrackdb.internal.core.serialization.serializer.binary.BinarySerializerFactory;
+import com.jetbrains.youtrackdb.internal.core.storage.cache.CacheEntry;
+import com.jetbrains.youtrackdb.internal.core.storage.cache.OptimisticReadFailedException;
+import com.jetbrains.youtrackdb.internal.core.storage.cache.ReadCache;
+import com.jetbrains.youtrackdb.internal.core.storage.cache.WriteCache;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.AbstractStorage;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.atomicoperations.AtomicOperation;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.base.StorageComponent;
+import com.jetbrains.youtrackdb.internal.core.storage.index.nkbtree.normalizers.KeyNormalizer;
+import com.jetbrains.youtrackdb.internal.core.storage.index.sbtree.singlevalue.CellBTreeSingleValue;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Paged hash table with linear hashing which stores the same versioned keys as the
+ * {@link com.jetbrains.youtrackdb.internal.core.storage.index.sbtree.singlevalue.v3.BTree}, so
+ * the index engines can keep it instead of the B-tree for the hash index types.
+ *
+ * <p>Only the leading {@code keySize - trailingKeyElements} elements of a key (the user key for
+ * single-value engines, where the version trails it, and the user key without RID and version for
+ * multi-value engines) are hashed, so all versions of a user key, and all RIDs of a multi-value
+ * key, live in the same bucket and can be found by a single lookup. The hash code is the
+ * MurmurHash3 of the {@link KeyNormalizer normalized} hashed elements, so keys which are equal for
+ * {@link DefaultComparator} (e.g. decimals of different scale) always have the same hash code.
+ *
+ * <p>The data file holds the {@link HashTableEntryPoint} on page 0 and the primary page of bucket
+ * {@code b} on page {@code b + 1}. When the primary page is full, entries spill to pages of the
+ * overflow file chained to it. Every insert which has to allocate an overflow page splits the
+ * bucket under the split pointer, so the table grows one bucket at a time and chains stay short.
+ * Buckets are never merged, pages freed by splits are reused through a free list of the overflow
+ * file. As in the B-tree, tombstones and snapshot markers below the global low water mark are
+ * collected when a bucket would otherwise need a new overflow page, and during splits.
+ *
+ * <p>Entries are not ordered, so the table serves only lookups by a key which contains at least
+ * all hashed elements (the engines' {@code get}, versioned puts and removes) and full scans in
+ * unspecified order. Ordered iterations and range scans are rejected with a
+ * {@link HashTableException}. Keys with few distinct values (e.g. a NOTUNIQUE_HASH index on a
+ * boolean) put all their entries into one bucket chain, a B-tree index is the better choice
+ * there.
+ */
+public final class HashTable extends StorageComponent implements CellBTreeSingleValue<CompositeKey> {
+
+  public static final String DATA_FILE_EXTENSION = ".hix";
+  public static final String OVERFLOW_FILE_EXTENSION = ".hov";
+
+  private static final int ENTRY_POINT_INDEX = 0;
+  private static final int HASH_SEED = 0x5bd1e995;
+  // Level 30 means 2^31 buckets, more than the data file can address.
+  private static final int MAX_LEVEL = 30;
+
+  private final String overflowFileExtension;
+  private final int trailingKeyElements;
+  private final BinarySerializerFactory serializerFactory;
+  private final KeyNormalizer keyNormalizer = new KeyNormalizer();
+
+  private volatile long fileId;
+  private volatile long overflowFileId;
+  private volatile int keySize;
+  private volatile int hashedKeySize;
+  private volatile int maxKeySize;
+  private volatile BinarySerializer<CompositeKey> keySerializer;
+  private volatile PropertyTypeInternal[] keyTypes;
+  private volatile PropertyTypeInternal[] hashedKeyTypes;
+
+  private volatile long engineId = -1;
+  private volatile boolean nullTree;
+
+  /**
+   * @param trailingKeyElements count of trailing key elements which are not hashed: 1 (the
+   *                            version) for single-value engines, 2 (the RID and the version) for
+   *                            multi-value engines.
+   */
+  public HashTable(
+      @Nonnull final String name,
+      final String dataFileExtension,
+      final String overflowFileExtension,
+      final AbstractStorage storage,
+      final int trailingKeyElements) {
+    super(storage, name, dataFileExtension, name + dataFileExtension, true);
+    acquireExclusiveLock();
+    try {
+      this.overflowFileExtension = overflowFileExtension;
+      this.trailingKeyElements = trailingKeyElements;
+      serializerFactory = storage.getComponentsFactory().binarySerializerFactory;
+    } finally {
+      releaseExclusiveLock();
+    }
+  }
+
+  @Override
+  public void setEngineId(long engineId) {
+    this.engineId = engineId;
+  }
+
+  @Override
+  public void setNullTree(final boolean nullTree) {
+    this.nullTree = nullTree;
+  }
+
+  @Override
+  public boolean supportsOrderedIterations() {
+    return false;
+  }
+
+  @Override
+  public void create(
+      @Nonnull final AtomicOperation atomicOperation,
+      final BinarySerializer<CompositeKey> keySerializer,
+      final PropertyTypeInternal[] keyTypes,
+      final int keySize) {
+    assert keySerializer != null;
+    if (keyTypes == null || keyTypes.length <= trailingKeyElements) {
+      throw new HashTableException(storage.getName(),
+          "Types of all key fields are required by hash index '" + getDisplayName() + "'", this);
+    }
+    for (var i = 0; i < keyTypes.length - trailingKeyElements; i++) {
+      if (!keyNormalizer.isSupported(keyTypes[i])) {
+        throw new HashTableException(storage.getName(),
+            "Type " + keyTypes[i] + " is not supported by hash index '" + getDisplayName() + "'",
+            this);
+      }
+    }
+
+    executeInsideComponentOperation(
+        atomicOperation,
+        operation -> {
+          acquireExclusiveLock();
+          try {
+            initKeyFields(keyTypes, keySerializer);
+
+            fileId = addFile(atomicOperation, getFullName());
+            overflowFileId = addFile(atomicOperation, getName() + overflowFileExtension);
+
+            try (final var entryPointCacheEntry =
+                allocatePageForWrite(atomicOperation, fileId, ENTRY_POINT_INDEX)) {
+              new HashTableEntryPoint(entryPointCacheEntry).init();
+            }
+            try (final var bucketCacheEntry =
+                allocatePageForWrite(atomicOperation, fileId, bucketPageIndex(0))) {
+              new HashTableBucket(bucketCacheEntry).init();
+            }
+            // Page 0 of the overflow file is never a part of a chain, so the overflow page
+            // indexes are counted from 1 and -1 terminates a chain.
+            try (final var overflowCacheEntry =
+                allocatePageForWrite(atomicOperation, overflowFileId, 0)) {
+              new HashTableBucket(overflowCacheEntry).init();
+            }
+          } finally {
+            releaseExclusiveLock();
+          }
+        });
+  }
+
+  @Override
+  public void load(
+      final String name,
+      final int keySize,
+      final PropertyTypeInternal[] keyTypes,
+      final BinarySerializer<CompositeKey> keySerializer,
+      @Nonnull AtomicOperation atomicOperation) {
+    acquireExclusiveLock();
+    try {
+      fileId = openFile(atomicOperation, getFullName());
+      overflowFileId = openFile(atomicOperation, name + overflowFileExtension);
+      initKeyFields(keyTypes, keySerializer);
+    } catch (final IOException e) {
+      throw BaseException.wrapException(
+          new HashTableException("Exception during loading of hash table " + name, this),
+          e, storage.getName());
+    } finally {
+      releaseExclusiveLock();
+    }
+  }
+
+  /**
+   * Stored keys always have one element per key type, the key size passed by the engines is not
+   * used as the multi-value engine does not count the version in it.
+   */
+  private void initKeyFields(
+      final PropertyTypeInternal[] keyTypes, final BinarySerializer<CompositeKey> keySerializer) {
+    this.keySize = keyTypes.length;
+    this.hashedKeySize = keySize - trailingKeyElements;
+    this.maxKeySize = GlobalConfiguration.BTREE_MAX_KEY_SIZE.getValueAsInteger();
+    this.keyTypes = Arrays.copyOf(keyTypes, keyTypes.length);
+    this.hashedKeyTypes = Arrays.copyOf(keyTypes, hashedKeySize);
+    this.keySerializer = keySerializer;
+  }
+
+  @Override
+  public void close() {
+    acquireExclusiveLock();
+    try {
+      readCache.closeFile(fileId, true, writeCache);
+      readCache.closeFile(overflowFileId, true, writeCache);
+    } finally {
+      releaseExclusiveLock();
+    }
+  }
+
+  @Override
+  public void delete(@Nonnull final AtomicOperation atomicOperation) {
+    executeInsideComponentOperation(
+        atomicOperation,
+        operation -> {
+          acquireExclusiveLock();
+          try {
+            deleteFile(atomicOperation, fileId);
+            deleteFile(atomicOperation, overflowFileId);
+          } finally {
+            releaseExclusiveLock();
+          }
+        });
+  }
+
+  @Override
+  public long getFileId() {
+    return fileId;
+  }
+
+  @Override
+  protected int readLogicalPageCountFromEntryPoint(@Nonnull final AtomicOperation atomicOperation)
+      throws IOException {
+    try (final var entryPointCacheEntry =
+        loadPageForRead(atomicOperation, fileId, ENTRY_POINT_INDEX)) {
+      // Bucket b lives on page b + 1, so the count of buckets is the index of the last page.
+      return new HashTableEntryPoint(entryPointCacheEntry).getBucketsCount();
+    }
+  }
+
+  @Override
+  protected String getComponentTypeName() {
+    return "HashTable";
+  }
+
+  @Override
+  protected String getLogicalCountFieldName() {
+    return "bucketsCount";
+  }
+
+  /** Truncates the overflow file to the last overflow page recorded in the entry point. */
+  @Override
+  protected void verifyAndTruncateOrphansSiblings(
+      @Nonnull final AtomicOperation atomicOperation,
+      @Nonnull final ReadCache readCache,
+      @Nonnull final WriteCache writeCache)
+      throws IOException {
+    final int overflowPages;
+    try (final var entryPointCacheEntry =
+        loadPageForRead(atomicOperation, fileId, ENTRY_POINT_INDEX)) {
+      overflowPages = new HashTableEntryPoint(entryPointCacheEntry).getOverflowPagesSize();
+    }
+    final int pageSize = writeCache.pageSize();
+    readCache.shrinkFile(
+        overflowFileId, ((long) overflowPages + 1L) * pageSize, writeCache);
+  }
+
+  @Nullable @Override
+  public RID get(final CompositeKey key, @Nonnull final AtomicOperation atomicOperation) {
+    final var preprocessedKey = preprocess(key);
+    if (preprocessedKey.getKeys().size() != keySize) {
+      return null;
+    }
+    final var matches = findEntries(preprocessedKey, atomicOperation);
+    return matches.isEmpty() ? null : matches.getFirst().second();
+  }
+
+  @Nullable @Override
+  public RID getVisible(final CompositeKey key, final IndexesSnapshot snapshot,
+      @Nonnull final AtomicOperation atomicOperation) {
+    // As in the B-tree, a key with fewer user elements than the index expects (a raw null
+    // passed for a composite index) cannot match any entry.
+    if (key.getKeys().size() < hashedKeySize) {
+      return null;
+    }
+
+    final var opsSnapshot = atomicOperation.getAtomicOperationsSnapshot();
+    final var snapshotTs = opsSnapshot.snapshotTs();
+    final LongOpenHashSet inProgressVersions = opsSnapshot.inProgressTxs();
+    for (final var entry : findEntries(preprocess(key), atomicOperation)) {
+      final var visibleRid = snapshot.checkVisibility(
+          entry.first(), entry.second(), snapshotTs, inProgressVersions);
+      if (visibleRid != null) {
+        return visibleRid;
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public Stream<RID> getVisibleStream(final CompositeKey key, final IndexesSnapshot snapshot,
+      @Nonnull final AtomicOperation atomicOperation) {
+    if (key.getKeys().size() < hashedKeySize) {
+      return Stream.empty();
+    }
+    return snapshot.visibilityFilterValues(
+        atomicOperation, findEntries(preprocess(key), atomicOperation).stream());
+  }
+
+  /**
+   * Entries whose key starts with all elements of the given key, ordered by key as the B-tree
+   * returns them. The key has to contain at least all hashed elements.
+   */
+  private List<RawPair<CompositeKey, RID>> findEntries(
+      final CompositeKey preprocessedKey, @Nonnull final AtomicOperation atomicOperation) {
+    final var searchKeys = preprocessedKey.getKeys();
+    final var hash = hash(preprocessedKey);
+    try {
+      final var matches = executeOptimisticStorageRead(
+          atomicOperation,
+          () -> findEntriesOptimistic(atomicOperation, hash, searchKeys),
+          () -> findEntriesPinned(atomicOperation, hash, searchKeys));
+      if (matches.size() > 1) {
+        matches.sort((first, second) -> DefaultComparator.INSTANCE.compare(
+            first.first(), second.first()));
+      }
+      return matches;
+    } catch (final IOException e) {
+      throw BaseException.wrapException(
+          new HashTableException(
+              "Error during lookup in hash table with name " + getName(), this),
+          e, storage.getName());
+    }
+  }
+
+  private List<RawPair<CompositeKey, RID>> findEntriesOptimistic(
+      final AtomicOperation atomicOperation, final int hash, final List<?> searchKeys) {
+    final var scope = atomicOperation.getOptimisticReadScope();
+    final var entryPoint = new HashTableEntryPoint(
+        loadPageOptimistic(atomicOperation, fileId, ENTRY_POINT_INDEX));
+    final var bucketIndex =
+        bucketIndex(hash, entryPoint.getLevel(), entryPoint.getSplitPointer());
+    final var maxChainLength = entryPoint.getOverflowPagesSize() + 1;
+    scope.validateLastOrThrow();
+
+    final List<RawPair<CompositeKey, RID>> matches = new ArrayList<>();
+    var bucket = new HashTableBucket(
+        loadPageOptimistic(atomicOperation, fileId, bucketPageIndex(bucketIndex)));
+    var chainLength = 0;
+    while (true) {
+      collectMatches(bucket, hash, searchKeys, matches);
+      final var nextPage = bucket.getNextPage();
+      scope.validateLastOrThrow();
+      if (nextPage < 0) {
+        return matches;
+      }
+      if (++chainLength > maxChainLength) {
+        // a stale link, the pinned path re-reads the chain under the shared lock
+        throw OptimisticReadFailedException.INSTANCE;
+      }
+      bucket = new HashTableBucket(
+          loadPageOptimistic(atomicOperation, overflowFileId, nextPage));
+    }
+  }
+
+  private List<RawPair<CompositeKey, RID>> findEntriesPinned(
+      final AtomicOperation atomicOperation, final int hash, final List<?> searchKeys)
+      throws IOException {
+    final int bucketIndex;
+    try (final var entryPointCacheEntry =
+        loadPageForRead(atomicOperation, fileId, ENTRY_POINT_INDEX)) {
+      final var entryPoint = new HashTableEntryPoint(entryPointCacheEntry);
+      bucketIndex = bucketIndex(hash, entryPoint.getLevel(), entryPoint.getSplitPointer());
+    }
+
+    final List<RawPair<CompositeKey, RID>> matches = new ArrayList<>();
+    var nextPage = -1;
+    try (final var cacheEntry =
+        loadPageForRead(atomicOperation, fileId, bucketPageIndex(bucketIndex))) {
+      final var bucket = new HashTableBucket(cacheEntry);
+      collectMatches(bucket, hash, searchKeys, matches);
+      nextPage = bucket.getNextPage();
+    }
+    while (nextPage >= 0) {
+      try (final var cacheEntry = loadPageForRead(atomicOperation, overflowFileId, nextPage)) {
+        final var bucket = new HashTableBucket(cacheEntry);
+        collectMatches(bucket, hash, searchKeys, matches);
+        nextPage = bucket.getNextPage();
+      }
+    }
+    return matches;
+  }
+
+  private void collectMatches(
+      final HashTableBucket bucket, final int hash, final List<?> searchKeys,
+      final List<RawPair<CompositeKey, RID>> matches) {
+    final var size = bucket.size();
+    for (var i = 0; i < size; i++) {
+      if (bucket.getHash(i) != hash) {
+        continue;
+      }
+      final var keyLength = bucket.getKeyLength(i, keySerializer, serializerFactory);
+      final var key = bucket.getKey(i, keySerializer, serializerFactory);
+      if (startsWith(key, searchKeys)) {
+        matches.add(new RawPair<>(key, bucket.getValue(i, keyLength)));
+      }
+    }
+  }
+
+  private static boolean startsWith(final CompositeKey key, final List<?> searchKeys) {
+    final var keys = key.getKeys();
+    if (keys.size() < searchKeys.size()) {
+      return false;
+    }
+    for (var i = 0; i < searchKeys.size(); i++) {
+      if (DefaultComparator.INSTANCE.compare(searchKeys.get(i), keys.get(i)) != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public boolean put(@Nonnull final AtomicOperation atomicOperation,
+      final CompositeKey key, final RID value) {
+    return update(atomicOperation, key, value, null) > 0;
+  }
+
+  @Override
+  public int validatedPut(
+      @Nonnull final AtomicOperation atomicOperation,
+      final CompositeKey key,
+      final RID value,
+      final IndexEngineValidator<CompositeKey, RID> validator) {
+    return update(atomicOperation, key, value, validator);
+  }
+
+  private int update(
+      @Nonnull final AtomicOperation atomicOperation,
+      final CompositeKey k,
+      final RID rid,
+      final IndexEngineValidator<CompositeKey, RID> validator) {
+    return calculateInsideComponentOperation(
+        atomicOperation,
+        operation -> {
+          acquireExclusiveLock();
+          try {
+            final var key = preprocess(k);
+            assert key.getKeys().size() == keySize
+                : "Hash table keys have " + keySize + " elements, got " + key;
+            final var serializedKey =
+                keySerializer.serializeNativeAsWhole(serializerFactory, key, (Object[]) keyTypes);
+            if ((maxKeySize > 0 && serializedKey.length > maxKeySize)
+                || serializedKey.length + HashTableBucket.VALUE_SIZE
+                > HashTableBucket.MAX_ENTRY_SIZE) {
+              throw new TooBigIndexKeyException(storage.getName(),
+                  "Key size is more than allowed for index '" + getDisplayName()
+                      + "', operation was canceled. Current key size "
+                      + serializedKey.length
+                      + ", allowed  "
+                      + Math.min(maxKeySize > 0 ? maxKeySize : Integer.MAX_VALUE,
+                      HashTableBucket.MAX_ENTRY_SIZE - HashTableBucket.VALUE_SIZE),
+                  getDisplayName());
+            }
+            final var hash = hash(key);
+
+            try (final var entryPointCacheEntry =
+                loadPageForWrite(atomicOperation, fileId, ENTRY_POINT_INDEX, true)) {
+              final var entryPoint = new HashTableEntryPoint(entryPointCacheEntry);
+              final var bucketIndex =
+                  bucketIndex(hash, entryPoint.getLevel(), entryPoint.getSplitPointer());
+
+              final var existing = findForUpdate(atomicOperation, bucketIndex, hash, key);
+              var value = rid;
+              if (validator != null) {
+                final var result = validator.validate(
+                    key, existing == null ? null : existing.value, value);
+                if (result == IndexEngineValidator.IGNORE) {
+                  return -1;
+                }
+                value = (RID) result;
+              }
+              final var serializedValue = serializeValue(value);
+
+              if (existing != null) {
+                try (final var cacheEntry = loadPageForWrite(
+                    atomicOperation, existing.fileId, existing.pageIndex, true)) {
+                  new HashTableBucket(cacheEntry).updateValue(
+                      existing.itemIndex, serializedValue, serializedKey.length);
+                }
+                return 0;
+              }
+
+              final var entry = new byte[serializedKey.length + serializedValue.length];
+              System.arraycopy(serializedKey, 0, entry, 0, serializedKey.length);
+              System.arraycopy(
+                  serializedValue, 0, entry, serializedKey.length, serializedValue.length);
+              insert(atomicOperation, entryPoint, bucketIndex, hash, entry);
+              entryPoint.setSize(entryPoint.getSize() + 1);
+              return 1;
+            }
+          } finally {
+            releaseExclusiveLock();
+          }
+        });
+  }
+
+  /**
+   * Adds the entry to the bucket chain. If no page of the chain has room for it, the chain is
+   * first cleaned from collectable tombstones, and if that does not help, a new overflow page is
+   * appended to the chain and the bucket under the split pointer is split.
+   */
+  private void insert(
+      final AtomicOperation atomicOperation, final HashTableEntryPoint entryPoint,
+      final int bucketIndex, final int hash, final byte[] entry) throws IOException {
+    if (addToChain(atomicOperation, bucketIndex, hash, entry)) {
+      return;
+    }
+
+    final var removed = collectGarbage(atomicOperation, bucketIndex);
+    if (removed > 0) {
+      entryPoint.setSize(entryPoint.getSize() - removed);
+      if (addToChain(atomicOperation, bucketIndex, hash, entry)) {
+        return;
+      }
+    }
+
+    appendOverflowPage(atomicOperation, entryPoint, bucketIndex, hash, entry);
+    splitBucket(atomicOperation, entryPoint);
+  }
+
+  /** Tries to add the entry to one of the existing pages of the bucket chain. */
+  private boolean addToChain(
+      final AtomicOperation atomicOperation, final int bucketIndex, final int hash,
+      final byte[] entry) throws IOException {
+    var pageFileId = fileId;
+    long pageIndex = bucketPageIndex(bucketIndex);
+    while (true) {
+      try (final var cacheEntry =
+          loadPageForWrite(atomicOperation, pageFileId, pageIndex, true)) {
+        final var bucket = new HashTableBucket(cacheEntry);
+        if (bucket.addEntry(hash, entry)) {
+          return true;
+        }
+        final var nextPage = bucket.getNextPage();
+        if (nextPage < 0) {
+          return false;
+        }
+        pageFileId = overflowFileId;
+        pageIndex = nextPage;
+      }
+    }
+  }
+
+  private void appendOverflowPage(
+      final AtomicOperation atomicOperation, final HashTableEntryPoint entryPoint,
+      final int bucketIndex, final int hash, final byte[] entry) throws IOException {
+    var pageFileId = fileId;
+    long pageIndex = bucketPageIndex(bucketIndex);
+    while (true) {
+      try (final var cacheEntry =
+          loadPageForWrite(atomicOperation, pageFileId, pageIndex, true)) {
+        final var bucket = new HashTableBucket(cacheEntry);
+        final var nextPage = bucket.getNextPage();
+        if (nextPage < 0) {
+          try (final var overflowCacheEntry = allocateOverflowPage(atomicOperation, entryPoint)) {
+            final var added = new HashTableBucket(overflowCacheEntry).addEntry(hash, entry);
+            assert added : "Entry does not fit into an empty overflow page";
+            bucket.setNextPage(overflowCacheEntry.getPageIndex());
+          }
+          return;
+        }
+        pageFileId = overflowFileId;
+        pageIndex = nextPage;
+      }
+    }
+  }
+
+  private CacheEntry allocateOverflowPage(
+      final AtomicOperation atomicOperation, final HashTableEntryPoint entryPoint)
+      throws IOException {
+    final var freeListHead = entryPoint.getFreeListHead();
+    final CacheEntry cacheEntry;
+    if (freeListHead >= 0) {
+      cacheEntry = loadPageForWrite(atomicOperation, overflowFileId, freeListHead, true);
+      final var bucket = new HashTableBucket(cacheEntry);
+      entryPoint.setOverflow(entryPoint.getOverflowPagesSize(), bucket.getNextPage());
+      bucket.init();
+    } else {
+      final var newPageIndex = entryPoint.getOverflowPagesSize() + 1;
+      cacheEntry = allocatePageForWrite(atomicOperation, overflowFileId, newPageIndex);
+      entryPoint.setOverflow(newPageIndex, freeListHead);
+      new HashTableBucket(cacheEntry).init();
+    }
+    return cacheEntry;
+  }
+
+  private void freeOverflowPage(
+      final AtomicOperation atomicOperation, final HashTableEntryPoint entryPoint,
+      final int pageIndex) throws IOException {
+    try (final var cacheEntry =
+        loadPageForWrite(atomicOperation, overflowFileId, pageIndex, true)) {
+      final var bucket = new HashTableBucket(cacheEntry);
+      bucket.init();
+      bucket.setNextPage(entryPoint.getFreeListHead());
+    }
+    entryPoint.setOverflow(entryPoint.getOverflowPagesSize(), pageIndex);
+  }
+
+  /**
+   * Splits the bucket under the split pointer: its entries are rehashed with one more bit of the
+   * hash code between the bucket itself and the new bucket {@code 2^level + splitPointer}.
+   * Collectable tombstones are dropped and stale snapshot markers are demoted on the way.
+   */
+  private void splitBucket(
+      final AtomicOperation atomicOperation, final HashTableEntryPoint entryPoint)
+      throws IOException {
+    var level = entryPoint.getLevel();
+    var splitPointer = entryPoint.getSplitPointer();
+    if (level >= MAX_LEVEL) {
+      return;
+    }
+    final var newBucketIndex = (1 << level) + splitPointer;
+    assert newBucketIndex == entryPoint.getBucketsCount()
+        : "New bucket " + newBucketIndex + " is not the next one, buckets count "
+            + entryPoint.getBucketsCount();
+
+    final List<RawPair<Integer, byte[]>> entries = new ArrayList<>();
+    var nextPage = -1;
+    try (final var cacheEntry =
+        loadPageForWrite(atomicOperation, fileId, bucketPageIndex(splitPointer), true)) {
+      final var bucket = new HashTableBucket(cacheEntry);
+      drainBucket(bucket, entries);
+      nextPage = bucket.getNextPage();
+      bucket.init();
+    }
+    while (nextPage >= 0) {
+      final var pageIndex = nextPage;
+      try (final var cacheEntry =
+          loadPageForWrite(atomicOperation, overflowFileId, pageIndex, true)) {
+        final var bucket = new HashTableBucket(cacheEntry);
+        drainBucket(bucket, entries);
+        nextPage = bucket.getNextPage();
+      }
+      freeOverflowPage(atomicOperation, entryPoint, pageIndex);
+    }
+
+    // Fresh bucket: its page index is dictated by the buckets count kept in the entry point.
+    try (final var cacheEntry =
+        allocatePageForWrite(atomicOperation, fileId, bucketPageIndex(newBucketIndex))) {
+      new HashTableBucket(cacheEntry).init();
+    }
+
+    splitPointer++;
+    if (splitPointer == 1 << level) {
+      level++;
+      splitPointer = 0;
+    }
+    entryPoint.setLayout(level, splitPointer, newBucketIndex + 1);
+
+    final var sizeBefore = entries.size();
+    collectGarbage(entries);
+    if (entries.size() < sizeBefore) {
+      entryPoint.setSize(entryPoint.getSize() - (sizeBefore - entries.size()));
+    }
+    for (final var entry : entries) {
+      final int hash = entry.first();
+      final var bucketIndex = bucketIndex(hash, level, splitPointer);
+      assert bucketIndex == newBucketIndex || bucketIndex == newBucketIndex - (1 << (
+          splitPointer == 0 ? level - 1 : level))
+          : "Entry of split bucket rehashed to bucket " + bucketIndex;
+      if (!addToChain(atomicOperation, bucketIndex, hash, entry.second())) {
+        appendOverflowPage(atomicOperation, entryPoint, bucketIndex, hash, entry.second());
+      }
+    }
+  }
+
+  private void drainBucket(
+      final HashTableBucket bucket, final List<RawPair<Integer, byte[]>> entries) {
+    final var size = bucket.size();
+    for (var i = 0; i < size; i++) {
+      final var keyLength = bucket.getKeyLength(i, keySerializer, serializerFactory);
+      entries.add(new RawPair<>(bucket.getHash(i), bucket.getRawEntry(i, keyLength)));
+    }
+  }
+
+  /**
+   * Drops collectable tombstones from the drained entries of a split bucket and demotes stale
+   * snapshot markers in their serialized values.
+   */
+  private void collectGarbage(final List<RawPair<Integer, byte[]>> entries) {
+    var lwm = -1L;
+    final var iterator = entries.iterator();
+    while (iterator.hasNext()) {
+      final var entry = iterator.next().second();
+      final var valuePosition = entry.length - HashTableBucket.VALUE_SIZE;
+      final int collectionId = ShortSerializer.INSTANCE.deserializeNative(entry, valuePosition);
+      final var collectionPosition = LongSerializer.deserializeNative(
+          entry, valuePosition + ShortSerializer.SHORT_SIZE);
+      if (collectionId >= 0 && collectionPosition >= 0) {
+        continue;
+      }
+
+      if (lwm < 0) {
+        lwm = storage.computeGlobalLowWaterMark();
+        assert lwm >= 0 : "Global LWM must be non-negative, got " + lwm;
+      }
+      final var key = keySerializer.deserializeNativeObject(serializerFactory, entry, 0);
+      final var version = extractVersion(key);
+      if (version < 0 || version >= lwm) {
+        continue;
+      }
+
+      if (collectionId < 0) {
+        iterator.remove();
+      } else if (!hasActiveSnapshotEntries(key, lwm)) {
+        LongSerializer.serializeNative(
+            -(collectionPosition + 1), entry, valuePosition + ShortSerializer.SHORT_SIZE);
+      }
+    }
+  }
+
+  /**
+   * Removes collectable tombstones from the pages of a bucket chain and demotes stale snapshot
+   * markers in place, with the same rules as the tombstone GC of the B-tree.
+   *
+   * @return the count of removed tombstones
+   */
+  private int collectGarbage(final AtomicOperation atomicOperation, final int bucketIndex)
+      throws IOException {
+    var removed = 0;
+    var lwm = -1L;
+    var pageFileId = fileId;
+    long pageIndex = bucketPageIndex(bucketIndex);
+    while (true) {
+      final int nextPage;
+      try (final var cacheEntry =
+          loadPageForWrite(atomicOperation, pageFileId, pageIndex, true)) {
+        final var bucket = new HashTableBucket(cacheEntry);
+        for (var i = bucket.size() - 1; i >= 0; i--) {
+          final var keyLength = bucket.getKeyLength(i, keySerializer, serializerFactory);
+          final var value = bucket.getValue(i, keyLength);
+          final var tombstone = value instanceof TombstoneRID;
+          if (!tombstone && !(value instanceof SnapshotMarkerRID)) {
+            continue;
+          }
+
+          if (lwm < 0) {
+            lwm = storage.computeGlobalLowWaterMark();
+            assert lwm >= 0 : "Global LWM must be non-negative, got " + lwm;
+          }
+          final var key = bucket.getKey(i, keySerializer, serializerFactory);
+          final var version = extractVersion(key);
+          if (version < 0 || version >= lwm) {
+            continue;
+          }
+
+          if (tombstone) {
+            bucket.removeEntry(i, keyLength + HashTableBucket.VALUE_SIZE);
+            removed++;
+          } else if (!hasActiveSnapshotEntries(key, lwm)) {
+            bucket.updateValue(i, serializeValue(value.getIdentity()), keyLength);
+          }
+        }
+        nextPage = bucket.getNextPage();
+      }
+      if (nextPage < 0) {
+        return removed;
+      }
+      pageFileId = overflowFileId;
+      pageIndex = nextPage;
+    }
+  }
+
+  /** Extracts the version from a key — always the last element, -1 if it is not a version. */
+  private static long extractVersion(final CompositeKey key) {
+    final var keys = key.getKeys();
+    if (!keys.isEmpty() && keys.getLast() instanceof Long version) {
+      return version;
+    }
+    return -1;
+  }
+
+  /**
+   * Checks whether any active snapshot entries exist for the user-key prefix of the key (all
+   * elements but the version). Falls back to {@code true} (never demotes) if the engine ID was
+   * not set.
+   */
+  private boolean hasActiveSnapshotEntries(final CompositeKey key, final long lwm) {
+    if (engineId < 0) {
+      return true;
+    }
+    final var keys = key.getKeys();
+    return storage.hasActiveIndexSnapshotEntriesById(
+        engineId, nullTree, new CompositeKey(keys.subList(0, keys.size() - 1)), lwm);
+  }
+
+  @Nullable private Position findForUpdate(
+      final AtomicOperation atomicOperation, final int bucketIndex, final int hash,
+      final CompositeKey key) throws IOException {
+    final var keys = key.getKeys();
+    var pageFileId = fileId;
+    long pageIndex = bucketPageIndex(bucketIndex);
+    while (true) {
+      final int nextPage;
+      try (final var cacheEntry = loadPageForRead(atomicOperation, pageFileId, pageIndex)) {
+        final var bucket = new HashTableBucket(cacheEntry);
+        final var size = bucket.size();
+        for (var i = 0; i < size; i++) {
+          if (bucket.getHash(i) != hash) {
+            continue;
+          }
+          final var entryKey = bucket.getKey(i, keySerializer, serializerFactory);
+          if (entryKey.getKeys().size() == keys.size() && startsWith(entryKey, keys)) {
+            final var keyLength = bucket.getKeyLength(i, keySerializer, serializerFactory);
+            return new Position(pageFileId, pageIndex, i, keyLength,
+                bucket.getValue(i, keyLength));
+          }
+        }
+        nextPage = bucket.getNextPage();
+      }
+      if (nextPage < 0) {
+        return null;
+      }
+      pageFileId = overflowFileId;
+      pageIndex = nextPage;
+    }
+  }
+
+  @Nullable @Override
+  public RID remove(@Nonnull final AtomicOperation atomicOperation, final CompositeKey k) {
+    return calculateInsideComponentOperation(
+        atomicOperation,
+        operation -> {
+          acquireExclusiveLock();
+          try {
+            final var key = preprocess(k);
+            final var hash = hash(key);
+            try (final var entryPointCacheEntry =
+                loadPageForWrite(atomicOperation, fileId, ENTRY_POINT_INDEX, true)) {
+              final var entryPoint = new HashTableEntryPoint(entryPointCacheEntry);
+              final var position = findForUpdate(atomicOperation,
+                  bucketIndex(hash, entryPoint.getLevel(), entryPoint.getSplitPointer()),
+                  hash, key);
+              if (position == null) {
+                return null;
+              }
+              try (final var cacheEntry = loadPageForWrite(
+                  atomicOperation, position.fileId, position.pageIndex, true)) {
+                new HashTableBucket(cacheEntry).removeEntry(
+                    position.itemIndex, position.keyLength + HashTableBucket.VALUE_SIZE);
+              }
+              entryPoint.setSize(entryPoint.getSize() - 1);
+              return position.value;
+            }
+          } finally {
+            releaseExclusiveLock();
+          }
+        });
+  }
+
+  @Override
+  public long size(@Nonnull AtomicOperation atomicOperation) {
+    try {
+      return executeOptimisticStorageRead(
+          atomicOperation,
+          () -> new HashTableEntryPoint(
+              loadPageOptimistic(atomicOperation, fileId, ENTRY_POINT_INDEX)).getSize(),
+          () -> {
+            try (final var entryPointCacheEntry =
+                loadPageForRead(atomicOperation, fileId, ENTRY_POINT_INDEX)) {
+              return new HashTableEntryPoint(entryPointCacheEntry).getSize();
+            }
+          });
+    } catch (final IOException e) {
+      throw BaseException.wrapException(
+          new HashTableException(
+              "Error during retrieving of size of index " + getName(), this),
+          e, storage.getName());
+    }
+  }
+
+  @Override
+  public long getApproximateEntriesCount(@Nonnull AtomicOperation atomicOperation) {
+    try {
+      return executeOptimisticStorageRead(
+          atomicOperation,
+          () -> new HashTableEntryPoint(
+              loadPageOptimistic(atomicOperation, fileId, ENTRY_POINT_INDEX))
+              .getApproximateEntriesCount(),
+          () -> {
+            try (final var entryPointCacheEntry =
+                loadPageForRead(atomicOperation, fileId, ENTRY_POINT_INDEX)) {
+              return new HashTableEntryPoint(entryPointCacheEntry).getApproximateEntriesCount();
+            }
+          });
+    } catch (final IOException e) {
+      throw BaseException.wrapException(
+          new HashTableException(
+              "Error during retrieving approximate entries count of index " + getName(), this),
+          e, storage.getName());
+    }
+  }
+
+  @Override
+  public void setApproximateEntriesCount(
+      @Nonnull AtomicOperation atomicOperation, long count) {
+    assert count >= 0
+        : "setApproximateEntriesCount called with negative count: " + count;
+    executeInsideComponentOperation(
+        atomicOperation,
+        operation -> {
+          try (final var entryPointCacheEntry =
+              loadPageForWrite(atomicOperation, fileId, ENTRY_POINT_INDEX, true)) {
+            new HashTableEntryPoint(entryPointCacheEntry).setApproximateEntriesCount(count);
+          }
+        });
+  }
+
+  @Override
+  public void addToApproximateEntriesCount(
+      @Nonnull AtomicOperation atomicOperation, long delta) {
+    executeInsideComponentOperation(
+        atomicOperation,
+        operation -> {
+          try (final var entryPointCacheEntry =
+              loadPageForWrite(atomicOperation, fileId, ENTRY_POINT_INDEX, true)) {
+            final var entryPoint = new HashTableEntryPoint(entryPointCacheEntry);
+            final var updated = entryPoint.getApproximateEntriesCount() + delta;
+            assert updated >= 0
+                : "approximateEntriesCount underflow: current="
+                    + entryPoint.getApproximateEntriesCount()
+                    + " delta=" + delta;
+            entryPoint.setApproximateEntriesCount(updated);
+          }
+        });
+  }
+
+  /**
+   * Supports only the lookup form the index engines use for a key: {@code from} and {@code to}
+   * are the same key, both inclusive, and contain at least all hashed elements.
+   */
+  @Override
+  public Stream<RawPair<CompositeKey, RID>> iterateEntriesBetween(
+      final CompositeKey keyFrom,
+      final boolean fromInclusive,
+      final CompositeKey keyTo,
+      final boolean toInclusive,
+      final boolean ascSortOrder,
+      @Nonnull AtomicOperation atomicOperation) {
+    final var from = preprocess(keyFrom);
+    if (!fromInclusive || !toInclusive || from.getKeys().size() < hashedKeySize
+        || DefaultComparator.INSTANCE.compare(from, preprocess(keyTo)) != 0) {
+      throw rangeNotSupported();
+    }
+    final var matches = findEntries(from, atomicOperation);
+    if (!ascSortOrder) {
+      Collections.reverse(matches);
+    }
+    return matches.stream();
+  }
+
+  @Override
+  public Stream<RawPair<CompositeKey, RID>> iterateEntriesMinor(
+      final CompositeKey key, final boolean inclusive, final boolean ascSortOrder,
+      @Nonnull AtomicOperation atomicOperation) {
+    throw rangeNotSupported();
+  }
+
+  @Override
+  public Stream<RawPair<CompositeKey, RID>> iterateEntriesMajor(
+      final CompositeKey key, final boolean inclusive, final boolean ascSortOrder,
+      @Nonnull AtomicOperation atomicOperation) {
+    throw rangeNotSupported();
+  }
+
+  @Nullable @Override
+  public CompositeKey lastKey(@Nonnull AtomicOperation atomicOperation) {
+    throw rangeNotSupported();
+  }
+
+  private HashTableException rangeNotSupported() {
+    return new HashTableException(storage.getName(),
+        "Hash index '" + getDisplayName()
+            + "' supports only lookups by key, ordered and range iterations are not supported",
+        this);
+  }
+
+  /** Returns a key of the table, not the smallest one as entries are not ordered. */
+  @Nullable @Override
+  public CompositeKey firstKey(@Nonnull AtomicOperation atomicOperation) {
+    try (var entries = allEntries(atomicOperation)) {
+      return entries.findAny().map(RawPair::first).orElse(null);
+    }
+  }
+
+  @Override
+  public Stream<CompositeKey> keyStream(@Nonnull AtomicOperation atomicOperation) {
+    return allEntries(atomicOperation).map(RawPair::first);
+  }
+
+  /** Returns all entries of the table in unspecified order. */
+  @Override
+  public Stream<RawPair<CompositeKey, RID>> allEntries(@Nonnull AtomicOperation atomicOperation) {
+    acquireSharedLock();
+    try (final var entryPointCacheEntry =
+        loadPageForRead(atomicOperation, fileId, ENTRY_POINT_INDEX)) {
+      final var entryPoint = new HashTableEntryPoint(entryPointCacheEntry);
+      return StreamSupport.stream(
+          new BucketSpliterator(atomicOperation, entryPoint.getLevel(),
+              entryPoint.getSplitPointer(), entryPoint.getBucketsCount()),
+          false);
+    } catch (final IOException e) {
+      throw BaseException.wrapException(
+          new HashTableException(
+              "Error during iteration of hash table with name " + getName(), this),
+          e, storage.getName());
+    } finally {
+      releaseSharedLock();
+    }
+  }
+
+  @Override
+  public void acquireAtomicExclusiveLock(@Nonnull AtomicOperation atomicOperation) {
+    atomicOperationsManager.acquireExclusiveLockTillOperationComplete(atomicOperation, this);
+  }
+
+  private CompositeKey preprocess(final CompositeKey key) {
+    return keySerializer.preprocess(serializerFactory, key, (Object[]) keyTypes);
+  }
+
+  /** Hash code of the hashed elements of a preprocessed key. */
+  private int hash(final CompositeKey key) {
+    final var keys = key.getKeys();
+    final var hashedKey =
+        keys.size() == hashedKeySize ? key : new CompositeKey(keys.subList(0, hashedKeySize));
+    final var hash = MurmurHash3.murmurHash3_x64_64(
+        keyNormalizer.normalize(hashedKey, hashedKeyTypes, KeyNormalizer.CODE_UNIT_ORDER),
+        HASH_SEED);
+    return (int) (hash ^ (hash >>> 32));
+  }
+
+  /**
+   * Linear hashing address: {@code level} low bits of the hash code, or {@code level + 1} bits for
+   * the buckets below the split pointer, which are already split on this level.
+   */
+  private static int bucketIndex(final int hash, final int level, final int splitPointer) {
+    final var bucketIndex = hash & ((1 << level) - 1);
+    if (bucketIndex < splitPointer) {
+      return hash & ((1 << (level + 1)) - 1);
+    }
+    return bucketIndex;
+  }
+
+  private static long bucketPageIndex(final int bucketIndex) {
+    return bucketIndex + 1L;
+  }
+
+  private static byte[] serializeValue(final RID value) {
+    final var serializedValue = new byte[HashTableBucket.VALUE_SIZE];
+    ShortSerializer.INSTANCE.serializeNative(
+        (short) value.getCollectionId(), serializedValue, 0);
+    LongSerializer.serializeNative(
+        value.getCollectionPosition(), serializedValue, ShortSerializer.SHORT_SIZE);
+    return serializedValue;
+  }
+
+  /** Location of an entry found by {@link #findForUpdate}. */
+  private record Position(long fileId, long pageIndex, int itemIndex, int keyLength, RID value) {
+
+  }
+
+  /**
+   * Iterates over the buckets which existed when the iteration started, bucket by bucket, each
+   * one read under the shared lock. Buckets split during the iteration only move entries to new
+   * buckets, so the entries of a bucket {@code b} are the entries of {@code b} plus the entries of
+   * the new buckets derived from it which hash to {@code b} in the initial layout, and every entry
+   * which stays in the table is returned exactly once.
+   */
+  private final class BucketSpliterator implements Spliterator<RawPair<CompositeKey, RID>> {
+
+    private final AtomicOperation atomicOperation;
+    private final int level;
+    private final int splitPointer;
+    private final int bucketsCount;
+
+    private int nextBucket;
+    private Iterator<RawPair<CompositeKey, RID>> cacheIterator = Collections.emptyIterator();
+
+    private BucketSpliterator(
+        final AtomicOperation atomicOperation, final int level, final int splitPointer,
+        final int bucketsCount) {
+      this.atomicOperation = atomicOperation;
+      this.level = level;
+      this.splitPointer = splitPointer;
+      this.bucketsCount = bucketsCount;
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super RawPair<CompositeKey, RID>> action) {
+      while (!cacheIterator.hasNext()) {
+        if (nextBucket >= bucketsCount) {
+          return false;
+        }
+        cacheIterator = fetchBucket(nextBucket++).iterator();
+      }
+      action.accept(cacheIterator.next());
+      return true;
+    }
+
+    private List<RawPair<CompositeKey, RID>> fetchBucket(final int bucketIndex) {
+      acquireSharedLock();
+      try {
+        final int currentBucketsCount;
+        try (final var entryPointCacheEntry =
+            loadPageForRead(atomicOperation, fileId, ENTRY_POINT_INDEX)) {
+          currentBucketsCount = new HashTableEntryPoint(entryPointCacheEntry).getBucketsCount();
+        }
+
+        final List<RawPair<CompositeKey, RID>> entries = new ArrayList<>();
+        readChain(bucketIndex, bucketIndex, entries);
+        // Buckets derived from this one differ from it only in the bits above the ones which
+        // addressed it in the initial layout.
+        final var step = bucketIndex < splitPointer ? 2 << level : 1 << level;
+        for (var derived = bucketIndex + step; derived < currentBucketsCount; derived += step) {
+          if (derived >= bucketsCount) {
+            readChain(derived, bucketIndex, entries);
+          }
+        }
+        return entries;
+      } catch (final IOException e) {
+        throw BaseException.wrapException(
+            new HashTableException("Error during entity iteration", HashTable.this),
+            e, storage.getName());
+      } finally {
+        releaseSharedLock();
+      }
+    }
+
+    /** Reads the entries of the chain which belong to the given bucket of the initial layout. */
+    private void readChain(
+        final int chainBucketIndex, final int initialBucketIndex,
+        final List<RawPair<CompositeKey, RID>> entries) throws IOException {
+      var pageFileId = fileId;
+      long pageIndex = bucketPageIndex(chainBucketIndex);
+      while (true) {
+        final int nextPage;
+        try (final var cacheEntry = loadPageForRead(atomicOperation, pageFileId, pageIndex)) {
+          final var bucket = new HashTableBucket(cacheEntry);
+          final var size = bucket.size();
+          for (var i = 0; i < size; i++) {
+            if (bucketIndex(bucket.getHash(i), level, splitPointer) != initialBucketIndex) {
+              continue;
+            }
+            final var keyLength = bucket.getKeyLength(i, keySerializer, serializerFactory);
+            entries.add(new RawPair<>(
+                bucket.getKey(i, keySerializer, serializerFactory),
+                bucket.getValue(i, keyLength)));
+          }
+          nextPage = bucket.getNextPage();
+        }
+        if (nextPage < 0) {
+          return;
+        }
+        pageFileId = overflowFileId;
+        pageIndex = nextPage;
+      }
+    }
+
+    @Override
+    public Spliterator<RawPair<CompositeKey, RID>> trySplit() {
+      return null;
+    }
+
+    @Override
+    public long estimateSize() {
+      return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+      return NONNULL;
+    }
+  }
+}
@@ -0,0 +1,193 @@
+package com.jetbrains.youtrackdb.internal.core.storage.index.hashindex;
+
+import com.jetbrains.youtrackdb.internal.common.serialization.types.BinarySerializer;
+import com.jetbrains.youtrackdb.internal.common.serialization.types.IntegerSerializer;
+import com.jetbrains.youtrackdb.internal.common.serialization.types.LongSerializer;
+import com.jetbrains.youtrackdb.internal.common.serialization.types.ShortSerializer;
+import com.jetbrains.youtrackdb.internal.core.db.record.record.RID;
+import com.jetbrains.youtrackdb.internal.core.serialization.serializer.binary.BinarySerializerFactory;
+import com.jetbrains.youtrackdb.internal.core.storage.cache.CacheEntry;
+import com.jetbrains.youtrackdb.internal.core.storage.cache.PageView;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.atomicoperations.CacheEntryChanges;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.base.DurablePage;
+import com.jetbrains.youtrackdb.internal.core.storage.index.sbtree.singlevalue.v3.CellBTreeSingleValueBucketV3;
+
+/**
+ * Page of a {@link HashTable} bucket: either the primary page of a bucket in the data file or one
+ * of the overflow pages chained to it in the overflow file.
+ *
+ * <p>Entries are not ordered. The page starts with the index of the next overflow page of the
+ * chain, the count of entries and the free pointer, followed by an array of slots which grows from
+ * the start of the page. Every slot holds the hash code of the key of the entry and the offset of
+ * the entry, entries themselves (serialized key followed by the 10 byte value, the same encoding of
+ * RIDs as in {@link CellBTreeSingleValueBucketV3}) grow from the end of the page. Keeping the hash
+ * codes in the slots lets a lookup skip entries of other keys without touching their keys.
+ */
+public final class HashTableBucket extends DurablePage {
+
+  static final int VALUE_SIZE = ShortSerializer.SHORT_SIZE + LongSerializer.LONG_SIZE;
+
+  private static final int NEXT_PAGE_OFFSET = NEXT_FREE_POSITION;
+  private static final int SIZE_OFFSET = NEXT_PAGE_OFFSET + IntegerSerializer.INT_SIZE;
+  private static final int FREE_POINTER_OFFSET = SIZE_OFFSET + IntegerSerializer.INT_SIZE;
+  private static final int SLOTS_OFFSET = FREE_POINTER_OFFSET + IntegerSerializer.INT_SIZE;
+
+  private static final int SLOT_SIZE = 2 * IntegerSerializer.INT_SIZE;
+
+  /** Size of the biggest entry which fits into an empty page. */
+  static final int MAX_ENTRY_SIZE = MAX_PAGE_SIZE_BYTES - SLOTS_OFFSET - SLOT_SIZE;
+
+  public HashTableBucket(final CacheEntry cacheEntry) {
+    super(cacheEntry);
+  }
+
+  public HashTableBucket(final PageView pageView) {
+    super(pageView);
+  }
+
+  public void init() {
+    setIntValue(NEXT_PAGE_OFFSET, -1);
+    setIntValue(SIZE_OFFSET, 0);
+    setIntValue(FREE_POINTER_OFFSET, MAX_PAGE_SIZE_BYTES);
+
+    var cacheEntry = getCacheEntry();
+    if (cacheEntry instanceof CacheEntryChanges cec) {
+      cec.registerPageOperation(
+          new HashTableBucketInitOp(
+              cacheEntry.getPageIndex(), cacheEntry.getFileId(),
+              0, cec.getInitialLSN()));
+    }
+  }
+
+  public int size() {
+    return getIntValue(SIZE_OFFSET);
+  }
+
+  /** Index of the next page of the chain in the overflow file, or -1 for the last page. */
+  public int getNextPage() {
+    return getIntValue(NEXT_PAGE_OFFSET);
+  }
+
+  public void setNextPage(final int nextPage) {
+    setIntValue(NEXT_PAGE_OFFSET, nextPage);
+
+    var cacheEntry = getCacheEntry();
+    if (cacheEntry instanceof CacheEntryChanges cec) {
+      cec.registerPageOperation(
+          new HashTableBucketSetNextPageOp(
+              cacheEntry.getPageIndex(), cacheEntry.getFileId(),
+              0, cec.getInitialLSN(), nextPage));
+    }
+  }
+
+  public int getHash(final int index) {
+    return getIntValue(SLOTS_OFFSET + index * SLOT_SIZE);
+  }
+
+  private int getEntryPosition(final int index) {
+    return getIntValue(SLOTS_OFFSET + index * SLOT_SIZE + IntegerSerializer.INT_SIZE);
+  }
+
+  /**
+   * Appends the entry (serialized key followed by the serialized value) to the page.
+   *
+   * @return {@code false} if there is not enough free space on the page
+   */
+  public boolean addEntry(final int hash, final byte[] entry) {
+    final var size = size();
+    final var freePointer = getIntValue(FREE_POINTER_OFFSET);
+    final var slotOffset = SLOTS_OFFSET + size * SLOT_SIZE;
+    if (slotOffset + SLOT_SIZE > freePointer - entry.length) {
+      return false;
+    }
+
+    final var entryPosition = freePointer - entry.length;
+    setBinaryValue(entryPosition, entry);
+    setIntValue(slotOffset, hash);
+    setIntValue(slotOffset + IntegerSerializer.INT_SIZE, entryPosition);
+    setIntValue(FREE_POINTER_OFFSET, entryPosition);
+    setIntValue(SIZE_OFFSET, size + 1);
+
+    var cacheEntry = getCacheEntry();
+    if (cacheEntry instanceof CacheEntryChanges cec) {
+      cec.registerPageOperation(
+          new HashTableBucketAddEntryOp(
+              cacheEntry.getPageIndex(), cacheEntry.getFileId(),
+              0, cec.getInitialLSN(), hash, entry));
+    }
+    return true;
+  }
+
+  /**
+   * Removes the entry and compacts the page: entries stored below the removed one are moved up by
+   * its size, the slots which follow the removed one are shifted down by one.
+   */
+  public void removeEntry(final int index, final int entrySize) {
+    final var size = size();
+    assert index >= 0 && index < size
+        : "removeEntry index out of bounds: " + index + ", size=" + size;
+    final var freePointer = getIntValue(FREE_POINTER_OFFSET);
+    final var entryPosition = getEntryPosition(index);
+
+    moveData(freePointer, freePointer + entrySize, entryPosition - freePointer);
+    for (var i = 0; i < size; i++) {
+      final var position = getEntryPosition(i);
+      if (position < entryPosition) {
+        setIntValue(SLOTS_OFFSET + i * SLOT_SIZE + IntegerSerializer.INT_SIZE,
+            position + entrySize);
+      }
+    }
+    if (index < size - 1) {
+      moveData(SLOTS_OFFSET + (index + 1) * SLOT_SIZE, SLOTS_OFFSET + index * SLOT_SIZE,
+          (size - index - 1) * SLOT_SIZE);
+    }
+
+    setIntValue(FREE_POINTER_OFFSET, freePointer + entrySize);
+    setIntValue(SIZE_OFFSET, size - 1);
+
+    var cacheEntry = getCacheEntry();
+    if (cacheEntry instanceof CacheEntryChanges cec) {
+      cec.registerPageOperation(
+          new HashTableBucketRemoveEntryOp(
+              cacheEntry.getPageIndex(), cacheEntry.getFileId(),
+              0, cec.getInitialLSN(), index, entrySize));
+    }
+  }
+
+  public void updateValue(final int index, final byte[] value, final int keyLength) {
+    assert value.length == VALUE_SIZE : "Unexpected value size " + value.length;
+    setBinaryValue(getEntryPosition(index) + keyLength, value);
+
+    var cacheEntry = getCacheEntry();
+    if (cacheEntry instanceof CacheEntryChanges cec) {
+      cec.registerPageOperation(
+          new HashTableBucketUpdateValueOp(
+              cacheEntry.getPageIndex(), cacheEntry.getFileId(),
+              0, cec.getInitialLSN(), index, value, keyLength));
+    }
+  }
+
+  public int getKeyLength(
+      final int index, final BinarySerializer<?> keySerializer,
+      final BinarySerializerFactory serializerFactory) {
+    return getObjectSizeInDirectMemory(keySerializer, serializerFactory, getEntryPosition(index));
+  }
+
+  public <K> K getKey(
+      final int index, final BinarySerializer<K> keySerializer,
+      final BinarySerializerFactory serializerFactory) {
+    return deserializeFromDirectMemory(keySerializer, serializerFactory, getEntryPosition(index));
+  }
+
+  public RID getValue(final int index, final int keyLength) {
+    final var valuePosition = getEntryPosition(index) + keyLength;
+    return CellBTreeSingleValueBucketV3.decodeRID(
+        getShortValue(valuePosition),
+        getLongValue(valuePosition + ShortSerializer.SHORT_SIZE));
+  }
+
+  /** Returns the serialized key followed by the serialized value of the entry. */
+  public byte[] getRawEntry(final int index, final int keyLength) {
+    return getBinaryValue(getEntryPosition(index), keyLength + VALUE_SIZE);
+  }
+}
@@ -0,0 +1,102 @@
+package com.jetbrains.youtrackdb.internal.core.storage.index.hashindex;
+
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.base.DurablePage;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.wal.LogSequenceNumber;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.wal.PageOperation;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.wal.WALRecordTypes;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Logical WAL record for {@link HashTableBucket#addEntry(int, byte[])}. Captures the hash code
+ * and the serialized key and value of the appended entry.
+ */
+public final class HashTableBucketAddEntryOp extends PageOperation {
+
+  public static final int RECORD_ID = WALRecordTypes.HASH_TABLE_BUCKET_ADD_ENTRY_OP;
+
+  private int hash;
+  private byte[] entry;
+
+  /** No-arg constructor for reflection-based deserialization by WALRecordsFactory. */
+  public HashTableBucketAddEntryOp() {
+  }
+
+  public HashTableBucketAddEntryOp(
+      long pageIndex, long fileId, long operationUnitId,
+      LogSequenceNumber initialLsn, int hash, byte[] entry) {
+    super(pageIndex, fileId, operationUnitId, initialLsn);
+    this.hash = hash;
+    this.entry = entry;
+  }
+
+  @Override
+  public void redo(DurablePage page) {
+    var bucket = new HashTableBucket(page.getCacheEntry());
+    final var added = bucket.addEntry(hash, entry);
+    assert added : "addEntry failed during redo — inconsistent page state";
+  }
+
+  @Override
+  public int getId() {
+    return RECORD_ID;
+  }
+
+  public int getHash() {
+    return hash;
+  }
+
+  public byte[] getEntry() {
+    return entry;
+  }
+
+  @Override
+  public int serializedSize() {
+    return super.serializedSize() + Integer.BYTES + Integer.BYTES + entry.length;
+  }
+
+  @Override
+  protected void serializeToByteBuffer(ByteBuffer buffer) {
+    super.serializeToByteBuffer(buffer);
+    buffer.putInt(hash);
+    buffer.putInt(entry.length);
+    buffer.put(entry);
+  }
+
+  @Override
+  protected void deserializeFromByteBuffer(ByteBuffer buffer) {
+    super.deserializeFromByteBuffer(buffer);
+    hash = buffer.getInt();
+    entry = new byte[buffer.getInt()];
+    buffer.get(entry);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof HashTableBucketAddEntryOp that)) {
+      return false;
+    }
+    if (!super.equals(o)) {
+      return false;
+    }
+    return hash == that.hash
+        && Arrays.equals(entry, that.entry);
+  }
+
+  @Override
+  public int hashCode() {
+    var result = super.hashCode();
+    result = 31 * result + hash;
+    result = 31 * result + Arrays.hashCode(entry);
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return toString("hash=" + hash
+        + ", entryLen=" + (entry != null ? entry.length : "null"));
+  }
+}
@@ -0,0 +1,40 @@
+package com.jetbrains.youtrackdb.internal.core.storage.index.hashindex;
+
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.base.DurablePage;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.wal.LogSequenceNumber;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.wal.PageOperation;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.wal.WALRecordTypes;
+
+/**
+ * Logical WAL record for {@link HashTableBucket#init()}. Empties the bucket page and unlinks
+ * it from its overflow chain.
+ */
+public final class HashTableBucketInitOp extends PageOperation {
+
+  public static final int RECORD_ID = WALRecordTypes.HASH_TABLE_BUCKET_INIT_OP;
+
+  /** No-arg constructor for reflection-based deserialization by WALRecordsFactory. */
+  public HashTableBucketInitOp() {
+  }
+
+  public HashTableBucketInitOp(
+      long pageIndex, long fileId, long operationUnitId, LogSequenceNumber initialLsn) {
+    super(pageIndex, fileId, operationUnitId, initialLsn);
+  }
+
+  @Override
+  public void redo(DurablePage page) {
+    var bucket = new HashTableBucket(page.getCacheEntry());
+    bucket.init();
+  }
+
+  @Override
+  public int getId() {
+    return RECORD_ID;
+  }
+
+  @Override
+  public String toString() {
+    return toString("");
+  }
+}
@@ -0,0 +1,98 @@
+package com.jetbrains.youtrackdb.internal.core.storage.index.hashindex;
+
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.base.DurablePage;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.wal.LogSequenceNumber;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.wal.PageOperation;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.wal.WALRecordTypes;
+import java.nio.ByteBuffer;
+
+/**
+ * Logical WAL record for {@link HashTableBucket#removeEntry(int, int)}. Captures the index and
+ * the size of the removed entry and replays the removal during crash recovery.
+ */
+public final class HashTableBucketRemoveEntryOp extends PageOperation {
+
+  public static final int RECORD_ID = WALRecordTypes.HASH_TABLE_BUCKET_REMOVE_ENTRY_OP;
+
+  private int index;
+  private int entrySize;
+
+  /** No-arg constructor for reflection-based deserialization by WALRecordsFactory. */
+  public HashTableBucketRemoveEntryOp() {
+  }
+
+  public HashTableBucketRemoveEntryOp(
+      long pageIndex, long fileId, long operationUnitId,
+      LogSequenceNumber initialLsn, int index, int entrySize) {
+    super(pageIndex, fileId, operationUnitId, initialLsn);
+    this.index = index;
+    this.entrySize = entrySize;
+  }
+
+  @Override
+  public void redo(DurablePage page) {
+    var bucket = new HashTableBucket(page.getCacheEntry());
+    bucket.removeEntry(index, entrySize);
+  }
+
+  @Override
+  public int getId() {
+    return RECORD_ID;
+  }
+
+  public int getIndex() {
+    return index;
+  }
+
+  public int getEntrySize() {
+    return entrySize;
+  }
+
+  @Override
+  public int serializedSize() {
+    return super.serializedSize() + Integer.BYTES + Integer.BYTES;
+  }
+
+  @Override
+  protected void serializeToByteBuffer(ByteBuffer buffer) {
+    super.serializeToByteBuffer(buffer);
+    buffer.putInt(index);
+    buffer.putInt(entrySize);
+  }
+
+  @Override
+  protected void deserializeFromByteBuffer(ByteBuffer buffer) {
+    super.deserializeFromByteBuffer(buffer);
+    index = buffer.getInt();
+    entrySize = buffer.getInt();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof HashTableBucketRemoveEntryOp that)) {
+      return false;
+    }
+    if (!super.equals(o)) {
+      return false;
+    }
+    return index == that.index
+        && entrySize == that.entrySize;
+  }
+
+  @Override
+  public int hashCode() {
+    var result = super.hashCode();
+    result = 31 * result + index;
+    result = 31 * result + entrySize;
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return toString("index=" + index
+        + ", entrySize=" + entrySize);
+  }
+}
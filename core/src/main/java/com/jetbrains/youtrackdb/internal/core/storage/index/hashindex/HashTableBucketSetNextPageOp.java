@@ -0,0 +1,87 @@
+package com.jetbrains.youtrackdb.internal.core.storage.index.hashindex;
+
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.base.DurablePage;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.wal.LogSequenceNumber;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.wal.PageOperation;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.wal.WALRecordTypes;
+import java.nio.ByteBuffer;
+
+/**
+ * Logical WAL record for {@link HashTableBucket#setNextPage(int)}. Captures the index of the
+ * next overflow page of the chain and replays the link update during crash recovery.
+ */
+public final class HashTableBucketSetNextPageOp extends PageOperation {
+
+  public static final int RECORD_ID = WALRecordTypes.HASH_TABLE_BUCKET_SET_NEXT_PAGE_OP;
+
+  private int nextPage;
+
+  /** No-arg constructor for reflection-based deserialization by WALRecordsFactory. */
+  public HashTableBucketSetNextPageOp() {
+  }
+
+  public HashTableBucketSetNextPageOp(
+      long pageIndex, long fileId, long operationUnitId,
+      LogSequenceNumber initialLsn, int nextPage) {
+    super(pageIndex, fileId, operationUnitId, initialLsn);
+    this.nextPage = nextPage;
+  }
+
+  @Override
+  public void redo(DurablePage page) {
+    var bucket = new HashTableBucket(page.getCacheEntry());
+    bucket.setNextPage(nextPage);
+  }
+
+  @Override
+  public int getId() {
+    return RECORD_ID;
+  }
+
+  public int getNextPage() {
+    return nextPage;
+  }
+
+  @Override
+  public int serializedSize() {
+    return super.serializedSize() + Integer.BYTES;
+  }
+
+  @Override
+  protected void serializeToByteBuffer(ByteBuffer buffer) {
+    super.serializeToByteBuffer(buffer);
+    buffer.putInt(nextPage);
+  }
+
+  @Override
+  protected void deserializeFromByteBuffer(ByteBuffer buffer) {
+    super.deserializeFromByteBuffer(buffer);
+    nextPage = buffer.getInt();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof HashTableBucketSetNextPageOp that)) {
+      return false;
+    }
+    if (!super.equals(o)) {
+      return false;
+    }
+    return nextPage == that.nextPage;
+  }
+
+  @Override
+  public int hashCode() {
+    var result = super.hashCode();
+    result = 31 * result + nextPage;
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return toString("nextPage=" + nextPage);
+  }
+}
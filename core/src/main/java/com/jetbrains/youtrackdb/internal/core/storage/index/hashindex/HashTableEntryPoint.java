@@ -0,0 +1,160 @@
+package com.jetbrains.youtrackdb.internal.core.storage.index.hashindex;
+
+import com.jetbrains.youtrackdb.internal.common.serialization.types.IntegerSerializer;
+import com.jetbrains.youtrackdb.internal.common.serialization.types.LongSerializer;
+import com.jetbrains.youtrackdb.internal.core.storage.cache.CacheEntry;
+import com.jetbrains.youtrackdb.internal.core.storage.cache.PageView;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.atomicoperations.CacheEntryChanges;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.base.DurablePage;
+
+/**
+ * First page of the data file of a {@link HashTable}. Keeps the entries counters, the linear
+ * hashing layout (level, split pointer and count of buckets) and the bookkeeping of the overflow
+ * file (count of allocated overflow pages and the head of the list of free ones).
+ */
+public final class HashTableEntryPoint extends DurablePage {
+
+  private static final int SIZE_OFFSET = NEXT_FREE_POSITION;
+  private static final int APPROXIMATE_ENTRIES_COUNT_OFFSET =
+      SIZE_OFFSET + LongSerializer.LONG_SIZE;
+  private static final int LEVEL_OFFSET =
+      APPROXIMATE_ENTRIES_COUNT_OFFSET + LongSerializer.LONG_SIZE;
+  private static final int SPLIT_POINTER_OFFSET = LEVEL_OFFSET + IntegerSerializer.INT_SIZE;
+  private static final int BUCKETS_COUNT_OFFSET =
+      SPLIT_POINTER_OFFSET + IntegerSerializer.INT_SIZE;
+  private static final int OVERFLOW_PAGES_SIZE_OFFSET =
+      BUCKETS_COUNT_OFFSET + IntegerSerializer.INT_SIZE;
+  private static final int FREE_LIST_HEAD_OFFSET =
+      OVERFLOW_PAGES_SIZE_OFFSET + IntegerSerializer.INT_SIZE;
+
+  static {
+    assert APPROXIMATE_ENTRIES_COUNT_OFFSET == SIZE_OFFSET + LongSerializer.LONG_SIZE
+        : "APPROXIMATE_ENTRIES_COUNT_OFFSET overlaps SIZE";
+    assert LEVEL_OFFSET == APPROXIMATE_ENTRIES_COUNT_OFFSET + LongSerializer.LONG_SIZE
+        : "LEVEL_OFFSET overlaps APPROXIMATE_ENTRIES_COUNT";
+    assert SPLIT_POINTER_OFFSET == LEVEL_OFFSET + IntegerSerializer.INT_SIZE
+        : "SPLIT_POINTER_OFFSET overlaps LEVEL";
+    assert BUCKETS_COUNT_OFFSET == SPLIT_POINTER_OFFSET + IntegerSerializer.INT_SIZE
+        : "BUCKETS_COUNT_OFFSET overlaps SPLIT_POINTER";
+    assert OVERFLOW_PAGES_SIZE_OFFSET == BUCKETS_COUNT_OFFSET + IntegerSerializer.INT_SIZE
+        : "OVERFLOW_PAGES_SIZE_OFFSET overlaps BUCKETS_COUNT";
+    assert FREE_LIST_HEAD_OFFSET == OVERFLOW_PAGES_SIZE_OFFSET + IntegerSerializer.INT_SIZE
+        : "FREE_LIST_HEAD_OFFSET overlaps OVERFLOW_PAGES_SIZE";
+  }
+
+  public HashTableEntryPoint(final CacheEntry cacheEntry) {
+    super(cacheEntry);
+  }
+
+  public HashTableEntryPoint(final PageView pageView) {
+    super(pageView);
+  }
+
+  public void init() {
+    setLongValue(SIZE_OFFSET, 0);
+    setLongValue(APPROXIMATE_ENTRIES_COUNT_OFFSET, 0);
+    setIntValue(LEVEL_OFFSET, 0);
+    setIntValue(SPLIT_POINTER_OFFSET, 0);
+    setIntValue(BUCKETS_COUNT_OFFSET, 1);
+    setIntValue(OVERFLOW_PAGES_SIZE_OFFSET, 0);
+    setIntValue(FREE_LIST_HEAD_OFFSET, -1);
+
+    var cacheEntry = getCacheEntry();
+    if (cacheEntry instanceof CacheEntryChanges cec) {
+      cec.registerPageOperation(
+          new HashTableEntryPointInitOp(
+              cacheEntry.getPageIndex(), cacheEntry.getFileId(),
+              0, cec.getInitialLSN()));
+    }
+  }
+
+  public void setSize(final long size) {
+    setLongValue(SIZE_OFFSET, size);
+
+    var cacheEntry = getCacheEntry();
+    if (cacheEntry instanceof CacheEntryChanges cec) {
+      cec.registerPageOperation(
+          new HashTableEntryPointSetSizeOp(
+              cacheEntry.getPageIndex(), cacheEntry.getFileId(),
+              0, cec.getInitialLSN(), size));
+    }
+  }
+
+  public long getSize() {
+    return getLongValue(SIZE_OFFSET);
+  }
+
+  public void setApproximateEntriesCount(final long count) {
+    assert count >= 0 : "Negative approximate entries count: " + count;
+    setLongValue(APPROXIMATE_ENTRIES_COUNT_OFFSET, count);
+
+    var cacheEntry = getCacheEntry();
+    if (cacheEntry instanceof CacheEntryChanges cec) {
+      cec.registerPageOperation(
+          new HashTableEntryPointSetApproxEntriesCountOp(
+              cacheEntry.getPageIndex(), cacheEntry.getFileId(),
+              0, cec.getInitialLSN(), count));
+    }
+  }
+
+  public long getApproximateEntriesCount() {
+    return getLongValue(APPROXIMATE_ENTRIES_COUNT_OFFSET);
+  }
+
+  /**
+   * Stores the linear hashing layout: buckets below {@code splitPointer} are already split on
+   * {@code level}, so their keys are addressed by {@code level + 1} bits of the hash code, the
+   * remaining ones by {@code level} bits. {@code bucketsCount} is always
+   * {@code 2^level + splitPointer}.
+   */
+  public void setLayout(final int level, final int splitPointer, final int bucketsCount) {
+    assert bucketsCount == (1 << level) + splitPointer
+        : "Inconsistent layout: level=" + level + ", splitPointer=" + splitPointer
+            + ", bucketsCount=" + bucketsCount;
+    setIntValue(LEVEL_OFFSET, level);
+    setIntValue(SPLIT_POINTER_OFFSET, splitPointer);
+    setIntValue(BUCKETS_COUNT_OFFSET, bucketsCount);
+
+    var cacheEntry = getCacheEntry();
+    if (cacheEntry instanceof CacheEntryChanges cec) {
+      cec.registerPageOperation(
+          new HashTableEntryPointSetLayoutOp(
+              cacheEntry.getPageIndex(), cacheEntry.getFileId(),
+              0, cec.getInitialLSN(), level, splitPointer, bucketsCount));
+    }
+  }
+
+  public int getLevel() {
+    return getIntValue(LEVEL_OFFSET);
+  }
+
+  public int getSplitPointer() {
+    return getIntValue(SPLIT_POINTER_OFFSET);
+  }
+
+  public int getBucketsCount() {
+    return getIntValue(BUCKETS_COUNT_OFFSET);
+  }
+
+  public void setOverflow(final int overflowPagesSize, final int freeListHead) {
+    setIntValue(OVERFLOW_PAGES_SIZE_OFFSET, overflowPagesSize);
+    setIntValue(FREE_LIST_HEAD_OFFSET, freeListHead);
+
+    var cacheEntry = getCacheEntry();
+    if (cacheEntry instanceof CacheEntryChanges cec) {
+      cec.registerPageOperation(
+          new HashTableEntryPointSetOverflowOp(
+              cacheEntry.getPageIndex(), cacheEntry.getFileId(),
+              0, cec.getInitialLSN(), overflowPagesSize, freeListHead));
+    }
+  }
+
+  /** Index of the last allocated page of the overflow file, page 0 of that file is not used. */
+  public int getOverflowPagesSize() {
+    return getIntValue(OVERFLOW_PAGES_SIZE_OFFSET);
+  }
+
+  public int getFreeListHead() {
+    return getIntValue(FREE_LIST_HEAD_OFFSET);
+  }
+}
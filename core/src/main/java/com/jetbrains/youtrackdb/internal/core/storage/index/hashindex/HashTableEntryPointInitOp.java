@@ -0,0 +1,40 @@
+package com.jetbrains.youtrackdb.internal.core.storage.index.hashindex;
+
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.base.DurablePage;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.wal.LogSequenceNumber;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.wal.PageOperation;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.wal.WALRecordTypes;
+
+/**
+ * Logical WAL record for {@link HashTableEntryPoint#init()}. Resets the counters, starts the
+ * table with a single bucket and an empty overflow free list.
+ */
+public final class HashTableEntryPointInitOp extends PageOperation {
+
+  public static final int RECORD_ID = WALRecordTypes.HASH_TABLE_ENTRY_POINT_INIT_OP;
+
+  /** No-arg constructor for reflection-based deserialization by WALRecordsFactory. */
+  public HashTableEntryPointInitOp() {
+  }
+
+  public HashTableEntryPointInitOp(
+      long pageIndex, long fileId, long operationUnitId, LogSequenceNumber initialLsn) {
+    super(pageIndex, fileId, operationUnitId, initialLsn);
+  }
+
+  @Override
+  public void redo(DurablePage page) {
+    var entryPoint = new HashTableEntryPoint(page.getCacheEntry());
+    entryPoint.init();
+  }
+
+  @Override
+  public int getId() {
+    return RECORD_ID;
+  }
+
+  @Override
+  public String toString() {
+    return toString("");
+  }
+}
@@ -0,0 +1,87 @@
+package com.jetbrains.youtrackdb.internal.core.storage.index.hashindex;
+
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.base.DurablePage;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.wal.LogSequenceNumber;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.wal.PageOperation;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.wal.WALRecordTypes;
+import java.nio.ByteBuffer;
+
+/**
+ * Logical WAL record for {@link HashTableEntryPoint#setApproximateEntriesCount(long)}. Captures
+ * the approximate count of visible entries and replays the mutation during crash recovery.
+ */
+public final class HashTableEntryPointSetApproxEntriesCountOp extends PageOperation {
+
+  public static final int RECORD_ID = WALRecordTypes.HASH_TABLE_ENTRY_POINT_SET_APPROX_ENTRIES_COUNT_OP;
+
+  private long count;
+
+  /** No-arg constructor for reflection-based deserialization by WALRecordsFactory. */
+  public HashTableEntryPointSetApproxEntriesCountOp() {
+  }
+
+  public HashTableEntryPointSetApproxEntriesCountOp(
+      long pageIndex, long fileId, long operationUnitId,
+      LogSequenceNumber initialLsn, long count) {
+    super(pageIndex, fileId, operationUnitId, initialLsn);
+    this.count = count;
+  }
+
+  @Override
+  public void redo(DurablePage page) {
+    var entryPoint = new HashTableEntryPoint(page.getCacheEntry());
+    entryPoint.setApproximateEntriesCount(count);
+  }
+
+  @Override
+  public int getId() {
+    return RECORD_ID;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  @Override
+  public int serializedSize() {
+    return super.serializedSize() + Long.BYTES;
+  }
+
+  @Override
+  protected void serializeToByteBuffer(ByteBuffer buffer) {
+    super.serializeToByteBuffer(buffer);
+    buffer.putLong(count);
+  }
+
+  @Override
+  protected void deserializeFromByteBuffer(ByteBuffer buffer) {
+    super.deserializeFromByteBuffer(buffer);
+    count = buffer.getLong();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof HashTableEntryPointSetApproxEntriesCountOp that)) {
+      return false;
+    }
+    if (!super.equals(o)) {
+      return false;
+    }
+    return count == that.count;
+  }
+
+  @Override
+  public int hashCode() {
+    var result = super.hashCode();
+    result = 31 * result + Long.hashCode(count);
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return toString("count=" + count);
+  }
+}
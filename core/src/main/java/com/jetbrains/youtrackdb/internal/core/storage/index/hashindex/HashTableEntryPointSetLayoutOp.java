@@ -0,0 +1,110 @@
+package com.jetbrains.youtrackdb.internal.core.storage.index.hashindex;
+
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.base.DurablePage;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.wal.LogSequenceNumber;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.wal.PageOperation;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.wal.WALRecordTypes;
+import java.nio.ByteBuffer;
+
+/**
+ * Logical WAL record for {@link HashTableEntryPoint#setLayout(int, int, int)}. Captures the
+ * level, the split pointer and the buckets count of the table after a bucket split and replays
+ * them during crash recovery.
+ */
+public final class HashTableEntryPointSetLayoutOp extends PageOperation {
+
+  public static final int RECORD_ID = WALRecordTypes.HASH_TABLE_ENTRY_POINT_SET_LAYOUT_OP;
+
+  private int level;
+  private int splitPointer;
+  private int bucketsCount;
+
+  /** No-arg constructor for reflection-based deserialization by WALRecordsFactory. */
+  public HashTableEntryPointSetLayoutOp() {
+  }
+
+  public HashTableEntryPointSetLayoutOp(
+      long pageIndex, long fileId, long operationUnitId,
+      LogSequenceNumber initialLsn, int level, int splitPointer, int bucketsCount) {
+    super(pageIndex, fileId, operationUnitId, initialLsn);
+    this.level = level;
+    this.splitPointer = splitPointer;
+    this.bucketsCount = bucketsCount;
+  }
+
+  @Override
+  public void redo(DurablePage page) {
+    var entryPoint = new HashTableEntryPoint(page.getCacheEntry());
+    entryPoint.setLayout(level, splitPointer, bucketsCount);
+  }
+
+  @Override
+  public int getId() {
+    return RECORD_ID;
+  }
+
+  public int getLevel() {
+    return level;
+  }
+
+  public int getSplitPointer() {
+    return splitPointer;
+  }
+
+  public int getBucketsCount() {
+    return bucketsCount;
+  }
+
+  @Override
+  public int serializedSize() {
+    return super.serializedSize() + Integer.BYTES + Integer.BYTES + Integer.BYTES;
+  }
+
+  @Override
+  protected void serializeToByteBuffer(ByteBuffer buffer) {
+    super.serializeToByteBuffer(buffer);
+    buffer.putInt(level);
+    buffer.putInt(splitPointer);
+    buffer.putInt(bucketsCount);
+  }
+
+  @Override
+  protected void deserializeFromByteBuffer(ByteBuffer buffer) {
+    super.deserializeFromByteBuffer(buffer);
+    level = buffer.getInt();
+    splitPointer = buffer.getInt();
+    bucketsCount = buffer.getInt();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof HashTableEntryPointSetLayoutOp that)) {
+      return false;
+    }
+    if (!super.equals(o)) {
+      return false;
+    }
+    return level == that.level
+        && splitPointer == that.splitPointer
+        && bucketsCount == that.bucketsCount;
+  }
+
+  @Override
+  public int hashCode() {
+    var result = super.hashCode();
+    result = 31 * result + level;
+    result = 31 * result + splitPointer;
+    result = 31 * result + bucketsCount;
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return toString("level=" + level
+        + ", splitPointer=" + splitPointer
+        + ", bucketsCount=" + bucketsCount);
+  }
+}
@@ -0,0 +1,99 @@
+package com.jetbrains.youtrackdb.internal.core.storage.index.hashindex;
+
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.base.DurablePage;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.wal.LogSequenceNumber;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.wal.PageOperation;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.wal.WALRecordTypes;
+import java.nio.ByteBuffer;
+
+/**
+ * Logical WAL record for {@link HashTableEntryPoint#setOverflow(int, int)}. Captures the count
+ * of allocated overflow pages and the head of their free list and replays them during crash
+ * recovery.
+ */
+public final class HashTableEntryPointSetOverflowOp extends PageOperation {
+
+  public static final int RECORD_ID = WALRecordTypes.HASH_TABLE_ENTRY_POINT_SET_OVERFLOW_OP;
+
+  private int overflowPagesSize;
+  private int freeListHead;
+
+  /** No-arg constructor for reflection-based deserialization by WALRecordsFactory. */
+  public HashTableEntryPointSetOverflowOp() {
+  }
+
+  public HashTableEntryPointSetOverflowOp(
+      long pageIndex, long fileId, long operationUnitId,
+      LogSequenceNumber initialLsn, int overflowPagesSize, int freeListHead) {
+    super(pageIndex, fileId, operationUnitId, initialLsn);
+    this.overflowPagesSize = overflowPagesSize;
+    this.freeListHead = freeListHead;
+  }
+
+  @Override
+  public void redo(DurablePage page) {
+    var entryPoint = new HashTableEntryPoint(page.getCacheEntry());
+    entryPoint.setOverflow(overflowPagesSize, freeListHead);
+  }
+
+  @Override
+  public int getId() {
+    return RECORD_ID;
+  }
+
+  public int getOverflowPagesSize() {
+    return overflowPagesSize;
+  }
+
+  public int getFreeListHead() {
+    return freeListHead;
+  }
+
+  @Override
+  public int serializedSize() {
+    return super.serializedSize() + Integer.BYTES + Integer.BYTES;
+  }
+
+  @Override
+  protected void serializeToByteBuffer(ByteBuffer buffer) {
+    super.serializeToByteBuffer(buffer);
+    buffer.putInt(overflowPagesSize);
+    buffer.putInt(freeListHead);
+  }
+
+  @Override
+  protected void deserializeFromByteBuffer(ByteBuffer buffer) {
+    super.deserializeFromByteBuffer(buffer);
+    overflowPagesSize = buffer.getInt();
+    freeListHead = buffer.getInt();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof HashTableEntryPointSetOverflowOp that)) {
+      return false;
+    }
+    if (!super.equals(o)) {
+      return false;
+    }
+    return overflowPagesSize == that.overflowPagesSize
+        && freeListHead == that.freeListHead;
+  }
+
+  @Override
+  public int hashCode() {
+    var result = super.hashCode();
+    result = 31 * result + overflowPagesSize;
+    result = 31 * result + freeListHead;
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return toString("overflowPagesSize=" + overflowPagesSize
+        + ", freeListHead=" + freeListHead);
+  }
+}
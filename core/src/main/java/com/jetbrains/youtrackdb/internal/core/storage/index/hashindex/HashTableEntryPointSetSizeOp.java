@@ -0,0 +1,87 @@
+package com.jetbrains.youtrackdb.internal.core.storage.index.hashindex;
+
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.base.DurablePage;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.wal.LogSequenceNumber;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.wal.PageOperation;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.wal.WALRecordTypes;
+import java.nio.ByteBuffer;
+
+/**
+ * Logical WAL record for {@link HashTableEntryPoint#setSize(long)}. Captures the number of
+ * entries and replays the mutation during crash recovery.
+ */
+public final class HashTableEntryPointSetSizeOp extends PageOperation {
+
+  public static final int RECORD_ID = WALRecordTypes.HASH_TABLE_ENTRY_POINT_SET_SIZE_OP;
+
+  private long size;
+
+  /** No-arg constructor for reflection-based deserialization by WALRecordsFactory. */
+  public HashTableEntryPointSetSizeOp() {
+  }
+
+  public HashTableEntryPointSetSizeOp(
+      long pageIndex, long fileId, long operationUnitId,
+      LogSequenceNumber initialLsn, long size) {
+    super(pageIndex, fileId, operationUnitId, initialLsn);
+    this.size = size;
+  }
+
+  @Override
+  public void redo(DurablePage page) {
+    var entryPoint = new HashTableEntryPoint(page.getCacheEntry());
+    entryPoint.setSize(size);
+  }
+
+  @Override
+  public int getId() {
+    return RECORD_ID;
+  }
+
+  public long getSize() {
+    return size;
+  }
+
+  @Override
+  public int serializedSize() {
+    return super.serializedSize() + Long.BYTES;
+  }
+
+  @Override
+  protected void serializeToByteBuffer(ByteBuffer buffer) {
+    super.serializeToByteBuffer(buffer);
+    buffer.putLong(size);
+  }
+
+  @Override
+  protected void deserializeFromByteBuffer(ByteBuffer buffer) {
+    super.deserializeFromByteBuffer(buffer);
+    size = buffer.getLong();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof HashTableEntryPointSetSizeOp that)) {
+      return false;
+    }
+    if (!super.equals(o)) {
+      return false;
+    }
+    return size == that.size;
+  }
+
+  @Override
+  public int hashCode() {
+    var result = super.hashCode();
+    result = 31 * result + Long.hashCode(size);
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return toString("size=" + size);
+  }
+}
@@ -0,0 +1,22 @@
+package com.jetbrains.youtrackdb.internal.core.storage.index.hashindex;
+
+import com.jetbrains.youtrackdb.internal.core.exception.StorageComponentException;
+
+/**
+ * Exception thrown by the {@link HashTable} during storage component operations.
+ */
+public final class HashTableException extends StorageComponentException {
+
+  @SuppressWarnings("unused")
+  public HashTableException(final HashTableException exception) {
+    super(exception);
+  }
+
+  HashTableException(final String message, final HashTable component) {
+    super(null, message, component);
+  }
+
+  HashTableException(final String dbName, final String message, final HashTable component) {
+    super(dbName, message, component);
+  }
+}
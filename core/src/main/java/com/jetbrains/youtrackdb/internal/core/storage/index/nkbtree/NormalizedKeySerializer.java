@@ -0,0 +1,245 @@
+package com.jetbrains.youtrackdb.internal.core.storage.index.nkbtree;
+
+import com.jetbrains.youtrackdb.internal.common.serialization.types.BinarySerializer;
+import com.jetbrains.youtrackdb.internal.common.serialization.types.BinaryTypeSerializer;
+import com.jetbrains.youtrackdb.internal.common.serialization.types.IntegerSerializer;
+import com.jetbrains.youtrackdb.internal.core.index.CompositeKey;
+import com.jetbrains.youtrackdb.internal.core.metadata.schema.PropertyTypeInternal;
+import com.jetbrains.youtrackdb.internal.core.serialization.serializer.binary.BinarySerializerFactory;
+import com.jetbrains.youtrackdb.internal.core.serialization.serializer.binary.impl.index.IndexMultiValuKeySerializer;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.wal.WALChanges;
+import com.jetbrains.youtrackdb.internal.core.storage.index.nkbtree.normalizers.KeyNormalizer;
+import java.nio.ByteBuffer;
+import javax.annotation.Nullable;
+
+/**
+ * Serializer of composite index keys which stores the {@link KeyNormalizer normalized} form of the
+ * key in front of the key itself:
+ *
+ * <pre>
+ * [int total size][int normalized size][normalized key][key serialized by IndexMultiValuKeySerializer]
+ * </pre>
+ *
+ * <p>Normalized keys are ordered as {@link CompositeKey#compareTo(CompositeKey)} orders the keys,
+ * so the binary search of a B-tree bucket compares keys with a single unsigned comparison of the
+ * normalized bytes, without deserialization and per-field comparator dispatch. Keys are
+ * deserialized from the second part, which keeps them exact (e.g. the scale of decimals).
+ */
+public final class NormalizedKeySerializer implements BinarySerializer<CompositeKey> {
+
+  private static final int HEADER_SIZE = 2 * IntegerSerializer.INT_SIZE;
+
+  private final KeyNormalizer keyNormalizer = new KeyNormalizer();
+  private final IndexMultiValuKeySerializer keySerializer = new IndexMultiValuKeySerializer();
+
+  private byte[] normalize(final CompositeKey key, final Object... hints) {
+    return keyNormalizer.normalize(
+        key, (PropertyTypeInternal[]) hints, KeyNormalizer.CODE_UNIT_ORDER);
+  }
+
+  @Override
+  public int getObjectSize(BinarySerializerFactory serializerFactory, CompositeKey key,
+      Object... hints) {
+    return HEADER_SIZE + normalize(key, hints).length
+        + keySerializer.getObjectSize(serializerFactory, key, hints);
+  }
+
+  @Override
+  public int getObjectSize(BinarySerializerFactory serializerFactory, byte[] stream,
+      int startPosition) {
+    return IntegerSerializer.deserializeLiteral(stream, startPosition);
+  }
+
+  @Override
+  public void serialize(CompositeKey key, BinarySerializerFactory serializerFactory,
+      byte[] stream, int startPosition, Object... hints) {
+    final var normalized = normalize(key, hints);
+    final var keyPosition = startPosition + HEADER_SIZE + normalized.length;
+
+    System.arraycopy(normalized, 0, stream, startPosition + HEADER_SIZE, normalized.length);
+    keySerializer.serialize(key, serializerFactory, stream, keyPosition, hints);
+
+    final var keySize = keySerializer.getObjectSize(serializerFactory, stream, keyPosition);
+    IntegerSerializer.serializeLiteral(
+        HEADER_SIZE + normalized.length + keySize, stream, startPosition);
+    IntegerSerializer.serializeLiteral(
+        normalized.length, stream, startPosition + IntegerSerializer.INT_SIZE);
+  }
+
+  @Override
+  public CompositeKey deserialize(BinarySerializerFactory serializerFactory, byte[] stream,
+      int startPosition) {
+    final var normalizedSize =
+        IntegerSerializer.deserializeLiteral(stream, startPosition + IntegerSerializer.INT_SIZE);
+    return keySerializer.deserialize(
+        serializerFactory, stream, startPosition + HEADER_SIZE + normalizedSize);
+  }
+
+  @Override
+  public byte getId() {
+    return -1;
+  }
+
+  @Override
+  public boolean isFixedLength() {
+    return false;
+  }
+
+  @Override
+  public int getFixedLength() {
+    return 0;
+  }
+
+  @Override
+  public void serializeNativeObject(CompositeKey key, BinarySerializerFactory serializerFactory,
+      byte[] stream, int startPosition, Object... hints) {
+    final var normalized = normalize(key, hints);
+    final var keyPosition = startPosition + HEADER_SIZE + normalized.length;
+
+    System.arraycopy(normalized, 0, stream, startPosition + HEADER_SIZE, normalized.length);
+    keySerializer.serializeNativeObject(key, serializerFactory, stream, keyPosition, hints);
+
+    final var keySize = keySerializer.getObjectSizeNative(serializerFactory, stream, keyPosition);
+    IntegerSerializer.serializeNative(
+        HEADER_SIZE + normalized.length + keySize, stream, startPosition);
+    IntegerSerializer.serializeNative(
+        normalized.length, stream, startPosition + IntegerSerializer.INT_SIZE);
+  }
+
+  @Override
+  public CompositeKey deserializeNativeObject(BinarySerializerFactory serializerFactory,
+      byte[] stream, int startPosition) {
+    final var normalizedSize =
+        IntegerSerializer.deserializeNative(stream, startPosition + IntegerSerializer.INT_SIZE);
+    return keySerializer.deserializeNativeObject(
+        serializerFactory, stream, startPosition + HEADER_SIZE + normalizedSize);
+  }
+
+  @Override
+  public int getObjectSizeNative(BinarySerializerFactory serializerFactory, byte[] stream,
+      int startPosition) {
+    return IntegerSerializer.deserializeNative(stream, startPosition);
+  }
+
+  @Nullable
+  @Override
+  public CompositeKey preprocess(BinarySerializerFactory serializerFactory, CompositeKey value,
+      Object... hints) {
+    return keySerializer.preprocess(serializerFactory, value, hints);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void serializeInByteBufferObject(BinarySerializerFactory serializerFactory,
+      CompositeKey key, ByteBuffer buffer, Object... hints) {
+    final var normalized = normalize(key, hints);
+    final var startPosition = buffer.position();
+
+    buffer.position(startPosition + HEADER_SIZE);
+    buffer.put(normalized);
+    keySerializer.serializeInByteBufferObject(serializerFactory, key, buffer, hints);
+
+    buffer.putInt(startPosition, buffer.position() - startPosition);
+    buffer.putInt(startPosition + IntegerSerializer.INT_SIZE, normalized.length);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public CompositeKey deserializeFromByteBufferObject(BinarySerializerFactory serializerFactory,
+      ByteBuffer buffer) {
+    buffer.getInt();
+    final var normalizedSize = buffer.getInt();
+    buffer.position(buffer.position() + normalizedSize);
+    return keySerializer.deserializeFromByteBufferObject(serializerFactory, buffer);
+  }
+
+  @Override
+  public CompositeKey deserializeFromByteBufferObject(BinarySerializerFactory serializerFactory,
+      int offset, ByteBuffer buffer) {
+    final var normalizedSize = buffer.getInt(offset + IntegerSerializer.INT_SIZE);
+    return keySerializer.deserializeFromByteBufferObject(
+        serializerFactory, offset + HEADER_SIZE + normalizedSize, buffer);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getObjectSizeInByteBuffer(BinarySerializerFactory serializerFactory,
+      ByteBuffer buffer) {
+    return buffer.getInt();
+  }
+
+  @Override
+  public int getObjectSizeInByteBuffer(BinarySerializerFactory serializerFactory, int offset,
+      ByteBuffer buffer) {
+    return buffer.getInt(offset);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public CompositeKey deserializeFromByteBufferObject(BinarySerializerFactory serializerFactory,
+      ByteBuffer buffer, WALChanges walChanges, int offset) {
+    final var normalizedSize =
+        walChanges.getIntValue(buffer, offset + IntegerSerializer.INT_SIZE);
+    return keySerializer.deserializeFromByteBufferObject(
+        serializerFactory, buffer, walChanges, offset + HEADER_SIZE + normalizedSize);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getObjectSizeInByteBuffer(ByteBuffer buffer, WALChanges walChanges, int offset) {
+    return walChanges.getIntValue(buffer, offset);
+  }
+
+  /**
+   * Compares the normalized part of the page key with the normalized part of the search key, which
+   * was serialized by {@link #serializeNativeObject}, as unsigned bytes.
+   */
+  @Override
+  public int compareInByteBuffer(BinarySerializerFactory serializerFactory, int pageOffset,
+      ByteBuffer buffer, byte[] serializedKey, int keyOffset) {
+    final var pageNormalizedSize = buffer.getInt(pageOffset + IntegerSerializer.INT_SIZE);
+    final var searchNormalizedSize =
+        IntegerSerializer.deserializeNative(serializedKey, keyOffset + IntegerSerializer.INT_SIZE);
+
+    return BinaryTypeSerializer.compareUnsigned(
+        buffer, pageOffset + HEADER_SIZE, pageNormalizedSize,
+        serializedKey, keyOffset + HEADER_SIZE, searchNormalizedSize);
+  }
+
+  /**
+   * Same comparison as {@link #compareInByteBuffer} for a page which has WAL changes, the bytes of
+   * the page key are read through the changes one by one.
+   */
+  @Override
+  public int compareInByteBufferWithWALChanges(BinarySerializerFactory serializerFactory,
+      ByteBuffer buffer, WALChanges walChanges, int pageOffset, byte[] serializedKey,
+      int keyOffset) {
+    final var pageNormalizedSize =
+        walChanges.getIntValue(buffer, pageOffset + IntegerSerializer.INT_SIZE);
+    final var searchNormalizedSize =
+        IntegerSerializer.deserializeNative(serializedKey, keyOffset + IntegerSerializer.INT_SIZE);
+
+    final var pageStart = pageOffset + HEADER_SIZE;
+    final var keyStart = keyOffset + HEADER_SIZE;
+    final var minSize = Math.min(pageNormalizedSize, searchNormalizedSize);
+    for (var i = 0; i < minSize; i++) {
+      final var cmp = Byte.compareUnsigned(
+          walChanges.getByteValue(buffer, pageStart + i), serializedKey[keyStart + i]);
+      if (cmp != 0) {
+        return cmp;
+      }
+    }
+
+    return Integer.compare(pageNormalizedSize, searchNormalizedSize);
+  }
+}
@@ -1,16 +1,56 @@
 package com.jetbrains.youtrackdb.internal.core.storage.index.nkbtree.normalizers;
 
+import com.jetbrains.youtrackdb.internal.common.comparator.ByteArrayComparator;
+import com.jetbrains.youtrackdb.internal.common.comparator.ComparatorFactory;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
+/**
+ * Binary values are normalized in the order of the byte array comparator that orders index keys.
+ * {@link ByteArrayComparator} orders shorter arrays first, so the length is written before the
+ * content. The unsafe comparator orders arrays lexicographically, so the content is written prefix
+ * free: every {@code 0x00} byte is escaped as {@code 0x00 0xFF} and the value is terminated by
+ * {@code 0x00 0x00}. Either way the following fields of a composite key can not change the order.
+ */
 public class BinaryKeyNormalizer implements KeyNormalizers {
 
+  private final boolean lengthFirst =
+      ComparatorFactory.INSTANCE.getComparator(byte[].class) instanceof ByteArrayComparator;
+
   @Override
   public byte[] execute(Object key, int decomposition) throws IOException {
-    final var matKey = (byte[]) key;
-    final var bb = ByteBuffer.allocate(1 + matKey.length);
+    final var value = (byte[]) key;
+    if (!lengthFirst) {
+      return escape(value);
+    }
+
+    final var bb = ByteBuffer.allocate(1 + Integer.BYTES + value.length);
+    bb.order(ByteOrder.BIG_ENDIAN);
+    bb.put(KeyNormalizer.VALUE_MARKER);
+    bb.putInt(value.length);
+    bb.put(value);
+    return bb.array();
+  }
+
+  static byte[] escape(final byte[] value) {
+    var zeros = 0;
+    for (final var b : value) {
+      if (b == 0) {
+        zeros++;
+      }
+    }
+
+    final var bb = ByteBuffer.allocate(1 + value.length + zeros + 2);
+    bb.put(KeyNormalizer.VALUE_MARKER);
+    for (final var b : value) {
+      bb.put(b);
+      if (b == 0) {
+        bb.put((byte) 0xFF);
+      }
+    }
+    bb.put((byte) 0);
     bb.put((byte) 0);
-    bb.put(matKey);
     return bb.array();
   }
 }
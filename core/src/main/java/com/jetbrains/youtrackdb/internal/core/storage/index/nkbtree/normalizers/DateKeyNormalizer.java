@@ -11,8 +11,8 @@ public class DateKeyNormalizer implements KeyNormalizers {
   public byte[] execute(Object key, int decomposition) throws IOException {
     final var bb = ByteBuffer.allocate(9);
     bb.order(ByteOrder.BIG_ENDIAN);
-    bb.put((byte) 0);
-    bb.putLong(((Date) key).getTime());
+    bb.put(KeyNormalizer.VALUE_MARKER);
+    bb.putLong(((Date) key).getTime() + Long.MAX_VALUE + 1);
     return bb.array();
   }
 }
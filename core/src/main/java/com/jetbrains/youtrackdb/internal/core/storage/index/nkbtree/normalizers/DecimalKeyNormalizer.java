@@ -6,27 +6,49 @@ import java.math.BigInteger;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 
+/**
+ * Decimals are normalized exactly, in the order of {@link BigDecimal#compareTo(BigDecimal)}. A
+ * non-zero value is written as {@code 0.d1d2...dn * 10^exponent}: a sign byte, the exponent and the
+ * decimal digits without trailing zeros, terminated by a zero byte. All bits after the sign byte
+ * are flipped for negative values. Values which differ only in scale, like {@code 1.0} and
+ * {@code 1.00}, get the same normalized key.
+ */
 public class DecimalKeyNormalizer implements KeyNormalizers {
 
+  private static final byte NEGATIVE = 0;
+  private static final byte ZERO = 1;
+  private static final byte POSITIVE = 2;
+
   @Override
   public byte[] execute(Object key, int decomposition) throws IOException {
     final var matKey = (BigDecimal) key;
-    // decimal128 precision
-    // matKey.setScale(34, RoundingMode.UP);
+    final var signum = matKey.signum();
+    if (signum == 0) {
+      return new byte[] {KeyNormalizer.VALUE_MARKER, ZERO};
+    }
 
-    // final BigInteger unsigned = unsigned(matKey.unscaledValue().longValue());
-    // final BigInteger unscaledValue = matKey.unscaledValue().add(TWO_COMPL_REF);
-    // final byte[] bytes = unscaledValue.toByteArray();
+    final var stripped = matKey.stripTrailingZeros();
+    final var digits = stripped.unscaledValue().abs().toString();
+    final var exponent = (long) digits.length() - stripped.scale();
 
-    final var bb = ByteBuffer.allocate(1 + 8); // bytes.length);
+    final var bb = ByteBuffer.allocate(2 + Long.BYTES + digits.length() + 1);
     bb.order(ByteOrder.BIG_ENDIAN);
+    bb.put(KeyNormalizer.VALUE_MARKER);
+    bb.put(signum > 0 ? POSITIVE : NEGATIVE);
+    bb.putLong(exponent + Long.MAX_VALUE + 1);
+    for (var i = 0; i < digits.length(); i++) {
+      // digits start from 1, so the terminator is ordered before all of them
+      bb.put((byte) (digits.charAt(i) - '0' + 1));
+    }
     bb.put((byte) 0);
-    // bb.putInt(matKey.scale());
-    // bb.putLong(matKey.unscaledValue().longValue());
-    // bb.put(bytes);
-    /** NOTE: bigdecimal to double / long loses precision */
-    bb.putLong(Double.doubleToLongBits(matKey.doubleValue()) + Long.MAX_VALUE + 1);
-    return bb.array();
+
+    final var bytes = bb.array();
+    if (signum < 0) {
+      for (var i = 2; i < bytes.length; i++) {
+        bytes[i] = (byte) ~bytes[i];
+      }
+    }
+    return bytes;
   }
 
   BigInteger unsigned(long value) {
@@ -13,8 +13,16 @@ public class DoubleKeyNormalizer implements KeyNormalizers {
     // IEEE 754 (endian sensitive), positive, big-endian to match lexicographical ordering of bytes
     // for comparison
     bb.order(ByteOrder.BIG_ENDIAN);
-    bb.put((byte) 0);
-    bb.putLong(Double.doubleToLongBits(matKey) + Long.MAX_VALUE + 1);
+    bb.put(KeyNormalizer.VALUE_MARKER);
+    bb.putLong(sortableBits(Double.doubleToLongBits(matKey)));
     return bb.array();
   }
+
+  /**
+   * Flips the sign bit of positive values and all bits of negative values, so that the unsigned
+   * order of the result is the numeric order of the value.
+   */
+  static long sortableBits(final long bits) {
+    return bits ^ ((bits >> (Long.SIZE - 1)) | Long.MIN_VALUE);
+  }
 }
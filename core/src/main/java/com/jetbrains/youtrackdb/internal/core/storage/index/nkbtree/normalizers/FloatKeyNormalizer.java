@@ -13,8 +13,10 @@ public class FloatKeyNormalizer implements KeyNormalizers {
     // IEEE 754 (endian sensitive), positive, big-endian to match lexicographical ordering of bytes
     // for comparison
     bb.order(ByteOrder.BIG_ENDIAN);
-    bb.put((byte) 0);
-    bb.putInt(Float.floatToIntBits(matKey) + Integer.MAX_VALUE + 1);
+    bb.put(KeyNormalizer.VALUE_MARKER);
+    final var bits = Float.floatToIntBits(matKey);
+    // flip the sign bit of positive values and all bits of negative values
+    bb.putInt(bits ^ ((bits >> (Integer.SIZE - 1)) | Integer.MIN_VALUE));
     return bb.array();
   }
 }
@@ -14,7 +14,7 @@ public class IntegerKeyNormalizer implements KeyNormalizers {
   public byte[] execute(Object key, int decomposition) throws IOException {
     final var bb = ByteBuffer.allocate(5);
     bb.order(ByteOrder.BIG_ENDIAN);
-    bb.put((byte) 0);
+    bb.put(KeyNormalizer.VALUE_MARKER);
     bb.putInt(((int) key) + Integer.MAX_VALUE + 1);
     return bb.array();
   }
@@ -9,8 +9,22 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Normalizes composite keys to byte arrays whose unsigned lexicographic order is the order of the
+ * keys. Null fields are ordered before all values, as {@link CompositeKey} orders them.
+ */
 public class KeyNormalizer {
 
+  /**
+   * Decomposition which normalizes strings to their UTF-16 code units instead of a collation key,
+   * so that normalized keys are ordered exactly as {@link CompositeKey#compareTo(CompositeKey)}
+   * orders the keys.
+   */
+  public static final int CODE_UNIT_ORDER = -1;
+
+  static final byte NULL_MARKER = 0;
+  static final byte VALUE_MARKER = 1;
+
   private final Map<PropertyTypeInternal, KeyNormalizers> normalizers = new HashMap<>();
 
   public KeyNormalizer() {
@@ -27,6 +41,12 @@ public class KeyNormalizer {
     normalizers.put(PropertyTypeInternal.DATE, new DateKeyNormalizer());
     normalizers.put(PropertyTypeInternal.DATETIME, new DateTimeKeyNormalizer());
     normalizers.put(PropertyTypeInternal.BINARY, new BinaryKeyNormalizer());
+    normalizers.put(PropertyTypeInternal.LINK, new LinkKeyNormalizer());
+  }
+
+  /** Whether non-null keys of the given type can be normalized. */
+  public boolean isSupported(final PropertyTypeInternal keyType) {
+    return keyType != null && normalizers.containsKey(keyType);
   }
 
   public byte[] normalize(
@@ -59,7 +79,8 @@ public class KeyNormalizer {
       final PropertyTypeInternal keyType,
       final int decompositon) {
     try {
-      final var keyNormalizer = normalizers.get(keyType);
+      // null values of typed fields are normalized as nulls, so they are ordered before all values
+      final var keyNormalizer = normalizers.get(key == null ? null : keyType);
       if (keyNormalizer == null) {
         throw new UnsupportedOperationException(
             "Type " + key.getClass().getTypeName() + " is currently not supported");
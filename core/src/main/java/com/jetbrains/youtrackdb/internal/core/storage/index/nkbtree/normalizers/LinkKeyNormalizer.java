@@ -0,0 +1,24 @@
+package com.jetbrains.youtrackdb.internal.core.storage.index.nkbtree.normalizers;
+
+import com.jetbrains.youtrackdb.internal.core.db.record.record.Identifiable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Links are normalized to the collection id followed by the collection position, which is the order
+ * of record ids.
+ */
+public class LinkKeyNormalizer implements KeyNormalizers {
+
+  @Override
+  public byte[] execute(Object key, int decomposition) throws IOException {
+    final var rid = ((Identifiable) key).getIdentity();
+    final var bb = ByteBuffer.allocate(1 + Integer.BYTES + Long.BYTES);
+    bb.order(ByteOrder.BIG_ENDIAN);
+    bb.put(KeyNormalizer.VALUE_MARKER);
+    bb.putInt(rid.getCollectionId() + Integer.MAX_VALUE + 1);
+    bb.putLong(rid.getCollectionPosition() + Long.MAX_VALUE + 1);
+    return bb.array();
+  }
+}
@@ -10,7 +10,7 @@ public class LongKeyNormalizer implements KeyNormalizers {
   public byte[] execute(Object key, int decomposition) throws IOException {
     final var bb = ByteBuffer.allocate(9);
     bb.order(ByteOrder.BIG_ENDIAN);
-    bb.put((byte) 0);
+    bb.put(KeyNormalizer.VALUE_MARKER);
     bb.putLong(((long) key) + Long.MAX_VALUE + 1);
     return bb.array();
   }
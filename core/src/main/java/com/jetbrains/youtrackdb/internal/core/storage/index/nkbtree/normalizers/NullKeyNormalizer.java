@@ -8,7 +8,7 @@ public class NullKeyNormalizer implements KeyNormalizers {
   @Override
   public byte[] execute(Object key, int decomposition) throws IOException {
     final var bb = ByteBuffer.allocate(1);
-    bb.put((byte) 1);
+    bb.put(KeyNormalizer.NULL_MARKER);
     return bb.array();
   }
 }
@@ -10,7 +10,7 @@ public class ShortKeyNormalizer implements KeyNormalizers {
   public byte[] execute(Object key, int decomposition) throws IOException {
     final var bb = ByteBuffer.allocate(3);
     bb.order(ByteOrder.BIG_ENDIAN);
-    bb.put((byte) 0);
+    bb.put(KeyNormalizer.VALUE_MARKER);
     bb.putShort((short) ((short) key + Short.MAX_VALUE + 1));
     return bb.array();
   }
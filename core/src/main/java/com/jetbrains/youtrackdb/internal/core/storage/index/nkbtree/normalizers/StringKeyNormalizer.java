@@ -1,20 +1,37 @@
 package com.jetbrains.youtrackdb.internal.core.storage.index.nkbtree.normalizers;
 
 import java.io.IOException;
-import java.nio.ByteBuffer;
 import java.text.Collator;
-import org.apache.commons.lang3.ArrayUtils;
 
+/**
+ * Strings are normalized to the collation key of the default {@link Collator}, strings which are
+ * equivalent for the collator get the same normalized key. With
+ * {@link KeyNormalizer#CODE_UNIT_ORDER} strings are normalized to their UTF-16 code units instead,
+ * which orders them as {@link String#compareTo(String)} does. The key is written prefix free in the
+ * same way as {@link BinaryKeyNormalizer binary} values.
+ */
 public class StringKeyNormalizer implements KeyNormalizers {
 
   private final Collator instance = Collator.getInstance();
 
   @Override
   public byte[] execute(Object key, int decomposition) throws IOException {
-    instance.setDecomposition(decomposition);
-    final var collationKey = instance.getCollationKey((String) key);
-    final var bb = ByteBuffer.allocate(1);
-    bb.put((byte) 0);
-    return ArrayUtils.addAll(bb.array(), collationKey.toByteArray());
+    final var value = (String) key;
+    if (decomposition == KeyNormalizer.CODE_UNIT_ORDER) {
+      final var codeUnits = new byte[value.length() * Character.BYTES];
+      for (var i = 0; i < value.length(); i++) {
+        final var c = value.charAt(i);
+        codeUnits[2 * i] = (byte) (c >>> 8);
+        codeUnits[2 * i + 1] = (byte) c;
+      }
+      return BinaryKeyNormalizer.escape(codeUnits);
+    }
+
+    final byte[] collationKey;
+    synchronized (instance) {
+      instance.setDecomposition(decomposition);
+      collationKey = instance.getCollationKey(value).toByteArray();
+    }
+    return BinaryKeyNormalizer.escape(collationKey);
   }
 }
@@ -151,6 +151,15 @@ public interface CellBTreeSingleValue<K> {
     // no-op by default
   }
 
+  /**
+   * Whether keys are kept in order, so that range and ordered iterations, {@link #firstKey} and
+   * {@link #lastKey} are supported. Unordered implementations serve only lookups by key and
+   * {@link #allEntries}.
+   */
+  default boolean supportsOrderedIterations() {
+    return true;
+  }
+
   /**
    * Recovery-time orphan-truncation hook invoked by
    * {@code AbstractStorage.truncateOrphansAfterRecovery()} after WAL replay has settled
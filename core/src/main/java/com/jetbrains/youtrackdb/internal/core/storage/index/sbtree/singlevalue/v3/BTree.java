@@ -800,6 +800,7 @@ public final class BTree<K> extends StorageComponent implements CellBTreeSingleV
                         bucketSearchResult.getPath(),
                         bucketSearchResult.getInsertionIndexes(),
                         insertionIndex,
+                        keyBucket.getRightSibling() < 0,
                         atomicOperation);
 
                 insertionIndex = bucketSearchResult.getItemIndex();
@@ -2039,18 +2040,34 @@ public final class BTree<K> extends StorageComponent implements CellBTreeSingleV
     return keyFrom;
   }
 
+  /**
+   * Splits the bucket to make room for the entry at {@code keyIndex}. Buckets are split in half,
+   * except for buckets on the rightmost path of the tree which receive an entry after their last
+   * one: keys are appended to the end of the tree in ascending order, for example when an index is
+   * filled in key order, so such a bucket keeps all its entries but the last one and remains full.
+   *
+   * @param rightmost whether the bucket is the rightmost bucket of its level.
+   */
   private UpdateBucketSearchResult splitBucket(
       final CellBTreeSingleValueBucketV3<K> bucketToSplit,
       final CacheEntry entryToSplit,
       final LongList path,
       final IntList itemPointers,
       final int keyIndex,
+      final boolean rightmost,
       final AtomicOperation atomicOperation)
       throws IOException {
     final var splitLeaf = bucketToSplit.isLeaf();
     final var bucketSize = bucketToSplit.size();
 
-    final var indexToSplit = bucketSize >>> 1;
+    final int indexToSplit;
+    if (rightmost && keyIndex == bucketSize && bucketSize >= 3) {
+      // the right bucket gets a single entry, for a non-leaf bucket the entry before it becomes
+      // the separation key
+      indexToSplit = splitLeaf ? bucketSize - 1 : bucketSize - 2;
+    } else {
+      indexToSplit = bucketSize >>> 1;
+    }
     final var separationKey = bucketToSplit.getKey(indexToSplit, keySerializer, serializerFactory);
     final List<byte[]> rightEntries = new ArrayList<>(indexToSplit);
 
@@ -2078,6 +2095,7 @@ public final class BTree<K> extends StorageComponent implements CellBTreeSingleV
           indexToSplit,
           separationKey,
           rightEntries,
+          rightmost,
           atomicOperation);
     } else {
       return splitRootBucket(
@@ -2102,6 +2120,7 @@ public final class BTree<K> extends StorageComponent implements CellBTreeSingleV
       final int indexToSplit,
       final K separationKey,
       final List<byte[]> rightEntries,
+      final boolean rightmost,
       final AtomicOperation atomicOperation)
       throws IOException {
 
@@ -2152,6 +2171,7 @@ public final class BTree<K> extends StorageComponent implements CellBTreeSingleV
                   currentPath,
                   currentIndex,
                   insertionIndex,
+                  rightmost,
                   atomicOperation);
 
           parentIndex = bucketSearchResult.getLastPathItem();
@@ -350,7 +350,7 @@ public final class CellBTreeSingleValueBucketV3<K> extends DurablePage {
   // negative collectionId for TombstoneRID and negative collectionPosition for
   // SnapshotMarkerRID, which would collide with negative-valued live RIDs if the
   // invariant were violated.
-  static RID decodeRID(int collectionId, long collectionPosition) {
+  public static RID decodeRID(int collectionId, long collectionPosition) {
     if (collectionId < 0) {
       // TombstoneRID — decode the shifted collectionId (0 → -1, 1 → -2, etc.)
       int decodedId = -(collectionId + 1);
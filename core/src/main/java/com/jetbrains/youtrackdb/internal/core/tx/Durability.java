@@ -0,0 +1,26 @@
+package com.jetbrains.youtrackdb.internal.core.tx;
+
+/**
+ * Guarantee which a transaction commit gives about the durability of its changes when the commit
+ * returns. Levels are declared from the weakest to the strongest one.
+ *
+ * <p>Has an effect only for disk storages, in-memory storages never sync their changes.
+ */
+public enum Durability {
+  /**
+   * Commit returns as soon as the changes are applied and logged. The WAL is synced in background
+   * at least once per {@code youtrackdb.storage.wal.commitTimeout} milliseconds, so the changes of
+   * the last transactions may be lost on a crash of the process or the OS.
+   */
+  ASYNC,
+
+  /**
+   * Commit returns once the WAL is synced up to the commit record. The sync is delayed for a short
+   * time, limited by {@code youtrackdb.storage.wal.groupCommitMaxDelay}, so that concurrent commits
+   * share a single fsync.
+   */
+  GROUP,
+
+  /** Commit returns once the WAL is synced up to the commit record, the sync is started at once. */
+  SYNC
+}
@@ -56,13 +56,17 @@ import com.jetbrains.youtrackdb.internal.core.metadata.security.Rule;
 import com.jetbrains.youtrackdb.internal.core.query.ResultSet;
 import com.jetbrains.youtrackdb.internal.core.record.RecordAbstract;
 import com.jetbrains.youtrackdb.internal.core.record.impl.EntityImpl;
+import com.jetbrains.youtrackdb.internal.core.record.impl.RecordBytes;
 import com.jetbrains.youtrackdb.internal.core.serialization.serializer.record.RecordSerializer;
 import com.jetbrains.youtrackdb.internal.core.sql.executor.cache.QueryCacheMetrics;
 import com.jetbrains.youtrackdb.internal.core.sql.executor.cache.QueryResultCache;
+import com.jetbrains.youtrackdb.internal.core.sql.executor.spill.SpillFile;
 import com.jetbrains.youtrackdb.internal.core.storage.impl.local.AbstractStorage;
 import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.RecordSerializationContext;
 import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.atomicoperations.AtomicOperation;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.atomicoperations.AtomicOperationsTable.AtomicOperationsSnapshot;
 import com.jetbrains.youtrackdb.internal.core.tx.FrontendTransactionIndexChanges.OPERATION;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
@@ -124,6 +128,11 @@ public class FrontendTransactionImpl implements
   protected int txStartCounter;
   private final boolean readOnly;
 
+  // Snapshot of another transaction which this transaction observes instead of taking its own,
+  // null for regular transactions. Set only for read-only transactions which execute parts of a
+  // query started by another session in parallel.
+  @Nullable private final AtomicOperationsSnapshot sharedSnapshot;
+
   // Monotonic mutation counter. Incremented on every addRecordOperation call (new record or
   // collapse-update of an existing op), so it advances even when the collapse path leaves
   // recordOperations.size() unchanged. The tx-result cache stamps an entry's populateMutationVersion
@@ -133,6 +142,18 @@ public class FrontendTransactionImpl implements
   // version comparison is relative to a stamp taken within the same transaction.
   private long mutationVersion;
 
+  // Content of blobs changed by the transaction which is kept in memory. Once it exceeds
+  // TX_BLOB_SPILL_THRESHOLD, content of every further changed blob is moved to blobSpill, so a
+  // transaction which loads a lot of binary data does not hold all of it in the Java heap until
+  // commit. The size kept for each blob is tracked in blobBytesInMemoryByBlob, so updated, spilled
+  // and deleted blobs give their share of the budget back. The spill is created lazily in the
+  // storage spill directory and removed together with the transaction state in clear(). Only blob
+  // content is spilled, see TransactionBlobSpill for why entities and index changes are not.
+  private long blobBytesInMemory;
+  private final IdentityHashMap<RecordBytes, Integer> blobBytesInMemoryByBlob =
+      new IdentityHashMap<>();
+  @Nullable private TransactionBlobSpill blobSpill;
+
   // Re-entrancy depth for the tx-result cache lookup-and-view scope. The session brackets the
   // whole cache lookup-and-view path with enter/exit, so a query() issued from inside that scope
   // (e.g. a user-defined function in a WHERE clause) observes depth > 0 and bypasses the cache,
@@ -159,6 +180,14 @@ public class FrontendTransactionImpl implements
       new RecordSerializationContext();
   private AtomicOperation atomicOperation;
 
+  // Durability requested by commit(Durability) of this or of a nested transaction, null if the
+  // database default has to be used. Reset on fresh-tx begin.
+  @Nullable private Durability durability;
+
+  // Epoch of the shared query result cache read right before the storage snapshot was taken, -1 if
+  // the cache is disabled or the transaction observes a shared snapshot.
+  private long sharedCacheEpoch = -1;
+
   // Thread that called startStorageTx() and incremented the per-thread activeTxCount.
   // Pool shutdown may close a session from a different thread than the one that began the tx;
   // in that case tsMin belongs to the originating thread's TsMinHolder and must not be reset.
@@ -201,19 +230,31 @@ public class FrontendTransactionImpl implements
     this.session = session;
     this.id = ThreadLocalRandom.current().nextLong(Long.MAX_VALUE);
     this.readOnly = readOnly;
+    this.sharedSnapshot = null;
   }
 
   public FrontendTransactionImpl(@Nonnull final DatabaseSessionEmbedded session, long txId,
       boolean readOnly) {
+    this(session, txId, readOnly, null);
+  }
+
+  /**
+   * Creates a transaction which, if {@code sharedSnapshot} is not {@code null}, observes the given
+   * snapshot instead of taking a new one on begin.
+   */
+  public FrontendTransactionImpl(@Nonnull final DatabaseSessionEmbedded session, long txId,
+      boolean readOnly, @Nullable AtomicOperationsSnapshot sharedSnapshot) {
     this.session = session;
     this.id = txId;
     this.readOnly = readOnly;
+    this.sharedSnapshot = sharedSnapshot;
   }
 
   protected FrontendTransactionImpl(@Nonnull final DatabaseSessionEmbedded session, long id) {
     this.session = session;
     this.id = id;
     readOnly = false;
+    sharedSnapshot = null;
   }
 
   @Override
@@ -238,7 +279,14 @@ public class FrontendTransactionImpl implements
       localCache.clear();
 
       var storage = session.getStorage();
-      atomicOperation = storage.startStorageTx();
+      var sharedContext = session.getSharedContext();
+      var sharedResultCache =
+          sharedContext != null ? sharedContext.getSharedQueryResultCache() : null;
+      sharedCacheEpoch =
+          sharedResultCache != null && sharedSnapshot == null
+              ? sharedResultCache.currentEpoch()
+              : -1;
+      atomicOperation = storage.startStorageTx(sharedSnapshot);
       storageTxThreadId = Thread.currentThread().threadId();
 
       // Wipe any cache state carried over from a prior transaction on this reused transaction object.
@@ -253,6 +301,7 @@ public class FrontendTransactionImpl implements
       }
       cacheCodeDepth = 0;
       cacheResolved = false;
+      durability = null;
     } else {
       if (status == TXSTATUS.ROLLED_BACK || status == TXSTATUS.ROLLBACKING) {
         throw new RollbackException(
@@ -702,6 +751,10 @@ public class FrontendTransactionImpl implements
       if (txEntry.recordBeforeCallBackDirtyCounter < record.getDirtyCounter()) {
         operationsBetweenCallbacks.put(record.getIdentity(), txEntry);
       }
+
+      if (record instanceof RecordBytes blob) {
+        accountBlobContent(blob, txEntry.type != RecordOperation.DELETED);
+      }
     } catch (Exception e) {
       rollbackInternal();
       throw e;
@@ -709,6 +762,46 @@ public class FrontendTransactionImpl implements
 
   }
 
+  /**
+   * Updates the amount of blob content kept in memory after the blob was changed, and moves the
+   * content of the blob to the spill if it does not fit into the budget anymore. The size counted
+   * for the previous content of the blob is released first, so replaced, spilled and deleted
+   * content does not consume the budget.
+   */
+  private void accountBlobContent(RecordBytes blob, boolean keepsContent) {
+    final var previousContentLength = blobBytesInMemoryByBlob.remove(blob);
+    if (previousContentLength != null) {
+      blobBytesInMemory -= previousContentLength;
+    }
+    if (!keepsContent || blob.isContentSpilled()) {
+      return;
+    }
+
+    final var threshold =
+        session.getConfiguration().getValueAsLong(GlobalConfiguration.TX_BLOB_SPILL_THRESHOLD);
+    if (threshold <= 0) {
+      return;
+    }
+
+    final var content = blob.toStream();
+    if (blobBytesInMemory + content.length <= threshold) {
+      blobBytesInMemory += content.length;
+      blobBytesInMemoryByBlob.put(blob, content.length);
+      return;
+    }
+
+    if (blobSpill == null) {
+      try {
+        blobSpill = new TransactionBlobSpill(SpillFile.spillDirectory(session));
+      } catch (IOException e) {
+        throw BaseException.wrapException(
+            new DatabaseException(session, "Error during creation of transaction spill file"),
+            e, session);
+      }
+    }
+    blob.spillContent(blobSpill);
+  }
+
   private Map<RID, RID> doCommit(
       @Nullable TransactionMetricsListener metricsListener,
       @Nullable QueryMonitoringMode metricsMode,
@@ -1108,6 +1201,7 @@ public class FrontendTransactionImpl implements
     dbCache.clear();
 
     clearUnfinishedChanges();
+    closeBlobSpill();
 
     recordSerializationContext.clear();
   }
@@ -1123,6 +1217,22 @@ public class FrontendTransactionImpl implements
     userData.clear();
   }
 
+  private void closeBlobSpill() {
+    blobBytesInMemory = 0;
+    blobBytesInMemoryByBlob.clear();
+    if (blobSpill == null) {
+      return;
+    }
+
+    try {
+      blobSpill.close();
+    } catch (IOException e) {
+      LogManager.instance().error(this, "Error during removal of transaction spill file", e);
+    } finally {
+      blobSpill = null;
+    }
+  }
+
   @Override
   public boolean assertIdentityChangedAfterCommit(final RecordIdInternal oldRid,
       final RecordIdInternal newRid) {
@@ -1406,6 +1516,41 @@ public class FrontendTransactionImpl implements
     return atomicOperation;
   }
 
+  /**
+   * Durability requested for the commit of this transaction or {@code null} if the durability
+   * configured by {@link com.jetbrains.youtrackdb.api.config.GlobalConfiguration#TX_DURABILITY} has
+   * to be used.
+   */
+  @Nullable public Durability getDurability() {
+    return durability;
+  }
+
+  /**
+   * Requests the durability for the commit of this transaction. If the durability is requested
+   * several times, for example by commits of nested transactions, the strongest one is kept.
+   */
+  public void requestDurability(@Nonnull Durability durability) {
+    if (this.durability == null || this.durability.compareTo(durability) < 0) {
+      this.durability = durability;
+    }
+  }
+
+  /**
+   * Returns {@code true} if this transaction observes the snapshot of another transaction instead
+   * of its own one.
+   */
+  public boolean isOnSharedSnapshot() {
+    return sharedSnapshot != null;
+  }
+
+  /**
+   * Returns the epoch of the shared query result cache which precedes the snapshot of this
+   * transaction, or -1 if the transaction can not use the shared cache.
+   */
+  public long getSharedCacheEpoch() {
+    return sharedCacheEpoch;
+  }
+
   private enum Dependency {
     Unknown, Yes, No
   }
@@ -1935,6 +2080,12 @@ public class FrontendTransactionImpl implements
     return session.commit();
   }
 
+  @Override
+  public Map<RID, RID> commit(@Nonnull Durability durability) throws TransactionException {
+    checkIfActive();
+    return session.commit(durability);
+  }
+
   @Override
   public void rollback() throws TransactionException {
     checkIfActive();
@@ -252,6 +252,11 @@ public class FrontendTransactionNoTx implements FrontendTransaction {
     throw new UnsupportedOperationException("not supported in no tx mode");
   }
 
+  @Override
+  public Map<RID, RID> commit(@Nonnull Durability durability) throws TransactionException {
+    throw new UnsupportedOperationException("not supported in no tx mode");
+  }
+
   @Override
   public void rollback() throws TransactionException {
     throw new UnsupportedOperationException("not supported in no tx mode");
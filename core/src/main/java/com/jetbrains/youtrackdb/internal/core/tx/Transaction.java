@@ -260,6 +260,18 @@ public interface Transaction {
    */
   @Nullable Map<RID, RID> commit() throws TransactionException;
 
+  /**
+   * Commits the current transaction like {@link #commit()} and returns only when the changes have
+   * the requested durability. If a nested transaction is committed, the durability is applied to
+   * the commit of the highest level transaction, the strongest requested durability wins.
+   *
+   * @param durability durability of the committed changes.
+   * @return Map between the synthetic RIDs of new records created inside transaction and the
+   * persistent RIDs assigned to records during commit or <code>null</code> if transaction is not
+   * the highest level transaction and changes are not commited yet as a result.
+   */
+  @Nullable Map<RID, RID> commit(@Nonnull Durability durability) throws TransactionException;
+
   /**
    * Aborts the current running transaction. All the pending changed entities will be restored in
    * the data store.
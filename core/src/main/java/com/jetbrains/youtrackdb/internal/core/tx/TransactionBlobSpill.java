@@ -0,0 +1,92 @@
+package com.jetbrains.youtrackdb.internal.core.tx;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Temporary append-only file which keeps the content of blobs changed by a transaction out of the
+ * Java heap until the transaction is committed or rolled back. Every written chunk is addressed by
+ * the offset returned from {@link #write(byte[])}, chunks are never overwritten, and the file is
+ * removed once the spill is closed.
+ *
+ * <p>Only blob content is spilled. Entities and index changes of the transaction stay in the heap:
+ * an entity can not be serialized before commit while its link bags have pending changes or index
+ * tracking still needs its original property values, and index changes are keyed by the RIDs of
+ * new records, which are reassigned at commit.
+ *
+ * <p>A spill belongs to a single transaction and so is accessed by a single thread.
+ */
+public final class TransactionBlobSpill implements Closeable {
+
+  private final Path file;
+  private final FileChannel channel;
+  private long size;
+
+  /** Creates the spill file in the given directory, creating the directory if needed. */
+  public TransactionBlobSpill(Path directory) throws IOException {
+    Files.createDirectories(directory);
+    file = Files.createTempFile(directory, "tx-", ".spill");
+    try {
+      channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    } catch (IOException e) {
+      Files.deleteIfExists(file);
+      throw e;
+    }
+  }
+
+  /**
+   * Appends the given content to the file.
+   *
+   * @return offset of the content which is passed to {@link #read(long, int)}
+   */
+  public long write(byte[] content) throws IOException {
+    final var offset = size;
+    final var buffer = ByteBuffer.wrap(content);
+    while (buffer.hasRemaining()) {
+      size += channel.write(buffer, size);
+    }
+    return offset;
+  }
+
+  /** Reads back the content of the given length which was written at the given offset. */
+  public byte[] read(long offset, int length) throws IOException {
+    if (offset < 0 || offset + length > size) {
+      throw new IllegalArgumentException(
+          "Content [" + offset + ", " + (offset + length) + ") is out of spill of size " + size);
+    }
+
+    final var content = new byte[length];
+    final var buffer = ByteBuffer.wrap(content);
+    while (buffer.hasRemaining()) {
+      final var read = channel.read(buffer, offset + buffer.position());
+      if (read < 0) {
+        throw new EOFException("Unexpected end of transaction spill file " + file);
+      }
+    }
+    return content;
+  }
+
+  /** Amount of bytes written to the spill. */
+  public long size() {
+    return size;
+  }
+
+  public boolean isOpen() {
+    return channel.isOpen();
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      channel.close();
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+}
@@ -560,6 +560,30 @@ public class CompareInByteBufferTest {
         new byte[] {42}, new byte[] {42}, 0);
   }
 
+  @Test
+  public void testBinaryLongArraysCompareWordsAndTail() {
+    // Arrays longer than a word are compared 8 bytes at once, then byte by byte — a difference
+    // in every position of both parts must give the unsigned byte order.
+    final var base = new byte[19];
+    for (var i = 0; i < base.length; i++) {
+      base[i] = (byte) (i * 37);
+    }
+    assertCompare(BinaryTypeSerializer.INSTANCE, base, base.clone(), 0);
+
+    for (var i = 0; i < base.length; i++) {
+      final var greater = base.clone();
+      greater[i] = (byte) 0xFF;
+      if (base[i] != (byte) 0xFF) {
+        assertCompare(BinaryTypeSerializer.INSTANCE, base, greater, -1);
+        assertCompare(BinaryTypeSerializer.INSTANCE, greater, base, 1);
+      }
+    }
+
+    final var prefix = java.util.Arrays.copyOf(base, 16);
+    assertCompare(BinaryTypeSerializer.INSTANCE, prefix, base, -1);
+    assertCompare(BinaryTypeSerializer.INSTANCE, base, prefix, 1);
+  }
+
   // =====================================================================
   // BinaryTypeSerializer tests — compareInByteBufferWithWALChanges
   // Verifies the WAL-overlay comparison path that deserializes both sides.
@@ -0,0 +1,236 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jetbrains.youtrackdb.internal.core.compression;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import com.jetbrains.youtrackdb.internal.core.exception.ConfigurationException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Tests of the {@link Compression} SPI: the LZ4 implementation used for page compression, the
+ * array based fallbacks of the {@link ByteBuffer} methods and the {@link CompressionFactory}
+ * registry.
+ */
+public class CompressionTest {
+
+  /**
+   * Array based LZ4 methods must round-trip both compressible and random content, windowed
+   * compression must see only the passed in window.
+   */
+  @Test
+  public void lz4ArrayRoundTrip() {
+    final var compressible = new byte[8 * 1024];
+    Arrays.fill(compressible, 100, 200, (byte) 42);
+
+    final var compressed = LZ4Compression.FAST.compress(compressible);
+    assertTrue(
+        "zero filled content has to be compressed, size " + compressed.length,
+        compressed.length < compressible.length / 10);
+    assertArrayEquals(compressible, LZ4Compression.FAST.uncompress(compressed));
+
+    final var random = new byte[1024];
+    new Random(42).nextBytes(random);
+    assertArrayEquals(random, LZ4Compression.HIGH.uncompress(LZ4Compression.HIGH.compress(random)));
+
+    final var window = LZ4Compression.FAST.compress(random, 10, 100);
+    assertArrayEquals(
+        Arrays.copyOfRange(random, 10, 110), LZ4Compression.FAST.uncompress(window));
+
+    final var prefixed = new byte[compressed.length + 3];
+    System.arraycopy(compressed, 0, prefixed, 3, compressed.length);
+    assertArrayEquals(
+        compressible, LZ4Compression.FAST.uncompress(prefixed, 3, compressed.length));
+  }
+
+  /**
+   * Direct buffer based LZ4 methods must round-trip content placed at arbitrary offsets, and must
+   * report content which does not fit into destination instead of throwing.
+   */
+  @Test
+  public void lz4ByteBufferRoundTrip() {
+    final var source = ByteBuffer.allocateDirect(4 * 1024);
+    for (var i = 0; i < source.capacity(); i += 8) {
+      source.put(i, (byte) i);
+    }
+
+    final var compressed = ByteBuffer.allocateDirect(8 * 1024);
+    final var compressedLength =
+        LZ4Compression.FAST.compress(source, 16, 4000, compressed, 4, 8 * 1024 - 4);
+    assertTrue(compressedLength > 0 && compressedLength < 4000);
+    assertEquals("positions must not be changed", 0, source.position());
+    assertEquals("positions must not be changed", 0, compressed.position());
+
+    final var restored = ByteBuffer.allocateDirect(4 * 1024);
+    LZ4Compression.FAST.uncompress(compressed, 4, compressedLength, restored, 16, 4000);
+    for (var i = 16; i < 4016; i++) {
+      assertEquals("byte " + i, source.get(i), restored.get(i));
+    }
+
+    final var random = new byte[1024];
+    new Random(42).nextBytes(random);
+    assertEquals(
+        "random content does not fit into destination of the same size",
+        -1,
+        LZ4Compression.FAST.compress(
+            ByteBuffer.wrap(random), 0, random.length, ByteBuffer.allocate(1024), 0, 1024));
+  }
+
+  /**
+   * Broken compressed content must be reported by exception, not by memory corruption or silently
+   * wrong data.
+   */
+  @Test
+  public void lz4RejectsBrokenContent() {
+    final var source = ByteBuffer.allocate(1024);
+    final var compressed = ByteBuffer.allocate(2048);
+    final var compressedLength = LZ4Compression.FAST.compress(source, 0, 1024, compressed, 0, 2048);
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> LZ4Compression.FAST.uncompress(
+            compressed, 0, compressedLength, ByteBuffer.allocate(2048), 0, 2048));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> LZ4Compression.FAST.uncompress(
+            compressed, 0, compressedLength - 1, ByteBuffer.allocate(1024), 0, 1024));
+  }
+
+  @Test
+  public void lz4ConfigureSelectsMode() {
+    assertSame(LZ4Compression.FAST, LZ4Compression.HIGH.configure(null));
+    assertSame(LZ4Compression.FAST, LZ4Compression.HIGH.configure("fast"));
+    assertSame(LZ4Compression.HIGH, LZ4Compression.FAST.configure("HIGH"));
+    assertTrue(LZ4Compression.HIGH.isHighCompression());
+    assertThrows(IllegalArgumentException.class, () -> LZ4Compression.FAST.configure("best"));
+  }
+
+  /**
+   * Codecs which implement only array based methods must still be usable through the
+   * {@link ByteBuffer} based methods.
+   */
+  @Test
+  public void byteBufferMethodsFallBackToArrayMethods() {
+    final Compression identity = new IdentityCompression();
+
+    final var source = ByteBuffer.wrap(new byte[] {1, 2, 3, 4, 5});
+    final var destination = ByteBuffer.allocate(8);
+    assertEquals(3, identity.compress(source, 1, 3, destination, 2, 6));
+    assertArrayEquals(new byte[] {0, 0, 2, 3, 4, 0, 0, 0}, destination.array());
+    assertEquals(
+        "content does not fit into destination", -1,
+        identity.compress(source, 0, 5, destination, 0, 4));
+
+    final var restored = ByteBuffer.allocate(4);
+    identity.uncompress(destination, 2, 3, restored, 1, 3);
+    assertArrayEquals(new byte[] {0, 2, 3, 4}, restored.array());
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> identity.uncompress(destination, 2, 3, restored, 0, 4));
+  }
+
+  @Test
+  public void factoryResolvesRegisteredCompressions() {
+    assertNull(CompressionFactory.INSTANCE.getCompression(null, null));
+    assertNull(CompressionFactory.INSTANCE.getCompression(CompressionFactory.NOTHING, "high"));
+    assertSame(LZ4Compression.FAST, CompressionFactory.INSTANCE.getCompression("lz4", null));
+    assertSame(LZ4Compression.HIGH, CompressionFactory.INSTANCE.getCompression("lz4", "high"));
+    assertTrue(CompressionFactory.INSTANCE.getCompressions().contains(LZ4Compression.NAME));
+
+    assertThrows(
+        ConfigurationException.class,
+        () -> CompressionFactory.INSTANCE.getCompression("absentCompression", null));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> CompressionFactory.INSTANCE.register(LZ4Compression.HIGH));
+  }
+
+  /**
+   * Stateful compressions registered by class get a new instance per request.
+   */
+  @Test
+  public void factoryCreatesInstancesOfStatefulCompressions() {
+    if (!CompressionFactory.INSTANCE.getCompressions().contains(StatefulCompression.NAME)) {
+      CompressionFactory.INSTANCE.register(StatefulCompression.class);
+    }
+
+    final var first = CompressionFactory.INSTANCE.getCompression(StatefulCompression.NAME, "a");
+    final var second = CompressionFactory.INSTANCE.getCompression(StatefulCompression.NAME, "b");
+
+    assertTrue(first instanceof StatefulCompression);
+    assertTrue(first != second);
+    assertEquals("a", ((StatefulCompression) first).options);
+    assertEquals("b", ((StatefulCompression) second).options);
+  }
+
+  private static class IdentityCompression implements Compression {
+
+    @Override
+    public byte[] compress(byte[] content) {
+      return Arrays.copyOf(content, content.length);
+    }
+
+    @Override
+    public byte[] compress(byte[] content, int offset, int length) {
+      return Arrays.copyOfRange(content, offset, offset + length);
+    }
+
+    @Override
+    public byte[] uncompress(byte[] content) {
+      return Arrays.copyOf(content, content.length);
+    }
+
+    @Override
+    public byte[] uncompress(byte[] content, int offset, int length) {
+      return Arrays.copyOfRange(content, offset, offset + length);
+    }
+
+    @Override
+    public String name() {
+      return "identity";
+    }
+
+    @Override
+    public Compression configure(String iOptions) {
+      return this;
+    }
+  }
+
+  public static final class StatefulCompression extends IdentityCompression {
+
+    private static final String NAME = "statefulTestCompression";
+
+    private String options;
+
+    @Override
+    public String name() {
+      return NAME;
+    }
+
+    @Override
+    public Compression configure(String iOptions) {
+      this.options = iOptions;
+      return this;
+    }
+  }
+}
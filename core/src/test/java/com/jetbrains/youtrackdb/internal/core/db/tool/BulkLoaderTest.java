@@ -0,0 +1,162 @@
+package com.jetbrains.youtrackdb.internal.core.db.tool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import com.jetbrains.youtrackdb.api.DatabaseType;
+import com.jetbrains.youtrackdb.api.YouTrackDB.LocalUserCredential;
+import com.jetbrains.youtrackdb.api.YouTrackDB.PredefinedLocalRole;
+import com.jetbrains.youtrackdb.internal.DbTestBase;
+import com.jetbrains.youtrackdb.internal.core.db.DatabaseSessionEmbedded;
+import com.jetbrains.youtrackdb.internal.core.index.IndexManagerEmbedded;
+import com.jetbrains.youtrackdb.internal.core.metadata.schema.schema.PropertyType;
+import com.jetbrains.youtrackdb.internal.core.metadata.schema.schema.SchemaClass;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of {@link BulkLoader}: records are loaded in batches, deferred indexes are not maintained
+ * nor used by queries during the load and are complete once the loader is closed or, if it was
+ * never closed, once the database is opened again.
+ */
+public class BulkLoaderTest extends DbTestBase {
+
+  private static final String CLS = "BulkLoaded";
+  private static final String IDX = CLS + ".name";
+
+  @Override
+  @Before
+  public void beforeTest() throws Exception {
+    super.beforeTest();
+    createSchema(session);
+  }
+
+  private static void createSchema(DatabaseSessionEmbedded db) {
+    var cls = db.getMetadata().getSchema().createClass(CLS);
+    cls.createProperty("name", PropertyType.STRING);
+    cls.createIndex(IDX, SchemaClass.INDEX_TYPE.UNIQUE, "name");
+  }
+
+  private static long load(BulkLoader loader, int count) {
+    return loader.load(IntStream.range(0, count).iterator(),
+        (tx, i) -> tx.newEntity(CLS).setProperty("name", "name" + i));
+  }
+
+  @Test
+  public void deferredIndexIsRebuiltOnClose() {
+    var loader = new BulkLoader(session, null).setBatchSize(7).deferIndexesOf(CLS);
+    assertTrue(session.isIndexMaintenanceDeferred(IDX));
+
+    var loaded = load(loader, 100);
+    assertEquals(100, loaded);
+
+    var index = session.getSharedContext().getIndexManager().getIndex(IDX);
+    session.begin();
+    assertEquals(100, session.countClass(CLS));
+    assertNull(index.get(session, "name42"));
+    session.rollback();
+
+    loader.close();
+    assertFalse(session.isIndexMaintenanceDeferred(IDX));
+    assertEquals(100, loader.getLoadedRecords());
+
+    session.begin();
+    for (var i = 0; i < 100; i++) {
+      assertNotNull(index.get(session, "name" + i));
+    }
+    session.rollback();
+  }
+
+  @Test
+  public void deferredIndexIsNotUsedByQueriesTillRebuilt() {
+    var loader = new BulkLoader(session, null).deferIndexesOf(CLS);
+    assertEquals("[\"" + IDX + "\"]",
+        session.getStorage().getProperty(IndexManagerEmbedded.REBUILD_PENDING_INDEXES_PROPERTY));
+    assertTrue(session.isIndexRebuildPending(IDX));
+    var index = session.getSharedContext().getIndexManager().getIndex(IDX);
+    assertFalse(session.isIndexUsableByQueries(index));
+    assertTrue(session.indexesUsableByQueries(List.of(index)).isEmpty());
+
+    load(loader, 100);
+
+    // The index misses the loaded records, so the query has to scan the class.
+    session.begin();
+    try (var result = session.query("select from " + CLS + " where name = 'name42'")) {
+      assertEquals(1, result.stream().count());
+    }
+    session.rollback();
+
+    loader.close();
+    assertNull(
+        session.getStorage().getProperty(IndexManagerEmbedded.REBUILD_PENDING_INDEXES_PROPERTY));
+    assertFalse(session.isIndexRebuildPending(IDX));
+    assertTrue(session.isIndexUsableByQueries(index));
+  }
+
+  @Test
+  public void deferredIndexIsRebuiltOnOpenIfLoaderWasNotClosed() {
+    var dbName = databaseName + "OnDisk";
+    youTrackDB.create(dbName, DatabaseType.DISK,
+        new LocalUserCredential(adminUser, adminPassword, PredefinedLocalRole.ADMIN));
+    try {
+      var db = youTrackDB.open(dbName, adminUser, adminPassword);
+      createSchema(db);
+
+      // The loader is never closed, as if the process died in the middle of the load.
+      load(new BulkLoader(db, null).deferIndexesOf(CLS), 100);
+      db.close();
+      youTrackDB.internal.forceDatabaseClose(dbName);
+
+      db = youTrackDB.open(dbName, adminUser, adminPassword);
+      try {
+        assertNull(
+            db.getStorage().getProperty(IndexManagerEmbedded.REBUILD_PENDING_INDEXES_PROPERTY));
+        assertFalse(db.isIndexRebuildPending(IDX));
+
+        var index = db.getSharedContext().getIndexManager().getIndex(IDX);
+        db.begin();
+        for (var i = 0; i < 100; i++) {
+          assertNotNull(index.get(db, "name" + i));
+        }
+        db.rollback();
+      } finally {
+        db.close();
+      }
+    } finally {
+      youTrackDB.drop(dbName);
+    }
+  }
+
+  @Test
+  public void failedBatchIsRolledBack() {
+    try (var loader = new BulkLoader(session, null).setBatchSize(10)) {
+      assertThrows(IllegalStateException.class, () -> loader.load(
+          IntStream.range(0, 25).iterator(), (tx, i) -> {
+            if (i == 23) {
+              throw new IllegalStateException("broken item");
+            }
+            tx.newEntity(CLS).setProperty("name", "name" + i);
+          }));
+      assertFalse(session.isTxActive());
+    }
+
+    session.begin();
+    assertEquals(20, session.countClass(CLS));
+    session.rollback();
+  }
+
+  @Test
+  public void closedLoaderRejectsLoads() {
+    var loader = new BulkLoader(session, null);
+    loader.close();
+
+    assertThrows(IllegalStateException.class,
+        () -> loader.load(IntStream.range(0, 1).iterator(), (tx, i) -> tx.newEntity(CLS)));
+  }
+}
@@ -141,7 +141,7 @@ public class GremlinTranslationTelemetryTest extends GraphBaseTest {
   @Test
   public void apply_repeatVeto_recordsDecline() {
     var beforeDeclines = metrics().getDeclines();
-    var admin = graph.traversal().V().repeat(__.out()).times(2).asAdmin();
+    var admin = graph.traversal().V().repeat(__.out().out()).times(1).asAdmin();
     TraversalHelper.applyTraversalRecursively(RepeatDeclineStrategy.instance()::apply, admin);
     assertThat(RepeatDeclineStrategy.isVetoed(admin)).isTrue();
 
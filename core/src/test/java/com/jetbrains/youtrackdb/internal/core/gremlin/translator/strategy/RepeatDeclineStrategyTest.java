@@ -25,8 +25,9 @@ import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.junit.Test;
 
 /**
- * Pins the decline of {@code repeat(...)}-bearing traversals. Variable-depth repetition is out of
- * scope for the translator, so every such traversal must reach the native pipeline untouched.
+ * Pins how {@code repeat(...)}-bearing traversals reach the translator. A repeat of one hop is
+ * marked for the frontier MATCH edge, which merges paths per depth the way the native barriers
+ * merge traversers; every other repeat is vetoed and must reach the native pipeline untouched.
  *
  * <p>The defect these tests exist for: {@code RepeatUnrollStrategy} rewrites {@code
  * repeat(__.out()).times(n)} into n chained {@code VertexStep}s separated by {@code
@@ -35,8 +36,14 @@ import org.junit.Test;
  * single MATCH pattern and the planner then materialized every path — on the TinkerPop grateful-dead
  * fixture {@code times(8)} has 2,505,037,961,767,380 of them, so the query never returned. Native
  * Gremlin answers it in milliseconds because the barriers merge identical traversers into bulks.
+ * The one-hop {@code times(n)}, {@code until(...)} and {@code emit()} forms now translate into the
+ * frontier edge, which keeps that merge; {@link #assertFrontierAndEquals} pins that they translate,
+ * carry the frontier mark, and return the native answer.
  *
- * <p>Six cases go through {@link #assertDeclinedAndEquals}, which asserts four things per case:
+ * <p>The veto cases use {@code repeat(__.out().out()).times(1)} where they need a shape the
+ * frontier does not take: its body is two hops, and it reaches the same two-hop {c, d} as {@code
+ * repeat(__.out()).times(2)}. Three cases go through {@link #assertDeclinedAndEquals}, which
+ * asserts four things per case:
  *
  * <ul>
  *   <li><b>A control on the exact shape</b>. The same traversal is compiled once with {@link
@@ -54,11 +61,10 @@ import org.junit.Test;
  *       value so the comparison cannot hold vacuously over two empty results.
  * </ul>
  *
- * <p>Both the {@code .count()} form and the {@code .values(...)} form are covered, because the value
- * form materializes the same path space and a count-only test would pass while the catastrophic
- * shape stayed translated. Both polymorphism modes are exercised because the class constraint a
- * recogniser emits differs between them, and a decline that only held under one mode would leave the
- * other translating.
+ * <p>Both the {@code .count()} form and the {@code .values(...)} form of the frontier are covered,
+ * because the count sums the merged bulk while the value form expands it, and a count-only test
+ * would pass with a boundary that dropped the bulk. Both polymorphism modes are exercised because
+ * the class constraint a recogniser emits differs between them.
  *
  * <p>Nine further cases stand alone: {@link #repeatInsideAChildStartingAtV_vetoesThatChildToo} (a
  * repeat one nesting level down, in a child the translator would otherwise fold on its own), {@link
@@ -108,58 +114,137 @@ public class RepeatDeclineStrategyTest extends GraphBaseTest {
   }
 
   /**
-   * {@code g.V().repeat(__.out()).times(2).count()} under the default polymorphic mode must run
-   * natively and return 2 — the two vertices reachable in exactly two hops.
+   * {@code g.V().repeat(__.out()).times(2).count()} under the default polymorphic mode translates
+   * into one frontier edge and returns 2 — the two vertices reachable in exactly two hops. The
+   * unroll still runs, so what the walker folds is the chain of hops it leaves behind.
    */
   @Test
-  public void repeatTimesCount_declinesAndCountsNatively_polymorphic() {
+  public void repeatTimesCount_translatesToTheFrontier_polymorphic() {
     seedKnowsChain();
-    assertDeclinedAndEquals(
+    assertFrontierAndEquals(
         "g.V().repeat(out()).times(2).count()",
         () -> graph.traversal().V().repeat(__.out()).times(2).count(),
-        List.of(2L),
-        TRANSLATES_WITHOUT_THE_VETO);
+        List.of(2L));
   }
 
   /**
    * The same {@code .count()} shape under non-polymorphic mode. The mode changes how a recogniser
-   * would constrain the class, so the decline is pinned separately rather than assumed to carry.
+   * constrains the class, so the translation is pinned separately rather than assumed to carry.
    */
   @Test
-  public void repeatTimesCount_declinesAndCountsNatively_nonPolymorphic() {
+  public void repeatTimesCount_translatesToTheFrontier_nonPolymorphic() {
     seedKnowsChain();
     setPolymorphicByDefault(false);
-    assertDeclinedAndEquals(
+    assertFrontierAndEquals(
         "g.V().repeat(out()).times(2).count() (non-polymorphic)",
         () -> graph.traversal().V().repeat(__.out()).times(2).count(),
-        List.of(2L),
-        TRANSLATES_WITHOUT_THE_VETO);
+        List.of(2L));
   }
 
   /**
-   * {@code g.V().repeat(__.out()).times(2).values("name")} under the default polymorphic mode. It
-   * materializes the same path space as the count form, so it is pinned in its own right: a fix
-   * verified only through {@code .count()} would leave this shape translated.
+   * {@code g.V().repeat(__.out()).times(2).values("name")} under the default polymorphic mode. The
+   * boundary expands each merged row into as many traversers as its bulk, so the value form is
+   * pinned in its own right.
    */
   @Test
-  public void repeatTimesValues_declinesAndMatchesNative_polymorphic() {
+  public void repeatTimesValues_translatesToTheFrontier_polymorphic() {
     seedKnowsChain();
-    assertDeclinedAndEquals(
+    assertFrontierAndEquals(
         "g.V().repeat(out()).times(2).values(name)",
         () -> graph.traversal().V().repeat(__.out()).times(2).values("name"),
-        List.of("c", "d"),
-        TRANSLATES_WITHOUT_THE_VETO);
+        List.of("c", "d"));
   }
 
   /** The value form under non-polymorphic mode; same reasoning as the count form's second case. */
   @Test
-  public void repeatTimesValues_declinesAndMatchesNative_nonPolymorphic() {
+  public void repeatTimesValues_translatesToTheFrontier_nonPolymorphic() {
     seedKnowsChain();
     setPolymorphicByDefault(false);
-    assertDeclinedAndEquals(
+    assertFrontierAndEquals(
         "g.V().repeat(out()).times(2).values(name) (non-polymorphic)",
         () -> graph.traversal().V().repeat(__.out()).times(2).values("name"),
-        List.of("c", "d"),
+        List.of("c", "d"));
+  }
+
+  /**
+   * Paths that reach the same vertex at the same depth are merged into one row, and the count sums
+   * their bulk rather than counting rows. Over a-b-c-d, two {@code both()} hops from b reach b over
+   * two paths (via a and via c), and there are ten two-hop walks in all against seven distinct
+   * start/end pairs, so a count of merged rows would come out short.
+   */
+  @Test
+  public void repeatTimesCount_sumsTheMergedBulk() {
+    seedKnowsChain();
+    assertFrontierAndEquals(
+        "g.V().repeat(both()).times(2).count()",
+        () -> graph.traversal().V().repeat(__.both()).times(2).count(),
+        List.of(10L));
+  }
+
+  /**
+   * {@code until(has(...))} survives the unroll as a {@code RepeatStep} and maps onto the frontier's
+   * while condition. Walking {@code knows} until the vertex is d reaches d once from each of a, b
+   * and c; d itself has no outgoing edge and is dropped.
+   */
+  @Test
+  public void repeatUntilHas_translatesToTheFrontier() {
+    seedKnowsChain();
+    assertFrontierAndEquals(
+        "g.V().repeat(out(knows)).until(has(name, d))",
+        () -> graph
+            .traversal()
+            .V()
+            .repeat(__.out("knows"))
+            .until(__.has("name", "d"))
+            .values("name"),
+        List.of("d", "d", "d"));
+  }
+
+  /**
+   * {@code emit()} before the body emits the start as well as every later depth, and {@code
+   * times(2)} stops the expansion after the second hop.
+   */
+  @Test
+  public void emitBeforeRepeatTimes_translatesToTheFrontier() {
+    seedKnowsChain();
+    assertFrontierAndEquals(
+        "g.V().has(name, a).emit().repeat(out()).times(2)",
+        () -> graph
+            .traversal()
+            .V()
+            .has("name", "a")
+            .emit()
+            .repeat(__.out())
+            .times(2)
+            .values("name"),
+        List.of("a", "b", "c"));
+  }
+
+  /**
+   * {@code emit()} after the body with no terminator walks until no hop is left, emitting every
+   * depth from 1; the count sums the emitted rows.
+   */
+  @Test
+  public void repeatEmitCount_translatesToTheFrontier() {
+    seedKnowsChain();
+    assertFrontierAndEquals(
+        "g.V().repeat(out()).emit().count()",
+        () -> graph.traversal().V().repeat(__.out()).emit().count(),
+        List.of(6L));
+  }
+
+  /**
+   * A two-hop body is not a frontier shape, so {@code g.V().repeat(__.out().out()).times(1)} is
+   * vetoed — yet once the unroll has flattened it, it is the same hop chain the translator would
+   * fold path by path. The control pins that the decline is the veto's work.
+   */
+  @Test
+  public void repeatOfTwoHops_isVetoedAndCountsNatively() {
+    seedKnowsChain();
+    assertDeclinedAndEquals(
+        "g.V().repeat(out().out()).times(1).count()",
+        () -> graph.traversal().V().repeat(__.out().out()).times(1).count(),
+        List.of(2L),
         TRANSLATES_WITHOUT_THE_VETO);
   }
 
@@ -171,10 +256,10 @@ public class RepeatDeclineStrategyTest extends GraphBaseTest {
    * <p>This case is a guard, not a witness for the stall this strategy cures. {@code
    * RepeatUnrollStrategy} unrolls only a {@code LoopTraversal} terminator — that is, only {@code
    * times(n)} — so an {@code until}-terminated {@code RepeatStep} survives into the
-   * provider-optimization pass, where the walker has no recogniser for it and declines on its own
-   * account. What the case pins is that a decline keyed on {@code times(n)} alone would not cover
-   * {@code until}, and (through the marker assertion in the helper) that the veto does fire here
-   * even though the unroll does not.
+   * provider-optimization pass, where the walker declines it on its own account when the frontier
+   * is not enabled. What the case pins is that an {@code until} which walks an edge is not a record
+   * filter the frontier can test, and (through the marker assertion in the helper) that the veto
+   * rather than the frontier mark fires for it.
    */
   @Test
   public void repeatUntil_declinesAndMatchesNative() {
@@ -217,7 +302,8 @@ public class RepeatDeclineStrategyTest extends GraphBaseTest {
 
   /**
    * A {@code repeat(...)} inside a sub-traversal must be vetoed in that sub-traversal's own right,
-   * not only through its root. {@code g.V().map(__.V().repeat(__.out()).times(n)...)} is the shape:
+   * not only through its root. {@code g.V().map(__.V().repeat(__.out().out()).times(n)...)} is the
+   * shape:
    * the child's session resolves through its parent, a mid-traversal {@code V()} is a
    * vertex-emitting {@code GraphStep}, and once the unroll has flattened the repeat the child is an
    * ordinary hop chain that the translator folds into a MATCH pattern of its own — the same
@@ -237,7 +323,7 @@ public class RepeatDeclineStrategyTest extends GraphBaseTest {
     setTranslatorEnabled(true);
 
     GraphTraversal<Object, String> controlChild =
-        __.<Object>V().repeat(__.out()).times(2).values("name");
+        __.<Object>V().repeat(__.out().out()).times(1).values("name");
     var controlRoot = graph.traversal().V().map(controlChild).asAdmin();
     controlRoot.setStrategies(
         controlRoot.getStrategies().clone().removeStrategies(RepeatDeclineStrategy.class));
@@ -247,7 +333,7 @@ public class RepeatDeclineStrategyTest extends GraphBaseTest {
         .isEqualTo(1);
 
     GraphTraversal<Object, String> child =
-        __.<Object>V().repeat(__.out()).times(2).values("name");
+        __.<Object>V().repeat(__.out().out()).times(1).values("name");
     var root = graph.traversal().V().map(child).asAdmin();
     root.applyStrategies();
 
@@ -313,7 +399,7 @@ public class RepeatDeclineStrategyTest extends GraphBaseTest {
     setTranslatorEnabled(true);
 
     GraphTraversal<Vertex, String> repeatChild =
-        __.<Vertex>repeat(__.out()).times(2).values("name");
+        __.<Vertex>repeat(__.out().out()).times(1).values("name");
     GraphTraversal<Vertex, String> plainChild = __.<Vertex>out().values("name");
     var root = graph.traversal().V().union(repeatChild, plainChild).asAdmin();
 
@@ -353,7 +439,7 @@ public class RepeatDeclineStrategyTest extends GraphBaseTest {
     setTranslatorEnabled(true);
 
     GraphTraversal<Object, String> child = __.<Object>V().out("knows").values("name");
-    var vetoedRoot = graph.traversal().V().repeat(__.out()).times(2).map(child).asAdmin();
+    var vetoedRoot = graph.traversal().V().repeat(__.out().out()).times(1).map(child).asAdmin();
     vetoedRoot.applyStrategies();
 
     assertThat(RepeatDeclineStrategy.isVetoed(vetoedRoot))
@@ -392,8 +478,8 @@ public class RepeatDeclineStrategyTest extends GraphBaseTest {
             .traversal()
             .withoutStrategies(GremlinToMatchStrategy.class)
             .V()
-            .repeat(__.out())
-            .times(2)
+            .repeat(__.out().out())
+            .times(1)
             .values("name")
             .asAdmin();
     admin.applyStrategies();
@@ -430,7 +516,7 @@ public class RepeatDeclineStrategyTest extends GraphBaseTest {
     seedKnowsChain();
     setTranslatorEnabled(true);
 
-    var vetoed = graph.traversal().V().repeat(__.out()).times(2).count().asAdmin();
+    var vetoed = graph.traversal().V().repeat(__.out().out()).times(1).count().asAdmin();
     vetoed.applyStrategies();
     assertThat(countBoundarySteps(vetoed))
         .as("precondition: the repeat-bearing traversal declines, so the veto did fire")
@@ -477,7 +563,7 @@ public class RepeatDeclineStrategyTest extends GraphBaseTest {
   public void translatorOff_leavesTranslatorAndUnrollRegistered() {
     seedKnowsChain();
     setTranslatorEnabled(false);
-    var admin = graph.traversal().V().repeat(__.out()).times(2).count().asAdmin();
+    var admin = graph.traversal().V().repeat(__.out().out()).times(1).count().asAdmin();
     admin.applyStrategies();
 
     assertThat(admin.getStrategies().getStrategy(GremlinToMatchStrategy.class))
@@ -525,7 +611,7 @@ public class RepeatDeclineStrategyTest extends GraphBaseTest {
     var control = graph.traversal().V().out("knows").out("knows").count().asAdmin();
     control.applyStrategies();
 
-    var vetoed = graph.traversal().V().repeat(__.out()).times(2).count().asAdmin();
+    var vetoed = graph.traversal().V().repeat(__.out().out()).times(1).count().asAdmin();
     vetoed.applyStrategies();
 
     assertThat(RepeatDeclineStrategy.isVetoed(vetoed))
@@ -614,7 +700,7 @@ public class RepeatDeclineStrategyTest extends GraphBaseTest {
   @Test
   public void applyingTheVetoTwice_wrapsTheStrategiesReferenceOnce() {
     seedKnowsChain();
-    var admin = graph.traversal().V().repeat(__.out()).times(2).count().asAdmin();
+    var admin = graph.traversal().V().repeat(__.out().out()).times(1).count().asAdmin();
 
     RepeatDeclineStrategy.instance().apply(admin);
     var afterFirstPass = admin.getStrategies();
@@ -661,6 +747,37 @@ public class RepeatDeclineStrategyTest extends GraphBaseTest {
         .isFalse();
   }
 
+  /**
+   * Runs {@code scenario}'s shape with the translator on and off. Asserts the on-run carries the
+   * frontier mark and not the veto, engages exactly one boundary step — the whole traversal, repeat
+   * included, became one MATCH — and that both runs produce {@code expected}.
+   */
+  private void assertFrontierAndEquals(
+      String scenario, Supplier<GraphTraversal<?, ?>> traversalSupplier, List<?> expected) {
+    setTranslatorEnabled(true);
+    var onAdmin = traversalSupplier.get().asAdmin();
+    onAdmin.applyStrategies();
+    assertThat(RepeatDeclineStrategy.isFrontierMarked(onAdmin))
+        .as(scenario + " (translator on) must be marked for the frontier")
+        .isTrue();
+    assertThat(RepeatDeclineStrategy.isVetoed(onAdmin))
+        .as(scenario + " (translator on) must not be vetoed")
+        .isFalse();
+    assertThat(countBoundarySteps(onAdmin))
+        .as(scenario + " (translator on) must translate into one boundary step; compiled to "
+            + onAdmin.getSteps())
+        .isEqualTo(1);
+    var onValues = sortedByStringForm(onAdmin.toList());
+
+    setTranslatorEnabled(false);
+    var offAdmin = traversalSupplier.get().asAdmin();
+    offAdmin.applyStrategies();
+    var offValues = sortedByStringForm(offAdmin.toList());
+
+    assertThat(onValues).as(scenario + " (translator on) result").isEqualTo(expected);
+    assertThat(offValues).as(scenario + " (translator off) result").isEqualTo(expected);
+  }
+
   /**
    * Runs {@code scenario}'s shape three times: once with {@link RepeatDeclineStrategy} removed as a
    * control, once with the translator on, once with it off. Asserts the control's boundary-step
@@ -1,6 +1,7 @@
 package com.jetbrains.youtrackdb.internal.core.index;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -30,27 +31,35 @@ public class DefaultIndexFactoryTest extends DbTestBase {
   // -----------------------------------------------------------------------
 
   /**
-   * getTypes must return exactly UNIQUE and NOTUNIQUE — the two supported index types.
+   * getTypes must return exactly UNIQUE, NOTUNIQUE and their point lookup (hash) variants.
    */
   @Test
-  public void getTypes_returnsUniqueAndNotUnique() {
+  public void getTypes_returnsUniqueNotUniqueAndHashVariants() {
     var types = factory.getTypes();
     assertTrue("UNIQUE must be in the types set",
         types.contains(SchemaClass.INDEX_TYPE.UNIQUE.toString()));
     assertTrue("NOTUNIQUE must be in the types set",
         types.contains(SchemaClass.INDEX_TYPE.NOTUNIQUE.toString()));
-    assertEquals("Only two index types should be declared", 2, types.size());
+    assertTrue("UNIQUE_HASH must be in the types set",
+        types.contains(SchemaClass.INDEX_TYPE.UNIQUE_HASH.toString()));
+    assertTrue("NOTUNIQUE_HASH must be in the types set",
+        types.contains(SchemaClass.INDEX_TYPE.NOTUNIQUE_HASH.toString()));
+    assertEquals("Only four index types should be declared", 4, types.size());
   }
 
   /**
-   * getAlgorithms must return BTREE as the only supported algorithm.
+   * getAlgorithms must return BTREE, NKBTREE and HASH as the supported algorithms.
    */
   @Test
-  public void getAlgorithms_returnsBtreeOnly() {
+  public void getAlgorithms_returnsBtreeNkbtreeAndHash() {
     var algos = factory.getAlgorithms();
     assertTrue("BTREE must be in the algorithms set",
         algos.contains(DefaultIndexFactory.BTREE_ALGORITHM));
-    assertEquals("Only one algorithm should be declared", 1, algos.size());
+    assertTrue("NKBTREE must be in the algorithms set",
+        algos.contains(DefaultIndexFactory.NKBTREE_ALGORITHM));
+    assertTrue("HASH must be in the algorithms set",
+        algos.contains(DefaultIndexFactory.HASH_ALGORITHM));
+    assertEquals("Only three algorithms should be declared", 3, algos.size());
   }
 
   // -----------------------------------------------------------------------
@@ -81,6 +90,24 @@ public class DefaultIndexFactoryTest extends DbTestBase {
         idx instanceof IndexNotUnique);
   }
 
+  /**
+   * createIndex with the hash types must return indexes which do not support ordered iterations.
+   */
+  @Test
+  public void createIndex_hashTypes_returnUnorderedIndexes() {
+    var storage = session.getStorage();
+    var unique = factory.createIndex(SchemaClass.INDEX_TYPE.UNIQUE_HASH.toString(), storage);
+    assertTrue("createIndex(UNIQUE_HASH) must return an IndexUniqueHash",
+        unique instanceof IndexUniqueHash);
+    assertFalse(unique.supportsOrderedIterations());
+
+    var notUnique =
+        factory.createIndex(SchemaClass.INDEX_TYPE.NOTUNIQUE_HASH.toString(), storage);
+    assertTrue("createIndex(NOTUNIQUE_HASH) must return an IndexNotUniqueHash",
+        notUnique instanceof IndexNotUniqueHash);
+    assertFalse(notUnique.supportsOrderedIterations());
+  }
+
   /**
    * createIndex with an unsupported index type must throw ConfigurationException.
    */
@@ -102,6 +129,24 @@ public class DefaultIndexFactoryTest extends DbTestBase {
         BTreeIndexEngine.VERSION, factory.getLastVersion(DefaultIndexFactory.BTREE_ALGORITHM));
   }
 
+  /**
+   * NKBTREE engines are B-tree engines with another key serializer, so they share its version.
+   */
+  @Test
+  public void getLastVersion_nkbtreeAlgorithm_returnsBtreeVersion() {
+    assertEquals("NKBTREE version must match BTreeIndexEngine.VERSION",
+        BTreeIndexEngine.VERSION, factory.getLastVersion(DefaultIndexFactory.NKBTREE_ALGORITHM));
+  }
+
+  /**
+   * HASH engines are B-tree engines over a hash table, so they share the B-tree version.
+   */
+  @Test
+  public void getLastVersion_hashAlgorithm_returnsBtreeVersion() {
+    assertEquals("HASH version must match BTreeIndexEngine.VERSION",
+        BTreeIndexEngine.VERSION, factory.getLastVersion(DefaultIndexFactory.HASH_ALGORITHM));
+  }
+
   /**
    * getLastVersion for an unknown algorithm must throw IllegalStateException.
    */
@@ -0,0 +1,139 @@
+package com.jetbrains.youtrackdb.internal.core.index;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+
+import com.jetbrains.youtrackdb.api.exception.RecordDuplicatedException;
+import com.jetbrains.youtrackdb.internal.DbTestBase;
+import java.math.BigDecimal;
+import org.junit.Test;
+
+/**
+ * UNIQUE_HASH and NOTUNIQUE_HASH indexes are kept in a paged hash table: keys must be found after
+ * the table has split its buckets many times, removed keys must disappear, and the table must
+ * survive a reopen of the database.
+ */
+public class HashIndexTest extends DbTestBase {
+
+  private static final int ACCOUNTS = 5_000;
+
+  @Test
+  public void uniqueHashIndexFindsKeysAfterSplits() {
+    session.execute("create class Account").close();
+    session.execute("create property Account.login STRING").close();
+    session.execute("create property Account.num INTEGER").close();
+    session.execute("create index Account.login on Account (login) UNIQUE_HASH").close();
+
+    var index = session.getIndex("Account.login");
+    assertEquals("HASH", index.getAlgorithm());
+    assertFalse(index.supportsOrderedIterations());
+
+    for (var batch = 0; batch < ACCOUNTS; batch += 1_000) {
+      session.begin();
+      for (var i = batch; i < batch + 1_000; i++) {
+        final var account = session.newEntity("Account");
+        account.setProperty("login", "login" + i);
+        account.setProperty("num", i);
+      }
+      session.commit();
+    }
+
+    session.begin();
+    assertLogins(0, ACCOUNTS, 1);
+    assertEquals(0, index.getRids(session, "login" + ACCOUNTS).count());
+    assertEquals(ACCOUNTS, index.stream(session).count());
+    session.commit();
+
+    session.begin();
+    session.newEntity("Account").setProperty("login", "login42");
+    assertThrows(RecordDuplicatedException.class, () -> session.commit());
+
+    session.begin();
+    session.execute("delete from Account where num < 1000").close();
+    session.commit();
+
+    session.begin();
+    assertLogins(0, 1_000, 0);
+    assertLogins(1_000, ACCOUNTS, 1);
+    session.commit();
+
+    reOpen(adminUser, adminPassword);
+    index = session.getIndex("Account.login");
+
+    session.begin();
+    assertLogins(0, 1_000, 0);
+    assertLogins(1_000, ACCOUNTS, 1);
+    try (var rs = session.query(
+        "select from Account where login in ['login7', 'login1007', 'login4999']")) {
+      assertEquals(2, rs.stream().count());
+    }
+    session.commit();
+
+    // a removed key can be inserted again
+    session.begin();
+    session.newEntity("Account").setProperty("login", "login7");
+    session.commit();
+
+    session.begin();
+    assertEquals(1, index.getRids(session, "login7").count());
+    session.commit();
+  }
+
+  @Test
+  public void notUniqueHashIndexKeepsAllRidsOfKey() {
+    session.execute("create class Item").close();
+    session.execute("create property Item.score DECIMAL").close();
+    session.execute("create property Item.code STRING").close();
+    session.execute(
+        "create index Item.score_code on Item (score, code) NOTUNIQUE_HASH").close();
+
+    final var index = session.getIndex("Item.score_code");
+    final var scores =
+        new String[] {"-10.5", "-1", "0", "0.000", "0.1", "0.10000000000000000001", "1", "1.0",
+            "1.00", "1E+3"};
+
+    session.begin();
+    for (var i = 0; i < 3_000; i++) {
+      final var item = session.newEntity("Item");
+      item.setProperty("score", new BigDecimal(scores[i % scores.length]));
+      item.setProperty("code", "c" + (i % 3));
+    }
+    session.commit();
+
+    session.begin();
+    // 1, 1.0 and 1.00 are the same key, they hash to the same bucket
+    assertEquals(300,
+        index.getRids(session, new CompositeKey(new BigDecimal("1.00"), "c0")).count());
+    try (var rs = session.query(
+        "select from Item where score = ? and code = ?", BigDecimal.ONE, "c0")) {
+      assertEquals(300, rs.stream().count());
+    }
+    try (var rs = session.query(
+        "select from Item where score = ? and code in ['c1', 'c2']", new BigDecimal("-1"))) {
+      assertEquals(200, rs.stream().count());
+    }
+    // ranges are answered without the index
+    try (var rs = session.query("select from Item where score > ?", BigDecimal.ONE)) {
+      assertEquals(300, rs.stream().count());
+    }
+    session.commit();
+
+    session.begin();
+    session.execute("delete from Item where code = 'c0'").close();
+    session.commit();
+
+    session.begin();
+    assertEquals(0, index.getRids(session, new CompositeKey(BigDecimal.ONE, "c0")).count());
+    assertEquals(300, index.getRids(session, new CompositeKey(BigDecimal.ONE, "c1")).count());
+    assertEquals(2_000, index.stream(session).count());
+    session.commit();
+  }
+
+  private void assertLogins(final int from, final int to, final long expectedCount) {
+    final var index = session.getIndex("Account.login");
+    for (var i = from; i < to; i++) {
+      assertEquals("login" + i, expectedCount, index.getRids(session, "login" + i).count());
+    }
+  }
+}
@@ -0,0 +1,115 @@
+package com.jetbrains.youtrackdb.internal.core.index;
+
+import com.jetbrains.youtrackdb.internal.DbTestBase;
+import com.jetbrains.youtrackdb.internal.common.util.RawPair;
+import com.jetbrains.youtrackdb.internal.core.db.record.record.RID;
+import com.jetbrains.youtrackdb.internal.core.id.RecordId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class IndexEntrySorterTest extends DbTestBase {
+
+  @Test
+  public void testInMemorySort() {
+    try (var sorter = new IndexEntrySorter(session, 100)) {
+      sorter.add(3, new RecordId(1, 2));
+      sorter.add(1, new RecordId(1, 1));
+      sorter.add(3, new RecordId(1, 0));
+      sorter.add(null, new RecordId(1, 3));
+
+      final var entries = toList(sorter);
+
+      Assert.assertEquals(4, entries.size());
+      Assert.assertNull(entries.get(0).first());
+      Assert.assertEquals(1, entries.get(1).first());
+      Assert.assertEquals(new RecordId(1, 0), entries.get(2).second());
+      Assert.assertEquals(new RecordId(1, 2), entries.get(3).second());
+    }
+  }
+
+  @Test
+  public void testSpilledSort() {
+    final var random = new Random(42);
+    try (var sorter = new IndexEntrySorter(session, 64)) {
+      for (var i = 0; i < 1_000; i++) {
+        sorter.add("key" + random.nextInt(200), new RecordId(5, i));
+      }
+      sorter.add(null, new RecordId(5, 1_000));
+
+      Assert.assertEquals(1_001, sorter.size());
+
+      final var entries = toList(sorter);
+      Assert.assertEquals(1_001, entries.size());
+      Assert.assertNull(entries.getFirst().first());
+      for (var i = 2; i < entries.size(); i++) {
+        final var previous = entries.get(i - 1);
+        final var current = entries.get(i);
+
+        final var result = ((String) previous.first()).compareTo((String) current.first());
+        Assert.assertTrue(
+            result < 0 || (result == 0 && previous.second().compareTo(current.second()) < 0));
+      }
+    }
+  }
+
+  @Test
+  public void testSpilledCompositeKeys() {
+    try (var sorter = new IndexEntrySorter(session, 2)) {
+      sorter.add(new CompositeKey("b", 1L), new RecordId(3, 0));
+      sorter.add(new CompositeKey("a", 2L), new RecordId(3, 1));
+      sorter.add(new CompositeKey("a", 1L), new RecordId(3, 2));
+
+      final var entries = toList(sorter);
+      Assert.assertEquals(new CompositeKey("a", 1L), entries.get(0).first());
+      Assert.assertEquals(new CompositeKey("a", 2L), entries.get(1).first());
+      Assert.assertEquals(new CompositeKey("b", 1L), entries.get(2).first());
+    }
+  }
+
+  /**
+   * A rebuild fills the index from sorted entries without {@link Index#put}, so it has to produce
+   * the same entries as the put path: collated keys, the null values and the items of collection
+   * keys.
+   */
+  @Test
+  public void testRebuildMatchesEntriesOfPut() {
+    session.execute("create class Tag").close();
+    session.execute("create property Tag.name STRING (COLLATE ci)").close();
+    session.execute("create property Tag.labels EMBEDDEDLIST STRING").close();
+    session.execute("create index Tag.name on Tag (name) NOTUNIQUE").close();
+    session.execute("create index Tag.labels on Tag (labels) NOTUNIQUE").close();
+
+    session.begin();
+    for (var name : new String[] {"Abc", "aBC", "xyz", null}) {
+      final var tag = session.newEntity("Tag");
+      tag.setProperty("name", name);
+      tag.newEmbeddedList("labels", List.of("red", "Blue", "red"));
+    }
+    session.commit();
+
+    for (var indexName : List.of("Tag.name", "Tag.labels")) {
+      final var index = session.getIndex(indexName);
+      final var byPut = entries(index);
+      index.rebuild(session);
+      Assert.assertEquals(indexName, byPut, entries(index));
+    }
+    Assert.assertEquals(2,
+        entries(session.getIndex("Tag.name")).stream().filter(e -> e.startsWith("abc@")).count());
+  }
+
+  private List<String> entries(Index index) {
+    return session.computeInTx(tx -> index.stream(session)
+        .map(entry -> entry.first() + "@" + entry.second())
+        .sorted()
+        .toList());
+  }
+
+  private static List<RawPair<Object, RID>> toList(IndexEntrySorter sorter) {
+    final var entries = new ArrayList<RawPair<Object, RID>>();
+    sorter.sorted().forEachRemaining(entries::add);
+    return entries;
+  }
+}
@@ -0,0 +1,109 @@
+package com.jetbrains.youtrackdb.internal.core.index;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.jetbrains.youtrackdb.internal.core.id.RecordId;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.AbstractStorage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentSkipListMap;
+import org.junit.Test;
+
+/**
+ * Byte-encoded snapshot keys must decode to the original elements and be ordered exactly like
+ * plain {@link CompositeKey}s, so that both kinds can share the snapshot maps.
+ */
+public class IndexSnapshotKeyTest {
+
+  @Test
+  public void keysAreDecodedToOriginalElements() {
+    final List<Object> userKeys = Arrays.asList(
+        null, true, (byte) -3, (short) 700, -42, 1L << 40, new Date(123_456_789L),
+        "a\u0000b\u0100\uffff", new RecordId(12, 345));
+    final var key = IndexSnapshotKey.create(7, userKeys, userKeys.size(), 99);
+    assertTrue(key instanceof IndexSnapshotKey);
+
+    final var expected = new ArrayList<>();
+    expected.add(7L);
+    expected.addAll(userKeys);
+    expected.add(99L);
+    assertEquals(expected, key.getKeys());
+    assertEquals(99, ((IndexSnapshotKey) key).version());
+
+    final var plain = new CompositeKey(expected);
+    assertEquals(plain, key);
+    assertEquals(key, plain);
+    assertEquals(plain.hashCode(), key.hashCode());
+    assertEquals(0, key.compareTo(plain));
+    assertEquals(0, plain.compareTo(key));
+  }
+
+  @Test
+  public void unsupportedElementsFallBackToPlainKey() {
+    final var key = IndexSnapshotKey.create(1, List.of(new byte[] {1, 2}), 1, 5);
+    assertFalse(key instanceof IndexSnapshotKey);
+    assertEquals(3, key.getKeys().size());
+  }
+
+  @Test
+  public void encodedOrderMatchesCompositeKeyOrder() {
+    final var random = new Random(42);
+    final var strings = List.of("", "a", "a\u0000", "a\u0000\u0000", "ab", "b", "\u00ff",
+        "\u0100", "\uffff", "A");
+
+    final var encoded = new ArrayList<CompositeKey>();
+    final var plain = new ArrayList<CompositeKey>();
+    for (var i = 0; i < 500; i++) {
+      final List<Object> userKeys = Arrays.asList(
+          random.nextInt(4) == 0 ? null : strings.get(random.nextInt(strings.size())),
+          random.nextInt(4) == 0 ? null : random.nextInt(5) - 2,
+          new RecordId(random.nextInt(3) - 1, random.nextLong(3) - 1));
+      final long indexId = random.nextInt(3);
+      final long version = random.nextLong(5) - 2;
+
+      encoded.add(IndexSnapshotKey.create(indexId, userKeys, userKeys.size(), version));
+      final var plainKey = new CompositeKey(indexId);
+      for (var userKey : userKeys) {
+        plainKey.addKey(userKey);
+      }
+      plainKey.addKey(version);
+      plain.add(plainKey);
+    }
+
+    for (var i = 0; i < encoded.size(); i++) {
+      for (var j = 0; j < encoded.size(); j++) {
+        assertEquals(
+            Integer.signum(plain.get(i).compareTo(plain.get(j))),
+            Integer.signum(encoded.get(i).compareTo(encoded.get(j))));
+        assertEquals(
+            Integer.signum(AbstractStorage.INDEX_SNAPSHOT_VERSION_COMPARATOR.compare(
+                plain.get(i), plain.get(j))),
+            Integer.signum(AbstractStorage.INDEX_SNAPSHOT_VERSION_COMPARATOR.compare(
+                encoded.get(i), encoded.get(j))));
+      }
+    }
+  }
+
+  @Test
+  public void indexBoundsSelectEntriesOfSingleIndex() {
+    final var map = new ConcurrentSkipListMap<CompositeKey, String>();
+    for (long indexId = 0; indexId < 3; indexId++) {
+      for (long version = 0; version < 3; version++) {
+        map.put(IndexSnapshotKey.create(indexId, List.of("key"), 1, version),
+            indexId + ":" + version);
+      }
+    }
+
+    final var subMap = map.subMap(
+        IndexSnapshotKey.indexBound(1), true, IndexSnapshotKey.indexBound(2), false);
+    assertEquals(List.of("1:0", "1:1", "1:2"), new ArrayList<>(subMap.values()));
+
+    final var lower = map.lowerEntry(IndexSnapshotKey.create(1, List.of("key"), 1, 2));
+    assertEquals("1:1", lower.getValue());
+  }
+}
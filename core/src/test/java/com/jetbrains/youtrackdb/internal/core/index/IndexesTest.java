@@ -91,6 +91,19 @@ public class IndexesTest extends DbTestBase {
         Indexes.chooseDefaultIndexAlgorithm(SchemaClass.INDEX_TYPE.NOTUNIQUE.name()));
   }
 
+  /**
+   * chooseDefaultIndexAlgorithm for the hash types must return HASH.
+   */
+  @Test
+  public void chooseDefaultIndexAlgorithm_hashTypes_returnHash() {
+    assertEquals("UNIQUE_HASH must map to HASH by default",
+        DefaultIndexFactory.HASH_ALGORITHM,
+        Indexes.chooseDefaultIndexAlgorithm(SchemaClass.INDEX_TYPE.UNIQUE_HASH.name()));
+    assertEquals("NOTUNIQUE_HASH must map to HASH by default",
+        DefaultIndexFactory.HASH_ALGORITHM,
+        Indexes.chooseDefaultIndexAlgorithm(SchemaClass.INDEX_TYPE.NOTUNIQUE_HASH.name()));
+  }
+
   /**
    * chooseDefaultIndexAlgorithm for an unknown/unsupported type must return null (no default
    * algorithm is registered for it).
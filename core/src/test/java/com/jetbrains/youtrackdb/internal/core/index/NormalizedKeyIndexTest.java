@@ -0,0 +1,112 @@
+package com.jetbrains.youtrackdb.internal.core.index;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import com.jetbrains.youtrackdb.api.exception.RecordDuplicatedException;
+import com.jetbrains.youtrackdb.internal.DbTestBase;
+import com.jetbrains.youtrackdb.internal.common.comparator.DefaultComparator;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * UNIQUE and NOTUNIQUE indexes created with the {@code NKBTREE} engine, which keeps normalized
+ * keys in the B-tree pages, must find, range-scan and order keys exactly as the default engine.
+ */
+public class NormalizedKeyIndexTest extends DbTestBase {
+
+  private static final String[] NAMES =
+      {"", "Alpha", "alpha", "alpha\u0000", "alphab", "älpha", "中", "😀"};
+
+  @Test
+  public void compositeUniqueIndexFindsAndRangeScansKeys() {
+    session.execute("create class Person").close();
+    session.execute("create property Person.name STRING").close();
+    session.execute("create property Person.age INTEGER").close();
+    session.execute(
+        "create index Person.name_age on Person (name, age) UNIQUE ENGINE NKBTREE").close();
+
+    final var index = session.getIndex("Person.name_age");
+    assertEquals("NKBTREE", index.getAlgorithm());
+
+    session.begin();
+    for (var i = 0; i < 400; i++) {
+      final var person = session.newEntity("Person");
+      person.setProperty("name", NAMES[i % NAMES.length]);
+      person.setProperty("age", i - 200);
+    }
+    session.commit();
+
+    session.begin();
+    for (var i = 0; i < 400; i++) {
+      final var key = new CompositeKey(NAMES[i % NAMES.length], i - 200);
+      assertEquals(key.toString(), 1, index.getRids(session, key).count());
+    }
+    assertEquals(0, index.getRids(session, new CompositeKey("alpha", 1_000)).count());
+    assertEquals(0, index.getRids(session, new CompositeKey("alph", -200)).count());
+
+    for (final var name : NAMES) {
+      // every name has 50 ages, 13 of them are in [-100, 0)
+      try (var rs = session.query(
+          "select from Person where name = ? and age >= ? and age < ?", name, -100, 0)) {
+        assertEquals(name, 13, rs.stream().count());
+      }
+      assertEquals(name, 50,
+          index.streamEntriesBetween(
+              session, new CompositeKey(name), true, new CompositeKey(name), true, true).count());
+    }
+
+    assertSorted(index.stream(session).map(pair -> pair.first()).toList(), 400);
+    session.commit();
+
+    session.begin();
+    final var duplicate = session.newEntity("Person");
+    duplicate.setProperty("name", "alpha");
+    duplicate.setProperty("age", -198);
+    assertThrows(RecordDuplicatedException.class, () -> session.commit());
+  }
+
+  @Test
+  public void notUniqueIndexOrdersDecimalsAndNulls() {
+    session.execute("create class Item").close();
+    session.execute("create property Item.score DECIMAL").close();
+    session.execute("create property Item.code STRING").close();
+    session.execute(
+        "create index Item.score_code on Item (score, code) NOTUNIQUE ENGINE NKBTREE").close();
+
+    final var index = session.getIndex("Item.score_code");
+    final var scores =
+        new String[] {"-10.5", "-1", "0", "0.000", "0.1", "0.10000000000000000001", "1", "1.0",
+            "1.00", "1E+3"};
+
+    session.begin();
+    for (var i = 0; i < 100; i++) {
+      final var item = session.newEntity("Item");
+      item.setProperty("score", new BigDecimal(scores[i % scores.length]));
+      item.setProperty("code", i % 3 == 0 ? null : "c" + (i % 4));
+    }
+    session.commit();
+
+    session.begin();
+    // 1, 1.0 and 1.00 are the same key
+    try (var rs = session.query("select from Item where score = ?", BigDecimal.ONE)) {
+      assertEquals(30, rs.stream().count());
+    }
+    try (var rs = session.query("select from Item where score > ? and score < ?",
+        new BigDecimal("0.1"), BigDecimal.ONE)) {
+      assertEquals(10, rs.stream().count());
+    }
+    assertSorted(index.stream(session).map(pair -> pair.first()).toList(), 100);
+    session.commit();
+  }
+
+  private static void assertSorted(final List<Object> keys, final int expectedSize) {
+    assertEquals(expectedSize, keys.size());
+    for (var i = 1; i < keys.size(); i++) {
+      assertTrue(keys.get(i - 1) + " <= " + keys.get(i),
+          DefaultComparator.INSTANCE.compare(keys.get(i - 1), keys.get(i)) <= 0);
+    }
+  }
+}
@@ -1464,23 +1464,19 @@ public class SchemaCommitReconciliationTest extends DbTestBase {
   }
 
   /**
-   * The nested-session sub-path of the legacy drop: dropping a NON-EMPTY index via the legacy
-   * top-level path batch-deletes the index content on a COPIED session
-   * ({@code IndexAbstract.clearAllEntries}) while the calling thread holds the index-manager
-   * write lock. The copied session has its own thread-local snapshot state (a snapshot pin on the
-   * calling session would NOT cover it — the reason the fix holds the schema READ lock for the
-   * whole region instead of pinning), so its record reads and its batch commits rebuild the
-   * snapshot through the calling thread's held schema read lock reentrantly. With the snapshot
-   * cache force-invalidated right before the drop, a regression to the unordered acquisition
-   * makes the copied session's first rebuild trip the lock-order guard deterministically.
+   * The legacy drop of a NON-EMPTY index detaches the engine without touching its entries: the
+   * engine leaves the storage registry, and as no transaction started before the drop is active,
+   * its files are deleted right away. The indexed rows are kept.
    */
   @Test
-  public void legacyDropOfNonEmptyIndexRunsNestedSessionUnderHeldSchemaReadLock() {
+  public void legacyDropOfNonEmptyIndexDetachesEngineAndDeletesItsFiles() {
     var indexManager = session.getSharedContext().getIndexManager();
+    var storage = (AbstractStorage) session.getStorage();
+    var filesWithoutIndex = indexEngineFiles(storage);
+
     var indexed = session.getMetadata().getSchema().createClass("NonEmptyDropIndexed");
     indexed.createProperty("name", PropertyType.STRING);
     indexed.createIndex("NonEmptyDropIndexed.name", SchemaClass.INDEX_TYPE.NOTUNIQUE, "name");
-    // Commit rows so the index is non-empty and the drop takes the batched-deletion path.
     session.executeInTx(tx -> {
       for (var i = 0; i < 8; i++) {
         var row = (EntityImpl) session.newEntity("NonEmptyDropIndexed");
@@ -1488,10 +1484,23 @@ public class SchemaCommitReconciliationTest extends DbTestBase {
       }
     });
 
+    var indexFiles = indexEngineFiles(storage);
+    indexFiles.removeAll(filesWithoutIndex);
+    assertFalse("the index must own engine files", indexFiles.isEmpty());
+    assertTrue("the index must own a registered engine",
+        storage.loadIndexEngine("NonEmptyDropIndexed.name") >= 0);
+
     schemaShared().forceSnapshot();
     indexManager.dropIndex(session, "NonEmptyDropIndexed.name");
     assertNull("the non-empty legacy drop must unregister the index",
         indexManager.getIndex(session, "NonEmptyDropIndexed.name"));
+    assertEquals("the drop must detach the engine from the storage",
+        -1, storage.loadIndexEngine("NonEmptyDropIndexed.name"));
+    var remainingFiles = indexEngineFiles(storage);
+    remainingFiles.retainAll(indexFiles);
+    assertTrue("with no older transaction active the engine files must be deleted at once",
+        remainingFiles.isEmpty());
+
     // The data survives the index drop; only the index structure is gone.
     session.executeInTx(tx -> {
       try (var rows = session.query("select from NonEmptyDropIndexed")) {
@@ -1500,6 +1509,16 @@ public class SchemaCommitReconciliationTest extends DbTestBase {
     });
   }
 
+  private static Set<String> indexEngineFiles(AbstractStorage storage) {
+    var files = new HashSet<String>();
+    for (var fileName : storage.getWriteCache().files().keySet()) {
+      if (fileName.startsWith(AbstractStorage.INDEX_ENGINE_FILE_STEM_PREFIX)) {
+        files.add(fileName);
+      }
+    }
+    return files;
+  }
+
   /**
    * Reads the persisted version of a record by loading it fresh inside a transaction. A record's
    * version increments each time the storage writes it, so comparing the version across a commit
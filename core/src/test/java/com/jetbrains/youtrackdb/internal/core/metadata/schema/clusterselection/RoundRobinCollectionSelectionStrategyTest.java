@@ -39,7 +39,11 @@ import org.junit.Test;
  *       proxy) returns {@code RoundRobin} for {@code getCollectionSelection()}.</li>
  * </ul>
  *
- * <p>Despite the multi-cluster arm using {@link java.util.concurrent.ThreadLocalRandom} (and
+ * <p>Inside a transaction the multi-cluster arm advances the round-robin counter once per
+ * transaction and class, so every record of the transaction lands in the same collection and
+ * consecutive transactions take consecutive collections.
+ *
+ * <p>Outside of a transaction, despite the multi-cluster arm using {@link java.util.concurrent.ThreadLocalRandom} (and
  * therefore not being deterministic), the contract <i>is</i> deterministic in two ways: every
  * pick must be a member of the collection-id array, and a sufficiently large sample must hit
  * every collection id at least once with overwhelming probability.
@@ -104,6 +108,54 @@ public class RoundRobinCollectionSelectionStrategyTest extends DbTestBase {
     }
   }
 
+  @Test
+  public void recordsOfOneTransactionGoToOneCollection() {
+    // Inside a transaction the counter advances once per transaction, so a commit locks one
+    // collection of the class instead of all of them. Pin: picks are stable within a
+    // transaction, and consecutive transactions take the collections in round-robin order.
+    var strategy = new RoundRobinCollectionSelectionStrategy();
+    var cls = (SchemaClassInternal) session.getMetadata().getSchema()
+        .createClass("RR_Tx", 4);
+    int[] collections = cls.getCollectionIds();
+    var entity = new EntityImpl(new RecordId(-1, -1), session);
+
+    for (int tx = 0; tx < 2 * collections.length; tx++) {
+      session.begin();
+      try {
+        int first = strategy.getCollection(session, cls, collections, entity);
+        assertEquals("transactions must take the collections in round-robin order",
+            collections[tx % collections.length], first);
+        for (int i = 0; i < 10; i++) {
+          assertEquals("picks within one transaction must be stable",
+              first, strategy.getCollection(session, cls, collections, entity));
+        }
+      } finally {
+        session.rollback();
+      }
+    }
+  }
+
+  @Test
+  public void classesOfOneTransactionAdvanceIndependently() {
+    // The counter taken by a transaction is kept per class: a pick for another class does not
+    // change the collection used for the first one.
+    var strategy = new RoundRobinCollectionSelectionStrategy();
+    var schema = session.getMetadata().getSchema();
+    var first = (SchemaClassInternal) schema.createClass("RR_TxFirst", 4);
+    var second = (SchemaClassInternal) schema.createClass("RR_TxSecond", 4);
+    var entity = new EntityImpl(new RecordId(-1, -1), session);
+
+    session.begin();
+    try {
+      int picked = strategy.getCollection(session, first, first.getCollectionIds(), entity);
+      strategy.getCollection(session, second, second.getCollectionIds(), entity);
+      assertEquals(picked,
+          strategy.getCollection(session, first, first.getCollectionIds(), entity));
+    } finally {
+      session.rollback();
+    }
+  }
+
   @Test
   public void threeArgFormDelegatesToClassCollectionIds() {
     // The two-arg getCollection(session, class, entity) form delegates to the array-form using
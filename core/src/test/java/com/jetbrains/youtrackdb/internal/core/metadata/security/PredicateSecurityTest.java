@@ -610,6 +610,114 @@ public class PredicateSecurityTest {
     session.commit();
   }
 
+  @Test
+  public void testSqlReadPredicateIsAddedToPlan() {
+    var security = session.getSharedContext().getSecurity();
+
+    var person = session.createClass("Person");
+    person.createProperty("name", PropertyType.STRING);
+    session.execute("create index Person.name on Person (name) NOTUNIQUE");
+
+    session.begin();
+    var policy = security.createSecurityPolicy(session, "testPolicy");
+    policy.setActive(true);
+    policy.setReadRule("name = 'foo'");
+    security.saveSecurityPolicy(session, policy);
+    security.setSecurityPolicy(session, security.getRole(session, "reader"),
+        "database.class.Person", policy);
+    session.commit();
+
+    session.executeInTx(
+        transaction -> {
+          for (var i = 0; i < 10; i++) {
+            var elem = session.newEntity("Person");
+            elem.setProperty("name", i == 0 ? "foo" : "bar" + i);
+          }
+        });
+
+    // the plan of the admin must not be reused by the reader and vice versa
+    session.begin();
+    try (var rs = session.query("select from Person")) {
+      Assert.assertEquals(10, rs.stream().count());
+    }
+    session.commit();
+
+    session.close();
+    this.session =
+        youTrackDB.open(DB_NAME, "reader", PASSWORD); // "reader"
+    session.begin();
+    try (var rs = session.query("select from Person")) {
+      Assert.assertEquals(1, rs.stream().count());
+    }
+    try (var rs = session.query("explain select from Person")) {
+      String plan = rs.next().getProperty("executionPlanAsString");
+      Assert.assertTrue(plan, plan.contains("'foo'"));
+    }
+    session.commit();
+  }
+
+  @Test
+  public void testSqlReadPredicateWithDollarInLiteralIsAddedToPlan() {
+    createReaderPolicyOnPerson("name = 'f$o'");
+
+    session.begin();
+    try (var rs = session.query("select from Person")) {
+      Assert.assertEquals(1, rs.stream().count());
+    }
+    try (var rs = session.query("explain select from Person")) {
+      String plan = rs.next().getProperty("executionPlanAsString");
+      Assert.assertTrue(plan, plan.contains("'f$o'"));
+    }
+    session.commit();
+  }
+
+  @Test
+  public void testSqlReadPredicateWithContextVariableIsNotAddedToPlan() {
+    createReaderPolicyOnPerson("name = $currentUser.name");
+
+    session.begin();
+    try (var rs = session.query("select from Person")) {
+      Assert.assertEquals(0, rs.stream().count());
+    }
+    try (var rs = session.query("explain select from Person")) {
+      String plan = rs.next().getProperty("executionPlanAsString");
+      Assert.assertFalse(plan, plan.contains("currentUser"));
+    }
+    session.commit();
+  }
+
+  /**
+   * Creates the Person class with one record named "f$o" and nine others, restricts the reader
+   * role to the given READ rule and reopens the session as the reader.
+   */
+  private void createReaderPolicyOnPerson(String readRule) {
+    var security = session.getSharedContext().getSecurity();
+
+    var person = session.createClass("Person");
+    person.createProperty("name", PropertyType.STRING);
+
+    session.begin();
+    var policy = security.createSecurityPolicy(session, "testPolicy");
+    policy.setActive(true);
+    policy.setReadRule(readRule);
+    security.saveSecurityPolicy(session, policy);
+    security.setSecurityPolicy(session, security.getRole(session, "reader"),
+        "database.class.Person", policy);
+    session.commit();
+
+    session.executeInTx(
+        transaction -> {
+          for (var i = 0; i < 10; i++) {
+            var elem = session.newEntity("Person");
+            elem.setProperty("name", i == 0 ? "f$o" : "bar" + i);
+          }
+        });
+
+    session.close();
+    this.session =
+        youTrackDB.open(DB_NAME, "reader", PASSWORD); // "reader"
+  }
+
   @Test
   public void testIndexGet() {
     var security = session.getSharedContext().getSecurity();
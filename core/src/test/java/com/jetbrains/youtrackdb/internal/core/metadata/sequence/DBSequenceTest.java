@@ -15,9 +15,14 @@ import com.jetbrains.youtrackdb.internal.core.exception.SequenceException;
 import com.jetbrains.youtrackdb.internal.core.exception.SequenceLimitReachedException;
 import com.jetbrains.youtrackdb.internal.core.exception.StorageException;
 import com.jetbrains.youtrackdb.internal.core.record.impl.EntityImpl;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Random;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.After;
 import org.junit.AfterClass;
@@ -1166,6 +1171,124 @@ public class DBSequenceTest {
     db.commit();
   }
 
+  /**
+   * Values of allocated batches are handed out to concurrent sessions without a transaction: every
+   * value is handed out once, values seen by a single session grow, and batches are consumed
+   * without gaps while the database stays open.
+   */
+  @Test
+  public void shouldHandOutCachedValuesConcurrentlyWithoutDuplicates() throws Exception {
+    db.begin();
+    sequences.createSequence("concurrentCachedSeq", DBSequence.SEQUENCE_TYPE.CACHED,
+        new DBSequence.CreateParams().setDefaults().setCacheSize(50));
+    db.commit();
+
+    final var threads = 4;
+    final var perThread = 2_000;
+    var service = Executors.newFixedThreadPool(threads);
+    try {
+      var futures = new ArrayList<Future<List<Long>>>();
+      for (var i = 0; i < threads; i++) {
+        futures.add(service.submit(() -> {
+          var values = new ArrayList<Long>(perThread);
+          try (var session =
+              youTrackDB.open(DBSequenceTest.class.getSimpleName(), "admin", "admin")) {
+            var seq = session.getMetadata().getSequenceLibrary()
+                .getSequence("concurrentCachedSeq");
+            session.begin();
+            for (var j = 0; j < perThread; j++) {
+              values.add(seq.next(session));
+            }
+            session.commit();
+          }
+          return values;
+        }));
+      }
+
+      var allValues = new HashSet<Long>();
+      for (var future : futures) {
+        var values = future.get();
+        for (var j = 1; j < values.size(); j++) {
+          assertThat(values.get(j)).isGreaterThan(values.get(j - 1));
+        }
+        allValues.addAll(values);
+      }
+
+      assertThat(allValues).hasSize(threads * perThread);
+      assertThat(allValues.stream().mapToLong(Long::longValue).min().orElseThrow()).isEqualTo(1);
+      assertThat(allValues.stream().mapToLong(Long::longValue).max().orElseThrow())
+          .isEqualTo(threads * perThread);
+    } finally {
+      service.shutdown();
+    }
+  }
+
+  /**
+   * ALTER SEQUENCE which changes the increment while other sessions take values of a cached
+   * sequence must not leave a batch built from the previous increment in use once it is committed.
+   */
+  @Test
+  public void shouldNotHandOutStaleBatchAfterConcurrentIncrementChange() throws Exception {
+    db.begin();
+    sequences.createSequence("alteredCachedSeq", DBSequence.SEQUENCE_TYPE.CACHED,
+        new DBSequence.CreateParams().setDefaults().setCacheSize(50));
+    db.commit();
+
+    final var threads = 4;
+    var service = Executors.newFixedThreadPool(threads);
+    try {
+      for (var increment = 2; increment <= 20; increment++) {
+        var stop = new AtomicBoolean();
+        var futures = new ArrayList<Future<?>>();
+        for (var i = 0; i < threads; i++) {
+          futures.add(service.submit(() -> {
+            try (var session =
+                youTrackDB.open(DBSequenceTest.class.getSimpleName(), "admin", "admin")) {
+              var seq = session.getMetadata().getSequenceLibrary()
+                  .getSequence("alteredCachedSeq");
+              while (!stop.get()) {
+                session.begin();
+                seq.next(session);
+                session.commit();
+              }
+            }
+            return null;
+          }));
+        }
+
+        Thread.sleep(5);
+        while (true) {
+          try {
+            db.begin();
+            db.execute("alter sequence alteredCachedSeq increment " + increment).close();
+            db.commit();
+            break;
+          } catch (ConcurrentModificationException e) {
+            if (db.isTxActive()) {
+              db.rollback();
+            }
+          }
+        }
+        Thread.sleep(5);
+
+        stop.set(true);
+        for (var future : futures) {
+          future.get();
+        }
+
+        var seq = sequences.getSequence("alteredCachedSeq");
+        db.begin();
+        seq.next(db);
+        var first = seq.next(db);
+        var second = seq.next(db);
+        db.commit();
+        assertThat(second - first).isEqualTo(increment);
+      }
+    } finally {
+      service.shutdown();
+    }
+  }
+
   /**
    * {@code SequenceLibraryImpl.getSequenceCount} reflects the library state — also exercised
    * via the proxy in {@link SequenceLibraryProxyTest}, but pinned here directly against the
@@ -0,0 +1,78 @@
+package com.jetbrains.youtrackdb.internal.core.record.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * Standalone coverage for {@link EntityPropertiesMap}: declared properties are kept in slots,
+ * the rest in the ad-hoc map, and both are visible through the regular {@link java.util.Map}
+ * views.
+ */
+public class EntityPropertiesMapTest {
+
+  private final EntityPropertyLayout layout =
+      new EntityPropertyLayout(List.of("name", "age", "email"));
+
+  @Test
+  public void declaredAndAdHocPropertiesArePutAndRemoved() {
+    var map = new EntityPropertiesMap(layout);
+    var name = new EntityEntry();
+    var nickname = new EntityEntry();
+
+    assertNull(map.put("name", name));
+    assertNull(map.put("nickname", nickname));
+    assertEquals(2, map.size());
+    assertSame(name, map.get("name"));
+    assertSame(nickname, map.get("nickname"));
+    assertTrue(map.containsKey("name"));
+    assertFalse(map.containsKey("age"));
+
+    var replacement = new EntityEntry();
+    assertSame(name, map.put("name", replacement));
+    assertEquals(2, map.size());
+
+    assertSame(replacement, map.remove("name"));
+    assertNull(map.remove("name"));
+    assertSame(nickname, map.remove("nickname"));
+    assertTrue(map.isEmpty());
+  }
+
+  @Test
+  public void entrySetIteratesAndRemovesAllProperties() {
+    var map = new EntityPropertiesMap(layout);
+    var expected = new HashMap<String, EntityEntry>();
+    for (var propertyName : List.of("email", "name", "city", "zip")) {
+      var entry = new EntityEntry();
+      map.put(propertyName, entry);
+      expected.put(propertyName, entry);
+    }
+
+    assertEquals(expected, new HashMap<>(map));
+    assertEquals(expected, map);
+
+    var iterator = map.entrySet().iterator();
+    while (iterator.hasNext()) {
+      var entry = iterator.next();
+      if (entry.getKey().equals("name") || entry.getKey().equals("city")) {
+        iterator.remove();
+      }
+    }
+
+    assertEquals(2, map.size());
+    assertTrue(map.containsKey("email"));
+    assertTrue(map.containsKey("zip"));
+    assertFalse(map.containsKey("name"));
+    assertFalse(map.containsKey("city"));
+
+    map.clear();
+    assertTrue(map.isEmpty());
+    assertFalse(map.entrySet().iterator().hasNext());
+  }
+}
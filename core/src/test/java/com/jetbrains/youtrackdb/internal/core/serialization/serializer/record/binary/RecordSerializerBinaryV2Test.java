@@ -0,0 +1,160 @@
+package com.jetbrains.youtrackdb.internal.core.serialization.serializer.record.binary;
+
+import static com.jetbrains.youtrackdb.internal.core.serialization.serializer.record.binary.RecordSerializerBinaryTestFixture.runInTx;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.jetbrains.youtrackdb.internal.DbTestBase;
+import com.jetbrains.youtrackdb.internal.core.metadata.schema.PropertyTypeInternal;
+import com.jetbrains.youtrackdb.internal.core.metadata.schema.schema.PropertyType;
+import com.jetbrains.youtrackdb.internal.core.record.impl.EntityImpl;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Record format version 1: records of classes declaring properties carry a property offset table
+ * which serves schema property lookups without walking the header, schemaless records keep the
+ * version 0 layout, and version 0 records written before stay readable.
+ */
+public class RecordSerializerBinaryV2Test extends DbTestBase {
+
+  private static final String PERSON_CLASS = "Person";
+  private static final String ADDRESS_CLASS = "Address";
+
+  @Before
+  public void createSchema() {
+    var schema = session.getMetadata().getSchema();
+    var person = schema.createClass(PERSON_CLASS);
+    person.createProperty("name", PropertyType.STRING);
+    person.createProperty("age", PropertyType.INTEGER);
+    person.createProperty("nick", PropertyType.STRING);
+    var address = schema.createAbstractClass(ADDRESS_CLASS);
+    address.createProperty("street", PropertyType.STRING);
+    address.createProperty("zip", PropertyType.INTEGER);
+  }
+
+  @Test
+  public void recordOfClassWithPropertiesIsWrittenWithOffsetTable() {
+    runInTx(() -> {
+      var serialized = RecordSerializerBinary.INSTANCE.toStream(session, newPerson());
+      assertEquals(RecordSerializerBinary.PROPERTY_OFFSET_TABLE_VERSION, serialized[0]);
+
+      var extracted = (EntityImpl) session.newEntity(PERSON_CLASS);
+      RecordSerializerBinary.INSTANCE.fromStream(session, serialized, extracted, null);
+      assertPerson(extracted);
+    });
+  }
+
+  @Test
+  public void schemalessRecordKeepsVersionZeroLayout() {
+    runInTx(() -> {
+      var entity = (EntityImpl) session.newEntity();
+      entity.setProperty("name", "schemaless");
+
+      var serialized = RecordSerializerBinary.INSTANCE.toStream(session, entity);
+      assertEquals(0, serialized[0]);
+    });
+  }
+
+  @Test
+  public void partialDeserializationResolvesSchemaAndNamedProperties() {
+    runInTx(() -> {
+      var serialized = RecordSerializerBinary.INSTANCE.toStream(session, newPerson());
+
+      var extracted = (EntityImpl) session.newEntity(PERSON_CLASS);
+      RecordSerializerBinary.INSTANCE.fromStream(session, serialized, extracted,
+          new String[] {"age", "note", "nick", "missing"});
+      assertEquals(Integer.valueOf(42), extracted.<Integer>getProperty("age"));
+      assertEquals("extra", extracted.<String>getProperty("note"));
+      assertNull(extracted.getProperty("nick"));
+      assertTrue(extracted.hasProperty("nick"));
+      assertFalse(extracted.hasProperty("name"));
+      assertFalse(extracted.hasProperty("missing"));
+    });
+  }
+
+  @Test
+  public void binaryFieldOfSchemaPropertyIsFoundThroughOffsetTable() {
+    runInTx(() -> {
+      var serialized = RecordSerializerBinary.INSTANCE.toStream(session, newPerson());
+      var serializer = RecordSerializerBinary.INSTANCE.getSerializer(serialized[0]);
+      var schema = session.getMetadata().getImmutableSchemaSnapshot();
+      var clazz = schema.getClass(PERSON_CLASS);
+
+      var field = serializer.deserializeField(session, new BytesContainer(serialized, 1),
+          clazz, "age", false, schema, null);
+      assertNotNull(field);
+      assertEquals(PropertyTypeInternal.INTEGER, field.type);
+      assertEquals(42, serializer.deserializeValue(session, field.bytes, field.type, null));
+
+      var readField = serializer.deserializeField(session,
+          new ReadBytesContainer(serialized, 1), clazz, "name", "name".getBytes(), false,
+          schema, null);
+      assertNotNull(readField);
+      assertEquals(PropertyTypeInternal.STRING, readField.type());
+
+      assertNull(serializer.deserializeField(session, new BytesContainer(serialized, 1),
+          clazz, "nick", false, schema, null));
+      assertNull(serializer.deserializeField(session, new BytesContainer(serialized, 1),
+          clazz, "missing", false, schema, null));
+    });
+  }
+
+  @Test
+  public void embeddedEntityRoundTripsWithOffsetTable() {
+    runInTx(() -> {
+      var person = newPerson();
+      var address = session.newEmbeddedEntity(ADDRESS_CLASS);
+      address.setProperty("street", "Main 1");
+      address.setProperty("zip", 12345);
+      person.setProperty("address", address, PropertyType.EMBEDDED);
+
+      var serialized = RecordSerializerBinary.INSTANCE.toStream(session, person);
+      var extracted = (EntityImpl) session.newEntity(PERSON_CLASS);
+      RecordSerializerBinary.INSTANCE.fromStream(session, serialized, extracted, null);
+
+      assertPerson(extracted);
+      var got = extracted.<EntityImpl>getProperty("address");
+      assertTrue(got.isEmbedded());
+      assertEquals("Main 1", got.<String>getProperty("street"));
+      assertEquals(Integer.valueOf(12345), got.<Integer>getProperty("zip"));
+    });
+  }
+
+  @Test
+  public void versionZeroRecordOfClassWithPropertiesIsStillRead() {
+    runInTx(() -> {
+      var serialized = new RecordSerializerBinary((byte) 0).toStream(session, newPerson());
+      assertEquals(0, serialized[0]);
+
+      var extracted = (EntityImpl) session.newEntity(PERSON_CLASS);
+      RecordSerializerBinary.INSTANCE.fromStream(session, serialized, extracted, null);
+      assertPerson(extracted);
+
+      var partial = (EntityImpl) session.newEntity(PERSON_CLASS);
+      RecordSerializerBinary.INSTANCE.fromStream(session, serialized, partial,
+          new String[] {"age"});
+      assertEquals(Integer.valueOf(42), partial.<Integer>getProperty("age"));
+    });
+  }
+
+  private EntityImpl newPerson() {
+    var entity = (EntityImpl) session.newEntity(PERSON_CLASS);
+    entity.setProperty("name", "Ann");
+    entity.setProperty("age", 42);
+    entity.setProperty("nick", null);
+    entity.setProperty("note", "extra");
+    return entity;
+  }
+
+  private static void assertPerson(EntityImpl entity) {
+    assertEquals("Ann", entity.getProperty("name"));
+    assertEquals(Integer.valueOf(42), entity.<Integer>getProperty("age"));
+    assertNull(entity.getProperty("nick"));
+    assertTrue(entity.hasProperty("nick"));
+    assertEquals("extra", entity.getProperty("note"));
+  }
+}
@@ -88,12 +88,12 @@ public class RecordSerializerBinaryVersionByteAsymmetryTest {
 
   @Test
   public void readBytesContainerOverloadRejectsVersionAtArrayLength() {
-    // Number of supported versions is 1; passing 1 (== length) must reject.
+    // Number of supported versions is 2; passing 2 (== length) must reject.
     var serializer = new RecordSerializerBinary();
     var rbc = new ReadBytesContainer(new byte[] {0x01, 0x02});
     assertThrows(
         IllegalArgumentException.class,
-        () -> serializer.fromStream(null, (byte) 1, rbc, null, null));
+        () -> serializer.fromStream(null, (byte) 2, rbc, null, null));
   }
 
   @Test
@@ -106,12 +106,12 @@ public class RecordSerializerBinaryVersionByteAsymmetryTest {
   }
 
   @Test
-  public void numberOfSupportedVersionsIsOne() {
-    // Pin: there is one record-format version registered today (V1). Adding V2 must
-    // be a deliberate plan-of-record change because every persisted record's leading
-    // byte will then be one of two values.
+  public void numberOfSupportedVersionsIsTwo() {
+    // Pin: two record-format versions are registered today (V1 and V2 with the property
+    // offset table). Adding a third must be a deliberate plan-of-record change because
+    // every persisted record's leading byte will then be one of three values.
     var serializer = new RecordSerializerBinary();
-    assertEquals(1, serializer.getNumberOfSupportedVersions());
+    assertEquals(2, serializer.getNumberOfSupportedVersions());
   }
 
   @Test
@@ -121,7 +121,8 @@ public class RecordSerializerBinaryVersionByteAsymmetryTest {
     assertEquals(0, explicit.getMinSupportedVersion());
 
     var defaulted = new RecordSerializerBinary();
-    assertEquals(0, defaulted.getCurrentVersion());
+    assertEquals(1, defaulted.getCurrentVersion());
+    assertEquals(0, defaulted.getMinSupportedVersion());
   }
 
   @Test
@@ -0,0 +1,153 @@
+package com.jetbrains.youtrackdb.internal.core.sql.executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.jetbrains.youtrackdb.api.exception.RecordDuplicatedException;
+import com.jetbrains.youtrackdb.internal.DbTestBase;
+import com.jetbrains.youtrackdb.internal.core.metadata.schema.schema.PropertyType;
+import com.jetbrains.youtrackdb.internal.core.metadata.schema.schema.SchemaClass.INDEX_TYPE;
+import com.jetbrains.youtrackdb.internal.core.query.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * UNIQUE_HASH and NOTUNIQUE_HASH indexes: the planner uses them for equality and {@code IN}
+ * conditions on all of their properties, never for range conditions, key prefixes or ORDER BY, and
+ * the unique variant still rejects duplicate keys.
+ */
+public class HashIndexPlannerTest extends DbTestBase {
+
+  private static final String CLASS_NAME = "HashRec";
+
+  @Before
+  public void createRecords() {
+    var clazz = session.getMetadata().getSchema().createClass(CLASS_NAME);
+    clazz.createProperty("extId", PropertyType.STRING).createIndex(INDEX_TYPE.UNIQUE_HASH);
+    clazz.createProperty("grp", PropertyType.INTEGER);
+    clazz.createProperty("sub", PropertyType.INTEGER);
+    session.execute(
+        "create index HashRec.grp_sub on HashRec (grp, sub) NOTUNIQUE_HASH").close();
+
+    session.begin();
+    for (var i = 0; i < 20; i++) {
+      var entity = session.newEntity(CLASS_NAME);
+      entity.setProperty("extId", "ext" + i);
+      entity.setProperty("grp", i % 4);
+      entity.setProperty("sub", i % 2);
+    }
+    session.commit();
+  }
+
+  @Test
+  public void equalityUsesHashIndex() {
+    session.begin();
+    try (var rs = session.query("select from HashRec where extId = 'ext7'")) {
+      assertFirstStepIsIndexFetch(rs);
+      assertEquals(List.of(3), propertyValues(rs, "grp"));
+    }
+    session.commit();
+  }
+
+  @Test
+  public void inConditionUsesHashIndex() {
+    session.begin();
+    try (var rs = session.query("select from HashRec where extId in ['ext1', 'ext5', 'none']")) {
+      assertFirstStepIsIndexFetch(rs);
+      assertEquals(List.of(1, 1), propertyValues(rs, "grp"));
+    }
+    session.commit();
+  }
+
+  @Test
+  public void completeCompositeKeyUsesHashIndex() {
+    session.begin();
+    try (var rs = session.query("select from HashRec where grp = 2 and sub = 0")) {
+      assertFirstStepIsIndexFetch(rs);
+      assertEquals(5, propertyValues(rs, "grp").size());
+    }
+    session.commit();
+  }
+
+  @Test
+  public void keyPrefixDoesNotUseHashIndex() {
+    session.begin();
+    try (var rs = session.query("select from HashRec where grp = 2")) {
+      assertFirstStepIsNotIndexFetch(rs);
+      assertEquals(5, propertyValues(rs, "grp").size());
+    }
+    session.commit();
+  }
+
+  @Test
+  public void rangeConditionDoesNotUseHashIndex() {
+    session.begin();
+    try (var rs = session.query("select from HashRec where extId > 'ext5'")) {
+      assertFirstStepIsNotIndexFetch(rs);
+      // ext6 .. ext9
+      assertEquals(4, propertyValues(rs, "grp").size());
+    }
+    session.commit();
+  }
+
+  @Test
+  public void orderByIsNotServedByHashIndex() {
+    session.begin();
+    try (var rs = session.query("select extId from HashRec order by extId limit 3")) {
+      for (var step : rs.getExecutionPlan().getSteps()) {
+        assertFalse(step instanceof FetchFromIndexValuesStep);
+      }
+      var ids = new ArrayList<String>();
+      rs.forEachRemaining(r -> ids.add(r.getProperty("extId")));
+      assertEquals(List.of("ext0", "ext1", "ext10"), ids);
+    }
+    session.commit();
+  }
+
+  @Test
+  public void transactionChangesAreVisibleToPointLookup() {
+    session.begin();
+    session.newEntity(CLASS_NAME).setProperty("extId", "ext100");
+    try (var rs = session.query("select from HashRec where extId = 'ext100'")) {
+      assertFirstStepIsIndexFetch(rs);
+      assertTrue(rs.hasNext());
+      rs.next();
+      assertFalse(rs.hasNext());
+    }
+    session.rollback();
+  }
+
+  @Test
+  public void uniqueHashIndexRejectsDuplicates() {
+    session.begin();
+    session.newEntity(CLASS_NAME).setProperty("extId", "ext3");
+    try {
+      session.commit();
+      fail("expected a duplicate key violation");
+    } catch (RecordDuplicatedException e) {
+      // expected
+    }
+  }
+
+  private static void assertFirstStepIsIndexFetch(ResultSet rs) {
+    var firstStep = rs.getExecutionPlan().getSteps().getFirst();
+    assertTrue("expected FetchFromIndexStep, got " + firstStep.getClass().getSimpleName(),
+        firstStep instanceof FetchFromIndexStep);
+  }
+
+  private static void assertFirstStepIsNotIndexFetch(ResultSet rs) {
+    var firstStep = rs.getExecutionPlan().getSteps().getFirst();
+    assertFalse("hash index must not serve the query",
+        firstStep instanceof FetchFromIndexStep);
+  }
+
+  private static List<Integer> propertyValues(ResultSet rs, String property) {
+    var values = new ArrayList<Integer>();
+    rs.forEachRemaining(r -> values.add(r.getProperty(property)));
+    return values;
+  }
+}
@@ -0,0 +1,122 @@
+package com.jetbrains.youtrackdb.internal.core.sql.executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.jetbrains.youtrackdb.internal.DbTestBase;
+import com.jetbrains.youtrackdb.internal.core.index.IndexException;
+import com.jetbrains.youtrackdb.internal.core.metadata.schema.schema.PropertyType;
+import com.jetbrains.youtrackdb.internal.core.query.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Index-only scans: a NOTUNIQUE index with included properties answers queries which read only its
+ * key and included properties from the index entries, while queries reading other properties still
+ * load the records.
+ */
+public class IndexOnlyScanTest extends DbTestBase {
+
+  @Before
+  public void createIssues() {
+    var issue = session.getMetadata().getSchema().createClass("Issue");
+    issue.createProperty("project", PropertyType.INTEGER);
+    issue.createProperty("created", PropertyType.LONG);
+    issue.createProperty("name", PropertyType.STRING);
+    issue.createProperty("status", PropertyType.STRING);
+    issue.createProperty("description", PropertyType.STRING);
+    session.execute(
+        "create index Issue.listing on Issue (project, created) NOTUNIQUE"
+            + " METADATA {include: ['name', 'status']}").close();
+
+    session.begin();
+    for (var i = 0; i < 10; i++) {
+      var entity = session.newEntity("Issue");
+      entity.setProperty("project", i % 2);
+      entity.setProperty("created", 100L - i);
+      entity.setProperty("name", "issue" + i);
+      entity.setProperty("status", i % 3 == 0 ? "open" : "closed");
+      entity.setProperty("description", "description of issue " + i);
+    }
+    session.commit();
+  }
+
+  @Test
+  public void includedPropertiesAreAppendedToIndexDefinition() {
+    var index = session.getSharedContext().getIndexManager().getIndex("Issue.listing");
+    assertThat(index.getDefinition().getProperties())
+        .containsExactly("project", "created", "name", "status");
+  }
+
+  @Test
+  public void listingQueryIsAnsweredFromIndex() {
+    session.begin();
+    try (var rs = session.query(
+        "select name, status from Issue where project = 1 order by created")) {
+      assertIndexOnly(rs, true);
+      assertThat(names(rs)).containsExactly("issue9", "issue7", "issue5", "issue3", "issue1");
+    }
+    session.commit();
+  }
+
+  @Test
+  public void projectionOfOtherPropertyLoadsRecords() {
+    session.begin();
+    try (var rs = session.query("select name, description from Issue where project = 1")) {
+      assertIndexOnly(rs, false);
+      assertThat(rs.stream().count()).isEqualTo(5);
+    }
+    session.commit();
+  }
+
+  @Test
+  public void remainingConditionLoadsRecords() {
+    session.begin();
+    try (var rs = session.query(
+        "select name from Issue where project = 0 and description like '%issue 4'")) {
+      assertIndexOnly(rs, false);
+      assertThat(names(rs)).containsExactly("issue4");
+    }
+    session.commit();
+  }
+
+  @Test
+  public void updatedIncludedPropertyIsVisibleToIndexOnlyScan() {
+    session.begin();
+    try (var rs = session.query("select from Issue where name = 'issue3'")) {
+      rs.next().asEntity().setProperty("name", "renamed");
+    }
+    session.commit();
+
+    session.begin();
+    try (var rs = session.query("select name from Issue where project = 1 and created = 97")) {
+      assertIndexOnly(rs, true);
+      assertThat(names(rs)).containsExactly("renamed");
+    }
+    session.commit();
+  }
+
+  @Test
+  public void includedPropertiesRequireNotUniqueIndex() {
+    assertThatThrownBy(() -> session.execute(
+        "create index Issue.byName on Issue (name) UNIQUE METADATA {include: ['status']}")
+        .close())
+        .isInstanceOf(IndexException.class);
+  }
+
+  private static void assertIndexOnly(ResultSet rs, boolean indexOnly) {
+    var steps = rs.getExecutionPlan().getSteps();
+    assertThat(steps.stream().anyMatch(GetValueFromIndexKeyStep.class::isInstance))
+        .isEqualTo(indexOnly);
+    assertThat(steps.stream().anyMatch(GetValueFromIndexEntryStep.class::isInstance))
+        .isEqualTo(!indexOnly);
+  }
+
+  private static List<String> names(ResultSet rs) {
+    var names = new ArrayList<String>();
+    rs.forEachRemaining(r -> names.add(r.getProperty("name")));
+    return names;
+  }
+}
@@ -0,0 +1,225 @@
+package com.jetbrains.youtrackdb.internal.core.sql.executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.jetbrains.youtrackdb.api.config.GlobalConfiguration;
+import com.jetbrains.youtrackdb.internal.DbTestBase;
+import com.jetbrains.youtrackdb.internal.core.YouTrackDBEnginesManager;
+import com.jetbrains.youtrackdb.internal.core.db.DatabaseLifecycleListener;
+import com.jetbrains.youtrackdb.internal.core.db.DatabaseSessionEmbedded;
+import com.jetbrains.youtrackdb.internal.core.metadata.schema.PropertyType;
+import com.jetbrains.youtrackdb.internal.core.metadata.schema.SchemaClass;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nonnull;
+import org.apache.commons.configuration2.Configuration;
+import org.junit.Test;
+
+/**
+ * End-to-end tests for the concurrent mode of {@link ParallelExecStep}: sub-plans are executed by
+ * workers in their own sessions on the snapshot of the query's transaction.
+ */
+public class ParallelExecStepConcurrentTest extends DbTestBase {
+
+  private static final int SUBCLASSES = 12;
+
+  @Override
+  protected Configuration createConfig() {
+    var config = super.createConfig();
+    config.setProperty(GlobalConfiguration.QUERY_PARALLEL_AUTO.getKey(), true);
+    config.setProperty(GlobalConfiguration.QUERY_PARALLEL_MINIMUM_RECORDS.getKey(), 0L);
+    config.setProperty(GlobalConfiguration.QUERY_PARALLEL_RESULT_QUEUE_SIZE.getKey(), 2);
+
+    return config;
+  }
+
+  /**
+   * A polymorphic query over a hierarchy with an index per subclass returns matching records of
+   * all subclasses, and the records are usable by the session of the query.
+   */
+  @Test
+  public void polymorphicQueryReturnsRecordsOfAllSubclasses() {
+    createHierarchy();
+    insertRecords(10);
+
+    session.begin();
+    try (var result = session.query("select from Parent where name = 'name1'")) {
+      var plan = (InternalExecutionPlan) result.getExecutionPlan();
+      assertThat(plan.getSteps().getFirst()).isInstanceOf(ParallelExecStep.class);
+
+      var classes = new ArrayList<String>();
+      while (result.hasNext()) {
+        var entity = result.next().asEntity();
+        assertThat((String) entity.getProperty("name")).isEqualTo("name1");
+        classes.add(entity.getSchemaClassName());
+      }
+
+      assertThat(classes).hasSize(SUBCLASSES).doesNotHaveDuplicates();
+    }
+    session.commit();
+  }
+
+  /** An OR query which uses several indexes returns the union of matches of all branches. */
+  @Test
+  public void orQueryReturnsResultsOfAllBranches() {
+    var clazz = session.getMetadata().getSchema().createClass("OrClass");
+    clazz.createProperty("name", PropertyType.STRING);
+    clazz.createProperty("surname", PropertyType.STRING);
+    clazz.createIndex("OrClass.name", SchemaClass.INDEX_TYPE.NOTUNIQUE, "name");
+    clazz.createIndex("OrClass.surname", SchemaClass.INDEX_TYPE.NOTUNIQUE, "surname");
+
+    session.begin();
+    for (var i = 0; i < 100; i++) {
+      var entity = session.newEntity("OrClass");
+      entity.setProperty("name", "name" + i);
+      entity.setProperty("surname", "surname" + i);
+    }
+    session.commit();
+
+    session.begin();
+    try (var result = session.query(
+        "select from OrClass where name = 'name2' or surname = 'surname3' or name = 'name3'")) {
+      var names = result.stream().map(r -> (String) r.getProperty("name")).toList();
+      assertThat(names).containsExactlyInAnyOrder("name2", "name3");
+    }
+    session.commit();
+  }
+
+  /**
+   * Workers observe the snapshot of the query's transaction, so records committed by other
+   * sessions after the transaction has begun are not visible to them.
+   */
+  @Test
+  public void workersObserveSnapshotOfQueryTransaction() {
+    createHierarchy();
+    insertRecords(5);
+
+    session.begin();
+    CompletableFuture.runAsync(() -> {
+      try (var other = openDatabase()) {
+        other.begin();
+        for (var i = 0; i < SUBCLASSES; i++) {
+          other.newEntity("Child" + i).setProperty("name", "name1");
+        }
+        other.commit();
+      }
+    }).join();
+    session.activateOnCurrentThread();
+
+    assertThat(queryNames("select from Parent where name = 'name1'")).hasSize(SUBCLASSES);
+    session.commit();
+
+    session.begin();
+    assertThat(queryNames("select from Parent where name = 'name1'")).hasSize(2 * SUBCLASSES);
+    session.commit();
+  }
+
+  /**
+   * Sub-plans of a transaction which contains changes are executed sequentially by the session
+   * itself, so the changes are visible to the query.
+   */
+  @Test
+  public void changesOfTransactionAreVisible() {
+    createHierarchy();
+    insertRecords(5);
+
+    session.begin();
+    session.newEntity("Child0").setProperty("name", "name1");
+
+    assertThat(queryNames("select from Parent where name = 'name1'")).hasSize(SUBCLASSES + 1);
+    session.rollback();
+  }
+
+  /** Closing the result set before all results are consumed stops the workers. */
+  @Test
+  public void partiallyConsumedResultSetCanBeClosed() {
+    createHierarchy();
+    insertRecords(50);
+
+    for (var n = 0; n < 10; n++) {
+      session.begin();
+      try (var result = session.query("select from Parent where name >= 'name'")) {
+        assertThat(result.hasNext()).isTrue();
+        result.next();
+      }
+      session.commit();
+    }
+
+    session.begin();
+    assertThat(queryNames("select from Parent where name >= 'name'"))
+        .hasSize(50 * SUBCLASSES);
+    session.commit();
+  }
+
+  /**
+   * Closing the result set waits for the workers, so none of their sessions is still open and
+   * running a sub-plan once close returns.
+   */
+  @Test
+  public void closeWaitsForWorkers() {
+    createHierarchy();
+    insertRecords(50);
+
+    var databaseName = session.getDatabaseName();
+    var openWorkerSessions = new AtomicInteger();
+    var listener = new DatabaseLifecycleListener() {
+      @Override
+      public void onOpen(@Nonnull DatabaseSessionEmbedded opened) {
+        if (opened.getDatabaseName().equals(databaseName)) {
+          openWorkerSessions.incrementAndGet();
+        }
+      }
+
+      @Override
+      public void onClose(@Nonnull DatabaseSessionEmbedded closed) {
+        if (closed.getDatabaseName().equals(databaseName)) {
+          openWorkerSessions.decrementAndGet();
+        }
+      }
+    };
+
+    YouTrackDBEnginesManager.instance().addDbLifecycleListener(listener);
+    try {
+      for (var n = 0; n < 10; n++) {
+        session.begin();
+        try (var result = session.query("select from Parent where name >= 'name'")) {
+          assertThat(result.hasNext()).isTrue();
+          result.next();
+        }
+        assertThat(openWorkerSessions.get()).isZero();
+        session.commit();
+      }
+    } finally {
+      YouTrackDBEnginesManager.instance().removeDbLifecycleListener(listener);
+    }
+  }
+
+  private List<String> queryNames(String query) {
+    try (var result = session.query(query)) {
+      return result.stream().map(r -> (String) r.getProperty("name")).toList();
+    }
+  }
+
+  private void createHierarchy() {
+    var schema = session.getMetadata().getSchema();
+    var parent = schema.createClass("Parent");
+    parent.createProperty("name", PropertyType.STRING);
+
+    for (var i = 0; i < SUBCLASSES; i++) {
+      var child = schema.createClass("Child" + i, parent);
+      child.createIndex("Child" + i + ".name", SchemaClass.INDEX_TYPE.NOTUNIQUE, "name");
+    }
+  }
+
+  private void insertRecords(int perClass) {
+    session.begin();
+    for (var i = 0; i < SUBCLASSES; i++) {
+      for (var j = 0; j < perClass; j++) {
+        session.newEntity("Child" + i).setProperty("name", "name" + j);
+      }
+    }
+    session.commit();
+  }
+}
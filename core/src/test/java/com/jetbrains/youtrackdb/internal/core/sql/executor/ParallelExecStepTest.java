@@ -29,7 +29,8 @@ import org.junit.Test;
 
 /**
  * Direct-step tests for {@link ParallelExecStep}, the source step that executes multiple sub-plans
- * and concatenates their result streams (sequentially, despite the "Parallel" name).
+ * and concatenates their result streams (sequentially, unless concurrent execution is enabled, see
+ * {@link ParallelExecStepConcurrentTest}).
  *
  * <p>Covers:
  *
@@ -0,0 +1,182 @@
+package com.jetbrains.youtrackdb.internal.core.sql.executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.jetbrains.youtrackdb.api.config.GlobalConfiguration;
+import com.jetbrains.youtrackdb.internal.DbTestBase;
+import com.jetbrains.youtrackdb.internal.SequentialTest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.apache.commons.configuration2.Configuration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * ORDER BY, DISTINCT and GROUP BY with spilling to disk enabled and a heap limit which is much
+ * smaller than the processed data: the queries succeed and return the same results as in-heap
+ * execution.
+ */
+@Category(SequentialTest.class)
+public class QuerySpillToDiskTest extends DbTestBase {
+
+  private static final long HEAP_LIMIT = 10;
+
+  private long originalHeapLimit;
+
+  @Override
+  protected Configuration createConfig() {
+    var config = super.createConfig();
+    config.setProperty(GlobalConfiguration.QUERY_SPILL_TO_DISK_ENABLED.getKey(), true);
+    return config;
+  }
+
+  @Before
+  public void setHeapLimit() {
+    originalHeapLimit =
+        GlobalConfiguration.QUERY_MAX_HEAP_ELEMENTS_ALLOWED_PER_OP.getValueAsLong();
+    GlobalConfiguration.QUERY_MAX_HEAP_ELEMENTS_ALLOWED_PER_OP.setValue(HEAP_LIMIT);
+  }
+
+  @After
+  public void restoreHeapLimit() {
+    GlobalConfiguration.QUERY_MAX_HEAP_ELEMENTS_ALLOWED_PER_OP.setValue(originalHeapLimit);
+  }
+
+  /** More sorted runs than a single merge reads at once, so runs are merged in several passes. */
+  @Test
+  public void orderByWithoutLimitSortsSpilledRuns() {
+    createRecords(1000);
+
+    session.begin();
+    assertThat(queryInts("select val from SpillClass order by val desc", "val"))
+        .isEqualTo(IntStream.range(0, 1000).map(i -> 999 - i).boxed().toList());
+    session.commit();
+  }
+
+  @Test
+  public void orderByOfRecordsReturnsLoadableRecords() {
+    createRecords(100);
+
+    session.begin();
+    try (var result = session.query("select from SpillClass order by val")) {
+      var values = new ArrayList<Integer>();
+      while (result.hasNext()) {
+        var entity = result.next().asEntity();
+        values.add(entity.getProperty("val"));
+      }
+      assertThat(values).isEqualTo(IntStream.range(0, 100).boxed().toList());
+    }
+    session.commit();
+  }
+
+  @Test
+  public void orderByWithLimitAboveHeapLimitIsTruncated() {
+    createRecords(200);
+
+    session.begin();
+    assertThat(queryInts("select val from SpillClass order by val limit 25", "val"))
+        .isEqualTo(IntStream.range(0, 25).boxed().toList());
+    assertThat(queryInts("select val from SpillClass order by val skip 30 limit 20", "val"))
+        .isEqualTo(IntStream.range(30, 50).boxed().toList());
+    session.commit();
+  }
+
+  @Test
+  public void orderByWithDuplicateKeysReturnsAllRows() {
+    createRecords(200);
+
+    session.begin();
+    try (var result = session.query("select val, grp from SpillClass order by grp")) {
+      var previousGroup = -1;
+      var count = 0;
+      while (result.hasNext()) {
+        var item = result.next();
+        int group = item.getProperty("grp");
+        assertThat(group).isGreaterThanOrEqualTo(previousGroup);
+        previousGroup = group;
+        count++;
+      }
+      assertThat(count).isEqualTo(200);
+    }
+    session.commit();
+  }
+
+  @Test
+  public void distinctProjectionsAreDeduplicatedAcrossPartitions() {
+    createRecords(500);
+
+    session.begin();
+    assertThat(queryInts("select distinct grp from SpillClass", "grp"))
+        .containsExactlyInAnyOrderElementsOf(IntStream.range(0, 50).boxed().toList());
+    session.commit();
+  }
+
+  @Test
+  public void distinctRecordsAreNotLimited() {
+    createRecords(100);
+
+    session.begin();
+    try (var result = session.query("select distinct * from SpillClass")) {
+      assertThat(result.stream().count()).isEqualTo(100);
+    }
+    session.commit();
+  }
+
+  @Test
+  public void groupByAggregatesSpilledGroups() {
+    createRecords(500);
+
+    session.begin();
+    var counts = new HashMap<Integer, Long>();
+    var sums = new HashMap<Integer, Long>();
+    try (var result = session.query(
+        "select grp, count(*) as cnt, sum(val) as total from SpillClass group by grp")) {
+      while (result.hasNext()) {
+        var item = result.next();
+        int group = item.getProperty("grp");
+        assertThat(counts.put(group, item.getProperty("cnt"))).isNull();
+        sums.put(group, ((Number) item.getProperty("total")).longValue());
+      }
+    }
+    session.commit();
+
+    assertThat(counts).hasSize(50);
+    for (var group = 0; group < 50; group++) {
+      assertThat(counts.get(group)).isEqualTo(10L);
+
+      var expectedSum = 0L;
+      for (var i = group; i < 500; i += 50) {
+        expectedSum += i;
+      }
+      assertThat(sums.get(group)).isEqualTo(expectedSum);
+    }
+  }
+
+  private List<Integer> queryInts(String query, String property) {
+    try (var result = session.query(query)) {
+      return result.stream().map(r -> (Integer) r.getProperty(property)).toList();
+    }
+  }
+
+  /** Creates records with {@code val} from 0 to count - 1 in random order and grp = val % 50. */
+  private void createRecords(int count) {
+    session.getMetadata().getSchema().createClass("SpillClass");
+
+    var values = new ArrayList<>(IntStream.range(0, count).boxed().toList());
+    Collections.shuffle(values, new Random(42));
+
+    session.begin();
+    for (var value : values) {
+      var entity = session.newEntity("SpillClass");
+      entity.setProperty("val", value);
+      entity.setProperty("grp", value % 50);
+    }
+    session.commit();
+  }
+}
@@ -0,0 +1,198 @@
+package com.jetbrains.youtrackdb.internal.core.sql.executor.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.jetbrains.youtrackdb.api.config.GlobalConfiguration;
+import com.jetbrains.youtrackdb.internal.DbTestBase;
+import com.jetbrains.youtrackdb.internal.SequentialTest;
+import com.jetbrains.youtrackdb.internal.core.db.DatabaseSessionEmbedded;
+import com.jetbrains.youtrackdb.internal.core.db.record.record.RID;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import org.apache.commons.configuration2.Configuration;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * The database-level query result cache: results are reused across transactions, dropped by commits
+ * to the collections they read, kept on commits to other collections, and never stored by a
+ * transaction whose snapshot is older than the latest commit of a read collection. A commit which
+ * changes users, roles or security policies drops every result.
+ */
+@Category(SequentialTest.class)
+public class SharedQueryResultCacheTest extends DbTestBase {
+
+  private static final String QUERY = "select from SharedRec where val < 5";
+
+  @Override
+  protected Configuration createConfig() {
+    var config = super.createConfig();
+    config.setProperty(GlobalConfiguration.QUERY_SHARED_RESULT_CACHE_ENABLED.getKey(), true);
+    return config;
+  }
+
+  @Before
+  public void createRecords() {
+    session.getMetadata().getSchema().createClass("SharedRec");
+    session.getMetadata().getSchema().createClass("OtherRec");
+
+    session.begin();
+    for (var i = 0; i < 10; i++) {
+      session.newEntity("SharedRec").setProperty("val", i);
+    }
+    session.commit();
+  }
+
+  @Test
+  public void repeatedQueryIsServedFromCache() {
+    var firstRun = queryRids(QUERY);
+    var hits = cache().getHits();
+
+    var secondRun = queryRids(QUERY);
+    assertThat(cache().getHits()).isEqualTo(hits + 1);
+    assertThat(secondRun).isEqualTo(firstRun).hasSize(5);
+
+    session.begin();
+    try (var result = session.query(QUERY)) {
+      while (result.hasNext()) {
+        assertThat(result.next().asEntity().<Integer>getProperty("val")).isLessThan(5);
+      }
+    }
+    session.commit();
+  }
+
+  @Test
+  public void projectionIsServedFromCache() {
+    var query = "select val from SharedRec where val >= 7 order by val";
+    assertThat(queryValues(query)).containsExactly(7, 8, 9);
+    var hits = cache().getHits();
+
+    assertThat(queryValues(query)).containsExactly(7, 8, 9);
+    assertThat(cache().getHits()).isEqualTo(hits + 1);
+  }
+
+  @Test
+  public void commitToReadClassInvalidatesResult() {
+    queryRids(QUERY);
+    assertThat(cache().size()).isEqualTo(1);
+
+    session.begin();
+    session.newEntity("SharedRec").setProperty("val", -1);
+    session.commit();
+    assertThat(cache().size()).isZero();
+
+    var hits = cache().getHits();
+    assertThat(queryRids(QUERY)).hasSize(6);
+    assertThat(cache().getHits()).isEqualTo(hits);
+  }
+
+  @Test
+  public void commitToOtherClassKeepsResult() {
+    queryRids(QUERY);
+
+    session.begin();
+    session.newEntity("OtherRec").setProperty("val", -1);
+    session.commit();
+
+    var hits = cache().getHits();
+    assertThat(queryRids(QUERY)).hasSize(5);
+    assertThat(cache().getHits()).isEqualTo(hits + 1);
+  }
+
+  @Test
+  public void transactionWithChangesBypassesCache() {
+    queryRids(QUERY);
+    var hits = cache().getHits();
+
+    session.begin();
+    session.newEntity("SharedRec").setProperty("val", -1);
+    try (var result = session.query(QUERY)) {
+      assertThat(result.stream().count()).isEqualTo(6);
+    }
+    session.rollback();
+
+    assertThat(cache().getHits()).isEqualTo(hits);
+  }
+
+  @Test
+  public void resultOfOutdatedSnapshotIsNotStored() throws Exception {
+    session.begin();
+    try (var executor = Executors.newSingleThreadExecutor()) {
+      executor.submit(() -> {
+        try (var other = openDatabase()) {
+          other.begin();
+          other.newEntity("SharedRec").setProperty("val", -1);
+          other.commit();
+        }
+      }).get();
+    }
+    session.activateOnCurrentThread();
+
+    try (var result = session.query(QUERY)) {
+      assertThat(result.stream().count()).isEqualTo(5);
+    }
+    session.commit();
+    assertThat(cache().size()).isZero();
+
+    assertThat(queryRids(QUERY)).hasSize(6);
+    assertThat(queryRids(QUERY)).hasSize(6);
+  }
+
+  @Test
+  public void revokedReadIsNotServedFromCache() {
+    session.begin();
+    session.getMetadata().getSecurity().createUser("sharedReader", "sharedReader", "reader");
+    session.commit();
+    var cache = cache();
+
+    try (var reader = openDatabase("sharedReader", "sharedReader")) {
+      assertThat(queryRids(reader, QUERY)).hasSize(5);
+      assertThat(queryRids(reader, QUERY)).hasSize(5);
+      assertThat(cache.size()).isEqualTo(1);
+
+      session.activateOnCurrentThread();
+      session.begin();
+      session.execute("REVOKE READ ON database.class.SharedRec FROM reader").close();
+      session.commit();
+      assertThat(cache.size()).isZero();
+
+      reader.activateOnCurrentThread();
+      var hits = cache.getHits();
+      assertThat(queryRids(reader, QUERY)).isEmpty();
+      assertThat(cache.getHits()).isEqualTo(hits);
+    }
+    session.activateOnCurrentThread();
+  }
+
+  private SharedQueryResultCache cache() {
+    return session.getSharedContext().getSharedQueryResultCache();
+  }
+
+  private Set<RID> queryRids(String query) {
+    return queryRids(session, query);
+  }
+
+  private static Set<RID> queryRids(DatabaseSessionEmbedded db, String query) {
+    var rids = new HashSet<RID>();
+    db.begin();
+    try (var result = db.query(query)) {
+      while (result.hasNext()) {
+        rids.add(result.next().getIdentity());
+      }
+    }
+    db.commit();
+    return rids;
+  }
+
+  private List<Integer> queryValues(String query) {
+    session.begin();
+    try (var result = session.query(query)) {
+      return result.stream().map(r -> r.<Integer>getProperty("val")).toList();
+    } finally {
+      session.commit();
+    }
+  }
+}
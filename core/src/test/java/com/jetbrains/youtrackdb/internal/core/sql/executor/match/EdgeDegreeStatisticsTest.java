@@ -0,0 +1,90 @@
+package com.jetbrains.youtrackdb.internal.core.sql.executor.match;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.jetbrains.youtrackdb.internal.core.index.engine.EquiDepthHistogram;
+import com.jetbrains.youtrackdb.internal.core.index.engine.IndexStatistics;
+import org.junit.Test;
+
+/**
+ * Tests for {@link EdgeDegreeStatistics} — verifies that the degree distribution derived from the
+ * statistics of an index on the {@code out}/{@code in} property of an edge class detects skewed
+ * (power-law) degree distributions.
+ */
+public class EdgeDegreeStatisticsTest {
+
+  private static final double DELTA = 1e-9;
+
+  private static EquiDepthHistogram histogram(
+      long[] frequencies, long[] distinctCounts, long mcvFrequency) {
+    var boundaries = new Comparable<?>[frequencies.length + 1];
+    long nonNullCount = 0;
+    for (var i = 0; i < boundaries.length; i++) {
+      boundaries[i] = i;
+    }
+    for (var frequency : frequencies) {
+      nonNullCount += frequency;
+    }
+    return new EquiDepthHistogram(frequencies.length, boundaries, frequencies, distinctCounts,
+        nonNullCount, 0, mcvFrequency);
+  }
+
+  @Test
+  public void uniformDegrees_sizeBiasedDegreeEqualsAverage() {
+    // Given: 1000 edges spread evenly over 100 vertices
+    var statistics = EdgeDegreeStatistics.fromIndex(
+        new IndexStatistics(1000, 100, 0),
+        histogram(new long[] {500, 500}, new long[] {50, 50}, 10));
+
+    // Then: every vertex has degree 10
+    assertEquals(10.0, statistics.averageDegree(), DELTA);
+    assertEquals(10.0, statistics.sizeBiasedDegree(), DELTA);
+    assertEquals(10, statistics.maxDegree());
+    assertEquals(1.0, statistics.skew(), DELTA);
+  }
+
+  @Test
+  public void heavyVertex_increasesSizeBiasedDegree() {
+    // Given: 1000 edges over 101 vertices, one of them holds 450 edges but is averaged out
+    // inside of its histogram bucket
+    var statistics = EdgeDegreeStatistics.fromIndex(
+        new IndexStatistics(1000, 101, 0),
+        histogram(new long[] {500, 500}, new long[] {50, 51}, 450));
+
+    // Then: sum of squares >= 450^2 + 550^2 / 100, size-biased degree = 205525 / 1000
+    assertEquals(1000.0 / 101, statistics.averageDegree(), DELTA);
+    assertEquals(450, statistics.maxDegree());
+    assertEquals(205.525, statistics.sizeBiasedDegree(), DELTA);
+    assertTrue(statistics.skew() > 20);
+  }
+
+  @Test
+  public void skewedBuckets_increaseSizeBiasedDegree() {
+    // Given: 100 vertices with a single edge and one bucket of 2 vertices with 450 edges each
+    var statistics = EdgeDegreeStatistics.fromIndex(
+        new IndexStatistics(1000, 102, 0),
+        histogram(new long[] {100, 900}, new long[] {100, 2}, 0));
+
+    // Then: sum of squares = 100 * 1 + 2 * 450^2
+    assertEquals(450, statistics.maxDegree());
+    assertEquals(405.1, statistics.sizeBiasedDegree(), DELTA);
+  }
+
+  @Test
+  public void noHistogram_fallsBackToAverageDegree() {
+    var statistics = EdgeDegreeStatistics.fromIndex(new IndexStatistics(1010, 100, 10), null);
+
+    // Then: null keys are not edges, all vertices get the average degree
+    assertEquals(1000, statistics.edgeCount());
+    assertEquals(10.0, statistics.averageDegree(), DELTA);
+    assertEquals(10.0, statistics.sizeBiasedDegree(), DELTA);
+  }
+
+  @Test
+  public void emptyIndex_hasNoStatistics() {
+    assertNull(EdgeDegreeStatistics.fromIndex(new IndexStatistics(0, 0, 0), null));
+    assertNull(EdgeDegreeStatistics.fromIndex(new IndexStatistics(5, 0, 5), null));
+  }
+}
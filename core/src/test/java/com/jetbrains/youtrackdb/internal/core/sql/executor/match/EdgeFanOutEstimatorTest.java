@@ -1,6 +1,7 @@
 package com.jetbrains.youtrackdb.internal.core.sql.executor.match;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -11,12 +12,18 @@ import static org.mockito.Mockito.when;
 
 import com.jetbrains.youtrackdb.internal.core.db.DatabaseSessionEmbedded;
 import com.jetbrains.youtrackdb.internal.core.db.record.record.Direction;
+import com.jetbrains.youtrackdb.internal.core.index.Index;
+import com.jetbrains.youtrackdb.internal.core.index.IndexDefinition;
+import com.jetbrains.youtrackdb.internal.core.index.engine.IndexStatistics;
 import com.jetbrains.youtrackdb.internal.core.metadata.MetadataDefault;
 import com.jetbrains.youtrackdb.internal.core.metadata.schema.ImmutableSchema;
 import com.jetbrains.youtrackdb.internal.core.metadata.schema.SchemaClassInternal;
 import com.jetbrains.youtrackdb.internal.core.metadata.schema.schema.SchemaClass;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -792,4 +799,88 @@ public class EdgeFanOutEstimatorTest {
     assertEquals(first, second, 0.0);
     verify(personClass, times(1)).approximateCount(session);
   }
+
+  // ── Binding fan-out from degree statistics ──────────────────
+
+  private Index registerEdgeIndex(String property, IndexStatistics statistics) {
+    var definition = mock(IndexDefinition.class);
+    when(definition.getProperties()).thenReturn(List.of(property));
+    var index = mock(Index.class);
+    when(index.getDefinition()).thenReturn(definition);
+    when(index.getStatistics(session)).thenReturn(statistics);
+    return index;
+  }
+
+  @Test
+  public void bindingFanOut_withoutEdgeIndex_returnsAverageFanOut() {
+    registerClass("Knows", 500);
+
+    assertEquals(5.0, EdgeFanOutEstimator.estimateBindingFanOut(
+        session, "Knows", Direction.OUT, 5.0), DELTA);
+    assertEquals(5.0, EdgeFanOutEstimator.estimateBindingFanOut(
+        session, null, Direction.OUT, 5.0), DELTA);
+  }
+
+  @Test
+  public void bindingFanOut_usesDegreeOfVerticesWithEdges() {
+    // Given: 500 Knows edges whose out vertices are 50 distinct vertices, while
+    // the class counts give an average of 5 edges per source vertex
+    var knowsClass = registerClass("Knows", 500);
+    var outIndex = registerEdgeIndex("out", new IndexStatistics(500, 50, 0));
+    var otherIndex = registerEdgeIndex("since", new IndexStatistics(500, 3, 0));
+    when(knowsClass.getClassIndexesInternal()).thenReturn(Set.of(otherIndex, outIndex));
+
+    // Then: a vertex reached by a traversal has 500 / 50 outgoing edges
+    assertEquals(10.0, EdgeFanOutEstimator.estimateBindingFanOut(
+        session, "Knows", Direction.OUT, 5.0), DELTA);
+    // No index on "in": the average fan-out is kept
+    assertEquals(5.0, EdgeFanOutEstimator.estimateBindingFanOut(
+        session, "Knows", Direction.IN, 5.0), DELTA);
+    // BOTH sums the available sides
+    assertEquals(10.0, EdgeFanOutEstimator.estimateBindingFanOut(
+        session, "Knows", Direction.BOTH, 10.0), DELTA);
+    verify(otherIndex, never()).getStatistics(session);
+  }
+
+  @Test
+  public void bindingFanOut_cacheInspectsEdgeIndexOnce() {
+    var knowsClass = registerClass("Knows", 500);
+    var outIndex = registerEdgeIndex("out", new IndexStatistics(500, 50, 0));
+    when(knowsClass.getClassIndexesInternal()).thenReturn(Set.of(outIndex));
+
+    var cache = new HashMap<String, Optional<EdgeDegreeStatistics>>();
+    assertEquals(10.0, EdgeFanOutEstimator.estimateBindingFanOut(
+        session, "Knows", Direction.OUT, 5.0, cache), DELTA);
+    assertEquals(10.0, EdgeFanOutEstimator.estimateBindingFanOut(
+        session, "Knows", Direction.OUT, 5.0, cache), DELTA);
+    // A missing "in" index is memoized as well
+    assertEquals(5.0, EdgeFanOutEstimator.estimateBindingFanOut(
+        session, "Knows", Direction.IN, 5.0, cache), DELTA);
+    assertEquals(5.0, EdgeFanOutEstimator.estimateBindingFanOut(
+        session, "Knows", Direction.IN, 5.0, cache), DELTA);
+
+    verify(outIndex, times(1)).getStatistics(session);
+    verify(knowsClass, times(2)).getClassIndexesInternal();
+  }
+
+  @Test
+  public void reverseTraversal_requiresSameEdgeClassAndOppositeSide() {
+    assertTrue(EdgeFanOutEstimator.isReverseTraversal(
+        "Knows", Direction.OUT, "Knows", Direction.IN));
+    assertTrue(EdgeFanOutEstimator.isReverseTraversal(
+        "Knows", Direction.IN, "knows", Direction.OUT));
+    assertTrue(EdgeFanOutEstimator.isReverseTraversal(
+        "Knows", Direction.BOTH, "Knows", Direction.OUT));
+    assertTrue(EdgeFanOutEstimator.isReverseTraversal(
+        "Knows", Direction.OUT, "Knows", Direction.BOTH));
+
+    // Continuing in the same direction expands the other side of the reached vertex
+    assertFalse(EdgeFanOutEstimator.isReverseTraversal(
+        "Knows", Direction.OUT, "Knows", Direction.OUT));
+    // A different edge class is not correlated with the degree the vertex was picked by
+    assertFalse(EdgeFanOutEstimator.isReverseTraversal(
+        "WorksAt", Direction.OUT, "Knows", Direction.IN));
+    assertFalse(EdgeFanOutEstimator.isReverseTraversal(
+        null, Direction.OUT, null, Direction.IN));
+  }
 }
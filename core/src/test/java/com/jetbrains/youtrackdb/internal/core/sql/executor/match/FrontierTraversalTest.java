@@ -0,0 +1,125 @@
+package com.jetbrains.youtrackdb.internal.core.sql.executor.match;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.jetbrains.youtrackdb.internal.DbTestBase;
+import com.jetbrains.youtrackdb.internal.core.sql.parser.MatchFrontier;
+import com.jetbrains.youtrackdb.internal.core.sql.parser.SQLMatchStatement;
+import com.jetbrains.youtrackdb.internal.core.sql.parser.YouTrackDBSql;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Variable-depth MATCH edges carrying a {@link MatchFrontier}: records are expanded one depth at a
+ * time, paths reaching the same record at the same depth are merged into one row with their count
+ * as bulk, and times / until / emit select the returned rows the way Gremlin's repeat() does.
+ *
+ * <pre>
+ *   A -&gt; B -&gt; D -&gt; E -&gt; A   (cycle back to A)
+ *   A -&gt; C -&gt; D
+ * </pre>
+ */
+public class FrontierTraversalTest extends DbTestBase {
+
+  @Before
+  public void createGraph() {
+    session.execute("CREATE class Node extends V").close();
+    session.execute("CREATE class Link extends E").close();
+
+    session.begin();
+    for (var name : List.of("A", "B", "C", "D", "E")) {
+      session.execute("CREATE VERTEX Node set name = ?", name).close();
+    }
+    for (var link : List.of("AB", "AC", "BD", "CD", "DE", "EA")) {
+      session.execute(
+          "CREATE EDGE Link FROM (SELECT FROM Node WHERE name = ?)"
+              + " TO (SELECT FROM Node WHERE name = ?)",
+          link.substring(0, 1), link.substring(1)).close();
+    }
+    session.commit();
+  }
+
+  @Test
+  public void timesReturnsLastDepthWithMergedBulk() {
+    var rows = run("maxDepth: 2", new MatchFrontier(null, 1, false, "bulk"));
+    assertThat(rows).containsExactly("D@2x2");
+  }
+
+  @Test
+  public void emitReturnsEveryDepthAfterTheStart() {
+    var rows = run("maxDepth: 3", new MatchFrontier(1, 1, false, "bulk"));
+    assertThat(rows).containsExactly("B@1x1", "C@1x1", "D@2x2", "E@3x2");
+  }
+
+  @Test
+  public void emitBeforeRepeatAlsoReturnsTheStart() {
+    var rows = run("maxDepth: 1", new MatchFrontier(0, 1, false, "bulk"));
+    assertThat(rows).containsExactly("A@0x1", "B@1x1", "C@1x1");
+  }
+
+  @Test
+  public void untilStopsExpansionAndReturnsLeavingRecords() {
+    var rows = run("while: (name <> 'D')", new MatchFrontier(null, 1, false, "bulk"));
+    assertThat(rows).containsExactly("D@2x2");
+  }
+
+  @Test
+  public void untilBeforeRepeatAlsoTestsTheStart() {
+    assertThat(run("while: (name <> 'A')", new MatchFrontier(null, 0, false, "bulk")))
+        .containsExactly("A@0x1");
+    assertThat(run("while: (name <> 'A')", new MatchFrontier(null, 1, false, "bulk")))
+        .containsExactly("A@4x2");
+  }
+
+  @Test
+  public void simplePathKeepsPathsApartAndStopsAtCycles() {
+    var rows = run("while: (true)", new MatchFrontier(1, 1, true, "bulk"));
+    assertThat(rows).containsExactly("B@1x1", "C@1x1", "D@2x1", "D@2x1", "E@3x1", "E@3x1");
+  }
+
+  @Test
+  public void recordsAreRevisitedAtLaterDepthsUnlessSimplePath() {
+    assertThat(run("maxDepth: 5", new MatchFrontier(null, 1, false, "bulk")))
+        .containsExactly("B@5x2", "C@5x2");
+    assertThat(run("maxDepth: 5", new MatchFrontier(null, 1, true, "bulk"))).isEmpty();
+  }
+
+  @Test
+  public void targetFilterSelectsReturnedRowsWithoutStoppingExpansion() {
+    var rows =
+        run("maxDepth: 3, where: (name = 'E')", new MatchFrontier(1, 1, false, "bulk"));
+    assertThat(rows).containsExactly("E@3x2");
+  }
+
+  /**
+   * Runs {@code A.out('Link'){as: b, <options>}} with the given frontier and renders each row as
+   * {@code name@depth x bulk}, in the order the rows are returned.
+   */
+  private List<String> run(String options, MatchFrontier frontier) {
+    var sql =
+        "MATCH {class: Node, as: a, where: (name = 'A')}.out('Link'){as: b, depthAlias: d, "
+            + options + "} RETURN b.name as name, d, bulk";
+    SQLMatchStatement statement;
+    try {
+      statement = (SQLMatchStatement) new YouTrackDBSql(
+          new ByteArrayInputStream(sql.getBytes(StandardCharsets.UTF_8))).parse();
+    } catch (Exception e) {
+      throw new AssertionError("Failed to parse: " + sql, e);
+    }
+    statement.getMatchExpressions().getFirst().getItems().getFirst().getFilter()
+        .setFrontier(frontier);
+
+    var rows = new ArrayList<String>();
+    session.begin();
+    try (var rs = statement.execute(session, (Object[]) null, null, false)) {
+      rs.forEachRemaining(r ->
+          rows.add(r.getProperty("name") + "@" + r.getProperty("d") + "x" + r.getProperty("bulk")));
+    }
+    session.commit();
+    return rows;
+  }
+}
@@ -11,6 +11,7 @@ import static org.junit.Assert.assertTrue;
 
 import com.jetbrains.youtrackdb.internal.core.sql.executor.match.PatternNode;
 import com.jetbrains.youtrackdb.internal.core.sql.executor.match.builder.MatchPatternBuilder.Direction;
+import com.jetbrains.youtrackdb.internal.core.sql.parser.MatchFrontier;
 import com.jetbrains.youtrackdb.internal.core.sql.parser.Pattern;
 import com.jetbrains.youtrackdb.internal.core.sql.parser.SQLMatchPathItem;
 import com.jetbrains.youtrackdb.internal.core.sql.parser.SQLWhereClause;
@@ -26,7 +27,7 @@ import org.junit.Test;
  * both edges; multi-hop chains; optional nodes; implicit-fromAlias creation; class-name and
  * where-clause registration; alias-prefix preservation (the builder must not generate
  * default aliases — that's the caller's responsibility); rejection of unsupported
- * variable-depth parameters.
+ * variable-depth parameters on plain edges; frontier options on repeat edges.
  */
 public class MatchPatternBuilderTest {
 
@@ -363,6 +364,42 @@ public class MatchPatternBuilderTest {
         () -> b.addEdge("a", "b", null, "E", null, null, null));
   }
 
+  // ── addRepeatEdge ──
+
+  /**
+   * {@link MatchPatternBuilder#addRepeatEdge} attaches the maxDepth, while condition and frontier
+   * options to the target path item's filter.
+   */
+  @Test
+  public void addRepeatEdge_attachesDepthWhileAndFrontier() {
+    var wb = new MatchWhereBuilder();
+    var whileC = wb.wrap(wb.eq("k", MatchLiteralBuilder.toLiteral(1L)));
+    var frontier = new MatchFrontier(1, 1, true, "bulk");
+
+    var ir =
+        new MatchPatternBuilder()
+            .addRepeatEdge("a", "b", Direction.OUT, "E", null, whileC, 8, frontier)
+            .build();
+
+    assertEquals(1, ir.pattern().getNumOfEdges());
+    var filter = ir.pattern().aliasToNode.get("a").out.iterator().next().item.getFilter();
+    assertEquals("b", filter.getAlias());
+    assertEquals(Integer.valueOf(8), filter.getMaxDepth());
+    assertEquals(whileC, filter.getWhileCondition());
+    assertEquals(frontier, filter.getFrontier());
+  }
+
+  /** A repeat edge with neither a while condition nor a maxDepth is rejected. */
+  @Test
+  public void addRepeatEdge_withoutTermination_throwsIllegalArgument() {
+    var b = new MatchPatternBuilder();
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> b.addRepeatEdge(
+            "a", "b", Direction.OUT, "E", null, null, null,
+            new MatchFrontier(null, 1, false, null)));
+  }
+
   // ── addEdgeAsNode (edge-as-node form: outE(L){as,where}.inV()) ──
 
   /**
@@ -0,0 +1,105 @@
+package com.jetbrains.youtrackdb.internal.core.sql.functions.graph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import com.jetbrains.youtrackdb.internal.core.id.RecordId;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeSet;
+import org.junit.Test;
+
+/**
+ * Unit tests for the primitive structures behind the A* / Dijkstra path finders: {@link
+ * IndexedMinHeap} and {@link RidIndex}.
+ */
+public class IndexedMinHeapTest {
+
+  @Test
+  public void pollReturnsNodesInKeyOrder() {
+    var heap = new IndexedMinHeap(2);
+    heap.insertOrUpdate(3, 5.0);
+    heap.insertOrUpdate(0, 1.5);
+    heap.insertOrUpdate(7, 3.0);
+    heap.insertOrUpdate(1, 0.5);
+
+    assertEquals(4, heap.size());
+    assertEquals(1, heap.poll());
+    assertEquals(0, heap.poll());
+    assertEquals(7, heap.poll());
+    assertEquals(3, heap.poll());
+    assertTrue(heap.isEmpty());
+  }
+
+  @Test
+  public void updateRepositionsNodeInPlace() {
+    var heap = new IndexedMinHeap();
+    heap.insertOrUpdate(0, 10.0);
+    heap.insertOrUpdate(1, 20.0);
+    heap.insertOrUpdate(2, 30.0);
+
+    heap.insertOrUpdate(2, 5.0);
+    assertEquals(3, heap.size());
+    assertEquals(5.0, heap.key(2), 0.0);
+
+    heap.insertOrUpdate(0, 25.0);
+    assertEquals(2, heap.poll());
+    assertEquals(1, heap.poll());
+    assertEquals(0, heap.poll());
+  }
+
+  @Test
+  public void containsTracksMembership() {
+    var heap = new IndexedMinHeap();
+    assertFalse(heap.contains(100));
+    heap.insertOrUpdate(100, 1.0);
+    assertTrue(heap.contains(100));
+    heap.poll();
+    assertFalse(heap.contains(100));
+    assertThrows(NoSuchElementException.class, heap::poll);
+    assertThrows(NoSuchElementException.class, () -> heap.key(100));
+  }
+
+  @Test
+  public void randomOperationsMatchOrderedSet() {
+    var random = new Random(42);
+    var heap = new IndexedMinHeap();
+    var keys = new double[500];
+    var reference = new TreeSet<Integer>(
+        (a, b) -> keys[a] != keys[b] ? Double.compare(keys[a], keys[b]) : Integer.compare(a, b));
+
+    for (var i = 0; i < 20_000; i++) {
+      var node = random.nextInt(keys.length);
+      if (random.nextInt(4) == 0 && !heap.isEmpty()) {
+        var polled = heap.poll();
+        assertEquals(keys[reference.first()], keys[polled], 0.0);
+        assertTrue(reference.remove(polled));
+      } else {
+        reference.remove(node);
+        keys[node] = random.nextInt(1000);
+        reference.add(node);
+        heap.insertOrUpdate(node, keys[node]);
+      }
+      assertEquals(reference.size(), heap.size());
+    }
+  }
+
+  @Test
+  public void ridIndexAssignsDenseIdsPerRid() {
+    var index = new RidIndex();
+    var a = new RecordId(10, 1);
+    var b = new RecordId(11, 1);
+    var c = new RecordId(10, -2);
+
+    assertEquals(-1, index.get(a));
+    assertEquals(0, index.getOrAdd(a));
+    assertEquals(1, index.getOrAdd(b));
+    assertEquals(2, index.getOrAdd(c));
+    assertEquals(0, index.getOrAdd(new RecordId(10, 1)));
+    assertEquals(1, index.get(b));
+    assertEquals(3, index.size());
+    assertEquals(c, index.rid(2));
+  }
+}
@@ -0,0 +1,363 @@
+package com.jetbrains.youtrackdb.internal.core.storage.cache.local;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import com.jetbrains.youtrackdb.api.config.GlobalConfiguration;
+import com.jetbrains.youtrackdb.internal.common.collection.closabledictionary.ClosableLinkedContainer;
+import com.jetbrains.youtrackdb.internal.common.directmemory.ByteBufferPool;
+import com.jetbrains.youtrackdb.internal.common.types.ModifiableBoolean;
+import com.jetbrains.youtrackdb.internal.core.compression.Compression;
+import com.jetbrains.youtrackdb.internal.core.compression.LZ4Compression;
+import com.jetbrains.youtrackdb.internal.core.config.ContextConfiguration;
+import com.jetbrains.youtrackdb.internal.core.exception.StorageException;
+import com.jetbrains.youtrackdb.internal.core.storage.ChecksumMode;
+import com.jetbrains.youtrackdb.internal.core.storage.cache.local.doublewritelog.DoubleWriteLogNoOP;
+import com.jetbrains.youtrackdb.internal.core.storage.fs.AsyncFile;
+import com.jetbrains.youtrackdb.internal.core.storage.fs.File;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.base.DurablePage;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.wal.LogSequenceNumber;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.wal.cas.CASDiskWriteAheadLog;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Page compression in {@link WOWCache}: pages are compressed on flush, only the used head of the
+ * page slot is written, and pages are restored on load, including the case when compression was
+ * switched off after the pages were written.
+ */
+public class WOWCachePageCompressionTest {
+
+  private static final int PAGE_SIZE = 8 * 1024;
+  private static final int COMPRESSED_BLOCK_SIZE = 4 * 1024;
+  private static final int SHUTDOWN_TIMEOUT = 10_000;
+  private static final String FILE_NAME = "wowCachePageCompression.tst";
+
+  private static Path storagePath;
+  private static String storageName;
+  private static final ByteBufferPool bufferPool = new ByteBufferPool(PAGE_SIZE);
+
+  private CASDiskWriteAheadLog writeAheadLog;
+  private WOWCache wowCache;
+  private ExecutorService asyncFileExecutor;
+
+  @BeforeClass
+  public static void beforeClass() {
+    GlobalConfiguration.STORAGE_EXCLUSIVE_FILE_ACCESS.setValue(false);
+    GlobalConfiguration.FILE_LOCK.setValue(false);
+    var buildDirectory = System.getProperty("buildDirectory", ".");
+    storageName = "WOWCachePageCompressionTest";
+    storagePath = Paths.get(buildDirectory).resolve(storageName);
+  }
+
+  @AfterClass
+  public static void afterClass() {
+    bufferPool.clear();
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    cleanUp();
+    Files.createDirectories(storagePath);
+    asyncFileExecutor = Executors.newCachedThreadPool();
+    openCache(LZ4Compression.FAST);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    cleanUp();
+  }
+
+  private void openCache(final Compression compression) throws Exception {
+    writeAheadLog =
+        new CASDiskWriteAheadLog(
+            storageName,
+            storagePath,
+            storagePath,
+            ContextConfiguration.WAL_DEFAULT_NAME,
+            12_000,
+            128,
+            null,
+            null,
+            Integer.MAX_VALUE,
+            Integer.MAX_VALUE,
+            25,
+            true,
+            Locale.US,
+            -1,
+            1000,
+            false,
+            false,
+            true,
+            10);
+    wowCache =
+        new WOWCache(
+            PAGE_SIZE,
+            false,
+            bufferPool,
+            writeAheadLog,
+            new DoubleWriteLogNoOP(),
+            10L,
+            SHUTDOWN_TIMEOUT,
+            100L,
+            storagePath,
+            storageName,
+            new ClosableLinkedContainer<>(1024),
+            1,
+            ContextConfiguration.DOUBLE_WRITE_LOG_DEFAULT_NAME,
+            ChecksumMode.StoreAndThrow,
+            null,
+            null,
+            false,
+            asyncFileExecutor,
+            compression);
+    wowCache.loadRegisteredFiles();
+  }
+
+  private void closeCache() throws IOException {
+    wowCache.close();
+    wowCache = null;
+    writeAheadLog.close();
+    writeAheadLog = null;
+  }
+
+  private void cleanUp() throws IOException {
+    if (wowCache != null) {
+      wowCache.delete();
+      wowCache = null;
+    }
+    if (writeAheadLog != null) {
+      writeAheadLog.delete();
+      writeAheadLog = null;
+    }
+    if (asyncFileExecutor != null) {
+      asyncFileExecutor.shutdownNow();
+      try {
+        asyncFileExecutor.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS);
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      asyncFileExecutor = null;
+    }
+    if (storagePath != null && Files.exists(storagePath)) {
+      try (var stream = Files.walk(storagePath)) {
+        stream
+            .sorted(java.util.Comparator.reverseOrder())
+            .forEach(
+                p -> {
+                  try {
+                    Files.deleteIfExists(p);
+                  } catch (IOException e) {
+                    // best-effort cleanup
+                  }
+                });
+      }
+    }
+  }
+
+  /**
+   * Compressible pages are stored with the compressed magic number and compressed data which fit
+   * into the first block of the page slot, and are restored with checksum verification on load.
+   */
+  @Test
+  public void compressiblePagesAreStoredCompressedAndRestoredOnLoad() throws Exception {
+    final var fileId = wowCache.addFile(FILE_NAME);
+    final var pages = new byte[16][];
+    for (var i = 0; i < pages.length; i++) {
+      pages[i] = compressibleData(i);
+      writePage(fileId, i, pages[i]);
+    }
+
+    wowCache.flush();
+
+    final var nativeFileName = wowCache.nativeFileNameById(fileId);
+    for (var i = 0; i < pages.length; i++) {
+      final var rawPage = readRawPage(nativeFileName, i);
+      assertEquals(
+          WOWCache.MAGIC_NUMBER_WITH_CHECKSUM_COMPRESSED,
+          rawPage.getLong(0));
+      final var compressedLength = rawPage.getInt(WOWCache.CHECKSUM_OFFSET + 4);
+      assertTrue(
+          "compressed data has to fit into the first block, length " + compressedLength,
+          compressedLength > 0 && compressedLength < COMPRESSED_BLOCK_SIZE);
+    }
+
+    for (var i = 0; i < pages.length; i++) {
+      assertArrayEquals(pages[i], readPage(fileId, i, pages[i].length));
+    }
+  }
+
+  /**
+   * Pages which can not be compressed enough to save at least one block on write are stored
+   * uncompressed.
+   */
+  @Test
+  public void incompressiblePagesAreStoredAsIs() throws Exception {
+    final var fileId = wowCache.addFile(FILE_NAME);
+    final var data = new byte[PAGE_SIZE - DurablePage.NEXT_FREE_POSITION];
+    new Random(42).nextBytes(data);
+    writePage(fileId, 0, data);
+
+    wowCache.flush();
+
+    final var rawPage = readRawPage(wowCache.nativeFileNameById(fileId), 0);
+    assertEquals(WOWCache.MAGIC_NUMBER_WITH_CHECKSUM, rawPage.getLong(0));
+    assertArrayEquals(data, readPage(fileId, 0, data.length));
+  }
+
+  /**
+   * Only the head of the compressed page slot is written, so whatever is stored in the tail of
+   * the slot must not affect loading of the page.
+   */
+  @Test
+  public void staleTailOfCompressedPageSlotIsIgnored() throws Exception {
+    final var fileId = wowCache.addFile(FILE_NAME);
+    final var data = compressibleData(3);
+    writePage(fileId, 0, data);
+    writePage(fileId, 1, data);
+    wowCache.flush();
+
+    final var garbage = new byte[PAGE_SIZE - COMPRESSED_BLOCK_SIZE];
+    new Random(7).nextBytes(garbage);
+    writeRaw(
+        wowCache.nativeFileNameById(fileId),
+        COMPRESSED_BLOCK_SIZE,
+        ByteBuffer.wrap(garbage).order(ByteOrder.nativeOrder()));
+
+    assertArrayEquals(data, readPage(fileId, 0, data.length));
+    assertArrayEquals(data, readPage(fileId, 1, data.length));
+  }
+
+  /**
+   * Damage inside of compressed data has to be detected by checksum verification.
+   */
+  @Test
+  public void brokenCompressedDataAreDetected() throws Exception {
+    final var fileId = wowCache.addFile(FILE_NAME);
+    writePage(fileId, 0, compressibleData(5));
+    wowCache.flush();
+
+    final var nativeFileName = wowCache.nativeFileNameById(fileId);
+    final var rawPage = readRawPage(nativeFileName, 0);
+    final var damaged = (byte) (rawPage.get(WOWCache.CHECKSUM_OFFSET + 8) ^ 0xFF);
+    writeRaw(
+        nativeFileName,
+        WOWCache.CHECKSUM_OFFSET + 8,
+        ByteBuffer.wrap(new byte[] {damaged}).order(ByteOrder.nativeOrder()));
+
+    assertThrows(
+        StorageException.class,
+        () -> wowCache.load(fileId, 0, new ModifiableBoolean(), true));
+  }
+
+  /**
+   * Compression is recorded per page, so pages written compressed remain readable after the
+   * database is reopened with compression switched off, and are written back uncompressed.
+   */
+  @Test
+  public void compressedPagesAreReadableWhenCompressionIsSwitchedOff() throws Exception {
+    var fileId = wowCache.addFile(FILE_NAME);
+    final var data = compressibleData(11);
+    writePage(fileId, 0, data);
+    wowCache.flush();
+
+    closeCache();
+    openCache(null);
+
+    fileId = wowCache.loadFile(FILE_NAME);
+    assertArrayEquals(data, readPage(fileId, 0, data.length));
+
+    final var updated = compressibleData(12);
+    writePage(fileId, 0, updated);
+    wowCache.flush();
+
+    final var rawPage = readRawPage(wowCache.nativeFileNameById(fileId), 0);
+    assertEquals(WOWCache.MAGIC_NUMBER_WITH_CHECKSUM, rawPage.getLong(0));
+    assertArrayEquals(updated, readPage(fileId, 0, updated.length));
+  }
+
+  private static byte[] compressibleData(final int seed) {
+    final var data = new byte[1024];
+    for (var i = 0; i < data.length; i++) {
+      data[i] = (byte) ((i / 16 + seed) % 7);
+    }
+    return data;
+  }
+
+  private void writePage(final long fileId, final int pageIndex, final byte[] data)
+      throws IOException {
+    wowCache.loadOrAdd(fileId, pageIndex, false).decrementReadersReferrer();
+
+    final var cachePointer = wowCache.load(fileId, pageIndex, new ModifiableBoolean(), false);
+    final var exclusiveStamp = cachePointer.acquireExclusiveLock();
+    try {
+      final var buffer = cachePointer.getBuffer();
+      assert buffer != null;
+      buffer.put(DurablePage.NEXT_FREE_POSITION, data);
+      DurablePage.setLogSequenceNumberForPage(buffer, new LogSequenceNumber(0, 0));
+    } finally {
+      cachePointer.releaseExclusiveLock(exclusiveStamp);
+    }
+
+    wowCache.store(fileId, pageIndex, cachePointer);
+    cachePointer.decrementReadersReferrer();
+  }
+
+  private byte[] readPage(final long fileId, final int pageIndex, final int length)
+      throws IOException {
+    final var cachePointer = wowCache.load(fileId, pageIndex, new ModifiableBoolean(), true);
+    try {
+      final var buffer = cachePointer.getBuffer();
+      assert buffer != null;
+      final var data = new byte[length];
+      buffer.get(DurablePage.NEXT_FREE_POSITION, data);
+      return data;
+    } finally {
+      cachePointer.decrementReadersReferrer();
+    }
+  }
+
+  private ByteBuffer readRawPage(final String nativeFileName, final int pageIndex)
+      throws IOException {
+    final File file =
+        new AsyncFile(
+            storagePath.resolve(nativeFileName), PAGE_SIZE, false, asyncFileExecutor, storageName);
+    file.open();
+    try {
+      final var content = ByteBuffer.allocate(PAGE_SIZE).order(ByteOrder.nativeOrder());
+      file.read((long) pageIndex * PAGE_SIZE, content, true);
+      return content;
+    } finally {
+      file.close();
+    }
+  }
+
+  private void writeRaw(final String nativeFileName, final long position, final ByteBuffer data)
+      throws IOException {
+    final File file =
+        new AsyncFile(
+            storagePath.resolve(nativeFileName), PAGE_SIZE, false, asyncFileExecutor, storageName);
+    file.open();
+    try {
+      file.write(position, data);
+    } finally {
+      file.close();
+    }
+  }
+}
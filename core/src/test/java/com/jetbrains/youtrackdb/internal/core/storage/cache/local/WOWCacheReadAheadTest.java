@@ -0,0 +1,278 @@
+package com.jetbrains.youtrackdb.internal.core.storage.cache.local;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.jetbrains.youtrackdb.api.config.GlobalConfiguration;
+import com.jetbrains.youtrackdb.internal.common.collection.closabledictionary.ClosableLinkedContainer;
+import com.jetbrains.youtrackdb.internal.common.directmemory.ByteBufferPool;
+import com.jetbrains.youtrackdb.internal.common.types.ModifiableBoolean;
+import com.jetbrains.youtrackdb.internal.core.config.ContextConfiguration;
+import com.jetbrains.youtrackdb.internal.core.storage.ChecksumMode;
+import com.jetbrains.youtrackdb.internal.core.storage.cache.local.doublewritelog.DoubleWriteLogNoOP;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.base.DurablePage;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.wal.LogSequenceNumber;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.wal.cas.CASDiskWriteAheadLog;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntPredicate;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Read-ahead in {@link WOWCache}: once pages of a file are loaded sequentially the following pages
+ * are read asynchronously, loads of those pages are served from the read-ahead pages, and pages
+ * which were read ahead are discarded together with the cached pages of the file.
+ */
+public class WOWCacheReadAheadTest {
+
+  private static final int PAGE_SIZE = 8 * 1024;
+  private static final int READ_AHEAD_WINDOW = 8;
+  private static final int SHUTDOWN_TIMEOUT = 10_000;
+  private static final String FILE_NAME = "wowCacheReadAhead.tst";
+
+  private static Path storagePath;
+  private static String storageName;
+  private static final ByteBufferPool bufferPool = new ByteBufferPool(PAGE_SIZE);
+
+  private CASDiskWriteAheadLog writeAheadLog;
+  private WOWCache wowCache;
+  private ExecutorService asyncFileExecutor;
+
+  @BeforeClass
+  public static void beforeClass() {
+    GlobalConfiguration.STORAGE_EXCLUSIVE_FILE_ACCESS.setValue(false);
+    GlobalConfiguration.FILE_LOCK.setValue(false);
+    var buildDirectory = System.getProperty("buildDirectory", ".");
+    storageName = "WOWCacheReadAheadTest";
+    storagePath = Paths.get(buildDirectory).resolve(storageName);
+  }
+
+  @AfterClass
+  public static void afterClass() {
+    bufferPool.clear();
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    cleanUp();
+    Files.createDirectories(storagePath);
+    asyncFileExecutor = Executors.newCachedThreadPool();
+    writeAheadLog =
+        new CASDiskWriteAheadLog(
+            storageName,
+            storagePath,
+            storagePath,
+            ContextConfiguration.WAL_DEFAULT_NAME,
+            12_000,
+            128,
+            null,
+            null,
+            Integer.MAX_VALUE,
+            Integer.MAX_VALUE,
+            25,
+            true,
+            Locale.US,
+            -1,
+            1000,
+            false,
+            false,
+            true,
+            10);
+    wowCache =
+        new WOWCache(
+            PAGE_SIZE,
+            false,
+            bufferPool,
+            writeAheadLog,
+            new DoubleWriteLogNoOP(),
+            10L,
+            SHUTDOWN_TIMEOUT,
+            100L,
+            storagePath,
+            storageName,
+            new ClosableLinkedContainer<>(1024),
+            1,
+            ContextConfiguration.DOUBLE_WRITE_LOG_DEFAULT_NAME,
+            ChecksumMode.StoreAndThrow,
+            null,
+            null,
+            false,
+            asyncFileExecutor,
+            null,
+            READ_AHEAD_WINDOW);
+    wowCache.loadRegisteredFiles();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    cleanUp();
+  }
+
+  private void cleanUp() throws IOException {
+    if (wowCache != null) {
+      wowCache.delete();
+      wowCache = null;
+    }
+    if (writeAheadLog != null) {
+      writeAheadLog.delete();
+      writeAheadLog = null;
+    }
+    if (asyncFileExecutor != null) {
+      asyncFileExecutor.shutdownNow();
+      try {
+        asyncFileExecutor.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS);
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      asyncFileExecutor = null;
+    }
+    if (storagePath != null && Files.exists(storagePath)) {
+      try (var stream = Files.walk(storagePath)) {
+        stream
+            .sorted(java.util.Comparator.reverseOrder())
+            .forEach(
+                p -> {
+                  try {
+                    Files.deleteIfExists(p);
+                  } catch (IOException e) {
+                    // best-effort cleanup
+                  }
+                });
+      }
+    }
+  }
+
+  /**
+   * A sequential scan reads pages ahead, returns the same content as reads from the disk, and
+   * consumes every page it read ahead.
+   */
+  @Test
+  public void sequentialScanIsServedByReadAhead() throws Exception {
+    final var fileId = writePages(64);
+
+    var readAhead = false;
+    for (var i = 0; i < 64; i++) {
+      assertArrayEquals(pageData(i), readPage(fileId, i));
+      readAhead |= wowCache.readAheadPageCount() > 0;
+    }
+
+    assertTrue("pages have to be read ahead during a sequential scan", readAhead);
+    awaitReadAheadPageCount(count -> count == 0);
+  }
+
+  /** Loads which are not sequential do not trigger read-ahead. */
+  @Test
+  public void randomLoadsDoNotReadAhead() throws Exception {
+    final var fileId = writePages(64);
+
+    for (final var pageIndex : new int[] {40, 3, 27, 11, 60, 0, 33, 18}) {
+      assertArrayEquals(pageData(pageIndex), readPage(fileId, pageIndex));
+    }
+
+    assertEquals(0, wowCache.readAheadPageCount());
+  }
+
+  /** Pages read ahead of a scan which was abandoned are discarded when the file is truncated. */
+  @Test
+  public void readAheadPagesAreDiscardedOnTruncate() throws Exception {
+    final var fileId = writePages(64);
+
+    for (var i = 0; i < 4; i++) {
+      readPage(fileId, i);
+    }
+    awaitReadAheadPageCount(count -> count == READ_AHEAD_WINDOW);
+
+    wowCache.truncateFile(fileId);
+    assertEquals(0, wowCache.readAheadPageCount());
+  }
+
+  /**
+   * Once loading stops being sequential, pages read ahead for the previous scan are discarded and
+   * pages of the file are read from the disk again.
+   */
+  @Test
+  public void readAheadPagesAreDiscardedWhenScanIsAbandoned() throws Exception {
+    final var fileId = writePages(64);
+
+    for (var i = 0; i < 4; i++) {
+      readPage(fileId, i);
+    }
+    awaitReadAheadPageCount(count -> count == READ_AHEAD_WINDOW);
+
+    assertArrayEquals(pageData(50), readPage(fileId, 50));
+    assertEquals(0, wowCache.readAheadPageCount());
+    assertArrayEquals(pageData(5), readPage(fileId, 5));
+  }
+
+  private long writePages(final int pages) throws IOException {
+    final var fileId = wowCache.addFile(FILE_NAME);
+    for (var i = 0; i < pages; i++) {
+      writePage(fileId, i, pageData(i));
+    }
+
+    // pages which are flushed leave the write cache, so they are loaded from the disk
+    wowCache.flush();
+    return fileId;
+  }
+
+  private static byte[] pageData(final int pageIndex) {
+    final var data = new byte[256];
+    for (var i = 0; i < data.length; i++) {
+      data[i] = (byte) (pageIndex * 31 + i);
+    }
+    return data;
+  }
+
+  private void awaitReadAheadPageCount(final IntPredicate condition) throws Exception {
+    final var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (!condition.test(wowCache.readAheadPageCount())) {
+      assertTrue(
+          "unexpected amount of read-ahead pages " + wowCache.readAheadPageCount(),
+          System.nanoTime() < deadline);
+      Thread.sleep(1);
+    }
+  }
+
+  private void writePage(final long fileId, final int pageIndex, final byte[] data)
+      throws IOException {
+    wowCache.loadOrAdd(fileId, pageIndex, false).decrementReadersReferrer();
+
+    final var cachePointer = wowCache.load(fileId, pageIndex, new ModifiableBoolean(), false);
+    final var exclusiveStamp = cachePointer.acquireExclusiveLock();
+    try {
+      final var buffer = cachePointer.getBuffer();
+      assert buffer != null;
+      buffer.put(DurablePage.NEXT_FREE_POSITION, data);
+      DurablePage.setLogSequenceNumberForPage(buffer, new LogSequenceNumber(0, 0));
+    } finally {
+      cachePointer.releaseExclusiveLock(exclusiveStamp);
+    }
+
+    wowCache.store(fileId, pageIndex, cachePointer);
+    cachePointer.decrementReadersReferrer();
+  }
+
+  private byte[] readPage(final long fileId, final int pageIndex) throws IOException {
+    final var cachePointer = wowCache.load(fileId, pageIndex, new ModifiableBoolean(), true);
+    try {
+      final var buffer = cachePointer.getBuffer();
+      assert buffer != null;
+      final var data = new byte[256];
+      buffer.get(DurablePage.NEXT_FREE_POSITION, data);
+      return data;
+    } finally {
+      cachePointer.decrementReadersReferrer();
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package com.jetbrains.youtrackdb.internal.core.storage.collection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.jetbrains.youtrackdb.internal.DbTestBase;
+import com.jetbrains.youtrackdb.internal.core.storage.collection.CollectionPositionMapBucket.PositionEntry;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.AbstractStorage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+
+/**
+ * The oldest snapshot index entries are moved to non-durable run files, stay readable there and
+ * are dropped together with their run once the low-water-mark passes them.
+ */
+public class SnapshotIndexSpillTest extends DbTestBase {
+
+  private static final int COMPONENT_ID = 1_000_000;
+
+  @Test
+  public void spilledEntriesAreReadableUntilEvicted() throws Exception {
+    final var storage = (AbstractStorage) session.getStorage();
+    final var spill = new SnapshotIndexSpill(storage);
+
+    final var snapshotIndex = new ConcurrentSkipListMap<SnapshotKey, PositionEntry>();
+    final var visibilityIndex = new ConcurrentSkipListMap<VisibilityKey, SnapshotKey>();
+    final var size = new AtomicLong();
+
+    // Three versions of each of 1000 records, the visibility timestamp grows with the position.
+    final var records = 1000;
+    for (var position = 0; position < records; position++) {
+      for (var version = 1; version <= 3; version++) {
+        final var key = new SnapshotKey(COMPONENT_ID, position, version);
+        snapshotIndex.put(key, new PositionEntry(position, version, version));
+        visibilityIndex.put(new VisibilityKey(position * 3L + version, COMPONENT_ID, position),
+            key);
+        size.incrementAndGet();
+      }
+    }
+
+    final var spilled = spill.spill(snapshotIndex, visibilityIndex, size, 1500);
+    assertEquals(1500, spilled);
+    assertEquals(1500, size.get());
+    assertEquals(1500, snapshotIndex.size());
+    assertEquals(1500, spill.size());
+    assertFalse(spill.isEmpty());
+
+    // The first 500 records are spilled completely, the rest stays in memory.
+    final var spilledKey = new SnapshotKey(COMPONENT_ID, 42, 2);
+    assertFalse(snapshotIndex.containsKey(spilledKey));
+    assertEquals(new PositionEntry(42, 2, 2), spill.get(spilledKey));
+    assertTrue(spill.containsKey(new SnapshotKey(COMPONENT_ID, 499, 3)));
+    assertNull(spill.get(new SnapshotKey(COMPONENT_ID, 500, 1)));
+    assertNull(spill.get(new SnapshotKey(COMPONENT_ID, 42, 4)));
+
+    final var versions = spill.subMapDescending(
+        new SnapshotKey(COMPONENT_ID, 42, Long.MIN_VALUE),
+        new SnapshotKey(COMPONENT_ID, 42, Long.MAX_VALUE));
+    final var keys = new ArrayList<SnapshotKey>();
+    for (var entry : versions) {
+      keys.add(entry.getKey());
+    }
+    assertEquals(
+        List.of(new SnapshotKey(COMPONENT_ID, 42, 3),
+            new SnapshotKey(COMPONENT_ID, 42, 2), new SnapshotKey(COMPONENT_ID, 42, 1)),
+        keys);
+
+    // The run holds entries up to the timestamp 1500, a lower low-water-mark keeps it.
+    spill.evict(1000, null);
+    assertEquals(new PositionEntry(42, 2, 2), spill.get(spilledKey));
+
+    spill.evict(1501, null);
+    assertTrue(spill.isEmpty());
+    assertEquals(0, spill.size());
+    assertNull(spill.get(spilledKey));
+  }
+}
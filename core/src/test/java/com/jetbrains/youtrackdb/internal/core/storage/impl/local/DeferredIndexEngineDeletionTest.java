@@ -0,0 +1,235 @@
+package com.jetbrains.youtrackdb.internal.core.storage.impl.local;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.jetbrains.youtrackdb.api.DatabaseType;
+import com.jetbrains.youtrackdb.api.YouTrackDB.LocalUserCredential;
+import com.jetbrains.youtrackdb.api.YouTrackDB.PredefinedLocalRole;
+import com.jetbrains.youtrackdb.internal.DbTestBase;
+import com.jetbrains.youtrackdb.internal.core.db.DatabaseSessionEmbedded;
+import com.jetbrains.youtrackdb.internal.core.index.Index;
+import com.jetbrains.youtrackdb.internal.core.metadata.schema.schema.PropertyType;
+import com.jetbrains.youtrackdb.internal.core.metadata.schema.schema.SchemaClass;
+import com.jetbrains.youtrackdb.internal.core.record.impl.EntityImpl;
+import com.jetbrains.youtrackdb.internal.core.storage.config.CollectionBasedStorageConfiguration;
+import com.jetbrains.youtrackdb.internal.core.storage.disk.DiskStorage;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+/**
+ * Dropping an index detaches its engine at once for every transaction, including the ones started
+ * before the drop, which keep reading their records without the index. Only the deletion of the
+ * engine files is deferred: they are kept until no transaction started before the drop is active
+ * anymore, or until the next open if the storage crashes before that.
+ */
+public class DeferredIndexEngineDeletionTest extends DbTestBase {
+
+  @Test
+  public void filesOfDroppedIndexAreKeptWhileOlderTransactionIsActive() throws Exception {
+    var cls = session.getMetadata().getSchema().createClass("DeferredDrop");
+    cls.createProperty("name", PropertyType.STRING);
+    cls.createIndex("DeferredDrop.name", SchemaClass.INDEX_TYPE.NOTUNIQUE, "name");
+
+    session.executeInTx(tx -> {
+      for (var i = 0; i < 100; i++) {
+        var entity = (EntityImpl) session.newEntity("DeferredDrop");
+        entity.setProperty("name", "name-" + i);
+      }
+    });
+
+    final var storage = (AbstractStorage) session.getStorage();
+    final var filesBeforeDrop = indexEngineFiles(storage);
+
+    final var txStarted = new CountDownLatch(1);
+    final var dropDone = new CountDownLatch(1);
+    final var indexAfterDrop = new AtomicReference<Index>();
+    final var matchedAfterDrop = new AtomicLong(-1);
+    final var reader = new Thread(() -> {
+      try (var readerSession = openDatabase()) {
+        readerSession.begin();
+        try {
+          txStarted.countDown();
+          dropDone.await();
+
+          indexAfterDrop.set(readerSession.getSharedContext().getIndexManager()
+              .getIndex(readerSession, "DeferredDrop.name"));
+          try (var rows = readerSession.query("select from DeferredDrop where name = 'name-7'")) {
+            matchedAfterDrop.set(rows.stream().count());
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        } finally {
+          readerSession.rollback();
+        }
+      }
+    });
+    reader.start();
+    assertTrue(txStarted.await(30, TimeUnit.SECONDS));
+
+    session.getSharedContext().getIndexManager().dropIndex(session, "DeferredDrop.name");
+    assertNull(session.getSharedContext().getIndexManager()
+        .getIndex(session, "DeferredDrop.name"));
+    storage.periodicRecordsGc();
+    assertEquals(filesBeforeDrop, indexEngineFiles(storage));
+
+    dropDone.countDown();
+    reader.join(TimeUnit.SECONDS.toMillis(30));
+    assertNull(indexAfterDrop.get());
+    assertEquals(1, matchedAfterDrop.get());
+
+    storage.periodicRecordsGc();
+    assertTrue(filesBeforeDrop.containsAll(indexEngineFiles(storage)));
+    assertTrue(indexEngineFiles(storage).size() < filesBeforeDrop.size());
+
+    session.executeInTx(tx -> {
+      try (var rows = session.query("select from DeferredDrop")) {
+        assertEquals(100, rows.stream().count());
+      }
+    });
+  }
+
+  @Test
+  public void filesOfDroppedIndexAreDeletedOnOpenAfterCrash() throws Exception {
+    final var dbName = databaseName + "OnDisk";
+    final var crashedDbName = databaseName + "Crashed";
+    youTrackDB.create(dbName, DatabaseType.DISK,
+        new LocalUserCredential(adminUser, adminPassword, PredefinedLocalRole.ADMIN));
+    try {
+      final Set<String> droppedFiles;
+      try (var db = youTrackDB.open(dbName, adminUser, adminPassword)) {
+        final var storage = (DiskStorage) db.getStorage();
+        final var filesWithoutIndex = indexEngineFiles(storage);
+        var cls = db.getMetadata().getSchema().createClass("DeferredDrop");
+        cls.createProperty("name", PropertyType.STRING);
+        cls.createIndex("DeferredDrop.name", SchemaClass.INDEX_TYPE.NOTUNIQUE, "name");
+        db.executeInTx(tx -> {
+          for (var i = 0; i < 100; i++) {
+            var entity = (EntityImpl) db.newEntity("DeferredDrop");
+            entity.setProperty("name", "name-" + i);
+          }
+        });
+
+        droppedFiles = indexEngineFiles(storage);
+        droppedFiles.removeAll(filesWithoutIndex);
+        assertFalse(droppedFiles.isEmpty());
+
+        // A transaction started before the drop keeps the files of the dropped index.
+        final var txStarted = new CountDownLatch(1);
+        final var copyDone = new CountDownLatch(1);
+        final var reader = new Thread(() -> {
+          try (var readerSession = youTrackDB.open(dbName, adminUser, adminPassword)) {
+            readerSession.begin();
+            try {
+              txStarted.countDown();
+              copyDone.await();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            } finally {
+              readerSession.rollback();
+            }
+          }
+        });
+        reader.start();
+        assertTrue(txStarted.await(30, TimeUnit.SECONDS));
+
+        try {
+          db.getSharedContext().getIndexManager().dropIndex(db, "DeferredDrop.name");
+          assertTrue(indexEngineFiles(storage).containsAll(droppedFiles));
+          assertFalse(retiredFileBaseIds(storage).isEmpty());
+
+          // The files of the storage copied while it is open are what a crash leaves on disk.
+          copyStorageFiles(db, Path.of(dbPath, crashedDbName));
+        } finally {
+          copyDone.countDown();
+          reader.join(TimeUnit.SECONDS.toMillis(30));
+        }
+      }
+
+      try (var db = youTrackDB.open(crashedDbName, adminUser, adminPassword)) {
+        final var storage = (AbstractStorage) db.getStorage();
+        assertNull(db.getSharedContext().getIndexManager().getIndex(db, "DeferredDrop.name"));
+        assertTrue(Collections.disjoint(indexEngineFiles(storage), droppedFiles));
+        assertTrue(retiredFileBaseIds(storage).isEmpty());
+
+        db.executeInTx(tx -> {
+          try (var rows = db.query("select from DeferredDrop")) {
+            assertEquals(100, rows.stream().count());
+          }
+        });
+      }
+    } finally {
+      youTrackDB.drop(dbName);
+      if (youTrackDB.exists(crashedDbName)) {
+        youTrackDB.drop(crashedDbName);
+      }
+    }
+  }
+
+  private static Set<String> indexEngineFiles(AbstractStorage storage) {
+    return storage.getWriteCache().files().keySet().stream()
+        .filter(fileName -> fileName.startsWith(AbstractStorage.INDEX_ENGINE_FILE_STEM_PREFIX))
+        .collect(Collectors.toSet());
+  }
+
+  private static IntSet retiredFileBaseIds(AbstractStorage storage) throws IOException {
+    return storage.getAtomicOperationsManager().calculateInsideAtomicOperation(
+        atomicOperation -> ((CollectionBasedStorageConfiguration) storage.configuration)
+            .getRetiredIndexEngineFileBaseIds(atomicOperation));
+  }
+
+  /**
+   * Copies the files of the open disk storage. The WAL is flushed and kept from being truncated,
+   * and pages are not flushed during the copy, so the copy is recovered from the WAL on open.
+   */
+  private static void copyStorageFiles(DatabaseSessionEmbedded db, Path copyTo) throws Exception {
+    final var storage = (DiskStorage) db.getStorage();
+    final var wal = storage.getWALInstance();
+    final var writeCache = storage.getWriteCache();
+
+    wal.flush();
+    final var walBegin = wal.begin();
+    wal.addCutTillLimit(walBegin);
+    try {
+      try {
+        writeCache.pauseBackgroundFlush();
+
+        Files.createDirectories(copyTo);
+        try (var files = Files.list(storage.getStoragePath())) {
+          for (var file : files.toList()) {
+            final var fileName = file.getFileName().toString();
+            if (fileName.equals("dirty.fl")) {
+              continue;
+            }
+            try {
+              Files.copy(file, copyTo.resolve(fileName));
+            } catch (NoSuchFileException e) {
+              // double-write log files are deleted by checkpoints, they are not needed to restore
+              // the storage from the WAL
+              if (!fileName.endsWith(".dwl")) {
+                throw e;
+              }
+            }
+          }
+        }
+      } finally {
+        writeCache.resumeBackgroundFlush();
+      }
+    } finally {
+      wal.removeCutTillLimit(walBegin);
+    }
+  }
+}
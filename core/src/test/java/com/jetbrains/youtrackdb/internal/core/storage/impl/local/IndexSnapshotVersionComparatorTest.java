@@ -3,7 +3,11 @@ package com.jetbrains.youtrackdb.internal.core.storage.impl.local;
 import static org.junit.Assert.*;
 
 import com.jetbrains.youtrackdb.internal.core.index.CompositeKey;
+import com.jetbrains.youtrackdb.internal.core.index.IndexSnapshotKey;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.List;
 import org.junit.Test;
 
 /**
@@ -78,4 +82,74 @@ public class IndexSnapshotVersionComparatorTest {
           CMP.compare(a, c) < 0);
     }
   }
+
+  @Test
+  public void encodedAndPlainKeys_orderedAlike() {
+    var userKeys = List.<List<Object>>of(
+        List.of("alpha"), List.of("beta"), Arrays.asList((Object) null), List.of(""));
+    var keys = new ArrayList<CompositeKey>();
+    for (var version = 99L; version <= 100L; version++) {
+      for (var userKey : userKeys) {
+        keys.add(IndexSnapshotKey.create(1, userKey, 1, version));
+        keys.add(plainKey(1, userKey, version));
+      }
+    }
+
+    for (var a : keys) {
+      for (var b : keys) {
+        assertEquals("Order of " + a + " and " + b,
+            Integer.signum(CMP.compare(plainKey(a), plainKey(b))),
+            Integer.signum(CMP.compare(a, b)));
+      }
+    }
+  }
+
+  @Test
+  public void sameVersion_prefixKey_orderedFirstForBothKinds() {
+    var shorter = List.<Object>of(100L);
+    var longer = List.<Object>of(100L, 100L);
+    var encodedShorter = IndexSnapshotKey.create(1, shorter, 1, 100);
+    var encodedLonger = IndexSnapshotKey.create(1, longer, 2, 100);
+    assertTrue(encodedShorter instanceof IndexSnapshotKey);
+    assertTrue(encodedLonger instanceof IndexSnapshotKey);
+
+    assertTrue(CMP.compare(encodedShorter, encodedLonger) < 0);
+    assertTrue(CMP.compare(encodedLonger, encodedShorter) > 0);
+    assertTrue(CMP.compare(plainKey(1, shorter, 100), plainKey(1, longer, 100)) < 0);
+    assertTrue(CMP.compare(encodedShorter, plainKey(1, longer, 100)) < 0);
+    assertTrue(CMP.compare(plainKey(1, longer, 100), encodedShorter) > 0);
+
+    // The natural order compares only the common elements, which is what selects the entries of
+    // one index by its bound.
+    assertEquals(0, encodedShorter.compareTo(encodedLonger));
+    assertEquals(0, IndexSnapshotKey.indexBound(1).compareTo(encodedLonger));
+  }
+
+  @Test
+  public void sameVersion_differentElementTypes_areRejected() {
+    var withInteger = IndexSnapshotKey.create(1, List.of(5), 1, 100);
+    var withLong = IndexSnapshotKey.create(1, List.of(5L), 1, 100);
+    assertThrows(ClassCastException.class,
+        () -> CMP.compare(plainKey(withInteger), plainKey(withLong)));
+    assertThrows(AssertionError.class, () -> CMP.compare(withInteger, withLong));
+    assertThrows(AssertionError.class, () -> withInteger.compareTo(withLong));
+
+    // null is ordered before every type
+    var withNull = IndexSnapshotKey.create(1, Arrays.asList((Object) null), 1, 100);
+    assertTrue(CMP.compare(withNull, withLong) < 0);
+    assertTrue(CMP.compare(withInteger, withNull) > 0);
+  }
+
+  private static CompositeKey plainKey(long indexId, List<?> userKeys, long version) {
+    var key = new CompositeKey(indexId);
+    for (var userKey : userKeys) {
+      key.addKey(userKey);
+    }
+    key.addKey(version);
+    return key;
+  }
+
+  private static CompositeKey plainKey(CompositeKey key) {
+    return new CompositeKey(key.getKeys());
+  }
 }
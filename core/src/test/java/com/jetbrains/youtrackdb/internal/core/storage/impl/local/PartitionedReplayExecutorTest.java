@@ -0,0 +1,122 @@
+package com.jetbrains.youtrackdb.internal.core.storage.impl.local;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import com.jetbrains.youtrackdb.internal.core.exception.StorageException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+/**
+ * Tests of {@link PartitionedReplayExecutor}, which applies page changes during WAL replay on
+ * several threads: changes of a file keep WAL order, and failures of workers stop the replay.
+ */
+public class PartitionedReplayExecutorTest {
+
+  @Test
+  public void changesOfEachFileAreAppliedInSubmissionOrder() {
+    final var applied = new ConcurrentHashMap<Long, List<Integer>>();
+    try (var executor = new PartitionedReplayExecutor("test", 4)) {
+      for (var change = 0; change < 10_000; change++) {
+        final var fileId = (long) (change % 37);
+        final var sequence = change;
+        executor.submit(fileId, () ->
+            applied.computeIfAbsent(fileId, k -> new CopyOnWriteArrayList<>()).add(sequence));
+      }
+      executor.drain();
+    }
+
+    assertEquals(37, applied.size());
+    for (final var entry : applied.entrySet()) {
+      final var sequences = entry.getValue();
+      for (var i = 0; i < sequences.size(); i++) {
+        assertEquals(entry.getKey() + 37L * i, (long) sequences.get(i));
+      }
+    }
+  }
+
+  @Test
+  public void changesOfFileAreAppliedByOneThread() {
+    final var threads = new ConcurrentHashMap<Long, Set<Thread>>();
+    try (var executor = new PartitionedReplayExecutor("test", 4)) {
+      for (var change = 0; change < 1_000; change++) {
+        final var fileId = (long) (change % 3);
+        executor.submit(fileId, () ->
+            threads.computeIfAbsent(fileId, k -> ConcurrentHashMap.newKeySet())
+                .add(Thread.currentThread()));
+      }
+      executor.drain();
+    }
+
+    assertEquals(3, threads.size());
+    for (final var fileThreads : threads.values()) {
+      assertEquals(1, fileThreads.size());
+    }
+  }
+
+  @Test
+  public void drainWaitsForAllSubmittedChanges() {
+    final var applied = new AtomicInteger();
+    try (var executor = new PartitionedReplayExecutor("test", 3)) {
+      for (var i = 0; i < 1_000; i++) {
+        executor.submit(i % 5, () -> {
+          Thread.yield();
+          applied.incrementAndGet();
+        });
+      }
+      executor.drain();
+      assertEquals(1_000, applied.get());
+    }
+  }
+
+  @Test
+  public void filesAreSpreadOverWorkers() {
+    final var workers = new HashSet<Integer>();
+    for (var fileId = 0; fileId < 64; fileId++) {
+      final var worker = PartitionedReplayExecutor.worker(fileId, 4);
+      assertTrue(worker >= 0 && worker < 4);
+      assertEquals(worker, PartitionedReplayExecutor.worker(fileId, 4));
+      workers.add(worker);
+    }
+    assertEquals(4, workers.size());
+  }
+
+  @Test
+  public void failureOfWorkerIsRethrownAndStopsReplay() {
+    final var failure = new IllegalStateException("broken page");
+    final var appliedAfterFailure = new ArrayList<Integer>();
+    try (var executor = new PartitionedReplayExecutor("test", 1)) {
+      executor.submit(1, () -> {
+        throw failure;
+      });
+      executor.submit(1, () -> appliedAfterFailure.add(2));
+
+      assertSame(failure, assertThrows(IllegalStateException.class, executor::drain));
+      assertThrows(IllegalStateException.class, () -> executor.submit(1, () -> {
+      }));
+    }
+    assertTrue(appliedAfterFailure.isEmpty());
+  }
+
+  @Test
+  public void checkedFailureIsWrappedIntoStorageException() {
+    try (var executor = new PartitionedReplayExecutor("test", 2)) {
+      executor.submit(1, () -> {
+        throw new IOException("read failed");
+      });
+
+      final var e = assertThrows(StorageException.class, executor::drain);
+      assertNotNull(e.getCause());
+    }
+  }
+}
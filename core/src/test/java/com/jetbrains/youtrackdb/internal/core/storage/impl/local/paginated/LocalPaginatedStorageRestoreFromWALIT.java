@@ -153,6 +153,57 @@ public class LocalPaginatedStorageRestoreFromWALIT {
     baseDocumentTx.close();
   }
 
+  @Test
+  public void testRestoreWithSeveralReplayThreads() throws Exception {
+    baseDocumentTx.freeze();
+    baseDocumentTx.release();
+
+    // A single collection, so the whole workload grows the same file and the replay has to
+    // extend it page by page while other files are replayed in parallel.
+    baseDocumentTx.getMetadata().getSchema().createClass("Growth", 1);
+    final var random = new Random();
+    for (var n = 0; n < 200; n++) {
+      baseDocumentTx.executeInTx(transaction -> {
+        for (var i = 0; i < 50; i++) {
+          final var payload = new byte[1024];
+          random.nextBytes(payload);
+          transaction.newEntity("Growth").setProperty("payload", payload);
+        }
+      });
+    }
+
+    Thread.sleep(1500);
+    WalTestUtils.withWalProtection(
+        baseDocumentTx, this::copyDataFromTestWithoutClose);
+
+    var baseStorage = (DiskStorage) baseDocumentTx.getStorage();
+    baseDocumentTx.close();
+    baseStorage.close(baseDocumentTx);
+
+    final var restoreThreads = GlobalConfiguration.WAL_RESTORE_THREADS.getValue();
+    GlobalConfiguration.WAL_RESTORE_THREADS.setValue(4);
+    try {
+      testDocumentTx = (DatabaseSessionEmbedded) youTrackDB.open(
+          "testLocalPaginatedStorageRestoreFromWAL", "admin", "admin");
+      testDocumentTx.close();
+    } finally {
+      GlobalConfiguration.WAL_RESTORE_THREADS.setValue(restoreThreads);
+    }
+
+    testDocumentTx = (DatabaseSessionEmbedded) youTrackDB.open(
+        "testLocalPaginatedStorageRestoreFromWAL", "admin", "admin");
+    baseDocumentTx = (DatabaseSessionEmbedded) youTrackDB.open(
+        "baseLocalPaginatedStorageRestoreFromWAL", "admin", "admin");
+
+    var databaseCompare =
+        new DatabaseCompare(testDocumentTx, baseDocumentTx, System.out::println);
+    databaseCompare.setCompareIndexMetadata(true);
+
+    Assert.assertTrue(databaseCompare.compare());
+    testDocumentTx.close();
+    baseDocumentTx.close();
+  }
+
   private void copyDataFromTestWithoutClose() throws Exception {
     final var testStoragePath = Path.of(baseDocumentTx.getURL().substring("disk:".length()))
         .toAbsolutePath().toString();
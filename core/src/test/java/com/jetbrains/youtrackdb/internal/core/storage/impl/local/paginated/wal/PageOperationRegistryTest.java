@@ -22,6 +22,16 @@ import com.jetbrains.youtrackdb.internal.core.storage.collection.v2.MapEntryPoin
 import com.jetbrains.youtrackdb.internal.core.storage.collection.v2.PaginatedCollectionStateV2SetApproxRecordsCountOp;
 import com.jetbrains.youtrackdb.internal.core.storage.collection.v2.PaginatedCollectionStateV2SetFileSizeOp;
 import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.wal.common.WriteableWALRecord;
+import com.jetbrains.youtrackdb.internal.core.storage.index.hashindex.HashTableBucketAddEntryOp;
+import com.jetbrains.youtrackdb.internal.core.storage.index.hashindex.HashTableBucketInitOp;
+import com.jetbrains.youtrackdb.internal.core.storage.index.hashindex.HashTableBucketRemoveEntryOp;
+import com.jetbrains.youtrackdb.internal.core.storage.index.hashindex.HashTableBucketSetNextPageOp;
+import com.jetbrains.youtrackdb.internal.core.storage.index.hashindex.HashTableBucketUpdateValueOp;
+import com.jetbrains.youtrackdb.internal.core.storage.index.hashindex.HashTableEntryPointInitOp;
+import com.jetbrains.youtrackdb.internal.core.storage.index.hashindex.HashTableEntryPointSetApproxEntriesCountOp;
+import com.jetbrains.youtrackdb.internal.core.storage.index.hashindex.HashTableEntryPointSetLayoutOp;
+import com.jetbrains.youtrackdb.internal.core.storage.index.hashindex.HashTableEntryPointSetOverflowOp;
+import com.jetbrains.youtrackdb.internal.core.storage.index.hashindex.HashTableEntryPointSetSizeOp;
 import com.jetbrains.youtrackdb.internal.core.storage.index.sbtree.local.v2.SBTreeBucketV2AddAllOp;
 import com.jetbrains.youtrackdb.internal.core.storage.index.sbtree.local.v2.SBTreeBucketV2AddLeafEntryOp;
 import com.jetbrains.youtrackdb.internal.core.storage.index.sbtree.local.v2.SBTreeBucketV2AddNonLeafEntryOp;
@@ -105,8 +115,8 @@ import org.junit.Test;
 
 /**
  * Tests that {@link PageOperationRegistry#registerAll(WALRecordsFactory)} correctly registers
- * all 96 Track 2-3, Track 5, Track 6, Track 7a, and Track 7b PageOperation types so they can be
- * deserialized by the factory during recovery.
+ * all 106 Track 2-3, Track 5, Track 6, Track 7a, Track 7b and HashTable PageOperation types so
+ * they can be deserialized by the factory during recovery.
  */
 public class PageOperationRegistryTest {
 
@@ -121,7 +131,7 @@ public class PageOperationRegistryTest {
   }
 
   /**
-   * Builds the canonical array of all 96 PageOperation instances with non-zero field values.
+   * Builds the canonical array of all 106 PageOperation instances with non-zero field values.
    * Shared by roundtrip, equals-contract, and inequality tests.
    */
   private static PageOperation[] buildAllOps() {
@@ -129,7 +139,7 @@ public class PageOperationRegistryTest {
   }
 
   /**
-   * Builds the canonical array of all 96 PageOperation instances with the given parent field
+   * Builds the canonical array of all 106 PageOperation instances with the given parent field
    * values. Allows creating structurally identical ops with different base fields for inequality
    * testing.
    */
@@ -330,11 +340,28 @@ public class PageOperationRegistryTest {
         new RidbagBucketUpdateValueOp(
             pageIndex, fileId, opUnitId, initialLsn,
             0, new byte[] {10, 20}, 2),
+
+        // HashTableEntryPoint (5 ops)
+        new HashTableEntryPointInitOp(pageIndex, fileId, opUnitId, initialLsn),
+        new HashTableEntryPointSetSizeOp(pageIndex, fileId, opUnitId, initialLsn, 77L),
+        new HashTableEntryPointSetApproxEntriesCountOp(
+            pageIndex, fileId, opUnitId, initialLsn, 55L),
+        new HashTableEntryPointSetLayoutOp(pageIndex, fileId, opUnitId, initialLsn, 3, 2, 10),
+        new HashTableEntryPointSetOverflowOp(pageIndex, fileId, opUnitId, initialLsn, 6, 4),
+
+        // HashTableBucket (5 ops)
+        new HashTableBucketInitOp(pageIndex, fileId, opUnitId, initialLsn),
+        new HashTableBucketAddEntryOp(
+            pageIndex, fileId, opUnitId, initialLsn, 0x1234, new byte[] {1, 2, 3}),
+        new HashTableBucketRemoveEntryOp(pageIndex, fileId, opUnitId, initialLsn, 2, 24),
+        new HashTableBucketUpdateValueOp(
+            pageIndex, fileId, opUnitId, initialLsn, 1, new byte[] {4, 5}, 12),
+        new HashTableBucketSetNextPageOp(pageIndex, fileId, opUnitId, initialLsn, 9),
     };
   }
 
   /**
-   * Verifies that all 96 registered record IDs survive a full WALRecordsFactory roundtrip:
+   * Verifies that all 106 registered record IDs survive a full WALRecordsFactory roundtrip:
    * toStream → fromStream. Uses non-zero field values for all parameters (including parent
    * fields) and verifies full field-level equality via equals(), not just class/ID match.
    */
@@ -362,18 +389,18 @@ public class PageOperationRegistryTest {
   /** Verifies the expected total count of registered types — catches accidentally omitted types. */
   @Test
   public void testRegisteredTypeCount() {
-    // IDs 201-296 = 96 types (18 Track 2-3 + 21 Track 5 + 25 Track 6 + 15 Track 7a
-    //   + 17 Track 7b).
+    // IDs 201-306 = 106 types (18 Track 2-3 + 21 Track 5 + 25 Track 6 + 15 Track 7a
+    //   + 17 Track 7b + 10 HashTable).
     // Each ID must have both a createOpForId entry and a factory registration.
     // createOpForId throws for unknown IDs, so any gap causes immediate failure.
     int registeredCount = 0;
     for (int id = WALRecordTypes.PAGE_OPERATION_ID_BASE + 1;
-        id <= WALRecordTypes.PAGE_OPERATION_ID_BASE + 96; id++) {
+        id <= WALRecordTypes.PAGE_OPERATION_ID_BASE + 106; id++) {
       var testOp = createMinimalRecord(id);
       Assert.assertNotNull("WAL record ID " + id + " failed to roundtrip", testOp);
       registeredCount++;
     }
-    Assert.assertEquals("Expected 96 registered PageOperation types", 96, registeredCount);
+    Assert.assertEquals("Expected 106 registered PageOperation types", 106, registeredCount);
   }
 
   /**
@@ -787,6 +814,30 @@ public class PageOperationRegistryTest {
       case WALRecordTypes.RIDBAG_BUCKET_UPDATE_VALUE_OP ->
           new RidbagBucketUpdateValueOp(0, 0, 0, lsn, 0, new byte[] {}, 0);
 
+      // HashTableEntryPoint (5 ops)
+      case WALRecordTypes.HASH_TABLE_ENTRY_POINT_INIT_OP ->
+          new HashTableEntryPointInitOp(0, 0, 0, lsn);
+      case WALRecordTypes.HASH_TABLE_ENTRY_POINT_SET_SIZE_OP ->
+          new HashTableEntryPointSetSizeOp(0, 0, 0, lsn, 0L);
+      case WALRecordTypes.HASH_TABLE_ENTRY_POINT_SET_APPROX_ENTRIES_COUNT_OP ->
+          new HashTableEntryPointSetApproxEntriesCountOp(0, 0, 0, lsn, 0L);
+      case WALRecordTypes.HASH_TABLE_ENTRY_POINT_SET_LAYOUT_OP ->
+          new HashTableEntryPointSetLayoutOp(0, 0, 0, lsn, 0, 0, 1);
+      case WALRecordTypes.HASH_TABLE_ENTRY_POINT_SET_OVERFLOW_OP ->
+          new HashTableEntryPointSetOverflowOp(0, 0, 0, lsn, 0, -1);
+
+      // HashTableBucket (5 ops)
+      case WALRecordTypes.HASH_TABLE_BUCKET_INIT_OP ->
+          new HashTableBucketInitOp(0, 0, 0, lsn);
+      case WALRecordTypes.HASH_TABLE_BUCKET_ADD_ENTRY_OP ->
+          new HashTableBucketAddEntryOp(0, 0, 0, lsn, 0, new byte[] {});
+      case WALRecordTypes.HASH_TABLE_BUCKET_REMOVE_ENTRY_OP ->
+          new HashTableBucketRemoveEntryOp(0, 0, 0, lsn, 0, 0);
+      case WALRecordTypes.HASH_TABLE_BUCKET_UPDATE_VALUE_OP ->
+          new HashTableBucketUpdateValueOp(0, 0, 0, lsn, 0, new byte[] {}, 0);
+      case WALRecordTypes.HASH_TABLE_BUCKET_SET_NEXT_PAGE_OP ->
+          new HashTableBucketSetNextPageOp(0, 0, 0, lsn, 0);
+
       default -> throw new IllegalArgumentException("Unknown PageOperation ID: " + id);
     };
   }
@@ -40,7 +40,7 @@ public class CASDiskWriteAheadLogIT {
 
   // Must satisfy [PAGE_OPERATION_ID_BASE, ID_TABLE_SIZE) in WALRecordsFactory:
   // currently [200, 512). 511 is picked at the top of the range to stay clear
-  // of production PageOperation IDs (200..296 today) and of the 500 used by
+  // of production PageOperation IDs (200..306 today) and of the 500 used by
   // the sibling test CASDiskWriteAheadLogCloseTest.
   private static final int TEST_RECORD_ID = 511;
 
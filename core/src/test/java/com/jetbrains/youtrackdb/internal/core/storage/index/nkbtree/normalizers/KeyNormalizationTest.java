@@ -1,8 +1,11 @@
 package com.jetbrains.youtrackdb.internal.core.storage.index.nkbtree.normalizers;
 
 import com.jetbrains.youtrackdb.internal.common.comparator.ByteArrayComparator;
+import com.jetbrains.youtrackdb.internal.common.comparator.ComparatorFactory;
+import com.jetbrains.youtrackdb.internal.common.comparator.DefaultComparator;
 import com.jetbrains.youtrackdb.internal.common.comparator.UnsafeByteArrayComparator;
 import com.jetbrains.youtrackdb.internal.common.comparator.UnsafeByteArrayComparatorV2;
+import com.jetbrains.youtrackdb.internal.core.id.RecordId;
 import com.jetbrains.youtrackdb.internal.core.index.CompositeKey;
 import com.jetbrains.youtrackdb.internal.core.metadata.schema.PropertyTypeInternal;
 import com.jetbrains.youtrackdb.internal.core.metadata.schema.schema.PropertyType;
@@ -13,6 +16,7 @@ import java.nio.ByteOrder;
 import java.text.Collator;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.GregorianCalendar;
@@ -47,7 +51,7 @@ public class KeyNormalizationTest {
   @Test
   public void normalizeCompositeNull() {
     final var bytes = getNormalizedKeySingle(null, null);
-    Assert.assertEquals((byte) 0x1, bytes[0]);
+    Assert.assertEquals((byte) 0x0, bytes[0]);
   }
 
   @Test
@@ -62,8 +66,8 @@ public class KeyNormalizationTest {
     types[1] = PropertyTypeInternal.INTEGER;
 
     final var bytes = keyNormalizer.normalize(compositeKey, types, Collator.NO_DECOMPOSITION);
-    Assert.assertEquals((byte) 0x1, bytes[0]);
-    Assert.assertEquals((byte) 0x0, bytes[1]);
+    Assert.assertEquals((byte) 0x0, bytes[0]);
+    Assert.assertEquals((byte) 0x1, bytes[1]);
     Assert.assertEquals((byte) 0x80, bytes[2]);
     Assert.assertEquals((byte) 0x5, bytes[5]);
   }
@@ -71,21 +75,21 @@ public class KeyNormalizationTest {
   @Test
   public void normalizeCompositeInt() {
     final var bytes = getNormalizedKeySingle(5, PropertyType.INTEGER);
-    Assert.assertEquals((byte) 0x0, bytes[0]);
+    Assert.assertEquals((byte) 0x1, bytes[0]);
     Assert.assertEquals((byte) 0x5, bytes[4]);
   }
 
   @Test
   public void normalizeCompositeIntZero() {
     final var bytes = getNormalizedKeySingle(0, PropertyType.INTEGER);
-    Assert.assertEquals((byte) 0x0, bytes[0]);
+    Assert.assertEquals((byte) 0x1, bytes[0]);
     Assert.assertEquals((byte) 0x0, bytes[4]);
   }
 
   @Test
   public void normalizeCompositeNegInt() {
     final var bytes = getNormalizedKeySingle(-62, PropertyType.INTEGER);
-    Assert.assertEquals((byte) 0x0, bytes[0]);
+    Assert.assertEquals((byte) 0x1, bytes[0]);
     // -62 signed := 4294967234 unsigned := FFFFFFC2 hex
     Assert.assertEquals((byte) 0x7f, bytes[1]);
     Assert.assertEquals((byte) 0xff, bytes[2]);
@@ -119,7 +123,7 @@ public class KeyNormalizationTest {
   @Test
   public void normalizeCompositeDouble() {
     final var bytes = getNormalizedKeySingle(1.5d, PropertyType.DOUBLE);
-    Assert.assertEquals((byte) 0x0, bytes[0]);
+    Assert.assertEquals((byte) 0x1, bytes[0]);
     Assert.assertEquals((byte) 0xbf, bytes[1]);
     Assert.assertEquals((byte) 0xf8, bytes[2]);
   }
@@ -133,10 +137,19 @@ public class KeyNormalizationTest {
     compareWithByteArrayComparator(negative, zero, positive);
   }
 
+  @Test
+  public void normalizeCompositeNegativeDoubleCompare() {
+    final var smallest = getNormalizedKeySingle(-62.5d, PropertyType.DOUBLE);
+    final var middle = getNormalizedKeySingle(-1.5d, PropertyType.DOUBLE);
+    final var largest = getNormalizedKeySingle(-0.25d, PropertyType.DOUBLE);
+    compareWithUnsafeByteArrayComparator(smallest, middle, largest);
+    compareWithByteArrayComparator(smallest, middle, largest);
+  }
+
   @Test
   public void normalizeCompositeFloat() {
     final var bytes = getNormalizedKeySingle(1.5f, PropertyType.FLOAT);
-    Assert.assertEquals((byte) 0x0, bytes[0]);
+    Assert.assertEquals((byte) 0x1, bytes[0]);
     Assert.assertEquals((byte) 0xbf, bytes[1]);
     Assert.assertEquals((byte) 0xc0, bytes[2]);
   }
@@ -221,30 +234,31 @@ public class KeyNormalizationTest {
   public void normalizeCompositeBigDecimal() {
     final var bytes = getNormalizedKeySingle(new BigDecimal("3.14159265359"),
         PropertyType.DECIMAL);
-    Assert.assertEquals((byte) 0x0, bytes[0]);
-    Assert.assertEquals((byte) 0xc0, bytes[1]);
-    Assert.assertEquals((byte) 0x9, bytes[2]);
-    Assert.assertEquals((byte) 0x21, bytes[3]);
-    Assert.assertEquals((byte) 0xfb, bytes[4]);
-    Assert.assertEquals((byte) 0x54, bytes[5]);
-    Assert.assertEquals((byte) 0x44, bytes[6]);
-    Assert.assertEquals((byte) 0x2e, bytes[7]);
-    Assert.assertEquals((byte) 0xea, bytes[8]);
+    // 0.314159265359 * 10^1
+    Assert.assertEquals((byte) 0x1, bytes[0]);
+    Assert.assertEquals((byte) 0x2, bytes[1]);
+    Assert.assertEquals((byte) 0x80, bytes[2]);
+    Assert.assertEquals((byte) 0x1, bytes[9]);
+    Assert.assertEquals((byte) 0x4, bytes[10]);
+    Assert.assertEquals((byte) 0x2, bytes[11]);
+    Assert.assertEquals((byte) 0xa, bytes[21]);
+    Assert.assertEquals((byte) 0x0, bytes[22]);
+    Assert.assertEquals(23, bytes.length);
   }
 
   @Test
   public void normalizeCompositeNegBigDecimal() {
     final var bytes = getNormalizedKeySingle(new BigDecimal("-3.14159265359"),
         PropertyType.DECIMAL);
-    Assert.assertEquals((byte) 0x0, bytes[0]);
-    Assert.assertEquals((byte) 0x40, bytes[1]);
-    Assert.assertEquals((byte) 0x9, bytes[2]);
-    Assert.assertEquals((byte) 0x21, bytes[3]);
-    Assert.assertEquals((byte) 0xfb, bytes[4]);
-    Assert.assertEquals((byte) 0x54, bytes[5]);
-    Assert.assertEquals((byte) 0x44, bytes[6]);
-    Assert.assertEquals((byte) 0x2e, bytes[7]);
-    Assert.assertEquals((byte) 0xea, bytes[8]);
+    // all bits after the sign are flipped for negative values
+    Assert.assertEquals((byte) 0x1, bytes[0]);
+    Assert.assertEquals((byte) 0x0, bytes[1]);
+    Assert.assertEquals((byte) 0x7f, bytes[2]);
+    Assert.assertEquals((byte) 0xfe, bytes[9]);
+    Assert.assertEquals((byte) 0xfb, bytes[10]);
+    Assert.assertEquals((byte) 0xfd, bytes[11]);
+    Assert.assertEquals((byte) 0xf5, bytes[21]);
+    Assert.assertEquals((byte) 0xff, bytes[22]);
   }
 
   @Test
@@ -259,22 +273,52 @@ public class KeyNormalizationTest {
     final var positive2 =
         getNormalizedKeySingle(new BigDecimal(new BigInteger("314159265359"), 11),
             PropertyType.DECIMAL);
-    compareWithUnsafeByteArrayComparator(negative, zero, positive);
-    compareWithByteArrayComparator(negative, zero, positive);
-    compareWithUnsafeByteArrayComparatorIntertype(zero, zero2);
-    compareWithUnsafeByteArrayComparatorIntertype(positive, positive2);
+    assertOrderedUnsigned(negative, zero, positive);
+    Assert.assertArrayEquals(zero, zero2);
+    Assert.assertArrayEquals(positive, positive2);
+  }
+
+  @Test
+  public void normalizeCompositeDecimalIsExact() {
+    // these values are equal as doubles
+    final var smaller = getNormalizedKeySingle(new BigDecimal("0.1"), PropertyType.DECIMAL);
+    final var larger =
+        getNormalizedKeySingle(new BigDecimal("0.10000000000000000001"), PropertyType.DECIMAL);
+    assertOrderedUnsigned(smaller, larger);
+
+    final var values =
+        new String[] {"-1000", "-999.99", "-10", "-1.01", "-1", "-0.1", "-0.01", "0", "0.0001",
+            "0.1", "0.101", "0.11", "1", "1.5", "9", "10", "10.5", "100", "1E+100"};
+    final var normalized = new byte[values.length][];
+    for (var i = 0; i < values.length; i++) {
+      normalized[i] = getNormalizedKeySingle(new BigDecimal(values[i]), PropertyType.DECIMAL);
+    }
+    assertOrderedUnsigned(normalized);
   }
 
   @Test
   public void normalizeCompositeBoolean() {
     final var bytes = getNormalizedKeySingle(true, PropertyType.BOOLEAN);
     Assert.assertEquals((byte) 0x1, bytes[0]);
+    Assert.assertEquals((byte) 0x1, bytes[1]);
+  }
+
+  @Test
+  public void normalizeCompositeBooleanDiffersFromNull() {
+    final var compositeKey = new CompositeKey();
+    compositeKey.addKey(null);
+    final var types = new PropertyTypeInternal[] {PropertyTypeInternal.BOOLEAN};
+    final var nullBytes = keyNormalizer.normalize(compositeKey, types, Collator.NO_DECOMPOSITION);
+
+    Assert.assertArrayEquals(new byte[] {0x0}, nullBytes);
+    Assert.assertFalse(
+        Arrays.equals(nullBytes, getNormalizedKeySingle(true, PropertyType.BOOLEAN)));
   }
 
   @Test
   public void normalizeCompositeLong() {
     final var bytes = getNormalizedKeySingle(5L, PropertyType.LONG);
-    Assert.assertEquals((byte) 0x0, bytes[0]);
+    Assert.assertEquals((byte) 0x1, bytes[0]);
     Assert.assertEquals((byte) 0x80, bytes[1]);
     Assert.assertEquals((byte) 0x5, bytes[8]);
   }
@@ -282,7 +326,7 @@ public class KeyNormalizationTest {
   @Test
   public void normalizeCompositeNegLong() {
     final var bytes = getNormalizedKeySingle(-62L, PropertyType.LONG);
-    Assert.assertEquals((byte) 0x0, bytes[0]);
+    Assert.assertEquals((byte) 0x1, bytes[0]);
     Assert.assertEquals((byte) 0x7f, bytes[1]);
     Assert.assertEquals((byte) 0xff, bytes[2]);
     Assert.assertEquals((byte) 0xff, bytes[3]);
@@ -310,17 +354,34 @@ public class KeyNormalizationTest {
     return (byte) ((aByte & 0xFF) >> 8);
   }
 
+  @Test
+  public void normalizeCompositeNegativeFloatCompare() {
+    final var smallest = getNormalizedKeySingle(-62.5f, PropertyType.FLOAT);
+    final var middle = getNormalizedKeySingle(-1.5f, PropertyType.FLOAT);
+    final var largest = getNormalizedKeySingle(-0.25f, PropertyType.FLOAT);
+    compareWithUnsafeByteArrayComparator(smallest, middle, largest);
+    compareWithByteArrayComparator(smallest, middle, largest);
+  }
+
+  @Test
+  public void normalizeCompositeNegativeDecimalCompare() {
+    final var smallest = getNormalizedKeySingle(new BigDecimal("-62.5"), PropertyType.DECIMAL);
+    final var middle = getNormalizedKeySingle(new BigDecimal("-1.5"), PropertyType.DECIMAL);
+    final var largest = getNormalizedKeySingle(new BigDecimal("-0.25"), PropertyType.DECIMAL);
+    assertOrderedUnsigned(smallest, middle, largest);
+  }
+
   @Test
   public void normalizeCompositeByte() {
     final var bytes = getNormalizedKeySingle((byte) 3, PropertyType.BYTE);
-    Assert.assertEquals((byte) 0x0, bytes[0]);
+    Assert.assertEquals((byte) 0x1, bytes[0]);
     Assert.assertEquals((byte) 0x83, bytes[1]);
   }
 
   @Test
   public void normalizeCompositeNegByte() {
     final var bytes = getNormalizedKeySingle((byte) -62, PropertyType.BYTE);
-    Assert.assertEquals((byte) 0x0, bytes[0]);
+    Assert.assertEquals((byte) 0x1, bytes[0]);
     Assert.assertEquals((byte) 0x42, bytes[1]);
   }
 
@@ -336,7 +397,7 @@ public class KeyNormalizationTest {
   @Test
   public void normalizeCompositeShort() {
     final var bytes = getNormalizedKeySingle((short) 3, PropertyType.SHORT);
-    Assert.assertEquals((byte) 0x0, bytes[0]);
+    Assert.assertEquals((byte) 0x1, bytes[0]);
     Assert.assertEquals((byte) 0x80, bytes[1]);
     Assert.assertEquals((byte) 0x3, bytes[2]);
   }
@@ -344,7 +405,7 @@ public class KeyNormalizationTest {
   @Test
   public void normalizeCompositeNegShort() {
     final var bytes = getNormalizedKeySingle((short) -62, PropertyType.SHORT);
-    Assert.assertEquals((byte) 0x0, bytes[0]);
+    Assert.assertEquals((byte) 0x1, bytes[0]);
     Assert.assertEquals((byte) 0x7f, bytes[1]);
     Assert.assertEquals((byte) 0xc2, bytes[2]);
   }
@@ -368,7 +429,7 @@ public class KeyNormalizationTest {
         types,
         getCompositeKey("abc"),
         (byte[] bytes) -> {
-          Assert.assertEquals((byte) 0x0, bytes[0]);
+          Assert.assertEquals((byte) 0x1, bytes[0]);
           Assert.assertEquals((byte) 0x2a, bytes[1]);
           Assert.assertEquals((byte) 0x2c, bytes[2]);
           Assert.assertEquals((byte) 0x2e, bytes[3]);
@@ -383,7 +444,7 @@ public class KeyNormalizationTest {
         types,
         getCompositeKey("Abc"),
         (byte[] bytes) -> {
-          Assert.assertEquals((byte) 0x0, bytes[0]);
+          Assert.assertEquals((byte) 0x1, bytes[0]);
           Assert.assertEquals((byte) 0x2a, bytes[1]);
           Assert.assertEquals((byte) 0x2c, bytes[2]);
           Assert.assertEquals((byte) 0x2e, bytes[3]);
@@ -399,7 +460,7 @@ public class KeyNormalizationTest {
         types,
         getCompositeKey("abC"),
         (byte[] bytes) -> {
-          Assert.assertEquals((byte) 0x0, bytes[0]);
+          Assert.assertEquals((byte) 0x1, bytes[0]);
           Assert.assertEquals((byte) 0x2a, bytes[1]);
           Assert.assertEquals((byte) 0x2c, bytes[2]);
           Assert.assertEquals((byte) 0x2e, bytes[3]);
@@ -452,7 +513,7 @@ public class KeyNormalizationTest {
         types,
         getCompositeKey("ü"),
         (byte[] bytes) -> {
-          Assert.assertEquals((byte) 0x0, bytes[0]);
+          Assert.assertEquals((byte) 0x1, bytes[0]);
           Assert.assertEquals((byte) 0x52, bytes[1]);
           Assert.assertEquals((byte) 0x1, bytes[2]);
           Assert.assertEquals((byte) 0x45, bytes[3]);
@@ -466,7 +527,7 @@ public class KeyNormalizationTest {
         types,
         getCompositeKey("u"),
         (byte[] bytes) -> {
-          Assert.assertEquals((byte) 0x0, bytes[0]);
+          Assert.assertEquals((byte) 0x1, bytes[0]);
           Assert.assertEquals((byte) 0x52, bytes[1]);
           Assert.assertEquals((byte) 0x1, bytes[2]);
           Assert.assertEquals((byte) 0x5, bytes[3]);
@@ -495,11 +556,11 @@ public class KeyNormalizationTest {
         compositeKey,
         (byte[] bytes) -> {
           // check 'not null' and beginning of first entry
-          Assert.assertEquals((byte) 0x0, bytes[0]);
+          Assert.assertEquals((byte) 0x1, bytes[0]);
           Assert.assertEquals((byte) 0x2a, bytes[1]);
 
           // finally assert 'not null' for second entry ..
-          Assert.assertEquals((byte) 0x0, bytes[10]);
+          Assert.assertEquals((byte) 0x1, bytes[10]);
           Assert.assertEquals((byte) 0x50, bytes[11]);
         });
   }
@@ -510,9 +571,9 @@ public class KeyNormalizationTest {
     final var key = calendar.getTime();
     final var bytes = getNormalizedKeySingle(key, PropertyType.DATE);
 
-    // 1383606000000 := Tue Nov 05 2013 00:00:00
-    Assert.assertEquals((byte) 0x0, bytes[0]);
-    Assert.assertEquals((byte) 0x0, bytes[1]);
+    // 1383606000000 := Tue Nov 05 2013 00:00:00, the sign bit is flipped
+    Assert.assertEquals((byte) 0x1, bytes[0]);
+    Assert.assertEquals((byte) 0x80, bytes[1]);
     Assert.assertEquals((byte) 0x0, bytes[2]);
     Assert.assertEquals((byte) 0x1, bytes[3]);
     Assert.assertEquals((byte) 0x42, bytes[4]);
@@ -558,9 +619,9 @@ public class KeyNormalizationTest {
     final var bytes = getNormalizedKeySingle(key, PropertyType.DATETIME);
     print(bytes);
 
-    // 1383616983000 := Tue Nov 05 2013 03:03:03
-    Assert.assertEquals((byte) 0x0, bytes[0]);
-    Assert.assertEquals((byte) 0x0, bytes[1]);
+    // 1383616983000 := Tue Nov 05 2013 03:03:03, the sign bit is flipped
+    Assert.assertEquals((byte) 0x1, bytes[0]);
+    Assert.assertEquals((byte) 0x80, bytes[1]);
     Assert.assertEquals((byte) 0x0, bytes[2]);
     Assert.assertEquals((byte) 0x1, bytes[3]);
     Assert.assertEquals((byte) 0x42, bytes[4]);
@@ -608,9 +669,25 @@ public class KeyNormalizationTest {
     types[0] = PropertyTypeInternal.BINARY;
 
     final var bytes = keyNormalizer.normalize(compositeKey, types, Collator.NO_DECOMPOSITION);
-    Assert.assertEquals((byte) 0x0, bytes[0]);
-    Assert.assertEquals((byte) 0x1, bytes[1]);
-    Assert.assertEquals((byte) 0x6, bytes[6]);
+    Assert.assertEquals((byte) 0x1, bytes[0]);
+    Assert.assertEquals((byte) 0x6, bytes[bytes.length - 1 - trailingBinaryBytes()]);
+  }
+
+  @Test
+  public void normalizeCompositeBinaryFollowsIndexComparator() {
+    final var values =
+        new byte[][] {{}, {0}, {0, 0}, {1}, {1, 0}, {1, 1}, {2}, {(byte) 0xFF}, {1, 2, 3}};
+    for (final var first : values) {
+      for (final var second : values) {
+        final var expected =
+            Integer.signum(DefaultComparator.INSTANCE.compare(first, second));
+        final var actual = Integer.signum(Arrays.compareUnsigned(
+            getNormalizedKeySingle(first, PropertyType.BINARY),
+            getNormalizedKeySingle(second, PropertyType.BINARY)));
+        Assert.assertEquals(
+            Arrays.toString(first) + " vs " + Arrays.toString(second), expected, actual);
+      }
+    }
   }
 
   @Test
@@ -624,6 +701,95 @@ public class KeyNormalizationTest {
     compareWithByteArrayComparator(smallest, middle, biggest);
   }
 
+  @Test
+  public void normalizeCompositeBinaryIsPrefixFree() {
+    // a shorter value is ordered before its extensions whatever follows it in the composite key
+    final var types =
+        new PropertyTypeInternal[] {PropertyTypeInternal.BINARY, PropertyTypeInternal.INTEGER};
+    final var shorter = keyNormalizer.normalize(
+        new CompositeKey(new byte[] {1}, Integer.MAX_VALUE), types, Collator.NO_DECOMPOSITION);
+    final var withZero = keyNormalizer.normalize(
+        new CompositeKey(new byte[] {1, 0}, Integer.MIN_VALUE), types, Collator.NO_DECOMPOSITION);
+    final var longer = keyNormalizer.normalize(
+        new CompositeKey(new byte[] {1, 1}, Integer.MIN_VALUE), types, Collator.NO_DECOMPOSITION);
+    Assert.assertTrue(Arrays.compareUnsigned(shorter, withZero) < 0);
+    Assert.assertTrue(Arrays.compareUnsigned(withZero, longer) < 0);
+  }
+
+  @Test
+  public void normalizeCompositeStringIsPrefixFree() {
+    final var types =
+        new PropertyTypeInternal[] {PropertyTypeInternal.STRING, PropertyTypeInternal.STRING};
+    final var first =
+        keyNormalizer.normalize(new CompositeKey("ab", "c"), types, Collator.NO_DECOMPOSITION);
+    final var second =
+        keyNormalizer.normalize(new CompositeKey("a", "bc"), types, Collator.NO_DECOMPOSITION);
+    Assert.assertFalse(Arrays.equals(first, second));
+  }
+
+  @Test
+  public void normalizeCompositeNullOfTypedField() {
+    final var types =
+        new PropertyTypeInternal[] {PropertyTypeInternal.INTEGER, PropertyTypeInternal.STRING};
+    final var bytes = keyNormalizer.normalize(
+        new CompositeKey(null, null), types, Collator.NO_DECOMPOSITION);
+    Assert.assertArrayEquals(new byte[] {0x0, 0x0}, bytes);
+  }
+
+  @Test
+  public void normalizeCompositeNullIsOrderedFirst() {
+    final var types =
+        new PropertyTypeInternal[] {PropertyTypeInternal.INTEGER, PropertyTypeInternal.STRING};
+    final var nullFirst = keyNormalizer.normalize(
+        new CompositeKey(null, "z"), types, KeyNormalizer.CODE_UNIT_ORDER);
+    final var nullSecond = keyNormalizer.normalize(
+        new CompositeKey(Integer.MIN_VALUE, null), types, KeyNormalizer.CODE_UNIT_ORDER);
+    final var values = keyNormalizer.normalize(
+        new CompositeKey(Integer.MIN_VALUE, ""), types, KeyNormalizer.CODE_UNIT_ORDER);
+    assertOrderedUnsigned(nullFirst, nullSecond, values);
+  }
+
+  @Test
+  public void normalizeCompositeStringInCodeUnitOrder() {
+    final var values =
+        new String[] {"", "\u0000", "\u0000\u0000", "\u0001", "A", "B", "a", "a\u0000", "ab",
+            "abc", "b", "\u00e4", "\u0100", "\u4e2d", "\ud83d\ude00", "\uffff"};
+    final var types =
+        new PropertyTypeInternal[] {PropertyTypeInternal.STRING, PropertyTypeInternal.INTEGER};
+    for (final var first : values) {
+      for (final var second : values) {
+        // the second field must not change the order of the first one
+        final var firstKey = keyNormalizer.normalize(
+            new CompositeKey(first, Integer.MAX_VALUE), types, KeyNormalizer.CODE_UNIT_ORDER);
+        final var secondKey = keyNormalizer.normalize(
+            new CompositeKey(second, Integer.MIN_VALUE), types, KeyNormalizer.CODE_UNIT_ORDER);
+        final var expected = first.equals(second)
+            ? 1
+            : Integer.signum(first.compareTo(second));
+        Assert.assertEquals(first + " vs " + second, expected,
+            Integer.signum(Arrays.compareUnsigned(firstKey, secondKey)));
+      }
+    }
+  }
+
+  @Test
+  public void normalizeCompositeLinkCompare() {
+    final var smallest = getNormalizedKeySingle(new RecordId(-1, 10), PropertyType.LINK);
+    final var smaller = getNormalizedKeySingle(new RecordId(3, -1), PropertyType.LINK);
+    final var middle = getNormalizedKeySingle(new RecordId(3, 0), PropertyType.LINK);
+    final var larger = getNormalizedKeySingle(new RecordId(3, 1L << 40), PropertyType.LINK);
+    final var largest = getNormalizedKeySingle(new RecordId(4, 0), PropertyType.LINK);
+    assertOrderedUnsigned(smallest, smaller, middle, larger, largest);
+  }
+
+  @Test
+  public void normalizeCompositeDateBeforeEpochCompare() {
+    final var beforeEpoch = getNormalizedKeySingle(new Date(-1000L), PropertyType.DATETIME);
+    final var epoch = getNormalizedKeySingle(new Date(0L), PropertyType.DATETIME);
+    final var afterEpoch = getNormalizedKeySingle(new Date(1000L), PropertyType.DATETIME);
+    assertOrderedUnsigned(beforeEpoch, epoch, afterEpoch);
+  }
+
   private byte[] getNormalizedKeySingle(final Object keyValue, final PropertyType type) {
     final var compositeKey = new CompositeKey();
     compositeKey.addKey(keyValue);
@@ -652,7 +818,7 @@ public class KeyNormalizationTest {
   }
 
   /**
-   * Passing a {@link PropertyTypeInternal} that has no registered normalizer (e.g. LINK)
+   * Passing a {@link PropertyTypeInternal} that has no registered normalizer (e.g. EMBEDDED)
    * causes {@link KeyNormalizer#normalize} to throw {@link UnsupportedOperationException}.
    * This exercises the {@code keyNormalizer == null} branch in
    * {@code normalizeCompositeKeys}.
@@ -661,9 +827,9 @@ public class KeyNormalizationTest {
   public void normalizeUnsupportedTypeThrows() {
     final var compositeKey = new CompositeKey();
     compositeKey.addKey("ignored");
-    // LINK is not registered in KeyNormalizer's normalizer map;
+    // EMBEDDED is not registered in KeyNormalizer's normalizer map;
     // normalizeCompositeKeys() throws UnsupportedOperationException for it.
-    final var types = new PropertyTypeInternal[] {PropertyTypeInternal.LINK};
+    final var types = new PropertyTypeInternal[] {PropertyTypeInternal.EMBEDDED};
     keyNormalizer.normalize(compositeKey, types, Collator.NO_DECOMPOSITION);
   }
 
@@ -689,6 +855,23 @@ public class KeyNormalizationTest {
     Assert.assertEquals("[unsafe] first == second", 0, byteArrayComparator.compare(first, second));
   }
 
+  private static void assertOrderedUnsigned(final byte[]... keys) {
+    for (var i = 1; i < keys.length; i++) {
+      Assert.assertTrue(
+          "key " + (i - 1) + " < key " + i, Arrays.compareUnsigned(keys[i - 1], keys[i]) < 0);
+    }
+  }
+
+  /**
+   * Escaped binary values, which are used with the unsafe byte array comparator, are terminated by
+   * two bytes.
+   */
+  private static int trailingBinaryBytes() {
+    return ComparatorFactory.INSTANCE.getComparator(byte[].class) instanceof ByteArrayComparator
+        ? 0
+        : 2;
+  }
+
   private void print(final byte[] bytes) {
     for (final var b : bytes) {
       System.out.format("0x%x ", b);
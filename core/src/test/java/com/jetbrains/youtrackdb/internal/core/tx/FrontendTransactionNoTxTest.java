@@ -60,6 +60,8 @@ public class FrontendTransactionNoTxTest extends DbTestBase {
   @Test
   public void publicCommitAndRollbackThrowUnsupported() {
     Assert.assertThrows(UnsupportedOperationException.class, () -> noTx.commit());
+    Assert.assertThrows(UnsupportedOperationException.class,
+        () -> noTx.commit(Durability.SYNC));
     Assert.assertThrows(UnsupportedOperationException.class, () -> noTx.rollback());
   }
 
@@ -0,0 +1,129 @@
+package com.jetbrains.youtrackdb.internal.core.tx;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.jetbrains.youtrackdb.api.config.GlobalConfiguration;
+import com.jetbrains.youtrackdb.internal.DbTestBase;
+import com.jetbrains.youtrackdb.internal.core.db.record.record.Blob;
+import com.jetbrains.youtrackdb.internal.core.record.impl.RecordBytes;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import org.apache.commons.configuration2.Configuration;
+import org.junit.Test;
+
+/**
+ * Content of blobs which exceeds the in-memory budget of a transaction is moved to a temporary file,
+ * stays readable inside the transaction and is committed from there.
+ */
+public class TransactionBlobSpillTest extends DbTestBase {
+
+  private static final long THRESHOLD = 1024L;
+
+  @Override
+  protected Configuration createConfig() {
+    var config = super.createConfig();
+    config.setProperty(GlobalConfiguration.TX_BLOB_SPILL_THRESHOLD.getKey(), THRESHOLD);
+    return config;
+  }
+
+  @Test
+  public void blobsOverThresholdAreSpilledAndCommitted() {
+    session.addBlobCollection("SpilledBlobs");
+
+    final var contents = new ArrayList<byte[]>();
+    final var blobs = new ArrayList<Blob>();
+
+    session.begin();
+    for (var i = 0; i < 10; i++) {
+      final var content = new byte[300];
+      Arrays.fill(content, (byte) i);
+      contents.add(content);
+      blobs.add(session.newBlob(content));
+    }
+
+    // The first three blobs fit into the budget, the rest is spilled.
+    assertFalse(((RecordBytes) blobs.get(0)).isContentSpilled());
+    assertFalse(((RecordBytes) blobs.get(2)).isContentSpilled());
+    assertTrue(((RecordBytes) blobs.get(3)).isContentSpilled());
+    assertTrue(((RecordBytes) blobs.get(9)).isContentSpilled());
+
+    for (var i = 0; i < blobs.size(); i++) {
+      assertArrayEquals(contents.get(i), blobs.get(i).toStream());
+
+      final var out = new ByteArrayOutputStream();
+      blobs.get(i).toOutputStream(out);
+      assertArrayEquals(contents.get(i), out.toByteArray());
+    }
+    session.commit();
+
+    session.begin();
+    for (var i = 0; i < blobs.size(); i++) {
+      final Blob loaded = session.load(blobs.get(i).getIdentity());
+      assertArrayEquals(contents.get(i), loaded.toStream());
+    }
+    session.commit();
+  }
+
+  @Test
+  public void deletedBlobsReleaseTheBudget() {
+    session.addBlobCollection("DeletedBlobs");
+
+    session.begin();
+    final var first = (RecordBytes) session.newBlob(new byte[600]);
+    final var second = (RecordBytes) session.newBlob(new byte[600]);
+    assertFalse(first.isContentSpilled());
+    assertTrue(second.isContentSpilled());
+
+    session.delete(first);
+
+    // Content of the deleted blob is not kept by the transaction anymore, so the budget is free.
+    final var third = (RecordBytes) session.newBlob(new byte[600]);
+    assertFalse(third.isContentSpilled());
+    session.commit();
+  }
+
+  @Test
+  public void spillIsDiscardedOnRollback() {
+    session.addBlobCollection("RolledBackBlobs");
+
+    final var content = new byte[(int) THRESHOLD + 1];
+    Arrays.fill(content, (byte) 7);
+
+    session.begin();
+    final var blob = (RecordBytes) session.newBlob(content);
+    assertTrue(blob.isContentSpilled());
+    assertArrayEquals(content, blob.toStream());
+    session.rollback();
+
+    assertFalse(blob.isContentSpilled());
+  }
+
+  @Test
+  public void spilledBlobsAreNotRetainedInHeapUntilCommit() {
+    session.addBlobCollection("LargeBlobs");
+
+    final var blobSize = 1024 * 1024;
+    final var blobsCount = 32;
+    final var runtime = Runtime.getRuntime();
+
+    session.begin();
+    System.gc();
+    final var usedBefore = runtime.totalMemory() - runtime.freeMemory();
+    for (var i = 0; i < blobsCount; i++) {
+      final var content = new byte[blobSize];
+      Arrays.fill(content, (byte) i);
+      session.newBlob(content);
+    }
+    System.gc();
+    final var retained = runtime.totalMemory() - runtime.freeMemory() - usedBefore;
+
+    // Without the spill the transaction would keep all 32 MB of content until commit.
+    assertTrue(
+        "Transaction retains " + retained + " bytes of blob content",
+        retained < (long) blobSize * blobsCount / 4);
+    session.commit();
+  }
+}
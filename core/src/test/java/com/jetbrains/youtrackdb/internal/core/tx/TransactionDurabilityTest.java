@@ -0,0 +1,109 @@
+package com.jetbrains.youtrackdb.internal.core.tx;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.jetbrains.youtrackdb.api.DatabaseType;
+import com.jetbrains.youtrackdb.internal.DbTestBase;
+import com.jetbrains.youtrackdb.internal.core.storage.impl.local.paginated.wal.WriteAheadLog;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+
+/**
+ * Commits with {@link Durability#SYNC} and {@link Durability#GROUP} return only after the WAL is
+ * synced up to their commit records.
+ */
+public class TransactionDurabilityTest extends DbTestBase {
+
+  @Override
+  protected DatabaseType calculateDbType() {
+    return DatabaseType.DISK;
+  }
+
+  @Test
+  public void syncCommitIsDurable() {
+    session.getMetadata().getSchema().createClass("DurableClass");
+
+    session.begin();
+    session.newEntity("DurableClass").setProperty("val", 1);
+    session.commit(Durability.SYNC);
+
+    assertDurable(wal());
+  }
+
+  @Test
+  public void groupCommitIsDurable() {
+    session.getMetadata().getSchema().createClass("DurableClass");
+
+    session.begin();
+    session.newEntity("DurableClass").setProperty("val", 1);
+    session.commit(Durability.GROUP);
+
+    assertDurable(wal());
+  }
+
+  @Test
+  public void nestedCommitKeepsStrongestDurability() {
+    session.getMetadata().getSchema().createClass("DurableClass");
+
+    session.begin();
+    session.newEntity("DurableClass").setProperty("val", 1);
+    session.begin();
+    session.newEntity("DurableClass").setProperty("val", 2);
+    session.commit(Durability.SYNC);
+
+    var tx = (FrontendTransactionImpl) session.getTransactionInternal();
+    assertThat(tx.getDurability()).isEqualTo(Durability.SYNC);
+    session.commit(Durability.ASYNC);
+
+    assertDurable(wal());
+  }
+
+  @Test
+  public void concurrentGroupCommitsAreDurable() throws Exception {
+    session.getMetadata().getSchema().createClass("DurableClass");
+
+    final var threads = 8;
+    final var commitsPerThread = 50;
+    final var executor = Executors.newFixedThreadPool(threads);
+    try {
+      final var futures = new ArrayList<Future<Void>>();
+      for (var t = 0; t < threads; t++) {
+        final var thread = t;
+        futures.add(executor.submit((Callable<Void>) () -> {
+          try (var db = openDatabase()) {
+            for (var i = 0; i < commitsPerThread; i++) {
+              db.begin();
+              var entity = db.newEntity("DurableClass");
+              entity.setProperty("thread", thread);
+              entity.setProperty("val", i);
+              db.commit(Durability.GROUP);
+            }
+          }
+          return null;
+        }));
+      }
+
+      for (var future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    session.begin();
+    assertThat(session.countClass("DurableClass")).isEqualTo(threads * commitsPerThread);
+    session.commit();
+  }
+
+  private WriteAheadLog wal() {
+    return session.getStorage().getWALInstance();
+  }
+
+  private static void assertDurable(WriteAheadLog wal) {
+    final var end = wal.end();
+    assertThat(wal.getFlushedLsn()).isGreaterThanOrEqualTo(end);
+  }
+}
@@ -40,6 +40,7 @@ import com.jetbrains.youtrackdb.internal.core.gremlin.YTDBGraphFactory;
 import com.jetbrains.youtrackdb.internal.core.metadata.security.auth.AuthenticationInfo;
 import com.jetbrains.youtrackdb.internal.core.security.SecuritySystem;
 import com.jetbrains.youtrackdb.internal.server.config.ServerConfigurationManager;
+import com.jetbrains.youtrackdb.internal.server.plugin.gremlin.VirtualThreadRequestExecutor;
 import com.jetbrains.youtrackdb.internal.server.plugin.gremlin.YTDBSettings;
 import java.io.File;
 import java.io.IOException;
@@ -55,6 +56,7 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
@@ -92,6 +94,8 @@ public class YouTrackDBServer {
   private final Set<String> dbNamesCache = ConcurrentHashMap.newKeySet();
   private final ReentrantLock dbNamesCacheLock = new ReentrantLock();
   private volatile GremlinServer gremlinServer;
+  @Nullable
+  private volatile ExecutorService gremlinRequestExecutor;
 
   public YouTrackDBServer() {
     this(!YouTrackDBEnginesManager.instance().isInsideWebContainer());
@@ -278,7 +282,12 @@ public class YouTrackDBServer {
         l.onAfterActivate();
       }
 
-      gremlinServer = new GremlinServer(serverCfg.getConfiguration());
+      var gremlinSettings = serverCfg.getConfiguration();
+      if (gremlinSettings.useVirtualThreads) {
+        gremlinRequestExecutor = new VirtualThreadRequestExecutor("gremlin-request-",
+            gremlinSettings.maxConcurrentRequests);
+      }
+      gremlinServer = new GremlinServer(gremlinSettings, gremlinRequestExecutor);
       gremlinServer.start().join();
 
       running = true;
@@ -329,6 +338,11 @@ public class YouTrackDBServer {
       if (gremlinServer != null) {
         gremlinServer.stop().join();
       }
+      // Gremlin Server does not shut down the executors it was given
+      if (gremlinRequestExecutor != null) {
+        gremlinRequestExecutor.shutdownNow();
+        gremlinRequestExecutor = null;
+      }
 
       LogManager.instance().info(this, "YouTrackDB Server is shutting down...");
 
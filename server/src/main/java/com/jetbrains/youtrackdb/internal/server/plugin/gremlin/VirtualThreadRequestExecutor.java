@@ -0,0 +1,90 @@
+package com.jetbrains.youtrackdb.internal.server.plugin.gremlin;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/// Executor used by Gremlin Server for sessionless requests when [YTDBSettings#useVirtualThreads]
+/// is enabled. Each request is evaluated and its results are iterated on its own virtual thread,
+/// so requests parked on storage I/O or on the writability of a slow client channel do not hold a
+/// platform thread of the `gremlinPool`.
+///
+/// The number of requests in flight is limited by a semaphore instead of the pool size. Requests
+/// above the limit are rejected right away, which the op processors report to the client as
+/// `TOO_MANY_REQUESTS`: the submission happens on a Netty event loop that must never block.
+public final class VirtualThreadRequestExecutor extends AbstractExecutorService {
+
+  private final ExecutorService delegate;
+  private final Semaphore permits;
+  private final int maxConcurrentRequests;
+
+  public VirtualThreadRequestExecutor(final String threadNamePrefix,
+      final int maxConcurrentRequests) {
+    if (maxConcurrentRequests <= 0) {
+      throw new IllegalArgumentException(
+          "Maximum number of concurrent requests should be positive, but was "
+              + maxConcurrentRequests);
+    }
+
+    this.delegate = Executors.newThreadPerTaskExecutor(
+        Thread.ofVirtual().name(threadNamePrefix, 0).factory());
+    this.permits = new Semaphore(maxConcurrentRequests);
+    this.maxConcurrentRequests = maxConcurrentRequests;
+  }
+
+  @Override
+  public void execute(final Runnable command) {
+    if (!permits.tryAcquire()) {
+      throw new RejectedExecutionException(
+          "Limit of " + maxConcurrentRequests + " concurrent requests is reached");
+    }
+
+    try {
+      delegate.execute(() -> {
+        try {
+          command.run();
+        } finally {
+          permits.release();
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  /// Number of requests that can be started before new ones are rejected.
+  public int availablePermits() {
+    return permits.availablePermits();
+  }
+
+  @Override
+  public void shutdown() {
+    delegate.shutdown();
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    return delegate.shutdownNow();
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return delegate.isShutdown();
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return delegate.isTerminated();
+  }
+
+  @Override
+  public boolean awaitTermination(final long timeout, final TimeUnit unit)
+      throws InterruptedException {
+    return delegate.awaitTermination(timeout, unit);
+  }
+}
@@ -20,6 +20,7 @@ import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 import javax.script.Bindings;
 import javax.script.SimpleBindings;
 import org.apache.tinkerpop.gremlin.groovy.engine.GremlinExecutor;
@@ -59,9 +60,13 @@ public final class YTDBGremlinSession {
 
   /**
    * By binding the session to run ScriptEngine evaluations in a specific thread, each request will
-   * respect the ThreadLocal nature of Graph implementations.
+   * respect the ThreadLocal nature of Graph implementations. The thread is a virtual one when
+   * {@link YTDBSettings#useVirtualThreads} is enabled, so idle sessions do not hold platform
+   * threads.
    */
-  private final ExecutorService executor = Executors.newSingleThreadExecutor(threadFactoryWorker);
+  private final ExecutorService executor;
+
+  private final ReentrantLock killLock = new ReentrantLock();
 
   private final ConcurrentHashMap<String, YTDBGremlinSession> sessions;
 
@@ -74,6 +79,10 @@ public final class YTDBGremlinSession {
     this.session = session;
     this.bindings = new SimpleBindings();
     this.settings = context.getSettings();
+    this.executor = Executors.newSingleThreadExecutor(
+        settings instanceof YTDBSettings ytdbSettings && ytdbSettings.useVirtualThreads
+            ? Thread.ofVirtual().name("session-" + session).factory()
+            : threadFactoryWorker);
     this.scheduledExecutorService = context.getScheduledExecutorService();
     this.sessions = sessions;
 
@@ -169,7 +178,18 @@ public final class YTDBGremlinSession {
    * The force will try to cancel scheduled jobs and interrupt any currently running ones.
    * Interruption is not guaranteed, but an attempt will be made.
    */
-  public synchronized void kill(final boolean force) {
+  public void kill(final boolean force) {
+    // a lock instead of a monitor, so that waiting for the rollback below does not pin the carrier
+    // when the kill is triggered from a virtual thread
+    killLock.lock();
+    try {
+      doKill(force);
+    } finally {
+      killLock.unlock();
+    }
+  }
+
+  private void doKill(final boolean force) {
     killing.set(true);
 
     // if the session has already been removed then there's no need to do this process again.  it's possible that
@@ -20,6 +20,14 @@ public class YTDBSettings extends Settings {
   public Map<String, String> properties = new HashMap<>();
   public List<YTDBStorage> storages = new ArrayList<>();
 
+  /// Evaluate requests and iterate their results on virtual threads instead of the platform
+  /// threads of `gremlinPool`. Each session gets its own virtual thread as well.
+  public boolean useVirtualThreads = false;
+
+  /// Maximum number of sessionless requests processed at the same time when
+  /// [#useVirtualThreads] is enabled, requests above it are rejected as `TOO_MANY_REQUESTS`.
+  public int maxConcurrentRequests = 10_000;
+
   protected static NodeMapper createDefaultYamlConstructor() {
     final var options = new LoaderOptions();
 
@@ -0,0 +1,62 @@
+package com.jetbrains.youtrackdb.internal.server.plugin.gremlin;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class VirtualThreadRequestExecutorTest {
+
+  @Test
+  public void testRequestsRunOnVirtualThreads() throws Exception {
+    var executor = new VirtualThreadRequestExecutor("test-request-", 4);
+    try {
+      var virtual = executor.submit(() -> Thread.currentThread().isVirtual()).get(10,
+          TimeUnit.SECONDS);
+      Assert.assertTrue(virtual);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testRequestsAboveLimitAreRejected() throws Exception {
+    var executor = new VirtualThreadRequestExecutor("test-request-", 2);
+    var release = new CountDownLatch(1);
+    var started = new CountDownLatch(2);
+    try {
+      for (var i = 0; i < 2; i++) {
+        executor.execute(() -> {
+          started.countDown();
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        });
+      }
+      Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+      Assert.assertEquals(0, executor.availablePermits());
+
+      try {
+        executor.execute(() -> {
+        });
+        Assert.fail();
+      } catch (RejectedExecutionException e) {
+        // expected
+      }
+
+      release.countDown();
+      var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+      while (executor.availablePermits() < 2 && System.nanoTime() < deadline) {
+        Thread.sleep(10);
+      }
+      Assert.assertEquals(2, executor.availablePermits());
+      Assert.assertTrue(executor.submit(() -> true).get(10, TimeUnit.SECONDS));
+    } finally {
+      release.countDown();
+      executor.shutdownNow();
+    }
+  }
+}